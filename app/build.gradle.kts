@@ -37,6 +37,9 @@ android {
 }
 
 dependencies {
+    // Scanner, exchange connectivity and risk; shared with headless deployments
+    implementation(project(":core"))
+
     // ViewModel and LiveData components
     implementation("androidx.lifecycle:lifecycle-viewmodel:2.7.0")
     implementation("androidx.lifecycle:lifecycle-livedata:2.7.0")
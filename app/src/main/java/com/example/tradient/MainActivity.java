@@ -1,5 +1,6 @@
 package com.example.tradient;
 
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.view.MenuItem;
 
@@ -7,9 +8,12 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 
+import com.example.tradient.infrastructure.NotificationService;
+import com.example.tradient.infrastructure.notification.AsyncNotificationService;
 import com.example.tradient.ui.dashboard.DashboardFragment;
 import com.example.tradient.ui.opportunities.OpportunitiesFragment;
 import com.example.tradient.ui.strategies.StrategiesFragment;
+import com.example.tradient.util.AppLog;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
 public class MainActivity extends AppCompatActivity implements BottomNavigationView.OnNavigationItemSelectedListener {
@@ -18,6 +22,14 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        
+        // Route logging of the core module to logcat, off the scanning threads; debug
+        // messages are only built in debuggable builds. Installed once per process.
+        if (!(AppLog.getNotificationService() instanceof AsyncNotificationService)) {
+            boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+            AppLog.setNotificationService(new AsyncNotificationService(new NotificationService(debuggable)));
+        }
+        
         setContentView(R.layout.activity_main);
         
         // Initialize bottom navigation
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.util.Log;
 
+import com.example.tradient.data.http.ExchangeLatencyTracker;
 import com.example.tradient.data.interfaces.IExchangeService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
@@ -97,7 +98,7 @@ public class TransactionTimeEstimator {
         OrderBook orderBook = exchange.getOrderBook(tradingPair);
         Ticker ticker = exchange.getTicker(tradingPair);
         
-        double estimate = calculateExecutionTimeEstimate(orderBook, ticker, amount, isBuy);
+        double estimate = calculateExecutionTimeEstimate(exchangeName, orderBook, ticker, amount, isBuy);
         
         // Cache the result
         executionTimeCache
@@ -252,12 +253,17 @@ public class TransactionTimeEstimator {
     }
     
     /**
-     * Calculate execution time estimate based on order book depth and market activity
+     * Calculate execution time estimate based on order book depth, market activity
+     * and the measured API latency of the exchange
      */
-    private double calculateExecutionTimeEstimate(OrderBook orderBook, Ticker ticker, 
+    private double calculateExecutionTimeEstimate(String exchangeName, OrderBook orderBook, Ticker ticker, 
                                                  double amount, boolean isBuy) {
+        // Use measured latency as the baseline once the exchange has enough calls
+        double measuredSeconds = ExchangeLatencyTracker.getInstance().getOrderExecutionSeconds(exchangeName);
+        double baseEstimate = measuredSeconds >= 0 ? measuredSeconds : DEFAULT_EXECUTION_TIME_SECONDS;
+        
         if (orderBook == null || ticker == null) {
-            return DEFAULT_EXECUTION_TIME_SECONDS;
+            return baseEstimate;
         }
         
         // Base estimate on volume and order book depth
@@ -273,7 +279,6 @@ public class TransactionTimeEstimator {
         double depthFactor = Math.log10(1 + depth) * 2.0;      // Depth has more impact
         
         // Combine factors (higher volume reduces time, higher depth increases time)
-        double baseEstimate = DEFAULT_EXECUTION_TIME_SECONDS;
         double adjustedEstimate = baseEstimate * (1 + depthFactor) / (1 + volumeFactor);
         
         // Ensure reasonable bounds
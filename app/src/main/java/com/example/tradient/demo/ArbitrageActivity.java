@@ -26,9 +26,11 @@ import com.example.tradient.data.service.KrakenExchangeService;
 import com.example.tradient.data.service.OkxExchangeService;
 import com.example.tradient.domain.risk.SlippageAnalyticsBuilder;
 import com.example.tradient.domain.engine.ExchangeToExchangeArbitrage;
+import com.example.tradient.domain.position.PositionSizer;
 import com.example.tradient.domain.risk.RiskCalculator;
 import com.example.tradient.domain.risk.SlippageManagerService;
 import com.example.tradient.domain.risk.SlippageStressTester;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
 import com.example.tradient.util.RiskAssessmentAdapter;
 
 import java.util.ArrayList;
@@ -38,8 +40,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -63,12 +64,16 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
     private SlippageManagerService slippageManager;
     private SlippageAnalyticsBuilder slippageAnalytics;
     
+    // Kelly-based sizing, capped at MAX_POSITION_PERCENT of the capital
+    private PositionSizer positionSizer;
+    
     // UI components
     private TextView statusTextView;
     private TextView opportunitiesTextView;
     
-    // Background task executor
-    private ScheduledExecutorService scheduler;
+    // Shared pools for initialization and the periodic scans
+    private final TaskScheduler taskScheduler = TaskScheduler.getInstance();
+    private ScheduledFuture<?> scanTask;
     
     // List of exchanges
     private List<ExchangeService> exchanges = new ArrayList<>();
@@ -84,8 +89,8 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
         
         updateStatus("Initializing arbitrage system...");
         
-        // Start initialization in background thread
-        new Thread(this::initializeArbitrageSystem).start();
+        // Initialization fetches trading pairs, so it runs on the network pool
+        taskScheduler.submit(TaskScheduler.Workload.NETWORK_IO, this::initializeArbitrageSystem);
     }
     
     /**
@@ -155,6 +160,8 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
         MIN_PROFIT_PERCENT = arbitrageConfig.getMinProfitPercent();
         AVAILABLE_CAPITAL = arbitrageConfig.getAvailableCapital();
         MAX_POSITION_PERCENT = arbitrageConfig.getMaxPositionPercent();
+        // Position limits are configured in percent, the sizer works with fractions
+        positionSizer = new PositionSizer(MAX_POSITION_PERCENT / 100.0, 0.5, 10.0);
 
         // Load risk configuration
         RiskConfiguration riskConfig = ConfigurationFactory.getRiskConfig();
@@ -166,7 +173,7 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
         logInfo("Configuration loaded successfully:");
         logInfo("- Min Profit %: " + MIN_PROFIT_PERCENT);
         logInfo("- Available Capital: $" + AVAILABLE_CAPITAL);
-        logInfo("- Max Position %: " + (MAX_POSITION_PERCENT * 100) + "%");
+        logInfo("- Max Position %: " + MAX_POSITION_PERCENT + "%");
         logInfo("- Max Slippage %: " + (MAX_SLIPPAGE_PERCENT * 100) + "%");
     }
     
@@ -452,14 +459,11 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
      * Schedule periodic arbitrage scans
      */
     private void schedulePeriodicScans(List<ExchangeService> exchanges, Set<String> tradableSymbols) {
-        // Cancel any existing scheduler
-        if (scheduler != null) {
-            scheduler.shutdownNow();
+        // Cancel any existing scans
+        if (scanTask != null) {
+            scanTask.cancel(false);
         }
         
-        // Create a new scheduler
-        scheduler = Executors.newScheduledThreadPool(1);
-        
         // Get scan interval from configuration (default: 5 seconds)
         int scanInterval = ConfigurationFactory.getInteger("system.scheduling.arbitrageScanInterval", 5000);
         
@@ -472,8 +476,9 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
             }
         };
         
-        // Schedule the task to run periodically
-        scheduler.scheduleAtFixedRate(task, 1000, scanInterval, TimeUnit.MILLISECONDS);
+        // Schedule the task to run periodically; a scan still running skips the next tick
+        scanTask = taskScheduler.scheduleAtFixedRate(TaskScheduler.Workload.CPU_SCAN, task,
+                1000, scanInterval, TimeUnit.MILLISECONDS);
         
         logInfo("Scheduled arbitrage scans every " + (scanInterval / 1000) + " seconds");
     }
@@ -644,10 +649,9 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
             opportunity.setSellTicker(sellTicker);
             
             // Calculate optimal position size
-            double optimalPositionSize = calculateOptimalPositionSize(
+            double optimalPositionSize = positionSizer.calculateOptimalPositionSize(
                 opportunity,
-                AVAILABLE_CAPITAL,
-                MAX_POSITION_PERCENT
+                AVAILABLE_CAPITAL
             );
             
             // Calculate expected slippage
@@ -699,66 +703,6 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
         return sb.toString();
     }
 
-    /**
-     * Calculates the optimal position size for an arbitrage opportunity based on risk assessment.
-     *
-     * @param opportunity The arbitrage opportunity to size
-     * @param availableCapital Total capital available for trading
-     * @param maxPositionPct Maximum position size as percentage of capital
-     * @return Optimal position size in base currency units
-     */
-    private double calculateOptimalPositionSize(ArbitrageOpportunity opportunity, double availableCapital, double maxPositionPct) {
-        // Validate inputs
-        RiskAssessment risk = RiskAssessmentAdapter.getRiskAssessment(opportunity);
-        if (opportunity == null || risk == null) {
-            return 0.0;
-        }
-
-        // Extract key risk factors
-        double overallRisk = risk.getOverallRiskScore();
-        double slippageRisk = risk.getSlippageRisk();
-        double liquidityScore = risk.getLiquidityScore();
-        double volatilityScore = risk.getVolatilityScore();
-
-        // Calculate win probability (using overall risk as a proxy)
-        double winProbability = Math.min(0.95, overallRisk * 0.9 + 0.05);
-
-        // Calculate potential profit and loss
-        double potentialProfit = opportunity.getProfitPercent() / 100.0;
-        double potentialLoss = 1.0 - slippageRisk; // Use slippage risk as a proxy for potential loss
-
-        // Calculate Kelly fraction (optimal bet size as fraction of capital)
-        double kellyFraction = 0.0;
-        if (potentialLoss > 0) {
-            kellyFraction = (winProbability * (1 + potentialProfit) - 1) / potentialLoss;
-        }
-
-        // Apply a safety factor (using half Kelly or less is common practice)
-        double safetyFactor = 0.5;
-        kellyFraction *= safetyFactor;
-
-        // Cap the position size
-        double cappedFraction = Math.min(kellyFraction, maxPositionPct);
-
-        // Apply additional risk-based scaling factors
-        double liquidityAdjustment = Math.pow(liquidityScore, 1.5); // Penalize low liquidity more aggressively
-        double volatilityAdjustment = Math.pow(volatilityScore, 1.2); // Slightly reduce size for high volatility
-
-        // Calculate final position size with all constraints
-        double optimalFraction = cappedFraction * liquidityAdjustment * volatilityAdjustment;
-
-        // Convert fraction to actual position size
-        double positionSize = availableCapital * optimalFraction;
-
-        // Implement minimum position size threshold (to avoid dust positions)
-        double minimumPositionSize = 10.0; // Example minimum size in base currency
-        if (positionSize < minimumPositionSize) {
-            return 0.0; // Don't trade if optimal size is too small
-        }
-
-        return positionSize;
-    }
-
     /**
      * Calculates expected slippage for a given trade size.
      * This version uses the advanced slippage calculator with dynamic calibration.
@@ -842,10 +786,10 @@ public class ArbitrageActivity extends AppCompatActivity implements INotificatio
     protected void onDestroy() {
         super.onDestroy();
         
-        // Shutdown the scheduler
-        if (scheduler != null) {
-            scheduler.shutdownNow();
-            scheduler = null;
+        // Stop the scans; the shared pools stay up for the rest of the app
+        if (scanTask != null) {
+            scanTask.cancel(false);
+            scanTask = null;
         }
         
         // Close WebSocket connections
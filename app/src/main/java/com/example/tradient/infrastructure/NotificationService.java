@@ -12,6 +12,19 @@ public class NotificationService implements INotificationService {
     
     private static final String TAG = "TradientNotification";
     
+    private final boolean debugEnabled;
+    
+    public NotificationService() {
+        this(true);
+    }
+    
+    /**
+     * @param debugEnabled Whether debug messages are logged, e.g. only in debuggable builds
+     */
+    public NotificationService(boolean debugEnabled) {
+        this.debugEnabled = debugEnabled;
+    }
+    
     @Override
     public void logInfo(String message) {
         Log.i(TAG, message);
@@ -29,7 +42,14 @@ public class NotificationService implements INotificationService {
     
     @Override
     public void logDebug(String message) {
-        Log.d(TAG, message);
+        if (debugEnabled) {
+            Log.d(TAG, message);
+        }
+    }
+    
+    @Override
+    public boolean isDebugEnabled() {
+        return debugEnabled;
     }
 
     @Override
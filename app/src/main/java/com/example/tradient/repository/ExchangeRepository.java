@@ -16,6 +16,7 @@ import com.example.tradient.data.service.ExchangeService;
 import com.example.tradient.data.service.KrakenExchangeService;
 import com.example.tradient.data.service.OkxExchangeService;
 import com.example.tradient.infrastructure.ExchangeRegistry;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,8 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 /**
  * Repository responsible for managing exchange services and data access
@@ -33,7 +33,7 @@ public class ExchangeRepository {
     private static final String TAG = "ExchangeRepository";
     
     private final Context context;
-    private final ExecutorService executorService;
+    private final Executor executorService;
     private final Map<String, ExchangeService> exchangeServices = new ConcurrentHashMap<>();
     private final Map<String, List<TradingPair>> tradingPairsCache = new ConcurrentHashMap<>();
     private final Map<String, Map<String, Ticker>> tickerCache = new ConcurrentHashMap<>();
@@ -88,7 +88,7 @@ public class ExchangeRepository {
      */
     public ExchangeRepository(Context context) {
         this.context = context;
-        this.executorService = Executors.newCachedThreadPool();
+        this.executorService = TaskScheduler.getInstance().executor(TaskScheduler.Workload.NETWORK_IO);
         initializeRegistry();
     }
     
@@ -306,8 +306,6 @@ public class ExchangeRepository {
      * Cleanup resources
      */
     public void cleanup() {
-        executorService.shutdownNow();
-        
         // Close WebSocket connections
         for (ExchangeService exchange : exchangeServices.values()) {
             try {
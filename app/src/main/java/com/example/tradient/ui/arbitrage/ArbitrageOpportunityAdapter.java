@@ -17,9 +17,9 @@ import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.domain.risk.EnhancedRiskService;
 import com.example.tradient.domain.risk.UnifiedRiskCalculator;
 import com.example.tradient.domain.risk.RiskEnsurer;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
 
 import java.util.List;
-import java.util.concurrent.Executors;
 
 public class ArbitrageOpportunityAdapter extends RecyclerView.Adapter<ArbitrageOpportunityAdapter.ViewHolder> {
     private static final String TAG = "ArbitrageOpportunityAdapter";
@@ -155,7 +155,7 @@ public class ArbitrageOpportunityAdapter extends RecyclerView.Adapter<ArbitrageO
                             updateRiskDisplay(holder, unknownAssessment);
                         });
                     }
-                }, Executors.newSingleThreadExecutor())
+                }, TaskScheduler.getInstance().executor(TaskScheduler.Workload.RISK))
                 .exceptionally(ex -> {
                     // Log the full exception
                     Log.e(TAG, "Error calculating risk assessment for " + getPairString(opportunity), ex);
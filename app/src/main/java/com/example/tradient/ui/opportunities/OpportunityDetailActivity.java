@@ -28,6 +28,7 @@ import com.example.tradient.domain.risk.RiskCalculator;
 import com.example.tradient.domain.risk.UnifiedRiskCalculator;
 import com.example.tradient.domain.risk.RiskEnsurer;
 import com.example.tradient.infrastructure.ExchangeRegistry;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
 import com.example.tradient.repository.ExchangeRepository;
 import com.example.tradient.util.RiskAssessmentAdapter;
 import com.example.tradient.util.TimeEstimationUtil;
@@ -37,9 +38,8 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Date;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A simplified activity to display details about arbitrage opportunities.
@@ -82,7 +82,7 @@ public class OpportunityDetailActivity extends AppCompatActivity {
     private ArbitrageOpportunity opportunity;
     private UnifiedRiskCalculator unifiedRiskCalculator;
     private ExchangeRepository exchangeRepository;
-    private ExecutorService executorService;
+    private Future<?> refreshTask;
     
     // Formatters
     private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
@@ -103,17 +103,16 @@ public class OpportunityDetailActivity extends AppCompatActivity {
         
         // Get opportunity from intent
         if (getIntent() != null && getIntent().hasExtra("opportunity")) {
-            opportunity = getIntent().getParcelableExtra("opportunity");
+            opportunity = (ArbitrageOpportunity) getIntent().getSerializableExtra("opportunity");
             if (opportunity != null) {
                 // Set up services
                 unifiedRiskCalculator = UnifiedRiskCalculator.getInstance();
                 exchangeRepository = new ExchangeRepository(this);
-                executorService = Executors.newCachedThreadPool();
                 
                 // Ensure consistent risk values before display
                 opportunity = RiskEnsurer.ensureRiskValues(opportunity, true);
                 
-                // Display data from the Parcelable first
+                // Display data from the intent first
                 displayOpportunityData();
                 
                 // Then queue up a refresh to get real-time data
@@ -154,17 +153,9 @@ public class OpportunityDetailActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Shutdown executor service
-        if (executorService != null) {
-            executorService.shutdown();
-            try {
-                if (!executorService.awaitTermination(500, TimeUnit.MILLISECONDS)) {
-                    executorService.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                executorService.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        // Stop a refresh still in progress
+        if (refreshTask != null) {
+            refreshTask.cancel(true);
         }
     }
     
@@ -535,86 +526,94 @@ public class OpportunityDetailActivity extends AppCompatActivity {
     private void refreshData() {
         if (opportunity == null) return;
         
+        // Skip if the previous refresh hasn't finished yet
+        if (refreshTask != null && !refreshTask.isDone()) return;
+        
         // Set loading state
         setLoadingState(true);
         
-        // Use executor service to perform refresh in background
-        executorService.submit(() -> {
-            try {
-                Log.d(TAG, "Starting data refresh for " + opportunity.getSymbol());
-                
-                // Get the exchange services from the registry
-                ExchangeRegistry registry = ExchangeRegistry.getInstance(new LoggingNotificationService());
-                ExchangeService buyExchangeService = registry.getExchange(opportunity.getBuyExchangeName().toLowerCase());
-                ExchangeService sellExchangeService = registry.getExchange(opportunity.getSellExchangeName().toLowerCase());
-                
-                if (buyExchangeService == null || sellExchangeService == null) {
-                    runOnUiThread(() -> {
-                        Snackbar.make(findViewById(android.R.id.content), 
-                                "Could not find exchange services", Snackbar.LENGTH_SHORT).show();
-                        setLoadingState(false);
-                    });
-                    return;
-                }
-                
-                // Get tickers for both exchanges
-                Ticker buyTicker = buyExchangeService.getTickerData(opportunity.getSymbolBuy());
-                Ticker sellTicker = sellExchangeService.getTickerData(opportunity.getSymbolSell());
-                
-                // Update prices if tickers are available
-                if (buyTicker != null && sellTicker != null) {
-                    double newBuyPrice = buyTicker.getLastPrice();
-                    double newSellPrice = sellTicker.getLastPrice();
-                    
-                    Log.d(TAG, String.format("Fetched prices - Buy: %.8f, Sell: %.8f", newBuyPrice, newSellPrice));
-                    
-                    // Calculate new profit percentage
-                    double newProfitPercent = ((newSellPrice - newBuyPrice) / newBuyPrice) * 100;
-                    
-                    // Get proper fee information from exchange services
-                    double buyFee = buyExchangeService.getFeePercentage(opportunity.getSymbolBuy(), false) * 100; // Convert to percentage
-                    double sellFee = sellExchangeService.getFeePercentage(opportunity.getSymbolSell(), true) * 100; // Convert to percentage
-                    
-                    Log.d(TAG, String.format("Fetched fees - Buy: %.4f%%, Sell: %.4f%%", buyFee, sellFee));
+        // Perform refresh in background
+        try {
+            refreshTask = TaskScheduler.getInstance().submit(TaskScheduler.Workload.UI_BOUND, () -> {
+                try {
+                    Log.d(TAG, "Starting data refresh for " + opportunity.getSymbol());
                     
-                    // Register correct fees in the opportunity
-                    opportunity.setBuyFeePercentage(buyFee);
-                    opportunity.setSellFeePercentage(sellFee);
+                    // Get the exchange services from the registry
+                    ExchangeRegistry registry = ExchangeRegistry.getInstance(new LoggingNotificationService());
+                    ExchangeService buyExchangeService = registry.getExchange(opportunity.getBuyExchangeName().toLowerCase());
+                    ExchangeService sellExchangeService = registry.getExchange(opportunity.getSellExchangeName().toLowerCase());
                     
-                    // Update the opportunity with new data
-                    opportunity.setBuyTicker(buyTicker);
-                    opportunity.setSellTicker(sellTicker);
-                    opportunity.setTimestamp(new Date());
+                    if (buyExchangeService == null || sellExchangeService == null) {
+                        runOnUiThread(() -> {
+                            Snackbar.make(findViewById(android.R.id.content), 
+                                    "Could not find exchange services", Snackbar.LENGTH_SHORT).show();
+                            setLoadingState(false);
+                        });
+                        return;
+                    }
                     
-                    // Ensure consistent risk values with the new data
-                    opportunity = RiskEnsurer.ensureRiskValues(opportunity, true);
-                    
-                    // Update UI on main thread
-                    runOnUiThread(() -> {
-                        displayOpportunityData();
-                        Snackbar.make(findViewById(android.R.id.content), 
-                                "Data refreshed with accurate risk values", Snackbar.LENGTH_SHORT).show();
-                    });
-                } else {
-                    Log.e(TAG, "Failed to get ticker data - Buy ticker: " + 
-                          (buyTicker == null ? "null" : "ok") + ", Sell ticker: " + 
-                          (sellTicker == null ? "null" : "ok"));
+                    // Get tickers for both exchanges
+                    Ticker buyTicker = buyExchangeService.getTickerData(opportunity.getSymbolBuy());
+                    Ticker sellTicker = sellExchangeService.getTickerData(opportunity.getSymbolSell());
                     
+                    // Update prices if tickers are available
+                    if (buyTicker != null && sellTicker != null) {
+                        double newBuyPrice = buyTicker.getLastPrice();
+                        double newSellPrice = sellTicker.getLastPrice();
+                        
+                        Log.d(TAG, String.format("Fetched prices - Buy: %.8f, Sell: %.8f", newBuyPrice, newSellPrice));
+                        
+                        // Calculate new profit percentage
+                        double newProfitPercent = ((newSellPrice - newBuyPrice) / newBuyPrice) * 100;
+                        
+                        // Get proper fee information from exchange services
+                        double buyFee = buyExchangeService.getFeePercentage(opportunity.getSymbolBuy(), false) * 100; // Convert to percentage
+                        double sellFee = sellExchangeService.getFeePercentage(opportunity.getSymbolSell(), true) * 100; // Convert to percentage
+                        
+                        Log.d(TAG, String.format("Fetched fees - Buy: %.4f%%, Sell: %.4f%%", buyFee, sellFee));
+                        
+                        // Register correct fees in the opportunity
+                        opportunity.setBuyFeePercentage(buyFee);
+                        opportunity.setSellFeePercentage(sellFee);
+                        
+                        // Update the opportunity with new data
+                        opportunity.setBuyTicker(buyTicker);
+                        opportunity.setSellTicker(sellTicker);
+                        opportunity.setTimestamp(new Date());
+                        
+                        // Ensure consistent risk values with the new data
+                        opportunity = RiskEnsurer.ensureRiskValues(opportunity, true);
+                        
+                        // Update UI on main thread
+                        runOnUiThread(() -> {
+                            displayOpportunityData();
+                            Snackbar.make(findViewById(android.R.id.content), 
+                                    "Data refreshed with accurate risk values", Snackbar.LENGTH_SHORT).show();
+                        });
+                    } else {
+                        Log.e(TAG, "Failed to get ticker data - Buy ticker: " + 
+                              (buyTicker == null ? "null" : "ok") + ", Sell ticker: " + 
+                              (sellTicker == null ? "null" : "ok"));
+                        
+                        runOnUiThread(() -> {
+                            Snackbar.make(findViewById(android.R.id.content), 
+                                    "Could not get latest prices", Snackbar.LENGTH_SHORT).show();
+                            setLoadingState(false);
+                        });
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error refreshing data", e);
                     runOnUiThread(() -> {
                         Snackbar.make(findViewById(android.R.id.content), 
-                                "Could not get latest prices", Snackbar.LENGTH_SHORT).show();
+                                "Error: " + e.getMessage(), Snackbar.LENGTH_SHORT).show();
                         setLoadingState(false);
                     });
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error refreshing data", e);
-                runOnUiThread(() -> {
-                    Snackbar.make(findViewById(android.R.id.content), 
-                            "Error: " + e.getMessage(), Snackbar.LENGTH_SHORT).show();
-                    setLoadingState(false);
-                });
-            }
-        });
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Background pool busy, skipping refresh");
+            setLoadingState(false);
+        }
     }
     
     /**
@@ -7,17 +7,31 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.tradient.config.ConfigurationFactory;
+import com.example.tradient.config.ConfigurationSnapshot;
+import com.example.tradient.config.YamlConfigurationService;
+import com.example.tradient.data.http.LatencyHistogram;
 import com.example.tradient.data.model.ArbitrageOpportunity;
-import com.example.tradient.data.model.ExchangeConfiguration;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.service.ExchangeService;
+import com.example.tradient.domain.engine.OpportunityDetector;
+import com.example.tradient.domain.position.PortfolioAllocator;
+import com.example.tradient.domain.position.PositionSizer;
 import com.example.tradient.domain.risk.SlippageAnalyticsBuilder;
 import com.example.tradient.domain.risk.SlippageManagerService;
+import com.example.tradient.domain.risk.UnifiedRiskCalculator;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.infrastructure.metrics.Counter;
+import com.example.tradient.infrastructure.metrics.LatencyTracer;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
 import com.example.tradient.repository.ExchangeRepository;
 import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.domain.risk.RiskCalculator;
+import com.example.tradient.util.AppLog;
 import com.example.tradient.util.ArbitrageProcessing;
+import com.example.tradient.util.LogLimiter;
+import com.example.tradient.util.MarketClock;
 import com.example.tradient.util.RiskAssessmentAdapter;
+import com.example.tradient.util.SymbolNormalizer;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,25 +41,28 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 public class ArbitrageViewModel extends ViewModel {
     private static final String TAG = "ArbitrageViewModel";
+    private static final LogLimiter INVALID_PRICES = LogLimiter.rate(5, 10_000);
+    private static final LogLimiter FOUND_OPPORTUNITIES = LogLimiter.rate(10, 10_000);
 
-    // Configuration values
-    private double minProfitPercent = 0.1;
-    private double availableCapital = 1000.0;
-    private double maxPositionPercent = 10.0;
-    private double maxSlippagePercent = 0.5;
+    // Configuration values, refreshed whenever the configuration is reloaded
+    private volatile double minProfitPercent = 0.1;
+    private volatile double availableCapital = 1000.0;
+    private volatile double maxPositionPercent = 10.0;
+    private volatile double maxSlippagePercent = 0.5;
     
-    // Exchange configuration
-    private ExchangeConfiguration exchangeConfig;
+    // Applies reloaded configuration without restarting the scan
+    private final Consumer<ConfigurationSnapshot> configReloadListener = this::applyConfiguration;
     
     // Map to store exchange symbol mappings
     private Map<ExchangeService, Map<String, String>> exchangeSymbolMap = new ConcurrentHashMap<>();
@@ -56,15 +73,19 @@ public class ArbitrageViewModel extends ViewModel {
     // Service instances
     private SlippageManagerService slippageManager;
     
+    // Shares the available capital across all live opportunities
+    private PositionSizer positionSizer;
+    private PortfolioAllocator portfolioAllocator;
+    private final UnifiedRiskCalculator riskCalculator = UnifiedRiskCalculator.getInstance();
+    
     // Cache for ticker data
     private Map<String, Ticker> cachedTickers = new ConcurrentHashMap<>();
     private Map<String, Long> tickerTimestamps = new ConcurrentHashMap<>();
     private static final long TICKER_CACHE_TTL = 2000; // 2 seconds
     
-    // Background task executors
-    private ExecutorService exchangeInitExecutor;
-    private ExecutorService arbitrageProcessExecutor;
-    private ScheduledExecutorService scheduler;
+    // Background work runs on the shared pools
+    private final TaskScheduler taskScheduler = TaskScheduler.getInstance();
+    private ScheduledFuture<?> scanTask;
     
     // List of exchanges
     private List<ExchangeService> exchanges = Collections.synchronizedList(new ArrayList<>());
@@ -77,6 +98,13 @@ public class ArbitrageViewModel extends ViewModel {
     private AtomicInteger opportunitiesFound = new AtomicInteger(0);
     private AtomicInteger symbolsWithoutData = new AtomicInteger(0);
     private AtomicInteger totalOpportunitiesFound = new AtomicInteger(0);
+    private final LatencyHistogram scanTime = MetricsRegistry.getInstance()
+            .histogram(OpportunityDetector.SCAN_DURATION, "source", "app");
+    private final Counter opportunitiesOpened = MetricsRegistry.getInstance()
+            .counter(OpportunityDetector.OPPORTUNITIES_OPENED, "source", "app");
+    private final Counter opportunitiesClosed = MetricsRegistry.getInstance()
+            .counter(OpportunityDetector.OPPORTUNITIES_CLOSED, "source", "app");
+    private final LatencyTracer tracer = LatencyTracer.getInstance();
     
     // Flags to track initialization progress
     private boolean configLoaded = false;
@@ -84,10 +112,6 @@ public class ArbitrageViewModel extends ViewModel {
     private int exchangesInitialized = 0;
     private int exchangesWithWebSockets = 0;
     
-    // Cache for normalized symbol calculations
-    private final Map<String, String> normalizedSymbolCache = new ConcurrentHashMap<>();
-    private static final Pattern SEPARATOR_PATTERN = Pattern.compile("[-_.]");
-    
     // Observer pattern implementation with LiveData
     private final MutableLiveData<String> statusMessage = new MutableLiveData<>();
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
@@ -99,14 +123,7 @@ public class ArbitrageViewModel extends ViewModel {
     
     public ArbitrageViewModel(ExchangeRepository exchangeRepository) {
         this.exchangeRepository = exchangeRepository;
-        this.exchangeConfig = ConfigurationFactory.getExchangeConfig();
-        initExecutors();
-    }
-    
-    private void initExecutors() {
-        exchangeInitExecutor = Executors.newFixedThreadPool(3);
-        arbitrageProcessExecutor = Executors.newWorkStealingPool();
-        scheduler = Executors.newScheduledThreadPool(1);
+        YamlConfigurationService.getInstance().addReloadListener(configReloadListener);
     }
     
     /**
@@ -131,15 +148,12 @@ public class ArbitrageViewModel extends ViewModel {
             }
             
             // Cancel any existing scanning task
-            if (scheduler != null) {
-                scheduler.shutdownNow();
+            if (scanTask != null) {
+                scanTask.cancel(false);
             }
             
-            // Create a new scheduler
-            scheduler = Executors.newScheduledThreadPool(1);
-            
-            // Schedule repeated scans at fixed rate
-            scheduler.scheduleAtFixedRate(() -> {
+            // Schedule repeated scans at fixed rate; a scan still running skips the next tick
+            scanTask = taskScheduler.scheduleAtFixedRate(TaskScheduler.Workload.CPU_SCAN, () -> {
                 try {
                     runArbitrageScan();
                     updateStats();
@@ -183,18 +197,7 @@ public class ArbitrageViewModel extends ViewModel {
             Log.i(TAG, "Loading configuration...");
             
             // Set values from configuration
-            this.minProfitPercent = exchangeConfig.getMinProfitPercent();
-            this.availableCapital = exchangeConfig.getAvailableCapital();
-            this.maxPositionPercent = exchangeConfig.getMaxPositionPercent();
-            this.maxSlippagePercent = exchangeConfig.getMaxSlippagePercent();
-            
-            // Set default values if configuration returns zeroes
-            if (this.minProfitPercent <= 0) this.minProfitPercent = 0.1;
-            if (this.availableCapital <= 0) this.availableCapital = 1000.0;
-            if (this.maxPositionPercent <= 0) this.maxPositionPercent = 10.0;
-            if (this.maxSlippagePercent <= 0) this.maxSlippagePercent = 0.5;
-            
-            Log.i(TAG, "Configuration loaded with MIN_PROFIT_PERCENT=" + minProfitPercent + "%");
+            applyConfiguration(ConfigurationFactory.getSnapshot());
             
             // Initialize the slippage manager
             SlippageAnalyticsBuilder slippageAnalytics = SlippageAnalyticsBuilder.create();
@@ -232,7 +235,7 @@ public class ArbitrageViewModel extends ViewModel {
     
     private void fetchTradingPairsForAllExchanges() {
         for (ExchangeService exchange : exchanges) {
-            exchangeInitExecutor.submit(() -> fetchTradingPairsForExchange(exchange));
+            taskScheduler.submit(TaskScheduler.Workload.NETWORK_IO, () -> fetchTradingPairsForExchange(exchange));
         }
     }
     
@@ -340,71 +343,7 @@ public class ArbitrageViewModel extends ViewModel {
     }
     
     public String normalizeSymbol(String originalSymbol) {
-        if (originalSymbol == null || originalSymbol.isEmpty()) {
-            return "";
-        }
-        
-        // Check cache first using ConcurrentHashMap's thread-safe get method
-        String cached = normalizedSymbolCache.get(originalSymbol);
-        if (cached != null) {
-            return cached;
-        }
-        
-        // Initialize with default value
-        String normalized = originalSymbol.toUpperCase();
-        
-        // Handle common formats
-        if (originalSymbol.contains("/")) {
-            // Already in standard format like BTC/USDT
-            normalized = originalSymbol.toUpperCase();
-        } else {
-            // Handle formats like BTCUSDT, BTC-USDT, BTC_USDT
-            String clean = SEPARATOR_PATTERN.matcher(originalSymbol).replaceAll("");
-            
-            // Special case for Coinbase, which uses format like BTC-USDT
-            if (originalSymbol.contains("-")) {
-                String[] parts = originalSymbol.split("-");
-                if (parts.length == 2) {
-                    normalized = parts[0].toUpperCase() + "/" + parts[1].toUpperCase();
-                    // Use putIfAbsent for thread safety
-                    normalizedSymbolCache.putIfAbsent(originalSymbol, normalized);
-                    return normalized;
-                }
-            }
-            
-            // Standardize common base/quote pairs
-            if (clean.endsWith("USDT")) {
-                normalized = clean.substring(0, clean.length() - 4) + "/USDT";
-            } else if (clean.endsWith("USD")) {
-                normalized = clean.substring(0, clean.length() - 3) + "/USD";
-            } else if (clean.endsWith("BTC")) {
-                normalized = clean.substring(0, clean.length() - 3) + "/BTC";
-            } else if (clean.endsWith("ETH")) {
-                normalized = clean.substring(0, clean.length() - 3) + "/ETH";
-            } else if (clean.length() > 3) {
-                // Try to intelligently split between base and quote
-                String[] commonQuotes = {"USDT", "USD", "BTC", "ETH", "BNB", "BUSD"};
-                boolean found = false;
-                
-                for (String quote : commonQuotes) {
-                    if (clean.endsWith(quote)) {
-                        normalized = clean.substring(0, clean.length() - quote.length()) + "/" + quote;
-                        found = true;
-                        break;
-                    }
-                }
-                
-                if (!found) {
-                    // Default assumption: first 3-4 chars are the base currency
-                    normalized = clean.substring(0, Math.min(4, clean.length() / 2)) + "/" + 
-                               clean.substring(Math.min(4, clean.length() / 2));
-                }
-            }
-        }
-        
-        // Cache the result with putIfAbsent for thread safety
-        normalizedSymbolCache.putIfAbsent(originalSymbol, normalized);
-        return normalized;
+        return SymbolNormalizer.normalize(originalSymbol);
     }
 
     private void updateInitializationProgress(String key, Object value) {
@@ -437,25 +376,92 @@ public class ArbitrageViewModel extends ViewModel {
                 return;
             }
             
-            // Get current ticker data for all exchanges
-            for (ExchangeService exchange : exchanges) {
-                arbitrageProcessExecutor.submit(() -> {
-                    try {
-                        processExchangeTickers(exchange);
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error processing tickers for " + exchange.getExchangeName(), e);
-                        errorMessage.postValue("Error processing " + exchange.getExchangeName() + ": " + e.getMessage());
-                    }
-                });
+            // Get current ticker data for all exchanges in parallel; the scan ends when all are done
+            long started = System.nanoTime();
+            Set<String> liveKeys = ConcurrentHashMap.newKeySet();
+            // Whether every exchange was scanned, so an opportunity not found again is really gone
+            AtomicBoolean complete = new AtomicBoolean(true);
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (ExchangeService exchange : new ArrayList<>(exchanges)) {
+                CompletableFuture<Void> task;
+                try {
+                    task = CompletableFuture.runAsync(() -> {
+                        try {
+                            processExchangeTickers(exchange, liveKeys);
+                        } catch (Exception e) {
+                            complete.set(false);
+                            Log.e(TAG, "Error processing tickers for " + exchange.getExchangeName(), e);
+                            errorMessage.postValue("Error processing " + exchange.getExchangeName() + ": " + e.getMessage());
+                        }
+                    }, taskScheduler.executor(TaskScheduler.Workload.CPU_SCAN));
+                } catch (RejectedExecutionException e) {
+                    complete.set(false);
+                    Log.w(TAG, "Scan pool full, skipping " + exchange.getExchangeName() + " this cycle");
+                    task = CompletableFuture.completedFuture(null);
+                }
+                tasks.add(task);
             }
             
+            // Time the whole scan, from the first submission until the last exchange is done
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((result, error) -> {
+                if (complete.get()) {
+                    closeMissingOpportunities(liveKeys);
+                }
+                reallocate(liveKeys);
+                scanTime.recordNanos(System.nanoTime() - started);
+            });
+            
         } catch (Exception e) {
             Log.e(TAG, "Error in arbitrage scan", e);
             errorMessage.postValue("Error in arbitrage scan: " + e.getMessage());
         }
     }
     
-    private void processExchangeTickers(ExchangeService exchange) throws Exception {
+    /**
+     * Removes the listed opportunities a finished scan did not find again and counts them
+     * as closed.
+     * 
+     * @param liveKeys Keys of the opportunities found by the scan
+     */
+    private void closeMissingOpportunities(Set<String> liveKeys) {
+        List<ArbitrageOpportunity> currentOpportunities = arbitrageOpportunities.getValue();
+        if (currentOpportunities == null) {
+            return;
+        }
+        int listed = currentOpportunities.size();
+        currentOpportunities.removeIf(opportunity -> !liveKeys.contains(opportunity.getOpportunityKey()));
+        int closed = listed - currentOpportunities.size();
+        if (closed > 0) {
+            opportunitiesClosed.add(closed);
+            arbitrageOpportunities.postValue(currentOpportunities);
+        }
+    }
+    
+    /**
+     * Drops the opportunities a finished scan did not find again from the allocation, and
+     * stores the capital allocated to each listed opportunity as its optimal trade size.
+     * 
+     * @param liveKeys Keys of the opportunities found by the scan
+     */
+    private void reallocate(Set<String> liveKeys) {
+        if (portfolioAllocator == null) {
+            return;
+        }
+        portfolioAllocator.retainAll(liveKeys);
+        
+        List<ArbitrageOpportunity> currentOpportunities = arbitrageOpportunities.getValue();
+        if (currentOpportunities == null) {
+            return;
+        }
+        for (ArbitrageOpportunity opportunity : currentOpportunities) {
+            RiskAssessment risk = opportunity.getRiskAssessment();
+            if (risk != null) {
+                risk.setOptimalTradeSize(getAllocatedPositionSize(opportunity));
+            }
+        }
+    }
+    
+    private void processExchangeTickers(ExchangeService exchange, Set<String> liveKeys) throws Exception {
         try {
             // Get trading pairs for this exchange
             Map<String, String> symbolMap = exchangeSymbolMap.get(exchange);
@@ -480,10 +486,10 @@ public class ArbitrageViewModel extends ViewModel {
                     
                     // Update cache
                     cachedTickers.put(normalizedSymbol + ":" + exchange.getExchangeName(), ticker);
-                    tickerTimestamps.put(normalizedSymbol + ":" + exchange.getExchangeName(), System.currentTimeMillis());
+                    tickerTimestamps.put(normalizedSymbol + ":" + exchange.getExchangeName(), MarketClock.currentTimeMillis());
                     
                     // Check for arbitrage opportunities
-                    checkArbitrageOpportunities(normalizedSymbol, exchange, ticker);
+                    checkArbitrageOpportunities(normalizedSymbol, exchange, ticker, liveKeys);
                     
                 } catch (Exception e) {
                     Log.e(TAG, "Error processing ticker for " + exchangeSymbol + " on " + exchange.getExchangeName(), e);
@@ -497,7 +503,8 @@ public class ArbitrageViewModel extends ViewModel {
         }
     }
     
-    private void checkArbitrageOpportunities(String normalizedSymbol, ExchangeService currentExchange, Ticker currentTicker) {
+    private void checkArbitrageOpportunities(String normalizedSymbol, ExchangeService currentExchange,
+                                             Ticker currentTicker, Set<String> liveKeys) {
         try {
             // Get all exchanges locally to avoid concurrent modification
             List<ExchangeService> currentExchanges;
@@ -534,7 +541,7 @@ public class ArbitrageViewModel extends ViewModel {
                         // Use appropriate caching strategy
                         String cacheKey = normalizedSymbol + ":" + otherExchange.getExchangeName();
                         cachedTickers.put(cacheKey, otherTicker);
-                        tickerTimestamps.put(cacheKey, System.currentTimeMillis());
+                        tickerTimestamps.put(cacheKey, MarketClock.currentTimeMillis());
                     } catch (Exception e) {
                         Log.e(TAG, "Error fetching ticker for " + otherSymbol + " on " + otherExchange.getExchangeName(), e);
                         continue;
@@ -552,7 +559,7 @@ public class ArbitrageViewModel extends ViewModel {
                 
                 // Skip if prices are invalid
                 if (buyPrice <= 0 || sellPrice <= 0) {
-                    Log.w(TAG, "Invalid prices for " + normalizedSymbol + ": buy=" + buyPrice + ", sell=" + sellPrice);
+                    AppLog.w(TAG, INVALID_PRICES, "Invalid prices for %s: buy=%s, sell=%s", normalizedSymbol, buyPrice, sellPrice);
                     continue;
                 }
                 
@@ -560,8 +567,9 @@ public class ArbitrageViewModel extends ViewModel {
                 String baseAsset = normalizedSymbol.split("/")[0];
                 
                 // Calculate profit with comprehensive fee model
-                double buyFee = exchangeConfig.getFeePercentage(buyExchange.getExchangeName(), true); // Maker fee for buy
-                double sellFee = exchangeConfig.getFeePercentage(sellExchange.getExchangeName(), false); // Taker fee for sell
+                ConfigurationSnapshot config = ConfigurationFactory.getSnapshot();
+                double buyFee = config.getFeePercentage(buyExchange.getExchangeKey(), true); // Maker fee for buy
+                double sellFee = config.getFeePercentage(sellExchange.getExchangeKey(), false); // Taker fee for sell
                 
                 // Default trade amount for calculation (this would be calculated based on available balance in real trading)
                 double initialAmount = 1000.0; // 1000 USD or equivalent in quote currency
@@ -579,11 +587,14 @@ public class ArbitrageViewModel extends ViewModel {
                     sellFee
                 );
                 
-                // Log the calculation for debugging
-                Log.d(TAG, String.format(
-                    "Comprehensive profit calculation for %s: buy=%f on %s, sell=%f on %s, profit=%.2f%% (includes all fees)",
-                    normalizedSymbol, buyPrice, buyExchange.getExchangeName(), 
-                    sellPrice, sellExchange.getExchangeName(), profitPercent));
+                // Log the calculation for debugging; runs for every comparison, so only
+                // when debug logging is on
+                if (AppLog.isDebugEnabled()) {
+                    AppLog.d(TAG,
+                        "Comprehensive profit calculation for %s: buy=%f on %s, sell=%f on %s, profit=%.2f%% (includes all fees)",
+                        normalizedSymbol, buyPrice, buyExchange.getExchangeName(),
+                        sellPrice, sellExchange.getExchangeName(), profitPercent);
+                }
                 
                 // Check if price difference exceeds minimum profit threshold
                 if (profitPercent >= minProfitPercent) {
@@ -606,20 +617,31 @@ public class ArbitrageViewModel extends ViewModel {
                     // Set ticker data
                     opportunity.setBuyTicker(buyTicker);
                     opportunity.setSellTicker(sellTicker);
+                    tracer.onScanned(opportunity, System.nanoTime());
                     
                     // Store fee percentages for later calculation
                     opportunity.setBuyFeePercentage(buyFee);
                     opportunity.setSellFeePercentage(sellFee);
                     
-                    // Set empty risk assessment
-                    RiskAssessmentAdapter.setRiskAssessment(opportunity, new RiskAssessment());
-                    
                     // Set net profit after all fees (already calculated by comprehensive method)
                     opportunity.setNetProfitPercentage(profitPercent);
                     
+                    // The sizer takes its fill probability, slippage and volatility from here
+                    RiskAssessmentAdapter.setRiskAssessment(opportunity, riskCalculator.calculateRisk(opportunity));
+                    
                     // Set viability based on net profit
                     opportunity.setViable(profitPercent > minProfitPercent);
                     
+                    // Let the allocator re-split the capital with this opportunity included
+                    if (portfolioAllocator != null) {
+                        double maxDepthSize = PortfolioAllocator.depthLimitedSize(
+                                buyExchange.getOrderBook(opportunity.getSymbolBuy()),
+                                sellExchange.getOrderBook(opportunity.getSymbolSell()),
+                                maxSlippagePercent / 100.0);
+                        portfolioAllocator.update(opportunity, maxDepthSize);
+                    }
+                    liveKeys.add(opportunity.getOpportunityKey());
+                    
                     // Get current opportunities
                     List<ArbitrageOpportunity> currentOpportunities = arbitrageOpportunities.getValue();
                     if (currentOpportunities == null) {
@@ -648,20 +670,22 @@ public class ArbitrageViewModel extends ViewModel {
                         currentOpportunities.add(opportunity);
                         opportunitiesFound.incrementAndGet();
                         totalOpportunitiesFound.incrementAndGet();
+                        opportunitiesOpened.increment();
                     }
                     
                     // Post updated list back to UI
                     arbitrageOpportunities.postValue(currentOpportunities);
+                    tracer.onPublished(opportunity);
                     
                     // Log opportunity
-                    Log.i(TAG, String.format("Found arbitrage opportunity: %s - Buy on %s at %.8f, Sell on %s at %.8f, Comprehensive Profit: %.2f%%",
+                    AppLog.i(TAG, FOUND_OPPORTUNITIES, "Found arbitrage opportunity: %s - Buy on %s at %.8f, Sell on %s at %.8f, Comprehensive Profit: %.2f%%",
                         normalizedSymbol,
                         buyExchange.getExchangeName(),
                         opportunity.getBuyPrice(),
                         sellExchange.getExchangeName(),
                         opportunity.getSellPrice(),
                         profitPercent
-                    ));
+                    );
                 }
             }
             
@@ -672,64 +696,50 @@ public class ArbitrageViewModel extends ViewModel {
     }
     
     /**
-     * Calculates the optimal position size for an arbitrage opportunity based on risk assessment.
-     * Direct implementation from ArbitrageProcessMain.
+     * Applies the thresholds of a configuration snapshot. Called on the initial load
+     * and on every reload, so changed thresholds take effect on the next comparison.
+     * 
+     * @param config The configuration snapshot
+     */
+    private synchronized void applyConfiguration(ConfigurationSnapshot config) {
+        double minProfit = config.getMinProfitPercent();
+        double capital = config.getAvailableCapital();
+        double maxPosition = config.getMaxPositionPercent();
+        double maxSlippage = config.getMaxSlippagePercent();
+        
+        // Set default values if configuration returns zeroes
+        this.minProfitPercent = minProfit > 0 ? minProfit : 0.1;
+        this.availableCapital = capital > 0 ? capital : 1000.0;
+        this.maxPositionPercent = maxPosition > 0 ? maxPosition : 10.0;
+        this.maxSlippagePercent = maxSlippage > 0 ? maxSlippage : 0.5;
+        
+        Log.i(TAG, "Configuration " + config.getVersion() + " applied with MIN_PROFIT_PERCENT=" + minProfitPercent + "%");
+        
+        // Position limits are configured in percent, the sizer works with fractions
+        double maxPositionFraction = maxPositionPercent / 100.0;
+        if (portfolioAllocator == null) {
+            positionSizer = new PositionSizer(maxPositionFraction, 0.5, 10.0);
+            portfolioAllocator = new PortfolioAllocator(positionSizer, availableCapital);
+        } else {
+            positionSizer.setMaxPositionPct(maxPositionFraction);
+            portfolioAllocator.setTotalCapital(availableCapital);
+        }
+        portfolioAllocator.setExchangeBalances(config.getExchangeConfig().getBalances());
+    }
+    
+    /**
+     * Gets the position size allocated to an arbitrage opportunity. The available capital is
+     * split across all live opportunities, so the sizes of concurrent signals never add up to
+     * more than the capital.
      * 
      * @param opportunity The arbitrage opportunity to size
-     * @param availableCapital Total capital available for trading
-     * @param maxPositionPct Maximum position size as percentage of capital
-     * @return Optimal position size in base currency units
+     * @return Allocated position size in quote currency, or 0 if it received no capital
      */
-    private double calculateOptimalPositionSize(ArbitrageOpportunity opportunity, double availableCapital, double maxPositionPct) {
-        // Validate inputs
-        RiskAssessment risk = RiskAssessmentAdapter.getRiskAssessment(opportunity);
-        if (opportunity == null || risk == null) {
+    public double getAllocatedPositionSize(ArbitrageOpportunity opportunity) {
+        if (opportunity == null || portfolioAllocator == null) {
             return 0.0;
         }
-
-        // Extract key risk factors
-        double overallRisk = risk.getOverallRiskScore();
-        double slippageRisk = risk.getSlippageRisk();
-        double liquidityScore = risk.getLiquidityScore();
-        double volatilityScore = risk.getVolatilityScore();
-
-        // Calculate win probability (using overall risk as a proxy)
-        double winProbability = Math.min(0.95, overallRisk * 0.9 + 0.05);
-
-        // Calculate potential profit and loss
-        double potentialProfit = opportunity.getNetProfitPercentage() / 100.0; // Already in percent, convert to decimal
-        double potentialLoss = 1.0 - slippageRisk; // Use slippage risk as a proxy for potential loss
-
-        // Calculate Kelly fraction (optimal bet size as fraction of capital)
-        double kellyFraction = 0.0;
-        if (potentialLoss > 0) {
-            kellyFraction = (winProbability * (1 + potentialProfit) - 1) / potentialLoss;
-        }
-
-        // Apply a safety factor (using half Kelly or less is common practice)
-        double safetyFactor = 0.5;
-        kellyFraction *= safetyFactor;
-
-        // Cap the position size
-        double cappedFraction = Math.min(kellyFraction, maxPositionPct);
-
-        // Apply additional risk-based scaling factors
-        double liquidityAdjustment = Math.pow(liquidityScore, 1.5); // Penalize low liquidity more aggressively
-        double volatilityAdjustment = Math.pow(volatilityScore, 1.2); // Slightly reduce size for high volatility
-
-        // Calculate final position size with all constraints
-        double optimalFraction = cappedFraction * liquidityAdjustment * volatilityAdjustment;
-
-        // Convert fraction to actual position size
-        double positionSize = availableCapital * optimalFraction;
-
-        // Implement minimum position size threshold (to avoid dust positions)
-        double minimumPositionSize = 10.0; // Example minimum size in base currency
-        if (positionSize < minimumPositionSize) {
-            return 0.0; // Don't trade if optimal size is too small
-        }
-
-        return positionSize;
+        return portfolioAllocator.getAllocatedSize(opportunity.getOpportunityKey());
     }
     
     /**
@@ -795,7 +805,7 @@ public class ArbitrageViewModel extends ViewModel {
         // Use atomic reads from the ConcurrentHashMap
         Long timestamp = tickerTimestamps.get(cacheKey);
         
-        if (timestamp != null && System.currentTimeMillis() - timestamp < TICKER_CACHE_TTL) {
+        if (timestamp != null && MarketClock.currentTimeMillis() - timestamp < TICKER_CACHE_TTL) {
             return cachedTickers.get(cacheKey);
         }
         
@@ -823,20 +833,14 @@ public class ArbitrageViewModel extends ViewModel {
     protected void onCleared() {
         super.onCleared();
         
-        // Shutdown all executors when the ViewModel is cleared
-        if (exchangeInitExecutor != null) {
-            exchangeInitExecutor.shutdownNow();
-        }
-        
-        if (arbitrageProcessExecutor != null) {
-            arbitrageProcessExecutor.shutdownNow();
-        }
+        YamlConfigurationService.getInstance().removeReloadListener(configReloadListener);
         
-        if (scheduler != null) {
-            scheduler.shutdownNow();
+        // Stop scanning; the shared pools stay up for the rest of the app
+        if (scanTask != null) {
+            scanTask.cancel(false);
         }
         
-        Log.i(TAG, "ArbitrageViewModel cleared, all executors shutdown");
+        Log.i(TAG, "ArbitrageViewModel cleared, scanning stopped");
     }
     
     // Symbol prioritization manager inner class
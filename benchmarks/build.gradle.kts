@@ -0,0 +1,30 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// JMH microbenchmarks of the scanning hot paths in :core.
+// Run all:     ./gradlew :benchmarks:jmh
+// Run a subset: ./gradlew :benchmarks:jmh -Pjmh.includes=OrderBookBenchmark
+// Every run uses the GC profiler, so results include allocation rates (gc.alloc.rate.norm).
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmhImplementation(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("2s")
+    iterations.set(5)
+    timeOnIteration.set("2s")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    (project.findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+}
@@ -0,0 +1,74 @@
+package com.example.tradient.benchmark;
+
+import com.example.tradient.data.interfaces.ArbitrageResult;
+import com.example.tradient.data.model.TradingPair;
+import com.example.tradient.domain.engine.ArbitrageEngine;
+import com.example.tradient.domain.risk.RiskCalculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scans of the engine over three in-memory exchanges listing the same symbols,
+ * for universes of different sizes. No network access; tickers and order books are
+ * served from the exchanges' caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ArbitrageEngineBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int symbols;
+
+    private final List<SyntheticMarkets.InMemoryExchangeService> exchanges = new ArrayList<>();
+    private List<TradingPair> pairs;
+    private ArbitrageEngine engine;
+
+    @Setup
+    public void setUp() {
+        SyntheticMarkets.silenceLogging();
+        Random random = new Random(SyntheticMarkets.SEED);
+        pairs = SyntheticMarkets.tradingPairs(symbols);
+        exchanges.add(SyntheticMarkets.exchange("Alpha", pairs, 0.0, random));
+        exchanges.add(SyntheticMarkets.exchange("Beta", pairs, 0.002, random));
+        exchanges.add(SyntheticMarkets.exchange("Gamma", pairs, -0.001, random));
+
+        engine = new ArbitrageEngine(0.1, new RiskCalculator(0.1));
+        for (SyntheticMarkets.InMemoryExchangeService exchange : exchanges) {
+            engine.addExchange(exchange);
+        }
+    }
+
+    /**
+     * Keep the cached market data fresh, so no iteration falls back to the REST path.
+     */
+    @Setup(Level.Iteration)
+    public void refreshMarketData() {
+        for (SyntheticMarkets.InMemoryExchangeService exchange : exchanges) {
+            exchange.refresh();
+        }
+    }
+
+    @Benchmark
+    public ArbitrageResult scanAllPairs() {
+        return engine.scanForOpportunities();
+    }
+
+    @Benchmark
+    public ArbitrageResult scanGivenPairs() {
+        return engine.scanForOpportunities(pairs);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.tradient.benchmark;
+
+import com.example.tradient.data.model.OrderBook;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slippage and depth queries on order books of different depths.
+ * <p>
+ * The cached variants query the same book over and over, as the scanner does between
+ * two updates of a book; the fresh variants build a new book first, as after every
+ * WebSocket update, so they include building the slippage curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderBookBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int levels;
+
+    // Notional of the simulated order in quote currency
+    @Param({"1000", "100000"})
+    public double tradeSize;
+
+    private OrderBook book;
+
+    @Setup
+    public void setUp() {
+        SyntheticMarkets.silenceLogging();
+        // About 150k quote per side whatever the depth, so the largest order walks most of the book
+        book = SyntheticMarkets.orderBook("BTC/USDT", levels, 50_000, 3.0 / levels,
+                new Random(SyntheticMarkets.SEED));
+    }
+
+    @Benchmark
+    public double calculateSlippageBuyCached() {
+        return book.calculateSlippage(tradeSize, true);
+    }
+
+    @Benchmark
+    public double calculateSlippageSellCached() {
+        return book.calculateSlippage(tradeSize, false);
+    }
+
+    @Benchmark
+    public double calculateSlippageBuyFreshBook() {
+        OrderBook fresh = new OrderBook(book.getSymbol(), book.getBids(), book.getAsks(), book.getTimestamp());
+        return fresh.calculateSlippage(tradeSize, true);
+    }
+
+    @Benchmark
+    public double getDepthHalfPercent() {
+        return book.getDepth(0.5);
+    }
+
+    @Benchmark
+    public double getDepthFivePercent() {
+        return book.getDepth(5.0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.tradient.benchmark;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.domain.risk.SlippageManagerService;
+import com.example.tradient.infrastructure.paper.LatencyModel;
+import com.example.tradient.infrastructure.paper.PaperExchange;
+import com.example.tradient.infrastructure.paper.PaperOrder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders per second one paper venue matches, the figure the replay's paper trading
+ * depends on.
+ * <p>
+ * Orders arrive without latency and take a few levels of a 100-level book, alternating
+ * buy and sell; the book is fed again every {@link #SNAPSHOT_INTERVAL} orders, as live
+ * updates would, so the depth never runs out. With feedback, every order also goes
+ * through the slippage feedback loop and the execution time statistics, as in a replay.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PaperExchangeBenchmark {
+
+    private static final int SNAPSHOT_INTERVAL = 64;
+    private static final String SYMBOL = "BTC/USDT";
+
+    @Param({"true", "false"})
+    public boolean feedback;
+
+    private PaperExchange exchange;
+    private SlippageManagerService slippageManager;
+    private OrderBook book;
+    private int orders;
+
+    @Setup
+    public void setUp() {
+        SyntheticMarkets.silenceLogging();
+        book = SyntheticMarkets.orderBook(SYMBOL, 100, 50_000, 0.5, new Random(SyntheticMarkets.SEED));
+        slippageManager = feedback ? new SlippageManagerService() : null;
+        exchange = new PaperExchange("Binance", 0.001, 0.001, LatencyModel.fixed(0), slippageManager);
+        exchange.onOrderBook(SYMBOL, book);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (slippageManager != null) {
+            slippageManager.shutdown();
+        }
+    }
+
+    @Benchmark
+    public PaperOrder marketOrder() {
+        if (++orders % SNAPSHOT_INTERVAL == 0) {
+            exchange.onOrderBook(SYMBOL, book);
+        }
+        PaperOrder.Side side = (orders & 1) == 0 ? PaperOrder.Side.BUY : PaperOrder.Side.SELL;
+        return exchange.submitMarket(SYMBOL, side, 1.0, 50_000);
+    }
+
+    @Benchmark
+    public boolean restingLimitOrderCancelled() {
+        // Far from the market, so it rests until cancelled
+        PaperOrder order = exchange.submitLimit(SYMBOL, PaperOrder.Side.BUY, 1.0, 40_000,
+                PaperOrder.TimeInForce.GOOD_TILL_CANCELLED);
+        return exchange.cancel(order);
+    }
+}
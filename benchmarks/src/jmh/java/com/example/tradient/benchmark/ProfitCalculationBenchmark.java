@@ -0,0 +1,59 @@
+package com.example.tradient.benchmark;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.profit.ProfitCalculator;
+import com.example.tradient.util.ArbitrageProcessing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profit of one exchange pair for one symbol, as computed for every comparison of a scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProfitCalculationBenchmark {
+
+    private static final double BUY_PRICE = 50_000;
+    private static final double SELL_PRICE = 50_150;
+    private static final double FEE = 0.001;
+
+    private OrderBook buyBook;
+    private OrderBook sellBook;
+
+    @Setup
+    public void setUp() {
+        SyntheticMarkets.silenceLogging();
+        Random random = new Random(SyntheticMarkets.SEED);
+        buyBook = SyntheticMarkets.orderBook("BTC/USDT", 50, BUY_PRICE, 2, random);
+        buyBook.setExchangeName("Binance");
+        buyBook.setTicker(new Ticker("BTC/USDT", BUY_PRICE, BUY_PRICE * 0.9999, BUY_PRICE * 1.0001,
+                25_000, System.currentTimeMillis(), "Binance"));
+        sellBook = SyntheticMarkets.orderBook("BTC/USDT", 50, SELL_PRICE, 2, random);
+        sellBook.setExchangeName("Kraken");
+        sellBook.setTicker(new Ticker("BTC/USDT", SELL_PRICE, SELL_PRICE * 0.9999, SELL_PRICE * 1.0001,
+                8_000, System.currentTimeMillis(), "Kraken"));
+    }
+
+    @Benchmark
+    public double slippageAdjustedProfitPercentage() {
+        return ProfitCalculator.calculateSlippageAdjustedProfitPercentage(
+                BUY_PRICE, SELL_PRICE, FEE, FEE, 1000, buyBook, sellBook, "BTC");
+    }
+
+    @Benchmark
+    public double comprehensiveProfitPercentage() {
+        return ArbitrageProcessing.calculateComprehensiveProfitPercentage(
+                1000, BUY_PRICE, SELL_PRICE, "Binance", "Kraken", "BTC", FEE, FEE);
+    }
+}
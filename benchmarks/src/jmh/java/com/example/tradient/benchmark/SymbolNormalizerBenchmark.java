@@ -0,0 +1,32 @@
+package com.example.tradient.benchmark;
+
+import com.example.tradient.util.SymbolNormalizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Symbol normalization in each exchange's format. Normalized symbols are cached, so
+ * after the first call this measures the lookup the scanner does for every ticker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SymbolNormalizerBenchmark {
+
+    // Binance, Coinbase/OKX, Kraken and already normalized formats
+    @Param({"BTCUSDT", "BTC-USDT", "XBT_USD", "ETH/BTC"})
+    public String symbol;
+
+    @Benchmark
+    public String normalize() {
+        return SymbolNormalizer.normalize(symbol);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.tradient.benchmark;
+
+import com.example.tradient.data.interfaces.ArbitrageResult;
+import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.data.model.TradingPair;
+import com.example.tradient.data.service.BinanceExchangeService;
+import com.example.tradient.util.AppLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic market data for the benchmarks. Everything is generated from
+ * a fixed seed, so runs are comparable across commits.
+ */
+final class SyntheticMarkets {
+
+    static final long SEED = 42;
+
+    private SyntheticMarkets() {
+    }
+
+    /**
+     * Drop log output of the code under test; printing would dominate the measurements.
+     */
+    static void silenceLogging() {
+        AppLog.setNotificationService(new SilentNotificationService());
+    }
+
+    /**
+     * Order book with evenly spaced levels around a mid price.
+     *
+     * @param levels Number of levels per side
+     * @param midPrice Price between best bid and best ask
+     * @param quantityPerLevel Base quantity of each level, varied by up to 50%
+     */
+    static OrderBook orderBook(String symbol, int levels, double midPrice, double quantityPerLevel, Random random) {
+        double tick = midPrice * 0.0001;
+        List<OrderBookEntry> bids = new ArrayList<>(levels);
+        List<OrderBookEntry> asks = new ArrayList<>(levels);
+        for (int i = 0; i < levels; i++) {
+            double quantity = quantityPerLevel * (0.5 + random.nextDouble());
+            bids.add(new OrderBookEntry(midPrice - tick * (i + 1), quantity));
+            asks.add(new OrderBookEntry(midPrice + tick * (i + 1), quantity));
+        }
+        return new OrderBook(symbol, bids, asks, System.currentTimeMillis());
+    }
+
+    /**
+     * Universe of BASE/USDT pairs. The same instances are shared by all exchanges, as
+     * pairs are matched by identity when the engine groups them.
+     */
+    static List<TradingPair> tradingPairs(int count) {
+        List<TradingPair> pairs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pairs.add(new TradingPair("A" + i + "USDT"));
+        }
+        return Collections.unmodifiableList(pairs);
+    }
+
+    /**
+     * Exchange service answering from memory, with prices offset from a common mid so that
+     * exchanges disagree slightly on every pair.
+     */
+    static InMemoryExchangeService exchange(String name, List<TradingPair> pairs, double priceOffset, Random random) {
+        InMemoryExchangeService exchange = new InMemoryExchangeService(name, pairs);
+        for (TradingPair pair : pairs) {
+            double mid = 1 + random.nextDouble() * 1000;
+            double price = mid * (1 + priceOffset);
+            exchange.tickers.put(pair.getSymbol(), new Ticker(pair.getSymbol(), price,
+                    price * 0.9995, price * 1.0005, 10_000, System.currentTimeMillis(), name));
+            exchange.orderBooks.put(pair.getSymbol(), orderBook(pair.getSymbol(), 20, price, 10, random));
+        }
+        exchange.refresh();
+        return exchange;
+    }
+
+    /**
+     * Exchange service without network access. Tickers and order books come from maps
+     * filled at setup; {@link #refresh()} puts them into the service's caches with a
+     * current timestamp, so reads are served as they would be from a live WebSocket feed.
+     */
+    static final class InMemoryExchangeService extends BinanceExchangeService {
+        private final String name;
+        private final List<TradingPair> pairs;
+        private final Map<String, Ticker> tickers = new HashMap<>();
+        private final Map<String, OrderBook> orderBooks = new HashMap<>();
+
+        InMemoryExchangeService(String name, List<TradingPair> pairs) {
+            super(0.001);
+            this.name = name;
+            this.pairs = pairs;
+        }
+
+        void refresh() {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, Ticker> entry : tickers.entrySet()) {
+                Ticker ticker = entry.getValue();
+                Ticker fresh = new Ticker(entry.getKey(), ticker.getLastPrice(), ticker.getBidPrice(),
+                        ticker.getAskPrice(), ticker.getVolume(), now, name);
+                entry.setValue(fresh);
+                tickerCache.put(entry.getKey(), fresh);
+            }
+            for (Map.Entry<String, OrderBook> entry : orderBooks.entrySet()) {
+                OrderBook book = entry.getValue();
+                OrderBook fresh = new OrderBook(entry.getKey(), book.getBids(), book.getAsks(), now);
+                entry.setValue(fresh);
+                orderBookCache.put(entry.getKey(), fresh);
+            }
+        }
+
+        @Override
+        public String getExchangeName() {
+            return name;
+        }
+
+        @Override
+        public List<TradingPair> fetchTradingPairs() {
+            return pairs;
+        }
+
+        @Override
+        public Ticker fetchTickerDataREST(String symbol) {
+            return tickers.get(symbol);
+        }
+
+        @Override
+        public OrderBook fetchOrderBookREST(String symbol) {
+            return orderBooks.get(symbol);
+        }
+
+        @Override
+        public boolean initializeWebSocket(List<String> symbols) {
+            return false;
+        }
+
+        @Override
+        public void closeWebSocket() {
+        }
+    }
+
+    private static final class SilentNotificationService implements INotificationService {
+        @Override
+        public void logInfo(String message) {
+        }
+
+        @Override
+        public void logWarning(String message) {
+        }
+
+        @Override
+        public void logError(String message, Throwable throwable) {
+        }
+
+        @Override
+        public void logDebug(String message) {
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return false;
+        }
+
+        @Override
+        public void notify(String title, String message, String type) {
+        }
+
+        @Override
+        public void notifyArbitrageOpportunity(ArbitrageResult opportunity) {
+        }
+
+        @Override
+        public void notifyArbitrageError(Throwable error) {
+        }
+    }
+}
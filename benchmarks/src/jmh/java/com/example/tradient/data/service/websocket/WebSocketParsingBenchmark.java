@@ -0,0 +1,126 @@
+package com.example.tradient.data.service.websocket;
+
+import com.example.tradient.data.interfaces.IWebSocketProvider;
+import com.example.tradient.data.interfaces.IWebSocketUpdateListener;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.WebSocketListener;
+
+/**
+ * Handling of one ticker message in each exchange's WebSocket format, from the raw text
+ * to the listener callback. Lives in the providers' package to reach their listeners;
+ * no connection is opened.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WebSocketParsingBenchmark {
+
+    @Param({"binance", "coinbase", "kraken", "bybit", "okx"})
+    public String exchange;
+
+    private BaseWebSocketProvider provider;
+    private WebSocketListener listener;
+    private String message;
+    private final CapturingListener updates = new CapturingListener();
+
+    @Setup
+    public void setUp() {
+        switch (exchange) {
+            case "binance":
+                provider = new BinanceWebSocketProvider(null);
+                message = "{\"u\":400900217,\"s\":\"BTCUSDT\",\"b\":\"50123.45000000\",\"B\":\"1.25000000\","
+                        + "\"a\":\"50124.10000000\",\"A\":\"0.84000000\"}";
+                break;
+            case "coinbase":
+                provider = new CoinbaseWebSocketProvider(null);
+                message = "{\"type\":\"ticker\",\"sequence\":37475248783,\"product_id\":\"BTC-USD\","
+                        + "\"price\":\"50123.80\",\"open_24h\":\"49250.00\",\"volume_24h\":\"12345.67890123\","
+                        + "\"low_24h\":\"48800.00\",\"high_24h\":\"50500.00\",\"best_bid\":\"50123.45\","
+                        + "\"best_ask\":\"50124.10\",\"side\":\"buy\",\"time\":\"2024-01-01T00:00:00.000000Z\","
+                        + "\"trade_id\":123456789,\"last_size\":\"0.0015\"}";
+                break;
+            case "kraken":
+                provider = new KrakenWebSocketProvider(null);
+                message = "[340,{\"a\":[\"50124.10000\",1,\"1.000\"],\"b\":[\"50123.45000\",2,\"2.000\"],"
+                        + "\"c\":[\"50123.80000\",\"0.00398963\"],\"v\":[\"2634.11501494\",\"3591.17907851\"],"
+                        + "\"p\":[\"50010.10000\",\"49990.30000\"],\"t\":[11493,16267],"
+                        + "\"l\":[\"48800.00000\",\"48800.00000\"],\"h\":[\"50500.00000\",\"50500.00000\"],"
+                        + "\"o\":[\"49250.00000\",\"49300.00000\"]},\"ticker\",\"XBT/USD\"]";
+                break;
+            case "bybit":
+                provider = new BybitWebSocketProvider(null);
+                message = "{\"topic\":\"tickers.BTCUSDT\",\"ts\":1704067200000,\"type\":\"snapshot\",\"cs\":1,"
+                        + "\"data\":{\"symbol\":\"BTCUSDT\",\"lastPrice\":\"50123.80\",\"highPrice24h\":\"50500.00\","
+                        + "\"lowPrice24h\":\"48800.00\",\"prevPrice24h\":\"49250.00\",\"volume24h\":\"12345.678\","
+                        + "\"turnover24h\":\"618840000.12\",\"price24hPcnt\":\"0.0177\",\"bid1Price\":\"50123.45\","
+                        + "\"ask1Price\":\"50124.10\"}}";
+                break;
+            case "okx":
+                provider = new OkxWebSocketProvider(null);
+                message = "{\"arg\":{\"channel\":\"tickers\",\"instId\":\"BTC-USDT\"},\"data\":[{\"instType\":\"SPOT\","
+                        + "\"instId\":\"BTC-USDT\",\"last\":\"50123.8\",\"lastSz\":\"0.0015\",\"askPx\":\"50124.1\","
+                        + "\"askSz\":\"0.84\",\"bidPx\":\"50123.45\",\"bidSz\":\"1.25\",\"open24h\":\"49250\","
+                        + "\"high24h\":\"50500\",\"low24h\":\"48800\",\"vol24h\":\"12345.678\","
+                        + "\"ts\":\"1704067200000\"}]}";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown exchange: " + exchange);
+        }
+        listener = provider.createWebSocketListener();
+        provider.addWebSocketListener(updates);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (updates.tickers == 0) {
+            throw new IllegalStateException(exchange + " message produced no ticker update");
+        }
+    }
+
+    @Benchmark
+    public Ticker parseTickerMessage() {
+        listener.onMessage(null, message);
+        return updates.lastTicker;
+    }
+
+    private static final class CapturingListener implements IWebSocketUpdateListener {
+        private Ticker lastTicker;
+        private long tickers;
+
+        @Override
+        public void onTickerUpdate(String symbol, Ticker ticker) {
+            lastTicker = ticker;
+            tickers++;
+        }
+
+        @Override
+        public void onOrderBookUpdate(String symbol, OrderBook orderBook) {
+        }
+
+        @Override
+        public void onWebSocketConnected(IWebSocketProvider provider) {
+        }
+
+        @Override
+        public void onWebSocketDisconnected(IWebSocketProvider provider, int code, String reason) {
+        }
+
+        @Override
+        public void onWebSocketError(IWebSocketProvider provider, Throwable error) {
+        }
+    }
+}
@@ -0,0 +1,49 @@
+plugins {
+    `java-library`
+}
+
+// Exchange connectivity, market data, fees, risk and the arbitrage engine.
+// Plain JVM code with no Android dependencies, so the scanner can run headless on a
+// server as well as inside the app.
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Compile against the Java 11 API as well, so newer library calls fail the build
+// instead of failing at runtime on an Android or Java 11 device.
+tasks.withType<JavaCompile>().configureEach {
+    options.release.set(11)
+}
+
+dependencies {
+    api("com.fasterxml.jackson.core:jackson-databind:2.16.1")  // JSON parser
+    api("com.fasterxml.jackson.dataformat:jackson-dataformat-yaml:2.16.1")  // YAML parser
+    api("com.squareup.okhttp3:okhttp:4.10.0")
+    api("org.json:json:20210307")
+
+    testImplementation(libs.junit)
+}
+
+// Headless scanner daemon: ./gradlew :core:runScanner --args="--output opportunities.jsonl"
+// Runs on a Java 21 launcher, so every exchange request gets a virtual thread of its own.
+tasks.register<JavaExec>("runScanner") {
+    group = "application"
+    description = "Runs the headless arbitrage scanner"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.tradient.demo.ArbitrageProcessMain")
+    javaLauncher.set(javaToolchains.launcherFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    workingDir = rootDir
+    standardInput = System.`in`
+}
+
+// Market data replay: ./gradlew :core:runReplay --args="--recording recordings/today"
+tasks.register<JavaExec>("runReplay") {
+    group = "application"
+    description = "Replays a market data recording through the arbitrage detection"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.tradient.demo.MarketReplayMain")
+    workingDir = rootDir
+}
@@ -1,12 +1,13 @@
 package com.example.tradient.api;
 
-import android.util.Log;
-
+import com.example.tradient.data.http.HttpClientProvider;
 import com.example.tradient.data.model.Candle;
 import com.example.tradient.data.model.Order;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.util.AppLog;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -18,7 +19,6 @@ import java.util.Date;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
@@ -39,16 +39,17 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
     private final Executor executor;
     
     public BinanceApiAdapter() {
-        // Configure client with longer timeouts for reliability
-        this.client = new OkHttpClient.Builder()
+        // Share the connection pool and latency tracking of the app-wide client,
+        // with longer timeouts for reliability
+        this.client = HttpClientProvider.getSharedClient().newBuilder()
             .connectTimeout(15, TimeUnit.SECONDS)  // Increased from 10 to 15
             .readTimeout(40, TimeUnit.SECONDS)     // Increased from 30 to 40
             .writeTimeout(20, TimeUnit.SECONDS)    // Increased from 15 to 20
             .retryOnConnectionFailure(true)        // Add retry on connection failure
             .build();
-        this.executor = Executors.newCachedThreadPool();
+        this.executor = TaskScheduler.getInstance().executor(TaskScheduler.Workload.NETWORK_IO);
         
-        Log.d(TAG, "Initialized Binance API adapter with extended timeouts");
+        AppLog.d(TAG, "Initialized Binance API adapter with extended timeouts");
         
         // Test connectivity at initialization to verify connection
         testConnectivity();
@@ -64,32 +65,47 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
         client.newCall(request).enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "❌ Binance connectivity test failed: " + e.getMessage(), e);
+                AppLog.e(TAG, "❌ Binance connectivity test failed: " + e.getMessage(), e);
             }
             
             @Override
             public void onResponse(Call call, Response response) {
                 try (ResponseBody responseBody = response.body()) {
                     if (response.isSuccessful()) {
-                        Log.d(TAG, "✅ Binance connectivity test successful: " + response.code());
+                        AppLog.d(TAG, "✅ Binance connectivity test successful: " + response.code());
                     } else {
-                        Log.e(TAG, "❌ Binance connectivity test failed with HTTP: " + response.code() + " - " + response.message());
+                        AppLog.e(TAG, "❌ Binance connectivity test failed with HTTP: " + response.code() + " - " + response.message());
                     }
                 } catch (Exception e) {
-                    Log.e(TAG, "❌ Error testing Binance connectivity: " + e.getMessage(), e);
+                    AppLog.e(TAG, "❌ Error testing Binance connectivity: " + e.getMessage(), e);
                 }
             }
         });
     }
     
+    /**
+     * Start a request for a future. Cancelling the future cancels the call, so a request
+     * abandoned by its caller stops waiting for the exchange and frees its connection.
+     */
+    static Call enqueue(OkHttpClient client, Request request, CompletableFuture<?> future, Callback callback) {
+        Call call = client.newCall(request);
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(callback);
+        return call;
+    }
+    
     @Override
     public CompletableFuture<Ticker> getTicker(String symbol) {
         CompletableFuture<Ticker> future = new CompletableFuture<>();
         
-        Log.d(TAG, "Fetching ticker for " + symbol + " from Binance");
+        AppLog.d(TAG, "Fetching ticker for " + symbol + " from Binance");
         
         if (symbol == null || symbol.isEmpty()) {
-            Log.e(TAG, "Invalid symbol provided: " + symbol);
+            AppLog.e(TAG, "Invalid symbol provided: " + symbol);
             future.completeExceptionally(new IllegalArgumentException("Symbol cannot be null or empty"));
             return future;
         }
@@ -101,12 +117,12 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
             .addHeader("User-Agent", "Tradient-App")  // Add proper user agent
             .build();
         
-        Log.d(TAG, "Making request to: " + url);
+        AppLog.d(TAG, "Making request to: " + url);
         
-        client.newCall(request).enqueue(new Callback() {
+        enqueue(client, request, future, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "Error fetching ticker for " + symbol + ": " + e.getMessage(), e);
+                AppLog.e(TAG, "Error fetching ticker for " + symbol + ": " + e.getMessage(), e);
                 future.completeExceptionally(e);
             }
             
@@ -115,12 +131,12 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                 try (ResponseBody responseBody = response.body()) {
                     if (!response.isSuccessful()) {
                         String errorMsg = "HTTP Error: " + response.code() + " - " + response.message();
-                        Log.e(TAG, "Binance ticker error: " + errorMsg);
+                        AppLog.e(TAG, "Binance ticker error: " + errorMsg);
                         
                         // If the error is 400, it could mean the symbol doesn't exist
                         if (response.code() == 400 && responseBody != null) {
                             String responseData = responseBody.string();
-                            Log.e(TAG, "Binance error response: " + responseData);
+                            AppLog.e(TAG, "Binance error response: " + responseData);
                             if (responseData.contains("Invalid symbol")) {
                                 errorMsg = "Invalid symbol: " + symbol;
                             }
@@ -139,9 +155,9 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                     
                     // Log the first part of the response (truncated if too long)
                     if (responseData.length() > 500) {
-                        Log.d(TAG, "Ticker response (truncated): " + responseData.substring(0, 500) + "...");
+                        AppLog.d(TAG, "Ticker response (truncated): " + responseData.substring(0, 500) + "...");
                     } else {
-                        Log.d(TAG, "Ticker response: " + responseData);
+                        AppLog.d(TAG, "Ticker response: " + responseData);
                     }
                     
                     JSONObject json = new JSONObject(responseData);
@@ -156,13 +172,13 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                     ticker.setTimestamp(new Date(json.getLong("closeTime")));
                     ticker.setExchangeName("Binance");
                     
-                    Log.d(TAG, String.format("Binance ticker for %s: bid=%.8f, ask=%.8f, vol=%.2f", 
-                        symbol, ticker.getBidPrice(), ticker.getAskPrice(), ticker.getVolume()));
+                    AppLog.d(TAG, "Binance ticker for %s: bid=%.8f, ask=%.8f, vol=%.2f",
+                        symbol, ticker.getBidPrice(), ticker.getAskPrice(), ticker.getVolume());
                     
                     future.complete(ticker);
                     
                 } catch (Exception e) {
-                    Log.e(TAG, "Error parsing ticker data for " + symbol + ": " + e.getMessage(), e);
+                    AppLog.e(TAG, "Error parsing ticker data for " + symbol + ": " + e.getMessage(), e);
                     future.completeExceptionally(e);
                 }
             }
@@ -175,16 +191,16 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
     public CompletableFuture<OrderBook> getOrderBook(String symbol, int depth) {
         CompletableFuture<OrderBook> future = new CompletableFuture<>();
         
-        Log.d(TAG, "Fetching order book for " + symbol + " with depth " + depth + " from Binance");
+        AppLog.d(TAG, "Fetching order book for " + symbol + " with depth " + depth + " from Binance");
         
         // Binance order book endpoint: /api/v3/depth?symbol={symbol}&limit={limit}
         String url = BASE_URL + "/api/v3/depth?symbol=" + symbol + "&limit=" + depth;
         Request request = new Request.Builder().url(url).build();
         
-        client.newCall(request).enqueue(new Callback() {
+        enqueue(client, request, future, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "Error fetching order book for " + symbol + ": " + e.getMessage());
+                AppLog.e(TAG, "Error fetching order book for " + symbol + ": " + e.getMessage());
                 future.completeExceptionally(e);
             }
             
@@ -193,7 +209,7 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                 try (ResponseBody responseBody = response.body()) {
                     if (!response.isSuccessful()) {
                         String errorMsg = "HTTP Error: " + response.code() + " - " + response.message();
-                        Log.e(TAG, "Binance order book error: " + errorMsg);
+                        AppLog.e(TAG, "Binance order book error: " + errorMsg);
                         future.completeExceptionally(new IOException(errorMsg));
                         return;
                     }
@@ -214,7 +230,7 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                         java.lang.reflect.Method setSymbolMethod = OrderBook.class.getMethod("setSymbol", String.class);
                         setSymbolMethod.invoke(orderBook, symbol);
                     } catch (Exception e) {
-                        Log.w(TAG, "Could not set symbol on OrderBook: " + e.getMessage());
+                        AppLog.w(TAG, "Could not set symbol on OrderBook: " + e.getMessage());
                     }
                     
                     // Set timestamp as Date
@@ -249,23 +265,23 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                     orderBook.setAsks(asks);
                     
                     // Log depth information
-                    Log.d(TAG, String.format("Binance order book for %s: %d bids (volume: %.4f), %d asks (volume: %.4f)", 
-                        symbol, bids.size(), totalBidVolume, asks.size(), totalAskVolume));
+                    AppLog.d(TAG, "Binance order book for %s: %d bids (volume: %.4f), %d asks (volume: %.4f)",
+                        symbol, bids.size(), totalBidVolume, asks.size(), totalAskVolume);
                     
                     // Calculate market depth for 1% and 2% for debugging
                     try {
                         double depth1pct = orderBook.getDepth(1.0);
                         double depth2pct = orderBook.getDepth(2.0);
-                        Log.d(TAG, String.format("Binance market depth for %s: 1%% depth=%.4f, 2%% depth=%.4f",
-                            symbol, depth1pct, depth2pct));
+                        AppLog.d(TAG, "Binance market depth for %s: 1%% depth=%.4f, 2%% depth=%.4f",
+                            symbol, depth1pct, depth2pct);
                     } catch (Exception e) {
-                        Log.w(TAG, "Could not calculate market depth: " + e.getMessage());
+                        AppLog.w(TAG, "Could not calculate market depth: " + e.getMessage());
                     }
                     
                     future.complete(orderBook);
                     
                 } catch (Exception e) {
-                    Log.e(TAG, "Error parsing order book data for " + symbol + ": " + e.getMessage());
+                    AppLog.e(TAG, "Error parsing order book data for " + symbol + ": " + e.getMessage());
                     future.completeExceptionally(e);
                 }
             }
@@ -278,16 +294,16 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
     public CompletableFuture<List<Candle>> getHistoricalData(String symbol, String interval, int limit) {
         CompletableFuture<List<Candle>> future = new CompletableFuture<>();
         
-        Log.d(TAG, "Fetching historical data for " + symbol + " with interval " + interval + " from Binance");
+        AppLog.d(TAG, "Fetching historical data for " + symbol + " with interval " + interval + " from Binance");
         
         // Binance klines endpoint: /api/v3/klines?symbol={symbol}&interval={interval}&limit={limit}
         String url = BASE_URL + "/api/v3/klines?symbol=" + symbol + "&interval=" + interval + "&limit=" + limit;
         Request request = new Request.Builder().url(url).build();
         
-        client.newCall(request).enqueue(new Callback() {
+        enqueue(client, request, future, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "Error fetching historical data for " + symbol + ": " + e.getMessage());
+                AppLog.e(TAG, "Error fetching historical data for " + symbol + ": " + e.getMessage());
                 future.completeExceptionally(e);
             }
             
@@ -296,7 +312,7 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                 try (ResponseBody responseBody = response.body()) {
                     if (!response.isSuccessful()) {
                         String errorMsg = "HTTP Error: " + response.code() + " - " + response.message();
-                        Log.e(TAG, "Binance historical data error: " + errorMsg);
+                        AppLog.e(TAG, "Binance historical data error: " + errorMsg);
                         future.completeExceptionally(new IOException(errorMsg));
                         return;
                     }
@@ -340,13 +356,13 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                         averageRange /= candles.size();
                     }
                     
-                    Log.d(TAG, String.format("Binance historical data for %s: %d candles, avg volume=%.2f, avg range=%.2f%%", 
-                        symbol, candles.size(), averageVolume, averageRange));
+                    AppLog.d(TAG, "Binance historical data for %s: %d candles, avg volume=%.2f, avg range=%.2f%%",
+                        symbol, candles.size(), averageVolume, averageRange);
                     
                     future.complete(candles);
                     
                 } catch (Exception e) {
-                    Log.e(TAG, "Error parsing historical data for " + symbol + ": " + e.getMessage());
+                    AppLog.e(TAG, "Error parsing historical data for " + symbol + ": " + e.getMessage());
                     future.completeExceptionally(e);
                 }
             }
@@ -361,7 +377,7 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
         // the actual fee endpoint requires authentication
         CompletableFuture<Double> future = new CompletableFuture<>();
         double defaultTakerFee = 0.001; // 0.1% default fee
-        Log.d(TAG, "Using default trading fee for Binance: " + (defaultTakerFee * 100) + "%");
+        AppLog.d(TAG, "Using default trading fee for Binance: " + (defaultTakerFee * 100) + "%");
         future.complete(defaultTakerFee);
         return future;
     }
@@ -369,7 +385,7 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
     @Override
     public String convertSymbolToExchangeFormat(String normalizedSymbol) {
         if (normalizedSymbol == null || normalizedSymbol.isEmpty()) {
-            Log.e(TAG, "Cannot convert null or empty symbol to Binance format");
+            AppLog.e(TAG, "Cannot convert null or empty symbol to Binance format");
             return "";
         }
         
@@ -378,7 +394,7 @@ public class BinanceApiAdapter implements ExchangeApiAdapter {
                                           .replace("-", "")
                                           .replace(" ", "")
                                           .toUpperCase(); 
-        Log.d(TAG, "Converted " + normalizedSymbol + " to Binance format: " + formatted);
+        AppLog.d(TAG, "Converted " + normalizedSymbol + " to Binance format: " + formatted);
         return formatted;
     }
     
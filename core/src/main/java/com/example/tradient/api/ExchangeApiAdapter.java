@@ -11,6 +11,8 @@ import java.util.concurrent.CompletableFuture;
  * Interface for all exchange API adapters.
  * Each exchange implementation will provide methods to fetch the necessary
  * data for risk calculations from their respective APIs.
+ * <p>
+ * Cancelling a returned future must cancel the request behind it.
  */
 public interface ExchangeApiAdapter {
     /**
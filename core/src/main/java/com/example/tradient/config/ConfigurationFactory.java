@@ -11,7 +11,7 @@ import com.example.tradient.data.model.MarketConfiguration;
  */
 public class ConfigurationFactory {
     
-    private static final ConfigurationService configService = YamlConfigurationService.getInstance();
+    private static final YamlConfigurationService configService = YamlConfigurationService.getInstance();
     
     // Constants for configuration paths
     private static final String ARBITRAGE_CONFIG_PATH = "arbitrage";
@@ -29,22 +29,33 @@ public class ConfigurationFactory {
         // Static factory, no instantiation needed
     }
     
+    /**
+     * Get the current configuration snapshot.
+     * Reading it is a single volatile read; hold on to the configuration objects only
+     * as long as a change of configuration doesn't matter.
+     * 
+     * @return The current snapshot
+     */
+    public static ConfigurationSnapshot getSnapshot() {
+        return configService.getSnapshot();
+    }
+    
     /**
      * Get the arbitrage configuration
      * 
-     * @return The arbitrage configuration
+     * @return The arbitrage configuration of the current snapshot (read-only)
      */
     public static ArbitrageConfiguration getArbitrageConfig() {
-        return configService.getObject(ARBITRAGE_CONFIG_PATH, ArbitrageConfiguration.class, new ArbitrageConfiguration());
+        return configService.getSnapshot().getArbitrageConfig();
     }
     
     /**
      * Get the exchange configuration
      * 
-     * @return The exchange configuration
+     * @return The exchange configuration of the current snapshot (read-only)
      */
     public static ExchangeConfiguration getExchangeConfig() {
-        return configService.getObject(EXCHANGES_CONFIG_PATH, ExchangeConfiguration.class, new ExchangeConfiguration());
+        return configService.getSnapshot().getExchangeConfig();
     }
     
     /**
@@ -62,7 +73,7 @@ public class ConfigurationFactory {
      * @return The market configuration
      */
     public static MarketConfiguration getMarketConfig() {
-        return configService.getObject(TRADING_CONFIG_PATH + ".market", MarketConfiguration.class, new MarketConfiguration());
+        return configService.getSnapshot().getMarketConfig();
     }
     
     /**
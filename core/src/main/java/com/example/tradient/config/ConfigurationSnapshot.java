@@ -0,0 +1,240 @@
+package com.example.tradient.config;
+
+import com.example.tradient.data.model.ArbitrageConfiguration;
+import com.example.tradient.data.model.ExchangeConfiguration;
+import com.example.tradient.data.model.MarketConfiguration;
+import com.example.tradient.util.AppLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, compiled view of the merged configuration files.
+ * <p>
+ * Built once per (re)load: every scalar is flattened into a map keyed by its dotted path,
+ * the typed configuration objects are deserialized, and the values the scanners read for
+ * every comparison (fees, thresholds, enabled exchanges) are copied into plain fields and
+ * maps. Readers obtain the current snapshot through one volatile read and never lock; a
+ * reload builds a new snapshot and swaps the reference, so a reader always sees one
+ * consistent configuration.
+ * <p>
+ * The typed configuration objects are shared by all readers of a snapshot and must be
+ * treated as read-only.
+ */
+public final class ConfigurationSnapshot {
+
+    private static final String TAG = "ConfigurationSnapshot";
+    private static final String ARBITRAGE_CONFIG_PATH = "arbitrage";
+    private static final String EXCHANGES_CONFIG_PATH = "exchanges";
+    private static final String MARKET_CONFIG_PATH = "trading.market";
+
+    private final long version;
+    private final long loadedAtMillis;
+    private final Map<String, JsonNode> nodes;
+    private final Map<String, JsonNode> paths;
+
+    private final ArbitrageConfiguration arbitrageConfig;
+    private final ExchangeConfiguration exchangeConfig;
+    private final MarketConfiguration marketConfig;
+
+    // Exchange key -> {maker, taker}
+    private final Map<String, double[]> fees;
+    private final Set<String> enabledExchanges;
+
+    private final double minProfitPercent;
+    private final double availableCapital;
+    private final double maxPositionPercent;
+    private final double maxSlippagePercent;
+
+    private ConfigurationSnapshot(long version, Map<String, JsonNode> nodes, Map<String, JsonNode> paths,
+                                  ArbitrageConfiguration arbitrageConfig, ExchangeConfiguration exchangeConfig,
+                                  MarketConfiguration marketConfig, Map<String, double[]> fees,
+                                  Set<String> enabledExchanges) {
+        this.version = version;
+        this.loadedAtMillis = System.currentTimeMillis();
+        this.nodes = nodes;
+        this.paths = paths;
+        this.arbitrageConfig = arbitrageConfig;
+        this.exchangeConfig = exchangeConfig;
+        this.marketConfig = marketConfig;
+        this.fees = fees;
+        this.enabledExchanges = enabledExchanges;
+        this.minProfitPercent = exchangeConfig.getMinProfitPercent();
+        this.availableCapital = exchangeConfig.getAvailableCapital();
+        this.maxPositionPercent = exchangeConfig.getMaxPositionPercent();
+        this.maxSlippagePercent = exchangeConfig.getMaxSlippagePercent();
+    }
+
+    /**
+     * Compile a snapshot from merged top-level configuration nodes.
+     *
+     * @param version Sequence number of the load
+     * @param topLevel Top-level keys of all configuration files, later files overriding earlier ones
+     * @param mapper Mapper used to deserialize the typed configuration objects
+     */
+    static ConfigurationSnapshot build(long version, Map<String, JsonNode> topLevel, ObjectMapper mapper) {
+        Map<String, JsonNode> nodes = new HashMap<>();
+        Map<String, JsonNode> paths = new HashMap<>();
+        for (Map.Entry<String, JsonNode> entry : topLevel.entrySet()) {
+            JsonNode node = entry.getValue().deepCopy();
+            nodes.put(entry.getKey(), node);
+            flatten(entry.getKey(), node, paths);
+        }
+
+        ArbitrageConfiguration arbitrageConfig = convert(mapper, paths.get(ARBITRAGE_CONFIG_PATH),
+                ArbitrageConfiguration.class, new ArbitrageConfiguration());
+        ExchangeConfiguration exchangeConfig = convert(mapper, paths.get(EXCHANGES_CONFIG_PATH),
+                ExchangeConfiguration.class, new ExchangeConfiguration());
+        MarketConfiguration marketConfig = convert(mapper, paths.get(MARKET_CONFIG_PATH),
+                MarketConfiguration.class, new MarketConfiguration());
+
+        // Resolve fees and enabled flags for every exchange the configuration mentions
+        Set<String> exchangeNames = new HashSet<>();
+        exchangeNames.addAll(exchangeConfig.getBaseFees().keySet());
+        exchangeNames.addAll(exchangeConfig.getEnabled().keySet());
+        if (exchangeConfig.getExchanges() != null) {
+            exchangeNames.addAll(exchangeConfig.getExchanges().keySet());
+        }
+
+        Map<String, double[]> fees = new HashMap<>();
+        Set<String> enabledExchanges = new HashSet<>();
+        for (String name : exchangeNames) {
+            String key = exchangeKey(name);
+            fees.put(key, new double[] {
+                    exchangeConfig.getFeePercentage(key, true),
+                    exchangeConfig.getFeePercentage(key, false)
+            });
+            if (exchangeConfig.isExchangeEnabled(key)) {
+                enabledExchanges.add(key);
+            }
+        }
+
+        return new ConfigurationSnapshot(version, Collections.unmodifiableMap(nodes),
+                Collections.unmodifiableMap(paths), arbitrageConfig, exchangeConfig, marketConfig,
+                Collections.unmodifiableMap(fees), Collections.unmodifiableSet(enabledExchanges));
+    }
+
+    /**
+     * Key under which the snapshot holds an exchange's fees and enabled flag, e.g. "okx" for "OKX".
+     * Callers that look an exchange up repeatedly should compute its key once and keep it.
+     */
+    public static String exchangeKey(String exchangeName) {
+        return exchangeName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sequence number of the load this snapshot came from; increases with every reload.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    /**
+     * Get a configuration node by its dotted path (e.g., "exchanges.baseFees.binance").
+     *
+     * @return The node, or null if not configured
+     */
+    public JsonNode getNode(String path) {
+        return path != null ? paths.get(path) : null;
+    }
+
+    /**
+     * Top-level configuration nodes by key.
+     */
+    public Map<String, JsonNode> getNodes() {
+        return nodes;
+    }
+
+    public ArbitrageConfiguration getArbitrageConfig() {
+        return arbitrageConfig;
+    }
+
+    public ExchangeConfiguration getExchangeConfig() {
+        return exchangeConfig;
+    }
+
+    public MarketConfiguration getMarketConfig() {
+        return marketConfig;
+    }
+
+    /**
+     * Get the fee percentage for an exchange and operation.
+     * Same values as {@link ExchangeConfiguration#getFeePercentage(String, boolean)},
+     * resolved when the snapshot was built.
+     *
+     * @param exchangeKey The exchange key, see {@link #exchangeKey(String)}
+     * @param isMaker Whether this is a maker (true) or taker (false) operation
+     * @return The fee percentage (as a decimal)
+     */
+    public double getFeePercentage(String exchangeKey, boolean isMaker) {
+        double[] exchangeFees = fees.get(exchangeKey);
+        if (exchangeFees == null) {
+            // Not configured, fall back to the built-in fee schedule
+            return exchangeConfig.getFeePercentage(exchangeKey, isMaker);
+        }
+        return isMaker ? exchangeFees[0] : exchangeFees[1];
+    }
+
+    /**
+     * Check if an exchange is enabled.
+     *
+     * @param exchangeKey The exchange key, see {@link #exchangeKey(String)}
+     */
+    public boolean isExchangeEnabled(String exchangeKey) {
+        return exchangeKey != null && enabledExchanges.contains(exchangeKey);
+    }
+
+    public Set<String> getEnabledExchanges() {
+        return enabledExchanges;
+    }
+
+    public double getMinProfitPercent() {
+        return minProfitPercent;
+    }
+
+    public double getAvailableCapital() {
+        return availableCapital;
+    }
+
+    public double getMaxPositionPercent() {
+        return maxPositionPercent;
+    }
+
+    public double getMaxSlippagePercent() {
+        return maxSlippagePercent;
+    }
+
+    private static void flatten(String path, JsonNode node, Map<String, JsonNode> paths) {
+        paths.put(path, node);
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                flatten(path + "." + field.getKey(), field.getValue(), paths);
+            }
+        }
+    }
+
+    private static <T> T convert(ObjectMapper mapper, JsonNode node, Class<T> clazz, T defaultValue) {
+        if (node == null) {
+            return defaultValue;
+        }
+        try {
+            return mapper.treeToValue(node, clazz);
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error converting configuration to object: " + clazz.getSimpleName() + ": " + e.getMessage());
+            return defaultValue;
+        }
+    }
+}
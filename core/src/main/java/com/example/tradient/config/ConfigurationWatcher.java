@@ -0,0 +1,117 @@
+package com.example.tradient.config;
+
+import com.example.tradient.util.AppLog;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the configuration directories and triggers a reload when a YAML file changes.
+ * <p>
+ * Editors usually write a file in several steps (truncate, write, rename), so events are
+ * collected until the directories have been quiet for {@link #DEBOUNCE_MILLIS} and then
+ * reloaded once. The watcher runs on a single daemon thread.
+ */
+class ConfigurationWatcher implements Runnable {
+
+    private static final String TAG = "ConfigurationWatcher";
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final List<Path> directories;
+    private final Runnable onChange;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * @param directories The directories to watch; missing ones are skipped
+     * @param onChange Called on the watcher thread after a batch of changes
+     */
+    ConfigurationWatcher(List<Path> directories, Runnable onChange) {
+        this.directories = directories;
+        this.onChange = onChange;
+    }
+
+    synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            if (Files.isDirectory(directory)) {
+                directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+        thread = new Thread(this, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            AppLog.e(TAG, "Error closing configuration watcher: " + e.getMessage());
+        }
+        thread = null;
+        watchService = null;
+    }
+
+    @Override
+    public void run() {
+        WatchService service;
+        synchronized (this) {
+            service = watchService;
+        }
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean changed = drain(key);
+
+                // Keep collecting until the directories are quiet
+                WatchKey next;
+                while ((next = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(next);
+                }
+                if (changed) {
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean yaml = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context == null) {
+                // Overflow: changes were lost, reload to be safe
+                yaml = true;
+                continue;
+            }
+            String name = context.toString();
+            yaml |= name.endsWith(".yaml") || name.endsWith(".yml");
+        }
+        key.reset();
+        return yaml;
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.tradient.config;
+
+import com.example.tradient.util.AppLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Configuration service implementation that loads configuration from YAML files.
+ * Supports hierarchical configuration, environment-specific overrides, and runtime reloading.
+ * <p>
+ * Every load compiles the files into an immutable {@link ConfigurationSnapshot} that is
+ * published through a single volatile reference, so reads never lock. With
+ * {@link #startWatching()} the configuration directories are watched and a changed file
+ * is reloaded and swapped in without restarting anything; components that copy values
+ * out of the configuration can subscribe with {@link #addReloadListener(Consumer)}.
+ */
+public class YamlConfigurationService implements ConfigurationService {
+    
+    private static final String TAG = "YamlConfiguration";
+    private static final String DEFAULT_CONFIG_DIR = "config";
+    private static final String DEFAULT_ENV = "default";
+    private static final String[] CONFIG_FILES = {
+            "application.yaml", 
+            "exchanges.yaml", 
+            "risk-parameters.yaml", 
+            "trading-limits.yaml"
+    };
+    
+    private static YamlConfigurationService INSTANCE;
+    
+    private final ObjectMapper yamlMapper;
+    private final List<Consumer<ConfigurationSnapshot>> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile ConfigurationSnapshot snapshot;
+    private final String configRoot;
+    private volatile String environment;
+    private long loadCount;
+    private ConfigurationWatcher watcher;
+    
+    /**
+     * Private constructor for singleton pattern
+     */
+    private YamlConfigurationService() {
+        // Configuration root, relative to the working directory unless overridden
+        this(System.getProperty("app.configDir", DEFAULT_CONFIG_DIR), resolveEnvironment());
+    }
+    
+    /**
+     * Create a service reading the configuration under the given root directory.
+     * 
+     * @param configRoot Directory holding one subdirectory per environment
+     * @param environment The environment whose files override the defaults
+     */
+    YamlConfigurationService(String configRoot, String environment) {
+        this.yamlMapper = new ObjectMapper(new YAMLFactory());
+        this.configRoot = configRoot;
+        this.environment = environment;
+        
+        if (!loadConfiguration()) {
+            // Nothing loaded yet, start from the built-in defaults
+            snapshot = ConfigurationSnapshot.build(0, new HashMap<>(), yamlMapper);
+        }
+    }
+    
+    /**
+     * Determine environment from system property or environment variable
+     */
+    private static String resolveEnvironment() {
+        String environment = System.getProperty("app.environment");
+        if (environment == null) {
+            environment = System.getenv("APP_ENVIRONMENT");
+        }
+        return environment != null ? environment : DEFAULT_ENV;
+    }
+    
+    /**
+     * Get the singleton instance
+     * 
+     * @return The configuration service instance
+     */
+    public static synchronized YamlConfigurationService getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new YamlConfigurationService();
+        }
+        return INSTANCE;
+    }
+    
+    /**
+     * Load configuration from YAML files and publish it as a new snapshot.
+     * If any file cannot be read, the current snapshot stays in place and
+     * the listeners are not called.
+     * 
+     * @return true if a new snapshot was published
+     */
+    private synchronized boolean loadConfiguration() {
+        Map<String, JsonNode> configurationMap = new HashMap<>();
+        
+        try {
+            // Load default configuration first
+            loadConfigurationFromDirectory(DEFAULT_ENV, configurationMap);
+            
+            // Then load environment-specific configuration (which will override defaults)
+            if (!DEFAULT_ENV.equals(environment)) {
+                loadConfigurationFromDirectory(environment, configurationMap);
+            }
+        } catch (IOException e) {
+            AppLog.e(TAG, "Configuration not loaded, keeping version "
+                    + (snapshot != null ? snapshot.getVersion() : 0) + ": " + e.getMessage());
+            return false;
+        }
+        
+        ConfigurationSnapshot loaded = ConfigurationSnapshot.build(++loadCount, configurationMap, yamlMapper);
+        snapshot = loaded;
+        
+        for (Consumer<ConfigurationSnapshot> listener : reloadListeners) {
+            try {
+                listener.accept(loaded);
+            } catch (Exception e) {
+                AppLog.e(TAG, "Error notifying configuration listener", e);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Load configuration files from a specific directory
+     * 
+     * @param directory The directory name under the config directory
+     * @param configurationMap The map to merge the files into
+     * @throws IOException If the directory cannot be listed or one of its files cannot be parsed
+     */
+    private void loadConfigurationFromDirectory(String directory, Map<String, JsonNode> configurationMap)
+            throws IOException {
+        Path configDir = Paths.get(configRoot, directory);
+        if (!Files.exists(configDir)) {
+            AppLog.w(TAG, "Configuration directory not found: " + configDir);
+            return;
+        }
+        
+        for (String fileName : CONFIG_FILES) {
+            Path configFile = configDir.resolve(fileName);
+            if (Files.exists(configFile)) {
+                readConfigurationFile(configFile, configurationMap);
+            }
+        }
+        
+        // Also load any additional YAML files in the directory
+        List<Path> additionalFiles;
+        try (Stream<Path> paths = Files.list(configDir)) {
+            additionalFiles = paths
+                    .filter(p -> p.toString().endsWith(".yaml") || p.toString().endsWith(".yml"))
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        for (String configFile : CONFIG_FILES) {
+                            if (name.equals(configFile)) {
+                                return false; // Skip files we already processed
+                            }
+                        }
+                        return true;
+                    })
+                    .collect(Collectors.toList());
+        }
+        for (Path configFile : additionalFiles) {
+            readConfigurationFile(configFile, configurationMap);
+        }
+    }
+    
+    private void readConfigurationFile(Path configFile, Map<String, JsonNode> configurationMap) throws IOException {
+        try {
+            mergeConfiguration(yamlMapper.readTree(configFile.toFile()), configurationMap);
+        } catch (IOException e) {
+            throw new IOException("Error reading configuration file: " + configFile + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Merge a configuration node into the main configuration map
+     * 
+     * @param rootNode The root node of the configuration
+     * @param configurationMap The map to merge into
+     */
+    private void mergeConfiguration(JsonNode rootNode, Map<String, JsonNode> configurationMap) {
+        rootNode.fields().forEachRemaining(entry -> {
+            String key = entry.getKey();
+            JsonNode value = entry.getValue();
+            configurationMap.put(key, value);
+        });
+    }
+    
+    @Override
+    public Optional<String> getString(String key) {
+        JsonNode node = getNode(key);
+        if (node != null && node.isTextual()) {
+            return Optional.of(node.asText());
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public String getString(String key, String defaultValue) {
+        return getString(key).orElse(defaultValue);
+    }
+    
+    @Override
+    public Optional<Integer> getInteger(String key) {
+        JsonNode node = getNode(key);
+        if (node != null && node.isInt()) {
+            return Optional.of(node.asInt());
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public int getInteger(String key, int defaultValue) {
+        return getInteger(key).orElse(defaultValue);
+    }
+    
+    @Override
+    public Optional<Double> getDouble(String key) {
+        JsonNode node = getNode(key);
+        if (node != null && node.isNumber()) {
+            return Optional.of(node.asDouble());
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        return getDouble(key).orElse(defaultValue);
+    }
+    
+    @Override
+    public Optional<Boolean> getBoolean(String key) {
+        JsonNode node = getNode(key);
+        if (node != null && node.isBoolean()) {
+            return Optional.of(node.asBoolean());
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getBoolean(key).orElse(defaultValue);
+    }
+    
+    @Override
+    public <T> Optional<T> getObject(String key, Class<T> clazz) {
+        JsonNode node = getNode(key);
+        if (node == null) {
+            return Optional.empty();
+        }
+        
+        try {
+            return Optional.of(yamlMapper.treeToValue(node, clazz));
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error converting configuration to object: " + key + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    @Override
+    public <T> T getObject(String key, Class<T> clazz, T defaultValue) {
+        return getObject(key, clazz).orElse(defaultValue);
+    }
+    
+    @Override
+    public boolean reload() {
+        try {
+            return loadConfiguration();
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error reloading configuration", e);
+            return false;
+        }
+    }
+    
+    /**
+     * Get the current configuration snapshot.
+     * Callers on hot paths should read values from the snapshot directly.
+     * 
+     * @return The snapshot of the most recent successful load, or the built-in
+     *         defaults if no load has succeeded yet
+     */
+    public ConfigurationSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Register a listener that is called with the new snapshot after every successful reload.
+     * 
+     * @param listener The listener
+     */
+    public void addReloadListener(Consumer<ConfigurationSnapshot> listener) {
+        reloadListeners.add(listener);
+    }
+    
+    /**
+     * Remove a reload listener.
+     * 
+     * @param listener The listener
+     */
+    public void removeReloadListener(Consumer<ConfigurationSnapshot> listener) {
+        reloadListeners.remove(listener);
+    }
+    
+    /**
+     * Watch the configuration directories of the default and the current environment
+     * and reload whenever one of their YAML files changes.
+     * 
+     * @return true if the watcher is running
+     */
+    public synchronized boolean startWatching() {
+        if (watcher != null) {
+            return true;
+        }
+        List<Path> directories = Arrays.asList(
+                Paths.get(configRoot, DEFAULT_ENV), Paths.get(configRoot, environment));
+        ConfigurationWatcher newWatcher = new ConfigurationWatcher(directories, this::reload);
+        try {
+            newWatcher.start();
+            watcher = newWatcher;
+            return true;
+        } catch (IOException e) {
+            AppLog.e(TAG, "Error watching configuration directories: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Stop watching the configuration directories.
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
+    
+    /**
+     * Get a configuration node by key
+     * Supports dot notation for nested properties (e.g., "exchanges.binance.fee")
+     * 
+     * @param key The configuration key
+     * @return The JSON node for the key, or null if not found
+     */
+    private JsonNode getNode(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        return snapshot.getNode(key);
+    }
+    
+    /**
+     * Set the environment for configuration
+     * 
+     * @param environment The environment name
+     * @return True if the environment was changed and configuration reloaded
+     */
+    public boolean setEnvironment(String environment) {
+        if (environment == null || environment.isEmpty() || environment.equals(this.environment)) {
+            return false;
+        }
+        
+        this.environment = environment;
+        boolean reloaded = reload();
+        
+        // Watch the directory of the new environment instead
+        synchronized (this) {
+            if (watcher != null) {
+                stopWatching();
+                startWatching();
+            }
+        }
+        return reloaded;
+    }
+} 
\ No newline at end of file
@@ -29,10 +29,10 @@ public class FeeReportGenerator {
         // Fees by exchange
         report.append("FEES BY EXCHANGE:\n");
         for (ExchangeService exchange : exchanges) {
-            FeeTracker tracker = exchange.getFeeTracker();
-            double exchangeFees = tracker.getTotalFeesPaid();
-            int exchangeTransactions = tracker.getAllFees().size();
-            double exchangeSavings = tracker.getTotalDiscountSavings();
+            FeeTracker.FeeAggregate totals = exchange.getFeeTracker().getTotals();
+            double exchangeFees = totals.getTotalAmount();
+            int exchangeTransactions = (int) totals.getCount();
+            double exchangeSavings = totals.getTotalDiscountSavings();
             
             report.append(String.format("%s: %.8f (%d transactions, %.8f savings)\n",
                     exchange.getExchangeName(), exchangeFees, exchangeTransactions, exchangeSavings));
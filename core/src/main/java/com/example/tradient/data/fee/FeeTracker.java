@@ -0,0 +1,481 @@
+package com.example.tradient.data.fee;
+
+import com.example.tradient.util.MarketClock;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages and tracks transaction fees across exchanges and trading pairs.
+ * This class provides reporting and analytics capabilities for fee management.
+ * <p>
+ * Totals, counts and discount savings are kept as running aggregates per exchange,
+ * per trading pair and per fee type, so every report is independent of the number of
+ * fees tracked. Only the most recent fees are kept as raw records; older history is
+ * available as hourly and daily rollups with bounded retention.
+ */
+public class FeeTracker {
+    
+    // Default number of raw fee records kept
+    public static final int DEFAULT_MAX_RECENT_FEES = 1000;
+    
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final int HOURLY_RETENTION = 48;
+    private static final int DAILY_RETENTION = 90;
+    
+    private final int maxRecentFees;
+    private final ArrayDeque<TransactionFee> recentFees;
+    
+    private final FeeAggregate totals = new FeeAggregate();
+    private final Map<String, FeeAggregate> feesByExchange = new HashMap<>();
+    private final Map<String, FeeAggregate> feesByTradingPair = new HashMap<>();
+    private final Map<FeeType, FeeAggregate> feesByType = new EnumMap<>(FeeType.class);
+    
+    // Rollups keyed by the start of the hour or day (epoch milliseconds)
+    private final TreeMap<Long, FeeAggregate> hourlyRollups = new TreeMap<>();
+    private final TreeMap<Long, FeeAggregate> dailyRollups = new TreeMap<>();
+    
+    // The most recent fee tracked
+    private volatile TransactionFee lastFee;
+    
+    /**
+     * Constructs a new FeeTracker instance.
+     */
+    public FeeTracker() {
+        this(DEFAULT_MAX_RECENT_FEES);
+    }
+    
+    /**
+     * Constructs a new FeeTracker instance.
+     *
+     * @param maxRecentFees The number of raw fee records to keep
+     */
+    public FeeTracker(int maxRecentFees) {
+        this.maxRecentFees = Math.max(1, maxRecentFees);
+        this.recentFees = new ArrayDeque<>(Math.min(this.maxRecentFees, 256));
+        this.lastFee = null;
+    }
+    
+    /**
+     * Track a new transaction fee.
+     *
+     * @param fee The transaction fee to track
+     */
+    public void trackFee(TransactionFee fee) {
+        trackFee(fee, MarketClock.currentTimeMillis());
+    }
+    
+    /**
+     * Track a new transaction fee charged at a given time.
+     *
+     * @param fee The transaction fee to track
+     * @param timestampMillis When the fee was charged, in epoch milliseconds
+     */
+    public synchronized void trackFee(TransactionFee fee, long timestampMillis) {
+        if (fee == null) {
+            return;
+        }
+        
+        recentFees.addLast(fee);
+        if (recentFees.size() > maxRecentFees) {
+            recentFees.removeFirst();
+        }
+        
+        totals.add(fee);
+        
+        // Track by exchange
+        String exchange = fee.getExchangeName();
+        if (exchange != null) {
+            feesByExchange.computeIfAbsent(exchange, k -> new FeeAggregate()).add(fee);
+        }
+        
+        // Track by trading pair
+        String tradingPair = fee.getTradingPair();
+        if (tradingPair != null) {
+            feesByTradingPair.computeIfAbsent(tradingPair, k -> new FeeAggregate()).add(fee);
+        }
+        
+        // Track by fee type
+        if (fee.getFeeType() != null) {
+            feesByType.computeIfAbsent(fee.getFeeType(), k -> new FeeAggregate()).add(fee);
+        }
+        
+        // Roll up by hour and day
+        long hour = timestampMillis - Math.floorMod(timestampMillis, HOUR_MILLIS);
+        long day = timestampMillis - Math.floorMod(timestampMillis, DAY_MILLIS);
+        hourlyRollups.computeIfAbsent(hour, k -> new FeeAggregate()).add(fee);
+        dailyRollups.computeIfAbsent(day, k -> new FeeAggregate()).add(fee);
+        while (hourlyRollups.size() > HOURLY_RETENTION) {
+            hourlyRollups.pollFirstEntry();
+        }
+        while (dailyRollups.size() > DAILY_RETENTION) {
+            dailyRollups.pollFirstEntry();
+        }
+        
+        // Update last fee
+        this.lastFee = fee;
+    }
+    
+    /**
+     * Calculate the total fees paid across all exchanges and trading pairs.
+     *
+     * @return The total fees paid
+     */
+    public synchronized double getTotalFeesPaid() {
+        return totals.getTotalAmount();
+    }
+    
+    /**
+     * Calculate the total fees paid to a specific exchange.
+     *
+     * @param exchangeName The name of the exchange
+     * @return The total fees paid to the exchange
+     */
+    public synchronized double getTotalFeesPaidToExchange(String exchangeName) {
+        FeeAggregate fees = feesByExchange.get(exchangeName);
+        return fees != null ? fees.getTotalAmount() : 0.0;
+    }
+    
+    /**
+     * Calculate the total fees paid for a specific trading pair.
+     *
+     * @param tradingPair The trading pair
+     * @return The total fees paid for the trading pair
+     */
+    public synchronized double getTotalFeesPaidForTradingPair(String tradingPair) {
+        FeeAggregate fees = feesByTradingPair.get(tradingPair);
+        return fees != null ? fees.getTotalAmount() : 0.0;
+    }
+    
+    /**
+     * Calculate the total discount savings across all fees.
+     *
+     * @return The total amount saved from discounts
+     */
+    public synchronized double getTotalDiscountSavings() {
+        return totals.getTotalDiscountSavings();
+    }
+    
+    /**
+     * Get the average fee rate paid across all transactions.
+     *
+     * @return The average fee rate (only for percentage fees)
+     */
+    public synchronized double getAverageFeeRate() {
+        return totals.getAveragePercentageRate();
+    }
+    
+    /**
+     * Generate a report of fees by exchange.
+     *
+     * @return A map of exchange names to total fees paid
+     */
+    public synchronized Map<String, Double> getFeesByExchangeReport() {
+        Map<String, Double> report = new HashMap<>();
+        for (Map.Entry<String, FeeAggregate> entry : feesByExchange.entrySet()) {
+            report.put(entry.getKey(), entry.getValue().getTotalAmount());
+        }
+        return report;
+    }
+    
+    /**
+     * Generate a report of fees by trading pair.
+     *
+     * @return A map of trading pairs to total fees paid
+     */
+    public synchronized Map<String, Double> getFeesByTradingPairReport() {
+        Map<String, Double> report = new HashMap<>();
+        for (Map.Entry<String, FeeAggregate> entry : feesByTradingPair.entrySet()) {
+            report.put(entry.getKey(), entry.getValue().getTotalAmount());
+        }
+        return report;
+    }
+    
+    /**
+     * Get the running aggregate of all tracked fees.
+     *
+     * @return A snapshot of the aggregate
+     */
+    public synchronized FeeAggregate getTotals() {
+        return totals.copy();
+    }
+    
+    /**
+     * Get the running aggregate of the fees paid to an exchange.
+     *
+     * @param exchangeName The name of the exchange
+     * @return A snapshot of the aggregate, empty if no fee was paid to the exchange
+     */
+    public synchronized FeeAggregate getExchangeAggregate(String exchangeName) {
+        FeeAggregate fees = feesByExchange.get(exchangeName);
+        return fees != null ? fees.copy() : new FeeAggregate();
+    }
+    
+    /**
+     * Get the running aggregate of the fees paid for a trading pair.
+     *
+     * @param tradingPair The trading pair
+     * @return A snapshot of the aggregate, empty if no fee was paid for the pair
+     */
+    public synchronized FeeAggregate getTradingPairAggregate(String tradingPair) {
+        FeeAggregate fees = feesByTradingPair.get(tradingPair);
+        return fees != null ? fees.copy() : new FeeAggregate();
+    }
+    
+    /**
+     * Get the running aggregates by fee type.
+     *
+     * @return Snapshots of the aggregates of every fee type seen
+     */
+    public synchronized Map<FeeType, FeeAggregate> getFeeTypeAggregates() {
+        Map<FeeType, FeeAggregate> report = new EnumMap<>(FeeType.class);
+        for (Map.Entry<FeeType, FeeAggregate> entry : feesByType.entrySet()) {
+            report.put(entry.getKey(), entry.getValue().copy());
+        }
+        return report;
+    }
+    
+    /**
+     * Get the hourly rollups of the last {@value #HOURLY_RETENTION} hours with fees.
+     *
+     * @return Snapshots keyed by the start of the hour in epoch milliseconds, oldest first
+     */
+    public synchronized SortedMap<Long, FeeAggregate> getHourlyRollups() {
+        return copyRollups(hourlyRollups);
+    }
+    
+    /**
+     * Get the daily rollups of the last {@value #DAILY_RETENTION} days with fees.
+     *
+     * @return Snapshots keyed by the start of the day (UTC) in epoch milliseconds, oldest first
+     */
+    public synchronized SortedMap<Long, FeeAggregate> getDailyRollups() {
+        return copyRollups(dailyRollups);
+    }
+    
+    /**
+     * Get a list of the most recently tracked transaction fees.
+     * Older fees are only available through the aggregates and rollups.
+     *
+     * @return An unmodifiable list of recent transaction fees, oldest first
+     */
+    public synchronized List<TransactionFee> getAllFees() {
+        return Collections.unmodifiableList(new ArrayList<>(recentFees));
+    }
+    
+    /**
+     * Get a list of recent transaction fees for a specific exchange.
+     *
+     * @param exchangeName The name of the exchange
+     * @return An unmodifiable list of recent transaction fees for the exchange
+     */
+    public synchronized List<TransactionFee> getFeesByExchange(String exchangeName) {
+        List<TransactionFee> fees = new ArrayList<>();
+        for (TransactionFee fee : recentFees) {
+            if (Objects.equals(fee.getExchangeName(), exchangeName)) {
+                fees.add(fee);
+            }
+        }
+        return Collections.unmodifiableList(fees);
+    }
+    
+    /**
+     * Get a list of recent transaction fees for a specific trading pair.
+     *
+     * @param tradingPair The trading pair
+     * @return An unmodifiable list of recent transaction fees for the trading pair
+     */
+    public synchronized List<TransactionFee> getFeesByTradingPair(String tradingPair) {
+        List<TransactionFee> fees = new ArrayList<>();
+        for (TransactionFee fee : recentFees) {
+            if (Objects.equals(fee.getTradingPair(), tradingPair)) {
+                fees.add(fee);
+            }
+        }
+        return Collections.unmodifiableList(fees);
+    }
+    
+    /**
+     * Get the most recent fee tracked.
+     *
+     * @return The last fee tracked, or null if none
+     */
+    public TransactionFee getLastFee() {
+        return lastFee;
+    }
+    
+    /**
+     * Generate a detailed fee summary report with statistics.
+     *
+     * @return A string containing the fee summary report
+     */
+    public synchronized String generateFeeSummaryReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("===== FEE SUMMARY REPORT =====\n\n");
+        
+        // Overall statistics
+        report.append("OVERALL STATISTICS:\n");
+        report.append(String.format("Total Fees Paid: %.8f\n", totals.getTotalAmount()));
+        report.append(String.format("Total Transactions: %d\n", totals.getCount()));
+        report.append(String.format("Total Discount Savings: %.8f\n", totals.getTotalDiscountSavings()));
+        report.append(String.format("Average Fee Rate: %.6f%%\n\n", totals.getAveragePercentageRate() * 100));
+        
+        // By Exchange
+        report.append("FEES BY EXCHANGE:\n");
+        for (Map.Entry<String, FeeAggregate> entry : feesByExchange.entrySet()) {
+            report.append(String.format("%s: %.8f\n", entry.getKey(), entry.getValue().getTotalAmount()));
+        }
+        report.append("\n");
+        
+        // By Trading Pair
+        report.append("FEES BY TRADING PAIR:\n");
+        for (Map.Entry<String, FeeAggregate> entry : feesByTradingPair.entrySet()) {
+            report.append(String.format("%s: %.8f\n", entry.getKey(), entry.getValue().getTotalAmount()));
+        }
+        report.append("\n");
+        
+        // Fee type distribution
+        report.append("FEE TYPE DISTRIBUTION:\n");
+        for (Map.Entry<FeeType, FeeAggregate> entry : feesByType.entrySet()) {
+            report.append(String.format("%s: %d transactions\n", entry.getKey(), entry.getValue().getCount()));
+        }
+        report.append("\n");
+        
+        // Maker/Taker distribution
+        long count = totals.getCount();
+        long makerCount = totals.getMakerCount();
+        long takerCount = count - makerCount;
+        
+        report.append("MAKER/TAKER DISTRIBUTION:\n");
+        report.append(String.format("Maker Fees: %d (%.2f%%)\n", 
+                                  makerCount, count > 0 ? (double) makerCount / count * 100 : 0.0));
+        report.append(String.format("Taker Fees: %d (%.2f%%)\n", 
+                                  takerCount, count > 0 ? (double) takerCount / count * 100 : 0.0));
+        
+        return report.toString();
+    }
+    
+    /**
+     * Get the total fee amount across all tracked fees.
+     *
+     * @return The total fee amount
+     */
+    public double getTotalFeeAmount() {
+        return getTotalFeesPaid();
+    }
+    
+    /**
+     * Get the total fee amount for a specific exchange.
+     *
+     * @param exchange The exchange name
+     * @return The total fee amount for the exchange
+     */
+    public double getTotalFeeAmountForExchange(String exchange) {
+        return getTotalFeesPaidToExchange(exchange);
+    }
+    
+    /**
+     * Clear all tracked fees.
+     */
+    public synchronized void clearAll() {
+        recentFees.clear();
+        totals.reset();
+        feesByExchange.clear();
+        feesByTradingPair.clear();
+        feesByType.clear();
+        hourlyRollups.clear();
+        dailyRollups.clear();
+        lastFee = null;
+    }
+    
+    /**
+     * Get the number of tracked fees, including those no longer kept as raw records.
+     *
+     * @return The count of tracked fees
+     */
+    public synchronized int getFeeCount() {
+        return (int) Math.min(Integer.MAX_VALUE, totals.getCount());
+    }
+    
+    private static SortedMap<Long, FeeAggregate> copyRollups(TreeMap<Long, FeeAggregate> rollups) {
+        TreeMap<Long, FeeAggregate> copy = new TreeMap<>();
+        for (Map.Entry<Long, FeeAggregate> entry : rollups.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return Collections.unmodifiableSortedMap(copy);
+    }
+    
+    /**
+     * Running totals of a group of fees.
+     * Instances returned by {@link FeeTracker} are snapshots and don't change afterwards.
+     */
+    public static class FeeAggregate {
+        private long count;
+        private long makerCount;
+        private double totalAmount;
+        private double totalDiscountSavings;
+        private long percentageCount;
+        private double percentageRateSum;
+        
+        void add(TransactionFee fee) {
+            count++;
+            if (fee.isMakerFee()) {
+                makerCount++;
+            }
+            totalAmount += fee.getAmount();
+            totalDiscountSavings += fee.getDiscountSavings();
+            if (fee.getFeeType() == FeeType.PERCENTAGE) {
+                percentageCount++;
+                percentageRateSum += fee.getOriginalFeeRate();
+            }
+        }
+        
+        void reset() {
+            count = 0;
+            makerCount = 0;
+            totalAmount = 0;
+            totalDiscountSavings = 0;
+            percentageCount = 0;
+            percentageRateSum = 0;
+        }
+        
+        FeeAggregate copy() {
+            FeeAggregate copy = new FeeAggregate();
+            copy.count = count;
+            copy.makerCount = makerCount;
+            copy.totalAmount = totalAmount;
+            copy.totalDiscountSavings = totalDiscountSavings;
+            copy.percentageCount = percentageCount;
+            copy.percentageRateSum = percentageRateSum;
+            return copy;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public long getMakerCount() {
+            return makerCount;
+        }
+        
+        public long getTakerCount() {
+            return count - makerCount;
+        }
+        
+        public double getTotalAmount() {
+            return totalAmount;
+        }
+        
+        public double getTotalDiscountSavings() {
+            return totalDiscountSavings;
+        }
+        
+        /**
+         * @return The average original rate of the percentage fees, or 0 if there are none
+         */
+        public double getAveragePercentageRate() {
+            return percentageCount > 0 ? percentageRateSum / percentageCount : 0.0;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.example.tradient.data.http;
+
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms of the exchange REST APIs, per exchange and per endpoint.
+ * <p>
+ * Filled by {@link LatencyEventListener} for every call made through the shared HTTP
+ * client, so the time estimators can work from measured latency instead of fixed
+ * per-exchange tables. Each call records its DNS, connect, time-to-first-byte and total
+ * durations into {@link RollingLatencyHistogram}s over the last {@value #WINDOW_MINUTES}
+ * minutes, so the estimates follow the current latency of an exchange. The median and
+ * p99 of every exchange are published as gauges in the {@link MetricsRegistry}.
+ */
+public class ExchangeLatencyTracker {
+
+    public static final String RECENT_P50 = "tradient_rest_latency_recent_p50_millis";
+    public static final String RECENT_P99 = "tradient_rest_latency_recent_p99_millis";
+
+    // Requests within the window needed before an exchange's measurements replace the fixed estimates
+    public static final int MIN_SAMPLES = 20;
+
+    public static final int WINDOW_MINUTES = 5;
+    private static final int WINDOW_SLOTS = 5;
+
+    /**
+     * REST calls of one order: placing it, two status polls until it is reported
+     * filled, and fetching the fills.
+     */
+    public static final int ORDER_ROUND_TRIPS = 4;
+
+    /**
+     * Exchange-side matching and processing of an order, on top of its API calls.
+     * Together with {@link #ORDER_ROUND_TRIPS} calls at the 100-200ms typical of the
+     * major exchanges this gives the 2.7-3.5s base times that the fixed per-exchange
+     * tables of the time estimators assumed before latency was measured.
+     */
+    public static final double ORDER_PROCESSING_SECONDS = 2.0;
+
+    private static ExchangeLatencyTracker instance;
+
+    private final ConcurrentHashMap<String, ExchangeLatency> exchanges = new ConcurrentHashMap<>();
+
+    private ExchangeLatencyTracker() {
+    }
+
+    public static synchronized ExchangeLatencyTracker getInstance() {
+        if (instance == null) {
+            instance = new ExchangeLatencyTracker();
+        }
+        return instance;
+    }
+
+    /**
+     * Phase of an HTTP call.
+     */
+    public enum Phase {
+        DNS,
+        CONNECT,
+        TIME_TO_FIRST_BYTE,
+        TOTAL
+    }
+
+    /**
+     * Record the durations of one completed call. Phases that didn't happen (for
+     * example DNS and connect on a pooled connection) are passed as -1.
+     *
+     * @param exchangeName The exchange the call went to
+     * @param endpoint The normalized endpoint path
+     * @param dnsNanos DNS lookup time, or -1
+     * @param connectNanos TCP and TLS connect time, or -1
+     * @param ttfbNanos Time from sending the request to the first response byte, or -1
+     * @param totalNanos Time of the whole call
+     */
+    public void record(String exchangeName, String endpoint,
+                       long dnsNanos, long connectNanos, long ttfbNanos, long totalNanos) {
+        String key = normalize(exchangeName);
+        ExchangeLatency exchange = exchanges.get(key);
+        if (exchange == null) {
+            ExchangeLatency created = new ExchangeLatency();
+            exchange = exchanges.putIfAbsent(key, created);
+            if (exchange == null) {
+                exchange = created;
+                registerGauges(key, created);
+            }
+        }
+        exchange.record(endpoint, dnsNanos, connectNanos, ttfbNanos, totalNanos);
+    }
+
+    /**
+     * Histogram of one phase over all endpoints of an exchange, within the window.
+     *
+     * @return A snapshot of the histogram, or null if the exchange has not been called yet
+     */
+    public LatencyHistogram getHistogram(String exchangeName, Phase phase) {
+        ExchangeLatency exchange = exchanges.get(normalize(exchangeName));
+        return exchange != null ? exchange.histograms[phase.ordinal()].snapshot() : null;
+    }
+
+    /**
+     * Histogram of one phase of a single endpoint, within the window.
+     *
+     * @return A snapshot of the histogram, or null if the endpoint has not been called yet
+     */
+    public LatencyHistogram getEndpointHistogram(String exchangeName, String endpoint, Phase phase) {
+        ExchangeLatency exchange = exchanges.get(normalize(exchangeName));
+        if (exchange == null) {
+            return null;
+        }
+        RollingLatencyHistogram[] endpointHistograms = exchange.endpoints.get(endpoint);
+        return endpointHistograms != null ? endpointHistograms[phase.ordinal()].snapshot() : null;
+    }
+
+    /**
+     * Whether an exchange has enough recent measurements to replace the fixed estimates.
+     */
+    public boolean hasMeasurements(String exchangeName) {
+        LatencyHistogram total = getHistogram(exchangeName, Phase.TOTAL);
+        return total != null && total.getCount() >= MIN_SAMPLES;
+    }
+
+    /**
+     * Network time spent on the API calls of one order: the median round trip for each
+     * call plus the p99 tail once, since one of them is likely to hit it.
+     *
+     * @param exchangeName The exchange
+     * @return The time in seconds, or -1 if the exchange doesn't have enough measurements
+     */
+    public double getOrderRoundTripSeconds(String exchangeName) {
+        LatencyHistogram total = getHistogram(exchangeName, Phase.TOTAL);
+        if (total == null || total.getCount() < MIN_SAMPLES) {
+            return -1;
+        }
+        double p50 = total.getP50Millis();
+        double p99 = total.getP99Millis();
+        return (ORDER_ROUND_TRIPS * p50 + Math.max(0, p99 - p50)) / 1000.0;
+    }
+
+    /**
+     * Time until an order on the exchange is filled and confirmed: the processing time
+     * plus {@link #getOrderRoundTripSeconds(String)}.
+     *
+     * @return The time in seconds, or -1 if the exchange doesn't have enough measurements
+     */
+    public double getOrderExecutionSeconds(String exchangeName) {
+        double roundTripSeconds = getOrderRoundTripSeconds(exchangeName);
+        return roundTripSeconds >= 0 ? ORDER_PROCESSING_SECONDS + roundTripSeconds : -1;
+    }
+
+    /**
+     * Latency summaries of all exchanges within the window, slowest median first.
+     */
+    public List<LatencySummary> getExchangeSummaries() {
+        List<LatencySummary> summaries = new ArrayList<>();
+        for (Map.Entry<String, ExchangeLatency> entry : exchanges.entrySet()) {
+            summaries.add(new LatencySummary(entry.getKey(),
+                    entry.getValue().histograms[Phase.TOTAL.ordinal()].snapshot()));
+        }
+        Collections.sort(summaries, (a, b) -> Double.compare(b.getP50Millis(), a.getP50Millis()));
+        return summaries;
+    }
+
+    /**
+     * Latency summaries of the endpoints of an exchange within the window, slowest median first.
+     */
+    public List<LatencySummary> getEndpointSummaries(String exchangeName) {
+        ExchangeLatency exchange = exchanges.get(normalize(exchangeName));
+        if (exchange == null) {
+            return Collections.emptyList();
+        }
+        List<LatencySummary> summaries = new ArrayList<>();
+        for (Map.Entry<String, RollingLatencyHistogram[]> entry : exchange.endpoints.entrySet()) {
+            summaries.add(new LatencySummary(entry.getKey(), entry.getValue()[Phase.TOTAL.ordinal()].snapshot()));
+        }
+        Collections.sort(summaries, (a, b) -> Double.compare(b.getP50Millis(), a.getP50Millis()));
+        return summaries;
+    }
+
+    /**
+     * Generate a report of the recent API latency of every exchange and endpoint.
+     */
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "===== API LATENCY REPORT (last %d min) =====\n", WINDOW_MINUTES));
+        for (LatencySummary exchange : getExchangeSummaries()) {
+            report.append(String.format(Locale.US, "%s: %s\n", exchange.getName(), exchange));
+            for (LatencySummary endpoint : getEndpointSummaries(exchange.getName())) {
+                report.append(String.format(Locale.US, "  %s: %s\n", endpoint.getName(), endpoint));
+            }
+        }
+        return report.toString();
+    }
+
+    public void clear() {
+        exchanges.clear();
+    }
+
+    private static String normalize(String exchangeName) {
+        return exchangeName != null ? exchangeName.toLowerCase(Locale.ROOT) : "unknown";
+    }
+
+    private static void registerGauges(String exchangeName, ExchangeLatency exchange) {
+        RollingLatencyHistogram total = exchange.histograms[Phase.TOTAL.ordinal()];
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.registerGauge(RECENT_P50, "exchange", exchangeName, () -> total.snapshot().getP50Millis());
+        registry.registerGauge(RECENT_P99, "exchange", exchangeName, () -> total.snapshot().getP99Millis());
+    }
+
+    private static RollingLatencyHistogram[] newHistograms() {
+        RollingLatencyHistogram[] histograms = new RollingLatencyHistogram[Phase.values().length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new RollingLatencyHistogram(WINDOW_MINUTES, TimeUnit.MINUTES, WINDOW_SLOTS);
+        }
+        return histograms;
+    }
+
+    private static void recordAll(RollingLatencyHistogram[] histograms,
+                                  long dnsNanos, long connectNanos, long ttfbNanos, long totalNanos) {
+        histograms[Phase.DNS.ordinal()].recordNanos(dnsNanos);
+        histograms[Phase.CONNECT.ordinal()].recordNanos(connectNanos);
+        histograms[Phase.TIME_TO_FIRST_BYTE.ordinal()].recordNanos(ttfbNanos);
+        histograms[Phase.TOTAL.ordinal()].recordNanos(totalNanos);
+    }
+
+    private static final class ExchangeLatency {
+        private final RollingLatencyHistogram[] histograms = newHistograms();
+        private final ConcurrentHashMap<String, RollingLatencyHistogram[]> endpoints = new ConcurrentHashMap<>();
+
+        private void record(String endpoint, long dnsNanos, long connectNanos, long ttfbNanos, long totalNanos) {
+            recordAll(histograms, dnsNanos, connectNanos, ttfbNanos, totalNanos);
+            if (endpoint != null) {
+                recordAll(endpoints.computeIfAbsent(endpoint, k -> newHistograms()),
+                        dnsNanos, connectNanos, ttfbNanos, totalNanos);
+            }
+        }
+    }
+
+    /**
+     * Point-in-time latency figures of an exchange or endpoint.
+     */
+    public static class LatencySummary {
+        private final String name;
+        private final long count;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        private LatencySummary(String name, LatencyHistogram histogram) {
+            this.name = name;
+            this.count = histogram.getCount();
+            this.p50Millis = histogram.getP50Millis();
+            this.p99Millis = histogram.getP99Millis();
+            this.maxMillis = histogram.getMaxMillis();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d calls, p50=%.1fms, p99=%.1fms, max=%.1fms",
+                    count, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
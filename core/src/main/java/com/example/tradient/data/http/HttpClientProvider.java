@@ -32,6 +32,7 @@ public class HttpClientProvider {
     
     /**
      * Create a new OkHttpClient with default timeouts.
+     * Every call is timed into the {@link ExchangeLatencyTracker}.
      *
      * @return New OkHttpClient instance
      */
@@ -40,6 +41,24 @@ public class HttpClientProvider {
                 .connectTimeout(DEFAULT_CONNECT_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(DEFAULT_READ_TIMEOUT, TimeUnit.SECONDS)
                 .writeTimeout(DEFAULT_WRITE_TIMEOUT, TimeUnit.SECONDS)
+                .eventListenerFactory(LatencyEventListener.FACTORY)
+                .build();
+    }
+    
+    /**
+     * Create a client with its own timeouts that shares the connection pool, dispatcher
+     * and latency tracking of the shared client.
+     *
+     * @param connectTimeout Connect timeout in seconds
+     * @param readTimeout Read timeout in seconds
+     * @param writeTimeout Write timeout in seconds
+     * @return OkHttpClient derived from the shared instance
+     */
+    public static OkHttpClient deriveClient(int connectTimeout, int readTimeout, int writeTimeout) {
+        return getSharedClient().newBuilder()
+                .connectTimeout(connectTimeout, TimeUnit.SECONDS)
+                .readTimeout(readTimeout, TimeUnit.SECONDS)
+                .writeTimeout(writeTimeout, TimeUnit.SECONDS)
                 .build();
     }
     
@@ -9,7 +9,6 @@ import org.json.JSONObject;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Service for making HTTP requests using OkHttp.
@@ -29,11 +28,7 @@ public class HttpService {
      */
     public HttpService(INotificationService notificationService) {
         this.notificationService = notificationService;
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS)
-            .readTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS)
-            .writeTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS)
-            .build();
+        this.httpClient = HttpClientProvider.deriveClient(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT, DEFAULT_TIMEOUT);
     }
     
     /**
@@ -0,0 +1,176 @@
+package com.example.tradient.data.http;
+
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+import com.example.tradient.util.TimeEstimationUtil;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp event listener that times every call and records it in the
+ * {@link ExchangeLatencyTracker}.
+ * <p>
+ * OkHttp creates one listener per call through {@link #FACTORY}, so the timestamps
+ * below are only touched by the thread executing that call. The exchange is derived
+ * from the host name and the endpoint from the path, with numeric path segments folded
+ * so that e.g. order IDs don't create an endpoint each. Failed and canceled calls are
+ * not timed; failures and error responses count as REST errors of the exchange in the
+ * {@link MetricsRegistry}.
+ */
+public class LatencyEventListener extends EventListener {
+
+    public static final EventListener.Factory FACTORY = call -> new LatencyEventListener();
+
+    public static final String REST_LATENCY = "tradient_rest_latency_millis";
+    public static final String REST_ERRORS = "tradient_rest_errors_total";
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String[] KNOWN_EXCHANGES = {
+            "binance", "coinbase", "kraken", "bybit", "okx", "kucoin", "huobi"
+    };
+
+    private long callStart = -1;
+    private long dnsStart = -1;
+    private long dnsNanos = -1;
+    private long connectStart = -1;
+    private long connectNanos = -1;
+    private long requestSent = -1;
+    private long ttfbNanos = -1;
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        if (dnsStart >= 0) {
+            dnsNanos = System.nanoTime() - dnsStart;
+        }
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        if (connectStart >= 0) {
+            connectNanos = System.nanoTime() - connectStart;
+        }
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestSent >= 0 && ttfbNanos < 0) {
+            ttfbNanos = System.nanoTime() - requestSent;
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        if (response.code() >= 400) {
+            countError(call);
+        }
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        if (callStart < 0) {
+            return;
+        }
+        long totalNanos = System.nanoTime() - callStart;
+        HttpUrl url = call.request().url();
+        String exchange = exchangeForUrl(url);
+
+        ExchangeLatencyTracker.getInstance().record(exchange, normalizeEndpoint(url.encodedPath()),
+                dnsNanos, connectNanos, ttfbNanos, totalNanos);
+        MetricsRegistry.getInstance().histogram(REST_LATENCY, "exchange", exchange).recordNanos(totalNanos);
+        TimeEstimationUtil.recordApiResponseTime(exchange, totalNanos / 1_000_000L);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        countError(call);
+    }
+
+    private static void countError(Call call) {
+        MetricsRegistry.getInstance().counter(REST_ERRORS, "exchange", exchangeForUrl(call.request().url())).increment();
+    }
+
+    /**
+     * Map a request URL to the exchange name. A local exchange simulator serves all
+     * exchanges from one loopback host, each under a path prefix named after it.
+     */
+    static String exchangeForUrl(HttpUrl url) {
+        String host = url.host();
+        if (("localhost".equals(host) || host.startsWith("127.") || "::1".equals(host)) && url.pathSize() > 0) {
+            String prefix = url.pathSegments().get(0).toLowerCase(Locale.ROOT);
+            for (String exchange : KNOWN_EXCHANGES) {
+                if (exchange.equals(prefix)) {
+                    return exchange;
+                }
+            }
+        }
+        return exchangeForHost(host);
+    }
+
+    /**
+     * Map an API host name to the exchange name used elsewhere in the app.
+     */
+    static String exchangeForHost(String host) {
+        if (host == null) {
+            return "unknown";
+        }
+        String lower = host.toLowerCase(Locale.ROOT);
+        for (String exchange : KNOWN_EXCHANGES) {
+            if (lower.contains(exchange)) {
+                return exchange;
+            }
+        }
+        if (lower.contains("htx")) {
+            return "huobi";
+        }
+        if (lower.contains("gate.io") || lower.contains("gateio")) {
+            return "gate";
+        }
+        // Fall back to the second-level domain, e.g. "api.example.com" -> "example"
+        String[] labels = lower.split("\\.");
+        return labels.length >= 2 ? labels[labels.length - 2] : lower;
+    }
+
+    static String normalizeEndpoint(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
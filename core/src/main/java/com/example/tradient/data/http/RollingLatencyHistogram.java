@@ -0,0 +1,99 @@
+package com.example.tradient.data.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency histogram over a sliding time window.
+ * <p>
+ * The window is split into slots, each a {@link LatencyHistogram} covering one slot
+ * duration. A value is recorded into the slot of the current time, which is cleared first
+ * if it still holds an earlier lap; {@link #snapshot()} merges the slots that are still
+ * inside the window. Measurements therefore age out one slot at a time, and a latency
+ * change shows up fully in the percentiles after one window instead of being diluted by
+ * the whole history. Values recorded while their slot is being cleared may be lost.
+ */
+public class RollingLatencyHistogram {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long slotNanos;
+    private final LatencyHistogram[] slots;
+    // Number of the time slot (time / slotNanos) each slot currently holds
+    private final AtomicLongArray slotIds;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param window Length of the window
+     * @param unit Unit of the window length
+     * @param slotCount Number of slots the window is split into
+     */
+    public RollingLatencyHistogram(long window, TimeUnit unit, int slotCount) {
+        this(window, unit, slotCount, System::nanoTime);
+    }
+
+    RollingLatencyHistogram(long window, TimeUnit unit, int slotCount, LongSupplier nanoClock) {
+        if (window <= 0 || slotCount < 1) {
+            throw new IllegalArgumentException("Window and slot count must be positive");
+        }
+        this.slotNanos = Math.max(1, unit.toNanos(window) / slotCount);
+        this.slots = new LatencyHistogram[slotCount];
+        this.slotIds = new AtomicLongArray(slotCount);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new LatencyHistogram();
+            slotIds.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Record one duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values are ignored
+     */
+    public void recordNanos(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        long id = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        int index = (int) Math.floorMod(id, (long) slots.length);
+        LatencyHistogram slot = slots[index];
+        if (slotIds.get(index) != id) {
+            synchronized (slot) {
+                if (slotIds.get(index) != id) {
+                    slot.reset();
+                    slotIds.set(index, id);
+                }
+            }
+        }
+        slot.recordNanos(nanos);
+    }
+
+    /**
+     * Histogram of the values recorded within the window. The window ends now and
+     * reaches back between slotCount - 1 and slotCount slot durations.
+     *
+     * @return A new histogram that doesn't change afterwards
+     */
+    public LatencyHistogram snapshot() {
+        long id = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        LatencyHistogram merged = new LatencyHistogram();
+        for (int i = 0; i < slots.length; i++) {
+            long slotId = slotIds.get(i);
+            if (slotId != EMPTY && slotId <= id && id - slotId < slots.length) {
+                merged.add(slots[i]);
+            }
+        }
+        return merged;
+    }
+
+    public void reset() {
+        for (int i = 0; i < slots.length; i++) {
+            synchronized (slots[i]) {
+                slots[i].reset();
+                slotIds.set(i, EMPTY);
+            }
+        }
+    }
+}
@@ -35,6 +35,16 @@ public interface INotificationService {
      */
     void logDebug(String message);
 
+    /**
+     * Whether debug messages are logged. Callers check this before building a debug
+     * message, so disabled debug logging costs no formatting.
+     *
+     * @return true if {@link #logDebug(String)} logs anything
+     */
+    default boolean isDebugEnabled() {
+        return true;
+    }
+
     /**
      * Display a notification to the user.
      *
@@ -36,9 +36,9 @@ public class ArbitrageConfiguration {
     private int minimumSuccessRate = 70;
     
     /**
-     * Maximum percentage of capital to use in a single arbitrage trade
+     * Maximum percentage of capital to use in a single arbitrage trade (25.0 = 25%)
      */
-    private double maxPositionPercent = 0.25;
+    private double maxPositionPercent = 25.0;
     
     /**
      * Base capital available for trading
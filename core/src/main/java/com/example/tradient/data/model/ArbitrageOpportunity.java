@@ -1,14 +1,17 @@
 package com.example.tradient.data.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-import android.util.Log;
-
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Date;
 
-public class ArbitrageOpportunity implements Parcelable {
+public class ArbitrageOpportunity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private TradingPair pair;
     private String exchangeBuy;
     private String exchangeSell;
@@ -65,8 +68,11 @@ public class ArbitrageOpportunity implements Parcelable {
     // Add a direct reference to RiskAssessment
     private RiskAssessment riskAssessment;
 
+    // Stage timestamps from the producing tick to publication; not serialized
+    private transient LatencyTrace latencyTrace;
+
     public ArbitrageOpportunity() {
-        this.timestamp = new Date();
+        this.timestamp = new Date(MarketClock.currentTimeMillis());
         this.executed = false;
     }
 
@@ -75,7 +81,7 @@ public class ArbitrageOpportunity implements Parcelable {
         this.exchangeSell = exchangeSell;
         this.exchangeBuy = exchangeBuy;
         this.pair = pair;
-        this.timestamp = new Date();
+        this.timestamp = new Date(MarketClock.currentTimeMillis());
         this.executed = false;
     }
 
@@ -111,7 +117,7 @@ public class ArbitrageOpportunity implements Parcelable {
         this.potentialProfit = profitPercent;
         this.pair = new TradingPair(normalizedSymbol);
         this.successfulArbitragePercent = 0.0; // Default value; risk assessment can override this later
-        this.timestamp = new Date();
+        this.timestamp = new Date(MarketClock.currentTimeMillis());
         this.executed = false;
     }
 
@@ -184,7 +190,7 @@ public class ArbitrageOpportunity implements Parcelable {
         this.liquidity = liquidity;
         this.volatility = volatility;
         this.isViable = isViable;
-        this.timestamp = new Date();
+        this.timestamp = new Date(MarketClock.currentTimeMillis());
         this.executed = false;
     }
 
@@ -263,7 +269,7 @@ public class ArbitrageOpportunity implements Parcelable {
             
             // Check if there's a significant discrepancy (more than 1 percentage point)
             if (Math.abs(profitPercent - expectedProfit) > 1.0) {
-                Log.w("ArbitrageOpportunity", String.format(
+                AppLog.w("ArbitrageOpportunity", String.format(
                     "Profit percentage discrepancy detected for %s: provided=%.2f%%, calculated=%.2f%%, using calculated value",
                     normalizedSymbol, profitPercent, expectedProfit));
                 
@@ -280,7 +286,7 @@ public class ArbitrageOpportunity implements Parcelable {
         
         // Log if we made a correction
         if (this.profitPercent != originalValue) {
-            Log.d("ArbitrageOpportunity", String.format(
+            AppLog.d("ArbitrageOpportunity", String.format(
                 "Corrected profit for %s: from %.2f%% to %.2f%%",
                 normalizedSymbol, originalValue, this.profitPercent));
         }
@@ -299,7 +305,7 @@ public class ArbitrageOpportunity implements Parcelable {
             
             // If significant discrepancy, recalculate and log
             if (Math.abs(profitPercent - expectedProfit) > 1.0) {
-                Log.w("ArbitrageOpportunity", String.format(
+                AppLog.w("ArbitrageOpportunity", String.format(
                     "Invalid profit detected in getProfitPercent for %s: stored=%.2f%%, calculated=%.2f%%, using calculated",
                     normalizedSymbol, profitPercent, expectedProfit));
                 
@@ -802,210 +808,52 @@ public class ArbitrageOpportunity implements Parcelable {
         return String.format("%.2f%%/h", roiEfficiency);
     }
 
-    // Constructor used for Parcel
-    protected ArbitrageOpportunity(Parcel in) {
-        try {
-            // Read basic fields with null safety
-            pair = in.readParcelable(TradingPair.class.getClassLoader());
-            exchangeBuy = in.readString();
-            exchangeSell = in.readString();
-            potentialProfit = in.readDouble();
-            normalizedSymbol = in.readString();
-            symbolBuy = in.readString();
-            symbolSell = in.readString();
-            
-            // Read numeric fields with validation
-            buyPrice = in.readDouble();
-            if (Double.isNaN(buyPrice) || buyPrice <= 0) buyPrice = 0.0001;
-            
-            sellPrice = in.readDouble();
-            if (Double.isNaN(sellPrice) || sellPrice <= 0) sellPrice = 0.0001;
-            
-            profitPercent = in.readDouble();
-            if (Double.isNaN(profitPercent)) profitPercent = 0.0;
-            
-            successfulArbitragePercent = in.readDouble();
-            if (Double.isNaN(successfulArbitragePercent)) successfulArbitragePercent = 0.0;
-            
-            buyFeePercentage = in.readDouble();
-            if (Double.isNaN(buyFeePercentage) || buyFeePercentage < 0) buyFeePercentage = 0.1;
-            
-            sellFeePercentage = in.readDouble();
-            if (Double.isNaN(sellFeePercentage) || sellFeePercentage < 0) sellFeePercentage = 0.1;
-            
-            isBuyMaker = in.readByte() != 0;
-            isSellMaker = in.readByte() != 0;
-            
-            buySlippage = in.readDouble();
-            if (Double.isNaN(buySlippage) || buySlippage < 0) buySlippage = 0.001;
-            
-            sellSlippage = in.readDouble();
-            if (Double.isNaN(sellSlippage) || sellSlippage < 0) sellSlippage = 0.001;
-            
-            // Read complex objects with null safety
-            buyTicker = in.readParcelable(Ticker.class.getClassLoader());
-            sellTicker = in.readParcelable(Ticker.class.getClassLoader());
-            
-            // Read more numeric fields with validation
-            priceDifferencePercentage = in.readDouble();
-            if (Double.isNaN(priceDifferencePercentage)) priceDifferencePercentage = 0.0;
-            
-            netProfitPercentage = in.readDouble();
-            if (Double.isNaN(netProfitPercentage)) netProfitPercentage = 0.0;
-            
-            riskScore = in.readDouble();
-            if (Double.isNaN(riskScore) || riskScore < 0 || riskScore > 1) riskScore = 0.5;
-            
-            liquidity = in.readDouble();
-            if (Double.isNaN(liquidity) || liquidity < 0 || liquidity > 1) liquidity = 0.5;
-            
-            volatility = in.readDouble();
-            if (Double.isNaN(volatility) || volatility < 0 || volatility > 1) volatility = 0.5;
-            
-            isViable = in.readByte() != 0;
-            
-            long tmpTimestamp = in.readLong();
-            timestamp = tmpTimestamp == -1 ? new Date() : new Date(tmpTimestamp);
-            
-            executed = in.readByte() != 0;
-            
-            fees = in.readDouble();
-            if (Double.isNaN(fees) || fees < 0) fees = 0.0;
-            
-            slippage = in.readDouble();
-            if (Double.isNaN(slippage) || slippage < 0) slippage = 0.001;
-            
-            estimatedTimeMinutes = in.readDouble();
-            if (Double.isNaN(estimatedTimeMinutes) || estimatedTimeMinutes <= 0) estimatedTimeMinutes = 3.0;
-            
-            roiEfficiency = in.readDouble();
-            if (Double.isNaN(roiEfficiency)) roiEfficiency = 0.0;
-            
-            liquidityFactor = in.readDouble();
-            if (Double.isNaN(liquidityFactor)) liquidityFactor = 0.5;
-            
-            buyExchangeLiquidity = in.readDouble();
-            if (Double.isNaN(buyExchangeLiquidity)) buyExchangeLiquidity = 0.5;
-            
-            sellExchangeLiquidity = in.readDouble();
-            if (Double.isNaN(sellExchangeLiquidity)) sellExchangeLiquidity = 0.5;
-            
-            isTimeSensitive = in.readByte() != 0;
-            
-            volume = in.readDouble();
-            if (Double.isNaN(volume) || volume < 0) volume = 0.0;
-            
-            orderBookDepth = in.readDouble();
-            if (Double.isNaN(orderBookDepth) || orderBookDepth < 0) orderBookDepth = 0.0;
-            
-            priceVolatility = in.readDouble();
-            if (Double.isNaN(priceVolatility) || priceVolatility < 0) priceVolatility = 0.0;
-            
-            totalSlippagePercentage = in.readDouble();
-            if (Double.isNaN(totalSlippagePercentage) || totalSlippagePercentage < 0) totalSlippagePercentage = 0.001;
-            
-            // Ensure we have a valid risk assessment
-            riskAssessment = in.readParcelable(RiskAssessment.class.getClassLoader());
-            if (riskAssessment == null) {
-                riskAssessment = new RiskAssessment();
-                riskAssessment.setOverallRiskScore(riskScore);
-                riskAssessment.setLiquidityScore(liquidity);
-                riskAssessment.setVolatilityScore(volatility);
-                riskAssessment.setSlippageEstimate(totalSlippagePercentage);
-                riskAssessment.setBuyFeePercentage(buyFeePercentage);
-                riskAssessment.setSellFeePercentage(sellFeePercentage);
-                riskAssessment.setExecutionTimeEstimate(estimatedTimeMinutes);
-            }
-        } catch (Exception e) {
-            // Provide safe defaults if anything goes wrong with parcel reading
-            Log.e("ArbitrageOpportunity", "Error reading from parcel", e);
-            
-            // Set default values for critical fields
-            if (timestamp == null) timestamp = new Date();
-            if (normalizedSymbol == null) normalizedSymbol = "UNKNOWN/UNKNOWN";
-            if (symbolBuy == null) symbolBuy = normalizedSymbol;
-            if (symbolSell == null) symbolSell = normalizedSymbol;
-            if (exchangeBuy == null) exchangeBuy = "Unknown";
-            if (exchangeSell == null) exchangeSell = "Unknown";
-            if (buyPrice <= 0) buyPrice = 0.0001;
-            if (sellPrice <= 0) sellPrice = 0.0001;
-            if (Double.isNaN(riskScore) || riskScore <= 0) riskScore = 0.5;
-            if (Double.isNaN(liquidity) || liquidity <= 0) liquidity = 0.5;
-            if (Double.isNaN(volatility) || volatility <= 0) volatility = 0.5;
-            if (Double.isNaN(estimatedTimeMinutes) || estimatedTimeMinutes <= 0) estimatedTimeMinutes = 3.0;
-            
-            // Create risk assessment if it doesn't exist
-            if (riskAssessment == null) {
-                riskAssessment = new RiskAssessment();
-                riskAssessment.setOverallRiskScore(0.5);
-                riskAssessment.setLiquidityScore(0.5);
-                riskAssessment.setVolatilityScore(0.5);
-                riskAssessment.setExecutionTimeEstimate(3.0);
-            }
+    /**
+     * Restore a serialized opportunity, replacing invalid values with the same safe
+     * defaults the detail screen relies on.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        
+        if (Double.isNaN(buyPrice) || buyPrice <= 0) buyPrice = 0.0001;
+        if (Double.isNaN(sellPrice) || sellPrice <= 0) sellPrice = 0.0001;
+        if (Double.isNaN(profitPercent)) profitPercent = 0.0;
+        if (Double.isNaN(successfulArbitragePercent)) successfulArbitragePercent = 0.0;
+        if (Double.isNaN(buyFeePercentage) || buyFeePercentage < 0) buyFeePercentage = 0.1;
+        if (Double.isNaN(sellFeePercentage) || sellFeePercentage < 0) sellFeePercentage = 0.1;
+        if (Double.isNaN(buySlippage) || buySlippage < 0) buySlippage = 0.001;
+        if (Double.isNaN(sellSlippage) || sellSlippage < 0) sellSlippage = 0.001;
+        if (Double.isNaN(priceDifferencePercentage)) priceDifferencePercentage = 0.0;
+        if (Double.isNaN(netProfitPercentage)) netProfitPercentage = 0.0;
+        if (Double.isNaN(riskScore) || riskScore < 0 || riskScore > 1) riskScore = 0.5;
+        if (Double.isNaN(liquidity) || liquidity < 0 || liquidity > 1) liquidity = 0.5;
+        if (Double.isNaN(volatility) || volatility < 0 || volatility > 1) volatility = 0.5;
+        if (timestamp == null) timestamp = new Date(MarketClock.currentTimeMillis());
+        if (Double.isNaN(fees) || fees < 0) fees = 0.0;
+        if (Double.isNaN(slippage) || slippage < 0) slippage = 0.001;
+        if (Double.isNaN(estimatedTimeMinutes) || estimatedTimeMinutes <= 0) estimatedTimeMinutes = 3.0;
+        if (Double.isNaN(roiEfficiency)) roiEfficiency = 0.0;
+        if (Double.isNaN(liquidityFactor)) liquidityFactor = 0.5;
+        if (Double.isNaN(buyExchangeLiquidity)) buyExchangeLiquidity = 0.5;
+        if (Double.isNaN(sellExchangeLiquidity)) sellExchangeLiquidity = 0.5;
+        if (Double.isNaN(volume) || volume < 0) volume = 0.0;
+        if (Double.isNaN(orderBookDepth) || orderBookDepth < 0) orderBookDepth = 0.0;
+        if (Double.isNaN(priceVolatility) || priceVolatility < 0) priceVolatility = 0.0;
+        if (Double.isNaN(totalSlippagePercentage) || totalSlippagePercentage < 0) totalSlippagePercentage = 0.001;
+        
+        // Ensure we have a valid risk assessment
+        if (riskAssessment == null) {
+            riskAssessment = new RiskAssessment();
+            riskAssessment.setOverallRiskScore(riskScore);
+            riskAssessment.setLiquidityScore(liquidity);
+            riskAssessment.setVolatilityScore(volatility);
+            riskAssessment.setSlippageEstimate(totalSlippagePercentage);
+            riskAssessment.setBuyFeePercentage(buyFeePercentage);
+            riskAssessment.setSellFeePercentage(sellFeePercentage);
+            riskAssessment.setExecutionTimeEstimate(estimatedTimeMinutes);
         }
     }
 
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeParcelable(pair, flags);
-        dest.writeString(exchangeBuy);
-        dest.writeString(exchangeSell);
-        dest.writeDouble(potentialProfit);
-        dest.writeString(normalizedSymbol);
-        dest.writeString(symbolBuy);
-        dest.writeString(symbolSell);
-        dest.writeDouble(buyPrice);
-        dest.writeDouble(sellPrice);
-        dest.writeDouble(profitPercent);
-        dest.writeDouble(successfulArbitragePercent);
-        dest.writeDouble(buyFeePercentage);
-        dest.writeDouble(sellFeePercentage);
-        dest.writeByte((byte) (isBuyMaker ? 1 : 0));
-        dest.writeByte((byte) (isSellMaker ? 1 : 0));
-        dest.writeDouble(buySlippage);
-        dest.writeDouble(sellSlippage);
-        dest.writeParcelable(buyTicker, flags);
-        dest.writeParcelable(sellTicker, flags);
-        dest.writeDouble(priceDifferencePercentage);
-        dest.writeDouble(netProfitPercentage);
-        dest.writeDouble(riskScore);
-        dest.writeDouble(liquidity);
-        dest.writeDouble(volatility);
-        dest.writeByte((byte) (isViable ? 1 : 0));
-        dest.writeLong(timestamp != null ? timestamp.getTime() : -1);
-        dest.writeByte((byte) (executed ? 1 : 0));
-        dest.writeDouble(fees);
-        dest.writeDouble(slippage);
-        dest.writeDouble(estimatedTimeMinutes);
-        dest.writeDouble(roiEfficiency);
-        dest.writeDouble(liquidityFactor);
-        dest.writeDouble(buyExchangeLiquidity);
-        dest.writeDouble(sellExchangeLiquidity);
-        dest.writeByte((byte) (isTimeSensitive ? 1 : 0));
-        dest.writeDouble(volume);
-        dest.writeDouble(orderBookDepth);
-        dest.writeDouble(priceVolatility);
-        dest.writeDouble(totalSlippagePercentage);
-        dest.writeParcelable(riskAssessment, flags);
-    }
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    public static final Creator<ArbitrageOpportunity> CREATOR = new Creator<ArbitrageOpportunity>() {
-        @Override
-        public ArbitrageOpportunity createFromParcel(Parcel in) {
-            return new ArbitrageOpportunity(in);
-        }
-
-        @Override
-        public ArbitrageOpportunity[] newArray(int size) {
-            return new ArbitrageOpportunity[size];
-        }
-    };
-
     /**
      * Get the percentage profit for this opportunity
      */
@@ -1148,7 +996,7 @@ public class ArbitrageOpportunity implements Parcelable {
             }
             
             // Debug log of applied risk values
-            Log.d("ArbitrageOpportunity", String.format(
+            AppLog.d("ArbitrageOpportunity", String.format(
                 "Applied risk values to %s: Risk=%.2f, Liquidity=%.2f, Volatility=%.2f, Time=%.1f min",
                 this.normalizedSymbol,
                 this.riskScore,
@@ -1204,7 +1052,7 @@ public class ArbitrageOpportunity implements Parcelable {
      */
     public double recalculateComprehensiveProfit(double initialAmount) {
         if (buyPrice <= 0 || sellPrice <= 0) {
-            Log.w("ArbitrageOpportunity", "Cannot recalculate profit with invalid prices");
+            AppLog.w("ArbitrageOpportunity", "Cannot recalculate profit with invalid prices");
             return profitPercent;
         }
         
@@ -1217,7 +1065,7 @@ public class ArbitrageOpportunity implements Parcelable {
         }
         
         if (baseAsset.isEmpty()) {
-            Log.w("ArbitrageOpportunity", "Cannot determine base asset for comprehensive profit calculation");
+            AppLog.w("ArbitrageOpportunity", "Cannot determine base asset for comprehensive profit calculation");
             return profitPercent;
         }
         
@@ -1238,13 +1086,13 @@ public class ArbitrageOpportunity implements Parcelable {
             this.profitPercent = recalculatedProfit;
             this.netProfitPercentage = recalculatedProfit; // Net profit is already included in comprehensive calculation
             
-            Log.d("ArbitrageOpportunity", String.format(
+            AppLog.d("ArbitrageOpportunity", String.format(
                 "Recalculated comprehensive profit for %s: %.4f%% (includes all fees)",
                 normalizedSymbol, recalculatedProfit));
                 
             return recalculatedProfit;
         } catch (Exception e) {
-            Log.e("ArbitrageOpportunity", "Error recalculating comprehensive profit: " + e.getMessage(), e);
+            AppLog.e("ArbitrageOpportunity", "Error recalculating comprehensive profit: " + e.getMessage(), e);
             return profitPercent;
         }
     }
@@ -1264,11 +1112,27 @@ public class ArbitrageOpportunity implements Parcelable {
         boolean isAccurate = Math.abs(originalProfit - recalculatedProfit) < 0.5;
         
         if (!isAccurate) {
-            Log.w("ArbitrageOpportunity", String.format(
+            AppLog.w("ArbitrageOpportunity", String.format(
                 "Profit percentage discrepancy detected for %s: original=%.2f%%, comprehensive=%.2f%%",
                 normalizedSymbol, originalProfit, recalculatedProfit));
         }
         
         return isAccurate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the stage timestamps of this opportunity, if it is being traced
+     * @return The trace, or null
+     */
+    public LatencyTrace getLatencyTrace() {
+        return latencyTrace;
+    }
+
+    /**
+     * Sets the stage timestamps of this opportunity
+     * @param latencyTrace The trace
+     */
+    public void setLatencyTrace(LatencyTrace latencyTrace) {
+        this.latencyTrace = latencyTrace;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.tradient.data.model;
 
+import com.example.tradient.util.MarketClock;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -18,7 +20,7 @@ public class ArbitrageResult implements com.example.tradient.data.interfaces.Arb
      */
     public ArbitrageResult() {
         this.opportunities = new ArrayList<>();
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = MarketClock.currentTimeMillis();
     }
     
     /**
@@ -29,7 +31,7 @@ public class ArbitrageResult implements com.example.tradient.data.interfaces.Arb
     public ArbitrageResult(List<com.example.tradient.data.model.ArbitrageOpportunity> opportunities) {
         this.opportunities = opportunities != null ? 
             new ArrayList<>(opportunities) : new ArrayList<>();
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = MarketClock.currentTimeMillis();
     }
     
     @Override
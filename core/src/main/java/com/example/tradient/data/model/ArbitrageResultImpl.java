@@ -1,6 +1,7 @@
 package com.example.tradient.data.model;
 
 import com.example.tradient.data.interfaces.ArbitrageResult;
+import com.example.tradient.util.MarketClock;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -18,7 +19,7 @@ public class ArbitrageResultImpl implements ArbitrageResult {
 
     public ArbitrageResultImpl(List<com.example.tradient.data.model.ArbitrageOpportunity> opportunities) {
         this.opportunities = new ArrayList<>(opportunities);
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = MarketClock.currentTimeMillis();
         this.opportunityCount = opportunities.size();
         
         // Find the best opportunity (highest profit)
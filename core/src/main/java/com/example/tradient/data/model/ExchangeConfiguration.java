@@ -48,6 +48,12 @@ public class ExchangeConfiguration {
      */
     private Map<String, Boolean> enabled = new HashMap<>();
     
+    /**
+     * Quote-currency balance available on each exchange; exchanges without an entry are
+     * only limited by the available capital
+     */
+    private Map<String, Double> balances = new HashMap<>();
+    
     private List<String> enabledExchanges = new ArrayList<>();
     private Map<String, ExchangeSettings> exchanges = new HashMap<>();
     private Map<String, Double> reliabilityScores = new HashMap<>();
@@ -88,15 +94,15 @@ public class ExchangeConfiguration {
         baseFees.put("okx", 0.001);       // 0.1% maker fee
         
         apiUrls.put("binance", "https://api.binance.com");
-        apiUrls.put("coinbase", "https://api.coinbase.com");
+        apiUrls.put("coinbase", "https://api.exchange.coinbase.com");
         apiUrls.put("kraken", "https://api.kraken.com");
         apiUrls.put("bybit", "https://api.bybit.com");
         apiUrls.put("okx", "https://www.okx.com");
         
-        wsUrls.put("binance", "wss://stream.binance.com:9443/ws");
+        wsUrls.put("binance", "wss://stream.binance.com/ws");
         wsUrls.put("coinbase", "wss://ws-feed.exchange.coinbase.com");
         wsUrls.put("kraken", "wss://ws.kraken.com");
-        wsUrls.put("bybit", "wss://stream.bybit.com/realtime");
+        wsUrls.put("bybit", "wss://stream.bybit.com/v5/public/spot");
         wsUrls.put("okx", "wss://ws.okx.com:8443/ws/v5/public");
         
         rateLimits.put("binance", 1200);
@@ -189,6 +195,14 @@ public class ExchangeConfiguration {
         this.enabled = enabled;
     }
     
+    public Map<String, Double> getBalances() {
+        return balances;
+    }
+
+    public void setBalances(Map<String, Double> balances) {
+        this.balances = balances;
+    }
+    
     /**
      * Get the base fee for a specific exchange
      * 
@@ -219,6 +233,38 @@ public class ExchangeConfiguration {
         return wsUrls.get(exchangeName.toLowerCase());
     }
     
+    /**
+     * Get the API base URL for a specific exchange, e.g. to point the services at a
+     * local exchange simulator.
+     * 
+     * @param exchangeName The exchange name
+     * @param defaultUrl The URL to use if none is configured
+     * @return The configured URL without a trailing slash, or the default
+     */
+    public String getApiUrl(String exchangeName, String defaultUrl) {
+        return configuredUrl(apiUrls, exchangeName, defaultUrl);
+    }
+    
+    /**
+     * Get the WebSocket base URL for a specific exchange.
+     * 
+     * @param exchangeName The exchange name
+     * @param defaultUrl The URL to use if none is configured
+     * @return The configured URL without a trailing slash, or the default
+     */
+    public String getWsUrl(String exchangeName, String defaultUrl) {
+        return configuredUrl(wsUrls, exchangeName, defaultUrl);
+    }
+    
+    private static String configuredUrl(Map<String, String> urls, String exchangeName, String defaultUrl) {
+        String url = urls != null ? urls.get(exchangeName.toLowerCase()) : null;
+        if (url == null || url.trim().isEmpty()) {
+            return defaultUrl;
+        }
+        url = url.trim();
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
     /**
      * Check if an exchange is enabled
      * 
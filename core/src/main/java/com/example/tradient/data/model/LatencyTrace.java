@@ -0,0 +1,137 @@
+package com.example.tradient.data.model;
+
+/**
+ * Stage timestamps of one opportunity, from the arrival of the tick that produced it to
+ * its publication.
+ * <p>
+ * The tick is the newer of the buy and sell tickers. Its stream stamps (received, parsed,
+ * applied to the exchange cache) are copied when the opportunity is scanned; scanning,
+ * risk and publication are stamped as the opportunity passes them. Times are
+ * {@link System#nanoTime()} values except the two wall-clock millisecond fields; a stage
+ * the opportunity did not pass, e.g. parsing for a ticker fetched over REST, is 0.
+ */
+public final class LatencyTrace {
+
+    private final String exchange;
+    private final long exchangeTimeMillis;
+    private final long receivedAtMillis;
+    private final long receivedNanos;
+    private final long parsedNanos;
+    private final long appliedNanos;
+    private final long scannedNanos;
+    private volatile long riskNanos;
+    private volatile long publishedNanos;
+
+    private LatencyTrace(String exchange, Ticker tick, long scannedNanos) {
+        this.exchange = exchange;
+        this.exchangeTimeMillis = tick != null && tick.getTimestamp() != null ? tick.getTimestamp().getTime() : 0;
+        this.receivedAtMillis = tick != null ? tick.getReceivedAtMillis() : 0;
+        this.receivedNanos = tick != null ? tick.getReceivedNanos() : 0;
+        this.parsedNanos = tick != null ? tick.getParsedNanos() : 0;
+        this.appliedNanos = tick != null ? tick.getAppliedNanos() : 0;
+        this.scannedNanos = scannedNanos;
+    }
+
+    /**
+     * Start a trace for an opportunity scanned from its buy and sell tickers.
+     *
+     * @param opportunity The opportunity, with its tickers set
+     * @param scannedNanos {@link System#nanoTime()} when the opportunity was evaluated
+     */
+    public static LatencyTrace scanned(ArbitrageOpportunity opportunity, long scannedNanos) {
+        Ticker buy = opportunity.getBuyTicker();
+        Ticker sell = opportunity.getSellTicker();
+        return isNewer(sell, buy)
+                ? new LatencyTrace(opportunity.getExchangeSell(), sell, scannedNanos)
+                : new LatencyTrace(opportunity.getExchangeBuy(), buy, scannedNanos);
+    }
+
+    private static boolean isNewer(Ticker a, Ticker b) {
+        if (a == null) {
+            return false;
+        }
+        if (b == null || b.getAppliedNanos() == 0) {
+            return b == null || a.getAppliedNanos() != 0;
+        }
+        return a.getAppliedNanos() != 0 && a.getAppliedNanos() - b.getAppliedNanos() > 0;
+    }
+
+    /**
+     * Stamp the completion of the risk assessment. Only the first assessment before
+     * publication counts.
+     */
+    public void markRisk(long nowNanos) {
+        if (riskNanos == 0 && publishedNanos == 0) {
+            riskNanos = nowNanos;
+        }
+    }
+
+    /**
+     * Stamp the publication of the opportunity.
+     *
+     * @return true the first time, false if it was already published
+     */
+    public synchronized boolean markPublished(long nowNanos) {
+        if (publishedNanos != 0) {
+            return false;
+        }
+        publishedNanos = nowNanos;
+        return true;
+    }
+
+    /**
+     * Exchange of the tick that produced the opportunity.
+     */
+    public String getExchange() {
+        return exchange;
+    }
+
+    /**
+     * Exchange timestamp of the tick, in epoch milliseconds.
+     */
+    public long getExchangeTimeMillis() {
+        return exchangeTimeMillis;
+    }
+
+    /**
+     * Wall-clock time the tick's message arrived, in epoch milliseconds.
+     */
+    public long getReceivedAtMillis() {
+        return receivedAtMillis;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    public long getParsedNanos() {
+        return parsedNanos;
+    }
+
+    public long getAppliedNanos() {
+        return appliedNanos;
+    }
+
+    public long getScannedNanos() {
+        return scannedNanos;
+    }
+
+    public long getRiskNanos() {
+        return riskNanos;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    /**
+     * The earliest stamp of the trace: receipt of the tick if it was streamed, otherwise
+     * its application to the cache, otherwise the scan.
+     */
+    public long getStartNanos() {
+        if (receivedNanos != 0) {
+            return receivedNanos;
+        }
+        return appliedNanos != 0 ? appliedNanos : scannedNanos;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.tradient.data.model;
 
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.LogLimiter;
+import com.example.tradient.util.MarketClock;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -19,6 +23,8 @@ import java.util.TreeMap;
  */
 public class OrderBook {
 
+    private static final LogLimiter LIQUIDITY_WARNINGS = LogLimiter.rate(5, 10_000);
+
     // The trading pair symbol (e.g., "BTC/USD")
     private String symbol;
 
@@ -37,6 +43,10 @@ public class OrderBook {
 
     private double spreadPercentage;
 
+    // Prefix sums of each side, built on first use and dropped when a side changes
+    private volatile SlippageCurve bidCurve;
+    private volatile SlippageCurve askCurve;
+
     /**
      * Constructor to initialize the OrderBook.
      *
@@ -69,7 +79,7 @@ public class OrderBook {
     public OrderBook() {
         this.bids = new ArrayList<>();
         this.asks = new ArrayList<>();
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = MarketClock.currentTimeMillis();
         this.metadata = new HashMap<>();
     }
 
@@ -188,6 +198,7 @@ public class OrderBook {
      */
     public void setBids(List<OrderBookEntry> bids) {
         this.bids = bids;
+        this.bidCurve = null;
         calculateSpread();
     }
 
@@ -198,6 +209,17 @@ public class OrderBook {
      */
     public void setAsks(List<OrderBookEntry> asks) {
         this.asks = asks;
+        this.askCurve = null;
+        calculateSpread();
+    }
+
+    /**
+     * Drops the cached slippage curves after the bid or ask lists were changed in place.
+     * Providers that apply deltas to the existing lists must call this once per update.
+     */
+    public void invalidateCurves() {
+        this.bidCurve = null;
+        this.askCurve = null;
         calculateSpread();
     }
 
@@ -207,7 +229,7 @@ public class OrderBook {
      * @param timestamp The Date timestamp to set.
      */
     public void setTimestamp(Date timestamp) {
-        this.timestamp = timestamp != null ? timestamp.getTime() : System.currentTimeMillis();
+        this.timestamp = timestamp != null ? timestamp.getTime() : MarketClock.currentTimeMillis();
     }
 
     /**
@@ -373,9 +395,30 @@ public class OrderBook {
         return totalVolume;
     }
     
+    /**
+     * Get the cumulative quantity/notional curve of one side of the book.
+     * The curve is built once per side and reused by every size query until the side is replaced
+     * or {@link #invalidateCurves()} is called.
+     *
+     * @param isBuy True for the ask side (what a buy consumes), false for the bid side
+     * @return The curve, empty if the side has no levels
+     */
+    public SlippageCurve getSlippageCurve(boolean isBuy) {
+        SlippageCurve curve = isBuy ? askCurve : bidCurve;
+        if (curve == null) {
+            curve = SlippageCurve.of(isBuy ? asks : bids);
+            if (isBuy) {
+                askCurve = curve;
+            } else {
+                bidCurve = curve;
+            }
+        }
+        return curve;
+    }
+    
     /**
      * Calculate the expected slippage for a given trade size
-     * @param tradeSize The size of the trade in base currency
+     * @param tradeSize The size of the trade in quote currency (USD equivalent)
      * @param isBuy Whether it's a buy or sell order
      * @return The expected slippage percentage
      */
@@ -384,49 +427,31 @@ public class OrderBook {
             return 0;
         }
         
-        // Use appropriate side of the order book
-        List<OrderBookEntry> orders = isBuy ? asks : bids;
-        double bestPrice = isBuy ? asks.get(0).getPrice() : bids.get(0).getPrice();
-        
-        // Calculate weighted average execution price
-        double remainingAmount = tradeSize;
-        double totalCost = 0;
-        double filledAmount = 0;
-        
-        for (OrderBookEntry order : orders) {
-            double available = order.getQuantity() * order.getPrice(); // Convert to USD equivalent
-            double price = order.getPrice();
-            
-            if (remainingAmount <= available) {
-                // This order completes our required amount
-                totalCost += remainingAmount * price;
-                filledAmount += remainingAmount;
-                remainingAmount = 0;
-                break;
-            } else {
-                // Take the entire order and continue
-                totalCost += available * price;
-                filledAmount += available;
-                remainingAmount -= available;
-            }
+        SlippageCurve curve = getSlippageCurve(isBuy);
+        if (curve.isEmpty()) {
+            return 0;
         }
+        double bestPrice = curve.getBestPrice();
+        
+        // Binary search for the level where the order ends instead of walking the book
+        double filledNotional = Math.min(tradeSize, curve.getTotalNotional());
+        double filledQuantity = curve.quantityForNotional(filledNotional);
+        double remainingAmount = tradeSize - filledNotional;
         
         // If we couldn't fill the entire order
         if (remainingAmount > 0) {
             // Real-world estimation: assume we get 20% worse price for remaining amount
-            double worstPrice = orders.get(orders.size() - 1).getPrice();
-            double estimatedPrice = worstPrice * (isBuy ? 1.20 : 0.80);
-            totalCost += remainingAmount * estimatedPrice;
-            filledAmount += remainingAmount;
+            double estimatedPrice = curve.getWorstPrice() * (isBuy ? 1.20 : 0.80);
+            filledQuantity += remainingAmount / estimatedPrice;
             
-            // Log insufficient liquidity
-            android.util.Log.w("OrderBook", String.format(
+            // Log insufficient liquidity; every scan of a thin market hits this
+            AppLog.w("OrderBook", LIQUIDITY_WARNINGS,
                 "Insufficient liquidity for %s order of size $%.2f. Missing liquidity: %.2f%%", 
-                isBuy ? "buy" : "sell", tradeSize, (remainingAmount / tradeSize) * 100));
+                isBuy ? "buy" : "sell", tradeSize, (remainingAmount / tradeSize) * 100);
         }
         
         // Calculate weighted average execution price
-        double avgExecutionPrice = totalCost / filledAmount;
+        double avgExecutionPrice = tradeSize / filledQuantity;
         
         // Calculate slippage percentage
         double slippagePercent;
@@ -440,9 +465,11 @@ public class OrderBook {
         
         // Ensure slippage is positive and log detailed calculation
         double result = Math.max(0, slippagePercent);
-        android.util.Log.d("OrderBook", String.format(
-            "Slippage calculation for %s order of $%.2f: best=%.8f, avg=%.8f, slippage=%.4f%%",
-            isBuy ? "buy" : "sell", tradeSize, bestPrice, avgExecutionPrice, result));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d("OrderBook",
+                "Slippage calculation for %s order of $%.2f: best=%.8f, avg=%.8f, slippage=%.4f%%",
+                isBuy ? "buy" : "sell", tradeSize, bestPrice, avgExecutionPrice, result);
+        }
             
         return result;
     }
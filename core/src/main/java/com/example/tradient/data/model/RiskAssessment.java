@@ -1,16 +1,22 @@
 package com.example.tradient.data.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
+import com.example.tradient.util.MarketClock;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Enhanced risk assessment model that includes detailed risk metrics
  */
-public class RiskAssessment implements Parcelable {
+public class RiskAssessment implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     // Risk components (0-1 scale, higher = better/less risky)
     private double overallRiskScore;    // Overall risk score (aggregate of all factors)
@@ -24,6 +30,7 @@ public class RiskAssessment implements Parcelable {
     private double executionTimeEstimate; // Estimated trade execution time in minutes
     private double roiEfficiency;         // ROI per hour estimate
     private double optimalTradeSize;      // Optimal trade size in USD
+    private double dailyVolatility = -1;  // Realized daily volatility of the more volatile leg, -1 if unknown
     
     // Risk level categories
     public static final String RISK_LEVEL_LOW = "LOW";
@@ -58,8 +65,14 @@ public class RiskAssessment implements Parcelable {
 
     // Additional risk factors in a map for extensibility
     private Map<String, Double> riskFactors = new HashMap<>();
+    
+    // Share of the input data that was available when scoring (1.0 = complete)
+    private double confidence = 1.0;
+    
+    // Inputs that did not arrive in time and were replaced by defaults
+    private List<String> missingInputs = new ArrayList<>();
 
-    // Required empty constructor for Parcelable 
+    // Required empty constructor
     public RiskAssessment() {
         this.overallRiskScore = 0.5;
         this.liquidityRiskScore = 0.5;
@@ -70,7 +83,7 @@ public class RiskAssessment implements Parcelable {
         this.executionTimeEstimate = 5.0;
         this.roiEfficiency = 0.002;
         this.optimalTradeSize = 1000.0;
-        this.assessmentTime = new Date();
+        this.assessmentTime = new Date(MarketClock.currentTimeMillis());
         
         // Initialize backward compatibility fields
         this.liquidityScore = 0.5;
@@ -111,7 +124,48 @@ public class RiskAssessment implements Parcelable {
         this.liquidityScore = liquidityRiskScore;
         this.volatilityScore = volatilityRiskScore;
         this.slippageRisk = 1.0 - slippageEstimate; // Invert for compatibility
-        this.assessmentTime = new Date();
+        this.assessmentTime = new Date(MarketClock.currentTimeMillis());
+    }
+
+    /**
+     * Copy constructor. The copy shares no mutable state with the original.
+     */
+    public RiskAssessment(RiskAssessment other) {
+        this.overallRiskScore = other.overallRiskScore;
+        this.liquidityRiskScore = other.liquidityRiskScore;
+        this.volatilityRiskScore = other.volatilityRiskScore;
+        this.exchangeRiskScore = other.exchangeRiskScore;
+        this.transactionRiskScore = other.transactionRiskScore;
+        this.slippageEstimate = other.slippageEstimate;
+        this.executionTimeEstimate = other.executionTimeEstimate;
+        this.roiEfficiency = other.roiEfficiency;
+        this.optimalTradeSize = other.optimalTradeSize;
+        this.dailyVolatility = other.dailyVolatility;
+        this.liquidityScore = other.liquidityScore;
+        this.volatilityScore = other.volatilityScore;
+        this.feeImpact = other.feeImpact;
+        this.marketDepthScore = other.marketDepthScore;
+        this.executionSpeedRisk = other.executionSpeedRisk;
+        this.slippageRisk = other.slippageRisk;
+        this.marketRegimeScore = other.marketRegimeScore;
+        this.sentimentScore = other.sentimentScore;
+        this.anomalyScore = other.anomalyScore;
+        this.correlationScore = other.correlationScore;
+        this.riskLevel = other.riskLevel;
+        this.earlyWarningTriggered = other.earlyWarningTriggered;
+        this.depthScore = other.depthScore;
+        this.volume = other.volume;
+        this.orderBookDepth = other.orderBookDepth;
+        this.priceVolatility = other.priceVolatility;
+        this.totalSlippagePercentage = other.totalSlippagePercentage;
+        this.exchangeBuy = other.exchangeBuy;
+        this.exchangeSell = other.exchangeSell;
+        this.buyFeePercentage = other.buyFeePercentage;
+        this.sellFeePercentage = other.sellFeePercentage;
+        this.confidence = other.confidence;
+        this.assessmentTime = other.assessmentTime != null ? new Date(other.assessmentTime.getTime()) : null;
+        this.riskFactors = other.riskFactors != null ? new HashMap<>(other.riskFactors) : new HashMap<>();
+        this.missingInputs = other.missingInputs != null ? new ArrayList<>(other.missingInputs) : new ArrayList<>();
     }
     
     // Overall risk score (higher is safer)
@@ -360,6 +414,20 @@ public class RiskAssessment implements Parcelable {
         this.priceVolatility = priceVolatility;
     }
 
+    /**
+     * Realized daily volatility of the more volatile leg as a decimal (e.g., 0.03 = 3%).
+     * Unlike the volatility score this is on the same scale for every risk calculator.
+     *
+     * @return The volatility, or -1 when neither leg has enough tick history
+     */
+    public double getDailyVolatility() {
+        return dailyVolatility;
+    }
+
+    public void setDailyVolatility(double dailyVolatility) {
+        this.dailyVolatility = dailyVolatility;
+    }
+
     public double getTotalSlippagePercentage() {
         return totalSlippagePercentage;
     }
@@ -435,119 +503,45 @@ public class RiskAssessment implements Parcelable {
         return riskFactors;
     }
     
-    // Parcelable implementation
-    protected RiskAssessment(Parcel in) {
-        overallRiskScore = in.readDouble();
-        liquidityRiskScore = in.readDouble();
-        volatilityRiskScore = in.readDouble();
-        exchangeRiskScore = in.readDouble();
-        transactionRiskScore = in.readDouble();
-        slippageEstimate = in.readDouble();
-        executionTimeEstimate = in.readDouble();
+    /**
+     * Confidence in this assessment based on how much of the input data was available.
+     * @return 0.0-1.0 where 1.0 means every input arrived
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+    
+    public void setConfidence(double confidence) {
+        this.confidence = Math.max(0.0, Math.min(1.0, confidence));
+    }
+    
+    // Record an input that was missing when the assessment was made
+    public void addMissingInput(String inputName) {
+        if (inputName != null && !missingInputs.contains(inputName)) {
+            missingInputs.add(inputName);
+        }
+    }
+    
+    public List<String> getMissingInputs() {
+        return Collections.unmodifiableList(missingInputs);
+    }
+    
+    /**
+     * @return True if the assessment was scored without some of its inputs
+     */
+    public boolean isPartial() {
+        return !missingInputs.isEmpty();
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
         
         // Add safety check for execution time
         if (executionTimeEstimate <= 0) {
             executionTimeEstimate = 3.0; // Default to 3 minutes if no value was set
         }
-        
-        roiEfficiency = in.readDouble();
-        optimalTradeSize = in.readDouble();
-        
-        // Read compatibility fields
-        liquidityScore = in.readDouble();
-        volatilityScore = in.readDouble();
-        feeImpact = in.readDouble();
-        marketDepthScore = in.readDouble();
-        executionSpeedRisk = in.readDouble();
-        slippageRisk = in.readDouble();
-        marketRegimeScore = in.readDouble();
-        sentimentScore = in.readDouble();
-        anomalyScore = in.readDouble();
-        correlationScore = in.readDouble();
-        riskLevel = in.readString();
-        earlyWarningTriggered = in.readByte() != 0;
-        long tmpTime = in.readLong();
-        assessmentTime = tmpTime == -1 ? null : new Date(tmpTime);
-        depthScore = in.readDouble();
-        volume = in.readDouble();
-        orderBookDepth = in.readDouble();
-        priceVolatility = in.readDouble();
-        totalSlippagePercentage = in.readDouble();
-        exchangeBuy = in.readString();
-        exchangeSell = in.readString();
-        buyFeePercentage = in.readDouble();
-        sellFeePercentage = in.readDouble();
-        
-        // Read risk factors map
-        int mapSize = in.readInt();
-        for (int i = 0; i < mapSize; i++) {
-            String key = in.readString();
-            double value = in.readDouble();
-            riskFactors.put(key, value);
-        }
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeDouble(overallRiskScore);
-        dest.writeDouble(liquidityRiskScore);
-        dest.writeDouble(volatilityRiskScore);
-        dest.writeDouble(exchangeRiskScore);
-        dest.writeDouble(transactionRiskScore);
-        dest.writeDouble(slippageEstimate);
-        dest.writeDouble(executionTimeEstimate);
-        dest.writeDouble(roiEfficiency);
-        dest.writeDouble(optimalTradeSize);
-        
-        // Write compatibility fields
-        dest.writeDouble(liquidityScore);
-        dest.writeDouble(volatilityScore);
-        dest.writeDouble(feeImpact);
-        dest.writeDouble(marketDepthScore);
-        dest.writeDouble(executionSpeedRisk);
-        dest.writeDouble(slippageRisk);
-        dest.writeDouble(marketRegimeScore);
-        dest.writeDouble(sentimentScore);
-        dest.writeDouble(anomalyScore);
-        dest.writeDouble(correlationScore);
-        dest.writeString(riskLevel);
-        dest.writeByte((byte) (earlyWarningTriggered ? 1 : 0));
-        dest.writeLong(assessmentTime != null ? assessmentTime.getTime() : -1);
-        dest.writeDouble(depthScore);
-        dest.writeDouble(volume);
-        dest.writeDouble(orderBookDepth);
-        dest.writeDouble(priceVolatility);
-        dest.writeDouble(totalSlippagePercentage);
-        dest.writeString(exchangeBuy);
-        dest.writeString(exchangeSell);
-        dest.writeDouble(buyFeePercentage);
-        dest.writeDouble(sellFeePercentage);
-        
-        // Write risk factors map
-        dest.writeInt(riskFactors.size());
-        for (Map.Entry<String, Double> entry : riskFactors.entrySet()) {
-            dest.writeString(entry.getKey());
-            dest.writeDouble(entry.getValue());
-        }
     }
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    public static final Creator<RiskAssessment> CREATOR = new Creator<RiskAssessment>() {
-        @Override
-        public RiskAssessment createFromParcel(Parcel in) {
-            return new RiskAssessment(in);
-        }
-
-        @Override
-        public RiskAssessment[] newArray(int size) {
-            return new RiskAssessment[size];
-        }
-    };
-
+    
     /**
      * Get a normalized (0-100) risk score for progress bars and visualizations
      * @return Integer risk score from 0-100
@@ -628,7 +622,7 @@ public class RiskAssessment implements Parcelable {
         assessment.setLiquidityScore(liquidity);
         assessment.setVolatilityScore(volatility);
         assessment.setSlippageEstimate(slippage);
-        assessment.setAssessmentTime(new Date());
+        assessment.setAssessmentTime(new Date(MarketClock.currentTimeMillis()));
         
         return assessment;
     }
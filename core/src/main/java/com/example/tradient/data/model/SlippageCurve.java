@@ -0,0 +1,274 @@
+package com.example.tradient.data.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cumulative quantity and notional of one side of an order book.
+ * <p>
+ * Built once per book side by a single pass over the levels in execution order (asks
+ * ascending, bids descending). Any trade size can then be answered with a binary search
+ * for the level where the order ends plus linear interpolation inside that level, instead
+ * of re-walking the book for every size that is probed.
+ * <p>
+ * Sizes are either in base currency ("quantity") or in quote currency ("notional").
+ * Levels with a non-positive price or quantity are skipped. Instances are immutable.
+ */
+public final class SlippageCurve {
+
+    private static final SlippageCurve EMPTY = new SlippageCurve(new double[0], new double[0], new double[0]);
+
+    private final double[] prices;
+    // cumulativeQuantity[i] and cumulativeNotional[i] include level i
+    private final double[] cumulativeQuantity;
+    private final double[] cumulativeNotional;
+
+    private SlippageCurve(double[] prices, double[] cumulativeQuantity, double[] cumulativeNotional) {
+        this.prices = prices;
+        this.cumulativeQuantity = cumulativeQuantity;
+        this.cumulativeNotional = cumulativeNotional;
+    }
+
+    /**
+     * Build a curve from order book entries.
+     *
+     * @param levels The levels of one side, in the order they would be consumed
+     */
+    public static SlippageCurve of(List<OrderBookEntry> levels) {
+        if (levels == null || levels.isEmpty()) {
+            return EMPTY;
+        }
+        int n = levels.size();
+        double[] prices = new double[n];
+        double[] quantities = new double[n];
+        for (int i = 0; i < n; i++) {
+            OrderBookEntry level = levels.get(i);
+            prices[i] = level.getPrice();
+            quantities[i] = level.getQuantity();
+        }
+        return of(prices, quantities);
+    }
+
+    /**
+     * Build a curve from parallel price and quantity arrays.
+     *
+     * @param prices Level prices, in the order they would be consumed
+     * @param quantities Level quantities in base currency
+     */
+    public static SlippageCurve of(double[] prices, double[] quantities) {
+        int n = Math.min(prices.length, quantities.length);
+        double[] p = new double[n];
+        double[] q = new double[n];
+        double[] v = new double[n];
+        int size = 0;
+        double quantity = 0;
+        double notional = 0;
+        for (int i = 0; i < n; i++) {
+            if (prices[i] <= 0 || quantities[i] <= 0) {
+                continue;
+            }
+            quantity += quantities[i];
+            notional += quantities[i] * prices[i];
+            p[size] = prices[i];
+            q[size] = quantity;
+            v[size] = notional;
+            size++;
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        if (size < n) {
+            p = Arrays.copyOf(p, size);
+            q = Arrays.copyOf(q, size);
+            v = Arrays.copyOf(v, size);
+        }
+        return new SlippageCurve(p, q, v);
+    }
+
+    public boolean isEmpty() {
+        return prices.length == 0;
+    }
+
+    public int getLevelCount() {
+        return prices.length;
+    }
+
+    /**
+     * @return Price of the first level, or 0 if empty
+     */
+    public double getBestPrice() {
+        return prices.length > 0 ? prices[0] : 0;
+    }
+
+    /**
+     * @return Price of the last level, or 0 if empty
+     */
+    public double getWorstPrice() {
+        return prices.length > 0 ? prices[prices.length - 1] : 0;
+    }
+
+    /**
+     * @return Total base quantity on this side
+     */
+    public double getTotalQuantity() {
+        return prices.length > 0 ? cumulativeQuantity[prices.length - 1] : 0;
+    }
+
+    /**
+     * @return Total quote value on this side
+     */
+    public double getTotalNotional() {
+        return prices.length > 0 ? cumulativeNotional[prices.length - 1] : 0;
+    }
+
+    /**
+     * Base quantity obtained by spending (or receiving) a quote amount, capped at the
+     * total quantity on this side.
+     */
+    public double quantityForNotional(double notional) {
+        if (notional <= 0 || prices.length == 0) {
+            return 0;
+        }
+        int level = search(cumulativeNotional, notional);
+        if (level == prices.length) {
+            return getTotalQuantity();
+        }
+        double quantityBefore = level > 0 ? cumulativeQuantity[level - 1] : 0;
+        double notionalBefore = level > 0 ? cumulativeNotional[level - 1] : 0;
+        return quantityBefore + (notional - notionalBefore) / prices[level];
+    }
+
+    /**
+     * Quote value of executing a base quantity, capped at the total notional on this side.
+     */
+    public double notionalForQuantity(double quantity) {
+        if (quantity <= 0 || prices.length == 0) {
+            return 0;
+        }
+        int level = search(cumulativeQuantity, quantity);
+        if (level == prices.length) {
+            return getTotalNotional();
+        }
+        double quantityBefore = level > 0 ? cumulativeQuantity[level - 1] : 0;
+        double notionalBefore = level > 0 ? cumulativeNotional[level - 1] : 0;
+        return notionalBefore + (quantity - quantityBefore) * prices[level];
+    }
+
+    /**
+     * Volume-weighted average price of an order sized in quote currency.
+     * If the book is too thin, this is the average over the part that can be filled.
+     *
+     * @return The VWAP, or 0 if empty
+     */
+    public double vwapForNotional(double notional) {
+        if (notional <= 0) {
+            return getBestPrice();
+        }
+        double filledNotional = Math.min(notional, getTotalNotional());
+        double quantity = quantityForNotional(filledNotional);
+        return quantity > 0 ? filledNotional / quantity : 0;
+    }
+
+    /**
+     * Volume-weighted average price of an order sized in base currency.
+     * If the book is too thin, this is the average over the part that can be filled.
+     *
+     * @return The VWAP, or 0 if empty
+     */
+    public double vwapForQuantity(double quantity) {
+        if (quantity <= 0) {
+            return getBestPrice();
+        }
+        double filledQuantity = Math.min(quantity, getTotalQuantity());
+        return filledQuantity > 0 ? notionalForQuantity(filledQuantity) / filledQuantity : 0;
+    }
+
+    /**
+     * Relative distance between the VWAP of a quote-sized order and a reference price.
+     *
+     * @param notional Order size in quote currency
+     * @param referencePrice Usually the best price of this side
+     * @return Slippage as a non-negative decimal (e.g., 0.01 = 1%)
+     */
+    public double slippageForNotional(double notional, double referencePrice) {
+        if (referencePrice <= 0 || prices.length == 0) {
+            return 0;
+        }
+        return Math.abs(vwapForNotional(notional) - referencePrice) / referencePrice;
+    }
+
+    /**
+     * Relative distance between the VWAP of a base-sized order and a reference price.
+     *
+     * @param quantity Order size in base currency
+     * @param referencePrice Usually the best price of this side
+     * @return Slippage as a non-negative decimal (e.g., 0.01 = 1%)
+     */
+    public double slippageForQuantity(double quantity, double referencePrice) {
+        if (referencePrice <= 0 || prices.length == 0) {
+            return 0;
+        }
+        return Math.abs(vwapForQuantity(quantity) - referencePrice) / referencePrice;
+    }
+
+    /**
+     * Largest quote-sized order whose slippage against the best price stays within a limit.
+     * Slippage only grows with size, so this is a binary search over the levels followed
+     * by solving for the size inside the last level.
+     *
+     * @param maxSlippage Maximum slippage as a decimal
+     * @return The order size in quote currency (the whole side if it never exceeds the limit)
+     */
+    public double maxNotionalWithinSlippage(double maxSlippage) {
+        if (prices.length == 0 || maxSlippage < 0) {
+            return 0;
+        }
+        double best = prices[0];
+        int lo = 0;
+        int hi = prices.length - 1;
+        // Find the last level whose complete consumption is still within the limit
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            double vwap = cumulativeNotional[mid] / cumulativeQuantity[mid];
+            if (Math.abs(vwap - best) / best <= maxSlippage) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (lo == prices.length - 1) {
+            return getTotalNotional();
+        }
+
+        // Part of the next level: solve |(V + p*x)/(Q + x) - best| = maxSlippage * best for x
+        double quantity = cumulativeQuantity[lo];
+        double notional = cumulativeNotional[lo];
+        double next = prices[lo + 1];
+        double target = next >= best ? best * (1 + maxSlippage) : best * (1 - maxSlippage);
+        double denominator = next - target;
+        if (denominator == 0) {
+            return notional;
+        }
+        double extra = (target * quantity - notional) / denominator;
+        extra = Math.max(0, Math.min(extra, cumulativeQuantity[lo + 1] - quantity));
+        return notional + extra * next;
+    }
+
+    /**
+     * Index of the first cumulative value that is at least the target,
+     * or the length of the array if the target exceeds the total.
+     */
+    private static int search(double[] cumulative, double target) {
+        int lo = 0;
+        int hi = cumulative.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
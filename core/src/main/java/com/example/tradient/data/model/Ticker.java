@@ -1,14 +1,14 @@
 package com.example.tradient.data.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-
+import java.io.Serializable;
 import java.util.Date;
 
 /**
  * Represents ticker data from an exchange
  */
-public class Ticker implements Parcelable {
+public class Ticker implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private double bidPrice;
     private double askPrice;
     private double lastPrice;
@@ -26,6 +26,12 @@ public class Ticker implements Parcelable {
     private String exchangeName = "";
     private String symbol = "";
 
+    // Pipeline stamps (System.nanoTime) of streamed updates, see LatencyTrace; 0 when unset
+    private transient long receivedNanos;
+    private transient long parsedNanos;
+    private transient long appliedNanos;
+    private transient long receivedAtMillis;
+
     public Ticker() {
     }
 
@@ -50,55 +56,6 @@ public class Ticker implements Parcelable {
         this.symbol = ""; // Default empty symbol
     }
 
-    protected Ticker(Parcel in) {
-        bidPrice = in.readDouble();
-        askPrice = in.readDouble();
-        lastPrice = in.readDouble();
-        volume = in.readDouble();
-        long tmpTimestamp = in.readLong();
-        timestamp = tmpTimestamp == -1 ? null : new Date(tmpTimestamp);
-        openPrice = in.readDouble();
-        bidAmount = in.readDouble();
-        askAmount = in.readDouble();
-        highPrice = in.readDouble();
-        lowPrice = in.readDouble();
-        exchangeName = in.readString();
-        symbol = in.readString();
-    }
-
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeDouble(bidPrice);
-        dest.writeDouble(askPrice);
-        dest.writeDouble(lastPrice);
-        dest.writeDouble(volume);
-        dest.writeLong(timestamp != null ? timestamp.getTime() : -1);
-        dest.writeDouble(openPrice);
-        dest.writeDouble(bidAmount);
-        dest.writeDouble(askAmount);
-        dest.writeDouble(highPrice);
-        dest.writeDouble(lowPrice);
-        dest.writeString(exchangeName);
-        dest.writeString(symbol);
-    }
-
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    public static final Creator<Ticker> CREATOR = new Creator<Ticker>() {
-        @Override
-        public Ticker createFromParcel(Parcel in) {
-            return new Ticker(in);
-        }
-
-        @Override
-        public Ticker[] newArray(int size) {
-            return new Ticker[size];
-        }
-    };
-
     public void setBidPrice(double bidPrice) {
         this.bidPrice = bidPrice;
     }
@@ -253,6 +210,42 @@ public class Ticker implements Parcelable {
         this.symbol = symbol;
     }
 
+    /**
+     * Stamp the arrival of the message this ticker was parsed from and the end of parsing.
+     *
+     * @param receivedNanos {@link System#nanoTime()} when the message arrived
+     * @param receivedAtMillis Wall-clock time when the message arrived
+     * @param parsedNanos {@link System#nanoTime()} when parsing completed
+     */
+    public void stampReceived(long receivedNanos, long receivedAtMillis, long parsedNanos) {
+        this.receivedNanos = receivedNanos;
+        this.receivedAtMillis = receivedAtMillis;
+        this.parsedNanos = parsedNanos;
+    }
+
+    /**
+     * Stamp the time this ticker was applied to the exchange's cache.
+     */
+    public void stampApplied(long appliedNanos) {
+        this.appliedNanos = appliedNanos;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    public long getReceivedAtMillis() {
+        return receivedAtMillis;
+    }
+
+    public long getParsedNanos() {
+        return parsedNanos;
+    }
+
+    public long getAppliedNanos() {
+        return appliedNanos;
+    }
+
     /**
      * Calculate the spread between bid and ask prices
      * @return The spread as a percentage of the bid price
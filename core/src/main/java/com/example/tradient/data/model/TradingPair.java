@@ -1,12 +1,13 @@
 package com.example.tradient.data.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
+import java.io.Serializable;
 
 /**
  * Represents a trading pair (e.g., BTC/USD)
  */
-public class TradingPair implements Parcelable {
+public class TradingPair implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String symbol;
     private String name;
     private String baseAsset;
@@ -46,25 +47,6 @@ public class TradingPair implements Parcelable {
         }
     }
     
-    protected TradingPair(Parcel in) {
-        symbol = in.readString();
-        name = in.readString();
-        baseAsset = in.readString();
-        quoteAsset = in.readString();
-    }
-    
-    public static final Creator<TradingPair> CREATOR = new Creator<TradingPair>() {
-        @Override
-        public TradingPair createFromParcel(Parcel in) {
-            return new TradingPair(in);
-        }
-        
-        @Override
-        public TradingPair[] newArray(int size) {
-            return new TradingPair[size];
-        }
-    };
-    
     public String getSymbol() {
         return symbol;
     }
@@ -88,17 +70,4 @@ public class TradingPair implements Parcelable {
     public String getQuoteAsset() {
         return quoteAsset;
     }
-    
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-    
-    @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeString(symbol);
-        dest.writeString(name);
-        dest.writeString(baseAsset);
-        dest.writeString(quoteAsset);
-    }
 } 
\ No newline at end of file
@@ -8,12 +8,16 @@ import com.example.tradient.data.fee.TieredFee;
 import com.example.tradient.data.fee.TransactionFee;
 import com.example.tradient.data.interfaces.IExchangeService;
 import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.domain.market.MarketDataVersions;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
 import com.example.tradient.data.interfaces.IWebSocketUpdateListener;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.model.TradingPair;
 import com.example.tradient.data.service.websocket.BaseWebSocketProvider;
 import com.example.tradient.data.fee.PercentageFee;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
+import com.example.tradient.util.MarketClock;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -115,6 +119,10 @@ public abstract class BaseExchangeService implements IExchangeService {
             ticker = fetchTickerDataREST(symbol);
             if (ticker != null) {
                 tickerCache.put(symbol, ticker);
+                RollingVolatilityEstimator.getInstance().onTicker(getExchangeName(), symbol, ticker);
+                MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+                MarketDataRecorder.getInstance().recordTicker(getExchangeName(), symbol, ticker,
+                        MarketDataRecorder.Source.REST);
             }
         }
         return ticker;
@@ -131,6 +139,9 @@ public abstract class BaseExchangeService implements IExchangeService {
             orderBook = fetchOrderBookREST(symbol);
             if (orderBook != null) {
                 orderBookCache.put(symbol, orderBook);
+                MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+                MarketDataRecorder.getInstance().recordOrderBook(getExchangeName(), symbol, orderBook,
+                        MarketDataRecorder.Source.REST);
             }
         }
         
@@ -150,7 +161,7 @@ public abstract class BaseExchangeService implements IExchangeService {
     @Override
     public boolean isTickerStale(Ticker ticker) {
         // Default implementation: consider a ticker stale if it's older than 5 seconds
-        return System.currentTimeMillis() - ticker.getTimestamp().getTime() > 5000;
+        return MarketClock.currentTimeMillis() - ticker.getTimestamp().getTime() > 5000;
     }
     
     /**
@@ -164,7 +175,7 @@ public abstract class BaseExchangeService implements IExchangeService {
         if (orderBook == null) {
             return true;
         }
-        return System.currentTimeMillis() - orderBook.getTimestamp() > 5000;
+        return MarketClock.currentTimeMillis() - orderBook.getTimestamp() > 5000;
     }
     
     @Override
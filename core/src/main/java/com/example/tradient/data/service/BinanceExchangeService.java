@@ -1,5 +1,6 @@
 package com.example.tradient.data.service;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.fee.ExchangeFeeFactory;
 import com.example.tradient.data.fee.Fee;
 import com.example.tradient.data.http.HttpService;
@@ -30,7 +31,10 @@ import java.util.Random;
 public class BinanceExchangeService extends ExchangeService {
 
     // API endpoints
-    private static final String BASE_URL = "https://api.binance.com";
+    private static final String DEFAULT_BASE_URL = "https://api.binance.com";
+    
+    // Base URL of the REST API, configurable through exchanges.apiUrls
+    private final String baseUrl = ConfigurationFactory.getExchangeConfig().getApiUrl("binance", DEFAULT_BASE_URL);
     
     // HTTP client for REST API calls
     private final HttpService httpService;
@@ -172,7 +176,7 @@ public class BinanceExchangeService extends ExchangeService {
         List<TradingPair> pairs = new ArrayList<>();
         
         try {
-            String endpoint = BASE_URL + "/api/v3/exchangeInfo";
+            String endpoint = baseUrl + "/api/v3/exchangeInfo";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -183,7 +187,8 @@ public class BinanceExchangeService extends ExchangeService {
                 if ("TRADING".equals(symbol.getString("status"))) {
                     String baseAsset = symbol.getString("baseAsset");
                     String quoteAsset = symbol.getString("quoteAsset");
-                    pairs.add(new TradingPair(baseAsset, quoteAsset));
+                    // Symbol as the other endpoints expect it (BTCUSDT), BASE/QUOTE as name
+                    pairs.add(new TradingPair(symbol.getString("symbol"), baseAsset + "/" + quoteAsset));
                 }
             }
             
@@ -201,7 +206,7 @@ public class BinanceExchangeService extends ExchangeService {
     @Override
     public Ticker fetchTickerDataREST(String symbol) {
         try {
-            String endpoint = BASE_URL + "/api/v3/ticker/bookTicker?symbol=" + symbol;
+            String endpoint = baseUrl + "/api/v3/ticker/bookTicker?symbol=" + symbol;
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -209,7 +214,7 @@ public class BinanceExchangeService extends ExchangeService {
             double askPrice = json.getDouble("askPrice");
             
             // Get 24h volume from a separate endpoint
-            endpoint = BASE_URL + "/api/v3/ticker/24hr?symbol=" + symbol;
+            endpoint = baseUrl + "/api/v3/ticker/24hr?symbol=" + symbol;
             response = httpService.get(endpoint);
             
             double volume = 0;
@@ -240,7 +245,7 @@ public class BinanceExchangeService extends ExchangeService {
         try {
             // Request the maximum depth (5000 levels) for full order book analysis
             // This ensures we're getting all available liquidity data
-            String endpoint = BASE_URL + "/api/v3/depth?symbol=" + symbol.replace("/", "") + "&limit=5000";
+            String endpoint = baseUrl + "/api/v3/depth?symbol=" + symbol.replace("/", "") + "&limit=5000";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -408,7 +413,7 @@ public class BinanceExchangeService extends ExchangeService {
             
             // Construct Binance API endpoint for k-line data
             String interval = "1h"; // 1 hour candles
-            String endpoint = BASE_URL + "/api/v3/klines" +
+            String endpoint = baseUrl + "/api/v3/klines" +
                     "?symbol=" + symbol.replace("/", "") + 
                     "&interval=" + interval +
                     "&startTime=" + startTime +
@@ -1,5 +1,6 @@
 package com.example.tradient.data.service;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.fee.Fee;
 import com.example.tradient.data.http.HttpService;
 import com.example.tradient.data.interfaces.INotificationService;
@@ -31,7 +32,10 @@ import java.util.Random;
  */
 public class BybitV5ExchangeService extends ExchangeService {
 
-    private static final String BASE_URL = "https://api.bybit.com";
+    private static final String DEFAULT_BASE_URL = "https://api.bybit.com";
+    
+    // Base URL of the REST API, configurable through exchanges.apiUrls
+    private final String baseUrl = ConfigurationFactory.getExchangeConfig().getApiUrl("bybit", DEFAULT_BASE_URL);
     private final HttpService httpService;
     private BaseWebSocketProvider webSocketProvider;
 
@@ -127,7 +131,7 @@ public class BybitV5ExchangeService extends ExchangeService {
     public List<TradingPair> fetchTradingPairs() {
         List<TradingPair> tradingPairs = new ArrayList<>();
         try {
-            String endpoint = BASE_URL + "/v5/market/instruments-info?category=spot";
+            String endpoint = baseUrl + "/v5/market/instruments-info?category=spot";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -164,7 +168,7 @@ public class BybitV5ExchangeService extends ExchangeService {
     public Ticker fetchTickerDataREST(String symbol) {
         Ticker ticker = null;
         try {
-            String endpoint = BASE_URL + "/v5/market/tickers?category=spot";
+            String endpoint = baseUrl + "/v5/market/tickers?category=spot";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -206,7 +210,7 @@ public class BybitV5ExchangeService extends ExchangeService {
     public OrderBook fetchOrderBookREST(String symbol) {
         OrderBook orderBook = null;
         try {
-            String endpoint = BASE_URL + "/v5/market/orderbook?category=spot&symbol=" + symbol + "&limit=5";
+            String endpoint = baseUrl + "/v5/market/orderbook?category=spot&symbol=" + symbol + "&limit=5";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
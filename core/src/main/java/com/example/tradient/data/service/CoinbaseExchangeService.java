@@ -1,5 +1,6 @@
 package com.example.tradient.data.service;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.fee.Fee;
 import com.example.tradient.data.fee.PercentageFee;
 import com.example.tradient.data.http.HttpService;
@@ -27,10 +28,14 @@ import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
-import androidx.annotation.Nullable;
 
 import com.example.tradient.data.service.websocket.CoinbaseWebSocketProvider;
 import com.example.tradient.data.service.websocket.BaseWebSocketProvider;
+import com.example.tradient.domain.market.CandleAggregator;
+import com.example.tradient.domain.market.MarketDataVersions;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.infrastructure.metrics.WebSocketMetrics;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
 
 /**
  * CoinbaseExchangeService provides implementations for fetching data from Coinbase's API.
@@ -45,8 +50,12 @@ import com.example.tradient.data.service.websocket.BaseWebSocketProvider;
  */
 public class CoinbaseExchangeService extends ExchangeService {
 
-    private static final String BASE_URL = "https://api.exchange.coinbase.com";
-    private static final String WS_BASE_URL = "wss://ws-feed.exchange.coinbase.com";
+    private static final String DEFAULT_BASE_URL = "https://api.exchange.coinbase.com";
+    private static final String DEFAULT_WS_BASE_URL = "wss://ws-feed.exchange.coinbase.com";
+
+    // Base URLs, configurable through exchanges.apiUrls and exchanges.wsUrls
+    private final String baseUrl = ConfigurationFactory.getExchangeConfig().getApiUrl("coinbase", DEFAULT_BASE_URL);
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("coinbase", DEFAULT_WS_BASE_URL);
 
     // HTTP client
     private final HttpService httpService;
@@ -62,6 +71,7 @@ public class CoinbaseExchangeService extends ExchangeService {
 
     // Add the listeners list as a class variable near the other class variables
     private final List<IWebSocketUpdateListener> listeners = new CopyOnWriteArrayList<>();
+    private final WebSocketMetrics webSocketMetrics = new WebSocketMetrics("Coinbase");
 
     /**
      * Constructs a CoinbaseExchangeService instance.
@@ -96,7 +106,7 @@ public class CoinbaseExchangeService extends ExchangeService {
     public List<TradingPair> fetchTradingPairs() {
         List<TradingPair> tradingPairs = new ArrayList<>();
         try {
-            String endpoint = BASE_URL + "/products";
+            String endpoint = baseUrl + "/products";
             String response = httpService.get(endpoint);
 
             // Parse JSON response (an array of product objects)
@@ -133,7 +143,7 @@ public class CoinbaseExchangeService extends ExchangeService {
     public Ticker fetchTickerDataREST(String symbol) {
         Ticker ticker = null;
         try {
-            String endpoint = BASE_URL + "/products/" + symbol + "/ticker";
+            String endpoint = baseUrl + "/products/" + symbol + "/ticker";
             String response = httpService.get(endpoint);
 
             JSONObject json = HttpService.parseJsonObject(response);
@@ -164,7 +174,7 @@ public class CoinbaseExchangeService extends ExchangeService {
     public OrderBook fetchOrderBookREST(String symbol) {
         OrderBook orderBook = null;
         try {
-            String endpoint = BASE_URL + "/products/" + symbol + "/book?level=2";
+            String endpoint = baseUrl + "/products/" + symbol + "/book?level=2";
             String response = httpService.get(endpoint);
 
             JSONObject json = HttpService.parseJsonObject(response);
@@ -219,7 +229,7 @@ public class CoinbaseExchangeService extends ExchangeService {
 
             // Connect to Coinbase WebSocket stream
             Request request = new Request.Builder()
-                    .url(WS_BASE_URL)
+                    .url(wsBaseUrl)
                     .build();
             webSocket = wsClient.newWebSocket(request, webSocketListener);
 
@@ -281,6 +291,7 @@ public class CoinbaseExchangeService extends ExchangeService {
 
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            webSocketMetrics.onMessageReceived();
             processMessage(text);
         }
 
@@ -292,7 +303,7 @@ public class CoinbaseExchangeService extends ExchangeService {
         }
 
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             websocketConnected = false;
             logBuilder.append("Coinbase WebSocket error: ").append(t.getMessage()).append("\n");
             t.printStackTrace();
@@ -432,6 +443,13 @@ public class CoinbaseExchangeService extends ExchangeService {
      * @param ticker The updated ticker data
      */
     protected void notifyTickerUpdate(String symbol, Ticker ticker) {
+        webSocketMetrics.onTickerParsed(ticker);
+        RollingVolatilityEstimator.getInstance().onTicker(getExchangeName(), symbol, ticker);
+        CandleAggregator.getInstance().onTicker(getExchangeName(), symbol, ticker);
+        MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+        MarketDataRecorder.getInstance().recordTicker(getExchangeName(), symbol, ticker,
+                MarketDataRecorder.Source.WEBSOCKET);
+
         for (IWebSocketUpdateListener listener : listeners) {
             try {
                 listener.onTickerUpdate(symbol, ticker);
@@ -448,6 +466,11 @@ public class CoinbaseExchangeService extends ExchangeService {
      * @param orderBook The updated order book
      */
     protected void notifyOrderBookUpdate(String symbol, OrderBook orderBook) {
+        webSocketMetrics.onMessageParsed();
+        MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+        MarketDataRecorder.getInstance().recordOrderBook(getExchangeName(), symbol, orderBook,
+                MarketDataRecorder.Source.WEBSOCKET);
+
         for (IWebSocketUpdateListener listener : listeners) {
             try {
                 listener.onOrderBookUpdate(symbol, orderBook);
@@ -1,5 +1,6 @@
 package com.example.tradient.data.service;
 
+import com.example.tradient.config.ConfigurationSnapshot;
 import com.example.tradient.data.fee.FeeType;
 import com.example.tradient.data.fee.FixedFee;
 import com.example.tradient.data.fee.PercentageFee;
@@ -13,6 +14,12 @@ import com.example.tradient.data.fee.FeeTracker;
 import com.example.tradient.data.fee.TransactionFee;
 import com.example.tradient.data.interfaces.IExchangeService;
 import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.data.interfaces.IWebSocketProvider;
+import com.example.tradient.data.interfaces.IWebSocketUpdateListener;
+import com.example.tradient.domain.market.MarketDataVersions;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
+import com.example.tradient.util.MarketClock;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +51,9 @@ public abstract class ExchangeService implements IExchangeService {
     // Unique exchange identifier
     private String exchangeName;
 
+    // Configuration key of the exchange, e.g. "okx"
+    private String exchangeKey;
+
     // Exchange logo reference for UI display
     private String logoResource;
 
@@ -59,6 +69,9 @@ public abstract class ExchangeService implements IExchangeService {
     // Flag to track if WebSocket connection is active
     protected volatile boolean websocketConnected = false;
 
+    // Listener applying streamed updates to the caches, once enabled
+    private IWebSocketUpdateListener streamCacheListener;
+
     // Fee structures
     private Fee makerFee;
     private Fee takerFee;
@@ -78,6 +91,7 @@ public abstract class ExchangeService implements IExchangeService {
     // Constructor to initialize the exchange name and the trading pairs cache
     public ExchangeService(String exchangeName, double fees) {
         this.exchangeName = exchangeName;
+        this.exchangeKey = ConfigurationSnapshot.exchangeKey(exchangeName);
         this.tradingPairs = new ArrayList<>();
         this.tickerCache = new ConcurrentHashMap<>();
         this.orderBookCache = new ConcurrentHashMap<>();
@@ -99,6 +113,7 @@ public abstract class ExchangeService implements IExchangeService {
      */
     public ExchangeService(String exchangeName, Fee makerFee, Fee takerFee) {
         this.exchangeName = exchangeName;
+        this.exchangeKey = ConfigurationSnapshot.exchangeKey(exchangeName);
         this.tradingPairs = new ArrayList<>();
         this.tickerCache = new ConcurrentHashMap<>();
         this.orderBookCache = new ConcurrentHashMap<>();
@@ -143,7 +158,12 @@ public abstract class ExchangeService implements IExchangeService {
         if (ticker == null || isTickerStale(ticker)) {
             ticker = fetchTickerDataREST(symbol);
             if (ticker != null) {
+                ticker.stampApplied(System.nanoTime());
                 tickerCache.put(symbol, ticker);
+                RollingVolatilityEstimator.getInstance().onTicker(getExchangeName(), symbol, ticker);
+                MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+                MarketDataRecorder.getInstance().recordTicker(getExchangeName(), symbol, ticker,
+                        MarketDataRecorder.Source.REST);
             }
         }
         return ticker;
@@ -165,6 +185,9 @@ public abstract class ExchangeService implements IExchangeService {
             orderBook = fetchOrderBookREST(symbol);
             if (orderBook != null) {
                 orderBookCache.put(symbol, orderBook);
+                MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+                MarketDataRecorder.getInstance().recordOrderBook(getExchangeName(), symbol, orderBook,
+                        MarketDataRecorder.Source.REST);
             }
         }
         return orderBook;
@@ -224,6 +247,63 @@ public abstract class ExchangeService implements IExchangeService {
      */
     public abstract void closeWebSocket();
 
+    /**
+     * Apply the tickers and order books streamed by this exchange's WebSocket to the
+     * caches read by {@link #getTickerData(String)} and {@link #getOrderBook(String)}, so
+     * fresh streamed data is served without a REST request. Call before
+     * {@link #initializeWebSocket(List)}; calling it again has no effect.
+     */
+    public synchronized void enableStreamCache() {
+        if (streamCacheListener != null) {
+            return;
+        }
+        streamCacheListener = new IWebSocketUpdateListener() {
+            @Override
+            public void onTickerUpdate(String symbol, Ticker ticker) {
+                applyTickerUpdate(symbol, ticker);
+            }
+
+            @Override
+            public void onOrderBookUpdate(String symbol, OrderBook orderBook) {
+                applyOrderBookUpdate(symbol, orderBook);
+            }
+
+            @Override
+            public void onWebSocketConnected(IWebSocketProvider provider) {
+            }
+
+            @Override
+            public void onWebSocketDisconnected(IWebSocketProvider provider, int code, String reason) {
+            }
+
+            @Override
+            public void onWebSocketError(IWebSocketProvider provider, Throwable error) {
+            }
+        };
+        addWebSocketListener(streamCacheListener);
+    }
+
+    /**
+     * Cache a streamed ticker, stamping the time it was applied.
+     */
+    protected void applyTickerUpdate(String symbol, Ticker ticker) {
+        if (symbol == null || ticker == null || ticker.getTimestamp() == null) {
+            return;
+        }
+        ticker.stampApplied(System.nanoTime());
+        tickerCache.put(symbol, ticker);
+    }
+
+    /**
+     * Cache a streamed order book.
+     */
+    protected void applyOrderBookUpdate(String symbol, OrderBook orderBook) {
+        if (symbol == null || orderBook == null) {
+            return;
+        }
+        orderBookCache.put(symbol, orderBook);
+    }
+
     /**
      * Returns the exchange's unique name.
      */
@@ -231,6 +311,13 @@ public abstract class ExchangeService implements IExchangeService {
         return exchangeName;
     }
 
+    /**
+     * Returns the key of this exchange in the configuration, see {@link ConfigurationSnapshot#exchangeKey(String)}.
+     */
+    public String getExchangeKey() {
+        return exchangeKey;
+    }
+
     /**
      * Get the maker fee for this exchange.
      * 
@@ -455,7 +542,7 @@ public abstract class ExchangeService implements IExchangeService {
         }
         
         // Check if data is older than 30 seconds
-        long currentTime = System.currentTimeMillis();
+        long currentTime = MarketClock.currentTimeMillis();
         long tickerTime = ticker.getTimestamp().getTime();
         return (currentTime - tickerTime) > 30000;
     }
@@ -473,7 +560,7 @@ public abstract class ExchangeService implements IExchangeService {
         }
         
         // Check if data is older than 10 seconds
-        long currentTime = System.currentTimeMillis();
+        long currentTime = MarketClock.currentTimeMillis();
         // Get timestamp value directly as it's now a long
         long orderBookTime = orderBook.getTimestamp();
         return (currentTime - orderBookTime) > 10000;
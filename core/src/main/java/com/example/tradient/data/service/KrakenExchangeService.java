@@ -1,5 +1,6 @@
 package com.example.tradient.data.service;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.fee.Fee;
 import com.example.tradient.data.fee.PercentageFee;
 import com.example.tradient.data.http.HttpService;
@@ -28,10 +29,14 @@ import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
-import androidx.annotation.Nullable;
 
 import com.example.tradient.data.service.websocket.KrakenWebSocketProvider;
 import com.example.tradient.data.service.websocket.BaseWebSocketProvider;
+import com.example.tradient.domain.market.CandleAggregator;
+import com.example.tradient.domain.market.MarketDataVersions;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.infrastructure.metrics.WebSocketMetrics;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
 
 /**
  * KrakenExchangeService provides implementations for fetching data from Kraken's API.
@@ -44,8 +49,12 @@ import com.example.tradient.data.service.websocket.BaseWebSocketProvider;
  */
 public class KrakenExchangeService extends ExchangeService {
 
-    private static final String BASE_URL = "https://api.kraken.com/0/public";
-    private static final String WS_BASE_URL = "wss://ws.kraken.com";
+    private static final String DEFAULT_BASE_URL = "https://api.kraken.com";
+    private static final String DEFAULT_WS_BASE_URL = "wss://ws.kraken.com";
+
+    // Base URLs, configurable through exchanges.apiUrls and exchanges.wsUrls
+    private final String baseUrl = ConfigurationFactory.getExchangeConfig().getApiUrl("kraken", DEFAULT_BASE_URL);
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("kraken", DEFAULT_WS_BASE_URL);
 
     // HTTP client
     private final HttpService httpService;
@@ -61,6 +70,7 @@ public class KrakenExchangeService extends ExchangeService {
 
     // Add the listeners list as a class variable near the other class variables
     private final List<IWebSocketUpdateListener> listeners = new CopyOnWriteArrayList<>();
+    private final WebSocketMetrics webSocketMetrics = new WebSocketMetrics("Kraken");
 
     /**
      * Constructs a KrakenExchangeService instance.
@@ -95,7 +105,7 @@ public class KrakenExchangeService extends ExchangeService {
     public List<TradingPair> fetchTradingPairs() {
         List<TradingPair> tradingPairs = new ArrayList<>();
         try {
-            String endpoint = BASE_URL + "/AssetPairs";
+            String endpoint = baseUrl + "/0/public/AssetPairs";
             String response = httpService.get(endpoint);
 
             JSONObject json = HttpService.parseJsonObject(response);
@@ -132,7 +142,7 @@ public class KrakenExchangeService extends ExchangeService {
     public Ticker fetchTickerDataREST(String symbol) {
         Ticker ticker = null;
         try {
-            String endpoint = BASE_URL + "/Ticker?pair=" + symbol;
+            String endpoint = baseUrl + "/0/public/Ticker?pair=" + symbol;
             String response = httpService.get(endpoint);
 
             JSONObject json = HttpService.parseJsonObject(response);
@@ -182,7 +192,7 @@ public class KrakenExchangeService extends ExchangeService {
     public OrderBook fetchOrderBookREST(String symbol) {
         OrderBook orderBook = null;
         try {
-            String endpoint = BASE_URL + "/Depth?pair=" + symbol;
+            String endpoint = baseUrl + "/0/public/Depth?pair=" + symbol;
             String response = httpService.get(endpoint);
 
             JSONObject json = HttpService.parseJsonObject(response);
@@ -249,13 +259,13 @@ public class KrakenExchangeService extends ExchangeService {
 
             // Connect to Kraken WebSocket stream
             Request request = new Request.Builder()
-                    .url(WS_BASE_URL)
+                    .url(wsBaseUrl)
                     .build();
             webSocket = wsClient.newWebSocket(request, webSocketListener);
 
             // Create subscription message for ticker and book channels
             JSONObject subscribeMsg = new JSONObject();
-            subscribeMsg.put("name", "subscribe");
+            subscribeMsg.put("event", "subscribe");
 
             JSONArray pairs = new JSONArray();
             for (String symbol : symbols) {
@@ -265,7 +275,7 @@ public class KrakenExchangeService extends ExchangeService {
             JSONObject subscription = new JSONObject();
             subscription.put("name", "ticker");
             
-            subscribeMsg.put("pairs", pairs);
+            subscribeMsg.put("pair", pairs);
             subscribeMsg.put("subscription", subscription);
 
             String tickerSubMessage = subscribeMsg.toString();
@@ -278,8 +288,8 @@ public class KrakenExchangeService extends ExchangeService {
             bookSubscription.put("depth", 10);
             
             JSONObject bookSubscribeMsg = new JSONObject();
-            bookSubscribeMsg.put("name", "subscribe");
-            bookSubscribeMsg.put("pairs", pairs);
+            bookSubscribeMsg.put("event", "subscribe");
+            bookSubscribeMsg.put("pair", pairs);
             bookSubscribeMsg.put("subscription", bookSubscription);
             
             String bookSubMessage = bookSubscribeMsg.toString();
@@ -323,6 +333,7 @@ public class KrakenExchangeService extends ExchangeService {
 
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            webSocketMetrics.onMessageReceived();
             processMessage(text);
         }
 
@@ -334,7 +345,7 @@ public class KrakenExchangeService extends ExchangeService {
         }
 
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             websocketConnected = false;
             logBuilder.append("Kraken WebSocket error: ").append(t.getMessage()).append("\n");
             t.printStackTrace();
@@ -343,84 +354,84 @@ public class KrakenExchangeService extends ExchangeService {
 
         private void processMessage(String message) {
             try {
-                // Kraken has a complex message format, let's try to parse it
-                JSONArray jsonArray = new JSONArray(message);
-                
-                // Check if it's a subscription confirmation message
-                if (jsonArray.length() == 3 && jsonArray.opt(1) instanceof String) {
-                    String event = jsonArray.getString(1);
-                    if ("subscriptionStatus".equals(event)) {
-                        JSONObject status = jsonArray.getJSONObject(2);
-                        String statusString = status.getString("status");
-                        logBuilder.append("Kraken subscription: ").append(statusString).append(" for ")
-                                .append(status.optString("pair", "unknown")).append("\n");
-                        return;
+                // Events such as subscriptionStatus and heartbeat are objects
+                if (message.startsWith("{")) {
+                    JSONObject event = new JSONObject(message);
+                    if ("subscriptionStatus".equals(event.optString("event"))) {
+                        logBuilder.append("Kraken subscription: ").append(event.optString("status")).append(" for ")
+                                .append(event.optString("pair", "unknown")).append("\n");
                     }
+                    return;
                 }
                 
+                // Data messages are [channelID, data, channelName, pair]
+                JSONArray jsonArray = new JSONArray(message);
+                int length = jsonArray.length();
+                if (length < 4 || !(jsonArray.opt(1) instanceof JSONObject)) {
+                    return;
+                }
+                JSONObject data = jsonArray.getJSONObject(1);
+                String channelName = jsonArray.getString(length - 2);
+                String symbol = jsonArray.getString(length - 1);
+                
                 // Check if it's a ticker update
-                if (jsonArray.length() >= 3 && jsonArray.opt(2) instanceof JSONObject) {
-                    JSONObject tickerData = jsonArray.getJSONObject(2);
-                    String symbol = jsonArray.getString(3);
+                if ("ticker".equals(channelName)) {
+                    double bid = 0;
+                    if (data.has("b")) {
+                        JSONArray bidArray = data.getJSONArray("b");
+                        bid = Double.parseDouble(bidArray.getString(0));
+                    }
                     
-                    if (jsonArray.opt(1) instanceof String && "ticker".equals(jsonArray.getString(1))) {
-                        double bid = 0;
-                        if (tickerData.has("b")) {
-                            JSONArray bidArray = tickerData.getJSONArray("b");
-                            bid = Double.parseDouble(bidArray.getString(0));
-                        }
-                        
-                        double ask = 0;
-                        if (tickerData.has("a")) {
-                            JSONArray askArray = tickerData.getJSONArray("a");
-                            ask = Double.parseDouble(askArray.getString(0));
-                        }
-                        
-                        double price = 0;
-                        if (tickerData.has("c")) {
-                            JSONArray priceArray = tickerData.getJSONArray("c");
-                            price = Double.parseDouble(priceArray.getString(0));
-                        }
-                        
-                        double volume = 0;
-                        if (tickerData.has("v")) {
-                            JSONArray volumeArray = tickerData.getJSONArray("v");
-                            volume = Double.parseDouble(volumeArray.getString(1)); // 24h volume
-                        }
-                        
-                        Ticker ticker = new Ticker(bid, ask, price, volume, new Date());
-                        notifyTickerUpdate(symbol, ticker);
+                    double ask = 0;
+                    if (data.has("a")) {
+                        JSONArray askArray = data.getJSONArray("a");
+                        ask = Double.parseDouble(askArray.getString(0));
                     }
-                    // Check if it's an order book update
-                    else if (jsonArray.opt(1) instanceof String && "book".equals(jsonArray.getString(1))) {
-                            List<OrderBookEntry> bids = new ArrayList<>();
-                            List<OrderBookEntry> asks = new ArrayList<>();
-
-                        if (tickerData.has("bs")) {
-                            JSONArray bidsArray = tickerData.getJSONArray("bs");
-                            for (int i = 0; i < bidsArray.length(); i++) {
-                                JSONArray entry = bidsArray.getJSONArray(i);
-                                    double price = Double.parseDouble(entry.getString(0));
-                                    double volume = Double.parseDouble(entry.getString(1));
-                                        bids.add(new OrderBookEntry(price, volume));
-                            }
-                        }
-                        
-                        if (tickerData.has("as")) {
-                            JSONArray asksArray = tickerData.getJSONArray("as");
-                            for (int i = 0; i < asksArray.length(); i++) {
-                                JSONArray entry = asksArray.getJSONArray(i);
-                                    double price = Double.parseDouble(entry.getString(0));
-                                    double volume = Double.parseDouble(entry.getString(1));
-                                        asks.add(new OrderBookEntry(price, volume));
-                            }
+                    
+                    double price = 0;
+                    if (data.has("c")) {
+                        JSONArray priceArray = data.getJSONArray("c");
+                        price = Double.parseDouble(priceArray.getString(0));
+                    }
+                    
+                    double volume = 0;
+                    if (data.has("v")) {
+                        JSONArray volumeArray = data.getJSONArray("v");
+                        volume = Double.parseDouble(volumeArray.getString(1)); // 24h volume
+                    }
+                    
+                    Ticker ticker = new Ticker(bid, ask, price, volume, new Date());
+                    notifyTickerUpdate(symbol, ticker);
+                }
+                // Check if it's an order book snapshot; the channel is named after the depth, e.g. book-10
+                else if (channelName.startsWith("book")) {
+                    List<OrderBookEntry> bids = new ArrayList<>();
+                    List<OrderBookEntry> asks = new ArrayList<>();
+                    
+                    if (data.has("bs")) {
+                        JSONArray bidsArray = data.getJSONArray("bs");
+                        for (int i = 0; i < bidsArray.length(); i++) {
+                            JSONArray entry = bidsArray.getJSONArray(i);
+                            double price = Double.parseDouble(entry.getString(0));
+                            double volume = Double.parseDouble(entry.getString(1));
+                            bids.add(new OrderBookEntry(price, volume));
                         }
-                        
-                        if (!bids.isEmpty() || !asks.isEmpty()) {
-                            OrderBook orderBook = new OrderBook(symbol, bids, asks, new Date());
-                            notifyOrderBookUpdate(symbol, orderBook);
+                    }
+                    
+                    if (data.has("as")) {
+                        JSONArray asksArray = data.getJSONArray("as");
+                        for (int i = 0; i < asksArray.length(); i++) {
+                            JSONArray entry = asksArray.getJSONArray(i);
+                            double price = Double.parseDouble(entry.getString(0));
+                            double volume = Double.parseDouble(entry.getString(1));
+                            asks.add(new OrderBookEntry(price, volume));
                         }
                     }
+                    
+                    if (!bids.isEmpty() || !asks.isEmpty()) {
+                        OrderBook orderBook = new OrderBook(symbol, bids, asks, new Date());
+                        notifyOrderBookUpdate(symbol, orderBook);
+                    }
                 }
             } catch (Exception e) {
                 logBuilder.append("Error processing Kraken WebSocket message: ")
@@ -481,6 +492,13 @@ public class KrakenExchangeService extends ExchangeService {
      * @param ticker The updated ticker data
      */
     protected void notifyTickerUpdate(String symbol, Ticker ticker) {
+        webSocketMetrics.onTickerParsed(ticker);
+        RollingVolatilityEstimator.getInstance().onTicker(getExchangeName(), symbol, ticker);
+        CandleAggregator.getInstance().onTicker(getExchangeName(), symbol, ticker);
+        MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+        MarketDataRecorder.getInstance().recordTicker(getExchangeName(), symbol, ticker,
+                MarketDataRecorder.Source.WEBSOCKET);
+
         for (IWebSocketUpdateListener listener : listeners) {
             try {
                 listener.onTickerUpdate(symbol, ticker);
@@ -497,6 +515,11 @@ public class KrakenExchangeService extends ExchangeService {
      * @param orderBook The updated order book
      */
     protected void notifyOrderBookUpdate(String symbol, OrderBook orderBook) {
+        webSocketMetrics.onMessageParsed();
+        MarketDataVersions.getInstance().bump(getExchangeName(), symbol);
+        MarketDataRecorder.getInstance().recordOrderBook(getExchangeName(), symbol, orderBook,
+                MarketDataRecorder.Source.WEBSOCKET);
+
         for (IWebSocketUpdateListener listener : listeners) {
             try {
                 listener.onOrderBookUpdate(symbol, orderBook);
@@ -1,5 +1,6 @@
 package com.example.tradient.data.service;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.fee.Fee;
 import com.example.tradient.data.http.HttpService;
 import com.example.tradient.data.interfaces.INotificationService;
@@ -29,7 +30,10 @@ import java.util.Random;
  */
 public class OkxExchangeService extends ExchangeService {
 
-    private static final String BASE_URL = "https://www.okx.com";
+    private static final String DEFAULT_BASE_URL = "https://www.okx.com";
+    
+    // Base URL of the REST API, configurable through exchanges.apiUrls
+    private final String baseUrl = ConfigurationFactory.getExchangeConfig().getApiUrl("okx", DEFAULT_BASE_URL);
     private final HttpService httpService;
     private OkxWebSocketProvider webSocketProvider;
 
@@ -125,7 +129,7 @@ public class OkxExchangeService extends ExchangeService {
     public List<TradingPair> fetchTradingPairs() {
         List<TradingPair> tradingPairs = new ArrayList<>();
         try {
-            String endpoint = BASE_URL + "/api/v5/public/instruments?instType=SPOT";
+            String endpoint = baseUrl + "/api/v5/public/instruments?instType=SPOT";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -161,7 +165,7 @@ public class OkxExchangeService extends ExchangeService {
     public Ticker fetchTickerDataREST(String symbol) {
         Ticker ticker = null;
         try {
-            String endpoint = BASE_URL + "/api/v5/market/ticker?instId=" + symbol;
+            String endpoint = baseUrl + "/api/v5/market/ticker?instId=" + symbol;
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
@@ -198,7 +202,7 @@ public class OkxExchangeService extends ExchangeService {
     public OrderBook fetchOrderBookREST(String symbol) {
         OrderBook orderBook = null;
         try {
-            String endpoint = BASE_URL + "/api/v5/market/books?instId=" + symbol + "&sz=20";
+            String endpoint = baseUrl + "/api/v5/market/books?instId=" + symbol + "&sz=20";
             String response = httpService.get(endpoint);
             
             JSONObject json = HttpService.parseJsonObject(response);
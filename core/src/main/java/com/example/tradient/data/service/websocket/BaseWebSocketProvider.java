@@ -6,11 +6,19 @@ import com.example.tradient.data.interfaces.IWebSocketProvider;
 import com.example.tradient.data.interfaces.IWebSocketUpdateListener;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.market.CandleAggregator;
+import com.example.tradient.domain.market.MarketDataVersions;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.infrastructure.metrics.WebSocketMetrics;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.LogLimiter;
 
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
@@ -37,6 +45,11 @@ public abstract class BaseWebSocketProvider implements IWebSocketProvider {
     protected volatile boolean websocketConnected = false;
     protected final List<IWebSocketUpdateListener> listeners = new CopyOnWriteArrayList<>();
     public INotificationService notificationService;
+    protected final WebSocketMetrics metrics;
+
+    // Malformed messages tend to repeat for every message of a stream
+    protected final LogLimiter messageWarnings = LogLimiter.rate(5, 10_000);
+    protected final LogLimiter messageErrors = LogLimiter.rate(5, 10_000);
     
     /**
      * Constructor with exchange name and notification service.
@@ -47,6 +60,7 @@ public abstract class BaseWebSocketProvider implements IWebSocketProvider {
     public BaseWebSocketProvider(String exchangeName, INotificationService notificationService) {
         this.exchangeName = exchangeName;
         this.notificationService = notificationService;
+        this.metrics = new WebSocketMetrics(exchangeName);
         
         // Initialize OkHttpClient with custom timeout settings
         this.wsClient = new OkHttpClient.Builder()
@@ -209,6 +223,13 @@ public abstract class BaseWebSocketProvider implements IWebSocketProvider {
      * @param ticker The updated ticker data
      */
     protected void notifyTickerUpdate(String symbol, Ticker ticker) {
+        metrics.onTickerParsed(ticker);
+        RollingVolatilityEstimator.getInstance().onTicker(exchangeName, symbol, ticker);
+        CandleAggregator.getInstance().onTicker(exchangeName, symbol, ticker);
+        MarketDataVersions.getInstance().bump(exchangeName, symbol);
+        MarketDataRecorder.getInstance().recordTicker(exchangeName, symbol, ticker,
+                MarketDataRecorder.Source.WEBSOCKET);
+
         for (IWebSocketUpdateListener listener : listeners) {
             try {
                 listener.onTickerUpdate(symbol, ticker);
@@ -225,6 +246,11 @@ public abstract class BaseWebSocketProvider implements IWebSocketProvider {
      * @param orderBook The updated order book
      */
     protected void notifyOrderBookUpdate(String symbol, OrderBook orderBook) {
+        metrics.onMessageParsed();
+        MarketDataVersions.getInstance().bump(exchangeName, symbol);
+        MarketDataRecorder.getInstance().recordOrderBook(exchangeName, symbol, orderBook,
+                MarketDataRecorder.Source.WEBSOCKET);
+
         for (IWebSocketUpdateListener listener : listeners) {
             try {
                 listener.onOrderBookUpdate(symbol, orderBook);
@@ -301,14 +327,59 @@ public abstract class BaseWebSocketProvider implements IWebSocketProvider {
         }
     }
     
+    /**
+     * Log a repetitive warning, if the limiter lets it through.
+     *
+     * @param limiter The limiter of the call site
+     * @param format Message format, see {@link String#format}
+     * @param args The message arguments
+     */
+    protected void logWarning(LogLimiter limiter, String format, Object... args) {
+        if (notificationService != null && limiter.tryAcquire()) {
+            logWarning(AppLog.limited(limiter, String.format(Locale.US, format, args)));
+        }
+    }
+
+    /**
+     * Log a repetitive error, if the limiter lets it through.
+     *
+     * @param limiter The limiter of the call site
+     * @param message The message to log
+     * @param error The error that occurred
+     */
+    protected void logError(LogLimiter limiter, String message, Throwable error) {
+        if (notificationService != null && limiter.tryAcquire()) {
+            logError(AppLog.limited(limiter, message), error);
+        }
+    }
+    
+    /**
+     * Whether debug messages are logged; checked before building one.
+     */
+    protected boolean isDebugEnabled() {
+        return notificationService != null && notificationService.isDebugEnabled();
+    }
+
     /**
      * Log a debug message.
      *
      * @param message The message to log
      */
     protected void logDebug(String message) {
-        if (notificationService != null) {
+        if (isDebugEnabled()) {
             notificationService.logDebug(exchangeName + ": " + message);
         }
     }
+
+    /**
+     * Log a debug message, formatting it only if debug logging is enabled.
+     *
+     * @param format Message format, see {@link String#format}
+     * @param args The message arguments
+     */
+    protected void logDebug(String format, Object... args) {
+        if (isDebugEnabled()) {
+            notificationService.logDebug(exchangeName + ": " + String.format(Locale.US, format, args));
+        }
+    }
 } 
\ No newline at end of file
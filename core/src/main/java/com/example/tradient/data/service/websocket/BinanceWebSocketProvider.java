@@ -1,5 +1,6 @@
 package com.example.tradient.data.service.websocket;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.interfaces.INotificationService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
@@ -14,7 +15,6 @@ import java.util.List;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import okhttp3.Response;
-import androidx.annotation.Nullable;
 
 /**
  * Binance-specific implementation of WebSocket provider.
@@ -22,7 +22,10 @@ import androidx.annotation.Nullable;
  */
 public class BinanceWebSocketProvider extends BaseWebSocketProvider {
 
-    private static final String WS_BASE_URL = "wss://stream.binance.com/ws";
+    private static final String DEFAULT_WS_BASE_URL = "wss://stream.binance.com/ws";
+
+    // Configurable through exchanges.wsUrls, e.g. to connect to a local exchange simulator
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("binance", DEFAULT_WS_BASE_URL);
     
     /**
      * Constructor with exchange name and notification service.
@@ -44,7 +47,7 @@ public class BinanceWebSocketProvider extends BaseWebSocketProvider {
             }
         }
         
-        String wsUrl = WS_BASE_URL + "/" + streams.toString();
+        String wsUrl = wsBaseUrl + "/" + streams.toString();
         return URI.create(wsUrl);
     }
     
@@ -77,10 +80,11 @@ public class BinanceWebSocketProvider extends BaseWebSocketProvider {
         
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            metrics.onMessageReceived();
             try {
                 processMessage(text);
             } catch (Exception e) {
-                logError("Error processing WebSocket message: " + text, e);
+                logError(messageErrors, "Error processing WebSocket message: " + text, e);
                 // Continue processing other messages
             }
         }
@@ -96,7 +100,7 @@ public class BinanceWebSocketProvider extends BaseWebSocketProvider {
         }
         
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             try {
                 notifyWebSocketError(t);
                 websocketConnected = false;
@@ -130,7 +134,7 @@ public class BinanceWebSocketProvider extends BaseWebSocketProvider {
                     
                     // Validate price and quantity
                     if (bidPrice <= 0 || askPrice <= 0) {
-                        logWarning("Invalid price values for " + symbol + ": bid=" + bidPrice + ", ask=" + askPrice);
+                        logWarning(messageWarnings, "Invalid price values for %s: bid=%s, ask=%s", symbol, bidPrice, askPrice);
                         return;
                     }
                     
@@ -152,12 +156,12 @@ public class BinanceWebSocketProvider extends BaseWebSocketProvider {
                     OrderBook orderBook = new OrderBook(symbol, bids, asks, new Date());
                     notifyOrderBookUpdate(symbol, orderBook);
                     
-                    logDebug("Updated ticker and order book for " + symbol);
+                    logDebug("Updated ticker and order book for %s", symbol);
                 } else {
-                    logDebug("Received message in unexpected format: " + message);
+                    logDebug("Received message in unexpected format: %s", message);
                 }
             } catch (Exception e) {
-                logError("Error parsing WebSocket message: " + message, e);
+                logError(messageErrors, "Error parsing WebSocket message: " + message, e);
             }
         }
         
@@ -1,5 +1,6 @@
 package com.example.tradient.data.service.websocket;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.interfaces.INotificationService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
@@ -15,7 +16,6 @@ import java.util.List;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import okhttp3.Response;
-import androidx.annotation.Nullable;
 
 /**
  * Bybit-specific implementation of WebSocket provider.
@@ -23,7 +23,10 @@ import androidx.annotation.Nullable;
  */
 public class BybitWebSocketProvider extends BaseWebSocketProvider {
 
-    private static final String WS_BASE_URL = "wss://stream.bybit.com/v5/public/spot";
+    private static final String DEFAULT_WS_BASE_URL = "wss://stream.bybit.com/v5/public/spot";
+
+    // Configurable through exchanges.wsUrls, e.g. to connect to a local exchange simulator
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("bybit", DEFAULT_WS_BASE_URL);
     
     /**
      * Constructor with notification service.
@@ -36,7 +39,7 @@ public class BybitWebSocketProvider extends BaseWebSocketProvider {
     
     @Override
     protected URI getWebSocketEndpoint(List<String> symbols) {
-        return URI.create(WS_BASE_URL);
+        return URI.create(wsBaseUrl);
     }
     
     @Override
@@ -81,6 +84,7 @@ public class BybitWebSocketProvider extends BaseWebSocketProvider {
 
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            metrics.onMessageReceived();
             processMessage(text);
         }
 
@@ -91,7 +95,7 @@ public class BybitWebSocketProvider extends BaseWebSocketProvider {
         }
 
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             notifyWebSocketError(t);
             websocketConnected = false;
         }
@@ -155,7 +159,7 @@ public class BybitWebSocketProvider extends BaseWebSocketProvider {
                     }
                 }
             } catch (Exception e) {
-                logError("Error processing Bybit WebSocket message", e);
+                logError(messageErrors, "Error processing Bybit WebSocket message", e);
             }
         }
     }
@@ -1,5 +1,6 @@
 package com.example.tradient.data.service.websocket;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.interfaces.INotificationService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
@@ -18,7 +19,6 @@ import java.util.UUID;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import okhttp3.Response;
-import androidx.annotation.Nullable;
 
 /**
  * Coinbase-specific implementation of WebSocket provider.
@@ -26,7 +26,10 @@ import androidx.annotation.Nullable;
  */
 public class CoinbaseWebSocketProvider extends BaseWebSocketProvider {
 
-    private static final String WS_BASE_URL = "wss://ws-feed.exchange.coinbase.com";
+    private static final String DEFAULT_WS_BASE_URL = "wss://ws-feed.exchange.coinbase.com";
+
+    // Configurable through exchanges.wsUrls, e.g. to connect to a local exchange simulator
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("coinbase", DEFAULT_WS_BASE_URL);
     
     // Maps to store market data for each symbol
     private final Map<String, Ticker> tickerMap = new HashMap<>();
@@ -43,7 +46,7 @@ public class CoinbaseWebSocketProvider extends BaseWebSocketProvider {
 
     @Override
     protected URI getWebSocketEndpoint(List<String> symbols) {
-        return URI.create(WS_BASE_URL);
+        return URI.create(wsBaseUrl);
     }
     
     @Override
@@ -98,6 +101,7 @@ public class CoinbaseWebSocketProvider extends BaseWebSocketProvider {
         
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            metrics.onMessageReceived();
             processMessage(text);
         }
         
@@ -108,7 +112,7 @@ public class CoinbaseWebSocketProvider extends BaseWebSocketProvider {
         }
         
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             notifyWebSocketError(t);
             websocketConnected = false;
         }
@@ -197,12 +201,13 @@ public class CoinbaseWebSocketProvider extends BaseWebSocketProvider {
                         }
                     }
                     
+                    orderBook.invalidateCurves();
                     orderBook.setTimestamp(new Date());
                     notifyOrderBookUpdate(symbol, orderBook);
                 }
                 
             } catch (Exception e) {
-                logError("Error processing Coinbase WebSocket message", e);
+                logError(messageErrors, "Error processing Coinbase WebSocket message", e);
             }
         }
         
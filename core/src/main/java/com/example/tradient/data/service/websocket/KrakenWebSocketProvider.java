@@ -1,5 +1,6 @@
 package com.example.tradient.data.service.websocket;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.interfaces.INotificationService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
@@ -18,7 +19,6 @@ import java.util.UUID;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import okhttp3.Response;
-import androidx.annotation.Nullable;
 
 /**
  * Kraken-specific implementation of WebSocket provider.
@@ -26,7 +26,10 @@ import androidx.annotation.Nullable;
  */
 public class KrakenWebSocketProvider extends BaseWebSocketProvider {
 
-    private static final String WS_BASE_URL = "wss://ws.kraken.com";
+    private static final String DEFAULT_WS_BASE_URL = "wss://ws.kraken.com";
+
+    // Configurable through exchanges.wsUrls, e.g. to connect to a local exchange simulator
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("kraken", DEFAULT_WS_BASE_URL);
     
     // Maps to store market data for each symbol
     private final Map<String, Ticker> tickerMap = new HashMap<>();
@@ -46,7 +49,7 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
 
     @Override
     protected URI getWebSocketEndpoint(List<String> symbols) {
-        return URI.create(WS_BASE_URL);
+        return URI.create(wsBaseUrl);
     }
     
     @Override
@@ -56,7 +59,7 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
         try {
             // Prepare ticker subscription
             JSONObject tickerSub = new JSONObject();
-            tickerSub.put("name", "subscribe");
+            tickerSub.put("event", "subscribe");
             
             JSONObject tickerArgs = new JSONObject();
             tickerArgs.put("name", "ticker");
@@ -69,19 +72,19 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
                 pairs.put(krakenSymbol);
             }
             
-            tickerArgs.put("pair", pairs);
+            tickerSub.put("pair", pairs);
             tickerSub.put("subscription", tickerArgs);
             messages.add(tickerSub.toString());
             
             // Prepare order book subscription
             JSONObject bookSub = new JSONObject();
-            bookSub.put("name", "subscribe");
+            bookSub.put("event", "subscribe");
             
             JSONObject bookArgs = new JSONObject();
             bookArgs.put("name", "book");
             bookArgs.put("depth", 25); // Limit to 25 levels
-            bookArgs.put("pair", pairs);
             
+            bookSub.put("pair", pairs);
             bookSub.put("subscription", bookArgs);
             messages.add(bookSub.toString());
             
@@ -99,11 +102,8 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
      * @return Kraken WebSocket symbol (e.g., "XBT/USD")
      */
     private String formatKrakenSymbol(String symbol) {
-        // Kraken uses XBT instead of BTC
-        String krakenSymbol = symbol.replace("BTC/", "XBT/").replace("/BTC", "/XBT");
-        
-        // Remove slashes for WebSocket API
-        return krakenSymbol.replace("/", "");
+        // Kraken uses XBT instead of BTC; the WebSocket API keeps the slash
+        return symbol.replace("BTC/", "XBT/").replace("/BTC", "/XBT");
     }
     
     @Override
@@ -124,6 +124,7 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
         
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            metrics.onMessageReceived();
             processMessage(text);
         }
         
@@ -134,7 +135,7 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
         }
         
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             notifyWebSocketError(t);
             websocketConnected = false;
         }
@@ -146,42 +147,42 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
          */
         private void processMessage(String message) {
             try {
-                // Kraken uses JSON arrays for WebSocket messages
-                JSONArray json = new JSONArray(message);
-                
-                // Subscription status message
-                if (json.length() == 1 && json.get(0) instanceof JSONObject) {
-                    JSONObject status = json.getJSONObject(0);
-                    if (status.has("status")) {
-                        logInfo("Kraken subscription status: " + status.getString("status"));
+                // Events (subscriptionStatus, heartbeat, systemStatus) are objects
+                if (message.startsWith("{")) {
+                    JSONObject event = new JSONObject(message);
+                    if ("subscriptionStatus".equals(event.optString("event"))) {
+                        logInfo("Kraken subscription status: " + event.optString("status")
+                                + " for " + event.optString("pair"));
                     }
                     return;
                 }
                 
-                // Data message format: [channelID, data, channelName, pair]
-                if (json.length() >= 4) {
-                    JSONArray data = json.getJSONArray(1);
-                    String channelName = json.getString(2);
-                    String krakenSymbol = json.getString(3);
+                // Data message format: [channelID, data..., channelName, pair]; a book update
+                // can carry its ask and bid changes as two separate objects
+                JSONArray json = new JSONArray(message);
+                int length = json.length();
+                if (length >= 4) {
+                    String channelName = json.getString(length - 2);
+                    String krakenSymbol = json.getString(length - 1);
                     
                     // Convert Kraken symbol back to standard format
                     String symbol = symbolMapping.getOrDefault(krakenSymbol, krakenSymbol);
                     
                     // Handle ticker updates
                     if ("ticker".equals(channelName)) {
-                        processTickerUpdate(symbol, data);
+                        processTickerUpdate(symbol, json.getJSONObject(1));
                         return;
                     }
                     
-                    // Handle order book updates
-                    if ("book".equals(channelName)) {
-                        processOrderBookUpdate(symbol, data);
+                    // Handle order book updates; the channel is named after the depth, e.g. book-25
+                    if (channelName.startsWith("book")) {
+                        processOrderBookUpdate(symbol, json, length - 2);
                         return;
                     }
                 }
                 
             } catch (Exception e) {
-                logError("Error processing Kraken WebSocket message", e);
+                logError(messageErrors, "Error processing Kraken WebSocket message", e);
             }
         }
         
@@ -191,10 +192,8 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
          * @param symbol The trading pair symbol
          * @param data The ticker data
          */
-        private void processTickerUpdate(String symbol, JSONArray data) {
+        private void processTickerUpdate(String symbol, JSONObject tickerData) {
             try {
-                JSONObject tickerData = data.getJSONObject(0);
-                
                 // Extract bid & ask from the first level
                 JSONArray bidArray = tickerData.getJSONArray("b");
                 double bid = bidArray.getDouble(0);
@@ -214,7 +213,7 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
                 notifyTickerUpdate(symbol, ticker);
                 
             } catch (Exception e) {
-                logError("Error processing Kraken ticker data", e);
+                logError(messageErrors, "Error processing Kraken ticker data", e);
             }
         }
         
@@ -222,60 +221,64 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
          * Process order book update from Kraken.
          * 
          * @param symbol The trading pair symbol
-         * @param data The order book data
+         * @param message The data message
+         * @param end Index after the last data object of the message
          */
-        private void processOrderBookUpdate(String symbol, JSONObject data) {
+        private void processOrderBookUpdate(String symbol, JSONArray message, int end) {
             try {
                 // Get or create order book
-                OrderBook orderBook = orderBookMap.getOrDefault(symbol, 
-                        new OrderBook(symbol, new ArrayList<>(), new ArrayList<>(), new Date()));
-                
-                // Process asks updates
-                if (data.has("a")) {
-                    JSONArray asksArray = data.getJSONArray("a");
-                    for (int i = 0; i < asksArray.length(); i++) {
-                        JSONArray askEntry = asksArray.getJSONArray(i);
-                        double price = askEntry.getDouble(0);
-                        double volume = askEntry.getDouble(1);
-                        
-                        updateOrderBookEntries(orderBook.getAsks(), price, volume);
-                    }
+                OrderBook orderBook = orderBookMap.get(symbol);
+                if (orderBook == null) {
+                    orderBook = new OrderBook(symbol, new ArrayList<>(), new ArrayList<>(), new Date());
+                    orderBookMap.put(symbol, orderBook);
                 }
                 
-                // Process bids updates
-                if (data.has("b")) {
-                    JSONArray bidsArray = data.getJSONArray("b");
-                    for (int i = 0; i < bidsArray.length(); i++) {
-                        JSONArray bidEntry = bidsArray.getJSONArray(i);
-                        double price = bidEntry.getDouble(0);
-                        double volume = bidEntry.getDouble(1);
-                        
-                        updateOrderBookEntries(orderBook.getBids(), price, volume);
+                for (int i = 1; i < end; i++) {
+                    JSONObject data = message.getJSONObject(i);
+                    
+                    // A snapshot replaces a whole side
+                    if (data.has("as")) {
+                        orderBook.setAsks(parseLevels(data.getJSONArray("as")));
+                    }
+                    if (data.has("bs")) {
+                        orderBook.setBids(parseLevels(data.getJSONArray("bs")));
+                    }
+                    
+                    // An update changes single levels, a volume of 0 removes one
+                    if (data.has("a")) {
+                        JSONArray asksArray = data.getJSONArray("a");
+                        for (int j = 0; j < asksArray.length(); j++) {
+                            JSONArray askEntry = asksArray.getJSONArray(j);
+                            updateOrderBookEntries(orderBook.getAsks(), askEntry.getDouble(0),
+                                    askEntry.getDouble(1), false);
+                        }
+                    }
+                    if (data.has("b")) {
+                        JSONArray bidsArray = data.getJSONArray("b");
+                        for (int j = 0; j < bidsArray.length(); j++) {
+                            JSONArray bidEntry = bidsArray.getJSONArray(j);
+                            updateOrderBookEntries(orderBook.getBids(), bidEntry.getDouble(0),
+                                    bidEntry.getDouble(1), true);
+                        }
                     }
                 }
                 
+                orderBook.invalidateCurves();
                 orderBook.setTimestamp(new Date());
-                orderBookMap.put(symbol, orderBook);
                 notifyOrderBookUpdate(symbol, orderBook);
                 
             } catch (Exception e) {
-                logError("Error processing Kraken order book data", e);
+                logError(messageErrors, "Error processing Kraken order book data", e);
             }
         }
         
-        /**
-         * Process order book update from Kraken when it's a snapshot.
-         * 
-         * @param symbol The trading pair symbol
-         * @param data The order book data
-         */
-        private void processOrderBookUpdate(String symbol, JSONArray data) {
-            try {
-                JSONObject bookData = data.getJSONObject(0);
-                processOrderBookUpdate(symbol, bookData);
-            } catch (Exception e) {
-                logError("Error processing Kraken order book array data", e);
+        private List<OrderBookEntry> parseLevels(JSONArray levels) {
+            List<OrderBookEntry> entries = new ArrayList<>(levels.length());
+            for (int i = 0; i < levels.length(); i++) {
+                JSONArray level = levels.getJSONArray(i);
+                entries.add(new OrderBookEntry(level.getDouble(0), level.getDouble(1)));
             }
+            return entries;
         }
         
         /**
@@ -284,8 +287,10 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
          * @param entries The list of entries to update
          * @param price The price level
          * @param size The new size (0 means remove the level)
+         * @param bids Whether the entries are bids, sorted by descending price
          */
-        private void updateOrderBookEntries(List<OrderBookEntry> entries, double price, double size) {
+        private void updateOrderBookEntries(List<OrderBookEntry> entries, double price, double size,
+                                            boolean bids) {
             // Find if this price level already exists
             boolean found = false;
             for (int i = 0; i < entries.size(); i++) {
@@ -308,8 +313,7 @@ public class KrakenWebSocketProvider extends BaseWebSocketProvider {
                 entries.add(new OrderBookEntry(price, size));
                 
                 // Re-sort bids in descending order, asks in ascending order
-                if (entries == orderBookMap.values().iterator().next().getBids()) {
-                    // This is a bid list
+                if (bids) {
                     entries.sort((a, b) -> Double.compare(b.getPrice(), a.getPrice()));
                 } else {
                     // This is an ask list
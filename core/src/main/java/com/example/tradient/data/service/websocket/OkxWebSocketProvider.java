@@ -1,5 +1,6 @@
 package com.example.tradient.data.service.websocket;
 
+import com.example.tradient.config.ConfigurationFactory;
 import com.example.tradient.data.interfaces.INotificationService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
@@ -17,7 +18,6 @@ import java.util.Map;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import okhttp3.Response;
-import androidx.annotation.Nullable;
 
 /**
  * OKX-specific implementation of WebSocket provider.
@@ -25,7 +25,10 @@ import androidx.annotation.Nullable;
  */
 public class OkxWebSocketProvider extends BaseWebSocketProvider {
 
-    private static final String WS_BASE_URL = "wss://ws.okx.com:8443/ws/v5/public";
+    private static final String DEFAULT_WS_BASE_URL = "wss://ws.okx.com:8443/ws/v5/public";
+
+    // Configurable through exchanges.wsUrls, e.g. to connect to a local exchange simulator
+    private final String wsBaseUrl = ConfigurationFactory.getExchangeConfig().getWsUrl("okx", DEFAULT_WS_BASE_URL);
     
     // Maps to store market data for each symbol
     private final Map<String, Ticker> tickerMap = new HashMap<>();
@@ -42,7 +45,7 @@ public class OkxWebSocketProvider extends BaseWebSocketProvider {
 
     @Override
     protected URI getWebSocketEndpoint(List<String> symbols) {
-        return URI.create(WS_BASE_URL);
+        return URI.create(wsBaseUrl);
     }
     
     @Override
@@ -103,6 +106,7 @@ public class OkxWebSocketProvider extends BaseWebSocketProvider {
         
         @Override
         public void onMessage(WebSocket webSocket, String text) {
+            metrics.onMessageReceived();
             processMessage(text);
         }
         
@@ -113,7 +117,7 @@ public class OkxWebSocketProvider extends BaseWebSocketProvider {
         }
         
         @Override
-        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             notifyWebSocketError(t);
             websocketConnected = false;
         }
@@ -207,7 +211,7 @@ public class OkxWebSocketProvider extends BaseWebSocketProvider {
                     }
                 }
             } catch (Exception e) {
-                logError("Error processing OKX WebSocket message", e);
+                logError(messageErrors, "Error processing OKX WebSocket message", e);
             }
         }
     }
@@ -0,0 +1,673 @@
+package com.example.tradient.demo;
+
+import com.example.tradient.config.ConfigurationFactory;
+import com.example.tradient.config.ConfigurationSnapshot;
+import com.example.tradient.config.YamlConfigurationService;
+import com.example.tradient.data.http.ExchangeLatencyTracker;
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.ExchangeConfiguration;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.data.model.TradingPair;
+import com.example.tradient.data.service.BinanceExchangeService;
+import com.example.tradient.data.service.BybitV5ExchangeService;
+import com.example.tradient.data.service.CoinbaseExchangeService;
+import com.example.tradient.data.service.ExchangeService;
+import com.example.tradient.data.service.KrakenExchangeService;
+import com.example.tradient.data.service.OkxExchangeService;
+import com.example.tradient.domain.engine.OpportunityDetector;
+import com.example.tradient.domain.market.ConsolidatedOrderBook;
+import com.example.tradient.domain.market.ExchangeLiquidityService;
+import com.example.tradient.infrastructure.OpportunityJsonWriter;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.infrastructure.metrics.LatencyTracer;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+import com.example.tradient.infrastructure.metrics.MetricsReporter;
+import com.example.tradient.infrastructure.notification.AsyncNotificationService;
+import com.example.tradient.infrastructure.notification.ConsoleNotificationService;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.SymbolNormalizer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Headless arbitrage scanner daemon.
+ * <p>
+ * Reads the YAML configuration, connects to the enabled exchanges and, on a fixed
+ * interval, compares the prices of every symbol listed on at least two of them. Each
+ * opportunity at or above the configured minimum profit is written as a JSON line to
+ * standard output or a file; all logging goes to standard error. While the WebSocket
+ * streams order books, each line also carries the price of routing the base order size
+ * across the streamed books of every exchange (see {@link ConsolidatedOrderBook}).
+ * <p>
+ * Exchange requests are blocking REST calls. On Java 21 and later every request and
+ * every WebSocket subscription runs on a virtual thread of its own (see
+ * {@link TaskScheduler#blockingIoExecutor()}), limited only by the number of requests
+ * in flight per exchange, so a scan over thousands of markets needs no pool tuning.
+ * On older JVMs the same requests share the network pool.
+ * <p>
+ * Stream, REST, scan and risk metrics (see {@link MetricsRegistry}) can be served as
+ * plain text with {@code --metrics-port} and logged periodically with
+ * {@code --metrics-interval}. Every opportunity written is traced back to the tick that
+ * produced it (see {@link LatencyTracer}); traces slower than {@code --slow-trace} are
+ * logged and served on {@code /traces}.
+ * <p>
+ * Run with {@code ./gradlew :core:runScanner --args="..."}; see {@link #USAGE}.
+ */
+public class ArbitrageProcessMain {
+
+    private static final String TAG = "ArbitrageProcessMain";
+
+    static final String USAGE = String.join("\n",
+            "Usage: ArbitrageProcessMain [options]",
+            "  --config-dir DIR     Configuration root with default/ and environment directories (default: config)",
+            "  --env NAME           Configuration environment (default: APP_ENVIRONMENT or default)",
+            "  --output FILE        Append opportunities to FILE instead of writing them to stdout",
+            "  --interval SECONDS   Time between the starts of two scans (default: 5)",
+            "  --exchanges A,B,...  Exchanges to scan (default: the enabled exchanges of the configuration)",
+            "  --max-in-flight N    Maximum concurrent requests per exchange (default: 64)",
+            "  --no-websocket       Poll REST only, without WebSocket subscriptions",
+            "  --watch-config       Reload the configuration when its files change",
+            "  --record DIR         Record every ticker and order book received to segment files in DIR",
+            "  --metrics-port N     Serve metrics as plain text on http://localhost:N/metrics",
+            "  --metrics-interval N Log a metrics snapshot every N seconds",
+            "  --slow-trace MS      Log opportunities published MS or more after their tick (default: 1000)",
+            "  --once               Run a single scan and exit",
+            "  --debug              Enable debug logging");
+
+    private static final double DEFAULT_MIN_PROFIT_PERCENT = 0.1;
+    private static final long SETUP_TIMEOUT_SECONDS = 60;
+
+    private final Options options;
+    private final OpportunityJsonWriter writer;
+    private final OpportunityDetector detector = new OpportunityDetector();
+    private final TaskScheduler taskScheduler = TaskScheduler.getInstance();
+    private final LatencyTracer tracer = LatencyTracer.getInstance();
+    private final LatencyHistogram scanTime = MetricsRegistry.getInstance()
+            .histogram(OpportunityDetector.SCAN_DURATION, "source", "scanner");
+    private final Executor ioExecutor = taskScheduler.blockingIoExecutor();
+    private final ExchangeLiquidityService liquidity = new ExchangeLiquidityService();
+
+    private final List<ExchangeService> exchanges = new ArrayList<>();
+    private final Map<ExchangeService, Semaphore> inFlightLimits = new HashMap<>();
+
+    // Normalized symbol -> exchange -> symbol on that exchange, for symbols on two or more exchanges
+    private Map<String, Map<ExchangeService, String>> markets = Collections.emptyMap();
+
+    private volatile boolean running = true;
+    private long scanCount;
+
+    // Scan whose results may still be written. A timed-out scan is retired before the
+    // next one starts, so its late tickers are dropped instead of written under its id.
+    private volatile long activeScanId;
+
+    ArbitrageProcessMain(Options options, OpportunityJsonWriter writer) {
+        this.options = options;
+        this.writer = writer;
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.err.println(USAGE);
+            return;
+        }
+
+        // Must be set before the configuration service is first used
+        if (options.configDir != null) {
+            System.setProperty("app.configDir", options.configDir);
+        }
+        if (options.environment != null) {
+            System.setProperty("app.environment", options.environment);
+        }
+
+        // Standard output carries the opportunities, so logging goes to standard error,
+        // written on a background thread; the hook writes what is queued at exit
+        AsyncNotificationService log = new AsyncNotificationService(
+                new ConsoleNotificationService(options.debug, System.err));
+        AppLog.setNotificationService(log);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "log-flush"));
+
+        OpportunityJsonWriter writer;
+        try {
+            writer = options.output != null
+                    ? OpportunityJsonWriter.toFile(Paths.get(options.output), true)
+                    : OpportunityJsonWriter.toStdout();
+        } catch (IOException e) {
+            AppLog.e(TAG, "Cannot open output " + options.output, e);
+            System.exit(1);
+            return;
+        }
+
+        if (options.recordDir != null) {
+            try {
+                MarketDataRecorder.getInstance().start(Paths.get(options.recordDir));
+            } catch (IOException e) {
+                AppLog.e(TAG, "Cannot record market data to " + options.recordDir, e);
+                System.exit(1);
+                return;
+            }
+        }
+
+        MetricsEndpoint metricsEndpoint = null;
+        if (options.metricsPort >= 0) {
+            try {
+                metricsEndpoint = MetricsEndpoint.start(options.metricsPort, MetricsRegistry.getInstance());
+                AppLog.i(TAG, "Serving metrics on http://localhost:" + metricsEndpoint.getPort() + MetricsEndpoint.PATH
+                        + " and slow traces on " + MetricsEndpoint.TRACES_PATH);
+            } catch (IOException e) {
+                AppLog.e(TAG, "Cannot serve metrics on port " + options.metricsPort, e);
+                System.exit(1);
+                return;
+            }
+        }
+        if (options.slowTraceMillis > 0) {
+            LatencyTracer.getInstance().setSlowThresholdMillis(options.slowTraceMillis);
+        }
+        MetricsReporter metricsReporter = null;
+        if (options.metricsIntervalSeconds > 0) {
+            metricsReporter = new MetricsReporter(MetricsRegistry.getInstance(), AppLog.getNotificationService());
+            metricsReporter.start(options.metricsIntervalSeconds, TimeUnit.SECONDS);
+        }
+
+        ArbitrageProcessMain daemon = new ArbitrageProcessMain(options, writer);
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            daemon.stop();
+            mainThread.interrupt();
+            try {
+                // Let the scan loop close the exchanges and flush the output
+                mainThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ignored) {
+                // Exiting anyway
+            }
+        }, "scanner-shutdown"));
+
+        try {
+            daemon.run();
+        } finally {
+            if (metricsReporter != null) {
+                metricsReporter.stop();
+                metricsReporter.report();
+                // Per-endpoint detail behind the latency gauges
+                AppLog.getNotificationService().notify("API latency",
+                        ExchangeLatencyTracker.getInstance().generateReport(), MetricsReporter.NOTIFICATION_TYPE);
+            }
+            if (metricsEndpoint != null) {
+                metricsEndpoint.stop();
+            }
+            MarketDataRecorder.getInstance().stop();
+            try {
+                writer.close();
+            } catch (IOException e) {
+                AppLog.e(TAG, "Error closing output", e);
+            }
+        }
+    }
+
+    /**
+     * Set up the exchanges and scan until stopped.
+     */
+    void run() {
+        ConfigurationSnapshot config = ConfigurationFactory.getSnapshot();
+        AppLog.i(TAG, "Configuration " + config.getVersion() + " loaded; exchange requests run on "
+                + (taskScheduler.isUsingVirtualThreads() ? "virtual threads" : "the network pool"));
+        if (options.watchConfig) {
+            YamlConfigurationService.getInstance().startWatching();
+        }
+
+        try {
+            createExchanges(config);
+            if (exchanges.size() < 2) {
+                AppLog.e(TAG, "At least two exchanges are needed, got " + exchanges.size());
+                return;
+            }
+
+            loadMarkets();
+            if (markets.isEmpty()) {
+                AppLog.e(TAG, "No symbol is listed on two or more exchanges");
+                return;
+            }
+
+            if (options.webSocket) {
+                subscribe();
+            }
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(options.intervalSeconds);
+            while (running) {
+                long started = System.nanoTime();
+                scan(intervalNanos);
+                if (options.once) {
+                    break;
+                }
+                long remaining = intervalNanos - (System.nanoTime() - started);
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            YamlConfigurationService.getInstance().stopWatching();
+            closeExchanges();
+            AppLog.i(TAG, "Scanner stopped after " + scanCount + " scans, "
+                    + writer.getWrittenCount() + " opportunities written");
+        }
+    }
+
+    /**
+     * Stop after the current scan.
+     */
+    void stop() {
+        running = false;
+    }
+
+    private void createExchanges(ConfigurationSnapshot config) {
+        ExchangeConfiguration exchangeConfig = config.getExchangeConfig();
+        Iterable<String> names = options.exchanges != null
+                ? options.exchanges : new TreeSet<>(config.getEnabledExchanges());
+
+        for (String name : names) {
+            ExchangeService exchange = createExchange(name, exchangeConfig.getExchangeFee(name));
+            if (exchange == null) {
+                AppLog.w(TAG, "Unknown exchange " + name + ", skipping");
+                continue;
+            }
+            exchange.setNotificationService(AppLog.getNotificationService());
+            exchanges.add(exchange);
+            inFlightLimits.put(exchange, new Semaphore(options.maxInFlight));
+        }
+        AppLog.i(TAG, "Exchanges: " + exchangeNames());
+    }
+
+    private static ExchangeService createExchange(String name, double fee) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "binance":
+                return new BinanceExchangeService(fee);
+            case "coinbase":
+                return new CoinbaseExchangeService(fee);
+            case "kraken":
+                return new KrakenExchangeService(fee);
+            case "bybit":
+                return new BybitV5ExchangeService(fee);
+            case "okx":
+                return new OkxExchangeService(fee);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Fetch the trading pairs of all exchanges in parallel and keep the symbols listed
+     * on at least two of them.
+     */
+    private void loadMarkets() throws InterruptedException {
+        Map<ExchangeService, CompletableFuture<List<TradingPair>>> requests = new LinkedHashMap<>();
+        for (ExchangeService exchange : exchanges) {
+            requests.put(exchange, request(exchange, exchange::getTradingPairs));
+        }
+
+        Map<String, Map<ExchangeService, String>> listings = new HashMap<>();
+        for (Map.Entry<ExchangeService, CompletableFuture<List<TradingPair>>> request : requests.entrySet()) {
+            ExchangeService exchange = request.getKey();
+            List<TradingPair> pairs = await(request.getValue(), exchange.getExchangeName() + " trading pairs");
+            if (pairs == null || pairs.isEmpty()) {
+                AppLog.w(TAG, "No trading pairs from " + exchange.getExchangeName());
+                continue;
+            }
+            for (TradingPair pair : pairs) {
+                String symbol = SymbolNormalizer.normalize(pair.getSymbol());
+                listings.computeIfAbsent(symbol, key -> new LinkedHashMap<>()).put(exchange, pair.getSymbol());
+            }
+            AppLog.i(TAG, exchange.getExchangeName() + ": " + pairs.size() + " trading pairs");
+        }
+
+        Map<String, Map<ExchangeService, String>> tradable = new HashMap<>();
+        for (Map.Entry<String, Map<ExchangeService, String>> listing : listings.entrySet()) {
+            if (listing.getValue().size() >= 2) {
+                tradable.put(listing.getKey(), Collections.unmodifiableMap(listing.getValue()));
+            }
+        }
+        markets = Collections.unmodifiableMap(tradable);
+        AppLog.i(TAG, markets.size() + " symbols are listed on two or more exchanges");
+    }
+
+    /**
+     * Open one WebSocket subscription per exchange for its tradable symbols, so most
+     * ticker reads are served from the stream instead of REST.
+     */
+    private void subscribe() throws InterruptedException {
+        Map<ExchangeService, List<String>> symbols = new LinkedHashMap<>();
+        for (Map<ExchangeService, String> listing : markets.values()) {
+            for (Map.Entry<ExchangeService, String> entry : listing.entrySet()) {
+                symbols.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+
+        Map<ExchangeService, CompletableFuture<Boolean>> subscriptions = new LinkedHashMap<>();
+        for (Map.Entry<ExchangeService, List<String>> entry : symbols.entrySet()) {
+            ExchangeService exchange = entry.getKey();
+            exchange.enableStreamCache();
+            liquidity.feedConsolidatedBooks(exchange);
+            subscriptions.put(exchange, CompletableFuture.supplyAsync(
+                    () -> exchange.initializeWebSocket(entry.getValue()), ioExecutor));
+        }
+        for (Map.Entry<ExchangeService, CompletableFuture<Boolean>> subscription : subscriptions.entrySet()) {
+            String name = subscription.getKey().getExchangeName();
+            Boolean connected = await(subscription.getValue(), name + " WebSocket");
+            if (!Boolean.TRUE.equals(connected)) {
+                AppLog.w(TAG, name + ": no WebSocket, polling REST");
+            }
+        }
+    }
+
+    /**
+     * Fetch the tickers of every market and compare them once all tickers of a market
+     * have arrived. Waits at most one interval for the scan to finish; requests still
+     * outstanding after that are cancelled and their markets are skipped.
+     */
+    private void scan(long timeoutNanos) throws InterruptedException {
+        long scanId = ++scanCount;
+        long started = System.nanoTime();
+        activeScanId = scanId;
+        BooleanSupplier current = () -> activeScanId == scanId;
+
+        // Read once per scan, so a reloaded configuration applies from the next scan on
+        ConfigurationSnapshot config = ConfigurationFactory.getSnapshot();
+        double minProfitPercent = config.getMinProfitPercent() > 0
+                ? config.getMinProfitPercent() : DEFAULT_MIN_PROFIT_PERCENT;
+
+        AtomicInteger found = new AtomicInteger();
+        List<CompletableFuture<Void>> comparisons = new ArrayList<>(markets.size());
+        List<CompletableFuture<Ticker>> requests = new ArrayList<>();
+        for (Map.Entry<String, Map<ExchangeService, String>> market : markets.entrySet()) {
+            String symbol = market.getKey();
+            Map<ExchangeService, String> listing = market.getValue();
+
+            ExchangeService[] listed = listing.keySet().toArray(new ExchangeService[0]);
+            List<CompletableFuture<Ticker>> tickers = new ArrayList<>(listed.length);
+            for (ExchangeService exchange : listed) {
+                String exchangeSymbol = listing.get(exchange);
+                tickers.add(request(exchange, current, () -> exchange.getTickerData(exchangeSymbol)));
+            }
+            requests.addAll(tickers);
+
+            CompletableFuture<Void> all = CompletableFuture.allOf(tickers.toArray(new CompletableFuture<?>[0]));
+            comparisons.add(all.handle((ignored, error) -> {
+                found.addAndGet(compare(scanId, symbol, listing, listed, tickers, config, minProfitPercent));
+                return null;
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(comparisons.toArray(new CompletableFuture<?>[0]))
+                    .get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Retire the scan first, so the comparisons completed by the cancellation write nothing
+            activeScanId = 0;
+            long pending = comparisons.stream().filter(comparison -> !comparison.isDone()).count();
+            for (CompletableFuture<Ticker> request : requests) {
+                request.cancel(false);
+            }
+            AppLog.w(TAG, "Scan " + scanId + " timed out, skipped " + pending + " markets");
+        } catch (ExecutionException e) {
+            AppLog.e(TAG, "Scan " + scanId + " failed", e.getCause());
+        }
+
+        long elapsed = System.nanoTime() - started;
+        scanTime.recordNanos(elapsed);
+        AppLog.i(TAG, String.format(Locale.US, "Scan %d: %d markets, %d opportunities in %d ms",
+                scanId, markets.size(), found.get(), TimeUnit.NANOSECONDS.toMillis(elapsed)));
+    }
+
+    /**
+     * Compare every ordered pair of exchanges of one market and write the opportunities found.
+     *
+     * @return Number of opportunities written
+     */
+    private int compare(long scanId, String symbol, Map<ExchangeService, String> listing,
+                        ExchangeService[] listed, List<CompletableFuture<Ticker>> tickers,
+                        ConfigurationSnapshot config, double minProfitPercent) {
+        if (activeScanId != scanId) {
+            return 0;
+        }
+        String[] names = new String[listed.length];
+        String[] symbols = new String[listed.length];
+        Ticker[] latest = new Ticker[listed.length];
+        for (int i = 0; i < listed.length; i++) {
+            names[i] = listed[i].getExchangeName();
+            symbols[i] = listing.get(listed[i]);
+            latest[i] = tickers.get(i).isCancelled() ? null : tickers.get(i).getNow(null);
+        }
+        List<ArbitrageOpportunity> found = new ArrayList<>();
+        detector.detect(symbol, names, symbols, latest, config, minProfitPercent, found);
+
+        int written = 0;
+        ConsolidatedOrderBook consolidated = liquidity.getConsolidatedOrderBook(symbol);
+        double orderSize = config.getArbitrageConfig().getBaseOrderSize();
+        for (ArbitrageOpportunity opportunity : found) {
+            if (activeScanId != scanId) {
+                break;
+            }
+            try {
+                // Price the base order size across every venue's streamed book, not just the two legs
+                double quantity = orderSize / opportunity.getBuyPrice();
+                writer.write(opportunity, scanId, consolidated.quoteBuy(quantity), consolidated.quoteSell(quantity));
+                tracer.onPublished(opportunity);
+                written++;
+            } catch (IOException e) {
+                // Nobody is reading any more (e.g. a closed pipe), so stop
+                AppLog.e(TAG, "Error writing opportunity, stopping", e);
+                stop();
+                break;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Run a blocking exchange request on the I/O executor, holding one of the exchange's
+     * in-flight permits while it runs. A failed request completes with null.
+     */
+    private <T> CompletableFuture<T> request(ExchangeService exchange, Supplier<T> call) {
+        return request(exchange, () -> true, call);
+    }
+
+    /**
+     * Like {@link #request(ExchangeService, Supplier)}, but a request that is no longer
+     * wanted by the time it leaves the queue completes with null without being sent.
+     */
+    private <T> CompletableFuture<T> request(ExchangeService exchange, BooleanSupplier wanted, Supplier<T> call) {
+        Semaphore permits = inFlightLimits.get(exchange);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!wanted.getAsBoolean()) {
+                return null;
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            try {
+                // Waiting for the permit may have outlived the request
+                if (!wanted.getAsBoolean()) {
+                    return null;
+                }
+                return call.get();
+            } catch (RuntimeException e) {
+                AppLog.d(TAG, exchange.getExchangeName() + " request failed: " + e.getMessage());
+                return null;
+            } finally {
+                permits.release();
+            }
+        }, ioExecutor);
+    }
+
+    private <T> T await(CompletableFuture<T> future, String what) throws InterruptedException {
+        try {
+            return future.get(SETUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            AppLog.w(TAG, what + " timed out");
+        } catch (ExecutionException e) {
+            AppLog.e(TAG, what + " failed", e.getCause());
+        }
+        return null;
+    }
+
+    private void closeExchanges() {
+        for (ExchangeService exchange : exchanges) {
+            try {
+                exchange.closeWebSocket();
+            } catch (Exception e) {
+                AppLog.w(TAG, "Error closing " + exchange.getExchangeName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private String exchangeNames() {
+        List<String> names = new ArrayList<>(exchanges.size());
+        for (ExchangeService exchange : exchanges) {
+            names.add(exchange.getExchangeName());
+        }
+        return String.join(", ", names);
+    }
+
+    /**
+     * Command line options.
+     */
+    static final class Options {
+        String configDir;
+        String environment;
+        String output;
+        long intervalSeconds = 5;
+        List<String> exchanges;
+        int maxInFlight = 64;
+        boolean webSocket = true;
+        boolean watchConfig;
+        String recordDir;
+        int metricsPort = -1;
+        long metricsIntervalSeconds;
+        long slowTraceMillis;
+        boolean once;
+        boolean debug;
+        boolean help;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--config-dir":
+                        options.configDir = value(args, ++i, arg);
+                        break;
+                    case "--env":
+                        options.environment = value(args, ++i, arg);
+                        break;
+                    case "--output":
+                        options.output = value(args, ++i, arg);
+                        break;
+                    case "--interval":
+                        options.intervalSeconds = positive(value(args, ++i, arg), arg);
+                        break;
+                    case "--exchanges":
+                        options.exchanges = Arrays.asList(value(args, ++i, arg).toLowerCase(Locale.ROOT).split("\\s*,\\s*"));
+                        break;
+                    case "--max-in-flight":
+                        options.maxInFlight = (int) Math.min(Integer.MAX_VALUE, positive(value(args, ++i, arg), arg));
+                        break;
+                    case "--no-websocket":
+                        options.webSocket = false;
+                        break;
+                    case "--watch-config":
+                        options.watchConfig = true;
+                        break;
+                    case "--record":
+                        options.recordDir = value(args, ++i, arg);
+                        break;
+                    case "--metrics-port":
+                        options.metricsPort = port(value(args, ++i, arg), arg);
+                        break;
+                    case "--metrics-interval":
+                        options.metricsIntervalSeconds = positive(value(args, ++i, arg), arg);
+                        break;
+                    case "--slow-trace":
+                        options.slowTraceMillis = positive(value(args, ++i, arg), arg);
+                        break;
+                    case "--once":
+                        options.once = true;
+                        break;
+                    case "--debug":
+                        options.debug = true;
+                        break;
+                    case "--help":
+                    case "-h":
+                        options.help = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            return args[index];
+        }
+
+        private static int port(String value, String option) {
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed >= 0 && parsed <= 65535) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException(option + " must be a port number: " + value);
+        }
+
+        private static long positive(String value, String option) {
+            try {
+                long parsed = Long.parseLong(value);
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException(option + " must be a positive number: " + value);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.tradient.demo;
+
+import com.example.tradient.config.ConfigurationFactory;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.risk.SlippageManagerService;
+import com.example.tradient.infrastructure.OpportunityJsonWriter;
+import com.example.tradient.infrastructure.notification.AsyncNotificationService;
+import com.example.tradient.infrastructure.notification.ConsoleNotificationService;
+import com.example.tradient.infrastructure.paper.LatencyModel;
+import com.example.tradient.infrastructure.paper.PaperTrader;
+import com.example.tradient.infrastructure.recording.MarketDataReader;
+import com.example.tradient.infrastructure.replay.MarketReplay;
+import com.example.tradient.infrastructure.replay.ReplayListener;
+import com.example.tradient.infrastructure.replay.ReplayOpportunity;
+import com.example.tradient.infrastructure.replay.ReplayReport;
+import com.example.tradient.util.AppLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recording made with {@code ArbitrageProcessMain --record} through the
+ * scanner's detection, risk and profit code (see {@link MarketReplay}).
+ * <p>
+ * Every opportunity found is written as a JSON line, with its lifetime, once it closes
+ * or the recording ends; the summary goes to standard error with the rest of the
+ * logging. The fees and the default minimum profit come from the configuration, so
+ * replaying one recording with several configurations compares them on identical
+ * market data.
+ * <p>
+ * With {@code --paper-trade} every opportunity is also traded on simulated exchanges
+ * fed with the replayed books (see {@link PaperTrader}), to see how much of the
+ * detected profit survives order latency and book depth.
+ * <p>
+ * Run with {@code ./gradlew :core:runReplay --args="--recording DIR ..."}; see {@link #USAGE}.
+ */
+public class MarketReplayMain {
+
+    private static final String TAG = "MarketReplayMain";
+
+    static final String USAGE = String.join("\n",
+            "Usage: MarketReplayMain --recording DIR [options]",
+            "  --recording DIR      Directory of the recording to replay",
+            "  --config-dir DIR     Configuration root with default/ and environment directories (default: config)",
+            "  --env NAME           Configuration environment (default: APP_ENVIRONMENT or default)",
+            "  --output FILE        Write opportunities to FILE instead of stdout",
+            "  --speed X            Replay at X times real time (default: 0, as fast as possible)",
+            "  --min-profit PCT     Minimum profit after fees, in percent (default: the configuration's)",
+            "  --trade-amount N     Trade size used for fees and slippage, in quote currency (default: 1000)",
+            "  --max-quote-age MS   Age after which a quote is no longer traded on (default: 30000)",
+            "  --exchanges A,B,...  Exchanges to replay (default: all in the recording)",
+            "  --paper-trade        Trade every opportunity on simulated exchanges and report the fills",
+            "  --paper-orders TYPE  limit (immediate-or-cancel at the detected prices) or market (default: limit)",
+            "  --latency MS[-MS]    Order latency of the simulated exchanges, fixed or a range (default: 50-150)",
+            "  --debug              Enable debug logging");
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.err.println(USAGE);
+            return;
+        }
+
+        // Must be set before the configuration service is first used
+        if (options.configDir != null) {
+            System.setProperty("app.configDir", options.configDir);
+        }
+        if (options.environment != null) {
+            System.setProperty("app.environment", options.environment);
+        }
+
+        // Standard output carries the opportunities, so logging goes to standard error,
+        // written on a background thread; the hook writes what is queued at exit
+        AsyncNotificationService log = new AsyncNotificationService(
+                new ConsoleNotificationService(options.debug, System.err));
+        AppLog.setNotificationService(log);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "log-flush"));
+
+        if (!Files.isDirectory(Paths.get(options.recording))) {
+            AppLog.e(TAG, "No recording in " + options.recording);
+            System.exit(1);
+            return;
+        }
+
+        OpportunityJsonWriter writer;
+        try {
+            writer = options.output != null
+                    ? OpportunityJsonWriter.toFile(Paths.get(options.output), false)
+                    : OpportunityJsonWriter.toStdout();
+        } catch (IOException e) {
+            AppLog.e(TAG, "Cannot open output " + options.output, e);
+            System.exit(1);
+            return;
+        }
+
+        SlippageManagerService slippageManager = options.paperTrade ? new SlippageManagerService() : null;
+        PaperTrader trader = options.paperTrade
+                ? new PaperTrader(ConfigurationFactory.getSnapshot(),
+                        LatencyModel.uniform(options.minLatencyMillis, options.maxLatencyMillis, 42),
+                        slippageManager, options.tradeAmount, options.marketOrders)
+                : null;
+
+        int status = 0;
+        try {
+            MarketDataReader reader = new MarketDataReader(Paths.get(options.recording));
+            MarketReplay replay = new MarketReplay.Builder(reader)
+                    .setSpeed(options.speed)
+                    .setMinProfitPercent(options.minProfitPercent)
+                    .setTradeAmount(options.tradeAmount)
+                    .setMaxQuoteAgeMillis(options.maxQuoteAgeMillis)
+                    .setExchanges(options.exchanges)
+                    .setListener(new ReplayListener() {
+                        @Override
+                        public void onTicker(String exchangeName, String symbol, Ticker ticker) {
+                            if (trader != null) {
+                                trader.onTicker(exchangeName, symbol, ticker);
+                            }
+                        }
+
+                        @Override
+                        public void onOrderBook(String exchangeName, String symbol, OrderBook orderBook) {
+                            if (trader != null) {
+                                trader.onOrderBook(exchangeName, symbol, orderBook);
+                            }
+                        }
+
+                        @Override
+                        public void onOpportunityOpened(ReplayOpportunity opportunity) {
+                            // Written once closed, when the lifetime is known
+                            if (trader != null) {
+                                trader.onOpportunityOpened(opportunity);
+                            }
+                        }
+
+                        @Override
+                        public void onOpportunityClosed(ReplayOpportunity opportunity) {
+                            try {
+                                writer.write(opportunity);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+
+                        @Override
+                        public void onReplayEnd() {
+                            if (trader != null) {
+                                trader.onReplayEnd();
+                            }
+                        }
+                    })
+                    .build();
+
+            Thread mainThread = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                replay.stop();
+                try {
+                    // Let the replay report what it got through
+                    mainThread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException ignored) {
+                    // Exiting anyway
+                }
+            }, "replay-shutdown"));
+
+            ReplayReport report = replay.run();
+            AppLog.i(TAG, report.toString());
+            if (trader != null) {
+                AppLog.i(TAG, trader.toString());
+            }
+            if (reader.getSkippedSegments() > 0) {
+                AppLog.w(TAG, reader.getSkippedSegments() + " unreadable segments were skipped");
+            }
+        } catch (IOException | UncheckedIOException e) {
+            AppLog.e(TAG, "Replay failed", e);
+            status = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 1;
+        } finally {
+            if (slippageManager != null) {
+                slippageManager.shutdown();
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                AppLog.e(TAG, "Error closing output", e);
+            }
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Command line options.
+     */
+    static final class Options {
+        String recording;
+        String configDir;
+        String environment;
+        String output;
+        double speed;
+        double minProfitPercent = Double.NaN;
+        double tradeAmount = 1000.0;
+        long maxQuoteAgeMillis = MarketReplay.DEFAULT_MAX_QUOTE_AGE_MILLIS;
+        List<String> exchanges;
+        boolean paperTrade;
+        boolean marketOrders;
+        long minLatencyMillis = 50;
+        long maxLatencyMillis = 150;
+        boolean debug;
+        boolean help;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--recording":
+                        options.recording = value(args, ++i, arg);
+                        break;
+                    case "--config-dir":
+                        options.configDir = value(args, ++i, arg);
+                        break;
+                    case "--env":
+                        options.environment = value(args, ++i, arg);
+                        break;
+                    case "--output":
+                        options.output = value(args, ++i, arg);
+                        break;
+                    case "--speed":
+                        options.speed = number(value(args, ++i, arg), arg, true);
+                        break;
+                    case "--min-profit":
+                        options.minProfitPercent = number(value(args, ++i, arg), arg, true);
+                        break;
+                    case "--trade-amount":
+                        options.tradeAmount = number(value(args, ++i, arg), arg, false);
+                        break;
+                    case "--max-quote-age":
+                        options.maxQuoteAgeMillis = (long) number(value(args, ++i, arg), arg, false);
+                        break;
+                    case "--exchanges":
+                        options.exchanges = Arrays.asList(value(args, ++i, arg).toLowerCase(Locale.ROOT).split("\\s*,\\s*"));
+                        break;
+                    case "--paper-trade":
+                        options.paperTrade = true;
+                        break;
+                    case "--paper-orders":
+                        options.marketOrders = orderType(value(args, ++i, arg));
+                        break;
+                    case "--latency":
+                        options.latency(value(args, ++i, arg), arg);
+                        break;
+                    case "--debug":
+                        options.debug = true;
+                        break;
+                    case "--help":
+                    case "-h":
+                        options.help = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (options.recording == null && !options.help) {
+                throw new IllegalArgumentException("--recording is required");
+            }
+            return options;
+        }
+
+        private static boolean orderType(String value) {
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "market":
+                    return true;
+                case "limit":
+                    return false;
+                default:
+                    throw new IllegalArgumentException("--paper-orders must be limit or market: " + value);
+            }
+        }
+
+        private void latency(String value, String option) {
+            String[] bounds = value.split("-", 2);
+            minLatencyMillis = (long) number(bounds[0], option, true);
+            maxLatencyMillis = bounds.length > 1 ? (long) number(bounds[1], option, true) : minLatencyMillis;
+            if (maxLatencyMillis < minLatencyMillis) {
+                throw new IllegalArgumentException(option + " range must not be decreasing: " + value);
+            }
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            return args[index];
+        }
+
+        private static double number(String value, String option, boolean zeroAllowed) {
+            try {
+                double parsed = Double.parseDouble(value);
+                if (parsed > 0 || (zeroAllowed && parsed == 0)) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException(option + " must be a "
+                    + (zeroAllowed ? "non-negative" : "positive") + " number: " + value);
+        }
+    }
+}
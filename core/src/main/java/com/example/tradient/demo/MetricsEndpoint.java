@@ -0,0 +1,81 @@
+package com.example.tradient.demo;
+
+import com.example.tradient.infrastructure.metrics.LatencyTracer;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Plain-text metrics endpoint of the headless processes: {@code GET /metrics} returns
+ * {@link MetricsRegistry#toText()} in the Prometheus text format, {@code GET /traces}
+ * the recent slow traces of the {@link LatencyTracer}, one per line.
+ * <p>
+ * Served by the JDK's built-in HTTP server on its dispatcher thread, which is enough
+ * for a scraper or {@code curl}. That thread keeps the JVM alive, so the process stops
+ * the endpoint before exiting. Only the headless entry points use it; Android has no
+ * {@code com.sun.net.httpserver}.
+ */
+final class MetricsEndpoint {
+
+    static final String PATH = "/metrics";
+    static final String TRACES_PATH = "/traces";
+
+    private static final String METRICS_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String TEXT_TYPE = "text/plain; charset=utf-8";
+
+    private final HttpServer server;
+
+    private MetricsEndpoint(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Start serving on the given port of all interfaces.
+     *
+     * @param port The port, or 0 for any free port
+     */
+    static MetricsEndpoint start(int port, MetricsRegistry registry) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(PATH, exchange -> handle(exchange, METRICS_TYPE, registry::toText));
+        server.createContext(TRACES_PATH, exchange -> handle(exchange, TEXT_TYPE,
+                () -> String.join("\n", LatencyTracer.getInstance().getSlowTraces()) + "\n"));
+        // The default executor runs requests on the server's own thread
+        server.start();
+        return new MetricsEndpoint(server);
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private static void handle(HttpExchange exchange, String contentType, Supplier<String> text) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = text.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
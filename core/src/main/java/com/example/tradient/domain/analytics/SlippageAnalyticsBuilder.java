@@ -1,10 +1,10 @@
 package com.example.tradient.domain.analytics;
 
-import android.util.Log;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.domain.risk.SlippageManagerService;
 import com.example.tradient.domain.risk.SlippageStressTester;
+import com.example.tradient.util.AppLog;
 import java.time.Instant;
 
 /**
@@ -70,7 +70,7 @@ public class SlippageAnalyticsBuilder {
      */
     public double calculateSlippage(Ticker ticker, OrderBook orderBook, double tradeSize, boolean isBuy, String symbol) {
         // Order book is now ignored in the updated implementation
-        Log.w(TAG, "Order book parameter is ignored in the updated slippage calculation");
+        AppLog.w(TAG, "Order book parameter is ignored in the updated slippage calculation");
         return slippageManager.calculateSlippage(ticker, tradeSize, isBuy, symbol);
     }
     
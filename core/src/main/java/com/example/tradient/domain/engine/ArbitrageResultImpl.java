@@ -2,11 +2,13 @@ package com.example.tradient.domain.engine;
 
 import com.example.tradient.data.model.ArbitrageOpportunity;
 import com.example.tradient.data.interfaces.ArbitrageResult;
+import com.example.tradient.util.MarketClock;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Represents the result of an arbitrage opportunity scan.
@@ -25,7 +27,7 @@ public class ArbitrageResultImpl implements ArbitrageResult {
      */
     public ArbitrageResultImpl(List<ArbitrageOpportunity> opportunities) {
         this.opportunities = new ArrayList<>(opportunities);
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = MarketClock.currentTimeMillis();
     }
     
     /**
@@ -48,7 +50,7 @@ public class ArbitrageResultImpl implements ArbitrageResult {
         return opportunities.stream()
                 .sorted(Comparator.comparing(ArbitrageOpportunity::getProfitPercent).reversed())
                 .limit(n)
-                .toList();
+                .collect(Collectors.toList());
     }
     
     /**
@@ -60,7 +62,7 @@ public class ArbitrageResultImpl implements ArbitrageResult {
         return opportunities.stream()
                 .filter(ArbitrageOpportunity::isViable)
                 .sorted(Comparator.comparing(ArbitrageOpportunity::getProfitPercent).reversed())
-                .toList();
+                .collect(Collectors.toList());
     }
     
     /**
@@ -0,0 +1,163 @@
+package com.example.tradient.domain.engine;
+
+import com.example.tradient.config.ConfigurationSnapshot;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.infrastructure.metrics.Counter;
+import com.example.tradient.infrastructure.metrics.LatencyTracer;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+import com.example.tradient.util.ArbitrageProcessing;
+import com.example.tradient.util.RiskAssessmentAdapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the arbitrage opportunities of one market in the latest ticker of every exchange
+ * listing it: buy at the ask on one exchange, sell at the bid on another, and keep the
+ * pairs whose profit after all fees reaches the minimum.
+ * <p>
+ * The headless scanner and the market data replay both detect through this class, so a
+ * replay finds exactly the opportunities the scanner would have found in the same quotes.
+ */
+public class OpportunityDetector {
+
+    // Trade size used to evaluate fees, in quote currency; same as the app's scanner
+    public static final double DEFAULT_TRADE_AMOUNT = 1000.0;
+
+    // Metrics of the scanners built on the detector
+    public static final String SCAN_DURATION = "tradient_scan_duration_millis";
+    public static final String OPPORTUNITIES_OPENED = "tradient_opportunities_opened_total";
+    public static final String OPPORTUNITIES_CLOSED = "tradient_opportunities_closed_total";
+
+    // Exchange pairs left after each stage: both quoted, a positive spread, profitable after fees
+    public static final String CANDIDATES = "tradient_detector_candidates_total";
+    private static final Counter QUOTED = MetricsRegistry.getInstance().counter(CANDIDATES, "stage", "quoted");
+    private static final Counter SPREAD = MetricsRegistry.getInstance().counter(CANDIDATES, "stage", "spread");
+    private static final Counter PROFITABLE = MetricsRegistry.getInstance().counter(CANDIDATES, "stage", "profitable");
+    private static final LatencyTracer TRACER = LatencyTracer.getInstance();
+
+    private final double tradeAmount;
+
+    // Exchange name -> configuration key, so fee lookups don't normalize the name every time
+    private final Map<String, String> exchangeKeys = new ConcurrentHashMap<>();
+
+    public OpportunityDetector() {
+        this(DEFAULT_TRADE_AMOUNT);
+    }
+
+    /**
+     * @param tradeAmount Trade size used to evaluate fees, in quote currency
+     */
+    public OpportunityDetector(double tradeAmount) {
+        this.tradeAmount = tradeAmount;
+    }
+
+    public double getTradeAmount() {
+        return tradeAmount;
+    }
+
+    /**
+     * Compare every ordered pair of exchanges of one market.
+     *
+     * @param symbol The normalized symbol, e.g. BTC/USDT
+     * @param exchangeNames The exchanges listing it
+     * @param exchangeSymbols The symbol on each of those exchanges
+     * @param tickers The latest ticker of each exchange, null where there is none
+     * @param config Configuration providing the fees
+     * @param minProfitPercent Minimum profit after fees, in percent
+     * @param found Receives the opportunities found
+     * @return Number of opportunities found
+     */
+    public int detect(String symbol, String[] exchangeNames, String[] exchangeSymbols, Ticker[] tickers,
+                      ConfigurationSnapshot config, double minProfitPercent, List<ArbitrageOpportunity> found) {
+        int quoted = 0;
+        int spread = 0;
+        int count = 0;
+        long scannedNanos = 0;
+        String baseAsset = null;
+        for (int buy = 0; buy < tickers.length; buy++) {
+            Ticker buyTicker = tickers[buy];
+            double buyPrice = buyTicker != null ? askPrice(buyTicker) : 0;
+            if (buyPrice <= 0) {
+                continue;
+            }
+            for (int sell = 0; sell < tickers.length; sell++) {
+                Ticker sellTicker = tickers[sell];
+                if (sell == buy || sellTicker == null) {
+                    continue;
+                }
+                quoted++;
+                double sellPrice = bidPrice(sellTicker);
+                // Fees only lower the profit, so no spread means no opportunity
+                if (sellPrice <= buyPrice) {
+                    continue;
+                }
+                spread++;
+
+                if (baseAsset == null) {
+                    baseAsset = symbol.split("/")[0];
+                }
+                double buyFee = config.getFeePercentage(exchangeKey(exchangeNames[buy]), true);
+                double sellFee = config.getFeePercentage(exchangeKey(exchangeNames[sell]), false);
+                double profitPercent = ArbitrageProcessing.calculateComprehensiveProfitPercentage(
+                        tradeAmount, buyPrice, sellPrice,
+                        exchangeNames[buy], exchangeNames[sell],
+                        baseAsset, buyFee, sellFee);
+                if (profitPercent < minProfitPercent) {
+                    continue;
+                }
+
+                ArbitrageOpportunity opportunity = new ArbitrageOpportunity(
+                        symbol,
+                        exchangeSymbols[buy],
+                        exchangeSymbols[sell],
+                        exchangeNames[buy],
+                        exchangeNames[sell],
+                        buyPrice,
+                        sellPrice,
+                        profitPercent);
+                opportunity.setBuyTicker(buyTicker);
+                opportunity.setSellTicker(sellTicker);
+                opportunity.setBuyFeePercentage(buyFee);
+                opportunity.setSellFeePercentage(sellFee);
+                opportunity.setNetProfitPercentage(profitPercent);
+                opportunity.setViable(true);
+                // Attaching an assessment copies its fees onto the opportunity
+                RiskAssessment assessment = new RiskAssessment();
+                assessment.setBuyFeePercentage(buyFee);
+                assessment.setSellFeePercentage(sellFee);
+                RiskAssessmentAdapter.setRiskAssessment(opportunity, assessment);
+                if (scannedNanos == 0) {
+                    scannedNanos = System.nanoTime();
+                }
+                TRACER.onScanned(opportunity, scannedNanos);
+                found.add(opportunity);
+                count++;
+            }
+        }
+        QUOTED.add(quoted);
+        SPREAD.add(spread);
+        PROFITABLE.add(count);
+        return count;
+    }
+
+    private static double askPrice(Ticker ticker) {
+        return ticker.getAskPrice() > 0 ? ticker.getAskPrice() : ticker.getLastPrice();
+    }
+
+    private static double bidPrice(Ticker ticker) {
+        return ticker.getBidPrice() > 0 ? ticker.getBidPrice() : ticker.getLastPrice();
+    }
+
+    private String exchangeKey(String exchangeName) {
+        String key = exchangeKeys.get(exchangeName);
+        if (key == null) {
+            key = ConfigurationSnapshot.exchangeKey(exchangeName);
+            exchangeKeys.put(exchangeName, key);
+        }
+        return key;
+    }
+}
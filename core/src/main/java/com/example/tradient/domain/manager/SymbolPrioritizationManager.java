@@ -1,8 +1,7 @@
 package com.example.tradient.domain.manager;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.util.AppLog;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -0,0 +1,538 @@
+package com.example.tradient.domain.market;
+
+import com.example.tradient.api.ExchangeApiAdapter;
+import com.example.tradient.data.interfaces.HistoricalDataProvider;
+import com.example.tradient.data.model.Candle;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.slippage.OrderBookSnapshot;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
+import com.example.tradient.util.SymbolNormalizer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds OHLCV candles locally from the WebSocket ticker and trade streams.
+ * <p>
+ * Each (exchange, symbol) pair keeps 1m, 5m and 1h candles in fixed-size rings of
+ * primitive arrays, so memory is bounded no matter how long the app runs. The rings hold
+ * one candle per interval without holes: buckets the stream skipped are filled with a
+ * flat candle at the previous close, so the last N candles always span N intervals.
+ * Reads are served from memory; the exchange kline endpoint is only used in the
+ * background to backfill history the stream has not covered yet, including filled
+ * buckets, and callers never wait on it.
+ */
+public class CandleAggregator implements HistoricalDataProvider {
+    private static final String TAG = "CandleAggregator";
+
+    /**
+     * Candle intervals maintained by the aggregator.
+     */
+    public enum Interval {
+        ONE_MINUTE("1m", 60_000L, 24 * 60),    // 24 hours
+        FIVE_MINUTES("5m", 5 * 60_000L, 2 * 288), // 48 hours
+        ONE_HOUR("1h", 60 * 60_000L, 7 * 24);  // 7 days
+
+        private final String code;
+        private final long durationMs;
+        private final int capacity;
+
+        Interval(String code, long durationMs, int capacity) {
+            this.code = code;
+            this.durationMs = durationMs;
+            this.capacity = capacity;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Resolve an exchange style interval code such as "1m" or "1h".
+         *
+         * @return The interval, or null if it is not aggregated locally
+         */
+        public static Interval fromCode(String code) {
+            for (Interval interval : values()) {
+                if (interval.code.equalsIgnoreCase(code)) {
+                    return interval;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Interval[] INTERVALS = Interval.values();
+
+    private static final long ONE_HOUR_MS = 60 * 60_000L;
+
+    // Minimum time between two backfills of the same series and interval
+    private static final long BACKFILL_RETRY_MS = 60_000L;
+
+    private static CandleAggregator instance;
+
+    // exchange|symbol -> candle series
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    // exchange|symbol|interval keys with a REST backfill in flight
+    private final Set<String> pendingBackfills = ConcurrentHashMap.newKeySet();
+
+    // exchange|symbol|interval -> time the last backfill was started
+    private final Map<String, Long> lastBackfills = new ConcurrentHashMap<>();
+
+    /**
+     * Get the shared aggregator instance.
+     */
+    public static synchronized CandleAggregator getInstance() {
+        if (instance == null) {
+            instance = new CandleAggregator();
+        }
+        return instance;
+    }
+
+    /**
+     * Feed a ticker update. Tickers carry no per-tick volume, so candles built
+     * from them only track prices.
+     *
+     * @param exchangeName The exchange the ticker came from
+     * @param symbol The trading pair symbol
+     * @param ticker The ticker update
+     */
+    public void onTicker(String exchangeName, String symbol, Ticker ticker) {
+        if (ticker == null) {
+            return;
+        }
+
+        double price = ticker.getLastPrice();
+        if (price <= 0 && ticker.getBidPrice() > 0 && ticker.getAskPrice() > 0) {
+            price = (ticker.getBidPrice() + ticker.getAskPrice()) / 2.0;
+        }
+
+        long timestamp = ticker.getTimestamp() != null
+                ? ticker.getTimestamp().getTime()
+                : MarketClock.currentTimeMillis();
+
+        update(exchangeName, symbol != null ? symbol : ticker.getSymbol(), price, 0, timestamp);
+    }
+
+    /**
+     * Feed an executed trade.
+     *
+     * @param exchangeName The exchange the trade happened on
+     * @param symbol The trading pair symbol
+     * @param price The trade price
+     * @param quantity The traded base asset quantity
+     * @param timestamp The trade time in epoch milliseconds
+     */
+    public void onTrade(String exchangeName, String symbol, double price, double quantity, long timestamp) {
+        update(exchangeName, symbol, price, Math.max(0, quantity), timestamp);
+    }
+
+    private void update(String exchangeName, String symbol, double price, double volume, long timestamp) {
+        if (exchangeName == null || symbol == null || price <= 0 || Double.isNaN(price)) {
+            return;
+        }
+        series.computeIfAbsent(seriesKey(exchangeName, symbol), k -> new Series())
+                .update(price, volume, timestamp);
+    }
+
+    /**
+     * Get locally aggregated candles, oldest first.
+     *
+     * @param exchangeName The exchange name
+     * @param symbol The trading pair symbol
+     * @param interval The candle interval
+     * @param limit Maximum number of candles, counted back from the most recent one
+     * @return The candles, or an empty list if nothing has been aggregated yet
+     */
+    public List<Candle> getCandles(String exchangeName, String symbol, Interval interval, int limit) {
+        if (exchangeName == null || symbol == null || interval == null) {
+            return Collections.emptyList();
+        }
+        Series s = series.get(seriesKey(exchangeName, symbol));
+        return s != null ? s.rings[interval.ordinal()].toCandles(limit) : Collections.emptyList();
+    }
+
+    /**
+     * Drop-in replacement for {@link ExchangeApiAdapter#getHistoricalData} that answers
+     * from local candles. The returned future is always already complete. When fewer
+     * than {@code limit} candles are available, or some of them only fill a gap in the
+     * stream, a REST backfill is started in the background so later calls see the full
+     * window.
+     *
+     * @param adapter The exchange adapter used for backfilling, may be null
+     * @param symbol Trading pair in exchange format
+     * @param interval Candle interval code (e.g., "1h")
+     * @param limit Number of candles wanted
+     * @return A completed future with the candles available right now, oldest first
+     */
+    public CompletableFuture<List<Candle>> getHistoricalData(
+            ExchangeApiAdapter adapter, String symbol, String interval, int limit) {
+        Interval resolved = Interval.fromCode(interval);
+        if (adapter == null || resolved == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        String exchangeName = adapter.getExchangeName();
+        if (exchangeName == null || symbol == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        Series s = series.get(seriesKey(exchangeName, symbol));
+        CandleRing ring = s != null ? s.rings[resolved.ordinal()] : null;
+        List<Candle> candles = ring != null ? ring.toCandles(limit) : Collections.emptyList();
+        if (ring == null || candles.size() < limit || ring.filledCount(limit) > 0) {
+            backfill(adapter, symbol, resolved, limit);
+        }
+        return CompletableFuture.completedFuture(candles);
+    }
+
+    /**
+     * Fetch klines over REST and merge them into the local rings. At most one request
+     * per (exchange, symbol, interval) is in flight at a time, and requests for the same
+     * key are at least {@link #BACKFILL_RETRY_MS} apart, so a gap the exchange can't fill
+     * either is not requested on every read.
+     */
+    public void backfill(ExchangeApiAdapter adapter, String symbol, Interval interval, int limit) {
+        String exchangeName = adapter.getExchangeName();
+        String pendingKey = seriesKey(exchangeName, symbol) + "|" + interval.getCode();
+        long now = MarketClock.currentTimeMillis();
+        Long last = lastBackfills.get(pendingKey);
+        if (last != null && now - last < BACKFILL_RETRY_MS) {
+            return;
+        }
+        if (!pendingBackfills.add(pendingKey)) {
+            return;
+        }
+        lastBackfills.put(pendingKey, now);
+
+        CompletableFuture<List<Candle>> request;
+        try {
+            request = adapter.getHistoricalData(symbol, interval.getCode(), limit);
+        } catch (Exception e) {
+            pendingBackfills.remove(pendingKey);
+            AppLog.w(TAG, "Could not start backfill for " + pendingKey + ": " + e.getMessage());
+            return;
+        }
+
+        request.whenComplete((candles, error) -> {
+            pendingBackfills.remove(pendingKey);
+            if (error != null) {
+                AppLog.w(TAG, "Backfill failed for " + pendingKey + ": " + error.getMessage());
+                return;
+            }
+            if (candles != null && !candles.isEmpty()) {
+                series.computeIfAbsent(seriesKey(exchangeName, symbol), k -> new Series())
+                        .rings[interval.ordinal()].merge(candles);
+            }
+        });
+    }
+
+    /**
+     * Standard deviation of candle close-to-close log returns in the period, scaled
+     * to one hour so values from different candle intervals are comparable. Uses the
+     * exchange with the most history for the symbol.
+     */
+    @Override
+    public double getVolatility(String symbol, Instant startTime, Instant endTime) {
+        if (symbol == null || startTime == null || endTime == null) {
+            return 0.0;
+        }
+
+        long start = startTime.toEpochMilli();
+        long end = endTime.toEpochMilli();
+        long range = end - start;
+        if (range <= 0) {
+            return 0.0;
+        }
+
+        // Finest interval whose ring can cover the requested range
+        Interval interval = INTERVALS[INTERVALS.length - 1];
+        for (Interval candidate : INTERVALS) {
+            if (candidate.getDurationMs() * candidate.getCapacity() >= range) {
+                interval = candidate;
+                break;
+            }
+        }
+
+        String suffix = "|" + SymbolNormalizer.normalize(symbol);
+        double best = 0.0;
+        int bestCount = 0;
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            if (!entry.getKey().endsWith(suffix)) {
+                continue;
+            }
+            CandleRing ring = entry.getValue().rings[interval.ordinal()];
+            double[] result = ring.returnStats(start, end);
+            int count = (int) result[1];
+            if (count > bestCount) {
+                bestCount = count;
+                best = result[0];
+            }
+        }
+
+        if (bestCount < 2) {
+            return 0.0;
+        }
+        return best * Math.sqrt((double) ONE_HOUR_MS / interval.getDurationMs());
+    }
+
+    @Override
+    public double getAverageVolatility(String symbol, Duration duration) {
+        Instant now = Instant.ofEpochMilli(MarketClock.currentTimeMillis());
+        return getVolatility(symbol, now.minus(duration), now);
+    }
+
+    /**
+     * Order book history is not kept by the candle aggregator.
+     */
+    @Override
+    public List<OrderBookSnapshot> getOrderBookHistory(
+            String symbol, String exchange, Instant startTime, Instant endTime, int maxResults) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Observed slippage is not kept by the candle aggregator.
+     */
+    @Override
+    public double getAverageObservedSlippage(
+            String symbol, String exchange, double orderSize, Duration duration, boolean isBuy) {
+        return 0.0;
+    }
+
+    /**
+     * Drop all aggregated candles.
+     */
+    public void clear() {
+        series.clear();
+        lastBackfills.clear();
+    }
+
+    private static String seriesKey(String exchangeName, String symbol) {
+        return exchangeName.toLowerCase(Locale.ROOT) + "|" + SymbolNormalizer.normalize(symbol);
+    }
+
+    /**
+     * All candle rings for one (exchange, symbol) pair.
+     */
+    private static final class Series {
+        private final CandleRing[] rings = new CandleRing[INTERVALS.length];
+
+        private Series() {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                rings[i] = new CandleRing(INTERVALS[i]);
+            }
+        }
+
+        void update(double price, double volume, long timestamp) {
+            for (CandleRing ring : rings) {
+                ring.update(price, volume, timestamp);
+            }
+        }
+    }
+
+    /**
+     * Fixed-capacity ring of candles for one interval, stored column-wise in primitive arrays.
+     * Slots are kept in chronological order, one per interval with no holes; the newest
+     * candle is at {@code head - 1}.
+     */
+    private static final class CandleRing {
+        private final long intervalMs;
+        private final int capacity;
+
+        private final long[] openTime;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+        private final double[] volume;
+        // True for flat candles that only fill a bucket no tick arrived in
+        private final boolean[] filled;
+
+        private int head;
+        private int count;
+
+        CandleRing(Interval interval) {
+            this.intervalMs = interval.getDurationMs();
+            this.capacity = interval.getCapacity();
+            this.openTime = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new double[capacity];
+            this.filled = new boolean[capacity];
+        }
+
+        synchronized void update(double price, double qty, long timestamp) {
+            long bucket = timestamp - (timestamp % intervalMs);
+
+            if (count > 0) {
+                int newest = slot(count - 1);
+                if (bucket == openTime[newest]) {
+                    if (filled[newest]) {
+                        // A late tick for a filled bucket replaces the flat candle
+                        open[newest] = price;
+                        high[newest] = price;
+                        low[newest] = price;
+                        filled[newest] = false;
+                    }
+                    high[newest] = Math.max(high[newest], price);
+                    low[newest] = Math.min(low[newest], price);
+                    close[newest] = price;
+                    volume[newest] += qty;
+                    return;
+                }
+                if (bucket < openTime[newest]) {
+                    // Late tick for a candle that is already closed
+                    return;
+                }
+            }
+
+            fillTo(bucket);
+            append(bucket, price, price, price, price, qty, false);
+        }
+
+        /**
+         * Fill every bucket between the newest candle and {@code bucket} with a flat
+         * candle at the newest close. Gaps longer than the ring only fill its capacity.
+         */
+        private void fillTo(long bucket) {
+            if (count == 0) {
+                return;
+            }
+            int newest = slot(count - 1);
+            double lastClose = close[newest];
+            long time = Math.max(openTime[newest] + intervalMs, bucket - capacity * intervalMs);
+            for (; time < bucket; time += intervalMs) {
+                append(time, lastClose, lastClose, lastClose, lastClose, 0, true);
+            }
+        }
+
+        private void append(long time, double o, double h, double l, double c, double v, boolean isFill) {
+            openTime[head] = time;
+            open[head] = o;
+            high[head] = h;
+            low[head] = l;
+            close[head] = c;
+            volume[head] = v;
+            filled[head] = isFill;
+            head = (head + 1) % capacity;
+            if (count < capacity) {
+                count++;
+            }
+        }
+
+        /**
+         * Physical index of the i-th oldest candle.
+         */
+        private int slot(int i) {
+            return (head - count + i + capacity) % capacity;
+        }
+
+        synchronized List<Candle> toCandles(int limit) {
+            int n = limit > 0 ? Math.min(limit, count) : count;
+            List<Candle> result = new ArrayList<>(n);
+            for (int i = count - n; i < count; i++) {
+                int s = slot(i);
+                result.add(new Candle(openTime[s], openTime[s] + intervalMs - 1,
+                        open[s], high[s], low[s], close[s], volume[s]));
+            }
+            return result;
+        }
+
+        /**
+         * Number of filled buckets among the newest {@code limit} candles.
+         */
+        synchronized int filledCount(int limit) {
+            int n = limit > 0 ? Math.min(limit, count) : count;
+            int result = 0;
+            for (int i = count - n; i < count; i++) {
+                if (filled[slot(i)]) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Merge backfilled candles. Candles the stream has already built win over
+         * REST data for the same bucket, since they include the latest ticks; filled
+         * buckets only survive where REST has nothing either.
+         */
+        synchronized void merge(List<Candle> candles) {
+            TreeMap<Long, double[]> merged = new TreeMap<>();
+            for (Candle candle : candles) {
+                long time = candle.getOpenTime() - (candle.getOpenTime() % intervalMs);
+                merged.put(time, new double[] {
+                        candle.getOpen(), candle.getHigh(), candle.getLow(),
+                        candle.getClose(), candle.getVolume(), 0});
+            }
+            for (int i = 0; i < count; i++) {
+                int s = slot(i);
+                double[] values = {open[s], high[s], low[s], close[s], volume[s], filled[s] ? 1 : 0};
+                if (filled[s]) {
+                    merged.putIfAbsent(openTime[s], values);
+                } else {
+                    merged.put(openTime[s], values);
+                }
+            }
+
+            // Rebuild in time order; the ring keeps the newest candles that fit
+            head = 0;
+            count = 0;
+            for (Map.Entry<Long, double[]> entry : merged.entrySet()) {
+                double[] v = entry.getValue();
+                fillTo(entry.getKey());
+                append(entry.getKey(), v[0], v[1], v[2], v[3], v[4], v[5] != 0);
+            }
+        }
+
+        /**
+         * Standard deviation of close-to-close log returns for candles opening in
+         * [start, end]. Returns {stdDev, returnCount}.
+         */
+        synchronized double[] returnStats(long start, long end) {
+            int n = 0;
+            double mean = 0;
+            double m2 = 0;
+            double previousClose = 0;
+
+            for (int i = 0; i < count; i++) {
+                int s = slot(i);
+                if (openTime[s] < start || openTime[s] > end) {
+                    continue;
+                }
+                if (previousClose > 0 && close[s] > 0) {
+                    double r = Math.log(close[s] / previousClose);
+                    n++;
+                    double delta = r - mean;
+                    mean += delta / n;
+                    m2 += delta * (r - mean);
+                }
+                previousClose = close[s];
+            }
+
+            double stdDev = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0.0;
+            return new double[] {stdDev, n};
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.example.tradient.domain.market;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consolidated view of one normalized trading pair across several exchanges.
+ * <p>
+ * Each venue keeps a copy of the levels of the exchange's latest {@link OrderBook}, taken
+ * when the book is handed in: some providers change their book lists in place, so routing
+ * must never read them directly. Nothing is copied or re-sorted when a quote is requested.
+ * Routing queries walk the per-exchange levels with a k-way heap merge ordered by
+ * fee-adjusted price, so the cost of a query is proportional to the number of levels
+ * actually consumed, not the size of the books.
+ * <p>
+ * Bids are expected in descending and asks in ascending price order, which is the same
+ * contract {@link OrderBook#getBestBid()} and {@link OrderBook#getBestAsk()} rely on.
+ */
+public class ConsolidatedOrderBook {
+
+    private final String symbol;
+
+    // Registered venues. Replaced wholesale on add/remove so readers never need a lock.
+    private volatile Venue[] venues = new Venue[0];
+
+    /**
+     * Create an empty consolidated book.
+     *
+     * @param symbol The normalized trading pair symbol (e.g., "BTC/USDT")
+     */
+    public ConsolidatedOrderBook(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Register or refresh the order book of one exchange. The levels are copied, so call
+     * this on the thread that updates the book, right after each update.
+     *
+     * @param exchangeName The exchange name
+     * @param orderBook The latest order book for this symbol on that exchange
+     * @param takerFee The taker fee as a decimal (e.g., 0.001 for 0.1%)
+     */
+    public void updateVenue(String exchangeName, OrderBook orderBook, double takerFee) {
+        if (exchangeName == null) {
+            return;
+        }
+
+        Venue venue = findVenue(exchangeName);
+        if (venue == null) {
+            synchronized (this) {
+                venue = findVenue(exchangeName);
+                if (venue == null) {
+                    venue = new Venue(exchangeName);
+                    Venue[] current = venues;
+                    Venue[] updated = new Venue[current.length + 1];
+                    System.arraycopy(current, 0, updated, 0, current.length);
+                    updated[current.length] = venue;
+                    venue.update(orderBook, takerFee);
+                    venues = updated;
+                    return;
+                }
+            }
+        }
+
+        venue.update(orderBook, takerFee);
+    }
+
+    /**
+     * Remove an exchange from the consolidated view.
+     *
+     * @param exchangeName The exchange name
+     */
+    public synchronized void removeVenue(String exchangeName) {
+        Venue[] current = venues;
+        List<Venue> remaining = new ArrayList<>(current.length);
+        for (Venue venue : current) {
+            if (!venue.exchangeName.equalsIgnoreCase(exchangeName)) {
+                remaining.add(venue);
+            }
+        }
+        venues = remaining.toArray(new Venue[0]);
+    }
+
+    /**
+     * Get the names of all exchanges currently contributing to this book.
+     */
+    public List<String> getExchangeNames() {
+        Venue[] current = venues;
+        List<String> names = new ArrayList<>(current.length);
+        for (Venue venue : current) {
+            names.add(venue.exchangeName);
+        }
+        return names;
+    }
+
+    /**
+     * Best ask across all venues after the taker fee has been added.
+     *
+     * @return The lowest fee-adjusted ask, or 0 if no venue has asks
+     */
+    public double getBestEffectiveAsk() {
+        double best = Double.MAX_VALUE;
+        for (Venue venue : venues) {
+            Levels asks = venue.asks;
+            if (asks.size() > 0) {
+                best = Math.min(best, asks.prices[0] * (1 + venue.takerFee));
+            }
+        }
+        return best == Double.MAX_VALUE ? 0 : best;
+    }
+
+    /**
+     * Best bid across all venues after the taker fee has been deducted.
+     *
+     * @return The highest fee-adjusted bid, or 0 if no venue has bids
+     */
+    public double getBestEffectiveBid() {
+        double best = 0;
+        for (Venue venue : venues) {
+            Levels bids = venue.bids;
+            if (bids.size() > 0) {
+                best = Math.max(best, bids.prices[0] * (1 - venue.takerFee));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Find the cheapest way to buy a quantity of the base asset across all venues.
+     *
+     * @param quantity The amount of base asset to buy
+     * @return The routing quote with the split per exchange
+     */
+    public RoutingQuote quoteBuy(double quantity) {
+        return route(quantity, true);
+    }
+
+    /**
+     * Find the best way to sell a quantity of the base asset across all venues.
+     *
+     * @param quantity The amount of base asset to sell
+     * @return The routing quote with the split per exchange
+     */
+    public RoutingQuote quoteSell(double quantity) {
+        return route(quantity, false);
+    }
+
+    /**
+     * K-way merge over the per-venue levels. The heap holds at most one cursor per venue,
+     * keyed by the fee-adjusted price of that venue's next unconsumed level.
+     */
+    private RoutingQuote route(double quantity, boolean isBuy) {
+        Venue[] snapshot = venues;
+        int venueCount = snapshot.length;
+
+        if (quantity <= 0 || venueCount == 0) {
+            return new RoutingQuote(symbol, isBuy, quantity, Collections.emptyList());
+        }
+
+        // Capture the levels once so a concurrent update can't swap them mid-walk
+        Levels[] levels = new Levels[venueCount];
+        double[] fees = new double[venueCount];
+        int[] cursor = new int[venueCount];
+        double[] filled = new double[venueCount];
+        double[] notional = new double[venueCount];
+        int[] levelsUsed = new int[venueCount];
+
+        // Heap of venue indices; keys are signed so the heap is always a min-heap
+        int[] heap = new int[venueCount];
+        double[] keys = new double[venueCount];
+        int heapSize = 0;
+
+        for (int i = 0; i < venueCount; i++) {
+            Venue venue = snapshot[i];
+            levels[i] = isBuy ? venue.asks : venue.bids;
+            fees[i] = venue.takerFee;
+            if (levels[i].size() > 0) {
+                keys[i] = effectiveKey(levels[i].prices[0], fees[i], isBuy);
+                heapSize = heapPush(heap, keys, heapSize, i);
+            }
+        }
+
+        double remaining = quantity;
+        while (remaining > 0 && heapSize > 0) {
+            int v = heap[0];
+            Levels venueLevels = levels[v];
+            double price = venueLevels.prices[cursor[v]];
+            double take = Math.min(remaining, venueLevels.quantities[cursor[v]]);
+
+            if (take > 0 && price > 0) {
+                filled[v] += take;
+                notional[v] += take * price;
+                remaining -= take;
+                levelsUsed[v]++;
+            }
+
+            cursor[v]++;
+            if (cursor[v] < venueLevels.size()) {
+                keys[v] = effectiveKey(venueLevels.prices[cursor[v]], fees[v], isBuy);
+                heapSiftDown(heap, keys, heapSize, 0);
+            } else {
+                heap[0] = heap[--heapSize];
+                heapSiftDown(heap, keys, heapSize, 0);
+            }
+        }
+
+        List<VenueAllocation> allocations = new ArrayList<>();
+        for (int i = 0; i < venueCount; i++) {
+            if (filled[i] > 0) {
+                allocations.add(new VenueAllocation(
+                        snapshot[i].exchangeName,
+                        filled[i],
+                        notional[i],
+                        notional[i] * fees[i],
+                        levelsUsed[i]));
+            }
+        }
+
+        return new RoutingQuote(symbol, isBuy, quantity, allocations);
+    }
+
+    private static double effectiveKey(double price, double fee, boolean isBuy) {
+        // Buying: lowest all-in cost first. Selling: highest net proceeds first.
+        return isBuy ? price * (1 + fee) : -price * (1 - fee);
+    }
+
+    private static int heapPush(int[] heap, double[] keys, int size, int venue) {
+        int i = size;
+        heap[i] = venue;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[heap[parent]] <= keys[heap[i]]) {
+                break;
+            }
+            swap(heap, parent, i);
+            i = parent;
+        }
+        return size + 1;
+    }
+
+    private static void heapSiftDown(int[] heap, double[] keys, int size, int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && keys[heap[right]] < keys[heap[left]]) {
+                smallest = right;
+            }
+            if (keys[heap[i]] <= keys[heap[smallest]]) {
+                return;
+            }
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private Venue findVenue(String exchangeName) {
+        for (Venue venue : venues) {
+            if (venue.exchangeName.equalsIgnoreCase(exchangeName)) {
+                return venue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One exchange's contribution to the consolidated book.
+     */
+    private static final class Venue {
+        private final String exchangeName;
+        private volatile Levels bids = Levels.EMPTY;
+        private volatile Levels asks = Levels.EMPTY;
+        private volatile double takerFee;
+
+        private Venue(String exchangeName) {
+            this.exchangeName = exchangeName;
+        }
+
+        private void update(OrderBook orderBook, double fee) {
+            takerFee = Math.max(0, fee);
+            if (orderBook == null) {
+                bids = Levels.EMPTY;
+                asks = Levels.EMPTY;
+            } else {
+                bids = Levels.of(orderBook.getBids());
+                asks = Levels.of(orderBook.getAsks());
+            }
+        }
+    }
+
+    /**
+     * Immutable copy of one side of a venue's book.
+     */
+    private static final class Levels {
+        private static final Levels EMPTY = new Levels(new double[0], new double[0], 0);
+
+        private final double[] prices;
+        private final double[] quantities;
+        private final int size;
+
+        private Levels(double[] prices, double[] quantities, int size) {
+            this.prices = prices;
+            this.quantities = quantities;
+            this.size = size;
+        }
+
+        private static Levels of(List<OrderBookEntry> entries) {
+            if (entries == null || entries.isEmpty()) {
+                return EMPTY;
+            }
+            // toArray copies in one step, so a list changed by another thread can't throw mid-copy
+            OrderBookEntry[] copy = entries.toArray(new OrderBookEntry[0]);
+            double[] prices = new double[copy.length];
+            double[] quantities = new double[copy.length];
+            int size = 0;
+            for (OrderBookEntry entry : copy) {
+                if (entry != null) {
+                    prices[size] = entry.getPrice();
+                    quantities[size] = entry.getQuantity();
+                    size++;
+                }
+            }
+            return new Levels(prices, quantities, size);
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The portion of a routed order assigned to a single exchange.
+     */
+    public static class VenueAllocation {
+        private final String exchangeName;
+        private final double quantity;
+        private final double notional;
+        private final double fee;
+        private final int levelsConsumed;
+
+        public VenueAllocation(String exchangeName, double quantity, double notional,
+                               double fee, int levelsConsumed) {
+            this.exchangeName = exchangeName;
+            this.quantity = quantity;
+            this.notional = notional;
+            this.fee = fee;
+            this.levelsConsumed = levelsConsumed;
+        }
+
+        public String getExchangeName() {
+            return exchangeName;
+        }
+
+        public double getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * Value of the fill in quote currency before fees.
+         */
+        public double getNotional() {
+            return notional;
+        }
+
+        public double getFee() {
+            return fee;
+        }
+
+        public int getLevelsConsumed() {
+            return levelsConsumed;
+        }
+
+        public double getAveragePrice() {
+            return quantity > 0 ? notional / quantity : 0;
+        }
+    }
+
+    /**
+     * Result of routing an order across all venues of a consolidated book.
+     */
+    public static class RoutingQuote {
+        private final String symbol;
+        private final boolean buy;
+        private final double requestedQuantity;
+        private final double filledQuantity;
+        private final double totalNotional;
+        private final double totalFees;
+        private final List<VenueAllocation> allocations;
+
+        public RoutingQuote(String symbol, boolean buy, double requestedQuantity,
+                            List<VenueAllocation> allocations) {
+            this.symbol = symbol;
+            this.buy = buy;
+            this.requestedQuantity = requestedQuantity;
+            this.allocations = Collections.unmodifiableList(allocations);
+
+            double quantity = 0;
+            double notional = 0;
+            double fees = 0;
+            for (VenueAllocation allocation : allocations) {
+                quantity += allocation.getQuantity();
+                notional += allocation.getNotional();
+                fees += allocation.getFee();
+            }
+            this.filledQuantity = quantity;
+            this.totalNotional = notional;
+            this.totalFees = fees;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public boolean isBuy() {
+            return buy;
+        }
+
+        public double getRequestedQuantity() {
+            return requestedQuantity;
+        }
+
+        public double getFilledQuantity() {
+            return filledQuantity;
+        }
+
+        public boolean isFullyFilled() {
+            return requestedQuantity > 0 && filledQuantity >= requestedQuantity * (1 - 1e-9);
+        }
+
+        public double getTotalNotional() {
+            return totalNotional;
+        }
+
+        public double getTotalFees() {
+            return totalFees;
+        }
+
+        /**
+         * All-in amount: cost including fees for a buy, proceeds net of fees for a sell.
+         */
+        public double getNetAmount() {
+            return buy ? totalNotional + totalFees : totalNotional - totalFees;
+        }
+
+        /**
+         * Average price per unit including fees.
+         */
+        public double getEffectivePrice() {
+            return filledQuantity > 0 ? getNetAmount() / filledQuantity : 0;
+        }
+
+        public List<VenueAllocation> getAllocations() {
+            return allocations;
+        }
+    }
+}
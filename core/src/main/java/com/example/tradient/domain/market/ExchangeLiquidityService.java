@@ -1,14 +1,18 @@
 package com.example.tradient.domain.market;
 
-import android.util.Log;
-import android.util.Pair;
-
+import com.example.tradient.data.interfaces.IWebSocketProvider;
+import com.example.tradient.data.interfaces.IWebSocketUpdateListener;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.SlippageCurve;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.service.ExchangeService;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
+import com.example.tradient.util.SymbolNormalizer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +35,12 @@ public class ExchangeLiquidityService {
     // Cache expiry time (1 minute)
     private static final long CACHE_EXPIRY_MS = 60 * 1000;
     
+    // Order sizes (in quote currency) the precomputed slippage maps are sampled at
+    private static final double[] SLIPPAGE_ORDER_SIZES = {1000, 5000, 10000, 50000, 100000, 500000};
+    
+    // Consolidated multi-exchange books (normalized symbol -> book)
+    private final Map<String, ConsolidatedOrderBook> consolidatedBooks = new ConcurrentHashMap<>();
+    
     /**
      * Calculate comprehensive liquidity metrics using order book data from an exchange.
      * 
@@ -53,7 +63,7 @@ public class ExchangeLiquidityService {
             
             if (orderBook == null || orderBook.getBids() == null || orderBook.getBids().isEmpty() ||
                 orderBook.getAsks() == null || orderBook.getAsks().isEmpty()) {
-                Log.e(TAG, "Failed to get valid order book for " + symbol);
+                AppLog.e(TAG, "Failed to get valid order book for " + symbol);
                 
                 // Create fallback metrics with reasonable defaults based on symbol
                 LiquidityMetrics fallbackMetrics = createFallbackMetrics(symbol, exchangeService.getExchangeName());
@@ -61,7 +71,7 @@ public class ExchangeLiquidityService {
                 // Only cache valid fallbacks and mark them with a shorter expiry time
                 if (fallbackMetrics.getAvailableLiquidity() > 0) {
                     metricsCache.put(cacheKey, fallbackMetrics);
-                    lastUpdateTimestamps.put(cacheKey, System.currentTimeMillis() - (CACHE_EXPIRY_MS / 2)); // Expire twice as fast
+                    lastUpdateTimestamps.put(cacheKey, MarketClock.currentTimeMillis() - (CACHE_EXPIRY_MS / 2)); // Expire twice as fast
                 }
                 
                 return fallbackMetrics;
@@ -73,16 +83,16 @@ public class ExchangeLiquidityService {
             // Cache the results only if we have valid liquidity values
             if (metrics.getAvailableLiquidity() > 0) {
                 metricsCache.put(cacheKey, metrics);
-                lastUpdateTimestamps.put(cacheKey, System.currentTimeMillis());
+                lastUpdateTimestamps.put(cacheKey, MarketClock.currentTimeMillis());
                 return metrics;
             } else {
                 // Create fallback metrics with reasonable defaults
-                Log.w(TAG, "Exchange returned empty liquidity for " + symbol + ", using fallback values");
+                AppLog.w(TAG, "Exchange returned empty liquidity for " + symbol + ", using fallback values");
                 LiquidityMetrics fallbackMetrics = createFallbackMetrics(symbol, exchangeService.getExchangeName());
                 return fallbackMetrics;
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating liquidity: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating liquidity: " + e.getMessage());
             // Create fallback metrics with reasonable defaults
             return createFallbackMetrics(symbol, exchangeService.getExchangeName());
         }
@@ -108,7 +118,7 @@ public class ExchangeLiquidityService {
             
             // Validate metrics - if either is invalid, create consistent fallbacks
             if (buyMetrics.getAvailableLiquidity() <= 0 || sellMetrics.getAvailableLiquidity() <= 0) {
-                Log.w(TAG, "Invalid liquidity metrics for arbitrage, creating consistent fallbacks");
+                AppLog.w(TAG, "Invalid liquidity metrics for arbitrage, creating consistent fallbacks");
                 
                 // If only one side is invalid, recreate both for consistency
                 buyMetrics = createFallbackMetrics(symbol, buyExchangeService.getExchangeName());
@@ -155,7 +165,7 @@ public class ExchangeLiquidityService {
                     slippageMap,
                     optimalSize);
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating arbitrage liquidity: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error calculating arbitrage liquidity: " + e.getMessage(), e);
             
             // Create fallback metrics
             LiquidityMetrics buyMetrics = createFallbackMetrics(symbol, buyExchangeService.getExchangeName());
@@ -198,6 +208,107 @@ public class ExchangeLiquidityService {
         }
     }
     
+    /**
+     * Get the consolidated multi-exchange book for a normalized symbol, creating it if needed.
+     * Fed from streamed order books by {@link #feedConsolidatedBooks(ExchangeService)}, or
+     * from the cached ones by {@link #consolidateOrderBooks(String, Map)}.
+     *
+     * @param normalizedSymbol The normalized trading pair symbol (e.g., "BTC/USDT")
+     * @return The consolidated order book
+     */
+    public ConsolidatedOrderBook getConsolidatedOrderBook(String normalizedSymbol) {
+        return consolidatedBooks.computeIfAbsent(normalizedSymbol, ConsolidatedOrderBook::new);
+    }
+    
+    /**
+     * Feed every order book streamed by an exchange into the consolidated book of its
+     * symbol. The venue is updated on the WebSocket thread right after the update has been
+     * applied, so the levels copied are always a consistent book. Call before
+     * {@link ExchangeService#initializeWebSocket(List)}.
+     *
+     * @param exchangeService The exchange whose streamed order books to consolidate
+     */
+    public void feedConsolidatedBooks(ExchangeService exchangeService) {
+        exchangeService.addWebSocketListener(new IWebSocketUpdateListener() {
+            @Override
+            public void onTickerUpdate(String symbol, Ticker ticker) {
+            }
+
+            @Override
+            public void onOrderBookUpdate(String symbol, OrderBook orderBook) {
+                if (symbol == null || orderBook == null) {
+                    return;
+                }
+                double takerFee = exchangeService.getFeePercentage(symbol, false);
+                getConsolidatedOrderBook(SymbolNormalizer.normalize(symbol))
+                        .updateVenue(exchangeService.getExchangeName(), orderBook, takerFee);
+            }
+
+            @Override
+            public void onWebSocketConnected(IWebSocketProvider provider) {
+            }
+
+            @Override
+            public void onWebSocketDisconnected(IWebSocketProvider provider, int code, String reason) {
+            }
+
+            @Override
+            public void onWebSocketError(IWebSocketProvider provider, Throwable error) {
+            }
+        });
+    }
+    
+    /**
+     * Refresh the consolidated book for a symbol from the exchanges' cached order books.
+     * 
+     * @param normalizedSymbol The normalized trading pair symbol
+     * @param exchangeSymbols Map of exchange service to that exchange's symbol for the pair
+     * @return The refreshed consolidated order book
+     */
+    public ConsolidatedOrderBook consolidateOrderBooks(String normalizedSymbol,
+                                                       Map<ExchangeService, String> exchangeSymbols) {
+        ConsolidatedOrderBook consolidated = getConsolidatedOrderBook(normalizedSymbol);
+        
+        for (Map.Entry<ExchangeService, String> entry : exchangeSymbols.entrySet()) {
+            ExchangeService exchangeService = entry.getKey();
+            try {
+                OrderBook orderBook = exchangeService.getOrderBook(entry.getValue());
+                if (orderBook == null) {
+                    continue;
+                }
+                double takerFee = exchangeService.getFeePercentage(entry.getValue(), false);
+                consolidated.updateVenue(exchangeService.getExchangeName(), orderBook, takerFee);
+            } catch (Exception e) {
+                AppLog.e(TAG, "Error consolidating order book from " + exchangeService.getExchangeName() 
+                        + ": " + e.getMessage());
+            }
+        }
+        
+        return consolidated;
+    }
+    
+    /**
+     * Quote the cheapest way to buy a quantity across all venues of a consolidated book.
+     * 
+     * @param normalizedSymbol The normalized trading pair symbol
+     * @param quantity The amount of base asset to buy
+     * @return The routing quote split per exchange
+     */
+    public ConsolidatedOrderBook.RoutingQuote quoteConsolidatedBuy(String normalizedSymbol, double quantity) {
+        return getConsolidatedOrderBook(normalizedSymbol).quoteBuy(quantity);
+    }
+    
+    /**
+     * Quote the best way to sell a quantity across all venues of a consolidated book.
+     * 
+     * @param normalizedSymbol The normalized trading pair symbol
+     * @param quantity The amount of base asset to sell
+     * @return The routing quote split per exchange
+     */
+    public ConsolidatedOrderBook.RoutingQuote quoteConsolidatedSell(String normalizedSymbol, double quantity) {
+        return getConsolidatedOrderBook(normalizedSymbol).quoteSell(quantity);
+    }
+    
     /**
      * Internal method to calculate all liquidity metrics from order book data.
      */
@@ -252,7 +363,7 @@ public class ExchangeLiquidityService {
                 sellSlippage,
                 volume24h,
                 orderBookSnapshot,
-                System.currentTimeMillis());
+                MarketClock.currentTimeMillis());
     }
     
     /**
@@ -349,19 +460,16 @@ public class ExchangeLiquidityService {
     private Map<Double, Double> calculateSlippageMap(OrderBook orderBook, boolean isBuy) {
         Map<Double, Double> slippageMap = new HashMap<>();
         
-        List<OrderBookEntry> orders = isBuy ? orderBook.getAsks() : orderBook.getBids();
+        SlippageCurve curve = orderBook.getSlippageCurve(isBuy);
         double basePrice = isBuy ? findLowestAsk(orderBook) : findHighestBid(orderBook);
         
-        if (basePrice <= 0 || orders == null || orders.isEmpty()) {
+        if (basePrice <= 0 || curve.isEmpty()) {
             return slippageMap;
         }
         
         // Calculate slippage at various order sizes
-        double[] orderSizes = {1000, 5000, 10000, 50000, 100000, 500000};
-        
-        for (double size : orderSizes) {
-            double slippage = calculateSlippageForSize(orders, size, basePrice);
-            slippageMap.put(size, slippage);
+        for (double size : SLIPPAGE_ORDER_SIZES) {
+            slippageMap.put(size, calculateSlippageForSize(curve, size, basePrice));
         }
         
         return slippageMap;
@@ -370,46 +478,18 @@ public class ExchangeLiquidityService {
     /**
      * Calculate slippage for a specific order size.
      * 
-     * @param orders List of order book entries
-     * @param orderSize Order size in base currency
+     * @param curve Cumulative curve of the side being consumed
+     * @param orderSize Order size in quote currency
      * @param basePrice Base price to compare against
      * @return Slippage as a percentage
      */
-    private double calculateSlippageForSize(List<OrderBookEntry> orders, double orderSize, double basePrice) {
-        double totalVolume = 0.0;
-        double totalCost = 0.0;
-        
-        for (OrderBookEntry entry : orders) {
-            double price = entry.getPrice();
-            double volume = entry.getVolume();
-            double orderValue = price * volume; // Value in base currency
-            
-            if (totalCost + orderValue >= orderSize) {
-                // We need a partial fill from this level
-                double remainingValue = orderSize - totalCost;
-                double partialVolume = remainingValue / price;
-                
-                totalVolume += partialVolume;
-                totalCost += remainingValue;
-                break;
-            } else {
-                // Take the full amount from this level
-                totalVolume += volume;
-                totalCost += orderValue;
-            }
-            
-            if (totalCost >= orderSize) {
-                break;
-            }
-        }
-        
+    private static double calculateSlippageForSize(SlippageCurve curve, double orderSize, double basePrice) {
         // Check if we couldn't fill the entire order
-        if (totalCost < orderSize) {
+        if (curve.isEmpty() || curve.getTotalNotional() < orderSize) {
             return 1.0; // 100% slippage as a signal of insufficient liquidity
         }
         
-        double averagePrice = totalCost / totalVolume;
-        return Math.abs(averagePrice - basePrice) / basePrice;
+        return curve.slippageForNotional(orderSize, basePrice);
     }
     
     /**
@@ -419,15 +499,13 @@ public class ExchangeLiquidityService {
             OrderBookSnapshot buyBook, OrderBookSnapshot sellBook) {
         
         Map<Double, Double> slippageMap = new HashMap<>();
+        SlippageCurve askCurve = buyBook.getAskCurve();
+        SlippageCurve bidCurve = sellBook.getBidCurve();
         
         // Calculate slippage at various order sizes
-        double[] orderSizes = {1000, 5000, 10000, 50000, 100000, 500000};
-        
-        for (double size : orderSizes) {
-            double buySlippage = calculateArbitrageSlippageForSize(
-                    buyBook.getAsks(), size, buyBook.getBestAsk(), true);
-            double sellSlippage = calculateArbitrageSlippageForSize(
-                    sellBook.getBids(), size, sellBook.getBestBid(), false);
+        for (double size : SLIPPAGE_ORDER_SIZES) {
+            double buySlippage = calculateSlippageForSize(askCurve, size, buyBook.getBestAsk());
+            double sellSlippage = calculateSlippageForSize(bidCurve, size, sellBook.getBestBid());
             
             // Combined slippage effect on arbitrage
             slippageMap.put(size, buySlippage + sellSlippage);
@@ -436,58 +514,6 @@ public class ExchangeLiquidityService {
         return slippageMap;
     }
     
-    /**
-     * Calculate arbitrage slippage for a specific order size.
-     */
-    private double calculateArbitrageSlippageForSize(
-            Map<Double, Double> orders, double orderSize, double basePrice, boolean isBuy) {
-        
-        double totalVolume = 0.0;
-        double totalCost = 0.0;
-        
-        // Sort the map by price
-        List<Map.Entry<Double, Double>> sortedOrders = new ArrayList<>(orders.entrySet());
-        if (isBuy) {
-            // For buys, sort asks by price ascending
-            sortedOrders.sort(Map.Entry.comparingByKey());
-        } else {
-            // For sells, sort bids by price descending
-            sortedOrders.sort((a, b) -> b.getKey().compareTo(a.getKey()));
-        }
-        
-        for (Map.Entry<Double, Double> entry : sortedOrders) {
-            double price = entry.getKey();
-            double volume = entry.getValue();
-            double orderValue = price * volume; // Value in base currency
-            
-            if (totalCost + orderValue >= orderSize) {
-                // We need a partial fill from this level
-                double remainingValue = orderSize - totalCost;
-                double partialVolume = remainingValue / price;
-                
-                totalVolume += partialVolume;
-                totalCost += remainingValue;
-                break;
-            } else {
-                // Take the full amount from this level
-                totalVolume += volume;
-                totalCost += orderValue;
-            }
-            
-            if (totalCost >= orderSize) {
-                break;
-            }
-        }
-        
-        // Check if we couldn't fill the entire order
-        if (totalCost < orderSize) {
-            return 1.0; // 100% slippage as a signal of insufficient liquidity
-        }
-        
-        double averagePrice = totalCost / totalVolume;
-        return Math.abs(averagePrice - basePrice) / basePrice;
-    }
-    
     /**
      * Calculate optimal trade size for an arbitrage opportunity.
      */
@@ -503,11 +529,12 @@ public class ExchangeLiquidityService {
         
         double optimalSize = 0.0;
         
+        SlippageCurve askCurve = buyBook.getAskCurve();
+        SlippageCurve bidCurve = sellBook.getBidCurve();
+        
         for (double size : tradeSizes) {
-            double buySlippage = calculateArbitrageSlippageForSize(
-                    buyBook.getAsks(), size, buyBook.getBestAsk(), true);
-            double sellSlippage = calculateArbitrageSlippageForSize(
-                    sellBook.getBids(), size, sellBook.getBestBid(), false);
+            double buySlippage = calculateSlippageForSize(askCurve, size, buyBook.getBestAsk());
+            double sellSlippage = calculateSlippageForSize(bidCurve, size, sellBook.getBestBid());
             
             // Total slippage cost as percentage
             double totalSlippage = buySlippage + sellSlippage;
@@ -537,7 +564,7 @@ public class ExchangeLiquidityService {
         }
         
         long lastUpdate = lastUpdateTimestamps.get(cacheKey);
-        long currentTime = System.currentTimeMillis();
+        long currentTime = MarketClock.currentTimeMillis();
         
         return (currentTime - lastUpdate) < CACHE_EXPIRY_MS;
     }
@@ -549,7 +576,7 @@ public class ExchangeLiquidityService {
         if (symbol == null) {
             metricsCache.clear();
             lastUpdateTimestamps.clear();
-            Log.d(TAG, "Cleared all liquidity cache");
+            AppLog.d(TAG, "Cleared all liquidity cache");
         } else {
             // Clear for all exchanges for this symbol
             List<String> keysToRemove = new ArrayList<>();
@@ -564,7 +591,7 @@ public class ExchangeLiquidityService {
                 lastUpdateTimestamps.remove(key);
             }
             
-            Log.d(TAG, "Cleared liquidity cache for symbol: " + symbol);
+            AppLog.d(TAG, "Cleared liquidity cache for symbol: " + symbol);
         }
     }
     
@@ -576,6 +603,8 @@ public class ExchangeLiquidityService {
         private final Map<Double, Double> asks;
         private final double bestBid;
         private final double bestAsk;
+        private final SlippageCurve bidCurve;
+        private final SlippageCurve askCurve;
         
         public OrderBookSnapshot(Map<Double, Double> bids, Map<Double, Double> asks, 
                                 double bestBid, double bestAsk) {
@@ -583,6 +612,44 @@ public class ExchangeLiquidityService {
             this.asks = asks;
             this.bestBid = bestBid;
             this.bestAsk = bestAsk;
+            this.bidCurve = buildCurve(bids, false);
+            this.askCurve = buildCurve(asks, true);
+        }
+        
+        /**
+         * Build the cumulative curve of one side once, asks ascending and bids descending.
+         */
+        private static SlippageCurve buildCurve(Map<Double, Double> levels, boolean ascending) {
+            if (levels == null || levels.isEmpty()) {
+                return SlippageCurve.of(new double[0], new double[0]);
+            }
+            double[] prices = new double[levels.size()];
+            int i = 0;
+            for (Double price : levels.keySet()) {
+                prices[i++] = price != null ? price : 0;
+            }
+            Arrays.sort(prices);
+            if (!ascending) {
+                for (int lo = 0, hi = prices.length - 1; lo < hi; lo++, hi--) {
+                    double tmp = prices[lo];
+                    prices[lo] = prices[hi];
+                    prices[hi] = tmp;
+                }
+            }
+            double[] quantities = new double[prices.length];
+            for (int j = 0; j < prices.length; j++) {
+                Double quantity = levels.get(prices[j]);
+                quantities[j] = quantity != null ? quantity : 0;
+            }
+            return SlippageCurve.of(prices, quantities);
+        }
+        
+        public SlippageCurve getBidCurve() {
+            return bidCurve;
+        }
+        
+        public SlippageCurve getAskCurve() {
+            return askCurve;
         }
         
         public Map<Double, Double> getBids() {
@@ -634,7 +701,7 @@ public class ExchangeLiquidityService {
             this.sellSlippage = new HashMap<>();
             this.volume24h = 0;
             this.orderBookSnapshot = null;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = MarketClock.currentTimeMillis();
         }
         
         public LiquidityMetrics(double bestBid, double bestAsk, double spread, 
@@ -721,6 +788,15 @@ public class ExchangeLiquidityService {
          * @return Expected slippage percentage
          */
         public double getSlippageForSize(double orderSize, boolean isBuy) {
+            // Answer any size exactly from the snapshot's cumulative curve when we have one
+            if (orderBookSnapshot != null) {
+                SlippageCurve curve = isBuy ? orderBookSnapshot.getAskCurve() : orderBookSnapshot.getBidCurve();
+                double basePrice = isBuy ? orderBookSnapshot.getBestAsk() : orderBookSnapshot.getBestBid();
+                if (!curve.isEmpty() && basePrice > 0) {
+                    return calculateSlippageForSize(curve, orderSize, basePrice);
+                }
+            }
+            
             Map<Double, Double> slippageMap = isBuy ? buySlippage : sellSlippage;
             
             // Find the closest size in our pre-calculated map
@@ -808,6 +884,14 @@ public class ExchangeLiquidityService {
          * @return Expected total slippage percentage
          */
         public double getSlippageForSize(double orderSize) {
+            // Both books' curves give the exact combined slippage for any size
+            if (buyExchangeMetrics != null && sellExchangeMetrics != null
+                    && buyExchangeMetrics.getOrderBookSnapshot() != null
+                    && sellExchangeMetrics.getOrderBookSnapshot() != null) {
+                return buyExchangeMetrics.getSlippageForSize(orderSize, true)
+                        + sellExchangeMetrics.getSlippageForSize(orderSize, false);
+            }
+            
             // Find the closest size in our pre-calculated map
             double closestSize = 0;
             double minDiff = Double.MAX_VALUE;
@@ -888,7 +972,7 @@ public class ExchangeLiquidityService {
      * Uses reasonable defaults based on the trading pair symbol.
      */
     private LiquidityMetrics createFallbackMetrics(String symbol, String exchangeName) {
-        Log.d(TAG, "Creating fallback liquidity metrics for " + symbol + " on " + exchangeName);
+        AppLog.d(TAG, "Creating fallback liquidity metrics for " + symbol + " on " + exchangeName);
         
         // Default values based on asset
         double bidPrice = 0;
@@ -945,7 +1029,7 @@ public class ExchangeLiquidityService {
         }
         
         // Add extra info to logs
-        Log.d(TAG, "Fallback metrics for " + symbol + ": liquidity=" + availableLiquidity);
+        AppLog.d(TAG, "Fallback metrics for " + symbol + ": liquidity=" + availableLiquidity);
         
         // Calculate spread metrics
         double spread = askPrice - bidPrice;
@@ -1015,7 +1099,7 @@ public class ExchangeLiquidityService {
                 sellSlippage,
                 volume24h,
                 simulatedSnapshot,
-                System.currentTimeMillis());
+                MarketClock.currentTimeMillis());
     }
     
     /**
@@ -1072,6 +1156,6 @@ public class ExchangeLiquidityService {
                 baseMetrics.getSellSlippage(),
                 baseMetrics.getVolume24h(),
                 simulatedSnapshot,
-                System.currentTimeMillis());
+                MarketClock.currentTimeMillis());
     }
 } 
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.example.tradient.domain.market;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.Exchange;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
@@ -9,12 +7,13 @@ import com.example.tradient.data.service.ExchangeService;
 import com.example.tradient.data.service.ExchangeServiceFactory;
 import com.example.tradient.domain.risk.LiquidityService;
 import com.example.tradient.domain.risk.VolatilityService;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.util.AppLog;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,8 +26,8 @@ public class MarketDataManager {
     // Services
     private final VolatilityService volatilityService;
     private final LiquidityService liquidityService;
-    private final ExecutorService executorService;
-    private ScheduledExecutorService scheduledExecutor;
+    private final Executor executorService;
+    private ScheduledFuture<?> refreshTask;
     
     // Exchange services
     private final ExchangeService buyExchangeService;
@@ -72,9 +71,9 @@ public class MarketDataManager {
         
         volatilityService = new VolatilityService();
         liquidityService = new LiquidityService();
-        executorService = Executors.newCachedThreadPool();
+        executorService = TaskScheduler.getInstance().executor(TaskScheduler.Workload.NETWORK_IO);
         
-        Log.d(TAG, "Market data manager created for symbol: " + symbol);
+        AppLog.d(TAG, "Market data manager created for symbol: " + symbol);
     }
     
     /**
@@ -112,27 +111,27 @@ public class MarketDataManager {
         fetchLatestMarketData();
         
         // Schedule regular updates
-        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
-        scheduledExecutor.scheduleAtFixedRate(
+        refreshTask = TaskScheduler.getInstance().scheduleAtFixedRate(
+                TaskScheduler.Workload.NETWORK_IO,
                 this::fetchLatestMarketData,
                 REFRESH_INTERVAL_SECONDS,
                 REFRESH_INTERVAL_SECONDS,
                 TimeUnit.SECONDS);
         
-        Log.d(TAG, "Started collecting market data for " + symbol);
+        AppLog.d(TAG, "Started collecting market data for " + symbol);
     }
     
     /**
      * Stop collecting data
      */
     public void stopDataCollection() {
-        if (scheduledExecutor != null) {
-            scheduledExecutor.shutdown();
-            scheduledExecutor = null;
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
         }
         
         isCollectingData = false;
-        Log.d(TAG, "Stopped collecting market data");
+        AppLog.d(TAG, "Stopped collecting market data");
     }
     
     /**
@@ -146,7 +145,7 @@ public class MarketDataManager {
         
         executorService.execute(() -> {
             try {
-                Log.d(TAG, "Fetching latest market data for " + symbol);
+                AppLog.d(TAG, "Fetching latest market data for " + symbol);
                 
                 // Fetch order books
                 OrderBook buyOrderBook = buyExchangeService.getOrderBook(symbol);
@@ -177,7 +176,7 @@ public class MarketDataManager {
                     notifyVolatilityUpdated(volatility);
                 }
             } catch (Exception e) {
-                Log.e(TAG, "Error fetching market data: " + e.getMessage());
+                AppLog.e(TAG, "Error fetching market data: " + e.getMessage());
                 notifyError("Error fetching market data: " + e.getMessage());
             }
         });
@@ -191,7 +190,7 @@ public class MarketDataManager {
             try {
                 listener.onVolatilityUpdated(volatility);
             } catch (Exception e) {
-                Log.e(TAG, "Error notifying listener about volatility: " + e.getMessage());
+                AppLog.e(TAG, "Error notifying listener about volatility: " + e.getMessage());
             }
         }
     }
@@ -204,7 +203,7 @@ public class MarketDataManager {
             try {
                 listener.onLiquidityUpdated(liquidity);
             } catch (Exception e) {
-                Log.e(TAG, "Error notifying listener about liquidity: " + e.getMessage());
+                AppLog.e(TAG, "Error notifying listener about liquidity: " + e.getMessage());
             }
         }
     }
@@ -217,7 +216,7 @@ public class MarketDataManager {
             try {
                 listener.onOrderBooksUpdated(buyOrderBook, sellOrderBook);
             } catch (Exception e) {
-                Log.e(TAG, "Error notifying listener about order books: " + e.getMessage());
+                AppLog.e(TAG, "Error notifying listener about order books: " + e.getMessage());
             }
         }
     }
@@ -230,7 +229,7 @@ public class MarketDataManager {
             try {
                 listener.onTickersUpdated(buyTickers, sellTickers);
             } catch (Exception e) {
-                Log.e(TAG, "Error notifying listener about tickers: " + e.getMessage());
+                AppLog.e(TAG, "Error notifying listener about tickers: " + e.getMessage());
             }
         }
     }
@@ -243,22 +242,18 @@ public class MarketDataManager {
             try {
                 listener.onError(errorMessage);
             } catch (Exception e) {
-                Log.e(TAG, "Error notifying listener about error: " + e.getMessage());
+                AppLog.e(TAG, "Error notifying listener about error: " + e.getMessage());
             }
         }
     }
     
     /**
-     * Shut down the executor service
+     * Stop collecting data; fetches already running complete on the shared pool
      */
     public void shutdown() {
         stopDataCollection();
         
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-        }
-        
-        Log.d(TAG, "Market data manager shutdown complete");
+        AppLog.d(TAG, "Market data manager shutdown complete");
     }
     
     /**
@@ -0,0 +1,72 @@
+package com.example.tradient.domain.market;
+
+import com.example.tradient.util.SymbolNormalizer;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version numbers for the market data of each exchange and symbol.
+ * <p>
+ * Every ticker or order book update received from a WebSocket stream or a REST refresh
+ * bumps the version of its (exchange, symbol) pair. Anything derived purely from that
+ * data can be memoized against the version and is guaranteed stale as soon as it changes.
+ * Symbols are normalized the same way as the volatility estimator and candle aggregator,
+ * so "BTC/USDT", "BTC-USDT" and "btcusdt" share a version.
+ */
+public class MarketDataVersions {
+
+    /**
+     * Version of a pair that has never been updated. Callers should not memoize against it.
+     */
+    public static final long UNKNOWN = 0L;
+
+    private static MarketDataVersions instance;
+
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private MarketDataVersions() {
+    }
+
+    public static synchronized MarketDataVersions getInstance() {
+        if (instance == null) {
+            instance = new MarketDataVersions();
+        }
+        return instance;
+    }
+
+    /**
+     * Record that the ticker or order book of a pair has changed.
+     *
+     * @param exchangeName The exchange the update came from
+     * @param symbol The trading pair symbol in any of the supported formats
+     * @return The new version
+     */
+    public long bump(String exchangeName, String symbol) {
+        if (exchangeName == null || symbol == null) {
+            return UNKNOWN;
+        }
+        return versions.computeIfAbsent(key(exchangeName, symbol), k -> new AtomicLong())
+                .incrementAndGet();
+    }
+
+    /**
+     * Get the current version of a pair.
+     *
+     * @param exchangeName The exchange name
+     * @param symbol The trading pair symbol
+     * @return The version, or {@link #UNKNOWN} if no update has been seen yet
+     */
+    public long getVersion(String exchangeName, String symbol) {
+        if (exchangeName == null || symbol == null) {
+            return UNKNOWN;
+        }
+        AtomicLong version = versions.get(key(exchangeName, symbol));
+        return version != null ? version.get() : UNKNOWN;
+    }
+
+    private static String key(String exchangeName, String symbol) {
+        return exchangeName.toLowerCase(Locale.ROOT) + "|" + SymbolNormalizer.normalize(symbol);
+    }
+}
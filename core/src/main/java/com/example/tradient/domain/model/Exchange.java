@@ -6,8 +6,7 @@ import com.example.tradient.data.interfaces.INotificationService;
 import com.example.tradient.data.interfaces.ArbitrageResult;
 import com.example.tradient.data.service.ExchangeService;
 import com.example.tradient.infrastructure.ExchangeRegistry;
-
-import android.util.Log;
+import com.example.tradient.util.AppLog;
 
 /**
  * Represents a cryptocurrency exchange with its associated data and operations
@@ -24,22 +23,22 @@ public class Exchange {
         notificationService = new INotificationService() {
             @Override
             public void logInfo(String message) {
-                Log.i(TAG, message);
+                AppLog.i(TAG, message);
             }
             
             @Override
             public void logError(String message, Throwable throwable) {
-                Log.e(TAG, message, throwable);
+                AppLog.e(TAG, message, throwable);
             }
             
             @Override
             public void logWarning(String message) {
-                Log.w(TAG, message);
+                AppLog.w(TAG, message);
             }
             
             @Override
             public void logDebug(String message) {
-                Log.d(TAG, message);
+                AppLog.d(TAG, message);
             }
 
             @Override
@@ -49,12 +48,12 @@ public class Exchange {
 
             @Override
             public void notifyArbitrageError(Throwable throwable) {
-                Log.e(TAG, "Arbitrage error in Exchange: " + throwable.getMessage(), throwable);
+                AppLog.e(TAG, "Arbitrage error in Exchange: " + throwable.getMessage(), throwable);
             }
             
             @Override
             public void notifyArbitrageOpportunity(ArbitrageResult result) {
-                Log.i(TAG, "Exchange detected arbitrage opportunity: " + result.toString());
+                AppLog.i(TAG, "Exchange detected arbitrage opportunity: " + result.toString());
             }
         };
     }
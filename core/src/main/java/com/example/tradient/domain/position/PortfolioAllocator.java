@@ -0,0 +1,346 @@
+package com.example.tradient.domain.position;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.OrderBook;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Splits one pool of capital across all live arbitrage opportunities.
+ * <p>
+ * {@link PositionSizer} sizes every opportunity as if it were the only one, so several
+ * concurrent signals together ask for many times the available capital. The allocator
+ * keeps the current opportunities ordered by expected return per unit of capital (see
+ * {@link PositionSizer#calculateExpectedReturn(ArbitrageOpportunity)}) and
+ * fills them greedily, each up to the smallest of
+ * <ul>
+ *     <li>its Kelly-based size from the {@link PositionSizer},</li>
+ *     <li>the size the order books absorb within the slippage limit,</li>
+ *     <li>the capital not yet given to better opportunities,</li>
+ *     <li>the remaining balance on its buy and on its sell exchange.</li>
+ * </ul>
+ * This is the greedy solution of the fractional knapsack with per-exchange caps.
+ * <p>
+ * Opportunity updates only touch the ordered set (O(log n)) and mark the allocation
+ * dirty; the allocation is recomputed by one walk over the set on the next read and
+ * published as an immutable map. The walk stops as soon as the capital is used up.
+ */
+public class PortfolioAllocator {
+
+    private final PositionSizer positionSizer;
+    private double totalCapital;
+
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final TreeSet<Candidate> ranked = new TreeSet<>();
+    private final Map<String, Double> exchangeBalances = new HashMap<>();
+
+    private long sequence;
+    private boolean dirty;
+    private volatile Map<String, Allocation> allocations = Collections.emptyMap();
+
+    /**
+     * @param positionSizer Sizer that provides the Kelly fraction and the dust threshold
+     * @param totalCapital Capital shared by all opportunities
+     */
+    public PortfolioAllocator(PositionSizer positionSizer, double totalCapital) {
+        this.positionSizer = positionSizer;
+        this.totalCapital = totalCapital;
+    }
+
+    /**
+     * Add an opportunity, or replace the previous version with the same key.
+     *
+     * @param opportunity The opportunity
+     * @param maxDepthSize Largest position the order books absorb within the slippage limit,
+     *                     in quote currency; {@link Double#POSITIVE_INFINITY} if unknown
+     */
+    public synchronized void update(ArbitrageOpportunity opportunity, double maxDepthSize) {
+        if (opportunity == null || opportunity.getOpportunityKey() == null) {
+            return;
+        }
+        String key = opportunity.getOpportunityKey();
+        Candidate previous = candidates.remove(key);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+
+        double kellyFraction = positionSizer.calculateKellyFraction(opportunity);
+        if (!(kellyFraction > 0) || !(maxDepthSize > 0)) {
+            dirty |= previous != null;
+            return;
+        }
+
+        Candidate candidate = new Candidate(key, opportunity.getBuyExchangeName(),
+                opportunity.getSellExchangeName(), positionSizer.calculateExpectedReturn(opportunity),
+                kellyFraction, maxDepthSize, sequence++);
+        candidates.put(key, candidate);
+        ranked.add(candidate);
+        dirty = true;
+    }
+
+    /**
+     * Remove an opportunity that is no longer live.
+     */
+    public synchronized void remove(String opportunityKey) {
+        Candidate previous = candidates.remove(opportunityKey);
+        if (previous != null) {
+            ranked.remove(previous);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Remove every opportunity whose key is not in the given set.
+     */
+    public synchronized void retainAll(Set<String> opportunityKeys) {
+        Iterator<Candidate> iterator = ranked.iterator();
+        while (iterator.hasNext()) {
+            Candidate candidate = iterator.next();
+            if (!opportunityKeys.contains(candidate.key)) {
+                iterator.remove();
+                candidates.remove(candidate.key);
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Limit the capital that positions may commit on one exchange. Both legs of a position
+     * count against their exchange. Exchanges without a balance are only limited by the
+     * total capital.
+     *
+     * @param exchangeName The exchange
+     * @param balance Available balance in quote currency, or a negative value to remove the cap
+     */
+    public synchronized void setExchangeBalance(String exchangeName, double balance) {
+        if (exchangeName == null) {
+            return;
+        }
+        String exchange = exchangeName.toLowerCase(Locale.ROOT);
+        if (balance < 0) {
+            exchangeBalances.remove(exchange);
+        } else {
+            exchangeBalances.put(exchange, balance);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Replace all exchange balances, e.g. after the configuration was reloaded. Exchanges
+     * missing from the map are no longer capped.
+     *
+     * @param balances Available balance per exchange in quote currency
+     */
+    public synchronized void setExchangeBalances(Map<String, Double> balances) {
+        exchangeBalances.clear();
+        if (balances != null) {
+            for (Map.Entry<String, Double> entry : balances.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null && entry.getValue() >= 0) {
+                    exchangeBalances.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    public synchronized void setTotalCapital(double totalCapital) {
+        this.totalCapital = totalCapital;
+        dirty = true;
+    }
+
+    public synchronized double getTotalCapital() {
+        return totalCapital;
+    }
+
+    public synchronized void clear() {
+        candidates.clear();
+        ranked.clear();
+        dirty = true;
+    }
+
+    /**
+     * Current allocation of every opportunity that received capital.
+     *
+     * @return Immutable map from opportunity key to allocation
+     */
+    public Map<String, Allocation> getAllocations() {
+        synchronized (this) {
+            if (dirty) {
+                allocations = allocate();
+                dirty = false;
+            }
+        }
+        return allocations;
+    }
+
+    /**
+     * Position size allocated to an opportunity.
+     *
+     * @return The size in quote currency, or 0 if it received no capital
+     */
+    public double getAllocatedSize(String opportunityKey) {
+        Allocation allocation = getAllocations().get(opportunityKey);
+        return allocation != null ? allocation.getSize() : 0.0;
+    }
+
+    /**
+     * Sum of all allocated sizes.
+     */
+    public double getAllocatedCapital() {
+        double total = 0;
+        for (Allocation allocation : getAllocations().values()) {
+            total += allocation.getSize();
+        }
+        return total;
+    }
+
+    /**
+     * Largest position the two order books absorb within a slippage limit: the ask side
+     * of the buy exchange and the bid side of the sell exchange.
+     *
+     * @param buyBook Order book of the buy exchange, or null if unknown
+     * @param sellBook Order book of the sell exchange, or null if unknown
+     * @param maxSlippage Maximum slippage per leg as a decimal
+     * @return The size in quote currency, or {@link Double#POSITIVE_INFINITY} if neither book is known
+     */
+    public static double depthLimitedSize(OrderBook buyBook, OrderBook sellBook, double maxSlippage) {
+        double size = Double.POSITIVE_INFINITY;
+        if (buyBook != null && !buyBook.getSlippageCurve(true).isEmpty()) {
+            size = Math.min(size, buyBook.getSlippageCurve(true).maxNotionalWithinSlippage(maxSlippage));
+        }
+        if (sellBook != null && !sellBook.getSlippageCurve(false).isEmpty()) {
+            size = Math.min(size, sellBook.getSlippageCurve(false).maxNotionalWithinSlippage(maxSlippage));
+        }
+        return size;
+    }
+
+    private Map<String, Allocation> allocate() {
+        if (ranked.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        double minimumSize = positionSizer.getMinPositionSize();
+        double remainingCapital = totalCapital;
+        Map<String, Double> remainingBalances = new HashMap<>(exchangeBalances);
+        Set<String> exhaustedExchanges = new HashSet<>();
+        Map<String, Allocation> result = new HashMap<>();
+
+        int rank = 0;
+        for (Candidate candidate : ranked) {
+            if (remainingCapital < minimumSize) {
+                break;
+            }
+            rank++;
+            if (exhaustedExchanges.contains(candidate.buyExchange)
+                    || exhaustedExchanges.contains(candidate.sellExchange)) {
+                continue;
+            }
+
+            double size = Math.min(candidate.kellyFraction * totalCapital, candidate.maxDepthSize);
+            size = Math.min(size, remainingCapital);
+            size = Math.min(size, remainingBalances.getOrDefault(candidate.buyExchange, Double.POSITIVE_INFINITY));
+            size = Math.min(size, remainingBalances.getOrDefault(candidate.sellExchange, Double.POSITIVE_INFINITY));
+            if (size < minimumSize) {
+                continue;
+            }
+
+            remainingCapital -= size;
+            consume(remainingBalances, exhaustedExchanges, candidate.buyExchange, size, minimumSize);
+            if (!candidate.sellExchange.equals(candidate.buyExchange)) {
+                consume(remainingBalances, exhaustedExchanges, candidate.sellExchange, size, minimumSize);
+            }
+            result.put(candidate.key, new Allocation(candidate.key, size, rank, candidate.expectedReturn));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static void consume(Map<String, Double> balances, Set<String> exhausted,
+                                String exchange, double size, double minimumSize) {
+        Double balance = balances.get(exchange);
+        if (balance == null) {
+            return;
+        }
+        double remaining = balance - size;
+        balances.put(exchange, remaining);
+        if (remaining < minimumSize) {
+            exhausted.add(exchange);
+        }
+    }
+
+    /**
+     * Capital assigned to one opportunity.
+     */
+    public static class Allocation {
+        private final String opportunityKey;
+        private final double size;
+        private final int rank;
+        private final double expectedReturn;
+
+        public Allocation(String opportunityKey, double size, int rank, double expectedReturn) {
+            this.opportunityKey = opportunityKey;
+            this.size = size;
+            this.rank = rank;
+            this.expectedReturn = expectedReturn;
+        }
+
+        public String getOpportunityKey() {
+            return opportunityKey;
+        }
+
+        /**
+         * @return Position size in quote currency
+         */
+        public double getSize() {
+            return size;
+        }
+
+        /**
+         * @return 1-based position in the ranking by expected return
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * @return Expected return per unit of capital as a decimal
+         */
+        public double getExpectedReturn() {
+            return expectedReturn;
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        private final String key;
+        private final String buyExchange;
+        private final String sellExchange;
+        private final double expectedReturn;
+        private final double kellyFraction;
+        private final double maxDepthSize;
+        private final long sequence;
+
+        private Candidate(String key, String buyExchange, String sellExchange, double expectedReturn,
+                          double kellyFraction, double maxDepthSize, long sequence) {
+            this.key = key;
+            this.buyExchange = buyExchange != null ? buyExchange.toLowerCase(Locale.ROOT) : "";
+            this.sellExchange = sellExchange != null ? sellExchange.toLowerCase(Locale.ROOT) : "";
+            this.expectedReturn = expectedReturn;
+            this.kellyFraction = kellyFraction;
+            this.maxDepthSize = maxDepthSize;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            // Best expected return first; older entries win ties so the order is stable
+            int byReturn = Double.compare(other.expectedReturn, expectedReturn);
+            return byReturn != 0 ? byReturn : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -14,6 +14,12 @@ public class PositionSizer {
     private double maxPositionPct = 0.25;  // Maximum 25% of capital per trade
     private double safetyFactor = 0.5;     // Half-Kelly for conservative sizing
     private double minPositionSize = 10.0; // Minimum position size in base currency
+    
+    // Taker fee paid to close a stranded leg
+    private static final double UNWIND_FEE = 0.001;
+    private static final double MINUTES_PER_DAY = 24 * 60;
+    // Daily volatility assumed while neither leg has tick history; the top of BTC's usual 2-4%
+    private static final double DEFAULT_DAILY_VOLATILITY = 0.04;
 
     /**
      * Default constructor with default parameters
@@ -35,60 +41,114 @@ public class PositionSizer {
     }
     
     /**
-     * Calculates the optimal position size for an arbitrage opportunity using the Kelly Criterion
+     * Calculates the optimal position size for an arbitrage opportunity using the Kelly Criterion.
+     * The opportunity is sized on its own; use a {@link PortfolioAllocator} when several
+     * opportunities share the same capital.
      * 
      * @param opportunity The arbitrage opportunity to size
      * @param availableCapital Total capital available for trading
      * @return Optimal position size in base currency units
      */
     public double calculateOptimalPositionSize(ArbitrageOpportunity opportunity, double availableCapital) {
+        // Convert fraction to actual position size
+        double positionSize = availableCapital * calculateKellyFraction(opportunity);
+        
+        // Implement minimum position size threshold (to avoid dust positions)
+        if (positionSize < minPositionSize) {
+            return 0.0; // Don't trade if optimal size is too small
+        }
+        
+        return positionSize;
+    }
+    
+    /**
+     * Calculates the fraction of capital the Kelly Criterion assigns to an opportunity,
+     * after the safety factor, the position cap and the liquidity adjustment.
+     * <p>
+     * An arbitrage is treated as a two-outcome bet: both legs fill and the position earns
+     * the net profit less the expected slippage, or one leg fails and the other has to be
+     * unwound at a loss. For a win of b and a loss of L per unit of capital the Kelly
+     * fraction is p/L - q/b.
+     * 
+     * @param opportunity The arbitrage opportunity to size
+     * @return Fraction of capital, or 0 if the opportunity has no positive edge
+     */
+    public double calculateKellyFraction(ArbitrageOpportunity opportunity) {
         // Validate inputs
         RiskAssessment risk = RiskAssessmentAdapter.getRiskAssessment(opportunity);
         if (opportunity == null || risk == null) {
             return 0.0;
         }
         
-        // Extract key risk factors
-        double overallRisk = risk.getOverallRiskScore();
-        double slippageRisk = risk.getSlippageRisk();
-        double liquidityScore = risk.getLiquidityScore();
-        double volatilityScore = risk.getVolatilityScore();
-        
-        // Calculate win probability (using overall risk as a proxy)
-        double winProbability = Math.min(0.95, overallRisk * 0.9 + 0.05);
-        
-        // Calculate potential profit and loss
-        double potentialProfit = opportunity.getProfitPercent() / 100.0;
-        double potentialLoss = 1.0 - slippageRisk; // Use slippage risk as a proxy for potential loss
-        
-        // Calculate Kelly fraction (optimal bet size as fraction of capital)
-        double kellyFraction = 0.0;
-        if (potentialLoss > 0) {
-            kellyFraction = (winProbability * (1 + potentialProfit) - 1) / potentialLoss;
+        double win = winAmount(opportunity, risk);
+        double loss = lossAmount(risk);
+        if (!(win > 0) || !(loss > 0)) {
+            return 0.0;
         }
         
-        // Apply safety factor
-        kellyFraction *= safetyFactor;
-        
-        // Cap the position size
-        double cappedFraction = Math.min(kellyFraction, maxPositionPct);
-        
-        // Apply additional risk-based scaling factors
-        double liquidityAdjustment = Math.pow(liquidityScore, 1.5); // Penalize low liquidity more aggressively
-        double volatilityAdjustment = Math.pow(volatilityScore, 1.2); // Slightly reduce size for high volatility
-        
-        // Calculate final position size with all constraints
-        double optimalFraction = cappedFraction * liquidityAdjustment * volatilityAdjustment;
+        // Kelly fraction for a bet that wins b with probability p and loses L otherwise
+        double p = fillProbability(risk);
+        double kellyFraction = p / loss - (1.0 - p) / win;
+        if (!(kellyFraction > 0)) {
+            return 0.0;
+        }
         
-        // Convert fraction to actual position size
-        double positionSize = availableCapital * optimalFraction;
+        // Apply safety factor and cap the position size
+        double cappedFraction = Math.min(kellyFraction * safetyFactor, maxPositionPct);
         
-        // Implement minimum position size threshold (to avoid dust positions)
-        if (positionSize < minPositionSize) {
-            return 0.0; // Don't trade if optimal size is too small
+        // Thin books make the depth estimate less reliable; penalize low liquidity more aggressively
+        return cappedFraction * Math.pow(clamp(risk.getLiquidityScore()), 1.5);
+    }
+    
+    /**
+     * Expected return per unit of capital: p * b - q * L with the same win, loss and
+     * probability as {@link #calculateKellyFraction(ArbitrageOpportunity)}.
+     * 
+     * @param opportunity The arbitrage opportunity
+     * @return Expected return as a decimal; negative if the opportunity has no edge
+     */
+    public double calculateExpectedReturn(ArbitrageOpportunity opportunity) {
+        RiskAssessment risk = RiskAssessmentAdapter.getRiskAssessment(opportunity);
+        if (opportunity == null || risk == null) {
+            return 0.0;
         }
-        
-        return positionSize;
+        double p = fillProbability(risk);
+        return p * winAmount(opportunity, risk) - (1.0 - p) * lossAmount(risk);
+    }
+    
+    /**
+     * Return when both legs fill: the net profit after fees less the expected slippage.
+     */
+    static double winAmount(ArbitrageOpportunity opportunity, RiskAssessment risk) {
+        double netProfitPercent = opportunity.getNetProfitPercentage() != 0
+                ? opportunity.getNetProfitPercentage() : opportunity.getProfitPercent();
+        return netProfitPercent / 100.0 - Math.max(0.0, risk.getSlippageEstimate());
+    }
+    
+    /**
+     * Loss when one leg fails: the stranded leg is closed with a taker order, paying the fee
+     * and the slippage again, after the price moved against it for the execution time.
+     * The move uses the realized daily volatility rather than the volatility score, which
+     * each risk calculator puts on its own scale.
+     */
+    static double lossAmount(RiskAssessment risk) {
+        double dailyVolatility = risk.getDailyVolatility() >= 0
+                ? risk.getDailyVolatility() : DEFAULT_DAILY_VOLATILITY;
+        double executionMinutes = Math.max(0.0, risk.getExecutionTimeEstimate());
+        double adverseMove = dailyVolatility * Math.sqrt(executionMinutes / MINUTES_PER_DAY);
+        return UNWIND_FEE + Math.max(0.0, risk.getSlippageEstimate()) + adverseMove;
+    }
+    
+    /**
+     * Probability that both legs fill at the quoted prices. A risk score of 0 makes it a coin
+     * flip, a score of 1 a certainty.
+     */
+    static double fillProbability(RiskAssessment risk) {
+        return 0.5 + 0.5 * clamp(risk.getOverallRiskScore());
+    }
+    
+    private static double clamp(double score) {
+        return Math.max(0.0, Math.min(1.0, score));
     }
     
     /**
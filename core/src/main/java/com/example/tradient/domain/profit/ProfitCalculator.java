@@ -1,19 +1,20 @@
 package com.example.tradient.domain.profit;
 
-import android.util.Log;
-import android.util.Pair;
-
 import com.example.tradient.data.interfaces.IExchangeService;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.DoubleRingBuffer;
+import com.example.tradient.util.Pair;
 import com.example.tradient.util.TimeEstimationUtil;
 import com.example.tradient.util.TimeEstimationUtil.MarketVolatility;
+import com.example.tradient.util.MarketClock;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.LinkedList;
 
 /**
  * Enhanced profit calculator with advanced market analysis capabilities.
@@ -128,8 +129,10 @@ public class ProfitCalculator {
         double netProfitPerUnit = effectiveSellRevenue - effectiveBuyCost;
         double profitPercentage = (netProfitPerUnit / effectiveBuyCost) * 100;
         
-        Log.d(TAG, String.format("Basic profit: %.4f%% (buy: %.8f, sell: %.8f, fees: %.4f/%.4f%%)",
-                profitPercentage, buyPrice, sellPrice, buyFeePercentage*100, sellFeePercentage*100));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "Basic profit: %.4f%% (buy: %.8f, sell: %.8f, fees: %.4f/%.4f%%)",
+                    profitPercentage, buyPrice, sellPrice, buyFeePercentage*100, sellFeePercentage*100);
+        }
         
         return profitPercentage;
     }
@@ -187,12 +190,16 @@ public class ProfitCalculator {
             double confidenceAdjustment = 1.0 - ((1.0 - fillRiskFactor) * 2.0);
             slippageAdjustedProfit *= Math.max(0.5, confidenceAdjustment);
             
-            Log.d(TAG, String.format("Fill risk adjustment: %.2f%% fill rate, factor: %.2f",
-                    fillRiskFactor*100, confidenceAdjustment));
+            if (AppLog.isDebugEnabled()) {
+                AppLog.d(TAG, "Fill risk adjustment: %.2f%% fill rate, factor: %.2f",
+                        fillRiskFactor*100, confidenceAdjustment);
+            }
         }
         
-        Log.d(TAG, String.format("Slippage-adjusted profit: %.4f%% (buy slip: %.4f%%, sell slip: %.4f%%)",
-                slippageAdjustedProfit, buySlippage*100, sellSlippage*100));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "Slippage-adjusted profit: %.4f%% (buy slip: %.4f%%, sell slip: %.4f%%)",
+                    slippageAdjustedProfit, buySlippage*100, sellSlippage*100);
+        }
         
         return slippageAdjustedProfit;
     }
@@ -324,20 +331,19 @@ public class ProfitCalculator {
         
         // Ensure reasonable bounds for slippage (more flexible upper bound for extreme conditions)
         double maxSlippage = (volatility == MarketVolatility.VERY_HIGH) ? 0.08 : 0.05;
-        slippage = Math.max(adjustedBaseSlippage, Math.min(maxSlippage, slippage));
+        slippage = Math.min(maxSlippage, Math.max(adjustedBaseSlippage, slippage));
         
         // Record this observation in history for future estimates
-        if (history == null) {
-            history = new SlippageHistory();
-            SLIPPAGE_HISTORY_CACHE.put(slippageKey, history);
-        }
-        history.recordSlippage(slippage, amount, fillRate);
+        SLIPPAGE_HISTORY_CACHE.computeIfAbsent(slippageKey, k -> new SlippageHistory())
+                .recordSlippage(slippage);
         
         // Log detailed slippage calculation
-        Log.d(TAG, String.format("Buy slippage for %s on %s: %.4f%% (fill rate: %.2f%%, base: %.4f%%, " +
-                "exchange: %.2f, time: %.2f, volatility: %.2f, momentum: %.2f, history confidence: %.2f)",
-                baseAsset, exchangeName, slippage * 100, fillRate * 100, baseSlippage * 100,
-                exchangeFactor, timeOfDayFactor, volatilityFactor, momentumFactor, historyConfidence));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "Buy slippage for %s on %s: %.4f%% (fill rate: %.2f%%, base: %.4f%%, " +
+                    "exchange: %.2f, time: %.2f, volatility: %.2f, momentum: %.2f, history confidence: %.2f)",
+                    baseAsset, exchangeName, slippage * 100, fillRate * 100, baseSlippage * 100,
+                    exchangeFactor, timeOfDayFactor, volatilityFactor, momentumFactor, historyConfidence);
+        }
         
         return new Pair<>(slippage, fillRate);
     }
@@ -468,20 +474,19 @@ public class ProfitCalculator {
         
         // Ensure reasonable bounds for slippage (more flexible upper bound for extreme conditions)
         double maxSlippage = (volatility == MarketVolatility.VERY_HIGH) ? 0.08 : 0.05;
-        slippage = Math.max(adjustedBaseSlippage, Math.min(maxSlippage, slippage));
+        slippage = Math.min(maxSlippage, Math.max(adjustedBaseSlippage, slippage));
         
         // Record this observation in history for future estimates
-        if (history == null) {
-            history = new SlippageHistory();
-            SLIPPAGE_HISTORY_CACHE.put(slippageKey, history);
-        }
-        history.recordSlippage(slippage, amount, fillRate);
+        SLIPPAGE_HISTORY_CACHE.computeIfAbsent(slippageKey, k -> new SlippageHistory())
+                .recordSlippage(slippage);
         
         // Log detailed slippage calculation
-        Log.d(TAG, String.format("Sell slippage for %s on %s: %.4f%% (fill rate: %.2f%%, base: %.4f%%, " +
-                "exchange: %.2f, time: %.2f, volatility: %.2f, momentum: %.2f, history confidence: %.2f)",
-                baseAsset, exchangeName, slippage * 100, fillRate * 100, baseSlippage * 100,
-                exchangeFactor, timeOfDayFactor, volatilityFactor, momentumFactor, historyConfidence));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "Sell slippage for %s on %s: %.4f%% (fill rate: %.2f%%, base: %.4f%%, " +
+                    "exchange: %.2f, time: %.2f, volatility: %.2f, momentum: %.2f, history confidence: %.2f)",
+                    baseAsset, exchangeName, slippage * 100, fillRate * 100, baseSlippage * 100,
+                    exchangeFactor, timeOfDayFactor, volatilityFactor, momentumFactor, historyConfidence);
+        }
         
         return new Pair<>(slippage, fillRate);
     }
@@ -492,6 +497,13 @@ public class ProfitCalculator {
     private static MarketVolatility estimateMarketVolatility(
             String baseAsset, Ticker buyTicker, Ticker sellTicker) {
         
+        // Realized volatility from the live tick stream takes precedence over the range heuristic
+        double streamingVolatility = Math.max(
+                getStreamingVolatilityPercent(buyTicker), getStreamingVolatilityPercent(sellTicker));
+        if (streamingVolatility >= 0) {
+            return classifyVolatility(streamingVolatility);
+        }
+        
         // Check cache first
         if (volatilityCache.containsKey(baseAsset)) {
             return volatilityCache.get(baseAsset);
@@ -513,17 +525,33 @@ public class ProfitCalculator {
                 // Cache the result (would be periodically refreshed in production)
                 volatilityCache.put(baseAsset, result);
                 
-                Log.d(TAG, String.format("Estimated volatility for %s: %s (%.2f%%)", 
-                        baseAsset, result, avgVolatility));
+                if (AppLog.isDebugEnabled()) {
+                    AppLog.d(TAG, "Estimated volatility for %s: %s (%.2f%%)",
+                            baseAsset, result, avgVolatility);
+                }
                 
             } catch (Exception e) {
-                Log.e(TAG, "Error calculating volatility", e);
+                AppLog.e(TAG, "Error calculating volatility", e);
             }
         }
         
         return result;
     }
     
+    /**
+     * Daily volatility percentage of a ticker's market from the streaming estimator
+     *
+     * @return Volatility in percent, or a negative value if the stream has no estimate yet
+     */
+    private static double getStreamingVolatilityPercent(Ticker ticker) {
+        if (ticker == null || ticker.getExchangeName() == null || ticker.getSymbol() == null) {
+            return RollingVolatilityEstimator.NO_DATA;
+        }
+        double volatility = RollingVolatilityEstimator.getInstance()
+                .getDailyVolatility(ticker.getExchangeName(), ticker.getSymbol());
+        return volatility == RollingVolatilityEstimator.NO_DATA ? volatility : volatility * 100.0;
+    }
+    
     /**
      * Calculate volatility percentage from ticker data
      */
@@ -576,8 +604,10 @@ public class ProfitCalculator {
         // Ensure the factor is between 0.1 and 1.0
         double finalFactor = Math.max(0.1, Math.min(1.0, combinedLiquidityFactor));
         
-        Log.d(TAG, String.format("Liquidity factor for %s: %.2f (base: %.2f, depth: %.2f/%.2f, spread: %.2f)",
-                baseAsset, finalFactor, baseLiquidityFactor, buyDepthFactor, sellDepthFactor, spreadFactor));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "Liquidity factor for %s: %.2f (base: %.2f, depth: %.2f/%.2f, spread: %.2f)",
+                    baseAsset, finalFactor, baseLiquidityFactor, buyDepthFactor, sellDepthFactor, spreadFactor);
+        }
         
         return finalFactor;
     }
@@ -648,7 +678,7 @@ public class ProfitCalculator {
                 return 1.0 - (spreadPercentage - 0.1) / 1.9 * 0.9;
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating spread factor", e);
+            AppLog.e(TAG, "Error calculating spread factor", e);
             return 0.5;
         }
     }
@@ -727,11 +757,13 @@ public class ProfitCalculator {
         double percentageProfit = (netProfitPerUnit / effectiveBuyCost) * 100;
         
         // Log the calculation details for debugging
-        Log.d(TAG, String.format(
-                "Profit calculation: Buy=%f(+%f%%), Sell=%f(-%f%%), EffBuy=%f, EffSell=%f, Net=%f, Profit=%f(%f%%)",
-                buyPrice, buyFeePercentage*100, sellPrice, sellFeePercentage*100,
-                effectiveBuyCost, effectiveSellRevenue, netProfitPerUnit,
-                absoluteProfit, percentageProfit));
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG,
+                    "Profit calculation: Buy=%f(+%f%%), Sell=%f(-%f%%), EffBuy=%f, EffSell=%f, Net=%f, Profit=%f(%f%%)",
+                    buyPrice, buyFeePercentage*100, sellPrice, sellFeePercentage*100,
+                    effectiveBuyCost, effectiveSellRevenue, netProfitPerUnit,
+                    absoluteProfit, percentageProfit);
+        }
         
         return new com.example.tradient.domain.profit.ProfitResult(absoluteProfit, percentageProfit, netProfitPerUnit);
     }
@@ -843,47 +875,38 @@ public class ProfitCalculator {
     }
     
     /**
-     * Helper class to track historical slippage data for adaptive slippage estimation
+     * Helper class to track historical slippage data for adaptive slippage estimation.
+     * Observations go into a primitive ring buffer that keeps the long-term and short-term
+     * sums up to date, so recording and predicting are both O(1).
      */
     private static class SlippageHistory {
         private static final int MAX_HISTORY_SIZE = 50;
+        private static final int SHORT_TERM_SIZE = 10;
         private static final double RECENT_WEIGHT = 0.7; // Weight given to recent data vs historical average
         
-        private final LinkedList<SlippageRecord> history = new LinkedList<>();
-        private double averageSlippage = DEFAULT_SLIPPAGE_FACTOR;
-        private double shortTermSlippage = DEFAULT_SLIPPAGE_FACTOR;
-        private long lastUpdateTimestamp = 0;
+        private final DoubleRingBuffer history = new DoubleRingBuffer(MAX_HISTORY_SIZE, SHORT_TERM_SIZE);
+        private volatile long lastUpdateTimestamp = 0;
         
         /**
          * Record a new slippage observation
          */
-        public void recordSlippage(double slippage, double amount, double fillRate) {
-            // Add new record
-            SlippageRecord record = new SlippageRecord(
-                    System.currentTimeMillis(), slippage, amount, fillRate);
-            history.addLast(record);
-            
-            // Trim history if needed
-            if (history.size() > MAX_HISTORY_SIZE) {
-                history.removeFirst();
-            }
-            
-            // Update averages
-            updateAverages();
+        public void recordSlippage(double slippage) {
+            history.add(slippage);
+            lastUpdateTimestamp = MarketClock.currentTimeMillis();
         }
         
         /**
          * Get the predicted slippage based on historical data
          */
         public double getPredictedSlippage() {
-            // Check if data is stale (older than 1 hour)
-            if (System.currentTimeMillis() - lastUpdateTimestamp > 3600000) {
+            // Check if data is stale (older than 1 hour) or missing
+            if (history.size() == 0 || MarketClock.currentTimeMillis() - lastUpdateTimestamp > 3600000) {
                 return DEFAULT_SLIPPAGE_FACTOR; // Use default if stale
             }
             
             // Blend long-term and short-term averages
-            return (shortTermSlippage * RECENT_WEIGHT) + 
-                   (averageSlippage * (1 - RECENT_WEIGHT));
+            return (history.shortTermMean() * RECENT_WEIGHT) + 
+                   (history.mean() * (1 - RECENT_WEIGHT));
         }
         
         /**
@@ -893,50 +916,6 @@ public class ProfitCalculator {
             // More data points = higher confidence, up to a maximum
             return Math.min(0.9, history.size() / (double)MAX_HISTORY_SIZE);
         }
-        
-        /**
-         * Update average slippage values
-         */
-        private void updateAverages() {
-            if (history.isEmpty()) {
-                return;
-            }
-            
-            // Calculate overall average
-            double total = 0;
-            for (SlippageRecord record : history) {
-                total += record.slippage;
-            }
-            averageSlippage = total / history.size();
-            
-            // Calculate short-term average (last 10 records)
-            int recentCount = Math.min(10, history.size());
-            double recentTotal = 0;
-            for (int i = history.size() - 1; i >= history.size() - recentCount; i--) {
-                recentTotal += history.get(i).slippage;
-            }
-            shortTermSlippage = recentTotal / recentCount;
-            
-            // Update timestamp
-            lastUpdateTimestamp = System.currentTimeMillis();
-        }
-        
-        /**
-         * Inner class to hold individual slippage records
-         */
-        private static class SlippageRecord {
-            public final long timestamp;
-            public final double slippage;
-            public final double amount;
-            public final double fillRate;
-            
-            public SlippageRecord(long timestamp, double slippage, double amount, double fillRate) {
-                this.timestamp = timestamp;
-                this.slippage = slippage;
-                this.amount = amount;
-                this.fillRate = fillRate;
-            }
-        }
     }
     
     /**
@@ -1222,34 +1201,48 @@ public class ProfitCalculator {
             double networkFee,
             double depositFee) {
             
-        Log.d(TAG, String.format(
-                "Starting comprehensive profit calculation with initial amount: %.8f, buy: %.8f, sell: %.8f",
-                initialAmount, buyPrice, sellPrice));
+        // Checked once, the steps below log on every call when enabled
+        boolean debug = AppLog.isDebugEnabled();
+        if (debug) {
+            AppLog.d(TAG,
+                    "Starting comprehensive profit calculation with initial amount: %.8f, buy: %.8f, sell: %.8f",
+                    initialAmount, buyPrice, sellPrice);
+        }
                 
         // Step 1: Calculate amount after buy trade including trading fee
         double buyTradeAmount = (initialAmount / buyPrice) * (1 - buyTradingFee);
-        Log.d(TAG, String.format("Amount after buy trade (including %.4f%% fee): %.8f", 
-                buyTradingFee * 100, buyTradeAmount));
+        if (debug) {
+            AppLog.d(TAG, "Amount after buy trade (including %.4f%% fee): %.8f",
+                    buyTradingFee * 100, buyTradeAmount);
+        }
         
         // Step 2: Subtract withdrawal fee (fixed amount in the purchased asset)
         double amountAfterWithdrawal = buyTradeAmount - withdrawalFee;
-        Log.d(TAG, String.format("Amount after withdrawal (fee: %.8f): %.8f", 
-                withdrawalFee, amountAfterWithdrawal));
+        if (debug) {
+            AppLog.d(TAG, "Amount after withdrawal (fee: %.8f): %.8f",
+                    withdrawalFee, amountAfterWithdrawal);
+        }
         
         // Step 3: Subtract network fee if applicable
         double amountAfterNetwork = amountAfterWithdrawal - networkFee;
-        Log.d(TAG, String.format("Amount after network fee (fee: %.8f): %.8f", 
-                networkFee, amountAfterNetwork));
+        if (debug) {
+            AppLog.d(TAG, "Amount after network fee (fee: %.8f): %.8f",
+                    networkFee, amountAfterNetwork);
+        }
         
         // Step 4: Calculate deposit to second exchange (if percentage fee)
         double amountAfterDeposit = amountAfterNetwork - depositFee;
-        Log.d(TAG, String.format("Amount after deposit fee (fee: %.8f): %.8f", 
-                depositFee, amountAfterDeposit));
+        if (debug) {
+            AppLog.d(TAG, "Amount after deposit fee (fee: %.8f): %.8f",
+                    depositFee, amountAfterDeposit);
+        }
         
         // Step 5: Calculate final amount after selling, including sell trading fee
         double finalAmount = (amountAfterDeposit * sellPrice) * (1 - sellTradingFee);
-        Log.d(TAG, String.format("Final amount after sell (including %.4f%% fee): %.8f", 
-                sellTradingFee * 100, finalAmount));
+        if (debug) {
+            AppLog.d(TAG, "Final amount after sell (including %.4f%% fee): %.8f",
+                    sellTradingFee * 100, finalAmount);
+        }
         
         // Calculate absolute profit
         double absoluteProfit = finalAmount - initialAmount;
@@ -1260,9 +1253,11 @@ public class ProfitCalculator {
         // Calculate profit per unit (rarely used, but maintaining for compatibility)
         double profitPerUnit = absoluteProfit / initialAmount;
         
-        Log.d(TAG, String.format(
-                "Comprehensive profit calculation result: Initial=%.8f, Final=%.8f, Profit=%.8f (%.4f%%)",
-                initialAmount, finalAmount, absoluteProfit, percentageProfit));
+        if (debug) {
+            AppLog.d(TAG,
+                    "Comprehensive profit calculation result: Initial=%.8f, Final=%.8f, Profit=%.8f (%.4f%%)",
+                    initialAmount, finalAmount, absoluteProfit, percentageProfit);
+        }
         
         return new ProfitResult(absoluteProfit, percentageProfit, profitPerUnit);
     }
@@ -0,0 +1,60 @@
+package com.example.tradient.domain.profit;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.SlippageCurve;
+
+/**
+ * Service that calculates market slippage for buy and sell orders based on order book data
+ */
+public class SlippageService {
+    
+    /**
+     * Calculate the slippage for a market buy order
+     * @param orderBook The order book containing ask data
+     * @param tradeSize The size of the trade in base currency units
+     * @return The slippage percentage as a decimal (e.g., 0.01 = 1%)
+     */
+    public double calculateBuySlippage(OrderBook orderBook, double tradeSize) {
+        SlippageCurve asks = orderBook.getSlippageCurve(true);
+        if (asks.isEmpty()) {
+            return 0.005; // Default 0.5% slippage if no data
+        }
+        
+        // If we couldn't fill the order completely
+        if (asks.getTotalQuantity() < tradeSize) {
+            // Add a penalty for insufficient liquidity
+            return 0.02; // 2% slippage
+        }
+        
+        double initialPrice = asks.getBestPrice();
+        double averagePrice = asks.vwapForQuantity(tradeSize);
+        double slippage = (averagePrice - initialPrice) / initialPrice;
+        
+        return Math.max(0, slippage); // Can't have negative slippage
+    }
+    
+    /**
+     * Calculate the slippage for a market sell order
+     * @param orderBook The order book containing bid data
+     * @param tradeSize The size of the trade in base currency units
+     * @return The slippage percentage as a decimal (e.g., 0.01 = 1%)
+     */
+    public double calculateSellSlippage(OrderBook orderBook, double tradeSize) {
+        SlippageCurve bids = orderBook.getSlippageCurve(false);
+        if (bids.isEmpty()) {
+            return 0.005; // Default 0.5% slippage if no data
+        }
+        
+        // If we couldn't fill the order completely
+        if (bids.getTotalQuantity() < tradeSize) {
+            // Add a penalty for insufficient liquidity
+            return 0.02; // 2% slippage
+        }
+        
+        double initialPrice = bids.getBestPrice();
+        double averagePrice = bids.vwapForQuantity(tradeSize);
+        double slippage = (initialPrice - averagePrice) / initialPrice;
+        
+        return Math.max(0, slippage); // Can't have negative slippage
+    }
+} 
\ No newline at end of file
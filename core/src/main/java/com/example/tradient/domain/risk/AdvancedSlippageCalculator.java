@@ -1,13 +1,13 @@
 package com.example.tradient.domain.risk;
 
 import com.example.tradient.data.model.OrderBook;
-import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.SlippageCurve;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.DoubleRingBuffer;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -87,6 +87,12 @@ public class AdvancedSlippageCalculator {
             // Apply dynamic calibration based on current market conditions
             double calibratedSlippage = applyDynamicCalibration(baseSlippage, ticker, symbol);
             
+            // Blend in the coefficients fitted from realized fills on this exchange
+            calibratedSlippage = SlippageCalibrator.getInstance().calibrate(
+                    ticker.getExchangeName(), symbol,
+                    SlippageCalibrator.Features.fromTicker(ticker, symbol, tradeSize),
+                    calibratedSlippage);
+            
             // Apply historical adjustment based on prediction accuracy
             double finalSlippage = applyHistoricalAdjustment(calibratedSlippage, symbol);
             
@@ -164,40 +170,28 @@ public class AdvancedSlippageCalculator {
             return baseSlippage;
         }
         
-        // Get relevant side of the order book
-        List<OrderBookEntry> relevantSide = isBuy ? orderBook.getAsks() : orderBook.getBids();
-        
-        // Calculate how much of the order book we'd consume with our trade
-        double remainingSize = tradeSize;
-        double totalCost = 0;
-        double totalSize = 0;
-        
-        for (OrderBookEntry entry : relevantSide) {
-            double available = entry.getVolume();
-            double taken = Math.min(remainingSize, available);
-            
-            totalCost += taken * entry.getPrice();
-            totalSize += taken;
-            remainingSize -= taken;
-            
-            if (remainingSize <= 0) {
-                break;
-            }
+        // Cumulative curve of the side we'd consume, shared by every size probed on this book
+        SlippageCurve curve = orderBook.getSlippageCurve(isBuy);
+        if (curve.isEmpty()) {
+            return baseSlippage;
         }
         
+        double totalSize = tradeSize;
+        double filledSize = Math.min(tradeSize, curve.getTotalQuantity());
+        double totalCost = curve.notionalForQuantity(filledSize);
+        double remainingSize = tradeSize - filledSize;
+        
         // If we couldn't fill the entire order from the visible order book
         if (remainingSize > 0) {
             // Use the last price level with a penalty
-            OrderBookEntry lastEntry = relevantSide.get(relevantSide.size() - 1);
-            totalCost += remainingSize * lastEntry.getPrice() * (isBuy ? 1.03 : 0.97); // 3% penalty
-            totalSize += remainingSize;
+            totalCost += remainingSize * curve.getWorstPrice() * (isBuy ? 1.03 : 0.97); // 3% penalty
         }
         
         // Calculate average execution price
         double avgPrice = totalCost / totalSize;
         
         // Calculate slippage relative to best price
-        double bestPrice = isBuy ? relevantSide.get(0).getPrice() : relevantSide.get(0).getPrice();
+        double bestPrice = curve.getBestPrice();
         double calculatedSlippage = isBuy ? 
             (avgPrice - bestPrice) / bestPrice : 
             (bestPrice - avgPrice) / bestPrice;
@@ -269,6 +263,25 @@ public class AdvancedSlippageCalculator {
         history.addObservation(predictedSlippage, actualSlippage);
     }
 
+    /**
+     * Records actual observed slippage together with the ticker the trade was priced from,
+     * so the fill also calibrates the model coefficients of the exchange and symbol class.
+     *
+     * @param ticker The ticker at pricing time
+     * @param symbol The trading symbol
+     * @param tradeSize The size of the trade in base currency
+     * @param predictedSlippage The slippage that was predicted before the trade
+     * @param actualSlippage The actual slippage that occurred during execution
+     */
+    public void recordActualSlippage(Ticker ticker, String symbol, double tradeSize,
+                                     double predictedSlippage, double actualSlippage) {
+        recordActualSlippage(symbol, predictedSlippage, actualSlippage);
+        if (ticker != null) {
+            SlippageCalibrator.getInstance().observe(ticker.getExchangeName(), symbol,
+                    SlippageCalibrator.Features.fromTicker(ticker, symbol, tradeSize), actualSlippage);
+        }
+    }
+
     /**
      * Updates market condition data for a symbol.
      *
@@ -281,25 +294,25 @@ public class AdvancedSlippageCalculator {
     }
 
     /**
-     * Helper class to track historical slippage prediction accuracy.
+     * Helper class to track historical slippage prediction accuracy over the most
+     * recent observations, so old regimes stop biasing the adjustment.
      */
     private static class SlippageHistory {
-        private double totalPredictionError = 0;
-        private int sampleCount = 0;
+        private static final int MAX_OBSERVATIONS = 100;
+        
+        private final DoubleRingBuffer predictionErrors = new DoubleRingBuffer(MAX_OBSERVATIONS);
         
         public void addObservation(double predicted, double actual) {
             // Positive error means we overestimated, negative means underestimated
-            double error = predicted - actual;
-            totalPredictionError += error;
-            sampleCount++;
+            predictionErrors.add(predicted - actual);
         }
         
         public double getAveragePredictionError() {
-            return sampleCount > 0 ? totalPredictionError / sampleCount : 0;
+            return predictionErrors.mean();
         }
         
         public int getSampleCount() {
-            return sampleCount;
+            return predictionErrors.size();
         }
     }
 
@@ -1,10 +1,8 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
-import android.util.Pair;
-
 import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.AppLog;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -69,7 +67,7 @@ public class AssetRiskCalculator {
             
             return assessment;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating asset risk for " + symbol + ": " + e.getMessage());
+            AppLog.e(TAG, "Error calculating asset risk for " + symbol + ": " + e.getMessage());
             return createDefaultRiskAssessment();
         }
     }
@@ -109,7 +107,7 @@ public class AssetRiskCalculator {
             
             return assessment;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating asset risk for " + symbol + ": " + e.getMessage());
+            AppLog.e(TAG, "Error calculating asset risk for " + symbol + ": " + e.getMessage());
             return createDefaultRiskAssessment();
         }
     }
@@ -1,13 +1,12 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.ArbitrageOpportunity;
 import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.util.AppLog;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 /**
  * Enhanced risk service that uses UnifiedRiskCalculator to ensure consistent
@@ -17,7 +16,7 @@ public class EnhancedRiskService {
     private static final String TAG = "EnhancedRiskService";
     
     private final UnifiedRiskCalculator riskCalculator;
-    private final ExecutorService executor;
+    private final Executor executor;
     
     // Singleton instance
     private static EnhancedRiskService instance;
@@ -27,7 +26,7 @@ public class EnhancedRiskService {
     
     private EnhancedRiskService() {
         this.riskCalculator = UnifiedRiskCalculator.getInstance();
-        this.executor = Executors.newCachedThreadPool();
+        this.executor = TaskScheduler.getInstance().executor(TaskScheduler.Workload.RISK);
     }
     
     /**
@@ -52,7 +51,7 @@ public class EnhancedRiskService {
             return future;
         }
         
-        Log.d(TAG, "Starting risk calculation for opportunity using UnifiedRiskCalculator");
+        AppLog.d(TAG, "Starting risk calculation for opportunity using UnifiedRiskCalculator");
         
         // Use a CompletableFuture to run the calculation asynchronously
         return CompletableFuture.supplyAsync(() -> {
@@ -63,15 +62,14 @@ public class EnhancedRiskService {
                 // Apply the assessment to update all fields in the opportunity
                 riskCalculator.applyRiskAssessment(opportunity, assessment);
                 
-                Log.d(TAG, String.format(
-                    "Risk calculation completed: Score=%.2f, Liquidity=%.2f, Volatility=%.2f",
+                AppLog.d(TAG, "Risk calculation completed: Score=%.2f, Liquidity=%.2f, Volatility=%.2f",
                     assessment.getOverallRiskScore(),
                     assessment.getLiquidityScore(),
-                    assessment.getVolatilityScore()));
+                    assessment.getVolatilityScore());
                 
                 return assessment;
             } catch (Exception e) {
-                Log.e(TAG, "Error calculating risk: " + e.getMessage(), e);
+                AppLog.e(TAG, "Error calculating risk: " + e.getMessage(), e);
                 return createDefaultRiskAssessment(0.4); // Medium risk for failed calculations
             }
         }, executor);
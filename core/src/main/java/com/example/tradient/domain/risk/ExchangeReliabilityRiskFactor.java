@@ -11,12 +11,10 @@ import com.example.tradient.data.model.ExchangeConfiguration;
 public class ExchangeReliabilityRiskFactor implements RiskFactor {
     
     private final double weight;
-    private final ExchangeConfiguration exchangeConfig;
     
     public ExchangeReliabilityRiskFactor() {
         // Load weight from configuration
         this.weight = ConfigurationFactory.getDouble("risk.factors.exchangeReliability.weight", 0.2);
-        this.exchangeConfig = ConfigurationFactory.getExchangeConfig();
     }
     
     @Override
@@ -24,6 +22,9 @@ public class ExchangeReliabilityRiskFactor implements RiskFactor {
         String buyExchange = opportunity.getBuyExchange();
         String sellExchange = opportunity.getSellExchange();
         
+        // Read from the current snapshot so reloaded scores apply immediately
+        ExchangeConfiguration exchangeConfig = ConfigurationFactory.getExchangeConfig();
+        
         // Get reliability scores for both exchanges (default to 0.9 if not specified)
         double buyExchangeReliability = exchangeConfig.getReliabilityScore(buyExchange, 0.9);
         double sellExchangeReliability = exchangeConfig.getReliabilityScore(sellExchange, 0.9);
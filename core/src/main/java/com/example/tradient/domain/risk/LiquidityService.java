@@ -1,10 +1,10 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.service.ExchangeService;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -64,12 +64,12 @@ public class LiquidityService {
             
             // Cache the result
             liquidityCache.put(symbol, liquidity);
-            lastUpdateTimestamps.put(symbol, System.currentTimeMillis());
+            lastUpdateTimestamps.put(symbol, MarketClock.currentTimeMillis());
             
-            Log.d(TAG, "Calculated liquidity for " + symbol + ": " + liquidity);
+            AppLog.d(TAG, "Calculated liquidity for " + symbol + ": " + liquidity);
             return liquidity;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating liquidity: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating liquidity: " + e.getMessage());
             return 0.5; // Default value on error
         }
     }
@@ -92,7 +92,7 @@ public class LiquidityService {
             
             return calculateLiquidity(buyOrderBook, sellOrderBook, symbol);
         } catch (Exception e) {
-            Log.e(TAG, "Error fetching data for liquidity calculation: " + e.getMessage());
+            AppLog.e(TAG, "Error fetching data for liquidity calculation: " + e.getMessage());
             return 0.5; // Default value on error
         }
     }
@@ -214,7 +214,7 @@ public class LiquidityService {
         }
         
         long lastUpdate = lastUpdateTimestamps.get(symbol);
-        long currentTime = System.currentTimeMillis();
+        long currentTime = MarketClock.currentTimeMillis();
         
         return (currentTime - lastUpdate) < CACHE_EXPIRY_MS;
     }
@@ -225,7 +225,7 @@ public class LiquidityService {
     public void clearCache() {
         liquidityCache.clear();
         lastUpdateTimestamps.clear();
-        Log.d(TAG, "Liquidity cache cleared");
+        AppLog.d(TAG, "Liquidity cache cleared");
     }
     
     /**
@@ -239,11 +239,11 @@ public class LiquidityService {
      */
     public double calculateRawLiquidity(OrderBook buyOrderBook, OrderBook sellOrderBook, String symbol) {
         if (buyOrderBook == null || sellOrderBook == null) {
-            Log.e(TAG, "Unable to calculate raw liquidity - order books are null");
+            AppLog.e(TAG, "Unable to calculate raw liquidity - order books are null");
             return 0.0;
         }
         
-        Log.d(TAG, "Calculating raw liquidity for " + symbol);
+        AppLog.d(TAG, "Calculating raw liquidity for " + symbol);
         
         double totalLiquidity = 0.0;
         
@@ -267,7 +267,7 @@ public class LiquidityService {
             }
         }
         
-        Log.d(TAG, "Raw liquidity for " + symbol + ": " + totalLiquidity);
+        AppLog.d(TAG, "Raw liquidity for " + symbol + ": " + totalLiquidity);
         return totalLiquidity;
     }
     
@@ -289,7 +289,7 @@ public class LiquidityService {
             
             return calculateRawLiquidity(buyOrderBook, sellOrderBook, symbol);
         } catch (Exception e) {
-            Log.e(TAG, "Error fetching data for raw liquidity calculation: " + e.getMessage());
+            AppLog.e(TAG, "Error fetching data for raw liquidity calculation: " + e.getMessage());
             return 0.0;
         }
     }
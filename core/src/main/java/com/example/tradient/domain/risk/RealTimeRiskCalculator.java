@@ -1,7 +1,5 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
-
 import com.example.tradient.api.BinanceApiAdapter;
 import com.example.tradient.api.ExchangeApiAdapter;
 import com.example.tradient.data.model.ArbitrageOpportunity;
@@ -9,15 +7,17 @@ import com.example.tradient.data.model.Candle;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.market.CandleAggregator;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.util.AppLog;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 /**
  * Enhanced risk calculator that uses real-time market data from exchanges
@@ -29,15 +29,37 @@ public class RealTimeRiskCalculator {
     // Exchange adapters for API access
     private final Map<String, ExchangeApiAdapter> exchangeAdapters = new HashMap<>();
     
+    // Local candle history fed by the WebSocket streams
+    private final CandleAggregator candleAggregator = CandleAggregator.getInstance();
+    
     // Default trade size for slippage calculations
     private static final double DEFAULT_TRADE_SIZE = 1000.0; // $1000 USD
     
+    // Time budget for fetching all market data of one assessment
+    private static final long DEFAULT_DEADLINE_MS = 5000;
+    
+    // Confidence weights of each input (buy and sell leg each), summing to 1.0
+    private static final double INPUT_WEIGHT_TICKER = 0.15;
+    private static final double INPUT_WEIGHT_ORDER_BOOK = 0.20;
+    private static final double INPUT_WEIGHT_HISTORY = 0.10;
+    private static final double INPUT_WEIGHT_FEE = 0.05;
+    
+    
     public RealTimeRiskCalculator() {
         // Initialize exchange adapters
         exchangeAdapters.put("binance", new BinanceApiAdapter());
         // Add other exchange adapters as needed
     }
     
+    /**
+     * Calculator with the given adapters only, keyed by their exchange names.
+     */
+    RealTimeRiskCalculator(ExchangeApiAdapter... adapters) {
+        for (ExchangeApiAdapter adapter : adapters) {
+            addExchangeAdapter(adapter.getExchangeName(), adapter);
+        }
+    }
+    
     /**
      * Calculate risk directly from an ArbitrageOpportunity object, 
      * using tickers and order books if they're already available
@@ -74,10 +96,10 @@ public class RealTimeRiskCalculator {
                 double profit = opportunity.getProfitPercent();
                 tradeSize = determineTradeSize(profit);
             } catch (Exception e) {
-                Log.d(TAG, "Could not get profit percentage, using default trade size");
+                AppLog.d(TAG, "Could not get profit percentage, using default trade size");
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error extracting opportunity details: " + e.getMessage());
+            AppLog.e(TAG, "Error extracting opportunity details: " + e.getMessage());
         }
         
         // Check if opportunity already has ticker data
@@ -88,12 +110,12 @@ public class RealTimeRiskCalculator {
             buyTicker = opportunity.getBuyTicker();
             sellTicker = opportunity.getSellTicker();
         } catch (Exception e) {
-            Log.d(TAG, "Tickers not available in opportunity object: " + e.getMessage());
+            AppLog.d(TAG, "Tickers not available in opportunity object: " + e.getMessage());
         }
         
         // Check if we need to fetch API data or use existing data
         if (buyTicker != null && sellTicker != null) {
-            Log.d(TAG, "Using existing ticker data for risk calculation");
+            AppLog.d(TAG, "Using existing ticker data for risk calculation");
             
             // Create final references for lambda capture
             final Ticker finalBuyTicker = buyTicker;
@@ -130,13 +152,13 @@ public class RealTimeRiskCalculator {
                                 java.lang.reflect.Method getSellOrderBookMethod = finalOpportunity.getClass().getMethod("getSellOrderBook");
                                 sellOrderBook = (OrderBook) getSellOrderBookMethod.invoke(finalOpportunity);
                             } catch (Exception ex) {
-                                Log.d(TAG, "No order book methods available: " + ex.getMessage());
+                                AppLog.d(TAG, "No order book methods available: " + ex.getMessage());
                                 buyOrderBook = null;
                                 sellOrderBook = null;
                             }
                         }
                     } catch (Exception e) {
-                        Log.d(TAG, "Order books not available: " + e.getMessage());
+                        AppLog.d(TAG, "Order books not available: " + e.getMessage());
                         buyOrderBook = null;
                         sellOrderBook = null;
                     }
@@ -150,10 +172,10 @@ public class RealTimeRiskCalculator {
                         finalTradeSize
                     );
                 } catch (Exception e) {
-                    Log.e(TAG, "Error calculating risk with existing data: " + e.getMessage());
+                    AppLog.e(TAG, "Error calculating risk with existing data: " + e.getMessage());
                     return createDefaultRiskAssessment(0.4);
                 }
-            });
+            }, TaskScheduler.getInstance().executor(TaskScheduler.Workload.RISK));
         } else {
             // Fetch data from APIs
             return calculateRisk(symbol, buyExchange, sellExchange, tradeSize);
@@ -176,6 +198,15 @@ public class RealTimeRiskCalculator {
         double volatilityScore = 0.6; // Default medium-low volatility without historical data
         double marketDepthScore = 0.5; // Default medium depth
         
+        // Use locally aggregated candles when the streams have built enough history
+        List<Candle> buyHistory = candleAggregator.getCandles(
+                buyTicker.getExchangeName(), symbol, CandleAggregator.Interval.ONE_HOUR, 24);
+        List<Candle> sellHistory = candleAggregator.getCandles(
+                sellTicker.getExchangeName(), symbol, CandleAggregator.Interval.ONE_HOUR, 24);
+        if (!buyHistory.isEmpty() && !sellHistory.isEmpty()) {
+            volatilityScore = calculateVolatilityScore(buyHistory, sellHistory);
+        }
+        
         // If order books are available, use them for better calculations
         if (buyOrderBook != null && sellOrderBook != null) {
             marketDepthScore = calculateMarketDepthScore(buyOrderBook, sellOrderBook);
@@ -246,76 +277,158 @@ public class RealTimeRiskCalculator {
             String buyExchange, 
             String sellExchange, 
             double tradeSize) {
+        return calculateRisk(symbol, buyExchange, sellExchange, tradeSize, DEFAULT_DEADLINE_MS);
+    }
+    
+    /**
+     * Calculate a risk assessment with a single deadline for all market data requests.
+     * <p>
+     * No thread waits for any of the requests. The assessment is scored as soon as every
+     * input has arrived, or when the deadline passes with whatever arrived by then; missing
+     * inputs fall back to neutral defaults and are recorded in the assessment's confidence.
+     * Cancelling the returned future cancels all outstanding HTTP requests.
+     *
+     * @param symbol The trading pair in normalized format (e.g., "BTC/USDT")
+     * @param buyExchange The name of the buy exchange
+     * @param sellExchange The name of the sell exchange
+     * @param tradeSize The size of the trade in USD
+     * @param deadlineMs Time budget for the whole assessment in milliseconds
+     * @return A CompletableFuture that resolves to a RiskAssessment
+     */
+    public CompletableFuture<RiskAssessment> calculateRisk(
+            String symbol, 
+            String buyExchange, 
+            String sellExchange, 
+            double tradeSize,
+            long deadlineMs) {
         
         if (symbol == null || symbol.isEmpty() || 
             buyExchange == null || buyExchange.isEmpty() ||
             sellExchange == null || sellExchange.isEmpty()) {
-            Log.e(TAG, "Invalid parameters for risk calculation");
-            CompletableFuture<RiskAssessment> future = new CompletableFuture<>();
-            future.complete(createDefaultRiskAssessment(0.3));
-            return future;
+            AppLog.e(TAG, "Invalid parameters for risk calculation");
+            return CompletableFuture.completedFuture(createDefaultRiskAssessment(0.3));
         }
         
-        Log.d(TAG, String.format("Calculating risk for %s: %s → %s", symbol, buyExchange, sellExchange));
+        AppLog.d(TAG, "Calculating risk for %s: %s → %s", symbol, buyExchange, sellExchange);
         
         // Get exchange adapters
         ExchangeApiAdapter buyAdapter = getExchangeAdapter(buyExchange);
         ExchangeApiAdapter sellAdapter = getExchangeAdapter(sellExchange);
         
         if (buyAdapter == null || sellAdapter == null) {
-            Log.e(TAG, "Exchange adapter not found for " + buyExchange + " or " + sellExchange);
-            CompletableFuture<RiskAssessment> future = new CompletableFuture<>();
-            future.complete(createDefaultRiskAssessment(0.4));
-            return future;
+            AppLog.e(TAG, "Exchange adapter not found for " + buyExchange + " or " + sellExchange);
+            return CompletableFuture.completedFuture(createDefaultRiskAssessment(0.4));
         }
         
         // Convert symbol to exchange formats
         String buySymbol = buyAdapter.convertSymbolToExchangeFormat(symbol);
         String sellSymbol = sellAdapter.convertSymbolToExchangeFormat(symbol);
         
-        // Create futures for all data we need
+        // Start every request at once; none of them is waited on
         CompletableFuture<Ticker> buyTickerFuture = buyAdapter.getTicker(buySymbol);
         CompletableFuture<Ticker> sellTickerFuture = sellAdapter.getTicker(sellSymbol);
         CompletableFuture<OrderBook> buyOrderBookFuture = buyAdapter.getOrderBook(buySymbol, 100);
         CompletableFuture<OrderBook> sellOrderBookFuture = sellAdapter.getOrderBook(sellSymbol, 100);
-        CompletableFuture<List<Candle>> buyHistoryFuture = buyAdapter.getHistoricalData(buySymbol, "1h", 24);
-        CompletableFuture<List<Candle>> sellHistoryFuture = sellAdapter.getHistoricalData(sellSymbol, "1h", 24);
+        // History comes from locally aggregated candles; these futures are already complete
+        CompletableFuture<List<Candle>> buyHistoryFuture = candleAggregator.getHistoricalData(buyAdapter, buySymbol, "1h", 24);
+        CompletableFuture<List<Candle>> sellHistoryFuture = candleAggregator.getHistoricalData(sellAdapter, sellSymbol, "1h", 24);
         CompletableFuture<Double> buyFeeFuture = buyAdapter.getTradingFee(buySymbol);
         CompletableFuture<Double> sellFeeFuture = sellAdapter.getTradingFee(sellSymbol);
         
-        // Combine all futures
-        return CompletableFuture.allOf(
+        CompletableFuture<?>[] inputs = {
                 buyTickerFuture, sellTickerFuture,
                 buyOrderBookFuture, sellOrderBookFuture,
                 buyHistoryFuture, sellHistoryFuture,
                 buyFeeFuture, sellFeeFuture
-        ).thenApply(v -> {
+        };
+        
+        CompletableFuture<RiskAssessment> result = new CompletableFuture<>();
+        
+        // Scores with whatever has arrived; runs at most once thanks to complete()
+        Runnable finish = () -> {
+            if (result.isDone()) {
+                return;
+            }
             try {
-                // Get all data from futures
-                Ticker buyTicker = buyTickerFuture.get(5, TimeUnit.SECONDS);
-                Ticker sellTicker = sellTickerFuture.get(5, TimeUnit.SECONDS);
-                OrderBook buyOrderBook = buyOrderBookFuture.get(5, TimeUnit.SECONDS);
-                OrderBook sellOrderBook = sellOrderBookFuture.get(5, TimeUnit.SECONDS);
-                List<Candle> buyHistory = buyHistoryFuture.get(5, TimeUnit.SECONDS);
-                List<Candle> sellHistory = sellHistoryFuture.get(5, TimeUnit.SECONDS);
-                double buyFee = buyFeeFuture.get(5, TimeUnit.SECONDS);
-                double sellFee = sellFeeFuture.get(5, TimeUnit.SECONDS);
-                
-                Log.d(TAG, String.format("Successfully fetched data for %s: Buy volume: %.2f, Sell volume: %.2f", 
-                     symbol, buyTicker.getVolume(), sellTicker.getVolume()));
+                Ticker buyTicker = valueOrNull(buyTickerFuture);
+                Ticker sellTicker = valueOrNull(sellTickerFuture);
+                OrderBook buyOrderBook = valueOrNull(buyOrderBookFuture);
+                OrderBook sellOrderBook = valueOrNull(sellOrderBookFuture);
+                List<Candle> buyHistory = valueOrNull(buyHistoryFuture);
+                List<Candle> sellHistory = valueOrNull(sellHistoryFuture);
+                Double buyFee = valueOrNull(buyFeeFuture);
+                Double sellFee = valueOrNull(sellFeeFuture);
                 
-                // Now calculate the risk metrics
-                return calculateRiskAssessment(
-                        symbol, buyTicker, sellTicker, buyOrderBook, sellOrderBook,
-                        buyHistory, sellHistory, buyFee, sellFee, tradeSize
+                RiskAssessment assessment = calculateRiskAssessment(
+                        symbol, buyExchange, sellExchange,
+                        buyTicker, sellTicker, buyOrderBook, sellOrderBook,
+                        buyHistory, sellHistory,
+                        buyFee != null ? buyFee : 0.0, sellFee != null ? sellFee : 0.0,
+                        tradeSize
                 );
                 
-            } catch (InterruptedException | ExecutionException | TimeoutException e) {
-                Log.e(TAG, "Error getting risk data: " + e.getMessage(), e);
-                // Return a default assessment with medium-high risk if we can't get data
-                return createDefaultRiskAssessment(0.3); // 0.3 = medium-high risk
+                double confidence = 1.0;
+                confidence -= markMissing(assessment, "buyTicker", buyTicker, INPUT_WEIGHT_TICKER);
+                confidence -= markMissing(assessment, "sellTicker", sellTicker, INPUT_WEIGHT_TICKER);
+                confidence -= markMissing(assessment, "buyOrderBook", buyOrderBook, INPUT_WEIGHT_ORDER_BOOK);
+                confidence -= markMissing(assessment, "sellOrderBook", sellOrderBook, INPUT_WEIGHT_ORDER_BOOK);
+                confidence -= markMissing(assessment, "buyHistory",
+                        buyHistory == null || buyHistory.isEmpty() ? null : buyHistory, INPUT_WEIGHT_HISTORY);
+                confidence -= markMissing(assessment, "sellHistory",
+                        sellHistory == null || sellHistory.isEmpty() ? null : sellHistory, INPUT_WEIGHT_HISTORY);
+                confidence -= markMissing(assessment, "buyFee", buyFee, INPUT_WEIGHT_FEE);
+                confidence -= markMissing(assessment, "sellFee", sellFee, INPUT_WEIGHT_FEE);
+                assessment.setConfidence(confidence);
+                
+                if (assessment.isPartial()) {
+                    AppLog.d(TAG, "Partial risk assessment for " + symbol + ", missing " + assessment.getMissingInputs());
+                }
+                result.complete(assessment);
+            } catch (Exception e) {
+                AppLog.e(TAG, "Error scoring risk data: " + e.getMessage(), e);
+                result.complete(createDefaultRiskAssessment(0.3)); // 0.3 = medium-high risk
+            }
+        };
+        
+        // Completes early when every input is in, otherwise at the deadline
+        CompletableFuture.allOf(inputs).whenComplete((v, error) -> finish.run());
+        // The deadline task only scores data already in memory, so it can run on the timer thread
+        ScheduledFuture<?> deadline = TaskScheduler.getInstance().schedule(finish, deadlineMs, TimeUnit.MILLISECONDS);
+        
+        // Once there is an answer, or the caller cancelled, cancel everything still pending;
+        // the adapters cancel the HTTP call behind each cancelled input
+        result.whenComplete((assessment, error) -> {
+            deadline.cancel(false);
+            for (CompletableFuture<?> input : inputs) {
+                if (!input.isDone()) {
+                    input.cancel(true);
+                }
             }
         });
+        
+        return result;
+    }
+    
+    /**
+     * Value of a finished future, or null if it is still pending or failed.
+     */
+    private static <T> T valueOrNull(CompletableFuture<T> future) {
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.getNow(null);
+    }
+    
+    /**
+     * Record a missing input on the assessment.
+     * @return The confidence weight lost because the input is missing
+     */
+    private static double markMissing(RiskAssessment assessment, String inputName, Object value, double weight) {
+        if (value != null) {
+            return 0.0;
+        }
+        assessment.addMissingInput(inputName);
+        return weight;
     }
     
     /**
@@ -336,6 +449,8 @@ public class RealTimeRiskCalculator {
      */
     private RiskAssessment calculateRiskAssessment(
             String symbol,
+            String buyExchange,
+            String sellExchange,
             Ticker buyTicker, 
             Ticker sellTicker,
             OrderBook buyOrderBook,
@@ -346,17 +461,19 @@ public class RealTimeRiskCalculator {
             double sellFee,
             double tradeSize) {
         
-        // Calculate individual risk components
-        double liquidityScore = calculateLiquidityScore(buyTicker, sellTicker);
-        double volatilityScore = calculateVolatilityScore(buyHistory, sellHistory);
+        // Calculate individual risk components; any input may be missing after a deadline
+        double liquidityScore = buyTicker != null && sellTicker != null
+                ? calculateLiquidityScore(buyTicker, sellTicker) : 0.5;
+        double volatilityScore = buyHistory != null && sellHistory != null
+                ? calculateVolatilityScore(buyHistory, sellHistory) : 0.5;
         double marketDepthScore = calculateMarketDepthScore(buyOrderBook, sellOrderBook);
-        double exchangeRiskScore = calculateExchangeRiskScore(buyTicker.getExchangeName(), sellTicker.getExchangeName());
+        double exchangeRiskScore = calculateExchangeRiskScore(buyExchange, sellExchange);
         double slippageEstimate = calculateSlippageEstimate(buyOrderBook, sellOrderBook, tradeSize);
         
         // Calculate execution time estimate
         double executionTimeEstimate = estimateExecutionTime(
-                buyTicker.getExchangeName(), 
-                sellTicker.getExchangeName(),
+                buyExchange, 
+                sellExchange,
                 volatilityScore
         );
         
@@ -380,21 +497,23 @@ public class RealTimeRiskCalculator {
         String riskLevel = getRiskLevelDescription(overallRiskScore);
         
         // Enhanced logging with more detailed breakdown
-        Log.d(TAG, "┌──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ RISK ASSESSMENT for %s", symbol));
-        Log.d(TAG, "├──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ OVERALL RISK SCORE: %.2f (%s)", overallRiskScore, riskLevel));
-        Log.d(TAG, "├──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ Liquidity:     %.2f", liquidityScore));
-        Log.d(TAG, String.format("│ Volatility:    %.2f", volatilityScore));
-        Log.d(TAG, String.format("│ Market Depth:  %.2f", marketDepthScore));
-        Log.d(TAG, String.format("│ Exchange Risk: %.2f", exchangeRiskScore));
-        Log.d(TAG, String.format("│ Slippage:      %.4f (%.2f%%)", slippageEstimate, slippageEstimate * 100));
-        Log.d(TAG, "├──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ Execution Time: %.1f min", executionTimeEstimate));
-        Log.d(TAG, String.format("│ ROI Efficiency: %.2f%% per hour", roiEfficiency * 100));
-        Log.d(TAG, String.format("│ Optimal Size:   $%.2f", optimalTradeSize));
-        Log.d(TAG, "└──────────────────────────────────────────────");
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "┌──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ RISK ASSESSMENT for %s", symbol);
+            AppLog.d(TAG, "├──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ OVERALL RISK SCORE: %.2f (%s)", overallRiskScore, riskLevel);
+            AppLog.d(TAG, "├──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ Liquidity:     %.2f", liquidityScore);
+            AppLog.d(TAG, "│ Volatility:    %.2f", volatilityScore);
+            AppLog.d(TAG, "│ Market Depth:  %.2f", marketDepthScore);
+            AppLog.d(TAG, "│ Exchange Risk: %.2f", exchangeRiskScore);
+            AppLog.d(TAG, "│ Slippage:      %.4f (%.2f%%)", slippageEstimate, slippageEstimate * 100);
+            AppLog.d(TAG, "├──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ Execution Time: %.1f min", executionTimeEstimate);
+            AppLog.d(TAG, "│ ROI Efficiency: %.2f%% per hour", roiEfficiency * 100);
+            AppLog.d(TAG, "│ Optimal Size:   $%.2f", optimalTradeSize);
+            AppLog.d(TAG, "└──────────────────────────────────────────────");
+        }
         
         // Create and return the risk assessment
         RiskAssessment assessment = new RiskAssessment(
@@ -546,8 +665,8 @@ public class RealTimeRiskCalculator {
         double totalSlippage = (buySlippage + sellSlippage) / 100.0; // Convert from percentage to decimal
         
         // Log actual calculated slippage before any normalization
-        Log.d(TAG, String.format("Raw slippage calculation: buy=%.4f%%, sell=%.4f%%, total=%.4f%%", 
-            buySlippage, sellSlippage, totalSlippage * 100));
+        AppLog.d(TAG, "Raw slippage calculation: buy=%.4f%%, sell=%.4f%%, total=%.4f%%",
+            buySlippage, sellSlippage, totalSlippage * 100);
         
         // Use wider range for more realistic values (0.05% to 10%)
         // Don't artificially constrain real-world data too much
@@ -584,8 +703,8 @@ public class RealTimeRiskCalculator {
         double timeEstimate = baseTime * avgFactor * volatilityFactor;
         
         // Log calculation components
-        Log.d(TAG, String.format("Time estimate calculation: base=%.1f, exchange=%.2f, volatility=%.2f → %.2f min", 
-            baseTime, avgFactor, volatilityFactor, timeEstimate));
+        AppLog.d(TAG, "Time estimate calculation: base=%.1f, exchange=%.2f, volatility=%.2f → %.2f min",
+            baseTime, avgFactor, volatilityFactor, timeEstimate);
             
         // Allow wider range of execution times (0.5 min to 15 min)
         return Math.min(15.0, Math.max(0.5, timeEstimate));
@@ -604,8 +723,8 @@ public class RealTimeRiskCalculator {
         double hourlyRoi = profit * (60.0 / executionTimeMinutes);
         
         // Log ROI efficiency calculation
-        Log.d(TAG, String.format("ROI efficiency: %.2f%% profit in %.2f min → %.4f%% per hour", 
-            profit * 100, executionTimeMinutes, hourlyRoi * 100));
+        AppLog.d(TAG, "ROI efficiency: %.2f%% profit in %.2f min → %.4f%% per hour",
+            profit * 100, executionTimeMinutes, hourlyRoi * 100);
         
         return hourlyRoi;
     }
@@ -650,10 +769,9 @@ public class RealTimeRiskCalculator {
         double slippageScore = 1.0 - Math.min(1.0, slippageEstimate * 10.0); 
         
         // Log all risk components for debugging
-        Log.d(TAG, String.format(
-            "Risk components: liquidity=%.2f, volatility=%.2f, depth=%.2f, exchange=%.2f, slippage=%.2f%%→%.2f", 
-            liquidityScore, volatilityScore, marketDepthScore, exchangeRiskScore, 
-            slippageEstimate * 100, slippageScore));
+        AppLog.d(TAG, "Risk components: liquidity=%.2f, volatility=%.2f, depth=%.2f, exchange=%.2f, slippage=%.2f%%→%.2f",
+            liquidityScore, volatilityScore, marketDepthScore, exchangeRiskScore,
+            slippageEstimate * 100, slippageScore);
         
         // Weight each component 
         double liquidityWeight = 0.25;
@@ -695,20 +813,22 @@ public class RealTimeRiskCalculator {
         String riskLevelDesc = getRiskLevelDescription(riskLevel);
         
         // Log the default assessment values
-        Log.d(TAG, "┌──────────────────────────────────────────────");
-        Log.d(TAG, "│ DEFAULT RISK ASSESSMENT");
-        Log.d(TAG, "├──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ OVERALL RISK SCORE: %.2f (%s)", riskLevel, riskLevelDesc));
-        Log.d(TAG, "├──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ Liquidity:     %.2f", liquidityScore));
-        Log.d(TAG, String.format("│ Volatility:    %.2f", volatilityScore));
-        Log.d(TAG, String.format("│ Exchange Risk: %.2f", exchangeRiskScore));
-        Log.d(TAG, String.format("│ Slippage:      %.4f (%.2f%%)", slippageEstimate, slippageEstimate * 100));
-        Log.d(TAG, "├──────────────────────────────────────────────");
-        Log.d(TAG, String.format("│ Execution Time: %.1f min", executionTimeEstimate));
-        Log.d(TAG, String.format("│ ROI Efficiency: %.2f%% per hour", roiEfficiency * 100));
-        Log.d(TAG, String.format("│ Optimal Size:   $%.2f", optimalTradeSize));
-        Log.d(TAG, "└──────────────────────────────────────────────");
+        if (AppLog.isDebugEnabled()) {
+            AppLog.d(TAG, "┌──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ DEFAULT RISK ASSESSMENT");
+            AppLog.d(TAG, "├──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ OVERALL RISK SCORE: %.2f (%s)", riskLevel, riskLevelDesc);
+            AppLog.d(TAG, "├──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ Liquidity:     %.2f", liquidityScore);
+            AppLog.d(TAG, "│ Volatility:    %.2f", volatilityScore);
+            AppLog.d(TAG, "│ Exchange Risk: %.2f", exchangeRiskScore);
+            AppLog.d(TAG, "│ Slippage:      %.4f (%.2f%%)", slippageEstimate, slippageEstimate * 100);
+            AppLog.d(TAG, "├──────────────────────────────────────────────");
+            AppLog.d(TAG, "│ Execution Time: %.1f min", executionTimeEstimate);
+            AppLog.d(TAG, "│ ROI Efficiency: %.2f%% per hour", roiEfficiency * 100);
+            AppLog.d(TAG, "│ Optimal Size:   $%.2f", optimalTradeSize);
+            AppLog.d(TAG, "└──────────────────────────────────────────────");
+        }
         
         // Return assembled assessment
         RiskAssessment assessment = new RiskAssessment(
@@ -0,0 +1,209 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.domain.market.MarketDataVersions;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of risk assessments.
+ * <p>
+ * Entries are keyed by the opportunity key and a quantized trade size bucket, and carry
+ * the {@link MarketDataVersions} of both legs at the time they were scored. A lookup only
+ * hits while both versions are unchanged, so any ticker or order book update of either
+ * leg invalidates the entry exactly; a stale entry is dropped on the lookup that finds it.
+ * The opportunity's own scoring inputs (prices, profit, fees, ticker volumes) are stored
+ * as well, so an older copy of an opportunity never picks up a newer copy's assessment.
+ * <p>
+ * Callers read both versions once with {@link #readVersions} before scoring and pass them
+ * to {@link #get} and {@link #put}. An update that arrives while the opportunity is being
+ * scored then leaves a stale entry behind, never one stored under the newer version.
+ * <p>
+ * Legs without a known version are never cached. Assessments are copied on the way in
+ * and out, so callers that annotate the assessment they get never affect another
+ * opportunity's copy.
+ */
+public class RiskAssessmentCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    // Consecutive trade size buckets differ by this factor
+    private static final double SIZE_BUCKET_RATIO = 1.25;
+    private static final double LOG_SIZE_BUCKET_RATIO = Math.log(SIZE_BUCKET_RATIO);
+
+    private static RiskAssessmentCache instance;
+
+    private final Map<String, CachedAssessment> entries;
+    private long hits;
+    private long misses;
+
+    private RiskAssessmentCache(int maxEntries) {
+        this.entries = new LinkedHashMap<String, CachedAssessment>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAssessment> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static synchronized RiskAssessmentCache getInstance() {
+        if (instance == null) {
+            instance = new RiskAssessmentCache(DEFAULT_MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    /**
+     * Read the current market data versions of both legs of an opportunity.
+     *
+     * @param opportunity The opportunity
+     * @return The versions, or null if either leg has no known version and can't be cached
+     */
+    public LegVersions readVersions(ArbitrageOpportunity opportunity) {
+        if (opportunity == null) {
+            return null;
+        }
+        long buyVersion = legVersion(opportunity, true);
+        long sellVersion = legVersion(opportunity, false);
+        if (buyVersion == MarketDataVersions.UNKNOWN || sellVersion == MarketDataVersions.UNKNOWN) {
+            return null;
+        }
+        return new LegVersions(buyVersion, sellVersion);
+    }
+
+    /**
+     * Look up the assessment of an opportunity.
+     *
+     * @param opportunity The opportunity
+     * @param tradeSize The trade size the assessment is for, or 0 if it doesn't depend on size
+     * @param versions The versions of both legs, see {@link #readVersions}
+     * @return A copy of the cached assessment, or null if there is none for these versions
+     */
+    public RiskAssessment get(ArbitrageOpportunity opportunity, double tradeSize, LegVersions versions) {
+        if (opportunity == null || versions == null) {
+            return null;
+        }
+
+        String key = cacheKey(opportunity, tradeSize);
+        synchronized (this) {
+            CachedAssessment entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (entry.buyVersion != versions.buy || entry.sellVersion != versions.sell) {
+                entries.remove(key);
+                misses++;
+                return null;
+            }
+            if (!Arrays.equals(entry.inputs, scoringInputs(opportunity))) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return new RiskAssessment(entry.assessment);
+        }
+    }
+
+    /**
+     * Store the assessment of an opportunity against the versions it was scored from.
+     *
+     * @param opportunity The opportunity that was scored
+     * @param tradeSize The trade size the assessment is for, or 0 if it doesn't depend on size
+     * @param versions The versions of both legs read before scoring, see {@link #readVersions}
+     * @param assessment The assessment
+     */
+    public void put(ArbitrageOpportunity opportunity, double tradeSize, LegVersions versions,
+                    RiskAssessment assessment) {
+        if (opportunity == null || versions == null || assessment == null) {
+            return;
+        }
+
+        CachedAssessment entry = new CachedAssessment(versions.buy, versions.sell, scoringInputs(opportunity),
+                new RiskAssessment(assessment));
+        String key = cacheKey(opportunity, tradeSize);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Fraction of lookups that were served from the cache.
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * Geometric bucket of a trade size, so sizes within about 25% of each other share
+     * an entry. Sizes of zero or less all map to bucket 0.
+     */
+    static int sizeBucket(double tradeSize) {
+        if (!(tradeSize > 1.0)) {
+            return tradeSize > 0 ? 1 : 0;
+        }
+        return 2 + (int) Math.floor(Math.log(tradeSize) / LOG_SIZE_BUCKET_RATIO);
+    }
+
+    private static String cacheKey(ArbitrageOpportunity opportunity, double tradeSize) {
+        return opportunity.getOpportunityKey() + "#" + sizeBucket(tradeSize);
+    }
+
+    private static long legVersion(ArbitrageOpportunity opportunity, boolean buySide) {
+        String symbol = opportunity.getNormalizedSymbol() != null
+                ? opportunity.getNormalizedSymbol() : opportunity.getSymbol();
+        String exchange = buySide ? opportunity.getBuyExchangeName() : opportunity.getSellExchangeName();
+        return MarketDataVersions.getInstance().getVersion(exchange, symbol);
+    }
+
+    private static double[] scoringInputs(ArbitrageOpportunity opportunity) {
+        return new double[] {
+                opportunity.getBuyPrice(),
+                opportunity.getSellPrice(),
+                opportunity.getProfitPercent(),
+                opportunity.getBuyFeePercentage(),
+                opportunity.getSellFeePercentage(),
+                opportunity.getBuyTicker() != null ? opportunity.getBuyTicker().getVolume() : 0,
+                opportunity.getSellTicker() != null ? opportunity.getSellTicker().getVolume() : 0
+        };
+    }
+
+    /**
+     * Market data versions of both legs of an opportunity at one point in time.
+     */
+    public static final class LegVersions {
+        private final long buy;
+        private final long sell;
+
+        private LegVersions(long buy, long sell) {
+            this.buy = buy;
+            this.sell = sell;
+        }
+    }
+
+    private static final class CachedAssessment {
+        private final long buyVersion;
+        private final long sellVersion;
+        private final double[] inputs;
+        private final RiskAssessment assessment;
+
+        private CachedAssessment(long buyVersion, long sellVersion, double[] inputs, RiskAssessment assessment) {
+            this.buyVersion = buyVersion;
+            this.sellVersion = sellVersion;
+            this.inputs = inputs;
+            this.assessment = assessment;
+        }
+    }
+}
@@ -4,7 +4,7 @@ import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.model.RiskConfiguration;
 import com.example.tradient.config.ConfigurationFactory;
-import android.util.Log;
+import com.example.tradient.util.AppLog;
 
 /**
  * Service for calculating risk scores using standardized components.
@@ -59,7 +59,7 @@ public class RiskCalculationService {
             
             return assessment;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating risk assessment: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating risk assessment: " + e.getMessage());
             return createFailedAssessment();
         }
     }
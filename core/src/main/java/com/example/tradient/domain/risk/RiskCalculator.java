@@ -5,8 +5,11 @@ import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.interfaces.IRiskManager;
 import com.example.tradient.config.ConfigurationFactory;
+import com.example.tradient.data.http.LatencyHistogram;
 import com.example.tradient.data.model.RiskConfiguration;
-import android.util.Log;
+import com.example.tradient.infrastructure.metrics.LatencyTracer;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+import com.example.tradient.util.AppLog;
 
 import java.util.Objects;
 import java.util.List;
@@ -47,16 +50,24 @@ public class RiskCalculator implements IRiskManager {
 
     private static final String TAG = "RiskCalculator";
 
+    // Time of one risk computation, by calculator
+    public static final String RISK_DURATION = "tradient_risk_duration_millis";
+    private static final LatencyHistogram RISK_TIME =
+            MetricsRegistry.getInstance().histogram(RISK_DURATION, "calculator", "risk");
+
     // Constants for risk calculation
     private static final double PREDICTIVE_RISK_FACTOR = 0.95;
     private static final double PREDICTIVE_CONFIDENCE = 0.75;
     private static final double MIN_VOLUME_THRESHOLD = 10000.0;
-    private static final double MAX_VOLATILITY_THRESHOLD = 0.03;
+    // Daily realized volatility that scores 0.5. BTC typically runs at 2-4% a day and
+    // large-cap altcoins at 4-8%, so those land between roughly 0.65 and 0.35.
+    private static final double REFERENCE_DAILY_VOLATILITY = 0.04;
 
     private final RiskWeights riskWeights;
     private final RiskConfiguration riskConfig;
     private final double minProfitPercent;
     private final RiskCalculationService riskCalculationService;
+    private final VolatilityService volatilityService = new VolatilityService();
 
     public RiskCalculator() {
         this.riskWeights = new RiskWeights();
@@ -73,6 +84,7 @@ public class RiskCalculator implements IRiskManager {
     }
 
     public RiskAssessment calculateRisk(Ticker buyTicker, Ticker sellTicker, double buyFees, double sellFees) {
+        long started = System.nanoTime();
         try {
             RiskAssessment assessment = new RiskAssessment();
             
@@ -87,6 +99,7 @@ public class RiskCalculator implements IRiskManager {
             // Set individual scores
             assessment.setLiquidityScore(liquidityScore);
             assessment.setVolatilityScore(volatilityScore);
+            assessment.setDailyVolatility(calculateDailyVolatility(buyTicker, sellTicker));
             assessment.setSlippageRisk(slippageScore);
             assessment.setMarketDepthScore(marketDepthScore);
             assessment.setExecutionSpeedRisk(executionSpeedScore);
@@ -111,8 +124,10 @@ public class RiskCalculator implements IRiskManager {
             
             return assessment;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating risk assessment: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating risk assessment: " + e.getMessage());
             return createFailedAssessment();
+        } finally {
+            RISK_TIME.recordNanos(System.nanoTime() - started);
         }
     }
 
@@ -149,6 +164,16 @@ public class RiskCalculator implements IRiskManager {
             return 0.0;
         }
 
+        // Prefer realized volatility from the live tick stream when both legs have it
+        RollingVolatilityEstimator estimator = RollingVolatilityEstimator.getInstance();
+        double buyVolatility = estimator.getDailyVolatility(buyTicker.getExchangeName(), buyTicker.getSymbol());
+        double sellVolatility = estimator.getDailyVolatility(sellTicker.getExchangeName(), sellTicker.getSymbol());
+        if (buyVolatility != RollingVolatilityEstimator.NO_DATA
+                && sellVolatility != RollingVolatilityEstimator.NO_DATA) {
+            double volatility = Math.max(buyVolatility, sellVolatility);
+            return RiskScoreValidator.normalizeRiskScore(volatilityScoreFromDaily(volatility));
+        }
+
         // Calculate price spread as a measure of volatility
         double buySpread = (buyTicker.getAskPrice() - buyTicker.getBidPrice()) / buyTicker.getLastPrice();
         double sellSpread = (sellTicker.getAskPrice() - sellTicker.getBidPrice()) / sellTicker.getLastPrice();
@@ -161,6 +186,31 @@ public class RiskCalculator implements IRiskManager {
         return 1.0 - spreadPercentile;
     }
 
+    /**
+     * Score a daily realized volatility: 1.0 for a flat market, 0.5 at
+     * {@link #REFERENCE_DAILY_VOLATILITY}, approaching 0 as volatility grows.
+     */
+    static double volatilityScoreFromDaily(double dailyVolatility) {
+        if (!(dailyVolatility > 0)) {
+            return 1.0;
+        }
+        return REFERENCE_DAILY_VOLATILITY / (REFERENCE_DAILY_VOLATILITY + dailyVolatility);
+    }
+
+    /**
+     * Realized daily volatility of the more volatile leg.
+     *
+     * @return Daily volatility as a decimal, or NO_DATA when neither leg has tick history
+     */
+    private double calculateDailyVolatility(Ticker buyTicker, Ticker sellTicker) {
+        if (buyTicker == null || sellTicker == null) {
+            return RollingVolatilityEstimator.NO_DATA;
+        }
+        RollingVolatilityEstimator estimator = RollingVolatilityEstimator.getInstance();
+        return Math.max(estimator.getDailyVolatility(buyTicker.getExchangeName(), buyTicker.getSymbol()),
+                estimator.getDailyVolatility(sellTicker.getExchangeName(), sellTicker.getSymbol()));
+    }
+
     private double calculateSlippageScore(Ticker buyTicker, Ticker sellTicker) {
         if (buyTicker == null || sellTicker == null) {
             return 0.0;
@@ -460,10 +510,11 @@ public class RiskCalculator implements IRiskManager {
             // Update opportunity with the risk assessment using the adapter
             com.example.tradient.util.RiskAssessmentAdapter.setRiskAssessment(opportunity, assessment);
             opportunity.setViable(assessment.getOverallRiskScore() >= RiskScoreConstants.MODERATE_RISK_THRESHOLD);
+            LatencyTracer.getInstance().onRiskAssessed(opportunity);
 
             return assessment;
         } catch (Exception e) {
-            Log.e(TAG, "Error assessing risk for opportunity: " + e.getMessage());
+            AppLog.e(TAG, "Error assessing risk for opportunity: " + e.getMessage());
             return createFailedAssessment();
         }
     }
@@ -486,7 +537,7 @@ public class RiskCalculator implements IRiskManager {
             double normalizedVolume = averageVolume / RiskScoreConstants.VOLUME_NORMALIZATION_FACTOR;
             return RiskScoreValidator.normalizeRiskScore(normalizedVolume);
         } catch (Exception e) {
-            Log.e(TAG, "Error assessing liquidity: " + e.getMessage());
+            AppLog.e(TAG, "Error assessing liquidity: " + e.getMessage());
             return RiskScoreConstants.MIN_RISK_SCORE;
         }
     }
@@ -494,13 +545,14 @@ public class RiskCalculator implements IRiskManager {
     @Override
     public double assessVolatility(String symbol) {
         try {
-            // Create empty lists for the required parameters
-            List<Ticker> buyTickers = new ArrayList<>();
-            List<Ticker> sellTickers = new ArrayList<>();
+            // Read the live estimate; no REST calls are made while scoring
+            double volatility = RollingVolatilityEstimator.getInstance().getDailyVolatility(symbol);
             
-            // Use VolatilityService to calculate volatility with the correct parameters
-            VolatilityService volatilityService = new VolatilityService();
-            double volatility = volatilityService.calculateVolatility(buyTickers, sellTickers, symbol);
+            if (volatility == RollingVolatilityEstimator.NO_DATA) {
+                // Stream not warmed up yet, use the per-asset fallback
+                volatility = volatilityService.calculateVolatility(
+                        Collections.emptyList(), Collections.emptyList(), symbol);
+            }
             
             if (volatility > RiskScoreConstants.MAX_VOLATILITY_THRESHOLD) {
                 return RiskScoreConstants.MIN_RISK_SCORE;
@@ -509,7 +561,7 @@ public class RiskCalculator implements IRiskManager {
             double normalizedVolatility = volatility / RiskScoreConstants.MAX_VOLATILITY_THRESHOLD;
             return RiskScoreValidator.normalizeRiskScore(1.0 - normalizedVolatility);
         } catch (Exception e) {
-            Log.e(TAG, "Error assessing volatility: " + e.getMessage());
+            AppLog.e(TAG, "Error assessing volatility: " + e.getMessage());
             return RiskScoreConstants.MIN_RISK_SCORE;
         }
     }
@@ -547,7 +599,7 @@ public class RiskCalculator implements IRiskManager {
             // Normalize to 0-1 range
             return RiskScoreValidator.normalizeRiskScore(weightedRisk);
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating risk: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating risk: " + e.getMessage());
             return RiskScoreConstants.MIN_RISK_SCORE;
         }
     }
@@ -566,7 +618,7 @@ public class RiskCalculator implements IRiskManager {
             double slippageFactor = totalSlippage / RiskScoreConstants.SLIPPAGE_NORMALIZATION_FACTOR;
             return RiskScoreValidator.normalizeRiskScore(1.0 - slippageFactor);
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating slippage risk: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating slippage risk: " + e.getMessage());
             return RiskScoreConstants.MIN_RISK_SCORE;
         }
     }
@@ -585,7 +637,7 @@ public class RiskCalculator implements IRiskManager {
             double depthRatio = Math.min(buyDepth, sellDepth) / averageVolume;
             return RiskScoreValidator.normalizeRiskScore(depthRatio);
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating market depth risk: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating market depth risk: " + e.getMessage());
             return RiskScoreConstants.MIN_RISK_SCORE;
         }
     }
@@ -596,7 +648,7 @@ public class RiskCalculator implements IRiskManager {
             double sellLatency = getExchangeLatencyScore(sellTicker.getExchangeName());
             return (buyLatency + sellLatency) / 2.0;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating execution speed risk: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating execution speed risk: " + e.getMessage());
             return RiskScoreConstants.MIN_RISK_SCORE;
         }
     }
@@ -667,6 +719,7 @@ public class RiskCalculator implements IRiskManager {
      * @return A risk assessment object with detailed risk metrics
      */
     public RiskAssessment calculateRiskAssessment(Ticker buyTicker, Ticker sellTicker, double buyFee, double sellFee) {
+        long started = System.nanoTime();
         try {
             if (buyTicker == null || sellTicker == null) {
                 return createFailedAssessment();
@@ -686,6 +739,7 @@ public class RiskCalculator implements IRiskManager {
             // Set assessment properties
             assessment.setLiquidityScore(liquidityScore);
             assessment.setVolatilityScore(volatilityScore);
+            assessment.setDailyVolatility(calculateDailyVolatility(buyTicker, sellTicker));
             assessment.setSlippageRisk(slippageRisk);
             assessment.setMarketDepthScore(marketDepthScore);
             assessment.setExecutionSpeedRisk(executionSpeedScore);
@@ -717,8 +771,10 @@ public class RiskCalculator implements IRiskManager {
             
             return assessment;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating risk assessment: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating risk assessment: " + e.getMessage());
             return createFailedAssessment();
+        } finally {
+            RISK_TIME.recordNanos(System.nanoTime() - started);
         }
     }
     
@@ -1,9 +1,8 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.ArbitrageOpportunity;
 import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.util.AppLog;
 
 /**
  * Utility class to ensure consistent risk calculations across all app screens.
@@ -20,12 +19,14 @@ public class RiskEnsurer {
      * Use this method before displaying any opportunity to ensure values are correct.
      * 
      * @param opportunity The opportunity to update
-     * @param forceRecalculation Whether to force recalculation even if an assessment exists
+     * @param forceRecalculation Whether to ignore the assessment already attached to the opportunity.
+     *                           The calculator still reuses its cached result while neither leg's
+     *                           market data has changed since it was scored.
      * @return The same opportunity with updated risk values
      */
     public static ArbitrageOpportunity ensureRiskValues(ArbitrageOpportunity opportunity, boolean forceRecalculation) {
         if (opportunity == null) {
-            Log.e(TAG, "Cannot ensure risk values for null opportunity");
+            AppLog.e(TAG, "Cannot ensure risk values for null opportunity");
             return null;
         }
         
@@ -35,13 +36,13 @@ public class RiskEnsurer {
             
             if (!forceRecalculation && existingRisk != null && existingRisk.isValid()) {
                 // Just make sure the values are properly copied to the opportunity
-                Log.d(TAG, "Using existing risk assessment for opportunity");
+                AppLog.d(TAG, "Using existing risk assessment for opportunity");
                 copyRiskValuesToOpportunity(opportunity, existingRisk);
                 return opportunity;
             }
             
-            // Calculate a fresh risk assessment
-            Log.d(TAG, "Calculating fresh risk assessment for opportunity");
+            // Calculate a fresh risk assessment, or reuse one for identical market data
+            AppLog.d(TAG, "Calculating risk assessment for opportunity");
             RiskAssessment newRisk = riskCalculator.calculateRisk(opportunity);
             
             // Apply the assessment and make sure values are properly copied
@@ -50,17 +51,16 @@ public class RiskEnsurer {
             // Double-check that values were properly copied
             copyRiskValuesToOpportunity(opportunity, newRisk);
             
-            Log.d(TAG, String.format(
-                "Risk values ensured - Risk: %.2f (%s), Liquidity: %.2f, Volatility: %.2f",
+            AppLog.d(TAG, "Risk values ensured - Risk: %.2f (%s), Liquidity: %.2f, Volatility: %.2f",
                 opportunity.getRiskScore(),
                 riskCalculator.getRiskLevelText(opportunity.getRiskScore()),
                 opportunity.getLiquidity(),
-                opportunity.getVolatility()));
+                opportunity.getVolatility());
                 
             return opportunity;
             
         } catch (Exception e) {
-            Log.e(TAG, "Error ensuring risk values: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error ensuring risk values: " + e.getMessage(), e);
             return opportunity;
         }
     }
@@ -1,6 +1,6 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
+import com.example.tradient.util.AppLog;
 
 /**
  * Validates risk scores and risk-related calculations.
@@ -74,7 +74,7 @@ public final class RiskScoreValidator {
      */
     public static void logInvalidRiskScore(double score, String source) {
         if (!isValidRiskScore(score)) {
-            Log.w(TAG, "Invalid risk score from " + source + ": " + score);
+            AppLog.w(TAG, "Invalid risk score from " + source + ": " + score);
         }
     }
 
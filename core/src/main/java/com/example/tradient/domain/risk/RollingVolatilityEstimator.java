@@ -0,0 +1,378 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.MarketClock;
+import com.example.tradient.util.SymbolNormalizer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streaming volatility estimator fed directly by the live ticker and trade streams.
+ * <p>
+ * For every (exchange, symbol) pair it keeps one fixed-size ring buffer of log returns per
+ * horizon. Each horizon samples the price at its own interval, so the 24h window needs the
+ * same handful of slots as the 1m window. Two estimates are maintained incrementally on
+ * every sample:
+ * <ul>
+ *   <li>a windowed Welford variance (exact variance of the returns still in the window)</li>
+ *   <li>an EWMA of squared returns, which reacts faster to a sudden regime change</li>
+ * </ul>
+ * Reads never iterate over history, so risk scoring and slippage estimation can query the
+ * estimator on every opportunity without REST calls or cache expiry logic.
+ * <p>
+ * Volatility values are standard deviations of the log return over the horizon itself
+ * (e.g., 0.004 means a typical 0.4% move over 15 minutes).
+ */
+public class RollingVolatilityEstimator {
+
+    /**
+     * Returned by the read methods when there are not enough samples yet.
+     */
+    public static final double NO_DATA = -1.0;
+
+    // Minimum samples in a window before its estimate is considered meaningful
+    private static final int MIN_SAMPLES = 5;
+
+    private static final long ONE_DAY_MS = 24L * 60 * 60 * 1000;
+
+    /**
+     * Supported estimation horizons with the interval at which each one samples the price.
+     */
+    public enum Horizon {
+        ONE_MINUTE(60_000L, 1_000L),
+        FIFTEEN_MINUTES(15 * 60_000L, 15_000L),
+        ONE_HOUR(60 * 60_000L, 60_000L),
+        ONE_DAY(ONE_DAY_MS, 15 * 60_000L);
+
+        private final long durationMs;
+        private final long sampleIntervalMs;
+
+        Horizon(long durationMs, long sampleIntervalMs) {
+            this.durationMs = durationMs;
+            this.sampleIntervalMs = sampleIntervalMs;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getSampleIntervalMs() {
+            return sampleIntervalMs;
+        }
+
+        /**
+         * Number of samples that make up one full window.
+         */
+        public int getCapacity() {
+            return (int) (durationMs / sampleIntervalMs);
+        }
+    }
+
+    private static final Horizon[] HORIZONS = Horizon.values();
+
+    private static RollingVolatilityEstimator instance;
+
+    // exchange|symbol -> series
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    // symbol -> series of every exchange quoting it
+    private final Map<String, List<Series>> seriesBySymbol = new ConcurrentHashMap<>();
+
+    /**
+     * Get the shared estimator instance.
+     */
+    public static synchronized RollingVolatilityEstimator getInstance() {
+        if (instance == null) {
+            instance = new RollingVolatilityEstimator();
+        }
+        return instance;
+    }
+
+    /**
+     * Feed a ticker update. Uses the last traded price, or the mid price when the
+     * exchange stream only carries the top of book.
+     *
+     * @param exchangeName The exchange the ticker came from
+     * @param symbol The trading pair symbol
+     * @param ticker The ticker update
+     */
+    public void onTicker(String exchangeName, String symbol, Ticker ticker) {
+        if (ticker == null) {
+            return;
+        }
+
+        double price = ticker.getLastPrice();
+        if (price <= 0 && ticker.getBidPrice() > 0 && ticker.getAskPrice() > 0) {
+            price = (ticker.getBidPrice() + ticker.getAskPrice()) / 2.0;
+        }
+
+        long timestamp = ticker.getTimestamp() != null
+                ? ticker.getTimestamp().getTime()
+                : MarketClock.currentTimeMillis();
+
+        onPrice(exchangeName, symbol != null ? symbol : ticker.getSymbol(), price, timestamp);
+    }
+
+    /**
+     * Feed an executed trade.
+     *
+     * @param exchangeName The exchange the trade happened on
+     * @param symbol The trading pair symbol
+     * @param price The trade price
+     * @param timestamp The trade time in epoch milliseconds
+     */
+    public void onTrade(String exchangeName, String symbol, double price, long timestamp) {
+        onPrice(exchangeName, symbol, price, timestamp);
+    }
+
+    private void onPrice(String exchangeName, String symbol, double price, long timestamp) {
+        if (exchangeName == null || symbol == null || price <= 0 || Double.isNaN(price)) {
+            return;
+        }
+
+        String symbolKey = SymbolNormalizer.normalize(symbol);
+        String key = exchangeName.toLowerCase(Locale.ROOT) + "|" + symbolKey;
+
+        Series s = series.get(key);
+        if (s == null) {
+            s = series.computeIfAbsent(key, k -> {
+                Series created = new Series();
+                seriesBySymbol.computeIfAbsent(symbolKey, sk -> new CopyOnWriteArrayList<>()).add(created);
+                return created;
+            });
+        }
+        s.update(price, timestamp);
+    }
+
+    /**
+     * Volatility of a symbol on one exchange over the given horizon.
+     *
+     * @return Standard deviation of the horizon return, or {@link #NO_DATA}
+     */
+    public double getVolatility(String exchangeName, String symbol, Horizon horizon) {
+        Series s = getSeries(exchangeName, symbol);
+        return s != null ? s.volatility(horizon.ordinal()) : NO_DATA;
+    }
+
+    /**
+     * Volatility of a symbol over the given horizon, taking the most volatile exchange.
+     *
+     * @return Standard deviation of the horizon return, or {@link #NO_DATA}
+     */
+    public double getVolatility(String symbol, Horizon horizon) {
+        if (symbol == null) {
+            return NO_DATA;
+        }
+
+        List<Series> all = seriesBySymbol.get(SymbolNormalizer.normalize(symbol));
+        if (all == null) {
+            return NO_DATA;
+        }
+
+        double result = NO_DATA;
+        for (Series s : all) {
+            result = Math.max(result, s.volatility(horizon.ordinal()));
+        }
+        return result;
+    }
+
+    /**
+     * Volatility of a symbol on one exchange expressed on a 24 hour scale.
+     * Uses the 24h window when it is populated, otherwise scales the longest
+     * populated shorter horizon by the square root of time.
+     *
+     * @return Daily volatility as a decimal (e.g., 0.03 = 3%), or {@link #NO_DATA}
+     */
+    public double getDailyVolatility(String exchangeName, String symbol) {
+        Series s = getSeries(exchangeName, symbol);
+        return s != null ? s.dailyVolatility() : NO_DATA;
+    }
+
+    /**
+     * Daily volatility of a symbol, taking the most volatile exchange.
+     *
+     * @return Daily volatility as a decimal (e.g., 0.03 = 3%), or {@link #NO_DATA}
+     */
+    public double getDailyVolatility(String symbol) {
+        if (symbol == null) {
+            return NO_DATA;
+        }
+
+        List<Series> all = seriesBySymbol.get(SymbolNormalizer.normalize(symbol));
+        if (all == null) {
+            return NO_DATA;
+        }
+
+        double result = NO_DATA;
+        for (Series s : all) {
+            result = Math.max(result, s.dailyVolatility());
+        }
+        return result;
+    }
+
+    /**
+     * Number of samples currently in the window of one horizon.
+     */
+    public int getSampleCount(String exchangeName, String symbol, Horizon horizon) {
+        Series s = getSeries(exchangeName, symbol);
+        return s != null ? s.sampleCount(horizon.ordinal()) : 0;
+    }
+
+    /**
+     * Drop all streaming state, e.g. after reconnecting to every exchange.
+     */
+    public void clear() {
+        series.clear();
+        seriesBySymbol.clear();
+    }
+
+    private Series getSeries(String exchangeName, String symbol) {
+        if (exchangeName == null || symbol == null) {
+            return null;
+        }
+        return series.get(exchangeName.toLowerCase(Locale.ROOT) + "|" + SymbolNormalizer.normalize(symbol));
+    }
+
+
+    /**
+     * Rolling state for one (exchange, symbol) pair. All per-horizon state lives in
+     * primitive arrays indexed by {@link Horizon#ordinal()}.
+     */
+    private static final class Series {
+        private long lastTimestamp;
+
+        private final double[] anchorPrice = new double[HORIZONS.length];
+        private final long[] anchorTime = new long[HORIZONS.length];
+
+        private final double[][] returns = new double[HORIZONS.length][];
+        private final int[] head = new int[HORIZONS.length];
+        private final int[] count = new int[HORIZONS.length];
+
+        // Windowed Welford state
+        private final double[] mean = new double[HORIZONS.length];
+        private final double[] m2 = new double[HORIZONS.length];
+
+        // EWMA of squared returns, smoothing factor derived from the window length
+        private final double[] ewmaVariance = new double[HORIZONS.length];
+        private final double[] ewmaAlpha = new double[HORIZONS.length];
+
+        private Series() {
+            for (int h = 0; h < HORIZONS.length; h++) {
+                int capacity = HORIZONS[h].getCapacity();
+                returns[h] = new double[capacity];
+                ewmaAlpha[h] = 2.0 / (capacity + 1);
+            }
+        }
+
+        synchronized void update(double price, long timestamp) {
+            if (timestamp <= lastTimestamp) {
+                // Duplicate or out of order update
+                return;
+            }
+            lastTimestamp = timestamp;
+
+            for (int h = 0; h < HORIZONS.length; h++) {
+                if (anchorTime[h] == 0) {
+                    anchorPrice[h] = price;
+                    anchorTime[h] = timestamp;
+                    continue;
+                }
+
+                long elapsed = timestamp - anchorTime[h];
+                long interval = HORIZONS[h].getSampleIntervalMs();
+                if (elapsed < interval) {
+                    continue;
+                }
+
+                if (elapsed > HORIZONS[h].getDurationMs()) {
+                    // The feed was silent for longer than the whole window
+                    reset(h);
+                } else {
+                    // Scale returns spanning several intervals back to one interval
+                    double r = Math.log(price / anchorPrice[h]);
+                    if (elapsed >= 2 * interval) {
+                        r /= Math.sqrt((double) elapsed / interval);
+                    }
+                    addSample(h, r);
+                }
+
+                anchorPrice[h] = price;
+                anchorTime[h] = timestamp;
+            }
+        }
+
+        private void addSample(int h, double r) {
+            double[] ring = returns[h];
+            int capacity = ring.length;
+
+            if (count[h] == capacity) {
+                // Window full: remove the oldest return from the running moments
+                double old = ring[head[h]];
+                int n = count[h] - 1;
+                if (n == 0) {
+                    mean[h] = 0;
+                    m2[h] = 0;
+                } else {
+                    double delta = old - mean[h];
+                    mean[h] -= delta / n;
+                    m2[h] -= delta * (old - mean[h]);
+                }
+                count[h] = n;
+            }
+
+            ring[head[h]] = r;
+            head[h] = (head[h] + 1) % capacity;
+
+            int n = count[h] + 1;
+            double delta = r - mean[h];
+            mean[h] += delta / n;
+            m2[h] = Math.max(0, m2[h] + delta * (r - mean[h]));
+            count[h] = n;
+
+            if (n == 1) {
+                ewmaVariance[h] = r * r;
+            } else {
+                ewmaVariance[h] = ewmaAlpha[h] * r * r + (1 - ewmaAlpha[h]) * ewmaVariance[h];
+            }
+        }
+
+        private void reset(int h) {
+            head[h] = 0;
+            count[h] = 0;
+            mean[h] = 0;
+            m2[h] = 0;
+            ewmaVariance[h] = 0;
+        }
+
+        synchronized int sampleCount(int h) {
+            return count[h];
+        }
+
+        /**
+         * Per-interval variance scaled to the full horizon. The larger of the Welford and
+         * EWMA estimates is used so a fresh spike is not averaged away by a calm window.
+         */
+        synchronized double volatility(int h) {
+            if (count[h] < MIN_SAMPLES) {
+                return NO_DATA;
+            }
+            double welford = m2[h] / (count[h] - 1);
+            double perInterval = Math.max(welford, ewmaVariance[h]);
+            return Math.sqrt(perInterval * HORIZONS[h].getCapacity());
+        }
+
+        synchronized double dailyVolatility() {
+            for (int h = HORIZONS.length - 1; h >= 0; h--) {
+                double v = volatility(h);
+                if (v != NO_DATA) {
+                    return v * Math.sqrt((double) ONE_DAY_MS / HORIZONS[h].getDurationMs());
+                }
+            }
+            return NO_DATA;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.AppLog;
 import java.time.Instant;
+import java.util.Map;
 
 /**
  * SlippageAnalyticsBuilder provides a convenient builder pattern for creating and accessing
@@ -116,7 +117,7 @@ public class SlippageAnalyticsBuilder {
      */
     public double calculateSlippage(Ticker ticker, OrderBook orderBook, double tradeSize, boolean isBuy, String symbol) {
         // Order book is now ignored in the updated implementation
-        Log.w(TAG, "Order book parameter is ignored in the updated slippage calculation");
+        AppLog.w(TAG, "Order book parameter is ignored in the updated slippage calculation");
         return slippageManager.calculateSlippage(ticker, tradeSize, isBuy, symbol);
     }
     
@@ -131,6 +132,20 @@ public class SlippageAnalyticsBuilder {
         return stressTester.performStressTest(symbol, baseTicker);
     }
     
+    /**
+     * Convenience method to run a Monte Carlo stress test over a set of order books.
+     *
+     * @param books Order books by symbol, then by exchange
+     * @param tradeSizes Trade sizes in quote currency
+     * @param config Shock parameters, iteration count and seed
+     * @return Percentile distributions per symbol and trade size
+     */
+    public SlippageStressTester.MonteCarloReport runMonteCarloStressTest(
+            Map<String, Map<String, OrderBook>> books, double[] tradeSizes,
+            SlippageStressTester.MonteCarloConfig config) {
+        return stressTester.runMonteCarlo(books, tradeSizes, config);
+    }
+    
     /**
      * Convenience method to update volatility data.
      *
@@ -145,19 +160,23 @@ public class SlippageAnalyticsBuilder {
     }
     
     /**
-     * Records a pending trade in the feedback system.
+     * Records a pending trade in the feedback system. The exchange and the ticker the
+     * trade was priced from let its realized fill calibrate that exchange's slippage model.
      *
      * @param tradeId The unique ID of the trade
+     * @param exchangeName The exchange the trade executes on
      * @param symbol The trading symbol
+     * @param ticker The ticker the trade was priced from
      * @param tradeSize The size of the trade
      * @param isBuy Whether this is a buy (true) or sell (false) order
      * @param predictedSlippage The predicted slippage for the trade
      * @return This builder instance for method chaining
      */
-    public SlippageAnalyticsBuilder recordPendingTrade(String tradeId, String symbol, 
-                                                      double tradeSize, boolean isBuy, 
+    public SlippageAnalyticsBuilder recordPendingTrade(String tradeId, String exchangeName, String symbol,
+                                                      Ticker ticker, double tradeSize, boolean isBuy,
                                                       double predictedSlippage) {
-        slippageManager.recordPendingTrade(tradeId, symbol, tradeSize, isBuy, predictedSlippage);
+        slippageManager.recordPendingTrade(tradeId, exchangeName, symbol, ticker, tradeSize, isBuy,
+                predictedSlippage);
         return this;
     }
     
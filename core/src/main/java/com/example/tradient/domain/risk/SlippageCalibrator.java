@@ -0,0 +1,346 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.AppLog;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online calibration of the slippage model from realized fills.
+ * <p>
+ * For every (exchange, symbol class) pair a linear model
+ * <pre>
+ *     slippage = w0 + w1 * spread + w2 * relativeSize + w3 * volatility * relativeSize
+ * </pre>
+ * is fitted with recursive least squares and a forgetting factor, so recent fills weigh
+ * more than old ones. Each key holds a 4x4 covariance matrix and 4 weights, which keeps
+ * memory constant no matter how many fills are observed.
+ * <p>
+ * After every update the weights are published as an immutable {@link Coefficients}
+ * snapshot. Calculators read the snapshot without locking and never see a half-updated
+ * model. Until a key has seen enough fills its prediction is blended with the caller's
+ * heuristic estimate, weighted by the number of fills.
+ */
+public class SlippageCalibrator {
+    private static final String TAG = "SlippageCalibrator";
+
+    private static final int FEATURE_COUNT = 4;
+
+    // Weight of older observations per update; ~200 fills of effective memory
+    private static final double FORGETTING_FACTOR = 0.995;
+
+    // Initial covariance; large values let the first fills move the weights quickly
+    private static final double INITIAL_COVARIANCE = 1000.0;
+    private static final double MAX_COVARIANCE_TRACE = FEATURE_COUNT * INITIAL_COVARIANCE;
+
+    // Fills needed before the fitted model fully replaces the heuristic estimate
+    private static final int FULL_CONFIDENCE_SAMPLES = 50;
+
+    // Used when the streaming estimator has no volatility for the pair yet
+    private static final double DEFAULT_VOLATILITY = 0.02;
+
+    private static final double MIN_SLIPPAGE = 0.0;
+    private static final double MAX_SLIPPAGE = 0.05;
+
+    // Roughly the hand-tuned model: half the spread with a 1.5 factor, size and volatility impact
+    private static final double[] PRIOR_WEIGHTS = {0.0001, 0.75, 0.7, 1.2};
+
+    private static SlippageCalibrator instance;
+
+    private final ConcurrentHashMap<String, Model> models = new ConcurrentHashMap<>();
+
+    private SlippageCalibrator() {
+    }
+
+    public static synchronized SlippageCalibrator getInstance() {
+        if (instance == null) {
+            instance = new SlippageCalibrator();
+        }
+        return instance;
+    }
+
+    /**
+     * Coarse grouping of symbols that share slippage behaviour.
+     */
+    public enum SymbolClass {
+        MAJOR,
+        LARGE_CAP,
+        STABLE,
+        ALT;
+
+        public static SymbolClass of(String symbol) {
+            if (symbol == null) {
+                return ALT;
+            }
+            String base = baseAsset(symbol);
+            switch (base) {
+                case "BTC":
+                case "XBT":
+                case "ETH":
+                    return MAJOR;
+                case "SOL":
+                case "XRP":
+                case "BNB":
+                case "ADA":
+                case "DOGE":
+                case "DOT":
+                case "AVAX":
+                case "LINK":
+                case "LTC":
+                case "TRX":
+                    return LARGE_CAP;
+                case "USDT":
+                case "USDC":
+                case "DAI":
+                case "BUSD":
+                case "TUSD":
+                case "FDUSD":
+                    return STABLE;
+                default:
+                    return ALT;
+            }
+        }
+
+        private static String baseAsset(String symbol) {
+            String upper = symbol.toUpperCase(Locale.ROOT);
+            for (String separator : new String[] {"/", "-", "_", ":"}) {
+                int index = upper.indexOf(separator);
+                if (index > 0) {
+                    return upper.substring(0, index);
+                }
+            }
+            for (String quote : new String[] {"USDT", "USDC", "BUSD", "USD", "EUR", "BTC", "ETH"}) {
+                if (upper.length() > quote.length() && upper.endsWith(quote)) {
+                    return upper.substring(0, upper.length() - quote.length());
+                }
+            }
+            return upper;
+        }
+    }
+
+    /**
+     * Model inputs of one trade.
+     */
+    public static class Features {
+        private final double spread;
+        private final double relativeSize;
+        private final double volatility;
+
+        public Features(double spread, double relativeSize, double volatility) {
+            this.spread = Math.max(0, spread);
+            this.relativeSize = Math.max(0, Math.min(1.0, relativeSize));
+            this.volatility = Math.max(0, volatility);
+        }
+
+        /**
+         * Derive the features from a ticker.
+         *
+         * @param ticker The ticker of the exchange the trade executes on
+         * @param symbol The trading symbol
+         * @param tradeSize The trade size in base currency
+         * @return The features, or null if the ticker lacks prices or volume
+         */
+        public static Features fromTicker(Ticker ticker, String symbol, double tradeSize) {
+            if (ticker == null || ticker.getBidPrice() <= 0 || ticker.getAskPrice() <= 0
+                    || ticker.getVolume() <= 0) {
+                return null;
+            }
+            double mid = (ticker.getBidPrice() + ticker.getAskPrice()) / 2.0;
+            double spread = Math.abs(ticker.getAskPrice() - ticker.getBidPrice()) / mid;
+            double relativeSize = tradeSize / ticker.getVolume();
+
+            double volatility = RollingVolatilityEstimator.NO_DATA;
+            if (symbol != null) {
+                RollingVolatilityEstimator estimator = RollingVolatilityEstimator.getInstance();
+                volatility = ticker.getExchangeName() != null
+                        ? estimator.getDailyVolatility(ticker.getExchangeName(), symbol)
+                        : estimator.getDailyVolatility(symbol);
+            }
+            if (volatility == RollingVolatilityEstimator.NO_DATA) {
+                volatility = DEFAULT_VOLATILITY;
+            }
+            return new Features(spread, relativeSize, volatility);
+        }
+
+        public double getSpread() {
+            return spread;
+        }
+
+        public double getRelativeSize() {
+            return relativeSize;
+        }
+
+        public double getVolatility() {
+            return volatility;
+        }
+
+        private void fill(double[] x) {
+            x[0] = 1.0;
+            x[1] = spread;
+            x[2] = relativeSize;
+            x[3] = volatility * relativeSize;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the fitted weights of one key.
+     */
+    public static final class Coefficients {
+        private final double[] weights;
+        private final long samples;
+
+        private Coefficients(double[] weights, long samples) {
+            this.weights = weights;
+            this.samples = samples;
+        }
+
+        public double getWeight(int index) {
+            return weights[index];
+        }
+
+        public long getSamples() {
+            return samples;
+        }
+
+        /**
+         * Fraction of the prediction that comes from the fitted model rather than the prior.
+         */
+        public double getConfidence() {
+            return Math.min(1.0, samples / (double) FULL_CONFIDENCE_SAMPLES);
+        }
+
+        public double predict(Features features) {
+            double prediction = weights[0]
+                    + weights[1] * features.spread
+                    + weights[2] * features.relativeSize
+                    + weights[3] * features.volatility * features.relativeSize;
+            return Math.max(MIN_SLIPPAGE, Math.min(MAX_SLIPPAGE, prediction));
+        }
+    }
+
+    /**
+     * Feed one realized fill into the model of its key.
+     *
+     * @param exchangeName The exchange the trade executed on
+     * @param symbol The trading symbol
+     * @param features The features captured when the trade was priced
+     * @param actualSlippage The realized slippage as a decimal
+     */
+    public void observe(String exchangeName, String symbol, Features features, double actualSlippage) {
+        if (features == null || Double.isNaN(actualSlippage) || Double.isInfinite(actualSlippage)) {
+            return;
+        }
+        Model model = models.computeIfAbsent(key(exchangeName, symbol), k -> new Model());
+        model.update(features, actualSlippage);
+    }
+
+    /**
+     * Current published coefficients of a key.
+     *
+     * @return The snapshot, or null if no fill has been observed for the key
+     */
+    public Coefficients getCoefficients(String exchangeName, String symbol) {
+        Model model = models.get(key(exchangeName, symbol));
+        return model != null ? model.published : null;
+    }
+
+    /**
+     * Calibrate a heuristic slippage estimate with the fitted model of its key.
+     *
+     * @param exchangeName The exchange the trade would execute on
+     * @param symbol The trading symbol
+     * @param features The features of the trade
+     * @param heuristicSlippage The calculator's own estimate
+     * @return The calibrated estimate, or the heuristic one if there is no model yet
+     */
+    public double calibrate(String exchangeName, String symbol, Features features, double heuristicSlippage) {
+        if (features == null) {
+            return heuristicSlippage;
+        }
+        Coefficients coefficients = getCoefficients(exchangeName, symbol);
+        if (coefficients == null) {
+            return heuristicSlippage;
+        }
+        double confidence = coefficients.getConfidence();
+        return coefficients.predict(features) * confidence + heuristicSlippage * (1.0 - confidence);
+    }
+
+    public void clear() {
+        models.clear();
+    }
+
+    private static String key(String exchangeName, String symbol) {
+        String exchange = exchangeName != null ? exchangeName.toLowerCase(Locale.ROOT) : "unknown";
+        return exchange + "|" + SymbolClass.of(symbol);
+    }
+
+    /**
+     * Recursive least squares state of one key. Updates are serialized per key; readers
+     * only touch the volatile snapshot.
+     */
+    private static final class Model {
+        private final double[] weights = PRIOR_WEIGHTS.clone();
+        private final double[][] covariance = new double[FEATURE_COUNT][FEATURE_COUNT];
+        private final double[] x = new double[FEATURE_COUNT];
+        private final double[] gain = new double[FEATURE_COUNT];
+        private final double[] px = new double[FEATURE_COUNT];
+        private long samples;
+        private volatile Coefficients published;
+
+        private Model() {
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                covariance[i][i] = INITIAL_COVARIANCE;
+            }
+        }
+
+        synchronized void update(Features features, double actual) {
+            features.fill(x);
+
+            // Forgetting is suspended while the covariance is already large, so directions the
+            // fills never excite can't wind up. The gain and the covariance share one lambda.
+            double trace = 0;
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                trace += covariance[i][i];
+            }
+            double lambda = trace > MAX_COVARIANCE_TRACE ? 1.0 : FORGETTING_FACTOR;
+
+            // px = P * x and denominator = lambda + x' * P * x
+            double denominator = lambda;
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                double sum = 0;
+                for (int j = 0; j < FEATURE_COUNT; j++) {
+                    sum += covariance[i][j] * x[j];
+                }
+                px[i] = sum;
+                denominator += x[i] * sum;
+            }
+            if (!(denominator > 0)) {
+                AppLog.w(TAG, "Skipping degenerate slippage calibration update");
+                return;
+            }
+
+            double predicted = 0;
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                gain[i] = px[i] / denominator;
+                predicted += weights[i] * x[i];
+            }
+            double error = actual - predicted;
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                weights[i] += gain[i] * error;
+            }
+
+            // P = (P - k * px') / lambda, kept symmetric
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                for (int j = i; j < FEATURE_COUNT; j++) {
+                    double value = (covariance[i][j] - gain[i] * px[j]) / lambda;
+                    covariance[i][j] = value;
+                    covariance[j][i] = value;
+                }
+            }
+
+            samples++;
+            published = new Coefficients(weights.clone(), samples);
+        }
+    }
+}
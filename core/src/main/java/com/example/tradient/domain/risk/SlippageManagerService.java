@@ -1,14 +1,15 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.Ticker;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
 
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,17 +45,24 @@ public class SlippageManagerService {
     // Track pending trades for feedback loop
     private final Map<String, PendingTrade> pendingTrades = new ConcurrentHashMap<>();
     
-    // Cleanup scheduler
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    // Periodic cleanup, run on the shared risk pool
+    private final ScheduledFuture<?> cleanupTask;
     
     // Cache for slippage analytics by symbol
     private final Map<String, SlippageAnalyticsBuilder> slippageAnalyticsMap;
     
+    // Coefficients fitted from realized fills, shared with the other slippage calculators
+    private final SlippageCalibrator calibrator = SlippageCalibrator.getInstance();
+    
     // Default slippage parameters
     private final double DEFAULT_LIQUIDITY_FACTOR = 0.5;
     private final double DEFAULT_SPREAD_FACTOR = 1.5;
     private final double DEFAULT_SLIPPAGE_BASE = 0.001; // 0.1% base slippage
     
+    // Daily volatility bands of the volatility factor; BTC typically moves about 3% a day
+    private static final double MODERATE_DAILY_VOLATILITY = 0.03;
+    private static final double HIGH_DAILY_VOLATILITY = 0.06;
+    
     /**
      * Creates a new slippage manager service with default calculator instances.
      */
@@ -65,7 +73,7 @@ public class SlippageManagerService {
         this.slippageAnalyticsMap = new ConcurrentHashMap<>();
         
         // Schedule periodic cleanup of stale data
-        scheduler.scheduleAtFixedRate(this::cleanupStaleData, 1, 1, TimeUnit.HOURS);
+        this.cleanupTask = scheduleCleanup();
     }
     
     /**
@@ -81,7 +89,12 @@ public class SlippageManagerService {
         this.slippageAnalyticsMap = new ConcurrentHashMap<>();
         
         // Schedule periodic cleanup of stale data
-        scheduler.scheduleAtFixedRate(this::cleanupStaleData, 1, 1, TimeUnit.HOURS);
+        this.cleanupTask = scheduleCleanup();
+    }
+    
+    private ScheduledFuture<?> scheduleCleanup() {
+        return TaskScheduler.getInstance().scheduleAtFixedRate(
+                TaskScheduler.Workload.RISK, this::cleanupStaleData, 1, 1, TimeUnit.HOURS);
     }
     
     /**
@@ -108,7 +121,7 @@ public class SlippageManagerService {
             // Use the analytics to calculate slippage
             return analytics.calculateSlippage(tradeAmount, isBuy);
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating advanced slippage: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating advanced slippage: " + e.getMessage());
             // Fall back to basic calculation
             return calculateBasicSlippage(ticker, tradeAmount, isBuy);
         }
@@ -174,17 +187,24 @@ public class SlippageManagerService {
     }
     
     /**
-     * Records that a trade is about to be executed, to track for feedback loop.
+     * Records that a trade is about to be executed, capturing the market features at pricing
+     * time so the realized fill can calibrate the slippage model of its exchange.
      *
      * @param tradeId Unique identifier for the trade
+     * @param exchangeName The exchange the trade executes on
      * @param symbol The trading symbol
+     * @param ticker The ticker the trade was priced from (may be null)
      * @param tradeSize The size of the trade
      * @param isBuy Whether this is a buy (true) or sell (false) operation
      * @param predictedSlippage The predicted slippage
      */
-    public void recordPendingTrade(String tradeId, String symbol, double tradeSize, 
-                                 boolean isBuy, double predictedSlippage) {
-        PendingTrade trade = new PendingTrade(symbol, tradeSize, isBuy, predictedSlippage, Instant.now());
+    public void recordPendingTrade(String tradeId, String exchangeName, String symbol, Ticker ticker,
+                                 double tradeSize, boolean isBuy, double predictedSlippage) {
+        if (exchangeName == null && ticker != null) {
+            exchangeName = ticker.getExchangeName();
+        }
+        PendingTrade trade = new PendingTrade(symbol, tradeSize, isBuy, predictedSlippage,
+                Instant.ofEpochMilli(MarketClock.currentTimeMillis()), exchangeName, SlippageCalibrator.Features.fromTicker(ticker, symbol, tradeSize));
         pendingTrades.put(tradeId, trade);
     }
     
@@ -216,6 +236,11 @@ public class SlippageManagerService {
         
         // Record for feedback loop
         slippageCalculator.recordActualSlippage(trade.getSymbol(), trade.getPredictedSlippage(), actualSlippage);
+        
+        // Fit the model coefficients of this exchange and symbol class to the realized fill
+        if (trade.getFeatures() != null) {
+            calibrator.observe(trade.getExchangeName(), trade.getSymbol(), trade.getFeatures(), actualSlippage);
+        }
     }
     
     /**
@@ -229,14 +254,14 @@ public class SlippageManagerService {
      * Shuts down the service and its resources.
      */
     public void shutdown() {
-        scheduler.shutdown();
+        cleanupTask.cancel(false);
     }
     
     /**
      * Cleans up stale data periodically.
      */
     private void cleanupStaleData() {
-        Instant oneHourAgo = Instant.now().minus(1, TimeUnit.HOURS.toChronoUnit());
+        Instant oneHourAgo = Instant.ofEpochMilli(MarketClock.currentTimeMillis()).minus(1, TimeUnit.HOURS.toChronoUnit());
         
         // Clean up stale estimates
         slippageEstimateCache.entrySet().removeIf(entry -> 
@@ -296,14 +321,19 @@ public class SlippageManagerService {
         private final boolean isBuy;
         private final double predictedSlippage;
         private final Instant timestamp;
+        private final String exchangeName;
+        private final SlippageCalibrator.Features features;
         
         public PendingTrade(String symbol, double tradeSize, boolean isBuy, 
-                          double predictedSlippage, Instant timestamp) {
+                          double predictedSlippage, Instant timestamp,
+                          String exchangeName, SlippageCalibrator.Features features) {
             this.symbol = symbol;
             this.tradeSize = tradeSize;
             this.isBuy = isBuy;
             this.predictedSlippage = predictedSlippage;
             this.timestamp = timestamp;
+            this.exchangeName = exchangeName;
+            this.features = features;
         }
         
         public String getSymbol() {
@@ -325,6 +355,17 @@ public class SlippageManagerService {
         public Instant getTimestamp() {
             return timestamp;
         }
+        
+        public String getExchangeName() {
+            return exchangeName;
+        }
+        
+        /**
+         * Market features at pricing time, or null if no ticker was available.
+         */
+        public SlippageCalibrator.Features getFeatures() {
+            return features;
+        }
     }
     
     /**
@@ -334,7 +375,8 @@ public class SlippageManagerService {
         private final String symbol;
         private Ticker latestTicker;
         private long lastUpdateTime;
-        private double historicalVolatility = 0.02; // Initial estimate
+        // Daily volatility from the streaming estimator, typical until it has enough ticks
+        private double historicalVolatility = MODERATE_DAILY_VOLATILITY;
         
         // Parameter tuning factors
         private double spreadFactor = 1.5;
@@ -348,7 +390,7 @@ public class SlippageManagerService {
          */
         public SlippageAnalyticsBuilder(String symbol) {
             this.symbol = symbol;
-            this.lastUpdateTime = System.currentTimeMillis();
+            this.lastUpdateTime = MarketClock.currentTimeMillis();
         }
         
         /**
@@ -358,23 +400,20 @@ public class SlippageManagerService {
          */
         public void updateMarketData(Ticker ticker) {
             if (ticker != null) {
-                // Calculate volatility update if we have a previous ticker
-                if (latestTicker != null) {
-                    long timeGap = System.currentTimeMillis() - lastUpdateTime;
-                    if (timeGap > 0) {
-                        // Estimate short-term volatility
-                        double priceDiff = Math.abs(ticker.getLastPrice() - latestTicker.getLastPrice()) / latestTicker.getLastPrice();
-                        double annualizedVol = priceDiff * Math.sqrt(365 * 24 * 60 * 60 * 1000.0 / timeGap);
-                        
-                        // Exponential moving average of volatility
-                        double alpha = 0.1; // Weight for new observation
-                        historicalVolatility = (alpha * annualizedVol) + ((1 - alpha) * historicalVolatility);
-                    }
+                // Volatility comes from the shared streaming estimator. Feeding it here is
+                // harmless when the WebSocket already did, duplicate ticks are ignored.
+                RollingVolatilityEstimator estimator = RollingVolatilityEstimator.getInstance();
+                estimator.onTicker(ticker.getExchangeName(), symbol, ticker);
+                double streamingVolatility = ticker.getExchangeName() != null
+                        ? estimator.getDailyVolatility(ticker.getExchangeName(), symbol)
+                        : estimator.getDailyVolatility(symbol);
+                if (streamingVolatility != RollingVolatilityEstimator.NO_DATA) {
+                    historicalVolatility = streamingVolatility;
                 }
                 
                 // Update ticker and timestamp
                 latestTicker = ticker;
-                lastUpdateTime = System.currentTimeMillis();
+                lastUpdateTime = MarketClock.currentTimeMillis();
                 
                 // Adjust factors based on market conditions
                 adjustFactors();
@@ -383,6 +422,8 @@ public class SlippageManagerService {
         
         /**
          * Adjusts calculation factors based on current market conditions.
+         * These hand-tuned factors are the prior; once realized fills are available the
+         * calibrated coefficients take over in {@link #calculateSlippage}.
          */
         private void adjustFactors() {
             if (latestTicker != null) {
@@ -407,10 +448,10 @@ public class SlippageManagerService {
                     volumeFactor = 1.0; // More slippage for low volume
                 }
                 
-                // Adjust volatility factor based on historical volatility
-                if (historicalVolatility > 0.05) { // Very volatile
+                // Adjust volatility factor based on daily volatility
+                if (historicalVolatility > HIGH_DAILY_VOLATILITY) { // Very volatile
                     volatilityFactor = 1.5;
-                } else if (historicalVolatility > 0.02) { // Moderately volatile
+                } else if (historicalVolatility > MODERATE_DAILY_VOLATILITY) { // Moderately volatile
                     volatilityFactor = 1.2;
                 } else {
                     volatilityFactor = 1.0; // Less volatile
@@ -451,6 +492,10 @@ public class SlippageManagerService {
             // Combine components
             double slippage = (spreadComponent + volumeComponent + volatilityComponent) * sideMultiplier;
             
+            // Blend in the coefficients fitted from realized fills on this exchange
+            slippage = calibrator.calibrate(latestTicker.getExchangeName(), symbol,
+                    SlippageCalibrator.Features.fromTicker(latestTicker, symbol, tradeAmount), slippage);
+            
             // Ensure slippage is within reasonable bounds
             return Math.max(0.0001, Math.min(slippage, 0.05));
         }
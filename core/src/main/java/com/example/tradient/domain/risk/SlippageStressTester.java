@@ -0,0 +1,972 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.SlippageCurve;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.profit.ProfitCalculator;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * SlippageStressTester provides capabilities for scenario analysis and stress testing
+ * of the slippage calculation system under various market conditions.
+ */
+public class SlippageStressTester {
+
+    // Levels per side when a book has to be simulated from a ticker
+    private static final int SIMULATED_BOOK_DEPTH = 20;
+    
+    private final SlippageManagerService slippageManager;
+    
+    /**
+     * Creates a new slippage stress tester with the given slippage manager.
+     *
+     * @param slippageManager The slippage manager service to test
+     */
+    public SlippageStressTester(SlippageManagerService slippageManager) {
+        this.slippageManager = slippageManager;
+    }
+    
+    /**
+     * Performs a comprehensive stress test of the slippage calculation system.
+     *
+     * @param symbol The symbol to test with
+     * @param baseTicker A base ticker to modify for the tests
+     * @return A report of the stress test results
+     */
+    public StressTestReport performStressTest(String symbol, Ticker baseTicker) {
+        StressTestReport report = new StressTestReport(symbol);
+        
+        // Create various market scenarios
+        Map<String, Function<Ticker, Ticker>> scenarios = createScenarios();
+        
+        // Test each scenario
+        for (Map.Entry<String, Function<Ticker, Ticker>> entry : scenarios.entrySet()) {
+            String scenarioName = entry.getKey();
+            Function<Ticker, Ticker> scenarioGenerator = entry.getValue();
+            
+            // Generate scenario ticker
+            Ticker scenarioTicker = scenarioGenerator.apply(baseTicker);
+            
+            // Test various trade sizes
+            List<TradeSize> tradeSizes = List.of(
+                new TradeSize("Small", baseTicker.getVolume() * 0.001),
+                new TradeSize("Medium", baseTicker.getVolume() * 0.01),
+                new TradeSize("Large", baseTicker.getVolume() * 0.05),
+                new TradeSize("Very Large", baseTicker.getVolume() * 0.2)
+            );
+            
+            // Record results for buy and sell sides
+            for (TradeSize tradeSize : tradeSizes) {
+                double buySlippage = slippageManager.calculateSlippage(
+                    scenarioTicker, tradeSize.getSize(), true, symbol);
+                
+                double sellSlippage = slippageManager.calculateSlippage(
+                    scenarioTicker, tradeSize.getSize(), false, symbol);
+                
+                report.addResult(scenarioName, tradeSize.getName(), true, buySlippage);
+                report.addResult(scenarioName, tradeSize.getName(), false, sellSlippage);
+            }
+        }
+        
+        return report;
+    }
+    
+    /**
+     * Tests slippage calculation with historical flash crash data.
+     *
+     * @param symbol The symbol to test with
+     * @param historicalFlashCrash A ticker representing flash crash conditions
+     * @param normalMarket A ticker representing normal market conditions
+     * @param tradeSize The trade size to test with
+     * @return A report comparing slippage in normal vs. flash crash conditions
+     */
+    public FlashCrashReport testFlashCrashScenario(String symbol, Ticker historicalFlashCrash, 
+                                               Ticker normalMarket, double tradeSize) {
+        double normalBuySlippage = slippageManager.calculateSlippage(
+            normalMarket, tradeSize, true, symbol);
+        
+        double normalSellSlippage = slippageManager.calculateSlippage(
+            normalMarket, tradeSize, false, symbol);
+        
+        double crashBuySlippage = slippageManager.calculateSlippage(
+            historicalFlashCrash, tradeSize, true, symbol);
+        
+        double crashSellSlippage = slippageManager.calculateSlippage(
+            historicalFlashCrash, tradeSize, false, symbol);
+        
+        return new FlashCrashReport(symbol, tradeSize, normalBuySlippage, normalSellSlippage,
+                                 crashBuySlippage, crashSellSlippage);
+    }
+    
+    /**
+     * Creates a set of market scenarios for testing.
+     */
+    private Map<String, Function<Ticker, Ticker>> createScenarios() {
+        Map<String, Function<Ticker, Ticker>> scenarios = new HashMap<>();
+        
+        // Normal market conditions
+        scenarios.put("Normal Market", ticker -> ticker);
+        
+        // Wide spread scenario (2x normal spread)
+        scenarios.put("Wide Spread", ticker -> {
+            double midPrice = ticker.getLastPrice();
+            double normalSpread = ticker.getAskPrice() - ticker.getBidPrice();
+            double wideSpread = normalSpread * 2;
+            
+            return new Ticker(
+                midPrice - (wideSpread / 2),  // Wider bid
+                midPrice + (wideSpread / 2),  // Wider ask
+                ticker.getLastPrice(),
+                ticker.getVolume(),
+                ticker.getTimestamp()
+            );
+        });
+        
+        // Low volume scenario (10% of normal volume)
+        scenarios.put("Low Volume", ticker -> new Ticker(
+            ticker.getBidPrice(),
+            ticker.getAskPrice(),
+            ticker.getLastPrice(),
+            ticker.getVolume() * 0.1,
+            ticker.getTimestamp()
+        ));
+        
+        // High volatility scenario (3x spread)
+        scenarios.put("High Volatility", ticker -> {
+            double midPrice = ticker.getLastPrice();
+            double normalSpread = ticker.getAskPrice() - ticker.getBidPrice();
+            double wideSpread = normalSpread * 3;
+            
+            return new Ticker(
+                midPrice - (wideSpread / 2),
+                midPrice + (wideSpread / 2),
+                ticker.getLastPrice(),
+                ticker.getVolume(),
+                ticker.getTimestamp()
+            );
+        });
+        
+        // Flash crash scenario (price down 20%, very wide spread, low volume)
+        scenarios.put("Flash Crash", ticker -> {
+            double crashPrice = ticker.getLastPrice() * 0.8;
+            double normalSpread = ticker.getAskPrice() - ticker.getBidPrice();
+            double panicSpread = normalSpread * 5;
+            
+            return new Ticker(
+                crashPrice - (panicSpread / 2),
+                crashPrice + (panicSpread / 2),
+                crashPrice,
+                ticker.getVolume() * 0.3,
+                ticker.getTimestamp()
+            );
+        });
+        
+        // Bull run scenario (price up 10%, moderate spread, high volume)
+        scenarios.put("Bull Run", ticker -> {
+            double bullPrice = ticker.getLastPrice() * 1.1;
+            double normalSpread = ticker.getAskPrice() - ticker.getBidPrice();
+            double excitementSpread = normalSpread * 1.5;
+            
+            return new Ticker(
+                bullPrice - (excitementSpread / 2),
+                bullPrice + (excitementSpread / 2),
+                bullPrice,
+                ticker.getVolume() * 2.0,
+                ticker.getTimestamp()
+            );
+        });
+        
+        return scenarios;
+    }
+    
+    /**
+     * Creates a simulated order book for testing with specific market depth characteristics.
+     *
+     * @param ticker The ticker to base the order book on
+     * @param symbol The trading symbol for the order book
+     * @param depth The number of levels to create
+     * @param depthProfile The profile of the depth (e.g., "normal", "thin", "thick")
+     * @return A simulated order book
+     */
+    public OrderBook createSimulatedOrderBook(Ticker ticker, String symbol, int depth, String depthProfile) {
+        List<OrderBookEntry> bids = new ArrayList<>();
+        List<OrderBookEntry> asks = new ArrayList<>();
+        
+        double bidStart = ticker.getBidPrice();
+        double askStart = ticker.getAskPrice();
+        double avgVolume = ticker.getVolume() / (depth * 5); // Rough estimate for single level
+        
+        // Determine depth profile multipliers
+        double volumeMultiplier;
+        double priceStepMultiplier;
+        
+        switch (depthProfile.toLowerCase()) {
+            case "thin":
+                volumeMultiplier = 0.5;  // Less volume at each level
+                priceStepMultiplier = 2.0;  // Bigger price gaps
+                break;
+            case "thick":
+                volumeMultiplier = 2.0;  // More volume at each level
+                priceStepMultiplier = 0.5;  // Smaller price gaps
+                break;
+            case "normal":
+            default:
+                volumeMultiplier = 1.0;
+                priceStepMultiplier = 1.0;
+                break;
+        }
+        
+        // Create bid side (descending prices)
+        double priceStep = (bidStart * 0.001) * priceStepMultiplier; // 0.1% steps as default
+        double currentBid = bidStart;
+        
+        for (int i = 0; i < depth; i++) {
+            // Volume decreases as we get further from the mid price
+            double levelVolume = avgVolume * volumeMultiplier * (1.0 - (i * 0.5 / depth));
+            bids.add(new OrderBookEntry(currentBid, levelVolume));
+            currentBid -= priceStep;
+        }
+        
+        // Create ask side (ascending prices)
+        double currentAsk = askStart;
+        
+        for (int i = 0; i < depth; i++) {
+            // Volume decreases as we get further from the mid price
+            double levelVolume = avgVolume * volumeMultiplier * (1.0 - (i * 0.5 / depth));
+            asks.add(new OrderBookEntry(currentAsk, levelVolume));
+            currentAsk += priceStep;
+        }
+        
+        // Convert Instant to Date when creating OrderBook
+        return new OrderBook(symbol, bids, asks, Date.from(Instant.now()));
+    }
+    
+    /**
+     * Monte Carlo stress test of the live universe.
+     * <p>
+     * Each iteration draws one randomized market shock from a seeded RNG and applies it to
+     * every symbol: a price move shared by all exchanges plus per-exchange noise, an
+     * occasional price gap, spread widening and removal of book depth. The shocked books
+     * are walked through their cumulative slippage curves, the cheapest ask and the richest
+     * bid on two different exchanges are paired as the arbitrage would, and the slippage of
+     * both legs and the net profit after fees are recorded for every trade size.
+     * <p>
+     * Scenarios where the shocked books can't fill a trade size are counted in its fill
+     * rate and left out of its distributions. Symbols listed on fewer than two exchanges
+     * are skipped.
+     * <p>
+     * Iterations run in parallel across cores. Every (symbol, iteration) pair derives its own
+     * RNG from the seed, so a given seed always produces the same report.
+     *
+     * @param books Order books by symbol, then by exchange
+     * @param tradeSizes Trade sizes in quote currency
+     * @param config Shock parameters, iteration count and seed
+     * @return Percentile distributions per symbol and trade size
+     */
+    public MonteCarloReport runMonteCarlo(Map<String, Map<String, OrderBook>> books,
+                                          double[] tradeSizes, MonteCarloConfig config) {
+        long start = System.currentTimeMillis();
+        int iterations = Math.max(1, config.getIterations());
+        
+        // Flatten the universe into primitive arrays once, outside the hot loop
+        List<SymbolBooks> universe = new ArrayList<>();
+        for (Map.Entry<String, Map<String, OrderBook>> entry : books.entrySet()) {
+            SymbolBooks symbolBooks = SymbolBooks.of(entry.getKey(), entry.getValue());
+            if (symbolBooks != null) {
+                universe.add(symbolBooks);
+            }
+        }
+        
+        int sizeCount = tradeSizes.length;
+        MonteCarloReport report = new MonteCarloReport(iterations, config.getSeed());
+        
+        // The shared market move of each iteration is drawn up front so every symbol sees
+        // the same move in the same iteration
+        Random marketRandom = new Random(config.getSeed());
+        double[] marketMoves = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            marketMoves[i] = marketRandom.nextGaussian() * config.getPriceShockSigma();
+            if (marketRandom.nextDouble() < config.getGapProbability()) {
+                marketMoves[i] += (marketRandom.nextBoolean() ? 1 : -1) * config.getGapSize();
+            }
+        }
+        
+        // One symbol at a time, iterations in parallel, so only one symbol's samples are held
+        for (int s = 0; s < universe.size(); s++) {
+            SymbolBooks symbolBooks = universe.get(s);
+            long symbolSeed = config.getSeed() * 0x9E3779B97F4A7C15L + s * 0xBF58476D1CE4E5B9L;
+            double[][] buySlippage = new double[sizeCount][iterations];
+            double[][] sellSlippage = new double[sizeCount][iterations];
+            double[][] netProfit = new double[sizeCount][iterations];
+            boolean[][] filled = new boolean[sizeCount][iterations];
+            
+            IntStream.range(0, iterations).parallel().forEach(i -> {
+                Random random = new Random(symbolSeed + i);
+                int venues = symbolBooks.exchangeCount();
+                SlippageCurve[] asks = new SlippageCurve[venues];
+                SlippageCurve[] bids = new SlippageCurve[venues];
+                
+                for (int v = 0; v < venues; v++) {
+                    double move = marketMoves[i] + random.nextGaussian() * config.getIdiosyncraticSigma();
+                    double spreadFactor = 1.0 + Math.abs(random.nextGaussian()) * config.getSpreadWideningSigma();
+                    double depthRemaining = 1.0 - random.nextDouble() * config.getMaxDepthRemoval();
+                    int levelsRemoved = random.nextDouble() < config.getLevelRemovalProbability() ? 1 : 0;
+                    
+                    asks[v] = symbolBooks.shock(v, true, move, spreadFactor, depthRemaining, levelsRemoved);
+                    bids[v] = symbolBooks.shock(v, false, move, spreadFactor, depthRemaining, levelsRemoved);
+                }
+                
+                // Pair the cheapest ask with the richest bid on another exchange, as the scanner would
+                SlippageCurve bestAsk = null;
+                SlippageCurve bestBid = null;
+                for (int a = 0; a < venues; a++) {
+                    if (asks[a].isEmpty()) {
+                        continue;
+                    }
+                    for (int b = 0; b < venues; b++) {
+                        if (b == a || bids[b].isEmpty()) {
+                            continue;
+                        }
+                        if (bestAsk == null || bids[b].getBestPrice() - asks[a].getBestPrice()
+                                > bestBid.getBestPrice() - bestAsk.getBestPrice()) {
+                            bestAsk = asks[a];
+                            bestBid = bids[b];
+                        }
+                    }
+                }
+                if (bestAsk == null) {
+                    return;
+                }
+                
+                double fee = config.getTakerFee();
+                for (int k = 0; k < sizeCount; k++) {
+                    double size = tradeSizes[k];
+                    double quantity = bestAsk.quantityForNotional(size);
+                    if (bestAsk.getTotalNotional() < size || bestBid.getTotalQuantity() < quantity) {
+                        continue;
+                    }
+                    
+                    filled[k][i] = true;
+                    buySlippage[k][i] = bestAsk.slippageForNotional(size, bestAsk.getBestPrice());
+                    sellSlippage[k][i] = bestBid.slippageForQuantity(quantity, bestBid.getBestPrice());
+                    netProfit[k][i] = ProfitCalculator.calculateBasicProfitPercentage(
+                            bestAsk.vwapForNotional(size), bestBid.vwapForQuantity(quantity), fee, fee) / 100.0;
+                }
+            });
+            
+            for (int k = 0; k < sizeCount; k++) {
+                int fills = 0;
+                for (boolean fill : filled[k]) {
+                    if (fill) {
+                        fills++;
+                    }
+                }
+                report.addDistribution(new SlippageDistribution(
+                        symbolBooks.symbol,
+                        tradeSizes[k],
+                        Percentiles.of(filledSamples(buySlippage[k], filled[k], fills)),
+                        Percentiles.of(filledSamples(sellSlippage[k], filled[k], fills)),
+                        Percentiles.of(filledSamples(netProfit[k], filled[k], fills)),
+                        fills / (double) iterations));
+            }
+        }
+        
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        return report;
+    }
+    
+    /**
+     * The samples of the scenarios that filled, in iteration order.
+     */
+    private static double[] filledSamples(double[] samples, boolean[] filled, int fills) {
+        double[] result = new double[fills];
+        int n = 0;
+        for (int i = 0; i < samples.length; i++) {
+            if (filled[i]) {
+                result[n++] = samples[i];
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Monte Carlo stress test for symbols where only tickers are available.
+     * Each ticker is expanded into a simulated book with {@link #createSimulatedOrderBook}.
+     *
+     * @param tickers Tickers by symbol, then by exchange
+     * @param tradeSizes Trade sizes in quote currency
+     * @param config Shock parameters, iteration count and seed
+     * @return Percentile distributions per symbol and trade size
+     */
+    public MonteCarloReport runMonteCarloFromTickers(Map<String, Map<String, Ticker>> tickers,
+                                                     double[] tradeSizes, MonteCarloConfig config) {
+        Map<String, Map<String, OrderBook>> books = new HashMap<>();
+        for (Map.Entry<String, Map<String, Ticker>> symbolEntry : tickers.entrySet()) {
+            Map<String, OrderBook> byExchange = new HashMap<>();
+            for (Map.Entry<String, Ticker> exchangeEntry : symbolEntry.getValue().entrySet()) {
+                Ticker ticker = exchangeEntry.getValue();
+                if (ticker != null && ticker.getBidPrice() > 0 && ticker.getAskPrice() > 0) {
+                    byExchange.put(exchangeEntry.getKey(), createSimulatedOrderBook(
+                            ticker, symbolEntry.getKey(), SIMULATED_BOOK_DEPTH, "normal"));
+                }
+            }
+            if (!byExchange.isEmpty()) {
+                books.put(symbolEntry.getKey(), byExchange);
+            }
+        }
+        return runMonteCarlo(books, tradeSizes, config);
+    }
+    
+    /**
+     * Helper class to represent a trade size configuration.
+     */
+    private static class TradeSize {
+        private final String name;
+        private final double size;
+        
+        public TradeSize(String name, double size) {
+            this.name = name;
+            this.size = size;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public double getSize() {
+            return size;
+        }
+    }
+    
+    /**
+     * Class representing a stress test report.
+     */
+    public static class StressTestReport {
+        private final String symbol;
+        private final Map<String, Map<String, Map<Boolean, Double>>> results = new HashMap<>();
+        
+        public StressTestReport(String symbol) {
+            this.symbol = symbol;
+        }
+        
+        public void addResult(String scenario, String tradeSize, boolean isBuy, double slippage) {
+            results.computeIfAbsent(scenario, k -> new HashMap<>())
+                   .computeIfAbsent(tradeSize, k -> new HashMap<>())
+                   .put(isBuy, slippage);
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Stress Test Report for ").append(symbol).append("\n");
+            sb.append("======================================\n\n");
+            
+            for (String scenario : results.keySet()) {
+                sb.append("Scenario: ").append(scenario).append("\n");
+                sb.append("--------------------\n");
+                
+                for (String tradeSize : results.get(scenario).keySet()) {
+                    Map<Boolean, Double> buySelllSlippage = results.get(scenario).get(tradeSize);
+                    double buySlippage = buySelllSlippage.getOrDefault(true, 0.0);
+                    double sellSlippage = buySelllSlippage.getOrDefault(false, 0.0);
+                    
+                    sb.append(String.format("  %-10s: Buy Slippage: %.4f%%, Sell Slippage: %.4f%%\n", 
+                        tradeSize, buySlippage * 100, sellSlippage * 100));
+                }
+                
+                sb.append("\n");
+            }
+            
+            return sb.toString();
+        }
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public Map<String, Map<String, Map<Boolean, Double>>> getResults() {
+            return results;
+        }
+    }
+    
+    /**
+     * Class representing a flash crash test report.
+     */
+    public static class FlashCrashReport {
+        private final String symbol;
+        private final double tradeSize;
+        private final double normalBuySlippage;
+        private final double normalSellSlippage;
+        private final double crashBuySlippage;
+        private final double crashSellSlippage;
+        
+        public FlashCrashReport(String symbol, double tradeSize,
+                             double normalBuySlippage, double normalSellSlippage,
+                             double crashBuySlippage, double crashSellSlippage) {
+            this.symbol = symbol;
+            this.tradeSize = tradeSize;
+            this.normalBuySlippage = normalBuySlippage;
+            this.normalSellSlippage = normalSellSlippage;
+            this.crashBuySlippage = crashBuySlippage;
+            this.crashSellSlippage = crashSellSlippage;
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Flash Crash Analysis for ").append(symbol).append("\n");
+            sb.append("======================================\n");
+            sb.append(String.format("Trade Size: %.2f units\n\n", tradeSize));
+            
+            sb.append("Normal Market Conditions:\n");
+            sb.append(String.format("  Buy Slippage: %.4f%%\n", normalBuySlippage * 100));
+            sb.append(String.format("  Sell Slippage: %.4f%%\n\n", normalSellSlippage * 100));
+            
+            sb.append("Flash Crash Conditions:\n");
+            sb.append(String.format("  Buy Slippage: %.4f%%\n", crashBuySlippage * 100));
+            sb.append(String.format("  Sell Slippage: %.4f%%\n\n", crashSellSlippage * 100));
+            
+            double buyIncrease = (crashBuySlippage / normalBuySlippage) - 1.0;
+            double sellIncrease = (crashSellSlippage / normalSellSlippage) - 1.0;
+            
+            sb.append("Analysis:\n");
+            sb.append(String.format("  Buy Slippage Increase: %.2f times higher during crash\n",
+                                  crashBuySlippage / normalBuySlippage));
+            sb.append(String.format("  Sell Slippage Increase: %.2f times higher during crash\n",
+                                  crashSellSlippage / normalSellSlippage));
+            
+            return sb.toString();
+        }
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public double getTradeSize() {
+            return tradeSize;
+        }
+        
+        public double getNormalBuySlippage() {
+            return normalBuySlippage;
+        }
+        
+        public double getNormalSellSlippage() {
+            return normalSellSlippage;
+        }
+        
+        public double getCrashBuySlippage() {
+            return crashBuySlippage;
+        }
+        
+        public double getCrashSellSlippage() {
+            return crashSellSlippage;
+        }
+    }
+    
+    /**
+     * Primitive copy of the books of one symbol, used as the base for every shock.
+     */
+    private static final class SymbolBooks {
+        private final String symbol;
+        private final double[][] askPrices;
+        private final double[][] askQuantities;
+        private final double[][] bidPrices;
+        private final double[][] bidQuantities;
+        
+        private SymbolBooks(String symbol, int venues) {
+            this.symbol = symbol;
+            this.askPrices = new double[venues][];
+            this.askQuantities = new double[venues][];
+            this.bidPrices = new double[venues][];
+            this.bidQuantities = new double[venues][];
+        }
+        
+        static SymbolBooks of(String symbol, Map<String, OrderBook> byExchange) {
+            List<OrderBook> valid = new ArrayList<>();
+            for (OrderBook book : byExchange.values()) {
+                if (book != null && book.getAsks() != null && book.getBids() != null
+                        && !book.getAsks().isEmpty() && !book.getBids().isEmpty()) {
+                    valid.add(book);
+                }
+            }
+            if (valid.size() < 2) {
+                // An arbitrage needs a buy and a sell exchange
+                return null;
+            }
+            SymbolBooks books = new SymbolBooks(symbol, valid.size());
+            for (int v = 0; v < valid.size(); v++) {
+                List<OrderBookEntry> asks = valid.get(v).getAsks();
+                List<OrderBookEntry> bids = valid.get(v).getBids();
+                books.askPrices[v] = new double[asks.size()];
+                books.askQuantities[v] = new double[asks.size()];
+                for (int j = 0; j < asks.size(); j++) {
+                    books.askPrices[v][j] = asks.get(j).getPrice();
+                    books.askQuantities[v][j] = asks.get(j).getQuantity();
+                }
+                books.bidPrices[v] = new double[bids.size()];
+                books.bidQuantities[v] = new double[bids.size()];
+                for (int j = 0; j < bids.size(); j++) {
+                    books.bidPrices[v][j] = bids.get(j).getPrice();
+                    books.bidQuantities[v][j] = bids.get(j).getQuantity();
+                }
+            }
+            return books;
+        }
+        
+        int exchangeCount() {
+            return askPrices.length;
+        }
+        
+        /**
+         * Apply one shock to one side of one exchange's book.
+         * Prices move with the mid, the distance of every level from the mid is scaled by the
+         * spread factor, quantities are scaled down and the best levels may be pulled.
+         */
+        SlippageCurve shock(int venue, boolean isAsk, double move, double spreadFactor,
+                            double depthRemaining, int levelsRemoved) {
+            double[] prices = isAsk ? askPrices[venue] : bidPrices[venue];
+            double[] quantities = isAsk ? askQuantities[venue] : bidQuantities[venue];
+            double mid = (askPrices[venue][0] + bidPrices[venue][0]) / 2.0;
+            double shiftedMid = mid * (1 + move);
+            
+            int skip = Math.min(levelsRemoved, prices.length - 1);
+            int n = prices.length - skip;
+            double[] shockedPrices = new double[n];
+            double[] shockedQuantities = new double[n];
+            for (int j = 0; j < n; j++) {
+                double offset = (prices[j + skip] - mid) * spreadFactor;
+                shockedPrices[j] = shiftedMid + offset;
+                shockedQuantities[j] = quantities[j + skip] * depthRemaining;
+            }
+            return SlippageCurve.of(shockedPrices, shockedQuantities);
+        }
+    }
+    
+    /**
+     * Shock parameters for {@link #runMonteCarlo}. Defaults describe a stressed but not
+     * extreme hour of trading.
+     */
+    public static class MonteCarloConfig {
+        private int iterations = 5000;
+        private long seed = 42L;
+        private double priceShockSigma = 0.01;
+        private double idiosyncraticSigma = 0.002;
+        private double gapProbability = 0.02;
+        private double gapSize = 0.05;
+        private double spreadWideningSigma = 1.5;
+        private double maxDepthRemoval = 0.7;
+        private double levelRemovalProbability = 0.1;
+        private double takerFee = 0.001;
+        
+        public int getIterations() {
+            return iterations;
+        }
+        
+        public MonteCarloConfig setIterations(int iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+        
+        public long getSeed() {
+            return seed;
+        }
+        
+        public MonteCarloConfig setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+        
+        /**
+         * Standard deviation of the price move shared by all exchanges, as a decimal.
+         */
+        public double getPriceShockSigma() {
+            return priceShockSigma;
+        }
+        
+        public MonteCarloConfig setPriceShockSigma(double priceShockSigma) {
+            this.priceShockSigma = priceShockSigma;
+            return this;
+        }
+        
+        /**
+         * Standard deviation of each exchange's own deviation from the shared move.
+         */
+        public double getIdiosyncraticSigma() {
+            return idiosyncraticSigma;
+        }
+        
+        public MonteCarloConfig setIdiosyncraticSigma(double idiosyncraticSigma) {
+            this.idiosyncraticSigma = idiosyncraticSigma;
+            return this;
+        }
+        
+        public double getGapProbability() {
+            return gapProbability;
+        }
+        
+        public MonteCarloConfig setGapProbability(double gapProbability) {
+            this.gapProbability = gapProbability;
+            return this;
+        }
+        
+        public double getGapSize() {
+            return gapSize;
+        }
+        
+        public MonteCarloConfig setGapSize(double gapSize) {
+            this.gapSize = gapSize;
+            return this;
+        }
+        
+        public double getSpreadWideningSigma() {
+            return spreadWideningSigma;
+        }
+        
+        public MonteCarloConfig setSpreadWideningSigma(double spreadWideningSigma) {
+            this.spreadWideningSigma = spreadWideningSigma;
+            return this;
+        }
+        
+        /**
+         * Largest fraction of every level's quantity that a shock can remove.
+         */
+        public double getMaxDepthRemoval() {
+            return maxDepthRemoval;
+        }
+        
+        public MonteCarloConfig setMaxDepthRemoval(double maxDepthRemoval) {
+            this.maxDepthRemoval = Math.max(0, Math.min(0.99, maxDepthRemoval));
+            return this;
+        }
+        
+        public double getLevelRemovalProbability() {
+            return levelRemovalProbability;
+        }
+        
+        public MonteCarloConfig setLevelRemovalProbability(double levelRemovalProbability) {
+            this.levelRemovalProbability = levelRemovalProbability;
+            return this;
+        }
+        
+        public double getTakerFee() {
+            return takerFee;
+        }
+        
+        public MonteCarloConfig setTakerFee(double takerFee) {
+            this.takerFee = takerFee;
+            return this;
+        }
+    }
+    
+    /**
+     * p50/p95/p99 of one sampled quantity, plus the extremes.
+     */
+    public static class Percentiles {
+        private final double min;
+        private final double p01;
+        private final double p05;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+        
+        private Percentiles(double min, double p01, double p05, double p50,
+                            double p95, double p99, double max) {
+            this.min = min;
+            this.p01 = p01;
+            this.p05 = p05;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+        
+        /**
+         * Sorts the samples in place and reads the percentiles off them.
+         */
+        static Percentiles of(double[] samples) {
+            if (samples.length == 0) {
+                return new Percentiles(0, 0, 0, 0, 0, 0, 0);
+            }
+            Arrays.sort(samples);
+            return new Percentiles(samples[0], at(samples, 0.01), at(samples, 0.05),
+                    at(samples, 0.50), at(samples, 0.95), at(samples, 0.99),
+                    samples[samples.length - 1]);
+        }
+        
+        private static double at(double[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+        
+        public double getMin() {
+            return min;
+        }
+        
+        public double getP01() {
+            return p01;
+        }
+        
+        public double getP05() {
+            return p05;
+        }
+        
+        public double getP50() {
+            return p50;
+        }
+        
+        public double getP95() {
+            return p95;
+        }
+        
+        public double getP99() {
+            return p99;
+        }
+        
+        public double getMax() {
+            return max;
+        }
+    }
+    
+    /**
+     * Stressed slippage and profit of one symbol at one trade size, over the scenarios
+     * that filled. Slippage tails are at the high percentiles, profit tails at the low ones.
+     */
+    public static class SlippageDistribution {
+        private final String symbol;
+        private final double tradeSize;
+        private final Percentiles buySlippage;
+        private final Percentiles sellSlippage;
+        private final Percentiles netProfit;
+        private final double fillRate;
+        
+        public SlippageDistribution(String symbol, double tradeSize, Percentiles buySlippage,
+                                    Percentiles sellSlippage, Percentiles netProfit,
+                                    double fillRate) {
+            this.symbol = symbol;
+            this.tradeSize = tradeSize;
+            this.buySlippage = buySlippage;
+            this.sellSlippage = sellSlippage;
+            this.netProfit = netProfit;
+            this.fillRate = fillRate;
+        }
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public double getTradeSize() {
+            return tradeSize;
+        }
+        
+        public Percentiles getBuySlippage() {
+            return buySlippage;
+        }
+        
+        public Percentiles getSellSlippage() {
+            return sellSlippage;
+        }
+        
+        /**
+         * Net profit of the round trip after slippage and fees, as a decimal.
+         */
+        public Percentiles getNetProfit() {
+            return netProfit;
+        }
+        
+        /**
+         * Fraction of scenarios where the shocked books could fill the trade. The
+         * percentiles only cover these scenarios.
+         */
+        public double getFillRate() {
+            return fillRate;
+        }
+    }
+    
+    /**
+     * Result of a Monte Carlo stress test.
+     */
+    public static class MonteCarloReport {
+        private final int iterations;
+        private final long seed;
+        private final List<SlippageDistribution> distributions = new ArrayList<>();
+        private long elapsedMs;
+        
+        public MonteCarloReport(int iterations, long seed) {
+            this.iterations = iterations;
+            this.seed = seed;
+        }
+        
+        void addDistribution(SlippageDistribution distribution) {
+            distributions.add(distribution);
+        }
+        
+        void setElapsedMs(long elapsedMs) {
+            this.elapsedMs = elapsedMs;
+        }
+        
+        public int getIterations() {
+            return iterations;
+        }
+        
+        public long getSeed() {
+            return seed;
+        }
+        
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+        
+        public List<SlippageDistribution> getDistributions() {
+            return distributions;
+        }
+        
+        /**
+         * Get the distributions of one symbol, one per trade size.
+         */
+        public List<SlippageDistribution> getDistributions(String symbol) {
+            List<SlippageDistribution> result = new ArrayList<>();
+            for (SlippageDistribution distribution : distributions) {
+                if (distribution.getSymbol().equals(symbol)) {
+                    result.add(distribution);
+                }
+            }
+            return result;
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Monte Carlo Stress Report (%d iterations, seed %d, %d ms)%n",
+                    iterations, seed, elapsedMs));
+            sb.append("======================================\n\n");
+            
+            for (SlippageDistribution d : distributions) {
+                sb.append(String.format("%s @ %.0f%n", d.getSymbol(), d.getTradeSize()));
+                sb.append(String.format("  Buy slippage   p50 %.4f%%  p95 %.4f%%  p99 %.4f%%%n",
+                        d.getBuySlippage().getP50() * 100, d.getBuySlippage().getP95() * 100,
+                        d.getBuySlippage().getP99() * 100));
+                sb.append(String.format("  Sell slippage  p50 %.4f%%  p95 %.4f%%  p99 %.4f%%%n",
+                        d.getSellSlippage().getP50() * 100, d.getSellSlippage().getP95() * 100,
+                        d.getSellSlippage().getP99() * 100));
+                sb.append(String.format("  Net profit     p50 %.4f%%  p5 %.4f%%  p1 %.4f%%%n",
+                        d.getNetProfit().getP50() * 100, d.getNetProfit().getP05() * 100,
+                        d.getNetProfit().getP01() * 100));
+                sb.append(String.format("  Filled         %.2f%%%n%n", d.getFillRate() * 100));
+            }
+            
+            return sb.toString();
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.tradient.domain.risk;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.Ticker;
 import com.example.tradient.data.service.ExchangeService;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service to calculate volatility metrics for trading pairs.
@@ -17,8 +17,8 @@ public class VolatilityService {
     private static final String TAG = "VolatilityService";
     
     // Cache system for volatility values
-    private final Map<String, Double> volatilityCache = new HashMap<>();
-    private final Map<String, Long> lastUpdateTimestamps = new HashMap<>();
+    private final Map<String, Double> volatilityCache = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastUpdateTimestamps = new ConcurrentHashMap<>();
     private static final long CACHE_EXPIRY_MS = 10 * 60 * 1000; // 10 minutes
     
     // Lookback periods for different volatility calculations
@@ -41,7 +41,7 @@ public class VolatilityService {
         
         // Check for valid input data
         if (isDataMissing(buyExchangeTickers) || isDataMissing(sellExchangeTickers)) {
-            Log.w(TAG, "Missing ticker data for volatility calculation");
+            AppLog.w(TAG, "Missing ticker data for volatility calculation");
             return createFallbackVolatility(symbol);
         }
         
@@ -56,18 +56,20 @@ public class VolatilityService {
             // Cache the result
             String cacheKey = symbol.toLowerCase();
             volatilityCache.put(cacheKey, volatility);
-            lastUpdateTimestamps.put(cacheKey, System.currentTimeMillis());
+            lastUpdateTimestamps.put(cacheKey, MarketClock.currentTimeMillis());
             
-            Log.d(TAG, "Calculated volatility for " + symbol + ": " + volatility);
+            AppLog.d(TAG, "Calculated volatility for " + symbol + ": " + volatility);
             return volatility;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating volatility: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error calculating volatility: " + e.getMessage(), e);
             return createFallbackVolatility(symbol);
         }
     }
     
     /**
-     * Calculate real-time volatility using direct API calls.
+     * Calculate real-time volatility for a pair traded across two exchanges.
+     * The streaming estimator is used whenever it has seen enough ticks; historical
+     * tickers are only requested over REST while the live stream is still warming up.
      * 
      * @param buyExchangeService Buy exchange service
      * @param sellExchangeService Sell exchange service
@@ -79,6 +81,12 @@ public class VolatilityService {
             ExchangeService sellExchangeService,
             String symbol) {
         
+        double streamingVolatility = getStreamingVolatility(
+                buyExchangeService.getExchangeName(), sellExchangeService.getExchangeName(), symbol);
+        if (streamingVolatility != RollingVolatilityEstimator.NO_DATA) {
+            return streamingVolatility;
+        }
+        
         String cacheKey = symbol.toLowerCase();
         
         // Check if we have a valid cached value
@@ -93,7 +101,7 @@ public class VolatilityService {
             
             // Check if we got enough data
             if (isDataMissing(buyTickers) || isDataMissing(sellTickers)) {
-                Log.w(TAG, "Insufficient data for volatility calculation");
+                AppLog.w(TAG, "Insufficient data for volatility calculation");
                 
                 // Try to calculate with recent data from ticker only
                 Ticker buyTicker = buyExchangeService.getTickerData(symbol);
@@ -107,9 +115,9 @@ public class VolatilityService {
                     
                     // Cache the result
                     volatilityCache.put(cacheKey, volatility);
-                    lastUpdateTimestamps.put(cacheKey, System.currentTimeMillis());
+                    lastUpdateTimestamps.put(cacheKey, MarketClock.currentTimeMillis());
                     
-                    Log.d(TAG, "Calculated volatility from ticker for " + symbol + ": " + volatility);
+                    AppLog.d(TAG, "Calculated volatility from ticker for " + symbol + ": " + volatility);
                     return volatility;
                 }
                 
@@ -120,17 +128,37 @@ public class VolatilityService {
             // Calculate from historical data
             return calculateVolatility(buyTickers, sellTickers, symbol);
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating real-time volatility: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error calculating real-time volatility: " + e.getMessage(), e);
             return createFallbackVolatility(symbol);
         }
     }
     
+    /**
+     * Daily volatility from the live tick stream, averaged over the two exchanges
+     * that have data.
+     *
+     * @return Volatility as a decimal, or {@link RollingVolatilityEstimator#NO_DATA}
+     */
+    private double getStreamingVolatility(String buyExchange, String sellExchange, String symbol) {
+        RollingVolatilityEstimator estimator = RollingVolatilityEstimator.getInstance();
+        double buyVolatility = estimator.getDailyVolatility(buyExchange, symbol);
+        double sellVolatility = estimator.getDailyVolatility(sellExchange, symbol);
+        
+        if (buyVolatility == RollingVolatilityEstimator.NO_DATA) {
+            return sellVolatility;
+        }
+        if (sellVolatility == RollingVolatilityEstimator.NO_DATA) {
+            return buyVolatility;
+        }
+        return (buyVolatility + sellVolatility) / 2.0;
+    }
+    
     /**
      * Create fallback volatility values based on the asset type.
      * Used when real data cannot be obtained.
      */
     private double createFallbackVolatility(String symbol) {
-        Log.d(TAG, "Creating fallback volatility for " + symbol);
+        AppLog.d(TAG, "Creating fallback volatility for " + symbol);
         
         // Extract the base asset from the symbol
         String baseAsset = symbol.split("/")[0];
@@ -170,9 +198,9 @@ public class VolatilityService {
         String cacheKey = symbol.toLowerCase();
         volatilityCache.put(cacheKey, fallbackVolatility);
         // Expire fallback values twice as fast
-        lastUpdateTimestamps.put(cacheKey, System.currentTimeMillis() - (CACHE_EXPIRY_MS / 2));
+        lastUpdateTimestamps.put(cacheKey, MarketClock.currentTimeMillis() - (CACHE_EXPIRY_MS / 2));
         
-        Log.d(TAG, "Using fallback volatility for " + symbol + ": " + fallbackVolatility);
+        AppLog.d(TAG, "Using fallback volatility for " + symbol + ": " + fallbackVolatility);
         return fallbackVolatility;
     }
     
@@ -323,7 +351,7 @@ public class VolatilityService {
             return false;
         }
         
-        long now = System.currentTimeMillis();
+        long now = MarketClock.currentTimeMillis();
         long lastUpdate = lastUpdateTimestamps.get(key);
         return (now - lastUpdate) < CACHE_EXPIRY_MS;
     }
@@ -335,6 +363,6 @@ public class VolatilityService {
     public void clearCache() {
         volatilityCache.clear();
         lastUpdateTimestamps.clear();
-        Log.d(TAG, "Volatility cache cleared");
+        AppLog.d(TAG, "Volatility cache cleared");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.example.tradient.infrastructure;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.domain.market.ConsolidatedOrderBook.RoutingQuote;
+import com.example.tradient.infrastructure.replay.ReplayOpportunity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Writes arbitrage opportunities as JSON lines: one object per line, flushed as soon as
+ * it is written so a consumer tailing the output sees every opportunity immediately.
+ * <p>
+ * Uses a single streaming generator, so writing an opportunity allocates no
+ * intermediate tree or map. Safe for concurrent writers; lines never interleave.
+ */
+public class OpportunityJsonWriter implements Closeable {
+
+    private final Writer out;
+    private final JsonGenerator generator;
+    private long written;
+
+    /**
+     * @param out The target of the lines
+     * @param closeTarget Whether {@link #close()} closes the target as well
+     */
+    public OpportunityJsonWriter(Writer out, boolean closeTarget) throws IOException {
+        this.out = out;
+        JsonFactory factory = new JsonFactory();
+        factory.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, closeTarget);
+        this.generator = factory.createGenerator(out);
+        // Lines are separated explicitly after every object
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Writer for standard output, which stays open after {@link #close()}.
+     */
+    public static OpportunityJsonWriter toStdout() throws IOException {
+        return new OpportunityJsonWriter(
+                new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), false);
+    }
+
+    /**
+     * Writer for a file.
+     *
+     * @param file The file to write
+     * @param append Whether to append to an existing file instead of replacing it
+     */
+    public static OpportunityJsonWriter toFile(Path file, boolean append) throws IOException {
+        Writer writer = append
+                ? Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        return new OpportunityJsonWriter(writer, true);
+    }
+
+    /**
+     * Write one opportunity as a line.
+     *
+     * @param opportunity The opportunity
+     * @param scanId Number of the scan that found it
+     */
+    public void write(ArbitrageOpportunity opportunity, long scanId) throws IOException {
+        write(opportunity, scanId, null, null);
+    }
+
+    /**
+     * Write one opportunity as a line, with the prices of routing the same quantity across
+     * all venues of the consolidated book. The routed fields are written only when both
+     * quotes fill the whole quantity.
+     *
+     * @param opportunity The opportunity
+     * @param scanId Number of the scan that found it
+     * @param routedBuy Cheapest buy of the quantity across all venues, or null
+     * @param routedSell Best sell of the quantity across all venues, or null
+     */
+    public synchronized void write(ArbitrageOpportunity opportunity, long scanId,
+                                   RoutingQuote routedBuy, RoutingQuote routedSell) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("scan", scanId);
+        generator.writeStringField("time", Instant.ofEpochMilli(opportunity.getTimestamp().getTime()).toString());
+        generator.writeStringField("symbol", opportunity.getNormalizedSymbol());
+        generator.writeStringField("buyExchange", opportunity.getExchangeBuy());
+        generator.writeStringField("buySymbol", opportunity.getSymbolBuy());
+        generator.writeNumberField("buyPrice", opportunity.getBuyPrice());
+        generator.writeNumberField("buyFee", opportunity.getBuyFeePercentage());
+        generator.writeStringField("sellExchange", opportunity.getExchangeSell());
+        generator.writeStringField("sellSymbol", opportunity.getSymbolSell());
+        generator.writeNumberField("sellPrice", opportunity.getSellPrice());
+        generator.writeNumberField("sellFee", opportunity.getSellFeePercentage());
+        generator.writeNumberField("profitPercent", opportunity.getNetProfitPercentage());
+        if (routedBuy != null && routedSell != null && routedBuy.isFullyFilled() && routedSell.isFullyFilled()) {
+            double cost = routedBuy.getNetAmount();
+            generator.writeNumberField("routedQuantity", routedBuy.getFilledQuantity());
+            generator.writeNumberField("routedBuyPrice", routedBuy.getEffectivePrice());
+            generator.writeNumberField("routedSellPrice", routedSell.getEffectivePrice());
+            generator.writeNumberField("routedProfitPercent", (routedSell.getNetAmount() - cost) / cost * 100);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+        written++;
+    }
+
+    /**
+     * Write one opportunity of a market data replay as a line, once it has closed.
+     *
+     * @param replayed The closed opportunity
+     */
+    public synchronized void write(ReplayOpportunity replayed) throws IOException {
+        ArbitrageOpportunity opportunity = replayed.getOpportunity();
+        generator.writeStartObject();
+        generator.writeStringField("opened", Instant.ofEpochMilli(replayed.getOpenedAtMillis()).toString());
+        generator.writeStringField("closed", Instant.ofEpochMilli(replayed.getClosedAtMillis()).toString());
+        generator.writeNumberField("lifetimeMs", replayed.getLifetimeMillis());
+        generator.writeBooleanField("openAtEnd", replayed.isOpenAtEnd());
+        generator.writeStringField("symbol", opportunity.getNormalizedSymbol());
+        generator.writeStringField("buyExchange", opportunity.getExchangeBuy());
+        generator.writeNumberField("buyPrice", opportunity.getBuyPrice());
+        generator.writeStringField("sellExchange", opportunity.getExchangeSell());
+        generator.writeNumberField("sellPrice", opportunity.getSellPrice());
+        generator.writeNumberField("profitPercent", replayed.getOpeningProfitPercent());
+        generator.writeNumberField("peakProfitPercent", replayed.getPeakProfitPercent());
+        if (!Double.isNaN(replayed.getSlippageAdjustedProfitPercent())) {
+            generator.writeNumberField("slippageAdjustedProfitPercent", replayed.getSlippageAdjustedProfitPercent());
+        }
+        generator.writeNumberField("riskScore", opportunity.getRiskScore());
+        generator.writeNumberField("updates", replayed.getUpdates());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+        written++;
+    }
+
+    /**
+     * Number of opportunities written so far.
+     */
+    public synchronized long getWrittenCount() {
+        return written;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        generator.close();
+        if (!generator.isEnabled(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,567 @@
+package com.example.tradient.infrastructure.concurrent;
+
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Application-wide execution layer.
+ * <p>
+ * All background work runs on a fixed set of named, bounded pools, one per
+ * {@link Workload}, instead of pools created ad hoc by each component. Every pool has a
+ * fixed number of threads and a bounded queue ordered by {@link TaskPriority}, so a burst
+ * of requests queues up instead of spawning hundreds of threads. When the queue of
+ * {@link Workload#CPU_SCAN} or {@link Workload#RISK} is full the submitting thread runs
+ * the task itself, which slows down the producer rather than dropping work. The submitter
+ * must not stall, though, when it is the Android main thread or the timer thread, so
+ * their tasks are rejected instead, and so are those of {@link Workload#NETWORK_IO},
+ * {@link Workload#UI_BOUND} and {@link Workload#DISK_IO}: a blocking request run by the
+ * caller would hold up whatever stream or screen submitted it.
+ * <p>
+ * Periodic work is driven by a single timer thread that hands each run to the pool of
+ * its workload and skips a run while the previous one is still going.
+ * <p>
+ * On a JVM with virtual threads, blocking exchange I/O can instead run on a virtual
+ * thread per request through {@link #blockingIoExecutor()}.
+ * <p>
+ * The pools are shared: components cancel their own futures instead of shutting down
+ * an executor. The pools are shut down once, by {@link #shutdown(long, TimeUnit)} or
+ * the JVM shutdown hook.
+ */
+public class TaskScheduler {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 2000;
+
+    // Tasks waiting in the queue of each pool, labelled by workload. Stream listeners run on
+    // the socket's reader thread and never queue here, so this is no measure of their backlog
+    public static final String EXECUTOR_QUEUE_DEPTH = "tradient_executor_queue_depth";
+
+    private static TaskScheduler instance;
+
+    /**
+     * Classes of work with their own pool.
+     */
+    public enum Workload {
+        /** Exchange REST calls, WebSocket setup and other blocking I/O. */
+        NETWORK_IO("net", Math.min(16, Math.max(4, 2 * cpus())), 256, false),
+        /** Arbitrage scans over symbols and exchange pairs. */
+        CPU_SCAN("scan", cpus(), 512, true),
+        /** Risk assessment and slippage calculations. */
+        RISK("risk", Math.max(2, cpus() / 2), 256, true),
+        /** Background work whose result updates a screen. */
+        UI_BOUND("ui", 2, 64, false),
+        /** Local file I/O such as mapping and deleting market data recording segments. */
+        DISK_IO("disk", 1, 64, false);
+
+        private final String threadName;
+        private final int threads;
+        private final int queueCapacity;
+        private final boolean callerRunsWhenFull;
+
+        Workload(String threadName, int threads, int queueCapacity, boolean callerRunsWhenFull) {
+            this.threadName = threadName;
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.callerRunsWhenFull = callerRunsWhenFull;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+    }
+
+    /**
+     * Order in which queued tasks of a pool are started. Tasks of equal priority run in
+     * submission order.
+     */
+    public enum TaskPriority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final Map<Workload, WorkloadPool> pools = new EnumMap<>(Workload.class);
+    private final Map<Workload, Executor> executors = new EnumMap<>(Workload.class);
+    private final ScheduledThreadPoolExecutor timer;
+    private final Thread mainThread = androidMainThread();
+    private volatile Thread timerThread;
+    private final ExecutorService virtualIo;
+    private final Executor blockingIo;
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+
+    private TaskScheduler() {
+        for (Workload workload : Workload.values()) {
+            WorkloadPool pool = new WorkloadPool(workload, this::mayRunOnCaller);
+            pools.put(workload, pool);
+            executors.put(workload, pool::execute);
+            MetricsRegistry.getInstance().registerGauge(EXECUTOR_QUEUE_DEPTH, "workload", workload.threadName,
+                    () -> pool.queue.size());
+        }
+
+        ThreadFactory timerThreads = new NamedThreadFactory("tradient-timer");
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> timerThread = timerThreads.newThread(runnable));
+        timer.setRemoveOnCancelPolicy(true);
+        timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        virtualIo = VirtualThreads.newThreadPerTaskExecutor("tradient-vio-");
+        blockingIo = virtualIo != null ? virtualIo::execute : executor(Workload.NETWORK_IO);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> shutdown(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS), "tradient-executor-shutdown"));
+    }
+
+    public static synchronized TaskScheduler getInstance() {
+        if (instance == null) {
+            instance = new TaskScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Executor running tasks on the pool of a workload with normal priority, e.g. for
+     * {@code CompletableFuture.supplyAsync(supplier, executor)}. It cannot be shut down.
+     */
+    public Executor executor(Workload workload) {
+        return executors.get(workload);
+    }
+
+    /**
+     * Executor running tasks on the pool of a workload with the given priority.
+     */
+    public Executor executor(Workload workload, TaskPriority priority) {
+        WorkloadPool pool = pools.get(workload);
+        return command -> pool.execute(new PrioritizedTask<>(command, null, priority));
+    }
+
+    /**
+     * Executor for blocking exchange requests and subscriptions. With virtual threads
+     * (Java 21 and later) every task gets a virtual thread of its own, so thousands of
+     * requests can block at the same time without a pool to size; callers bound their
+     * own concurrency, e.g. per exchange. Elsewhere, including Android, tasks run on the
+     * {@link Workload#NETWORK_IO} pool. It cannot be shut down.
+     */
+    public Executor blockingIoExecutor() {
+        return blockingIo;
+    }
+
+    /**
+     * Whether {@link #blockingIoExecutor()} runs tasks on virtual threads.
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualIo != null;
+    }
+
+    public Future<?> submit(Workload workload, Runnable task) {
+        return submit(workload, TaskPriority.NORMAL, task);
+    }
+
+    public Future<?> submit(Workload workload, TaskPriority priority, Runnable task) {
+        PrioritizedTask<Object> future = new PrioritizedTask<>(task, null, priority);
+        pools.get(workload).execute(future);
+        return future;
+    }
+
+    public <T> Future<T> submit(Workload workload, TaskPriority priority, Callable<T> task) {
+        PrioritizedTask<T> future = new PrioritizedTask<>(task, priority);
+        pools.get(workload).execute(future);
+        return future;
+    }
+
+    /**
+     * Run a task periodically on the pool of a workload. A run that comes due while the
+     * previous one is still executing is skipped, so slow runs never pile up.
+     *
+     * @return Future that stops further runs when cancelled; a run in progress completes
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Workload workload, Runnable task,
+                                                  long initialDelay, long period, TimeUnit unit) {
+        WorkloadPool pool = pools.get(workload);
+        AtomicBoolean running = new AtomicBoolean(false);
+        return timer.scheduleAtFixedRate(() -> {
+            if (!running.compareAndSet(false, true)) {
+                pool.skippedRuns.increment();
+                return;
+            }
+            try {
+                pool.execute(new PrioritizedTask<>(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        running.set(false);
+                    }
+                }, null, TaskPriority.NORMAL));
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }, initialDelay, period, unit);
+    }
+
+    /**
+     * Run a short task once after a delay on the timer thread, e.g. a deadline. Longer
+     * work should be handed to a pool from the task.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer.schedule(task, delay, unit);
+    }
+
+    /**
+     * Current figures of the pool of a workload.
+     */
+    public PoolStats getStats(Workload workload) {
+        return new PoolStats(workload, pools.get(workload));
+    }
+
+    public Map<Workload, PoolStats> getAllStats() {
+        Map<Workload, PoolStats> stats = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            stats.put(workload, getStats(workload));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Generate a report of the load of every pool.
+     */
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("===== EXECUTOR REPORT =====\n");
+        for (PoolStats stats : getAllStats().values()) {
+            report.append(stats).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Stop accepting work, let queued tasks finish for up to the timeout and then
+     * interrupt whatever is still running. Only the first call has an effect.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        timer.shutdownNow();
+        for (WorkloadPool pool : pools.values()) {
+            pool.shutdown();
+        }
+        if (virtualIo != null) {
+            virtualIo.shutdown();
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            for (WorkloadPool pool : pools.values()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !pool.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    pool.shutdownNow();
+                }
+            }
+            if (virtualIo != null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !virtualIo.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    virtualIo.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (WorkloadPool pool : pools.values()) {
+                pool.shutdownNow();
+            }
+            if (virtualIo != null) {
+                virtualIo.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown.get();
+    }
+
+    private static int cpus() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Whether the current thread may run a task itself because the pool is saturated.
+     */
+    private boolean mayRunOnCaller() {
+        Thread current = Thread.currentThread();
+        return current != mainThread && current != timerThread;
+    }
+
+    /**
+     * The Android main thread, looked up by reflection since this class also runs on a
+     * plain JVM.
+     *
+     * @return The main thread, or null outside Android
+     */
+    private static Thread androidMainThread() {
+        try {
+            Class<?> looperType = Class.forName("android.os.Looper");
+            Object mainLooper = looperType.getMethod("getMainLooper").invoke(null);
+            return mainLooper != null ? (Thread) looperType.getMethod("getThread").invoke(mainLooper) : null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fixed-size pool with a bounded priority queue and load counters.
+     */
+    private static final class WorkloadPool extends ThreadPoolExecutor {
+        private final Workload workload;
+        private final BoundedPriorityQueue queue;
+        private final BooleanSupplier callerMayRun;
+        private final LongAdder callerRuns = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder skippedRuns = new LongAdder();
+        private final LongAdder queueWaitNanos = new LongAdder();
+        private final LongAdder started = new LongAdder();
+
+        /**
+         * @param callerMayRun Whether the submitting thread may run a task when the queue is full
+         */
+        WorkloadPool(Workload workload, BooleanSupplier callerMayRun) {
+            this(workload, new BoundedPriorityQueue(workload.queueCapacity), callerMayRun);
+        }
+
+        private WorkloadPool(Workload workload, BoundedPriorityQueue queue, BooleanSupplier callerMayRun) {
+            super(workload.threads, workload.threads, 60, TimeUnit.SECONDS, queue,
+                    new NamedThreadFactory("tradient-" + workload.threadName));
+            this.workload = workload;
+            this.queue = queue;
+            this.callerMayRun = callerMayRun;
+            setRejectedExecutionHandler(new SaturationPolicy());
+            allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            // The queue orders by priority, so everything entering it must carry one
+            super.execute(command instanceof PrioritizedTask
+                    ? command
+                    : new PrioritizedTask<>(command, null, TaskPriority.NORMAL));
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+            return new PrioritizedTask<>(runnable, value, TaskPriority.NORMAL);
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new PrioritizedTask<>(callable, TaskPriority.NORMAL);
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            super.beforeExecute(thread, runnable);
+            if (runnable instanceof PrioritizedTask) {
+                queueWaitNanos.add(System.nanoTime() - ((PrioritizedTask<?>) runnable).createdNanos);
+            }
+            started.increment();
+        }
+
+        private final class SaturationPolicy implements RejectedExecutionHandler {
+            @Override
+            public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                if (!executor.isShutdown() && workload.callerRunsWhenFull && callerMayRun.getAsBoolean()) {
+                    callerRuns.increment();
+                    runnable.run();
+                    return;
+                }
+                rejected.increment();
+                throw new RejectedExecutionException("Queue of " + workload + " pool is full ("
+                        + queue.size() + " tasks) or the pool is shut down");
+            }
+        }
+    }
+
+    /**
+     * Priority queue that refuses new tasks beyond its capacity. The size check is not
+     * atomic with the insert, so concurrent submitters may overshoot it slightly.
+     */
+    private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        BoundedPriorityQueue(int capacity) {
+            super(Math.min(capacity, 64));
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            if (size() >= capacity) {
+                return false;
+            }
+            boolean added = super.offer(runnable);
+            if (added) {
+                maxDepth.accumulateAndGet(size(), Math::max);
+            }
+            return added;
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+    }
+
+    /**
+     * Future ordered by priority, then by submission.
+     */
+    private static final class PrioritizedTask<T> extends FutureTask<T>
+            implements Comparable<PrioritizedTask<?>> {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final TaskPriority priority;
+        private final long sequence = SEQUENCE.getAndIncrement();
+        private final long createdNanos = System.nanoTime();
+
+        PrioritizedTask(Callable<T> callable, TaskPriority priority) {
+            super(callable);
+            this.priority = priority;
+        }
+
+        PrioritizedTask(Runnable runnable, T result, TaskPriority priority) {
+            super(runnable, result);
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Point-in-time load figures of one pool.
+     */
+    public static class PoolStats {
+        private final Workload workload;
+        private final int threads;
+        private final int activeThreads;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long completedTasks;
+        private final long callerRuns;
+        private final long rejectedTasks;
+        private final long skippedRuns;
+        private final double averageQueueWaitMillis;
+
+        private PoolStats(Workload workload, WorkloadPool pool) {
+            this.workload = workload;
+            this.threads = pool.getPoolSize();
+            this.activeThreads = pool.getActiveCount();
+            this.queueDepth = pool.queue.size();
+            this.maxQueueDepth = pool.queue.maxDepth.get();
+            this.completedTasks = pool.getCompletedTaskCount();
+            this.callerRuns = pool.callerRuns.sum();
+            this.rejectedTasks = pool.rejected.sum();
+            this.skippedRuns = pool.skippedRuns.sum();
+            long startedTasks = pool.started.sum();
+            this.averageQueueWaitMillis = startedTasks > 0
+                    ? pool.queueWaitNanos.sum() / 1_000_000.0 / startedTasks : 0.0;
+        }
+
+        public Workload getWorkload() {
+            return workload;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public long getCompletedTasks() {
+            return completedTasks;
+        }
+
+        /**
+         * Tasks run by the submitting thread because the queue was full.
+         */
+        public long getCallerRuns() {
+            return callerRuns;
+        }
+
+        public long getRejectedTasks() {
+            return rejectedTasks;
+        }
+
+        /**
+         * Periodic runs skipped because the previous run was still executing.
+         */
+        public long getSkippedRuns() {
+            return skippedRuns;
+        }
+
+        public double getAverageQueueWaitMillis() {
+            return averageQueueWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d/%d threads active, queue %d/%d (max %d), %d completed, avg wait %.1fms, "
+                            + "%d caller-runs, %d rejected, %d skipped",
+                    workload, activeThreads, threads, queueDepth, workload.queueCapacity, maxQueueDepth,
+                    completedTasks, averageQueueWaitMillis, callerRuns, rejectedTasks, skippedRuns);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.tradient.infrastructure.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads from code compiled for Java 11. The Java 21 API is looked
+ * up by reflection, so the same classes run on older JVMs and on Android, where no
+ * virtual threads exist.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Create an executor that starts a new virtual thread for every task.
+     *
+     * @param namePrefix Prefix of the thread names, followed by a counter
+     * @return The executor, or null if the JVM has no virtual threads
+     */
+    static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Older JVM, or virtual threads still a preview feature
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.tradient.infrastructure.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count of events, e.g. messages received or requests failed.
+ * <p>
+ * Backed by a {@link LongAdder}, so any number of threads can increment the same
+ * counter without contending on one memory location. Obtain counters from the
+ * {@link MetricsRegistry} once and keep them; incrementing a held counter allocates
+ * nothing.
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
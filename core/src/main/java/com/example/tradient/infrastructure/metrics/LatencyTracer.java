@@ -0,0 +1,199 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.LatencyTrace;
+import com.example.tradient.util.AppLog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows opportunities from the tick that produced them to their publication and
+ * records how long each stage took.
+ * <p>
+ * The detector calls {@link #onScanned}, the risk calculators {@link #onRiskAssessed}
+ * and whoever hands the opportunity to its consumers {@link #onPublished}. Publication
+ * records every stage of the opportunity's {@link LatencyTrace} into
+ * {@code tradient_tick_stage_millis{stage=...}} and the whole path into
+ * {@code tradient_tick_to_opportunity_millis}:
+ * <ul>
+ *   <li>network: exchange timestamp of the tick to its arrival, in wall-clock time</li>
+ *   <li>parse: arrival to the parsed ticker</li>
+ *   <li>apply: parsed to cached by the exchange service</li>
+ *   <li>scan: cached to evaluated by the detector, including the wait for the next scan</li>
+ *   <li>risk: evaluated to risk assessed</li>
+ *   <li>publish: risk assessed, or evaluated, to published</li>
+ * </ul>
+ * Stages a trace has no stamps for are skipped. Traces at or above the slow threshold
+ * are kept with their breakdown in a small ring (see {@link #getSlowTraces()}) and
+ * logged at most once per {@link #SLOW_LOG_INTERVAL_MILLIS}.
+ */
+public class LatencyTracer {
+
+    private static final String TAG = "LatencyTracer";
+
+    public static final String STAGE_TIME = "tradient_tick_stage_millis";
+    public static final String TICK_TO_OPPORTUNITY = "tradient_tick_to_opportunity_millis";
+
+    public static final long DEFAULT_SLOW_THRESHOLD_MILLIS = 1000;
+    public static final long SLOW_LOG_INTERVAL_MILLIS = 10_000;
+    private static final int MAX_SLOW_TRACES = 32;
+
+    private static LatencyTracer instance;
+
+    private final LatencyHistogram network;
+    private final LatencyHistogram parse;
+    private final LatencyHistogram apply;
+    private final LatencyHistogram scan;
+    private final LatencyHistogram risk;
+    private final LatencyHistogram publish;
+    private final LatencyHistogram total;
+
+    private final ArrayDeque<String> slowTraces = new ArrayDeque<>();
+    private volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_THRESHOLD_MILLIS);
+    private long lastSlowLogNanos;
+    private int slowSinceLog;
+
+    LatencyTracer(MetricsRegistry registry) {
+        this.network = registry.histogram(STAGE_TIME, "stage", "network");
+        this.parse = registry.histogram(STAGE_TIME, "stage", "parse");
+        this.apply = registry.histogram(STAGE_TIME, "stage", "apply");
+        this.scan = registry.histogram(STAGE_TIME, "stage", "scan");
+        this.risk = registry.histogram(STAGE_TIME, "stage", "risk");
+        this.publish = registry.histogram(STAGE_TIME, "stage", "publish");
+        this.total = registry.histogram(TICK_TO_OPPORTUNITY);
+    }
+
+    public static synchronized LatencyTracer getInstance() {
+        if (instance == null) {
+            instance = new LatencyTracer(MetricsRegistry.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Set the duration from tick to publication at or above which a trace is kept and logged.
+     */
+    public void setSlowThresholdMillis(long millis) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    /**
+     * Start tracing an opportunity just evaluated from its buy and sell tickers.
+     *
+     * @param nowNanos {@link System#nanoTime()} of the evaluation, shared by all
+     *                 opportunities of one pass
+     */
+    public void onScanned(ArbitrageOpportunity opportunity, long nowNanos) {
+        opportunity.setLatencyTrace(LatencyTrace.scanned(opportunity, nowNanos));
+    }
+
+    /**
+     * Stamp the completion of the opportunity's risk assessment, if it is traced and
+     * not yet published.
+     */
+    public void onRiskAssessed(ArbitrageOpportunity opportunity) {
+        LatencyTrace trace = opportunity != null ? opportunity.getLatencyTrace() : null;
+        if (trace != null) {
+            trace.markRisk(System.nanoTime());
+        }
+    }
+
+    /**
+     * Stamp the publication of the opportunity and record its stages. Publishing the
+     * same opportunity again records nothing.
+     */
+    public void onPublished(ArbitrageOpportunity opportunity) {
+        LatencyTrace trace = opportunity != null ? opportunity.getLatencyTrace() : null;
+        if (trace == null || !trace.markPublished(System.nanoTime())) {
+            return;
+        }
+
+        long exchangeTime = trace.getExchangeTimeMillis();
+        long receivedAt = trace.getReceivedAtMillis();
+        if (exchangeTime > 0 && receivedAt >= exchangeTime) {
+            network.recordNanos(TimeUnit.MILLISECONDS.toNanos(receivedAt - exchangeTime));
+        }
+        record(parse, trace.getReceivedNanos(), trace.getParsedNanos());
+        record(apply, trace.getParsedNanos(), trace.getAppliedNanos());
+        record(scan, trace.getAppliedNanos(), trace.getScannedNanos());
+        record(risk, trace.getScannedNanos(), trace.getRiskNanos());
+        long beforePublish = trace.getRiskNanos() != 0 ? trace.getRiskNanos() : trace.getScannedNanos();
+        record(publish, beforePublish, trace.getPublishedNanos());
+
+        long elapsed = trace.getPublishedNanos() - trace.getStartNanos();
+        total.recordNanos(elapsed);
+        if (elapsed >= slowThresholdNanos) {
+            onSlow(opportunity, trace, elapsed);
+        }
+    }
+
+    /**
+     * The most recent slow traces, oldest first.
+     */
+    public synchronized List<String> getSlowTraces() {
+        return new ArrayList<>(slowTraces);
+    }
+
+    private static void record(LatencyHistogram histogram, long fromNanos, long toNanos) {
+        if (fromNanos != 0 && toNanos != 0) {
+            histogram.recordNanos(Math.max(0, toNanos - fromNanos));
+        }
+    }
+
+    private void onSlow(ArbitrageOpportunity opportunity, LatencyTrace trace, long elapsedNanos) {
+        String description = describe(opportunity, trace, elapsedNanos);
+        int skipped;
+        synchronized (this) {
+            if (slowTraces.size() == MAX_SLOW_TRACES) {
+                slowTraces.removeFirst();
+            }
+            slowTraces.addLast(description);
+            long now = System.nanoTime();
+            if (lastSlowLogNanos != 0
+                    && now - lastSlowLogNanos < TimeUnit.MILLISECONDS.toNanos(SLOW_LOG_INTERVAL_MILLIS)) {
+                slowSinceLog++;
+                return;
+            }
+            skipped = slowSinceLog;
+            slowSinceLog = 0;
+            lastSlowLogNanos = now;
+        }
+        AppLog.w(TAG, "Slow opportunity " + description
+                + (skipped > 0 ? " (" + skipped + " more since the last report)" : ""));
+    }
+
+    private static String describe(ArbitrageOpportunity opportunity, LatencyTrace trace, long elapsedNanos) {
+        StringBuilder text = new StringBuilder();
+        text.append(opportunity.getNormalizedSymbol())
+                .append(' ').append(opportunity.getExchangeBuy()).append("->").append(opportunity.getExchangeSell())
+                .append(" tick from ").append(trace.getExchange())
+                .append(String.format(Locale.US, ": total=%.1fms", elapsedNanos / 1e6));
+        long exchangeTime = trace.getExchangeTimeMillis();
+        long receivedAt = trace.getReceivedAtMillis();
+        if (exchangeTime > 0 && receivedAt >= exchangeTime) {
+            text.append(" network=").append(receivedAt - exchangeTime).append("ms");
+        }
+        stage(text, "parse", trace.getReceivedNanos(), trace.getParsedNanos());
+        stage(text, "apply", trace.getParsedNanos(), trace.getAppliedNanos());
+        stage(text, "scan", trace.getAppliedNanos(), trace.getScannedNanos());
+        stage(text, "risk", trace.getScannedNanos(), trace.getRiskNanos());
+        stage(text, "publish", trace.getRiskNanos() != 0 ? trace.getRiskNanos() : trace.getScannedNanos(),
+                trace.getPublishedNanos());
+        return text.toString();
+    }
+
+    private static void stage(StringBuilder text, String name, long fromNanos, long toNanos) {
+        if (fromNanos != 0 && toNanos != 0) {
+            text.append(String.format(Locale.US, " %s=%.1fms", name, Math.max(0, toNanos - fromNanos) / 1e6));
+        }
+    }
+}
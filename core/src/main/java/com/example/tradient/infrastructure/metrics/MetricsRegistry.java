@@ -0,0 +1,236 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms.
+ * <p>
+ * Metrics are created on first use and identified by their name plus at most one
+ * label, e.g. {@code tradient_websocket_messages_total{exchange="binance"}}; all metrics
+ * of one name have the same type. Looking a metric up builds its key, so hot paths look
+ * their metrics up once and keep them: incrementing a {@link Counter} or recording into
+ * a {@link LatencyHistogram} is lock-free and allocates nothing. Gauges are read from a
+ * supplier when a snapshot is taken, so they cost nothing in between.
+ * <p>
+ * {@link #toText()} renders all metrics in the Prometheus text format, histograms as
+ * summaries with millisecond quantiles; {@link MetricsReporter} logs periodic snapshots
+ * with per-second rates.
+ */
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private static MetricsRegistry instance;
+
+    private final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<>();
+    // Type of each metric name: the text format has one TYPE line per name, whatever the labels
+    private final ConcurrentHashMap<String, Type> types = new ConcurrentHashMap<>();
+
+    MetricsRegistry() {
+    }
+
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Kind of a metric.
+     */
+    public enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("summary");
+
+        private final String prometheusType;
+
+        Type(String prometheusType) {
+            this.prometheusType = prometheusType;
+        }
+    }
+
+    public Counter counter(String name) {
+        return counter(name, null, null);
+    }
+
+    /**
+     * Counter of one label value, created on first use.
+     *
+     * @param name Metric name, by convention ending in {@code _total}
+     * @param labelName Label name, e.g. "exchange", or null for none
+     * @param labelValue Label value
+     */
+    public Counter counter(String name, String labelName, String labelValue) {
+        return get(name, labelName, labelValue, Type.COUNTER).counter;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histogram(name, null, null);
+    }
+
+    /**
+     * Latency histogram of one label value, created on first use.
+     *
+     * @param name Metric name, by convention ending in {@code _millis}
+     * @param labelName Label name, or null for none
+     * @param labelValue Label value
+     */
+    public LatencyHistogram histogram(String name, String labelName, String labelValue) {
+        return get(name, labelName, labelValue, Type.HISTOGRAM).histogram;
+    }
+
+    public void registerGauge(String name, DoubleSupplier value) {
+        registerGauge(name, null, null, value);
+    }
+
+    /**
+     * Register a gauge read from a supplier at every snapshot, e.g. a queue size.
+     * Registering the same gauge again replaces its supplier.
+     *
+     * @param name Metric name
+     * @param labelName Label name, or null for none
+     * @param labelValue Label value
+     * @param value Supplies the current value; must be cheap and thread-safe
+     */
+    public void registerGauge(String name, String labelName, String labelValue, DoubleSupplier value) {
+        get(name, labelName, labelValue, Type.GAUGE).gauge = value;
+    }
+
+    /**
+     * Remove every metric, e.g. between two runs in one process. Components holding
+     * metrics keep recording into the removed ones.
+     */
+    public void clear() {
+        metrics.clear();
+        types.clear();
+    }
+
+    /**
+     * Render all metrics in the Prometheus text exposition format.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        String lastName = null;
+        for (Metric metric : getMetrics()) {
+            if (!metric.name.equals(lastName)) {
+                text.append("# TYPE ").append(metric.name).append(' ').append(metric.type.prometheusType).append('\n');
+                lastName = metric.name;
+            }
+            switch (metric.type) {
+                case COUNTER:
+                    line(text, metric.name, metric.labels, null, metric.counter.get());
+                    break;
+                case GAUGE:
+                    line(text, metric.name, metric.labels, null, metric.getGaugeValue());
+                    break;
+                case HISTOGRAM:
+                    LatencyHistogram histogram = metric.histogram;
+                    for (double quantile : QUANTILES) {
+                        line(text, metric.name, metric.labels, "quantile=\"" + quantile + "\"",
+                                histogram.getPercentileMillis(quantile));
+                    }
+                    long count = histogram.getCount();
+                    line(text, metric.name + "_sum", metric.labels, null, histogram.getMeanMillis() * count);
+                    line(text, metric.name + "_count", metric.labels, null, count);
+                    break;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * All metrics, sorted by name and label.
+     */
+    List<Metric> getMetrics() {
+        List<Metric> sorted = new ArrayList<>(metrics.values());
+        Collections.sort(sorted, (a, b) -> {
+            int byName = a.name.compareTo(b.name);
+            return byName != 0 ? byName : a.labels.compareTo(b.labels);
+        });
+        return sorted;
+    }
+
+    private Metric get(String name, String labelName, String labelValue, Type type) {
+        String labels = labelName != null ? labelName + "=\"" + escape(labelValue) + "\"" : "";
+        String key = labels.isEmpty() ? name : name + "{" + labels + "}";
+        Metric metric = metrics.get(key);
+        if (metric == null) {
+            Type registered = types.putIfAbsent(name, type);
+            if (registered != null && registered != type) {
+                throw new IllegalArgumentException(name + " is a " + registered + ", not a " + type);
+            }
+            metric = metrics.computeIfAbsent(key, k -> new Metric(k, name, labels, type));
+        }
+        if (metric.type != type) {
+            throw new IllegalArgumentException(key + " is a " + metric.type + ", not a " + type);
+        }
+        return metric;
+    }
+
+    private static void line(StringBuilder text, String name, String labels, String extraLabel, double value) {
+        text.append(name);
+        if (!labels.isEmpty() || extraLabel != null) {
+            text.append('{').append(labels);
+            if (extraLabel != null) {
+                text.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(String.format(Locale.US, "%.3f", value));
+        }
+        text.append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        String value = labelValue != null ? labelValue : "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * One registered metric.
+     */
+    static final class Metric {
+        final String key;
+        final String name;
+        final String labels;
+        final Type type;
+        final Counter counter;
+        final LatencyHistogram histogram;
+        volatile DoubleSupplier gauge;
+
+        Metric(String key, String name, String labels, Type type) {
+            this.key = key;
+            this.name = name;
+            this.labels = labels;
+            this.type = type;
+            this.counter = type == Type.COUNTER ? new Counter() : null;
+            this.histogram = type == Type.HISTOGRAM ? new LatencyHistogram() : null;
+        }
+
+        double getGaugeValue() {
+            DoubleSupplier supplier = gauge;
+            if (supplier == null) {
+                return Double.NaN;
+            }
+            try {
+                return supplier.getAsDouble();
+            } catch (RuntimeException e) {
+                // A gauge of something already shut down
+                return Double.NaN;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends periodic snapshots of a {@link MetricsRegistry} through an
+ * {@link INotificationService}, as one notification of type {@code "metrics"} per
+ * interval.
+ * <p>
+ * Counters are shown with their total and their rate per second over the last
+ * interval, histograms with their count and cumulative percentiles in milliseconds,
+ * gauges with their current value. Metrics that have not recorded anything yet are
+ * left out.
+ */
+public class MetricsReporter {
+
+    public static final String NOTIFICATION_TYPE = "metrics";
+
+    private final MetricsRegistry registry;
+    private final INotificationService notificationService;
+
+    // Counter totals at the previous snapshot
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private long previousNanos = System.nanoTime();
+    private ScheduledFuture<?> task;
+
+    public MetricsReporter(MetricsRegistry registry, INotificationService notificationService) {
+        this.registry = registry;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Send a snapshot every period until stopped.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        stop();
+        task = TaskScheduler.getInstance().scheduleAtFixedRate(TaskScheduler.Workload.CPU_SCAN,
+                this::report, period, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Send a snapshot now, e.g. a final one before exiting.
+     */
+    public void report() {
+        notificationService.notify("Metrics", snapshot(), NOTIFICATION_TYPE);
+    }
+
+    /**
+     * Render a snapshot, one metric per line, with counter rates since the previous snapshot.
+     */
+    public synchronized String snapshot() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - previousNanos) / 1e9);
+        previousNanos = now;
+
+        StringBuilder text = new StringBuilder();
+        for (MetricsRegistry.Metric metric : registry.getMetrics()) {
+            switch (metric.type) {
+                case COUNTER: {
+                    long count = metric.counter.get();
+                    Long previous = previousCounts.put(metric.key, count);
+                    if (count == 0) {
+                        continue;
+                    }
+                    text.append(String.format(Locale.US, "%n  %s %d (%.1f/s)", metric.key, count,
+                            (count - (previous != null ? previous : 0)) / seconds));
+                    break;
+                }
+                case GAUGE:
+                    text.append(String.format(Locale.US, "%n  %s %.1f", metric.key, metric.getGaugeValue()));
+                    break;
+                case HISTOGRAM: {
+                    LatencyHistogram histogram = metric.histogram;
+                    long count = histogram.getCount();
+                    if (count == 0) {
+                        continue;
+                    }
+                    text.append(String.format(Locale.US, "%n  %s n=%d p50=%.2fms p99=%.2fms max=%.2fms",
+                            metric.key, count, histogram.getP50Millis(), histogram.getP99Millis(),
+                            histogram.getMaxMillis()));
+                    break;
+                }
+            }
+        }
+        return text.toString();
+    }
+}
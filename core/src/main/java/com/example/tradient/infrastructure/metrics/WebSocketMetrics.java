@@ -0,0 +1,67 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.MarketClock;
+
+import java.util.Locale;
+
+/**
+ * Metrics of the market data stream of one exchange: messages received and the time
+ * from receiving a message to handing its first update to the listeners.
+ * <p>
+ * Call {@link #onMessageReceived()} when a message arrives, and {@link #onTickerParsed(Ticker)}
+ * or {@link #onMessageParsed()} before notifying listeners of an update parsed from it.
+ * Tickers are stamped with the receive and parse times, which {@link LatencyTracer}
+ * follows through the rest of the pipeline. OkHttp delivers the messages of a WebSocket
+ * on one reader thread, so the receive time is a plain field; messages carrying several
+ * updates record their parse time once but stamp every ticker.
+ */
+public final class WebSocketMetrics {
+
+    public static final String MESSAGES = "tradient_websocket_messages_total";
+    public static final String PARSE_TIME = "tradient_websocket_parse_millis";
+
+    private final Counter messages;
+    private final LatencyHistogram parseTime;
+    private long receivedNanos = -1;
+    private long receivedAtMillis;
+    private boolean parseRecorded;
+
+    public WebSocketMetrics(String exchangeName) {
+        String exchange = exchangeName != null ? exchangeName.toLowerCase(Locale.ROOT) : "unknown";
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.messages = registry.counter(MESSAGES, "exchange", exchange);
+        this.parseTime = registry.histogram(PARSE_TIME, "exchange", exchange);
+    }
+
+    public void onMessageReceived() {
+        messages.increment();
+        receivedNanos = System.nanoTime();
+        receivedAtMillis = MarketClock.currentTimeMillis();
+        parseRecorded = false;
+    }
+
+    public void onMessageParsed() {
+        recordParse(System.nanoTime());
+    }
+
+    /**
+     * Record the parse time and stamp the ticker with the receive and parse times of the
+     * current message.
+     */
+    public void onTickerParsed(Ticker ticker) {
+        long now = System.nanoTime();
+        recordParse(now);
+        if (receivedNanos >= 0 && ticker != null) {
+            ticker.stampReceived(receivedNanos, receivedAtMillis, now);
+        }
+    }
+
+    private void recordParse(long now) {
+        if (receivedNanos >= 0 && !parseRecorded) {
+            parseTime.recordNanos(now - receivedNanos);
+            parseRecorded = true;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.tradient.infrastructure.notification;
+
+import com.example.tradient.data.interfaces.ArbitrageResult;
+import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.infrastructure.metrics.Counter;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Notification service that hands every message to another one on a background
+ * thread, so callers never wait for console or logcat I/O.
+ * <p>
+ * Messages go through a bounded queue. When it is full, debug and info messages are
+ * dropped and counted in {@code tradient_log_dropped_total}, and the writer reports
+ * the number dropped with its next message; warnings, errors and notifications are
+ * written on the caller's thread instead, so they are never lost. Debug messages are
+ * rejected before they are queued when the target has debug logging disabled.
+ * <p>
+ * {@link #close()} writes the queued messages and stops the writer; messages logged
+ * after that are written directly, and a message queued while the writer exits is
+ * written by the thread that logged it. Processes close it before exiting, e.g. from a
+ * shutdown hook.
+ */
+public class AsyncNotificationService implements INotificationService {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final String DROPPED = "tradient_log_dropped_total";
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final INotificationService target;
+    private final BlockingQueue<Runnable> queue;
+    private final Counter dropped = MetricsRegistry.getInstance().counter(DROPPED);
+    private final Thread writer;
+
+    // Dropped since the writer last reported them
+    private final AtomicInteger droppedSinceReport = new AtomicInteger();
+    private volatile boolean closed;
+
+    public AsyncNotificationService(INotificationService target) {
+        this(target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param target Service that writes the messages
+     * @param capacity Maximum number of queued messages
+     */
+    public AsyncNotificationService(INotificationService target, int capacity) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "tradient-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void logInfo(String message) {
+        offer(() -> target.logInfo(message));
+    }
+
+    @Override
+    public void logWarning(String message) {
+        put(() -> target.logWarning(message));
+    }
+
+    @Override
+    public void logError(String message, Throwable throwable) {
+        put(() -> target.logError(message, throwable));
+    }
+
+    @Override
+    public void logDebug(String message) {
+        if (target.isDebugEnabled()) {
+            offer(() -> target.logDebug(message));
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return target.isDebugEnabled();
+    }
+
+    @Override
+    public void notify(String title, String message, String type) {
+        put(() -> target.notify(title, message, type));
+    }
+
+    @Override
+    public void notifyArbitrageOpportunity(ArbitrageResult opportunity) {
+        put(() -> target.notifyArbitrageOpportunity(opportunity));
+    }
+
+    @Override
+    public void notifyArbitrageError(Throwable error) {
+        put(() -> target.notifyArbitrageError(error));
+    }
+
+    /**
+     * Write the queued messages and stop the writer. Waits at most five seconds.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue a message that may be dropped.
+     */
+    private void offer(Runnable message) {
+        if (closed) {
+            message.run();
+        } else if (!queue.offer(message)) {
+            dropped.increment();
+            droppedSinceReport.incrementAndGet();
+        } else if (closed) {
+            writeQueued();
+        }
+    }
+
+    /**
+     * Queue a message that must not be dropped, writing it directly if the queue is full.
+     */
+    private void put(Runnable message) {
+        if (closed || !queue.offer(message)) {
+            message.run();
+        } else if (closed) {
+            writeQueued();
+        }
+    }
+
+    /**
+     * Write what is still queued after closing started. The writer may already have
+     * drained the queue for the last time before the caller's message went in; every
+     * message is taken from the queue once, so nothing is written twice.
+     */
+    private void writeQueued() {
+        Runnable message;
+        while ((message = queue.poll()) != null) {
+            try {
+                message.run();
+            } catch (RuntimeException e) {
+                // Same as the writer: a failing target must not fail the caller
+            }
+        }
+    }
+
+    private void drain() {
+        List<Runnable> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Closing
+                break;
+            }
+            queue.drainTo(batch);
+            write(batch);
+        }
+        // Messages queued before closing
+        queue.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(List<Runnable> batch) {
+        int droppedCount = droppedSinceReport.getAndSet(0);
+        if (droppedCount > 0) {
+            target.logWarning("Log queue full, " + droppedCount + " messages dropped");
+        }
+        for (Runnable message : batch) {
+            try {
+                message.run();
+            } catch (RuntimeException e) {
+                // A failing target must not stop the writer
+            }
+        }
+        batch.clear();
+    }
+}
@@ -2,13 +2,14 @@ package com.example.tradient.infrastructure.notification;
 
 import com.example.tradient.data.interfaces.INotificationService;
 
+import java.io.PrintStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
- * Android-compatible implementation of the notification service.
- * This service implements the INotificationService interface and provides
- * logging functionality compatible with Android's logging system.
+ * Console implementation of the notification service, used by headless processes.
+ * This service implements the INotificationService interface and writes timestamped
+ * messages to standard output, and errors with their stack traces to standard error.
  * 
  * The service supports different log levels (INFO, WARNING, ERROR, DEBUG)
  * and can be configured to enable/disable debug logging.
@@ -22,6 +23,19 @@ public class ConsoleNotificationService implements INotificationService {
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
     
     private boolean debugEnabled;
+    private final PrintStream out;
+    
+    /**
+     * Constructor with debug mode option and the stream for non-error messages.
+     * Processes that write their results to standard output pass standard error here.
+     *
+     * @param debugEnabled Whether to enable debug logging
+     * @param out The stream for messages below ERROR
+     */
+    public ConsoleNotificationService(boolean debugEnabled, PrintStream out) {
+        this.debugEnabled = debugEnabled;
+        this.out = out;
+    }
     
     /**
      * Constructor with debug mode option.
@@ -29,7 +43,7 @@ public class ConsoleNotificationService implements INotificationService {
      * @param debugEnabled Whether to enable debug logging
      */
     public ConsoleNotificationService(boolean debugEnabled) {
-        this.debugEnabled = debugEnabled;
+        this(debugEnabled, System.out);
     }
     
     /**
@@ -52,7 +66,9 @@ public class ConsoleNotificationService implements INotificationService {
     @Override
     public void logError(String message, Throwable throwable) {
         logFormattedMessage("ERROR", message);
-        // Android logging would handle the throwable differently, but for now we'll keep it silent
+        if (throwable != null) {
+            throwable.printStackTrace(System.err);
+        }
     }
     
     @Override
@@ -62,24 +78,26 @@ public class ConsoleNotificationService implements INotificationService {
         }
     }
     
+    @Override
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+    
     @Override
     public void notify(String title, String message, String type) {
-        // On Android, this would create a notification
-        // For now, we're silencing all output
+        logFormattedMessage(type != null ? type.toUpperCase() : "INFO", title + ": " + message);
     }
     
     @Override
     public void notifyArbitrageOpportunity(com.example.tradient.data.interfaces.ArbitrageResult opportunity) {
         if (opportunity != null && opportunity.hasOpportunities()) {
-            // On Android, this would create a notification for the arbitrage opportunity
-            // For now, we're silencing all output
+            logFormattedMessage("OPPORTUNITY", opportunity.toString());
         }
     }
     
     @Override
     public void notifyArbitrageError(Throwable error) {
-        // On Android, this would create an error notification
-        // For now, we're silencing all output
+        logError("Arbitrage error occurred", error);
     }
     
     /**
@@ -89,7 +107,11 @@ public class ConsoleNotificationService implements INotificationService {
      * @param message The message to log
      */
     private void logFormattedMessage(String level, String message) {
-        // On Android, this would use Android's Log class
-        // For now, we're silencing all output
+        String line = LocalDateTime.now().format(timeFormatter) + " [" + level + "] " + message;
+        if ("ERROR".equals(level)) {
+            System.err.println(line);
+        } else {
+            out.println(line);
+        }
     }
 } 
\ No newline at end of file
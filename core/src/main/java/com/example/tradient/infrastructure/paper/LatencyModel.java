@@ -0,0 +1,120 @@
+package com.example.tradient.infrastructure.paper;
+
+import com.example.tradient.data.http.ExchangeLatencyTracker;
+import com.example.tradient.data.http.LatencyHistogram;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Time an order takes to reach a {@link PaperExchange}, drawn per order.
+ * <p>
+ * Draws come from a seeded generator, so a replay with the same orders gets the same
+ * latencies. The measured model samples the REST round trips that
+ * {@link ExchangeLatencyTracker} recorded for the exchange, and falls back to a uniform
+ * range until the exchange has enough measurements.
+ */
+public class LatencyModel {
+
+    private static final long DEFAULT_SEED = 42;
+
+    // Quantiles of the measured latency kept per exchange, sampled by interpolation
+    private static final int QUANTILE_STEPS = 20;
+    // Draws before an exchange's quantiles are read again from its histogram
+    private static final int REFRESH_DRAWS = 1000;
+
+    private final long minMillis;
+    private final long maxMillis;
+    private final boolean measured;
+    private final Random random;
+    private final Map<String, MeasuredLatency> measuredByExchange = new HashMap<>();
+
+    private LatencyModel(long minMillis, long maxMillis, boolean measured, long seed) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid latency range " + minMillis + "-" + maxMillis + " ms");
+        }
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        this.measured = measured;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Every order takes the same time.
+     */
+    public static LatencyModel fixed(long millis) {
+        return new LatencyModel(millis, millis, false, DEFAULT_SEED);
+    }
+
+    /**
+     * Latency drawn uniformly between two bounds.
+     */
+    public static LatencyModel uniform(long minMillis, long maxMillis, long seed) {
+        return new LatencyModel(minMillis, maxMillis, false, seed);
+    }
+
+    /**
+     * Latency drawn from the measured REST round trips of each exchange, or uniformly
+     * between the bounds for exchanges without enough measurements.
+     */
+    public static LatencyModel measured(long fallbackMinMillis, long fallbackMaxMillis, long seed) {
+        return new LatencyModel(fallbackMinMillis, fallbackMaxMillis, true, seed);
+    }
+
+    /**
+     * Draw the latency of one order.
+     *
+     * @param exchangeName The exchange the order goes to
+     * @return The latency in milliseconds
+     */
+    public synchronized long nextLatencyMillis(String exchangeName) {
+        if (measured) {
+            MeasuredLatency latency = measuredLatency(exchangeName);
+            if (latency != null) {
+                return latency.sample(random.nextDouble());
+            }
+        }
+        if (maxMillis == minMillis) {
+            return minMillis;
+        }
+        return minMillis + (long) (random.nextDouble() * (maxMillis - minMillis + 1));
+    }
+
+    private MeasuredLatency measuredLatency(String exchangeName) {
+        String key = exchangeName.toLowerCase(Locale.ROOT);
+        MeasuredLatency latency = measuredByExchange.get(key);
+        if (latency == null || latency.draws >= REFRESH_DRAWS) {
+            ExchangeLatencyTracker tracker = ExchangeLatencyTracker.getInstance();
+            if (!tracker.hasMeasurements(exchangeName)) {
+                return null;
+            }
+            latency = new MeasuredLatency(tracker.getHistogram(exchangeName, ExchangeLatencyTracker.Phase.TOTAL));
+            measuredByExchange.put(key, latency);
+        }
+        latency.draws++;
+        return latency;
+    }
+
+    /**
+     * Quantiles of one exchange's measured latency, in milliseconds.
+     */
+    private static final class MeasuredLatency {
+        final double[] quantiles = new double[QUANTILE_STEPS + 1];
+        int draws;
+
+        MeasuredLatency(LatencyHistogram histogram) {
+            for (int i = 0; i <= QUANTILE_STEPS; i++) {
+                quantiles[i] = histogram.getPercentileMillis((double) i / QUANTILE_STEPS);
+            }
+        }
+
+        long sample(double uniform) {
+            double position = uniform * QUANTILE_STEPS;
+            int index = Math.min(QUANTILE_STEPS - 1, (int) position);
+            double fraction = position - index;
+            return Math.round(quantiles[index] + fraction * (quantiles[index + 1] - quantiles[index]));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.tradient.infrastructure.paper;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.risk.SlippageManagerService;
+import com.example.tradient.util.MarketClock;
+import com.example.tradient.util.TimeEstimationUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Simulated execution venue for one exchange: matches paper orders against the order
+ * books it is fed, live or replayed, without sending anything to the exchange.
+ * <p>
+ * An order reaches the venue after a latency drawn from the {@link LatencyModel} and
+ * matches against the book as it is at that time, not as it was when the order was
+ * sent. Market orders and the marketable part of limit orders take liquidity level by
+ * level; the rest of a good-till-cancelled limit order rests at its price and fills
+ * once the market trades through it. Fills that take liquidity pay the taker fee, fills
+ * of resting orders the maker fee.
+ * <p>
+ * Completed orders report their fills back to the {@link SlippageManagerService}
+ * feedback loop (prediction from the book at submission, realized slippage at the
+ * fill) and their submission-to-completion time to {@link TimeEstimationUtil}, the
+ * same way real executions would.
+ * <p>
+ * Time is {@link MarketClock} time, so a venue fed by a replay runs on recorded time.
+ * Orders only arrive when the venue sees time pass: on every book or ticker it is fed,
+ * or on {@link #advanceTo(long)}. Thread-safe; one lock per venue.
+ */
+public class PaperExchange {
+
+    private final String exchangeName;
+    private final double makerFee;
+    private final double takerFee;
+    private final LatencyModel latencyModel;
+    private final SlippageManagerService slippageManager;
+    private PaperOrderListener listener;
+
+    private final Map<String, PriceLevelBook> books = new HashMap<>();
+    // Orders on their way, by arrival time then submission order
+    private final PriorityQueue<PaperOrder> inFlight = new PriorityQueue<>((a, b) -> {
+        int byArrival = Long.compare(a.getArrivalAtMillis(), b.getArrivalAtMillis());
+        return byArrival != 0 ? byArrival : Long.compare(a.getId(), b.getId());
+    });
+    private final Map<Long, PaperOrder> openOrders = new HashMap<>();
+    private long nextOrderId = 1;
+
+    /**
+     * @param exchangeName The exchange simulated
+     * @param makerFee Fee on fills of resting orders, as a decimal (e.g., 0.001 for 0.1%)
+     * @param takerFee Fee on fills that take liquidity, as a decimal
+     * @param latencyModel Time orders take to reach the venue
+     * @param slippageManager Feedback loop to report executions to, or null
+     */
+    public PaperExchange(String exchangeName, double makerFee, double takerFee, LatencyModel latencyModel,
+                         SlippageManagerService slippageManager) {
+        this.exchangeName = exchangeName;
+        this.makerFee = makerFee;
+        this.takerFee = takerFee;
+        this.latencyModel = latencyModel;
+        this.slippageManager = slippageManager;
+    }
+
+    public String getExchangeName() {
+        return exchangeName;
+    }
+
+    public double getMakerFee() {
+        return makerFee;
+    }
+
+    public double getTakerFee() {
+        return takerFee;
+    }
+
+    public synchronized void setListener(PaperOrderListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Send a market order.
+     *
+     * @param expectedPrice Price the order is expected to fill at, to measure slippage against
+     */
+    public PaperOrder submitMarket(String symbol, PaperOrder.Side side, double quantity, double expectedPrice) {
+        return submit(symbol, side, PaperOrder.Type.MARKET, PaperOrder.TimeInForce.IMMEDIATE_OR_CANCEL,
+                quantity, 0, expectedPrice);
+    }
+
+    /**
+     * Send a limit order, expected to fill at its limit price.
+     */
+    public PaperOrder submitLimit(String symbol, PaperOrder.Side side, double quantity, double limitPrice,
+                                  PaperOrder.TimeInForce timeInForce) {
+        return submit(symbol, side, PaperOrder.Type.LIMIT, timeInForce, quantity, limitPrice, limitPrice);
+    }
+
+    /**
+     * Send an order. It arrives, and first matches, after the latency drawn for it.
+     *
+     * @param symbol The symbol on this exchange, as its books are fed
+     * @param limitPrice Limit price of a limit order; ignored for market orders
+     * @param expectedPrice Price the order is expected to fill at, to measure slippage against
+     * @return The order, pending until it arrives
+     */
+    public synchronized PaperOrder submit(String symbol, PaperOrder.Side side, PaperOrder.Type type,
+                                          PaperOrder.TimeInForce timeInForce, double quantity,
+                                          double limitPrice, double expectedPrice) {
+        if (!(quantity > 0)) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        if (type == PaperOrder.Type.LIMIT && !(limitPrice > 0)) {
+            throw new IllegalArgumentException("Limit price must be positive: " + limitPrice);
+        }
+        long now = MarketClock.currentTimeMillis();
+        long latency = latencyModel.nextLatencyMillis(exchangeName);
+        PaperOrder order = new PaperOrder(nextOrderId++, exchangeName, symbol, side, type, timeInForce,
+                quantity, type == PaperOrder.Type.LIMIT ? limitPrice : 0, expectedPrice, now, now + latency);
+
+        if (slippageManager != null) {
+            PriceLevelBook book = books.get(symbol);
+            double predicted = book != null ? book.estimateSlippage(order.isBuy(), quantity, expectedPrice) : 0;
+            slippageManager.recordPendingTrade(order.getTradeId(), exchangeName, symbol,
+                    book != null ? book.getTicker() : null, quantity, order.isBuy(), predicted);
+        }
+
+        inFlight.add(order);
+        advanceTo(now);
+        return order;
+    }
+
+    /**
+     * Cancel an order that is still on its way or resting in the book. Cancels take
+     * effect immediately.
+     *
+     * @return Whether the order was cancelled; false if it was already done
+     */
+    public synchronized boolean cancel(PaperOrder order) {
+        if (order.isDone()) {
+            return false;
+        }
+        boolean removed = order.getStatus() == PaperOrder.Status.PENDING
+                ? inFlight.remove(order)
+                : books.get(order.getSymbol()).remove(order);
+        if (removed) {
+            complete(order, PaperOrder.Status.CANCELLED, MarketClock.currentTimeMillis());
+        }
+        return removed;
+    }
+
+    /**
+     * Cancel every order on its way or resting in the book, e.g. when a run ends.
+     *
+     * @return Number of orders cancelled
+     */
+    public synchronized int cancelAll() {
+        List<PaperOrder> live = new ArrayList<>(inFlight);
+        live.addAll(openOrders.values());
+        int cancelled = 0;
+        for (PaperOrder order : live) {
+            if (cancel(order)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Feed a new order book snapshot of a symbol. Orders arriving up to now match the
+     * previous snapshot; resting orders the new one trades through fill.
+     */
+    public synchronized void onOrderBook(String symbol, OrderBook orderBook) {
+        long now = MarketClock.currentTimeMillis();
+        advanceTo(now);
+        PriceLevelBook book = book(symbol);
+        book.apply(orderBook);
+        book.matchResting(now);
+    }
+
+    /**
+     * Feed the latest ticker of a symbol, which describes the market conditions of the
+     * orders sent from now on to the slippage model.
+     */
+    public synchronized void onTicker(String symbol, Ticker ticker) {
+        advanceTo(MarketClock.currentTimeMillis());
+        book(symbol).setTicker(ticker);
+    }
+
+    /**
+     * Let the orders due by the given time arrive and match, in arrival order.
+     */
+    public synchronized void advanceTo(long nowMillis) {
+        PaperOrder order;
+        while ((order = inFlight.peek()) != null && order.getArrivalAtMillis() <= nowMillis) {
+            inFlight.poll();
+            arrive(order);
+        }
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public synchronized int getOpenOrderCount() {
+        return openOrders.size();
+    }
+
+    private void arrive(PaperOrder order) {
+        long arrival = order.getArrivalAtMillis();
+        PriceLevelBook book = books.get(order.getSymbol());
+        if (book == null || !book.hasSnapshot()) {
+            complete(order, PaperOrder.Status.REJECTED, arrival);
+            return;
+        }
+
+        book.take(order, arrival);
+        if (PriceLevelBook.isFilled(order)) {
+            complete(order, PaperOrder.Status.FILLED, arrival);
+        } else if (order.getType() == PaperOrder.Type.MARKET
+                || order.getTimeInForce() == PaperOrder.TimeInForce.IMMEDIATE_OR_CANCEL) {
+            complete(order, PaperOrder.Status.CANCELLED, arrival);
+        } else {
+            order.setStatus(PaperOrder.Status.OPEN);
+            openOrders.put(order.getId(), order);
+            book.rest(order);
+        }
+    }
+
+    void fill(PaperOrder order, double price, double quantity, boolean maker, long timeMillis) {
+        order.fill(price, quantity, price * quantity * (maker ? makerFee : takerFee));
+        if (listener != null) {
+            listener.onFill(order, price, quantity, maker, timeMillis);
+        }
+    }
+
+    void complete(PaperOrder order, PaperOrder.Status status, long timeMillis) {
+        openOrders.remove(order.getId());
+        order.complete(status, timeMillis);
+        if (order.getFilledQuantity() > 0) {
+            if (slippageManager != null) {
+                slippageManager.recordTradeExecution(order.getTradeId(), order.getAverageFillPrice(),
+                        order.getExpectedPrice());
+            }
+            TimeEstimationUtil.recordActualExecutionTime(exchangeName, order.getSymbol(),
+                    (timeMillis - order.getSubmittedAtMillis()) / 1000.0);
+        }
+        if (listener != null) {
+            listener.onOrderDone(order);
+        }
+    }
+
+    private PriceLevelBook book(String symbol) {
+        PriceLevelBook book = books.get(symbol);
+        if (book == null) {
+            book = new PriceLevelBook(this, symbol);
+            books.put(symbol, book);
+        }
+        return book;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.tradient.infrastructure.paper;
+
+/**
+ * An order sent to a {@link PaperExchange}. Its state is updated by the exchange as the
+ * order travels, matches and completes; read it from the exchange's listener or after
+ * the exchange has processed the order's arrival.
+ */
+public final class PaperOrder {
+
+    public enum Side {
+        BUY,
+        SELL
+    }
+
+    public enum Type {
+        // Takes liquidity up to the given quantity, whatever the price
+        MARKET,
+        // Takes liquidity up to the limit price; the rest waits in the book or is cancelled
+        LIMIT
+    }
+
+    public enum TimeInForce {
+        // The unfilled rest waits in the book until filled or cancelled
+        GOOD_TILL_CANCELLED,
+        // The unfilled rest is cancelled as soon as the order has arrived
+        IMMEDIATE_OR_CANCEL
+    }
+
+    public enum Status {
+        // Travelling to the exchange
+        PENDING,
+        // Resting in the book, possibly partially filled
+        OPEN,
+        FILLED,
+        // Cancelled, or the immediate-or-cancel rest; may be partially filled
+        CANCELLED,
+        // No order book for the symbol when the order arrived
+        REJECTED
+    }
+
+    private final long id;
+    private final String exchangeName;
+    private final String symbol;
+    private final Side side;
+    private final Type type;
+    private final TimeInForce timeInForce;
+    private final double quantity;
+    private final double limitPrice;
+    private final double expectedPrice;
+    private final long submittedAtMillis;
+    private final long arrivalAtMillis;
+
+    private Status status = Status.PENDING;
+    private double filledQuantity;
+    private double filledNotional;
+    private double fees;
+    private int fillCount;
+    private long completedAtMillis = -1;
+
+    PaperOrder(long id, String exchangeName, String symbol, Side side, Type type, TimeInForce timeInForce,
+               double quantity, double limitPrice, double expectedPrice,
+               long submittedAtMillis, long arrivalAtMillis) {
+        this.id = id;
+        this.exchangeName = exchangeName;
+        this.symbol = symbol;
+        this.side = side;
+        this.type = type;
+        this.timeInForce = timeInForce;
+        this.quantity = quantity;
+        this.limitPrice = limitPrice;
+        this.expectedPrice = expectedPrice;
+        this.submittedAtMillis = submittedAtMillis;
+        this.arrivalAtMillis = arrivalAtMillis;
+    }
+
+    void fill(double price, double fillQuantity, double fee) {
+        filledQuantity += fillQuantity;
+        filledNotional += price * fillQuantity;
+        fees += fee;
+        fillCount++;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+    }
+
+    void complete(Status status, long completedAtMillis) {
+        this.status = status;
+        this.completedAtMillis = completedAtMillis;
+    }
+
+    /**
+     * Whether the order no longer changes: filled, cancelled or rejected.
+     */
+    public boolean isDone() {
+        return status == Status.FILLED || status == Status.CANCELLED || status == Status.REJECTED;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Trade id under which the order is known to the slippage feedback loop.
+     */
+    public String getTradeId() {
+        return "paper-" + exchangeName + "-" + id;
+    }
+
+    public String getExchangeName() {
+        return exchangeName;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public boolean isBuy() {
+        return side == Side.BUY;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TimeInForce getTimeInForce() {
+        return timeInForce;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Limit price, or 0 for a market order.
+     */
+    public double getLimitPrice() {
+        return limitPrice;
+    }
+
+    /**
+     * Price the order was expected to fill at when it was sent; slippage is measured
+     * against it.
+     */
+    public double getExpectedPrice() {
+        return expectedPrice;
+    }
+
+    public long getSubmittedAtMillis() {
+        return submittedAtMillis;
+    }
+
+    /**
+     * Time the order reaches the exchange and first matches: submission time plus the
+     * latency drawn for it.
+     */
+    public long getArrivalAtMillis() {
+        return arrivalAtMillis;
+    }
+
+    /**
+     * Time the order was filled, cancelled or rejected, or -1 while it is live.
+     */
+    public long getCompletedAtMillis() {
+        return completedAtMillis;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public double getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public double getRemainingQuantity() {
+        return Math.max(0, quantity - filledQuantity);
+    }
+
+    /**
+     * Average fill price, or 0 if nothing filled.
+     */
+    public double getAverageFillPrice() {
+        return filledQuantity > 0 ? filledNotional / filledQuantity : 0;
+    }
+
+    /**
+     * Value of the fills in quote currency, before fees.
+     */
+    public double getFilledNotional() {
+        return filledNotional;
+    }
+
+    /**
+     * Fees paid on the fills, in quote currency.
+     */
+    public double getFees() {
+        return fees;
+    }
+
+    public int getFillCount() {
+        return fillCount;
+    }
+
+    /**
+     * Slippage of the fills against the expected price, as a decimal; positive when the
+     * fills were worse than expected. 0 if nothing filled.
+     */
+    public double getSlippage() {
+        if (filledQuantity <= 0 || expectedPrice <= 0) {
+            return 0;
+        }
+        double average = getAverageFillPrice();
+        return side == Side.BUY
+                ? (average - expectedPrice) / expectedPrice
+                : (expectedPrice - average) / expectedPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "PaperOrder{" + exchangeName + " #" + id + " " + side + " " + quantity + " " + symbol
+                + (type == Type.LIMIT ? " @ " + limitPrice : " at market")
+                + ", " + status + ", filled " + filledQuantity + " @ " + getAverageFillPrice() + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tradient.infrastructure.paper;
+
+/**
+ * Receives the fills and completions of a {@link PaperExchange}'s orders. Called while
+ * the exchange processes the order, so implementations should return quickly.
+ */
+public interface PaperOrderListener {
+    /**
+     * Called for every fill, after the order's state includes it.
+     *
+     * @param order The order
+     * @param price Fill price
+     * @param quantity Filled quantity
+     * @param maker Whether the fill came from the order resting in the book
+     * @param timeMillis Time of the fill
+     */
+    void onFill(PaperOrder order, double price, double quantity, boolean maker, long timeMillis);
+
+    /**
+     * Called once when the order is filled, cancelled or rejected.
+     */
+    void onOrderDone(PaperOrder order);
+}
@@ -0,0 +1,247 @@
+package com.example.tradient.infrastructure.paper;
+
+import com.example.tradient.config.ConfigurationSnapshot;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.risk.SlippageManagerService;
+import com.example.tradient.infrastructure.replay.ReplayListener;
+import com.example.tradient.infrastructure.replay.ReplayOpportunity;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Paper-trades the opportunities of a market data replay: every opportunity that opens
+ * sends a buy on its buy exchange and a sell of the same quantity on its sell exchange,
+ * each to a {@link PaperExchange} fed with the replayed books. Both legs start from
+ * inventory already on the exchanges, so there is no transfer.
+ * <p>
+ * Legs are immediate-or-cancel limit orders at the detected prices, or market orders,
+ * so the summary shows how much of the detected profit survives the latency and the
+ * depth: how many trades filled on both legs, how many were left unhedged, the
+ * realized profit and the slippage against the detected prices.
+ */
+public class PaperTrader implements ReplayListener, PaperOrderListener {
+
+    private final ConfigurationSnapshot config;
+    private final LatencyModel latencyModel;
+    private final SlippageManagerService slippageManager;
+    private final double tradeAmount;
+    private final boolean marketOrders;
+
+    private final Map<String, PaperExchange> exchanges = new HashMap<>();
+    // Trade of every order still live
+    private final Map<PaperOrder, PaperTrade> trades = new HashMap<>();
+
+    private long tradesSent;
+    private long tradesSettled;
+    private long tradesFilled;
+    private long tradesUnfilled;
+    private long tradesUnhedged;
+    private long orders;
+    private long ordersRejected;
+    private long fills;
+    private double unhedgedNotional;
+    private double expectedProfit;
+    private double realizedProfit;
+    private double slippageSum;
+    private long slippageCount;
+    private long fillLatencySum;
+
+    /**
+     * @param config Configuration providing the fees of each exchange
+     * @param latencyModel Time orders take to reach the exchanges
+     * @param slippageManager Feedback loop to report executions to, or null
+     * @param tradeAmount Size of each trade, in quote currency
+     * @param marketOrders Whether legs are market orders instead of limit orders at the detected prices
+     */
+    public PaperTrader(ConfigurationSnapshot config, LatencyModel latencyModel,
+                       SlippageManagerService slippageManager, double tradeAmount, boolean marketOrders) {
+        this.config = config;
+        this.latencyModel = latencyModel;
+        this.slippageManager = slippageManager;
+        this.tradeAmount = tradeAmount;
+        this.marketOrders = marketOrders;
+    }
+
+    @Override
+    public void onTicker(String exchangeName, String symbol, Ticker ticker) {
+        exchange(exchangeName).onTicker(symbol, ticker);
+    }
+
+    @Override
+    public void onOrderBook(String exchangeName, String symbol, OrderBook orderBook) {
+        exchange(exchangeName).onOrderBook(symbol, orderBook);
+    }
+
+    @Override
+    public void onOpportunityOpened(ReplayOpportunity replayed) {
+        ArbitrageOpportunity opportunity = replayed.getOpportunity();
+        double quantity = tradeAmount / opportunity.getBuyPrice();
+        // Both legs take liquidity, so both pay the taker fee
+        PaperTrade trade = new PaperTrade(quantity * (opportunity.getSellPrice() - opportunity.getBuyPrice())
+                - tradeAmount * exchange(opportunity.getExchangeBuy()).getTakerFee()
+                - quantity * opportunity.getSellPrice() * exchange(opportunity.getExchangeSell()).getTakerFee());
+        tradesSent++;
+        expectedProfit += trade.expectedProfit;
+
+        trade.buy = send(opportunity.getExchangeBuy(), opportunity.getSymbolBuy(), PaperOrder.Side.BUY,
+                quantity, opportunity.getBuyPrice());
+        trade.sell = send(opportunity.getExchangeSell(), opportunity.getSymbolSell(), PaperOrder.Side.SELL,
+                quantity, opportunity.getSellPrice());
+        for (PaperOrder leg : new PaperOrder[]{trade.buy, trade.sell}) {
+            if (leg.isDone()) {
+                // Arrived without latency and is already settled
+                trade.legsDone++;
+            } else {
+                trades.put(leg, trade);
+            }
+        }
+        if (trade.legsDone == 2) {
+            settle(trade);
+        }
+    }
+
+    @Override
+    public void onOpportunityClosed(ReplayOpportunity opportunity) {
+        // Legs live their own life once sent
+    }
+
+    @Override
+    public void onReplayEnd() {
+        for (PaperExchange exchange : exchanges.values()) {
+            exchange.cancelAll();
+        }
+    }
+
+    @Override
+    public void onFill(PaperOrder order, double price, double quantity, boolean maker, long timeMillis) {
+        fills++;
+    }
+
+    @Override
+    public void onOrderDone(PaperOrder order) {
+        if (order.getStatus() == PaperOrder.Status.REJECTED) {
+            ordersRejected++;
+        }
+        if (order.getFilledQuantity() > 0) {
+            slippageSum += order.getSlippage();
+            slippageCount++;
+            fillLatencySum += order.getCompletedAtMillis() - order.getSubmittedAtMillis();
+        }
+        PaperTrade trade = trades.remove(order);
+        if (trade != null && ++trade.legsDone == 2) {
+            settle(trade);
+        }
+    }
+
+    private PaperOrder send(String exchangeName, String symbol, PaperOrder.Side side, double quantity,
+                            double price) {
+        PaperExchange exchange = exchange(exchangeName);
+        orders++;
+        return marketOrders
+                ? exchange.submitMarket(symbol, side, quantity, price)
+                : exchange.submitLimit(symbol, side, quantity, price, PaperOrder.TimeInForce.IMMEDIATE_OR_CANCEL);
+    }
+
+    private void settle(PaperTrade trade) {
+        tradesSettled++;
+        double bought = trade.buy.getFilledQuantity();
+        double sold = trade.sell.getFilledQuantity();
+        double hedged = Math.min(bought, sold);
+        if (bought <= 0 && sold <= 0) {
+            tradesUnfilled++;
+            return;
+        }
+        if (PriceLevelBook.isFilled(trade.buy) && PriceLevelBook.isFilled(trade.sell)) {
+            tradesFilled++;
+        } else if (Math.abs(bought - sold) > 0) {
+            tradesUnhedged++;
+            unhedgedNotional += Math.abs(bought - sold) * trade.buy.getExpectedPrice();
+        }
+        if (hedged > 0) {
+            realizedProfit += hedged * (trade.sell.getAverageFillPrice() - trade.buy.getAverageFillPrice())
+                    - trade.buy.getFees() * hedged / bought
+                    - trade.sell.getFees() * hedged / sold;
+        }
+    }
+
+    private PaperExchange exchange(String exchangeName) {
+        PaperExchange exchange = exchanges.get(exchangeName);
+        if (exchange == null) {
+            String key = ConfigurationSnapshot.exchangeKey(exchangeName);
+            exchange = new PaperExchange(exchangeName, config.getFeePercentage(key, true),
+                    config.getFeePercentage(key, false), latencyModel, slippageManager);
+            exchange.setListener(this);
+            exchanges.put(exchangeName, exchange);
+        }
+        return exchange;
+    }
+
+    public long getTradesSent() {
+        return tradesSent;
+    }
+
+    /**
+     * Trades whose two legs both filled completely.
+     */
+    public long getTradesFilled() {
+        return tradesFilled;
+    }
+
+    /**
+     * Trades that filled more on one leg than on the other, leaving a position.
+     */
+    public long getTradesUnhedged() {
+        return tradesUnhedged;
+    }
+
+    /**
+     * Profit of the detected trades at the detected prices, after taker fees, in quote currency.
+     */
+    public double getExpectedProfit() {
+        return expectedProfit;
+    }
+
+    /**
+     * Profit of the hedged part of the fills, after fees, in quote currency.
+     */
+    public double getRealizedProfit() {
+        return realizedProfit;
+    }
+
+    /**
+     * Mean slippage of the filled orders against the detected prices, as a decimal.
+     */
+    public double getMeanSlippage() {
+        return slippageCount > 0 ? slippageSum / slippageCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "Paper trading: %d trades sent, %d settled: %d filled on both legs, %d unhedged (%.2f in quote currency), "
+                        + "%d unfilled. %d orders, %d fills, %d rejected; mean slippage %.2f bps, "
+                        + "mean time to fill %.0f ms. Profit %.4f realized of %.4f expected",
+                tradesSent, tradesSettled, tradesFilled, tradesUnhedged, unhedgedNotional, tradesUnfilled,
+                orders, fills, ordersRejected, getMeanSlippage() * 10_000,
+                slippageCount > 0 ? (double) fillLatencySum / slippageCount : 0,
+                realizedProfit, expectedProfit);
+    }
+
+    /**
+     * The two legs of one opportunity.
+     */
+    private static final class PaperTrade {
+        final double expectedProfit;
+        PaperOrder buy;
+        PaperOrder sell;
+        int legsDone;
+
+        PaperTrade(double expectedProfit) {
+            this.expectedProfit = expectedProfit;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.tradient.infrastructure.paper;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.Ticker;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Matching state of one symbol on a {@link PaperExchange}.
+ * <p>
+ * The market side is the latest order book snapshot, held as price and size arrays,
+ * best level first. Paper orders take liquidity out of those arrays, so orders arriving
+ * before the next snapshot can't fill against the same size twice; a new snapshot
+ * replaces them. Resting paper orders wait in price levels, best price first and in
+ * arrival order within a level, and fill when the market trades through their price.
+ * Not thread-safe; the exchange holds its lock while using it.
+ */
+final class PriceLevelBook {
+
+    // Quantities below this fraction of an order count as filled
+    private static final double QUANTITY_EPSILON = 1e-9;
+
+    private final PaperExchange exchange;
+    final String symbol;
+
+    private final Side bids = new Side();
+    private final Side asks = new Side();
+    private boolean hasSnapshot;
+    private Ticker ticker;
+
+    private final TreeMap<Double, ArrayDeque<PaperOrder>> restingBids = new TreeMap<>(Collections.reverseOrder());
+    private final TreeMap<Double, ArrayDeque<PaperOrder>> restingAsks = new TreeMap<>();
+    private int restingCount;
+
+    PriceLevelBook(PaperExchange exchange, String symbol) {
+        this.exchange = exchange;
+        this.symbol = symbol;
+    }
+
+    boolean hasSnapshot() {
+        return hasSnapshot;
+    }
+
+    Ticker getTicker() {
+        return ticker;
+    }
+
+    void setTicker(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    int getRestingCount() {
+        return restingCount;
+    }
+
+    /**
+     * Replace the market depth with a new snapshot.
+     */
+    void apply(OrderBook book) {
+        bids.copy(book.getBids(), true);
+        asks.copy(book.getAsks(), false);
+        hasSnapshot = true;
+    }
+
+    /**
+     * Slippage the market depth implies for a quantity against a price, as a decimal,
+     * without taking anything; used as the prediction the fill is compared with.
+     */
+    double estimateSlippage(boolean buy, double quantity, double expectedPrice) {
+        Side side = buy ? asks : bids;
+        if (!hasSnapshot || side.first >= side.count || expectedPrice <= 0) {
+            return 0;
+        }
+        double remaining = quantity;
+        double notional = 0;
+        for (int level = side.first; level < side.count && remaining > 0; level++) {
+            double taken = Math.min(remaining, side.sizes[level]);
+            notional += taken * side.prices[level];
+            remaining -= taken;
+        }
+        if (remaining > 0) {
+            // Beyond the visible depth, priced at the last level
+            notional += remaining * side.prices[side.count - 1];
+        }
+        double average = notional / quantity;
+        return Math.max(0, buy ? (average - expectedPrice) / expectedPrice : (expectedPrice - average) / expectedPrice);
+    }
+
+    /**
+     * Match an arriving order against the market depth, up to its limit price.
+     */
+    void take(PaperOrder order, long nowMillis) {
+        boolean buy = order.isBuy();
+        Side side = buy ? asks : bids;
+        boolean market = order.getType() == PaperOrder.Type.MARKET;
+        double limit = order.getLimitPrice();
+        double remaining = order.getRemainingQuantity();
+        for (int level = side.first; level < side.count && remaining > 0; level++) {
+            double price = side.prices[level];
+            if (!market && (buy ? price > limit : price < limit)) {
+                break;
+            }
+            double size = side.sizes[level];
+            if (size <= 0) {
+                continue;
+            }
+            double taken = Math.min(remaining, size);
+            side.sizes[level] = size - taken;
+            remaining -= taken;
+            exchange.fill(order, price, taken, false, nowMillis);
+        }
+        side.skipEmpty();
+    }
+
+    /**
+     * Add the unfilled rest of an order to its price level.
+     */
+    void rest(PaperOrder order) {
+        TreeMap<Double, ArrayDeque<PaperOrder>> levels = order.isBuy() ? restingBids : restingAsks;
+        levels.computeIfAbsent(order.getLimitPrice(), price -> new ArrayDeque<>()).addLast(order);
+        restingCount++;
+    }
+
+    boolean remove(PaperOrder order) {
+        TreeMap<Double, ArrayDeque<PaperOrder>> levels = order.isBuy() ? restingBids : restingAsks;
+        ArrayDeque<PaperOrder> level = levels.get(order.getLimitPrice());
+        if (level == null || !level.remove(order)) {
+            return false;
+        }
+        if (level.isEmpty()) {
+            levels.remove(order.getLimitPrice());
+        }
+        restingCount--;
+        return true;
+    }
+
+    /**
+     * Fill the resting orders that the market now trades through: bids at or above the
+     * best ask, asks at or below the best bid. Resting orders fill at their own price.
+     */
+    void matchResting(long nowMillis) {
+        if (restingCount > 0) {
+            matchResting(restingBids, asks, true, nowMillis);
+            matchResting(restingAsks, bids, false, nowMillis);
+        }
+    }
+
+    private void matchResting(TreeMap<Double, ArrayDeque<PaperOrder>> levels, Side market, boolean buy,
+                              long nowMillis) {
+        Iterator<Map.Entry<Double, ArrayDeque<PaperOrder>>> levelIterator = levels.entrySet().iterator();
+        while (levelIterator.hasNext() && market.first < market.count) {
+            Map.Entry<Double, ArrayDeque<PaperOrder>> level = levelIterator.next();
+            double price = level.getKey();
+            if (buy ? market.prices[market.first] > price : market.prices[market.first] < price) {
+                // Levels are best first, so no later level crosses either
+                return;
+            }
+            ArrayDeque<PaperOrder> orders = level.getValue();
+            while (!orders.isEmpty() && market.first < market.count) {
+                PaperOrder order = orders.peekFirst();
+                double remaining = order.getRemainingQuantity();
+                for (int i = market.first; i < market.count && remaining > 0; i++) {
+                    if (buy ? market.prices[i] > price : market.prices[i] < price) {
+                        break;
+                    }
+                    double taken = Math.min(remaining, market.sizes[i]);
+                    if (taken <= 0) {
+                        continue;
+                    }
+                    market.sizes[i] -= taken;
+                    remaining -= taken;
+                    exchange.fill(order, price, taken, true, nowMillis);
+                }
+                market.skipEmpty();
+                if (!isFilled(order)) {
+                    // The crossing depth is used up; the order keeps its place
+                    break;
+                }
+                orders.pollFirst();
+                restingCount--;
+                exchange.complete(order, PaperOrder.Status.FILLED, nowMillis);
+            }
+            if (orders.isEmpty()) {
+                levelIterator.remove();
+            }
+        }
+    }
+
+    static boolean isFilled(PaperOrder order) {
+        return order.getRemainingQuantity() <= order.getQuantity() * QUANTITY_EPSILON;
+    }
+
+    /**
+     * One side of the market depth: prices and sizes from the best level on.
+     */
+    private static final class Side {
+        double[] prices = new double[32];
+        double[] sizes = new double[32];
+        int count;
+        // First level with size left
+        int first;
+
+        void copy(List<OrderBookEntry> entries, boolean descending) {
+            int n = entries != null ? entries.size() : 0;
+            if (prices.length < n) {
+                prices = new double[n];
+                sizes = new double[n];
+            }
+            count = 0;
+            boolean sorted = true;
+            for (int i = 0; i < n; i++) {
+                OrderBookEntry entry = entries.get(i);
+                double price = entry.getPrice();
+                double size = entry.getQuantity();
+                if (price <= 0 || size <= 0) {
+                    continue;
+                }
+                if (count > 0 && (descending ? price > prices[count - 1] : price < prices[count - 1])) {
+                    sorted = false;
+                }
+                prices[count] = price;
+                sizes[count] = size;
+                count++;
+            }
+            if (!sorted) {
+                sort(descending);
+            }
+            first = 0;
+        }
+
+        void skipEmpty() {
+            while (first < count && sizes[first] <= 0) {
+                first++;
+            }
+        }
+
+        // Books arrive sorted from every exchange; this only guards against one that doesn't
+        private void sort(boolean descending) {
+            for (int i = 1; i < count; i++) {
+                double price = prices[i];
+                double size = sizes[i];
+                int j = i - 1;
+                while (j >= 0 && (descending ? prices[j] < price : prices[j] > price)) {
+                    prices[j + 1] = prices[j];
+                    sizes[j + 1] = sizes[j];
+                    j--;
+                }
+                prices[j + 1] = price;
+                sizes[j + 1] = size;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.tradient.infrastructure.recording;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.Ticker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ticker or order book update read back from a recording.
+ */
+public final class MarketDataEvent {
+
+    public enum Type {
+        TICKER,
+        ORDER_BOOK
+    }
+
+    private static final double[] NO_LEVELS = new double[0];
+
+    private final Type type;
+    private final MarketDataRecorder.Source source;
+    private final long timestampMicros;
+    private final String exchangeName;
+    private final String symbol;
+
+    // Ticker fields
+    private final double bidPrice;
+    private final double askPrice;
+    private final double lastPrice;
+    private final double bidAmount;
+    private final double askAmount;
+    private final double volume;
+
+    // Order book levels, best first
+    private final double[] bidPrices;
+    private final double[] bidSizes;
+    private final double[] askPrices;
+    private final double[] askSizes;
+
+    private MarketDataEvent(Type type, MarketDataRecorder.Source source, long timestampMicros,
+                            String exchangeName, String symbol,
+                            double bidPrice, double askPrice, double lastPrice,
+                            double bidAmount, double askAmount, double volume,
+                            double[] bidPrices, double[] bidSizes, double[] askPrices, double[] askSizes) {
+        this.type = type;
+        this.source = source;
+        this.timestampMicros = timestampMicros;
+        this.exchangeName = exchangeName;
+        this.symbol = symbol;
+        this.bidPrice = bidPrice;
+        this.askPrice = askPrice;
+        this.lastPrice = lastPrice;
+        this.bidAmount = bidAmount;
+        this.askAmount = askAmount;
+        this.volume = volume;
+        this.bidPrices = bidPrices;
+        this.bidSizes = bidSizes;
+        this.askPrices = askPrices;
+        this.askSizes = askSizes;
+    }
+
+    static MarketDataEvent ticker(MarketDataRecorder.Source source, long timestampMicros, String exchangeName,
+                                  String symbol, double bidPrice, double askPrice, double lastPrice,
+                                  double bidAmount, double askAmount, double volume) {
+        return new MarketDataEvent(Type.TICKER, source, timestampMicros, exchangeName, symbol,
+                bidPrice, askPrice, lastPrice, bidAmount, askAmount, volume,
+                NO_LEVELS, NO_LEVELS, NO_LEVELS, NO_LEVELS);
+    }
+
+    static MarketDataEvent orderBook(MarketDataRecorder.Source source, long timestampMicros, String exchangeName,
+                                     String symbol, double[] bidPrices, double[] bidSizes,
+                                     double[] askPrices, double[] askSizes) {
+        return new MarketDataEvent(Type.ORDER_BOOK, source, timestampMicros, exchangeName, symbol,
+                bidPrices.length > 0 ? bidPrices[0] : 0, askPrices.length > 0 ? askPrices[0] : 0, 0,
+                bidSizes.length > 0 ? bidSizes[0] : 0, askSizes.length > 0 ? askSizes[0] : 0, 0,
+                bidPrices, bidSizes, askPrices, askSizes);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public MarketDataRecorder.Source getSource() {
+        return source;
+    }
+
+    /**
+     * When the update was recorded, in microseconds since the epoch.
+     */
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    public long getTimestampMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(timestampMicros);
+    }
+
+    public String getExchangeName() {
+        return exchangeName;
+    }
+
+    /**
+     * The symbol as the exchange names it.
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Best bid; of the top level for an order book.
+     */
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    /**
+     * Best ask; of the top level for an order book.
+     */
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    public double getLastPrice() {
+        return lastPrice;
+    }
+
+    public double getBidAmount() {
+        return bidAmount;
+    }
+
+    public double getAskAmount() {
+        return askAmount;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public int getBidLevels() {
+        return bidPrices.length;
+    }
+
+    public int getAskLevels() {
+        return askPrices.length;
+    }
+
+    public double getBidPrice(int level) {
+        return bidPrices[level];
+    }
+
+    public double getBidSize(int level) {
+        return bidSizes[level];
+    }
+
+    public double getAskPrice(int level) {
+        return askPrices[level];
+    }
+
+    public double getAskSize(int level) {
+        return askSizes[level];
+    }
+
+    /**
+     * The update as the ticker the exchange service received, stamped with the recording time.
+     */
+    public Ticker toTicker() {
+        Ticker ticker = new Ticker(symbol, lastPrice, bidPrice, askPrice, volume, getTimestampMillis(), exchangeName);
+        ticker.setBidAmount(bidAmount);
+        ticker.setAskAmount(askAmount);
+        return ticker;
+    }
+
+    /**
+     * The update as the order book the exchange service received, stamped with the recording time.
+     */
+    public OrderBook toOrderBook() {
+        OrderBook orderBook = new OrderBook(symbol, levels(bidPrices, bidSizes), levels(askPrices, askSizes),
+                getTimestampMillis());
+        orderBook.setExchangeName(exchangeName);
+        return orderBook;
+    }
+
+    private static List<OrderBookEntry> levels(double[] prices, double[] sizes) {
+        List<OrderBookEntry> entries = new ArrayList<>(prices.length);
+        for (int i = 0; i < prices.length; i++) {
+            entries.add(new OrderBookEntry(prices[i], sizes[i]));
+        }
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.TICKER
+                ? String.format("%d %s %s ticker bid %s ask %s last %s",
+                        timestampMicros, exchangeName, symbol, bidPrice, askPrice, lastPrice)
+                : String.format("%d %s %s book %d bids %d asks, top %s / %s",
+                        timestampMicros, exchangeName, symbol, bidPrices.length, askPrices.length, bidPrice, askPrice);
+    }
+}
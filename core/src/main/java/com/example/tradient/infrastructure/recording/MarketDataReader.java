@@ -0,0 +1,251 @@
+package com.example.tradient.infrastructure.recording;
+
+import com.example.tradient.util.AppLog;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads a recording made by {@link MarketDataRecorder} back, one update at a time, in
+ * segment order and, within a segment, in the order space was reserved.
+ * <p>
+ * Updates recorded concurrently on different threads can be a few microseconds out of
+ * timestamp order; consumers that need a strictly monotonic clock should clamp it.
+ * Segment files that were never started, e.g. a spare mapped ahead of time, are skipped.
+ * A segment still being written, or cut short by a crash, is read up to the first record
+ * that was reserved but not yet published.
+ */
+public class MarketDataReader {
+
+    private static final String TAG = "MarketDataReader";
+
+    private final List<Path> files;
+    private int nextFile;
+
+    // Segment being read and the names its records refer to
+    private MappedByteBuffer buffer;
+    private int position;
+    private final List<String> exchanges = new ArrayList<>();
+    private final List<String> symbols = new ArrayList<>();
+
+    private long eventCount;
+    private int skippedSegments;
+
+    /**
+     * Read every segment in a recording directory.
+     */
+    public MarketDataReader(Path directory) throws IOException {
+        this(listSegments(directory));
+    }
+
+    /**
+     * Read the given segment files, in order.
+     */
+    public MarketDataReader(List<Path> files) {
+        this.files = new ArrayList<>(files);
+    }
+
+    /**
+     * The segment files in a recording directory, oldest first.
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(MarketDataRecorder.SEGMENT_PREFIX)
+                                && name.endsWith(MarketDataRecorder.SEGMENT_SUFFIX)
+                                && name.length() > MarketDataRecorder.SEGMENT_PREFIX.length()
+                                        + MarketDataRecorder.SEGMENT_SUFFIX.length();
+                    })
+                    .filter(file -> {
+                        try {
+                            MarketDataRecorder.segmentIndex(file);
+                            return true;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    })
+                    .sorted(Comparator.comparingInt(MarketDataRecorder::segmentIndex))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return The next recorded update, or null at the end of the recording
+     */
+    public MarketDataEvent next() throws IOException {
+        while (true) {
+            if (buffer == null && !openNextSegment()) {
+                return null;
+            }
+            MarketDataEvent event = readRecord();
+            if (event != null) {
+                eventCount++;
+                return event;
+            }
+            // A definition, padding or the end of the segment; keep reading
+        }
+    }
+
+    /**
+     * Read the record at the current position.
+     *
+     * @return The update, or null if the record was not an update or the segment ended
+     */
+    private MarketDataEvent readRecord() {
+        MappedByteBuffer segment = buffer;
+        if (position + MarketDataSegment.HEADER_BYTES > segment.capacity()) {
+            buffer = null;
+            return null;
+        }
+        int offset = position;
+        int length = segment.getInt(offset + MarketDataSegment.LENGTH);
+        if (length < MarketDataSegment.HEADER_BYTES || offset + length > segment.capacity()) {
+            // End of the data, or a record still being written
+            buffer = null;
+            return null;
+        }
+        position += length;
+
+        byte type = segment.get(offset + MarketDataSegment.TYPE);
+        switch (type) {
+            case MarketDataSegment.TYPE_TICKER:
+                return readTicker(segment, offset);
+            case MarketDataSegment.TYPE_ORDER_BOOK:
+                return readOrderBook(segment, offset);
+            case MarketDataSegment.TYPE_DEFINE_EXCHANGE:
+                define(exchanges, segment.getShort(offset + MarketDataSegment.EXCHANGE), readName(segment, offset));
+                return null;
+            case MarketDataSegment.TYPE_DEFINE_SYMBOL:
+                define(symbols, segment.getInt(offset + MarketDataSegment.SYMBOL), readName(segment, offset));
+                return null;
+            default:
+                // Padding, or a record type a newer recorder wrote
+                return null;
+        }
+    }
+
+    private MarketDataEvent readTicker(MappedByteBuffer segment, int offset) {
+        int field = offset + MarketDataSegment.HEADER_BYTES;
+        return MarketDataEvent.ticker(
+                MarketDataRecorder.source(segment.get(offset + MarketDataSegment.SOURCE)),
+                segment.getLong(offset + MarketDataSegment.TIMESTAMP),
+                name(exchanges, segment.getShort(offset + MarketDataSegment.EXCHANGE)),
+                name(symbols, segment.getInt(offset + MarketDataSegment.SYMBOL)),
+                segment.getDouble(field),
+                segment.getDouble(field + 8),
+                segment.getDouble(field + 16),
+                segment.getDouble(field + 24),
+                segment.getDouble(field + 32),
+                segment.getDouble(field + 40));
+    }
+
+    private MarketDataEvent readOrderBook(MappedByteBuffer segment, int offset) {
+        int bidCount = segment.getShort(offset + MarketDataSegment.BID_COUNT) & 0xFFFF;
+        int askCount = segment.getShort(offset + MarketDataSegment.ASK_COUNT) & 0xFFFF;
+        double[] bidPrices = new double[bidCount];
+        double[] bidSizes = new double[bidCount];
+        double[] askPrices = new double[askCount];
+        double[] askSizes = new double[askCount];
+        int field = offset + MarketDataSegment.HEADER_BYTES;
+        for (int i = 0; i < bidCount; i++, field += MarketDataSegment.LEVEL_BYTES) {
+            bidPrices[i] = segment.getDouble(field);
+            bidSizes[i] = segment.getDouble(field + 8);
+        }
+        for (int i = 0; i < askCount; i++, field += MarketDataSegment.LEVEL_BYTES) {
+            askPrices[i] = segment.getDouble(field);
+            askSizes[i] = segment.getDouble(field + 8);
+        }
+        return MarketDataEvent.orderBook(
+                MarketDataRecorder.source(segment.get(offset + MarketDataSegment.SOURCE)),
+                segment.getLong(offset + MarketDataSegment.TIMESTAMP),
+                name(exchanges, segment.getShort(offset + MarketDataSegment.EXCHANGE)),
+                name(symbols, segment.getInt(offset + MarketDataSegment.SYMBOL)),
+                bidPrices, bidSizes, askPrices, askSizes);
+    }
+
+    private static String readName(MappedByteBuffer segment, int offset) {
+        byte[] bytes = new byte[segment.getShort(offset + MarketDataSegment.BID_COUNT) & 0xFFFF];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = segment.get(offset + MarketDataSegment.HEADER_BYTES + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void define(List<String> names, int id, String name) {
+        while (names.size() <= id) {
+            names.add(null);
+        }
+        names.set(id, name);
+    }
+
+    private static String name(List<String> names, int id) {
+        String name = id >= 0 && id < names.size() ? names.get(id) : null;
+        return name != null ? name : "#" + id;
+    }
+
+    private boolean openNextSegment() throws IOException {
+        while (nextFile < files.size()) {
+            Path file = files.get(nextFile++);
+            MappedByteBuffer mapped;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < MarketDataSegment.PREAMBLE_BYTES || channel.size() > Integer.MAX_VALUE) {
+                    skip(file, "unexpected size " + channel.size());
+                    continue;
+                }
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getLong(0) != MarketDataSegment.MAGIC) {
+                skip(file, "not a finished segment");
+                continue;
+            }
+            int version = mapped.getInt(MarketDataSegment.PREAMBLE_VERSION);
+            if (version != MarketDataSegment.VERSION) {
+                skip(file, "unsupported version " + version);
+                continue;
+            }
+            // The dictionary is made of ordinary DEFINE records, read like any other
+            exchanges.clear();
+            symbols.clear();
+            buffer = mapped;
+            position = MarketDataSegment.PREAMBLE_BYTES;
+            return true;
+        }
+        return false;
+    }
+
+    private void skip(Path file, String reason) {
+        skippedSegments++;
+        AppLog.w(TAG, "Skipping " + file + ": " + reason);
+    }
+
+    /**
+     * @return Updates read so far
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return Segment files that were not readable recordings
+     */
+    public int getSkippedSegments() {
+        return skippedSegments;
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.tradient.infrastructure.recording;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
+import com.example.tradient.util.AppLog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records every ticker and order book the exchange services receive, over WebSocket or
+ * REST, into a rolling set of memory-mapped segment files in one directory.
+ * <p>
+ * Records are compact fixed-layout binary (see {@link MarketDataSegment}); exchange and
+ * symbol names are stored once, in a dictionary at the start of each segment, and
+ * referenced by id. Writers on any thread reserve space with a single atomic add and
+ * copy the fields straight into the mapped file: no locks, no queue and no allocation
+ * per record, so recording costs a small fraction of parsing the message it records.
+ * The next segment is mapped in the background while the current one fills up, and the
+ * oldest segments are deleted once there are more than the configured number; both run
+ * on the {@link TaskScheduler.Workload#DISK_IO} pool, away from the network threads.
+ * <p>
+ * Until {@link #start(Path)} is called every hook is a single volatile read, so the
+ * recorder is safe to leave wired in: the WebSocket providers and the exchange services
+ * call {@link #recordTicker} and {@link #recordOrderBook} wherever they bump
+ * {@link com.example.tradient.domain.market.MarketDataVersions}. Read recordings back
+ * with {@link MarketDataReader}.
+ */
+public class MarketDataRecorder {
+
+    private static final String TAG = "MarketDataRecorder";
+
+    // 256 MiB of disk at most by default
+    public static final int DEFAULT_SEGMENT_BYTES = 32 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+    public static final int DEFAULT_MAX_BOOK_LEVELS = 50;
+
+    static final String SEGMENT_PREFIX = "market-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    private static final String SPARE_SUFFIX = ".spare";
+
+    /**
+     * Where a recorded update came from.
+     */
+    public enum Source {
+        WEBSOCKET,
+        REST
+    }
+
+    private static final Source[] SOURCES = Source.values();
+
+    // Created eagerly, so the hooks on the network threads never take a lock to find it
+    private static final MarketDataRecorder INSTANCE = new MarketDataRecorder();
+
+    // Null while not recording; writers read it once per record
+    private volatile MarketDataSegment current;
+    private volatile int maxBookLevels = DEFAULT_MAX_BOOK_LEVELS;
+
+    // Guarded by this
+    private Path directory;
+    private int segmentBytes;
+    private int maxSegments;
+    private int nextIndex;
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final List<String> exchangeNames = new ArrayList<>();
+    private final List<String> symbolNames = new ArrayList<>();
+    private SpareSegment spare;
+    // Written under this, but read without it first, so writers in the second half of a
+    // segment don't take the lock once the spare has been requested
+    private volatile boolean spareRequested;
+
+    private final ConcurrentHashMap<String, Integer> exchangeIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> symbolIds = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder recordedBytes = new LongAdder();
+
+    // Wall clock at start plus elapsed monotonic time, so timestamps have microsecond resolution
+    private volatile long baseEpochMicros;
+    private volatile long baseNanos;
+
+    MarketDataRecorder() {
+    }
+
+    public static MarketDataRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start recording into a directory with the default segment size, retention and book depth.
+     */
+    public void start(Path directory) throws IOException {
+        start(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS, DEFAULT_MAX_BOOK_LEVELS);
+    }
+
+    /**
+     * Start recording into a directory. Segments already in it are kept, counted towards
+     * the retention limit, and followed by the new ones.
+     *
+     * @param directory Directory of the segment files, created if missing
+     * @param segmentBytes Size of each segment file
+     * @param maxSegments Number of segment files to keep, 0 to keep all
+     * @param maxBookLevels Levels per side recorded of each order book
+     */
+    public synchronized void start(Path directory, int segmentBytes, int maxSegments, int maxBookLevels)
+            throws IOException {
+        if (segmentBytes < 64 * 1024) {
+            throw new IllegalArgumentException("Segments must be at least 64 KiB, got " + segmentBytes);
+        }
+        if (maxSegments < 0 || maxBookLevels < 1
+                || MarketDataSegment.HEADER_BYTES + 2L * maxBookLevels * MarketDataSegment.LEVEL_BYTES > segmentBytes / 4) {
+            throw new IllegalArgumentException("Invalid retention " + maxSegments + " or book depth " + maxBookLevels);
+        }
+        if (current != null) {
+            stop();
+        }
+
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.maxBookLevels = maxBookLevels;
+        deleteSpares(directory);
+        segments.clear();
+        segments.addAll(MarketDataReader.listSegments(directory));
+        nextIndex = segments.isEmpty() ? 0 : segmentIndex(segments.peekLast()) + 1;
+
+        // Ids are per recording; each segment carries the names it refers to
+        exchangeIds.clear();
+        symbolIds.clear();
+        exchangeNames.clear();
+        symbolNames.clear();
+
+        baseEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        baseNanos = System.nanoTime();
+        current = newSegment();
+        AppLog.i(TAG, "Recording market data to " + current.getFile());
+    }
+
+    /**
+     * Stop recording and flush the current segment to disk.
+     */
+    public synchronized void stop() {
+        MarketDataSegment segment = current;
+        if (segment == null) {
+            return;
+        }
+        current = null;
+        segment.force();
+        if (spare != null) {
+            deleteQuietly(spare.file);
+            spare = null;
+        }
+        AppLog.i(TAG, "Recording stopped: " + getStats());
+    }
+
+    public boolean isRecording() {
+        return current != null;
+    }
+
+    /**
+     * Record a ticker.
+     *
+     * @param exchangeName The exchange it came from
+     * @param symbol The symbol on that exchange
+     * @param ticker The ticker
+     * @param source How it was received
+     */
+    public void recordTicker(String exchangeName, String symbol, Ticker ticker, Source source) {
+        MarketDataSegment segment = current;
+        if (segment == null || exchangeName == null || symbol == null || ticker == null) {
+            return;
+        }
+        int exchangeId = exchangeId(exchangeName);
+        int symbolId = symbolId(symbol);
+        if ((segment = segmentDefining(exchangeId, symbolId)) == null) {
+            dropped.increment();
+            return;
+        }
+        long timestamp = nowMicros();
+        int length = MarketDataSegment.TICKER_BYTES;
+        int offset;
+        while ((offset = segment.reserve(length)) < 0) {
+            if ((segment = roll(segment)) == null) {
+                dropped.increment();
+                return;
+            }
+        }
+
+        segment.putHeader(offset, MarketDataSegment.TYPE_TICKER, (byte) source.ordinal(),
+                exchangeId, symbolId, 0, 0, timestamp);
+        int field = offset + MarketDataSegment.HEADER_BYTES;
+        segment.putDouble(field, ticker.getBidPrice());
+        segment.putDouble(field + 8, ticker.getAskPrice());
+        segment.putDouble(field + 16, ticker.getLastPrice());
+        segment.putDouble(field + 24, ticker.getBidAmount());
+        segment.putDouble(field + 32, ticker.getAskAmount());
+        segment.putDouble(field + 40, ticker.getVolume());
+        segment.publish(offset, length);
+        recorded(segment, offset, length);
+    }
+
+    /**
+     * Record the top levels of an order book, at most the configured number per side.
+     *
+     * @param exchangeName The exchange it came from
+     * @param symbol The symbol on that exchange
+     * @param orderBook The order book
+     * @param source How it was received
+     */
+    public void recordOrderBook(String exchangeName, String symbol, OrderBook orderBook, Source source) {
+        MarketDataSegment segment = current;
+        if (segment == null || exchangeName == null || symbol == null || orderBook == null) {
+            return;
+        }
+        List<OrderBookEntry> bids = orderBook.getBids();
+        List<OrderBookEntry> asks = orderBook.getAsks();
+        int levels = maxBookLevels;
+        int bidCount = bids != null ? Math.min(bids.size(), levels) : 0;
+        int askCount = asks != null ? Math.min(asks.size(), levels) : 0;
+        int exchangeId = exchangeId(exchangeName);
+        int symbolId = symbolId(symbol);
+        if ((segment = segmentDefining(exchangeId, symbolId)) == null) {
+            dropped.increment();
+            return;
+        }
+        long timestamp = nowMicros();
+        int length = MarketDataSegment.HEADER_BYTES + (bidCount + askCount) * MarketDataSegment.LEVEL_BYTES;
+        int offset;
+        while ((offset = segment.reserve(length)) < 0) {
+            // A record that does not fit a fresh segment would roll forever
+            if (!segment.fits(length) || (segment = roll(segment)) == null) {
+                dropped.increment();
+                return;
+            }
+        }
+
+        try {
+            segment.putHeader(offset, MarketDataSegment.TYPE_ORDER_BOOK, (byte) source.ordinal(),
+                    exchangeId, symbolId, bidCount, askCount, timestamp);
+            int field = putLevels(segment, offset + MarketDataSegment.HEADER_BYTES, bids, bidCount);
+            putLevels(segment, field, asks, askCount);
+        } catch (RuntimeException e) {
+            // The book changed under us; the reserved space must still be skippable
+            segment.abandon(offset, length);
+            dropped.increment();
+            return;
+        }
+        segment.publish(offset, length);
+        recorded(segment, offset, length);
+    }
+
+    private static int putLevels(MarketDataSegment segment, int offset, List<OrderBookEntry> entries, int count) {
+        for (int i = 0; i < count; i++) {
+            OrderBookEntry entry = entries.get(i);
+            segment.putDouble(offset, entry.getPrice());
+            segment.putDouble(offset + 8, entry.getQuantity());
+            offset += MarketDataSegment.LEVEL_BYTES;
+        }
+        return offset;
+    }
+
+    private void recorded(MarketDataSegment segment, int offset, int length) {
+        recorded.increment();
+        recordedBytes.add(length);
+        // Map the next segment in the background once this one is half full
+        if (offset > segmentBytes / 2) {
+            prepareSpare(segment.getIndex() + 1);
+        }
+    }
+
+    private long nowMicros() {
+        return baseEpochMicros + (System.nanoTime() - baseNanos) / 1000;
+    }
+
+    /**
+     * The segment to write a record with the given ids to. Defining a new name may have
+     * rolled the segment, so a segment read before the ids were allocated may not have
+     * their definitions; the current one always has every id handed out for it.
+     *
+     * @return The segment, or null if recording stopped or an id has no definition
+     */
+    private MarketDataSegment segmentDefining(int exchangeId, int symbolId) {
+        if (exchangeId < 0 || symbolId < 0) {
+            return null;
+        }
+        MarketDataSegment segment = current;
+        // Ids from before a restart may not exist in the new recording
+        return segment != null && segment.defines(exchangeId, symbolId) ? segment : null;
+    }
+
+    private int exchangeId(String exchangeName) {
+        Integer id = exchangeIds.get(exchangeName);
+        return id != null ? id : define(exchangeName, true);
+    }
+
+    private int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        return id != null ? id : define(symbol, false);
+    }
+
+    /**
+     * Give a name an id and write its definition to the current segment. The id is only
+     * published after the definition, so no record can refer to an undefined id.
+     *
+     * @return The id, or -1 if the definition could not be written
+     */
+    private synchronized int define(String name, boolean exchange) {
+        ConcurrentHashMap<String, Integer> ids = exchange ? exchangeIds : symbolIds;
+        List<String> names = exchange ? exchangeNames : symbolNames;
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (exchange && names.size() > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many exchanges recorded");
+        }
+        int id = names.size();
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        MarketDataSegment segment = current;
+        if (segment == null) {
+            return -1;
+        }
+        int length = MarketDataSegment.definitionLength(bytes);
+        int offset;
+        while ((offset = segment.reserve(length)) < 0) {
+            // The next segment's dictionary does not have this name yet either
+            segment = segment.fits(length) ? roll(segment) : null;
+            if (segment == null) {
+                return -1;
+            }
+        }
+        segment.putDefinition(offset, exchange ? MarketDataSegment.TYPE_DEFINE_EXCHANGE
+                : MarketDataSegment.TYPE_DEFINE_SYMBOL, id, bytes, nowMicros());
+        names.add(name);
+        ids.put(name, id);
+        return id;
+    }
+
+    /**
+     * Replace a full segment with the next one.
+     *
+     * @param full The segment the caller found full
+     * @return The segment to write to, or null if recording stopped
+     */
+    private synchronized MarketDataSegment roll(MarketDataSegment full) {
+        MarketDataSegment segment = current;
+        if (segment != full) {
+            // Another writer rolled already, or recording stopped
+            return segment;
+        }
+        try {
+            segment = newSegment();
+        } catch (IOException e) {
+            AppLog.e(TAG, "Cannot create the next segment in " + directory + "; recording stopped", e);
+            current = null;
+            return null;
+        }
+        current = segment;
+        return segment;
+    }
+
+    /**
+     * Create the next segment, from the spare if one is ready, and apply the retention.
+     */
+    private MarketDataSegment newSegment() throws IOException {
+        int index = nextIndex++;
+        SpareSegment prepared = spare;
+        spare = null;
+        spareRequested = false;
+        Path file = segmentFile(index);
+        MappedByteBuffer buffer = null;
+        if (prepared != null) {
+            try {
+                if (prepared.index == index) {
+                    // The mapping follows the file when it is renamed
+                    Files.move(prepared.file, file);
+                    buffer = prepared.buffer;
+                }
+            } catch (IOException e) {
+                AppLog.w(TAG, "Cannot use " + prepared.file + ": " + e.getMessage());
+            } finally {
+                if (buffer == null) {
+                    deleteQuietly(prepared.file);
+                }
+            }
+        }
+        if (buffer == null) {
+            buffer = MarketDataSegment.map(file, segmentBytes);
+        }
+        MarketDataSegment segment = MarketDataSegment.create(file, index, buffer, nowMicros(),
+                Collections.unmodifiableList(exchangeNames), Collections.unmodifiableList(symbolNames));
+        segments.addLast(segment.getFile());
+        if (segment.getDictionaryEnd() > segment.getCapacity() / 2) {
+            // Every later segment would be mostly dictionary, and rolled almost at once
+            throw new IOException("Segments of " + segmentBytes + " bytes are too small for the dictionary of "
+                    + exchangeNames.size() + " exchanges and " + symbolNames.size() + " symbols");
+        }
+
+        if (maxSegments > 0 && segments.size() > maxSegments) {
+            List<Path> expired = new ArrayList<>();
+            while (segments.size() > maxSegments) {
+                expired.add(segments.removeFirst());
+            }
+            try {
+                TaskScheduler.getInstance().submit(TaskScheduler.Workload.DISK_IO, TaskScheduler.TaskPriority.LOW,
+                        () -> expired.forEach(MarketDataRecorder::deleteQuietly));
+            } catch (RejectedExecutionException e) {
+                expired.forEach(MarketDataRecorder::deleteQuietly);
+            }
+        }
+        return segment;
+    }
+
+    private void prepareSpare(int index) {
+        if (spareRequested) {
+            return;
+        }
+        synchronized (this) {
+            if (spareRequested || current == null) {
+                return;
+            }
+            spareRequested = true;
+        }
+        // Mapped under its own name, so it never clashes with a segment the roll mapped itself
+        Path file = spareFile(index);
+        int size = segmentBytes;
+        try {
+            TaskScheduler.getInstance().submit(TaskScheduler.Workload.DISK_IO, TaskScheduler.TaskPriority.LOW, () -> {
+                try {
+                    SpareSegment prepared = new SpareSegment(index, file, MarketDataSegment.map(file, size));
+                    synchronized (MarketDataRecorder.this) {
+                        if (spareRequested && current != null && nextIndex == index) {
+                            spare = prepared;
+                            return;
+                        }
+                    }
+                    deleteQuietly(file);
+                } catch (IOException e) {
+                    // The roll maps the segment itself
+                    AppLog.w(TAG, "Cannot prepare " + file + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The roll maps the segment itself
+        }
+    }
+
+    private Path segmentFile(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private Path spareFile(int index) {
+        return directory.resolve(String.format("%s%08d%s%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX, SPARE_SUFFIX));
+    }
+
+    static int segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Delete spare segments an earlier recording left behind when it was killed.
+     */
+    private static void deleteSpares(Path directory) throws IOException {
+        try (DirectoryStream<Path> spares = Files.newDirectoryStream(directory, "*" + SPARE_SUFFIX)) {
+            for (Path file : spares) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            AppLog.w(TAG, "Cannot delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    /**
+     * Updates that could not be recorded, e.g. because the next segment could not be created.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getRecordedBytes() {
+        return recordedBytes.sum();
+    }
+
+    public String getStats() {
+        return String.format("%d updates (%.1f MiB) recorded, %d dropped",
+                getRecordedCount(), getRecordedBytes() / (1024.0 * 1024.0), getDroppedCount());
+    }
+
+    static Source source(byte code) {
+        return code >= 0 && code < SOURCES.length ? SOURCES[code] : Source.WEBSOCKET;
+    }
+
+    /**
+     * A segment file mapped ahead of time.
+     */
+    private static final class SpareSegment {
+        final int index;
+        final Path file;
+        final MappedByteBuffer buffer;
+
+        SpareSegment(int index, Path file, MappedByteBuffer buffer) {
+            this.index = index;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.tradient.infrastructure.recording;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One memory-mapped segment file of a market data recording.
+ * <p>
+ * Layout, little-endian:
+ * <pre>
+ * preamble    long magic, int version, int dictionaryEnd, long createdMicros, int index, int reserved
+ * dictionary  DEFINE_EXCHANGE and DEFINE_SYMBOL records for every name known when the segment was created
+ * records     TICKER, ORDER_BOOK, PADDING and further DEFINE records, in append order
+ * </pre>
+ * Every record starts with the same 24-byte header
+ * {@code int length, byte type, byte source, short exchangeId, int symbolId, short bidCount,
+ * short askCount, long timestampMicros} and is padded to a multiple of 8 bytes. A ticker
+ * record carries bid, ask, last, bid size, ask size and volume as doubles; an order book
+ * record carries price and size pairs, bids first; a DEFINE record carries the UTF-8 name
+ * with its byte length in {@code bidCount}. A length of 0 marks the end of the data.
+ * <p>
+ * Writers reserve space with a single atomic add and fill it without locking; the length
+ * is written last, so a reader never sees a partially written record as complete.
+ */
+final class MarketDataSegment {
+
+    static final long MAGIC = 0x3130_544B_4D44_5254L; // "TRDMKT01" in little-endian order
+    static final int VERSION = 1;
+    static final int PREAMBLE_BYTES = 32;
+    static final int HEADER_BYTES = 24;
+    static final int TICKER_BYTES = HEADER_BYTES + 6 * 8;
+    static final int LEVEL_BYTES = 16;
+
+    static final byte TYPE_PADDING = 0;
+    static final byte TYPE_TICKER = 1;
+    static final byte TYPE_ORDER_BOOK = 2;
+    static final byte TYPE_DEFINE_EXCHANGE = 3;
+    static final byte TYPE_DEFINE_SYMBOL = 4;
+
+    // Header field offsets
+    static final int LENGTH = 0;
+    static final int TYPE = 4;
+    static final int SOURCE = 5;
+    static final int EXCHANGE = 6;
+    static final int SYMBOL = 8;
+    static final int BID_COUNT = 12;
+    static final int ASK_COUNT = 14;
+    static final int TIMESTAMP = 16;
+
+    // Preamble field offsets
+    static final int PREAMBLE_VERSION = 8;
+    static final int PREAMBLE_DICTIONARY_END = 12;
+    static final int PREAMBLE_CREATED = 16;
+    static final int PREAMBLE_INDEX = 24;
+
+    private final Path file;
+    private final int index;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int dictionaryEnd;
+    private final AtomicInteger position;
+
+    // Names defined in this segment so far, by the dictionary or a later DEFINE record
+    private volatile int exchangeCount;
+    private volatile int symbolCount;
+
+    private MarketDataSegment(Path file, int index, MappedByteBuffer buffer, int dictionaryEnd,
+                              int exchangeCount, int symbolCount) {
+        this.file = file;
+        this.index = index;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+        this.dictionaryEnd = dictionaryEnd;
+        this.position = new AtomicInteger(dictionaryEnd);
+        this.exchangeCount = exchangeCount;
+        this.symbolCount = symbolCount;
+    }
+
+    /**
+     * Create a segment file of the given size and map it, without writing anything yet.
+     */
+    static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size);
+            // The mapping stays valid after the channel is closed
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Start a segment in a mapped file by writing the preamble and the dictionary.
+     *
+     * @param exchanges Exchange names by id
+     * @param symbols Symbol names by id
+     */
+    static MarketDataSegment create(Path file, int index, MappedByteBuffer buffer, long createdMicros,
+                                    List<String> exchanges, List<String> symbols) throws IOException {
+        int size = buffer.capacity();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        int offset = PREAMBLE_BYTES;
+        for (int id = 0; id < exchanges.size(); id++) {
+            offset += writeDefinition(buffer, offset, size, TYPE_DEFINE_EXCHANGE, id, exchanges.get(id), createdMicros);
+        }
+        for (int id = 0; id < symbols.size(); id++) {
+            offset += writeDefinition(buffer, offset, size, TYPE_DEFINE_SYMBOL, id, symbols.get(id), createdMicros);
+        }
+
+        buffer.putInt(PREAMBLE_VERSION, VERSION);
+        buffer.putInt(PREAMBLE_DICTIONARY_END, offset);
+        buffer.putLong(PREAMBLE_CREATED, createdMicros);
+        buffer.putInt(PREAMBLE_INDEX, index);
+        buffer.putLong(0, MAGIC);
+        return new MarketDataSegment(file, index, buffer, offset, exchanges.size(), symbols.size());
+    }
+
+    private static int writeDefinition(MappedByteBuffer buffer, int offset, int size, byte type, int id,
+                                       String name, long timestampMicros) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = align(HEADER_BYTES + bytes.length);
+        if (offset + length > size) {
+            throw new IOException("Segment size " + size + " is too small for the symbol dictionary");
+        }
+        putDefinition(buffer, offset, length, type, id, bytes, timestampMicros);
+        return length;
+    }
+
+    private static void putDefinition(MappedByteBuffer buffer, int offset, int length, byte type, int id,
+                                      byte[] name, long timestampMicros) {
+        buffer.put(offset + TYPE, type);
+        buffer.putShort(offset + EXCHANGE, type == TYPE_DEFINE_EXCHANGE ? (short) id : 0);
+        buffer.putInt(offset + SYMBOL, type == TYPE_DEFINE_SYMBOL ? id : 0);
+        buffer.putShort(offset + BID_COUNT, (short) name.length);
+        buffer.putLong(offset + TIMESTAMP, timestampMicros);
+        for (int i = 0; i < name.length; i++) {
+            buffer.put(offset + HEADER_BYTES + i, name[i]);
+        }
+        buffer.putInt(offset + LENGTH, length);
+    }
+
+    static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    /**
+     * Reserve space for a record.
+     *
+     * @return The offset of the record, or -1 if the segment is full
+     */
+    int reserve(int length) {
+        int offset = position.getAndAdd(length);
+        return offset >= 0 && offset + length <= capacity ? offset : -1;
+    }
+
+    /**
+     * @return Whether a record of the given length fits after the dictionary, i.e. whether
+     * a full segment with the same dictionary could take it
+     */
+    boolean fits(int length) {
+        return length <= capacity - dictionaryEnd;
+    }
+
+    /**
+     * @return Bytes taken by the preamble and the dictionary
+     */
+    int getDictionaryEnd() {
+        return dictionaryEnd;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Write a DEFINE record at a reserved offset. Ids are defined in order, so the record
+     * defines every id up to this one.
+     */
+    void putDefinition(int offset, byte type, int id, byte[] name, long timestampMicros) {
+        putDefinition(buffer, offset, definitionLength(name), type, id, name, timestampMicros);
+        if (type == TYPE_DEFINE_EXCHANGE) {
+            exchangeCount = id + 1;
+        } else {
+            symbolCount = id + 1;
+        }
+    }
+
+    /**
+     * @return Whether both ids are defined before any record written to this segment now
+     */
+    boolean defines(int exchangeId, int symbolId) {
+        return exchangeId < exchangeCount && symbolId < symbolCount;
+    }
+
+    static int definitionLength(byte[] name) {
+        return align(HEADER_BYTES + name.length);
+    }
+
+    /**
+     * Write everything but the length of a record header; {@link #publish} writes it.
+     */
+    void putHeader(int offset, byte type, byte source, int exchangeId, int symbolId,
+                   int bidCount, int askCount, long timestampMicros) {
+        buffer.put(offset + TYPE, type);
+        buffer.put(offset + SOURCE, source);
+        buffer.putShort(offset + EXCHANGE, (short) exchangeId);
+        buffer.putInt(offset + SYMBOL, symbolId);
+        buffer.putShort(offset + BID_COUNT, (short) bidCount);
+        buffer.putShort(offset + ASK_COUNT, (short) askCount);
+        buffer.putLong(offset + TIMESTAMP, timestampMicros);
+    }
+
+    void putDouble(int offset, double value) {
+        buffer.putDouble(offset, value);
+    }
+
+    /**
+     * Make a record visible to readers by writing its length.
+     */
+    void publish(int offset, int length) {
+        buffer.putInt(offset + LENGTH, length);
+    }
+
+    /**
+     * Turn a reserved record that could not be written into padding readers skip.
+     */
+    void abandon(int offset, int length) {
+        buffer.put(offset + TYPE, TYPE_PADDING);
+        buffer.putInt(offset + LENGTH, length);
+    }
+
+    /**
+     * @return Bytes written or reserved, capped at the segment size
+     */
+    int getUsedBytes() {
+        return Math.min(capacity, Math.max(0, position.get()));
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Flush the written pages to the file.
+     */
+    void force() {
+        buffer.force();
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.tradient.infrastructure.replay;
+
+import com.example.tradient.config.ConfigurationFactory;
+import com.example.tradient.config.ConfigurationSnapshot;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.engine.OpportunityDetector;
+import com.example.tradient.domain.market.CandleAggregator;
+import com.example.tradient.domain.profit.ProfitCalculator;
+import com.example.tradient.domain.risk.RiskCalculator;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.infrastructure.metrics.Counter;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+import com.example.tradient.infrastructure.recording.MarketDataEvent;
+import com.example.tradient.infrastructure.recording.MarketDataReader;
+import com.example.tradient.util.AppLog;
+import com.example.tradient.util.MarketClock;
+import com.example.tradient.util.RiskAssessmentAdapter;
+import com.example.tradient.util.SymbolNormalizer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a market data recording through the scanner's detection, risk and profit code,
+ * in event-time order, to see which opportunities a configuration would have found and
+ * how long each of them lasted.
+ * <p>
+ * Every ticker update re-evaluates its market the way the live scanner does, with
+ * {@link OpportunityDetector}; an opportunity opens the first time it is found and closes
+ * at the first evaluation of its market that no longer finds it. New opportunities get a
+ * {@link RiskCalculator} assessment and, once both order books have been recorded, a
+ * slippage-adjusted profit from {@link ProfitCalculator}. Tickers also feed the rolling
+ * volatility and candles, as the WebSocket providers do live; both are cleared when a
+ * replay starts, so the risk of an opportunity only depends on the recording.
+ * <p>
+ * {@link MarketClock} follows the recording while the replay runs, so quote ages, caches
+ * and rolling windows see recorded time. The replay runs on the calling thread and
+ * depends only on the recording and the configuration: the same inputs always give the
+ * same opportunities. It runs as fast as possible by default, or at a multiple of
+ * real time with {@link Builder#setSpeed}.
+ */
+public class MarketReplay {
+
+    private static final String TAG = "MarketReplay";
+
+    // Tickers older than this are stale for ExchangeService as well
+    public static final long DEFAULT_MAX_QUOTE_AGE_MILLIS = 30_000;
+    public static final double DEFAULT_MIN_PROFIT_PERCENT = 0.1;
+
+    // How often, in recorded time, markets with open opportunities are re-evaluated so
+    // that opportunities whose quotes aged out close even if the market goes quiet
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final Counter OPENED =
+            MetricsRegistry.getInstance().counter(OpportunityDetector.OPPORTUNITIES_OPENED, "source", "replay");
+    private static final Counter CLOSED =
+            MetricsRegistry.getInstance().counter(OpportunityDetector.OPPORTUNITIES_CLOSED, "source", "replay");
+
+    private final MarketDataReader reader;
+    private final double speed;
+    private final double minProfitPercentSetting;
+    private final long maxQuoteAgeMillis;
+    private final Set<String> exchanges;
+    private final ReplayListener listener;
+    private final OpportunityDetector detector;
+
+    // Exchange name -> exchange symbol -> listing; null listings mark symbols left out
+    private final Map<String, Map<String, Listing>> listings = new HashMap<>();
+    private final Map<String, Market> markets = new HashMap<>();
+    // Insertion ordered, so sweeps evaluate markets in the same order on every run
+    private final Set<Market> marketsWithOpen = new LinkedHashSet<>();
+    private final List<ArbitrageOpportunity> found = new ArrayList<>();
+
+    private ConfigurationSnapshot config;
+    private double minProfitPercent;
+    private RiskCalculator riskCalculator;
+    private ReplayReport report;
+    private long round;
+    private volatile boolean running = true;
+
+    private MarketReplay(Builder builder) {
+        this.reader = builder.reader;
+        this.speed = builder.speed;
+        this.minProfitPercentSetting = builder.minProfitPercent;
+        this.maxQuoteAgeMillis = builder.maxQuoteAgeMillis;
+        this.exchanges = builder.exchanges;
+        this.listener = builder.listener;
+        this.detector = new OpportunityDetector(builder.tradeAmount);
+    }
+
+    /**
+     * Replay the whole recording, or until {@link #stop()} is called.
+     */
+    public ReplayReport run() throws IOException, InterruptedException {
+        config = ConfigurationFactory.getSnapshot();
+        minProfitPercent = !Double.isNaN(minProfitPercentSetting) ? minProfitPercentSetting
+                : config.getMinProfitPercent() > 0 ? config.getMinProfitPercent() : DEFAULT_MIN_PROFIT_PERCENT;
+        riskCalculator = new RiskCalculator(minProfitPercent / 100.0);
+        report = new ReplayReport();
+        // Whatever the live feeds or an earlier replay left in them would change the risk scores
+        RollingVolatilityEstimator.getInstance().clear();
+        CandleAggregator.getInstance().clear();
+        AppLog.i(TAG, String.format(Locale.US, "Replaying %s with a minimum profit of %.3f%%",
+                speed > 0 ? "at " + speed + "x real time" : "as fast as possible", minProfitPercent));
+
+        long startedNanos = System.nanoTime();
+        long nextProgressNanos = startedNanos + PROGRESS_INTERVAL_NANOS;
+        long firstMillis = -1;
+        long lastMillis = -1;
+        long nextSweepMillis = 0;
+        try {
+            MarketDataEvent event;
+            while (running && (event = reader.next()) != null) {
+                // Concurrent writers can record a few microseconds out of order; time never goes back
+                long eventMillis = Math.max(event.getTimestampMillis(), lastMillis);
+                if (firstMillis < 0) {
+                    firstMillis = eventMillis;
+                    nextSweepMillis = eventMillis + SWEEP_INTERVAL_MILLIS;
+                    MarketClock.useVirtualTime(eventMillis);
+                } else {
+                    MarketClock.advanceTo(eventMillis);
+                }
+                lastMillis = eventMillis;
+
+                if (speed > 0) {
+                    pace(startedNanos, firstMillis, eventMillis);
+                }
+                if (eventMillis >= nextSweepMillis) {
+                    sweep();
+                    nextSweepMillis = eventMillis + SWEEP_INTERVAL_MILLIS;
+                }
+                process(event, eventMillis);
+
+                if ((report.getEvents() & 0xFFF) == 0 && System.nanoTime() > nextProgressNanos) {
+                    nextProgressNanos = System.nanoTime() + PROGRESS_INTERVAL_NANOS;
+                    AppLog.i(TAG, "Replayed " + report.getEvents() + " updates, up to "
+                            + Instant.ofEpochMilli(eventMillis));
+                }
+            }
+            closeAll(lastMillis);
+            if (listener != null) {
+                listener.onReplayEnd();
+            }
+        } finally {
+            MarketClock.useSystemTime();
+            report.setWallNanos(System.nanoTime() - startedNanos);
+        }
+        return report;
+    }
+
+    /**
+     * Stop after the current update; {@link #run()} then reports what was replayed so far.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    private void pace(long startedNanos, long firstMillis, long eventMillis) throws InterruptedException {
+        long dueNanos = startedNanos + (long) ((eventMillis - firstMillis) * 1_000_000.0 / speed);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void process(MarketDataEvent event, long eventMillis) {
+        String exchangeName = event.getExchangeName();
+        if (exchanges != null && !exchanges.contains(exchangeName.toLowerCase(Locale.ROOT))) {
+            report.onSkipped();
+            return;
+        }
+        boolean isTicker = event.getType() == MarketDataEvent.Type.TICKER;
+        report.onEvent(eventMillis, isTicker);
+
+        Listing listing = listing(exchangeName, event.getSymbol());
+        if (listing == null) {
+            return;
+        }
+        Market market = listing.market;
+        if (isTicker) {
+            Ticker ticker = event.toTicker();
+            RollingVolatilityEstimator.getInstance().onTicker(exchangeName, event.getSymbol(), ticker);
+            CandleAggregator.getInstance().onTicker(exchangeName, event.getSymbol(), ticker);
+            market.tickers[listing.slot] = ticker;
+            if (listener != null) {
+                listener.onTicker(exchangeName, event.getSymbol(), ticker);
+            }
+            evaluate(market);
+        } else {
+            OrderBook book = event.toOrderBook();
+            market.books[listing.slot] = book;
+            if (listener != null) {
+                listener.onOrderBook(exchangeName, event.getSymbol(), book);
+            }
+        }
+    }
+
+    private Listing listing(String exchangeName, String exchangeSymbol) {
+        Map<String, Listing> bySymbol = listings.computeIfAbsent(exchangeName, name -> new HashMap<>());
+        Listing listing = bySymbol.get(exchangeSymbol);
+        if (listing == null && !bySymbol.containsKey(exchangeSymbol)) {
+            String symbol = SymbolNormalizer.normalize(exchangeSymbol);
+            if (!symbol.isEmpty()) {
+                listing = markets.computeIfAbsent(symbol, Market::new).add(exchangeName, exchangeSymbol);
+            }
+            bySymbol.put(exchangeSymbol, listing);
+        }
+        return listing;
+    }
+
+    /**
+     * Detect the opportunities of a market in its current quotes, opening the new ones
+     * and closing the ones no longer found.
+     */
+    private void evaluate(Market market) {
+        long round = ++this.round;
+        long now = MarketClock.currentTimeMillis();
+        int exchangeCount = market.exchangeNames.length;
+        for (int i = 0; i < exchangeCount; i++) {
+            Ticker ticker = market.tickers[i];
+            market.quotes[i] = ticker != null && now - ticker.getTimestamp().getTime() <= maxQuoteAgeMillis
+                    ? ticker : null;
+        }
+
+        found.clear();
+        detector.detect(market.symbol, market.exchangeNames, market.exchangeSymbols, market.quotes,
+                config, minProfitPercent, found);
+        for (int i = 0; i < found.size(); i++) {
+            ArbitrageOpportunity opportunity = found.get(i);
+            int buy = market.slot(opportunity.getExchangeBuy());
+            int sell = market.slot(opportunity.getExchangeSell());
+            int index = buy * exchangeCount + sell;
+            ReplayOpportunity open = market.open[index];
+            if (open != null) {
+                open.update(opportunity.getNetProfitPercentage(), round);
+            } else {
+                open = open(market, opportunity, buy, sell, now, round);
+                market.open[index] = open;
+                market.openCount++;
+                report.onOpened();
+                OPENED.increment();
+                if (listener != null) {
+                    listener.onOpportunityOpened(open);
+                }
+            }
+        }
+
+        if (market.openCount > 0) {
+            for (int i = 0; i < market.open.length; i++) {
+                ReplayOpportunity open = market.open[i];
+                if (open != null && open.seenInRound != round) {
+                    market.open[i] = null;
+                    market.openCount--;
+                    close(open, now, false);
+                }
+            }
+        }
+        if (market.openCount > 0) {
+            marketsWithOpen.add(market);
+        } else {
+            marketsWithOpen.remove(market);
+        }
+    }
+
+    private ReplayOpportunity open(Market market, ArbitrageOpportunity opportunity, int buy, int sell,
+                                   long now, long round) {
+        RiskAssessment risk = riskCalculator.calculateRisk(opportunity.getBuyTicker(), opportunity.getSellTicker(),
+                opportunity.getBuyFeePercentage(), opportunity.getSellFeePercentage());
+        // Attaching an assessment copies its fees onto the opportunity
+        risk.setBuyFeePercentage(opportunity.getBuyFeePercentage());
+        risk.setSellFeePercentage(opportunity.getSellFeePercentage());
+        RiskAssessmentAdapter.setRiskAssessment(opportunity, risk);
+        opportunity.setRiskScore(risk.getOverallRiskScore());
+
+        double slippageAdjusted = Double.NaN;
+        OrderBook buyBook = market.books[buy];
+        OrderBook sellBook = market.books[sell];
+        if (buyBook != null && sellBook != null
+                && now - buyBook.getTimestamp() <= maxQuoteAgeMillis
+                && now - sellBook.getTimestamp() <= maxQuoteAgeMillis) {
+            slippageAdjusted = ProfitCalculator.calculateSlippageAdjustedProfitPercentage(
+                    opportunity.getBuyPrice(), opportunity.getSellPrice(),
+                    opportunity.getBuyFeePercentage(), opportunity.getSellFeePercentage(),
+                    detector.getTradeAmount() / opportunity.getBuyPrice(), buyBook, sellBook,
+                    market.symbol.split("/")[0]);
+        }
+        return new ReplayOpportunity(opportunity, now, slippageAdjusted, round);
+    }
+
+    private void close(ReplayOpportunity opportunity, long now, boolean atEnd) {
+        opportunity.close(now, atEnd);
+        report.onClosed(opportunity);
+        CLOSED.increment();
+        if (listener != null) {
+            listener.onOpportunityClosed(opportunity);
+        }
+    }
+
+    /**
+     * Re-evaluate the markets with open opportunities, which closes those whose quotes
+     * aged out while their market was quiet.
+     */
+    private void sweep() {
+        if (marketsWithOpen.isEmpty()) {
+            return;
+        }
+        for (Market market : new ArrayList<>(marketsWithOpen)) {
+            evaluate(market);
+        }
+    }
+
+    private void closeAll(long lastMillis) {
+        for (Market market : marketsWithOpen) {
+            for (int i = 0; i < market.open.length; i++) {
+                if (market.open[i] != null) {
+                    close(market.open[i], lastMillis, true);
+                    market.open[i] = null;
+                }
+            }
+            market.openCount = 0;
+        }
+        marketsWithOpen.clear();
+    }
+
+    /**
+     * Where one exchange symbol belongs: its market and its slot in the market's arrays.
+     */
+    private static final class Listing {
+        final Market market;
+        final int slot;
+
+        Listing(Market market, int slot) {
+            this.market = market;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Latest quotes and open opportunities of one normalized symbol, one slot per exchange.
+     */
+    private static final class Market {
+        final String symbol;
+        String[] exchangeNames = new String[0];
+        String[] exchangeSymbols = new String[0];
+        Ticker[] tickers = new Ticker[0];
+        // Tickers young enough to trade on, rebuilt on every evaluation
+        Ticker[] quotes = new Ticker[0];
+        OrderBook[] books = new OrderBook[0];
+        // Open opportunity per buy slot * exchange count + sell slot
+        ReplayOpportunity[] open = new ReplayOpportunity[0];
+        int openCount;
+
+        Market(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * @return The new listing, or null if the exchange already lists the symbol
+         * under another name
+         */
+        Listing add(String exchangeName, String exchangeSymbol) {
+            if (slot(exchangeName) >= 0) {
+                return null;
+            }
+            int count = exchangeNames.length;
+            int grown = count + 1;
+            exchangeNames = Arrays.copyOf(exchangeNames, grown);
+            exchangeSymbols = Arrays.copyOf(exchangeSymbols, grown);
+            tickers = Arrays.copyOf(tickers, grown);
+            quotes = Arrays.copyOf(quotes, grown);
+            books = Arrays.copyOf(books, grown);
+            exchangeNames[count] = exchangeName;
+            exchangeSymbols[count] = exchangeSymbol;
+
+            ReplayOpportunity[] regrouped = new ReplayOpportunity[grown * grown];
+            for (int buy = 0; buy < count; buy++) {
+                System.arraycopy(open, buy * count, regrouped, buy * grown, count);
+            }
+            open = regrouped;
+            return new Listing(this, count);
+        }
+
+        int slot(String exchangeName) {
+            for (int i = 0; i < exchangeNames.length; i++) {
+                if (exchangeNames[i].equals(exchangeName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Builder for {@link MarketReplay}.
+     */
+    public static class Builder {
+        private final MarketDataReader reader;
+        private double speed;
+        private double minProfitPercent = Double.NaN;
+        private double tradeAmount = OpportunityDetector.DEFAULT_TRADE_AMOUNT;
+        private long maxQuoteAgeMillis = DEFAULT_MAX_QUOTE_AGE_MILLIS;
+        private Set<String> exchanges;
+        private ReplayListener listener;
+
+        /**
+         * @param reader The recording to replay
+         */
+        public Builder(MarketDataReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @param speed Multiple of real time to replay at, or 0 to replay as fast as possible
+         */
+        public Builder setSpeed(double speed) {
+            if (speed < 0 || Double.isNaN(speed)) {
+                throw new IllegalArgumentException("Speed must not be negative: " + speed);
+            }
+            this.speed = speed;
+            return this;
+        }
+
+        /**
+         * @param minProfitPercent Minimum profit after fees, in percent; by default the
+         * configuration's
+         */
+        public Builder setMinProfitPercent(double minProfitPercent) {
+            this.minProfitPercent = minProfitPercent;
+            return this;
+        }
+
+        /**
+         * @param tradeAmount Trade size used to evaluate fees and slippage, in quote currency
+         */
+        public Builder setTradeAmount(double tradeAmount) {
+            this.tradeAmount = tradeAmount;
+            return this;
+        }
+
+        /**
+         * @param maxQuoteAgeMillis Age after which a quote is no longer traded on
+         */
+        public Builder setMaxQuoteAgeMillis(long maxQuoteAgeMillis) {
+            this.maxQuoteAgeMillis = maxQuoteAgeMillis;
+            return this;
+        }
+
+        /**
+         * @param exchanges Names of the exchanges to replay, or null for all of them
+         */
+        public Builder setExchanges(Collection<String> exchanges) {
+            if (exchanges == null) {
+                this.exchanges = null;
+                return this;
+            }
+            this.exchanges = new HashSet<>();
+            for (String exchange : exchanges) {
+                this.exchanges.add(exchange.toLowerCase(Locale.ROOT));
+            }
+            return this;
+        }
+
+        public Builder setListener(ReplayListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public MarketReplay build() {
+            return new MarketReplay(this);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.tradient.infrastructure.replay;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+
+/**
+ * Receives the opportunities of a replay as they open and close. Called on the replay
+ * thread, in event-time order.
+ */
+public interface ReplayListener {
+    /**
+     * Called when an update makes an opportunity appear.
+     *
+     * @param opportunity The opportunity, with its risk assessment
+     */
+    void onOpportunityOpened(ReplayOpportunity opportunity);
+
+    /**
+     * Called when an update or an aged-out quote makes an opportunity disappear, or when
+     * the recording ends.
+     *
+     * @param opportunity The opportunity, with its lifetime
+     */
+    void onOpportunityClosed(ReplayOpportunity opportunity);
+
+    /**
+     * Called for every replayed ticker, before the market is evaluated with it.
+     *
+     * @param exchangeName The exchange
+     * @param symbol The symbol on that exchange
+     * @param ticker The ticker
+     */
+    default void onTicker(String exchangeName, String symbol, Ticker ticker) {
+    }
+
+    /**
+     * Called for every replayed order book.
+     *
+     * @param exchangeName The exchange
+     * @param symbol The symbol on that exchange
+     * @param orderBook The order book
+     */
+    default void onOrderBook(String exchangeName, String symbol, OrderBook orderBook) {
+    }
+
+    /**
+     * Called after the last update, while the clock still shows recorded time.
+     */
+    default void onReplayEnd() {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.tradient.infrastructure.replay;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+
+/**
+ * One opportunity of a replay, from the update that opened it to the update that closed
+ * it. Times are event times of the recording, in epoch milliseconds.
+ */
+public final class ReplayOpportunity {
+
+    private final ArbitrageOpportunity opportunity;
+    private final long openedAtMillis;
+    private final double slippageAdjustedProfitPercent;
+
+    private long closedAtMillis;
+    private boolean openAtEnd;
+    private int updates = 1;
+    private double lastProfitPercent;
+    private double peakProfitPercent;
+
+    // Detection round that last found it; rounds that miss it close it
+    long seenInRound;
+
+    ReplayOpportunity(ArbitrageOpportunity opportunity, long openedAtMillis, double slippageAdjustedProfitPercent,
+                      long round) {
+        this.opportunity = opportunity;
+        this.openedAtMillis = openedAtMillis;
+        this.slippageAdjustedProfitPercent = slippageAdjustedProfitPercent;
+        this.lastProfitPercent = opportunity.getNetProfitPercentage();
+        this.peakProfitPercent = lastProfitPercent;
+        this.seenInRound = round;
+    }
+
+    void update(double profitPercent, long round) {
+        updates++;
+        lastProfitPercent = profitPercent;
+        peakProfitPercent = Math.max(peakProfitPercent, profitPercent);
+        seenInRound = round;
+    }
+
+    void close(long closedAtMillis, boolean openAtEnd) {
+        this.closedAtMillis = closedAtMillis;
+        this.openAtEnd = openAtEnd;
+    }
+
+    /**
+     * The opportunity as detected when it opened, with its risk assessment.
+     */
+    public ArbitrageOpportunity getOpportunity() {
+        return opportunity;
+    }
+
+    public long getOpenedAtMillis() {
+        return openedAtMillis;
+    }
+
+    public long getClosedAtMillis() {
+        return closedAtMillis;
+    }
+
+    public long getLifetimeMillis() {
+        return closedAtMillis - openedAtMillis;
+    }
+
+    /**
+     * Whether the recording ended while the opportunity was still open, so its lifetime
+     * is only a lower bound.
+     */
+    public boolean isOpenAtEnd() {
+        return openAtEnd;
+    }
+
+    /**
+     * Number of detection rounds that found it, including the one that opened it.
+     */
+    public int getUpdates() {
+        return updates;
+    }
+
+    public double getOpeningProfitPercent() {
+        return opportunity.getNetProfitPercentage();
+    }
+
+    public double getLastProfitPercent() {
+        return lastProfitPercent;
+    }
+
+    public double getPeakProfitPercent() {
+        return peakProfitPercent;
+    }
+
+    /**
+     * Profit at opening after walking both order books for the trade size, or NaN if
+     * either book had not been recorded yet.
+     */
+    public double getSlippageAdjustedProfitPercent() {
+        return slippageAdjustedProfitPercent;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.tradient.infrastructure.replay;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a replay found and how fast it ran.
+ */
+public final class ReplayReport {
+
+    private long events;
+    private long tickers;
+    private long orderBooks;
+    private long skipped;
+    private long opportunitiesOpened;
+    private long opportunitiesClosed;
+    private long openAtEnd;
+    private long firstEventMillis = -1;
+    private long lastEventMillis = -1;
+    private long wallNanos;
+
+    // Lifetimes of the opportunities that closed before the end, in milliseconds
+    private long[] lifetimes = new long[1024];
+    private int lifetimeCount;
+    private boolean sorted;
+
+    ReplayReport() {
+    }
+
+    void onEvent(long eventMillis, boolean ticker) {
+        events++;
+        if (ticker) {
+            tickers++;
+        } else {
+            orderBooks++;
+        }
+        if (firstEventMillis < 0) {
+            firstEventMillis = eventMillis;
+        }
+        lastEventMillis = eventMillis;
+    }
+
+    void onSkipped() {
+        skipped++;
+    }
+
+    void onOpened() {
+        opportunitiesOpened++;
+    }
+
+    void onClosed(ReplayOpportunity opportunity) {
+        if (opportunity.isOpenAtEnd()) {
+            openAtEnd++;
+            return;
+        }
+        opportunitiesClosed++;
+        if (lifetimeCount == lifetimes.length) {
+            lifetimes = Arrays.copyOf(lifetimes, lifetimeCount * 2);
+        }
+        lifetimes[lifetimeCount++] = opportunity.getLifetimeMillis();
+        sorted = false;
+    }
+
+    void setWallNanos(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * Ticker and order book updates replayed.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    public long getTickers() {
+        return tickers;
+    }
+
+    public long getOrderBooks() {
+        return orderBooks;
+    }
+
+    /**
+     * Updates of exchanges left out of the replay.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getOpportunitiesOpened() {
+        return opportunitiesOpened;
+    }
+
+    /**
+     * Opportunities that disappeared before the recording ended.
+     */
+    public long getOpportunitiesClosed() {
+        return opportunitiesClosed;
+    }
+
+    /**
+     * Opportunities still open when the recording ended.
+     */
+    public long getOpenAtEnd() {
+        return openAtEnd;
+    }
+
+    /**
+     * Time covered by the recording, from its first to its last update.
+     */
+    public long getRecordedMillis() {
+        return firstEventMillis < 0 ? 0 : lastEventMillis - firstEventMillis;
+    }
+
+    public long getWallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(wallNanos);
+    }
+
+    /**
+     * Updates replayed per second of wall time.
+     */
+    public double getEventsPerSecond() {
+        return wallNanos > 0 ? events * 1e9 / wallNanos : 0;
+    }
+
+    /**
+     * Recorded time replayed per unit of wall time.
+     */
+    public double getSpeedup() {
+        return wallNanos > 0 ? getRecordedMillis() * 1e6 / wallNanos : 0;
+    }
+
+    /**
+     * @param percentile Between 0 and 100
+     * @return Lifetime of the closed opportunities at that percentile, in milliseconds, or
+     * 0 if none closed
+     */
+    public synchronized long getLifetimePercentile(double percentile) {
+        if (lifetimeCount == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(lifetimes, 0, lifetimeCount);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * lifetimeCount) - 1;
+        return lifetimes[Math.max(0, Math.min(lifetimeCount - 1, index))];
+    }
+
+    public double getMeanLifetimeMillis() {
+        if (lifetimeCount == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < lifetimeCount; i++) {
+            sum += lifetimes[i];
+        }
+        return sum / lifetimeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%d updates (%d tickers, %d order books, %d skipped) covering %.1f s replayed in %.1f s: "
+                        + "%.0f updates/s, %.1fx real time. %d opportunities opened, %d closed, %d open at the end; "
+                        + "lifetime mean %.0f ms, p50 %d ms, p90 %d ms, p99 %d ms, max %d ms",
+                events, tickers, orderBooks, skipped, getRecordedMillis() / 1000.0, wallNanos / 1e9,
+                getEventsPerSecond(), getSpeedup(), opportunitiesOpened, opportunitiesClosed, openAtEnd,
+                getMeanLifetimeMillis(), getLifetimePercentile(50), getLifetimePercentile(90),
+                getLifetimePercentile(99), getLifetimePercentile(100));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.tradient.infrastructure.risk;
 
 import com.example.tradient.data.interfaces.VolatilityDataProvider;
+import com.example.tradient.util.MarketClock;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -45,7 +46,7 @@ public class MarketVolatilityDataProvider implements VolatilityDataProvider {
         
         // Update cache
         volatilityCache.put(symbol, volatilityScore);
-        lastUpdateTimestamps.put(symbol, System.currentTimeMillis());
+        lastUpdateTimestamps.put(symbol, MarketClock.currentTimeMillis());
         
         return volatilityScore;
     }
@@ -62,7 +63,7 @@ public class MarketVolatilityDataProvider implements VolatilityDataProvider {
         }
         
         long lastUpdate = lastUpdateTimestamps.get(symbol);
-        long currentTime = System.currentTimeMillis();
+        long currentTime = MarketClock.currentTimeMillis();
         
         return (currentTime - lastUpdate) < cacheExpiryMs;
     }
@@ -0,0 +1,127 @@
+package com.example.tradient.util;
+
+import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.infrastructure.notification.ConsoleNotificationService;
+
+import java.util.Locale;
+
+/**
+ * Static logging entry point for the core module.
+ * <p>
+ * Mirrors the {@code android.util.Log} calls the code was written against, but forwards
+ * every message to an {@link INotificationService}. The Android app installs one backed
+ * by logcat at startup; headless processes keep the default
+ * {@link ConsoleNotificationService}, which writes to standard output.
+ * <p>
+ * The methods taking a format and arguments check the level first and only format
+ * enabled messages, using {@link String#format} syntax in {@link Locale#US}. Hot paths
+ * that would box many arguments check {@link #isDebugEnabled()} themselves. Repetitive
+ * lines go through a {@link LogLimiter}.
+ */
+public final class AppLog {
+
+    private static volatile INotificationService service = new ConsoleNotificationService();
+
+    private AppLog() {
+    }
+
+    /**
+     * Set the service that receives all log messages.
+     *
+     * @param notificationService The service, must not be null
+     */
+    public static void setNotificationService(INotificationService notificationService) {
+        if (notificationService == null) {
+            throw new IllegalArgumentException("notificationService must not be null");
+        }
+        service = notificationService;
+    }
+
+    public static INotificationService getNotificationService() {
+        return service;
+    }
+
+    /**
+     * Whether debug messages are logged; check before building an expensive one.
+     */
+    public static boolean isDebugEnabled() {
+        return service.isDebugEnabled();
+    }
+
+    public static void d(String tag, String message) {
+        INotificationService current = service;
+        if (current.isDebugEnabled()) {
+            current.logDebug(format(tag, message));
+        }
+    }
+
+    public static void d(String tag, String format, Object... args) {
+        INotificationService current = service;
+        if (current.isDebugEnabled()) {
+            current.logDebug(format(tag, String.format(Locale.US, format, args)));
+        }
+    }
+
+    public static void i(String tag, String message) {
+        service.logInfo(format(tag, message));
+    }
+
+    public static void i(String tag, String format, Object... args) {
+        service.logInfo(format(tag, String.format(Locale.US, format, args)));
+    }
+
+    /**
+     * Log a repetitive info line, if the limiter lets it through.
+     */
+    public static void i(String tag, LogLimiter limiter, String format, Object... args) {
+        if (limiter.tryAcquire()) {
+            service.logInfo(format(tag, limited(limiter, String.format(Locale.US, format, args))));
+        }
+    }
+
+    public static void w(String tag, String message) {
+        service.logWarning(format(tag, message));
+    }
+
+    public static void w(String tag, String format, Object... args) {
+        service.logWarning(format(tag, String.format(Locale.US, format, args)));
+    }
+
+    /**
+     * Log a repetitive warning, if the limiter lets it through.
+     */
+    public static void w(String tag, LogLimiter limiter, String format, Object... args) {
+        if (limiter.tryAcquire()) {
+            service.logWarning(format(tag, limited(limiter, String.format(Locale.US, format, args))));
+        }
+    }
+
+    public static void e(String tag, String message) {
+        service.logError(format(tag, message), null);
+    }
+
+    public static void e(String tag, String message, Throwable throwable) {
+        service.logError(format(tag, message), throwable);
+    }
+
+    /**
+     * Log a repetitive error, if the limiter lets it through.
+     */
+    public static void e(String tag, LogLimiter limiter, String message, Throwable throwable) {
+        if (limiter.tryAcquire()) {
+            service.logError(format(tag, limited(limiter, message)), throwable);
+        }
+    }
+
+    /**
+     * Append the number of lines the limiter suppressed since the last one let through.
+     */
+    public static String limited(LogLimiter limiter, String message) {
+        int suppressed = limiter.takeSuppressed();
+        return suppressed > 0 ? message + " (" + suppressed + " similar suppressed)" : message;
+    }
+
+    private static String format(String tag, String message) {
+        return tag + ": " + message;
+    }
+}
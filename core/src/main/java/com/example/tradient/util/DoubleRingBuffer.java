@@ -0,0 +1,168 @@
+package com.example.tradient.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring buffer of primitive doubles with running sums.
+ * <p>
+ * Keeps the sum of the whole window and of the most recent {@code shortWindow} values
+ * up to date on every insert, so both averages are O(1) and nothing is allocated after
+ * construction. The sums are recomputed from scratch each time the write position wraps
+ * around, which bounds floating point drift at an amortized O(1) cost.
+ * <p>
+ * All methods synchronize on the buffer itself. Callers normally keep one buffer per key
+ * in a {@code ConcurrentHashMap}, which makes that lock striped per key: writers for
+ * different keys never contend.
+ */
+public class DoubleRingBuffer {
+
+    private final double[] values;
+    private final int shortWindow;
+
+    // Index of the next write
+    private int head;
+    private int count;
+    private double sum;
+    private double shortSum;
+
+    /**
+     * @param capacity Maximum number of values kept
+     */
+    public DoubleRingBuffer(int capacity) {
+        this(capacity, capacity);
+    }
+
+    /**
+     * @param capacity Maximum number of values kept
+     * @param shortWindow Number of most recent values covered by the short-term sum
+     */
+    public DoubleRingBuffer(int capacity, int shortWindow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.values = new double[capacity];
+        this.shortWindow = Math.max(1, Math.min(shortWindow, capacity));
+    }
+
+    /**
+     * Append a value, evicting the oldest one when the buffer is full.
+     */
+    public synchronized void add(double value) {
+        int capacity = values.length;
+
+        if (count >= shortWindow) {
+            // The value leaving the short window sits shortWindow slots behind the new one
+            shortSum -= values[(head - shortWindow + capacity) % capacity];
+        }
+        if (count == capacity) {
+            sum -= values[head];
+        } else {
+            count++;
+        }
+
+        values[head] = value;
+        sum += value;
+        shortSum += value;
+
+        head++;
+        if (head == capacity) {
+            head = 0;
+            resum();
+        }
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return values.length;
+    }
+
+    public synchronized boolean isFull() {
+        return count == values.length;
+    }
+
+    public synchronized double sum() {
+        return sum;
+    }
+
+    /**
+     * @return Mean of all values, or 0 if empty
+     */
+    public synchronized double mean() {
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    /**
+     * @return Mean of the most recent short-window values, or 0 if empty
+     */
+    public synchronized double shortTermMean() {
+        int n = Math.min(count, shortWindow);
+        return n > 0 ? shortSum / n : 0.0;
+    }
+
+    /**
+     * @return The most recently added value, or 0 if empty
+     */
+    public synchronized double last() {
+        if (count == 0) {
+            return 0.0;
+        }
+        return values[(head - 1 + values.length) % values.length];
+    }
+
+    /**
+     * Median of the buffered values. Sorts a copy, so this is O(n log n) in the capacity.
+     *
+     * @return The median, or 0 if empty
+     */
+    public synchronized double median() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double[] sorted = toArrayUnlocked();
+        Arrays.sort(sorted);
+        int middle = count / 2;
+        return count % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    /**
+     * Copy the buffered values, oldest first.
+     */
+    public synchronized double[] toArray() {
+        return toArrayUnlocked();
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        count = 0;
+        sum = 0;
+        shortSum = 0;
+    }
+
+    private double[] toArrayUnlocked() {
+        double[] copy = new double[count];
+        int start = (head - count + values.length) % values.length;
+        for (int i = 0; i < count; i++) {
+            copy[i] = values[(start + i) % values.length];
+        }
+        return copy;
+    }
+
+    private void resum() {
+        int capacity = values.length;
+        double total = 0;
+        double recent = 0;
+        for (int i = 0; i < count; i++) {
+            // Walk backwards from the newest value
+            double v = values[(head - 1 - i + 2 * capacity) % capacity];
+            total += v;
+            if (i < shortWindow) {
+                recent += v;
+            }
+        }
+        sum = total;
+        shortSum = recent;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.tradient.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thins out a repetitive log line: lets through every n-th occurrence, and at most a
+ * given number per interval.
+ * <p>
+ * Keep one limiter per call site in a static field and pass it to the limited
+ * {@link AppLog} methods, e.g. {@code AppLog.w(TAG, INVALID_PRICES, "...", args)}. The
+ * next line let through reports how many were suppressed in between, so nothing goes
+ * missing silently. Checking a limiter takes a short lock and allocates nothing.
+ */
+public final class LogLimiter {
+
+    private final int sampleEvery;
+    private final int maxPerInterval;
+    private final long intervalNanos;
+
+    private long calls;
+    private long windowStart;
+    private int inWindow;
+    private int suppressed;
+
+    /**
+     * @param sampleEvery Let through one in this many occurrences, 1 for all
+     * @param maxPerInterval Maximum number let through per interval
+     * @param intervalMillis Length of the interval
+     */
+    public LogLimiter(int sampleEvery, int maxPerInterval, long intervalMillis) {
+        if (sampleEvery <= 0 || maxPerInterval <= 0 || intervalMillis <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.sampleEvery = sampleEvery;
+        this.maxPerInterval = maxPerInterval;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * Let through at most {@code max} occurrences per interval.
+     */
+    public static LogLimiter rate(int max, long intervalMillis) {
+        return new LogLimiter(1, max, intervalMillis);
+    }
+
+    /**
+     * Let through one in {@code n} occurrences.
+     */
+    public static LogLimiter sample(int n) {
+        return new LogLimiter(n, Integer.MAX_VALUE, Long.MAX_VALUE / 1_000_000);
+    }
+
+    /**
+     * Count an occurrence.
+     *
+     * @return true if it should be logged
+     */
+    public synchronized boolean tryAcquire() {
+        if (calls++ % sampleEvery != 0) {
+            suppressed++;
+            return false;
+        }
+        long now = System.nanoTime();
+        if (inWindow == 0 || now - windowStart >= intervalNanos) {
+            windowStart = now;
+            inWindow = 0;
+        }
+        if (inWindow >= maxPerInterval) {
+            suppressed++;
+            return false;
+        }
+        inWindow++;
+        return true;
+    }
+
+    /**
+     * Number of occurrences suppressed since the previous call.
+     */
+    public synchronized int takeSuppressed() {
+        int count = suppressed;
+        suppressed = 0;
+        return count;
+    }
+}
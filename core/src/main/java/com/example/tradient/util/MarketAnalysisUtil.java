@@ -1,7 +1,5 @@
 package com.example.tradient.util;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
 import com.example.tradient.data.model.Ticker;
@@ -76,11 +74,11 @@ public class MarketAnalysisUtil {
                 // Cache result (would be refreshed periodically in production)
                 volatilityCache.put(asset, result);
                 
-                Log.d(TAG, String.format("Volatility for %s: %s (%.2f%%)", 
-                        asset, result, volatilityPercentage));
+                AppLog.d(TAG, "Volatility for %s: %s (%.2f%%)",
+                        asset, result, volatilityPercentage);
                 
             } catch (Exception e) {
-                Log.e(TAG, "Error estimating volatility", e);
+                AppLog.e(TAG, "Error estimating volatility", e);
             }
         }
         
@@ -149,8 +147,8 @@ public class MarketAnalysisUtil {
         // Cache result
         liquidityCache.put(asset, liquidityScore);
         
-        Log.d(TAG, String.format("Liquidity for %s: %.2f (base: %.2f, depth: %.2f, volume: %.2f, spread: %.2f)",
-                asset, liquidityScore, baseFactor, depthFactor, volumeFactor, spreadFactor));
+        AppLog.d(TAG, "Liquidity for %s: %.2f (base: %.2f, depth: %.2f, volume: %.2f, spread: %.2f)",
+                asset, liquidityScore, baseFactor, depthFactor, volumeFactor, spreadFactor);
         
         return liquidityScore;
     }
@@ -322,8 +320,8 @@ public class MarketAnalysisUtil {
         // Calculate market impact as percentage
         double impact = Math.abs(avgPrice - bestPrice) / bestPrice * 100;
         
-        Log.d(TAG, String.format("Market impact for %s %.4f: %.4f%%", 
-                isBuy ? "buy" : "sell", tradeAmount, impact));
+        AppLog.d(TAG, "Market impact for %s %.4f: %.4f%%",
+                isBuy ? "buy" : "sell", tradeAmount, impact);
         
         return impact;
     }
@@ -0,0 +1,62 @@
+package com.example.tradient.util;
+
+/**
+ * The current time as seen by market data, risk and profit code: cache staleness,
+ * rolling windows, candles and the timestamps of opportunities and assessments.
+ * <p>
+ * Normally the system clock. A replay switches it to virtual time and advances it to the
+ * timestamp of each recorded update, so the same code ages quotes, expires caches and
+ * closes candles exactly as it did live, however fast the replay runs. Code measuring
+ * its own elapsed time, signing requests or naming transactions keeps using the system
+ * clock.
+ */
+public final class MarketClock {
+
+    // Negative while the system clock is in use
+    private static volatile long virtualMillis = -1;
+
+    private MarketClock() {
+    }
+
+    /**
+     * @return Milliseconds since the epoch, virtual while a replay is running
+     */
+    public static long currentTimeMillis() {
+        long virtual = virtualMillis;
+        return virtual >= 0 ? virtual : System.currentTimeMillis();
+    }
+
+    /**
+     * Switch to virtual time, starting at the given time.
+     *
+     * @param epochMillis Milliseconds since the epoch
+     */
+    public static void useVirtualTime(long epochMillis) {
+        if (epochMillis < 0) {
+            throw new IllegalArgumentException("Time must not be negative: " + epochMillis);
+        }
+        virtualMillis = epochMillis;
+    }
+
+    /**
+     * Move virtual time forward. Time never goes backwards, so an earlier time is ignored.
+     *
+     * @param epochMillis Milliseconds since the epoch
+     */
+    public static void advanceTo(long epochMillis) {
+        if (virtualMillis >= 0 && epochMillis > virtualMillis) {
+            virtualMillis = epochMillis;
+        }
+    }
+
+    /**
+     * Switch back to the system clock.
+     */
+    public static void useSystemTime() {
+        virtualMillis = -1;
+    }
+
+    public static boolean isVirtual() {
+        return virtualMillis >= 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.tradient.util;
+
+import java.util.Objects;
+
+/**
+ * Immutable pair of two values, with the same shape as {@code android.util.Pair} so
+ * that code in the core module stays free of Android classes.
+ *
+ * @param <F> Type of the first value
+ * @param <S> Type of the second value
+ */
+public class Pair<F, S> {
+    public final F first;
+    public final S second;
+
+    public Pair(F first, S second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public static <A, B> Pair<A, B> create(A first, B second) {
+        return new Pair<>(first, second);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Pair)) {
+            return false;
+        }
+        Pair<?, ?> other = (Pair<?, ?>) o;
+        return Objects.equals(first, other.first) && Objects.equals(second, other.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(first) ^ Objects.hashCode(second);
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + first + " " + second + "}";
+    }
+}
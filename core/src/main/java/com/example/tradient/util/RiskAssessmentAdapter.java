@@ -1,7 +1,5 @@
 package com.example.tradient.util;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.ArbitrageOpportunity;
 import com.example.tradient.data.model.RiskAssessment;
 
@@ -21,7 +19,7 @@ public class RiskAssessmentAdapter {
      */
     public static RiskAssessment getRiskAssessment(Object opportunity) {
         if (opportunity == null) {
-            Log.w(TAG, "Attempted to get risk assessment from null opportunity");
+            AppLog.w(TAG, "Attempted to get risk assessment from null opportunity");
             return createDefaultRiskAssessment();
         }
         
@@ -32,7 +30,7 @@ public class RiskAssessmentAdapter {
                 if (assessment != null) {
                     return assessment;
                 }
-                Log.d(TAG, "Creating default assessment for ArbitrageOpportunity");
+                AppLog.d(TAG, "Creating default assessment for ArbitrageOpportunity");
                 return createDefaultRiskAssessment();
             }
             
@@ -44,7 +42,7 @@ public class RiskAssessmentAdapter {
             }
         } catch (Exception e) {
             // Create a default assessment if methods aren't available
-            Log.d(TAG, "Creating default assessment due to reflection error: " + e.getMessage());
+            AppLog.d(TAG, "Creating default assessment due to reflection error: " + e.getMessage());
             return createDefaultRiskAssessment();
         }
         
@@ -61,7 +59,7 @@ public class RiskAssessmentAdapter {
      */
     public static boolean setRiskAssessment(Object opportunity, RiskAssessment assessment) {
         if (opportunity == null || assessment == null) {
-            Log.w(TAG, "Cannot set risk assessment: " + 
+            AppLog.w(TAG, "Cannot set risk assessment: " + 
                   (opportunity == null ? "opportunity is null" : "assessment is null"));
             return false;
         }
@@ -70,7 +68,7 @@ public class RiskAssessmentAdapter {
             // Handle data model implementation directly
             if (opportunity instanceof ArbitrageOpportunity) {
                 ((ArbitrageOpportunity) opportunity).setRiskAssessment(assessment);
-                Log.d(TAG, "Successfully set risk assessment on ArbitrageOpportunity");
+                AppLog.d(TAG, "Successfully set risk assessment on ArbitrageOpportunity");
                 return true;
             }
             
@@ -80,7 +78,7 @@ public class RiskAssessmentAdapter {
             return true;
         } catch (Exception e) {
             // Try setting individual properties if setting the whole assessment fails
-            Log.d(TAG, "Failed to set risk assessment directly, trying individual properties: " + e.getMessage());
+            AppLog.d(TAG, "Failed to set risk assessment directly, trying individual properties: " + e.getMessage());
             boolean success = false;
             
             try {
@@ -95,7 +93,7 @@ public class RiskAssessmentAdapter {
                 success = true;
             } catch (Exception ex1) {
                 // Try alternate method names
-                Log.d(TAG, "First attempt to set properties failed: " + ex1.getMessage());
+                AppLog.d(TAG, "First attempt to set properties failed: " + ex1.getMessage());
                 try {
                     java.lang.reflect.Method setLiquidityScore = opportunity.getClass().getMethod("setLiquidityScore", double.class);
                     java.lang.reflect.Method setVolatilityScore = opportunity.getClass().getMethod("setVolatilityScore", double.class);
@@ -104,7 +102,7 @@ public class RiskAssessmentAdapter {
                     setVolatilityScore.invoke(opportunity, assessment.getVolatilityScore());
                     success = true;
                 } catch (Exception ex2) {
-                    Log.w(TAG, "Failed to set individual risk properties: " + ex2.getMessage());
+                    AppLog.w(TAG, "Failed to set individual risk properties: " + ex2.getMessage());
                 }
             }
             
@@ -183,14 +181,14 @@ public class RiskAssessmentAdapter {
                 java.lang.reflect.Method getBuyFee = opportunity.getClass().getMethod("getBuyFeePercentage");
                 buyFee = (double) getBuyFee.invoke(opportunity);
             } catch (Exception e) {
-                Log.d(TAG, "Could not get buy fee: " + e.getMessage());
+                AppLog.d(TAG, "Could not get buy fee: " + e.getMessage());
             }
             
             try {
                 java.lang.reflect.Method getSellFee = opportunity.getClass().getMethod("getSellFeePercentage");
                 sellFee = (double) getSellFee.invoke(opportunity);
             } catch (Exception e) {
-                Log.d(TAG, "Could not get sell fee: " + e.getMessage());
+                AppLog.d(TAG, "Could not get sell fee: " + e.getMessage());
             }
             
             // Update assessment with fees
@@ -198,9 +196,9 @@ public class RiskAssessmentAdapter {
             assessment.setSellFeePercentage(sellFee);
             assessment.setFeeImpact((buyFee + sellFee) / 200.0); // Convert to 0-1 scale
             
-            Log.d(TAG, "Synced fees: buy=" + buyFee + "%, sell=" + sellFee + "%");
+            AppLog.d(TAG, "Synced fees: buy=" + buyFee + "%, sell=" + sellFee + "%");
         } catch (Exception e) {
-            Log.w(TAG, "Error syncing fees: " + e.getMessage());
+            AppLog.w(TAG, "Error syncing fees: " + e.getMessage());
         }
     }
 } 
\ No newline at end of file
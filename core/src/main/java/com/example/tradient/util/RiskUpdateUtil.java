@@ -1,14 +1,12 @@
 package com.example.tradient.util;
 
-import android.util.Log;
-
 import com.example.tradient.data.model.ArbitrageOpportunity;
 import com.example.tradient.data.model.RiskAssessment;
 import com.example.tradient.domain.risk.UnifiedRiskCalculator;
+import com.example.tradient.infrastructure.concurrent.TaskScheduler;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Utility class for consistently updating risk assessments in ArbitrageOpportunity objects
@@ -17,7 +15,6 @@ import java.util.concurrent.Executors;
 public class RiskUpdateUtil {
     private static final String TAG = "RiskUpdateUtil";
     private static final UnifiedRiskCalculator riskCalculator = UnifiedRiskCalculator.getInstance();
-    private static final ExecutorService executorService = Executors.newCachedThreadPool();
     
     /**
      * Update the risk assessment for a single opportunity.
@@ -44,15 +41,14 @@ public class RiskUpdateUtil {
             // Apply assessment to opportunity
             riskCalculator.applyRiskAssessment(opportunity, assessment);
             
-            Log.d(TAG, String.format(
-                "Updated risk for %s: Risk=%.2f, Liquidity=%.2f, Volatility=%.2f",
+            AppLog.d(TAG, "Updated risk for %s: Risk=%.2f, Liquidity=%.2f, Volatility=%.2f",
                 opportunity.getSymbol(),
                 assessment.getOverallRiskScore(),
                 assessment.getLiquidityScore(),
-                assessment.getVolatilityScore()));
+                assessment.getVolatilityScore());
                 
         } catch (Exception e) {
-            Log.e(TAG, "Error updating risk: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error updating risk: " + e.getMessage(), e);
         }
     }
     
@@ -64,10 +60,33 @@ public class RiskUpdateUtil {
     public static void updateRiskBatch(List<ArbitrageOpportunity> opportunities, boolean forceRecalculation) {
         if (opportunities == null || opportunities.isEmpty()) return;
         
-        Log.d(TAG, "Updating risk for " + opportunities.size() + " opportunities");
+        AppLog.d(TAG, "Updating risk for " + opportunities.size() + " opportunities");
         
+        // Collect the opportunities that need scoring so shared factors are computed once
+        List<ArbitrageOpportunity> toScore = new ArrayList<>();
         for (ArbitrageOpportunity opportunity : opportunities) {
-            updateRisk(opportunity, forceRecalculation);
+            if (opportunity == null) {
+                continue;
+            }
+            RiskAssessment existingAssessment = opportunity.getRiskAssessment();
+            if (!forceRecalculation && existingAssessment != null && existingAssessment.isValid()) {
+                riskCalculator.applyRiskAssessment(opportunity, existingAssessment);
+            } else {
+                toScore.add(opportunity);
+            }
+        }
+        
+        if (toScore.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<RiskAssessment> assessments = riskCalculator.calculateRiskBatch(toScore);
+            for (int i = 0; i < toScore.size(); i++) {
+                riskCalculator.applyRiskAssessment(toScore.get(i), assessments.get(i));
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error updating risk batch: " + e.getMessage(), e);
         }
     }
     
@@ -85,9 +104,9 @@ public class RiskUpdateUtil {
             return;
         }
         
-        Log.d(TAG, "Asynchronously updating risk for " + opportunities.size() + " opportunities");
+        AppLog.d(TAG, "Asynchronously updating risk for " + opportunities.size() + " opportunities");
         
-        executorService.submit(() -> {
+        TaskScheduler.getInstance().submit(TaskScheduler.Workload.RISK, () -> {
             updateRiskBatch(opportunities, forceRecalculation);
             
             // Run callback on completion if provided
@@ -96,11 +115,4 @@ public class RiskUpdateUtil {
             }
         });
     }
-    
-    /**
-     * Clean up any resources when no longer needed
-     */
-    public static void shutdown() {
-        executorService.shutdown();
-    }
 } 
\ No newline at end of file
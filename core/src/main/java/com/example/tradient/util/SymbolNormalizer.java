@@ -0,0 +1,116 @@
+package com.example.tradient.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Maps exchange-specific symbols (BTCUSDT, BTC-USDT, XBT_USD, ...) to the common
+ * BASE/QUOTE form used to match the same market across exchanges.
+ * Kraken's XBT is mapped to BTC on either side of the pair.
+ * Results are cached, since the same symbols are normalized on every scan and tick.
+ * The cache stops growing at {@value #MAX_CACHED_SYMBOLS} entries; symbols beyond that
+ * are normalized on every call.
+ */
+public final class SymbolNormalizer {
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile("[-_.]");
+    private static final String[] COMMON_QUOTES = {"USDT", "USD", "BTC", "ETH", "BNB", "BUSD"};
+    static final int MAX_CACHED_SYMBOLS = 16_384;
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SymbolNormalizer() {
+    }
+
+    /**
+     * Normalize a symbol to the BASE/QUOTE form.
+     *
+     * @param originalSymbol The symbol as used by the exchange
+     * @return The normalized symbol, or an empty string for null or empty input
+     */
+    public static String normalize(String originalSymbol) {
+        if (originalSymbol == null || originalSymbol.isEmpty()) {
+            return "";
+        }
+
+        String cached = cache.get(originalSymbol);
+        if (cached != null) {
+            return cached;
+        }
+
+        String normalized = aliasAssets(computeNormalized(originalSymbol));
+        if (cache.size() < MAX_CACHED_SYMBOLS) {
+            String raced = cache.putIfAbsent(originalSymbol, normalized);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return normalized;
+    }
+
+    static int cacheSize() {
+        return cache.size();
+    }
+
+    static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Replace exchange specific asset codes with the common ones, e.g. XBT/USD to BTC/USD.
+     */
+    private static String aliasAssets(String symbol) {
+        int slash = symbol.indexOf('/');
+        if (slash < 0) {
+            return symbol;
+        }
+        String base = symbol.substring(0, slash);
+        String quote = symbol.substring(slash + 1);
+        if (!"XBT".equals(base) && !"XBT".equals(quote)) {
+            return symbol;
+        }
+        return aliasAsset(base) + "/" + aliasAsset(quote);
+    }
+
+    private static String aliasAsset(String asset) {
+        return "XBT".equals(asset) ? "BTC" : asset;
+    }
+
+    private static String computeNormalized(String originalSymbol) {
+        if (originalSymbol.contains("/")) {
+            // Already in standard format like BTC/USDT
+            return originalSymbol.toUpperCase(Locale.ROOT);
+        }
+
+        // Coinbase-style BTC-USDT already separates base and quote
+        if (originalSymbol.contains("-")) {
+            String[] parts = originalSymbol.split("-");
+            if (parts.length == 2) {
+                return parts[0].toUpperCase(Locale.ROOT) + "/" + parts[1].toUpperCase(Locale.ROOT);
+            }
+        }
+
+        // Handle formats like BTCUSDT, BTC_USDT
+        String clean = SEPARATOR_PATTERN.matcher(originalSymbol).replaceAll("").toUpperCase(Locale.ROOT);
+        if (clean.endsWith("USDT")) {
+            return clean.substring(0, clean.length() - 4) + "/USDT";
+        } else if (clean.endsWith("USD")) {
+            return clean.substring(0, clean.length() - 3) + "/USD";
+        } else if (clean.endsWith("BTC")) {
+            return clean.substring(0, clean.length() - 3) + "/BTC";
+        } else if (clean.endsWith("ETH")) {
+            return clean.substring(0, clean.length() - 3) + "/ETH";
+        } else if (clean.length() > 3) {
+            for (String quote : COMMON_QUOTES) {
+                if (clean.endsWith(quote)) {
+                    return clean.substring(0, clean.length() - quote.length()) + "/" + quote;
+                }
+            }
+            // Default assumption: first 3-4 chars are the base currency
+            return clean.substring(0, Math.min(4, clean.length() / 2)) + "/"
+                    + clean.substring(Math.min(4, clean.length() / 2));
+        }
+        return originalSymbol.toUpperCase(Locale.ROOT);
+    }
+}
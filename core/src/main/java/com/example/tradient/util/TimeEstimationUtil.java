@@ -1,15 +1,11 @@
 package com.example.tradient.util;
 
-import android.util.Log;
-import android.util.Pair;
-
+import com.example.tradient.data.http.ExchangeLatencyTracker;
 import com.example.tradient.data.model.ArbitrageOpportunity;
 import com.example.tradient.data.model.OrderBook;
 import com.example.tradient.data.model.OrderBookEntry;
 import com.example.tradient.data.model.Ticker;
 
-import java.util.ArrayDeque;
-import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
@@ -31,7 +27,7 @@ public class TimeEstimationUtil {
     private static final Map<String, Double> API_RESPONSE_TIMES = new ConcurrentHashMap<>();
     
     // Rolling buffer for recent time calculations (NEW)
-    private static final Map<String, ArrayDeque<Double>> TIME_BUFFER_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, DoubleRingBuffer> TIME_BUFFER_CACHE = new ConcurrentHashMap<>();
     private static final int BUFFER_SIZE = 20; // Store last 20 values for smoothing (changed from 8)
     
     /**
@@ -100,8 +96,9 @@ public class TimeEstimationUtil {
         // 3. Spread Factor (wider spread = longer execution)
         double spreadFactor = calculateSpreadFactor(ticker);
         
-        // 4. Exchange Response Time Factor
-        double exchangeResponseFactor = getExchangeResponseTimeFactor(exchangeName);
+        // 4. Exchange Response Time Factor (already part of a measured base time)
+        double exchangeResponseFactor = ExchangeLatencyTracker.getInstance().hasMeasurements(exchangeName)
+                ? 1.0 : getExchangeResponseTimeFactor(exchangeName);
         
         // 5. Order Book Imbalance
         double bookImbalanceFactor = calculateOrderBookImbalanceFactor(orderBook);
@@ -138,13 +135,13 @@ public class TimeEstimationUtil {
         double smoothedTime = addToBufferAndGetSmoothedValue(key, boundedTime);
         
         // Log calculation components for debugging
-        Log.d(TAG, String.format("Dynamic execution time for %s on %s: raw=%.2fs, smoothed=%.2fs " +
+        AppLog.d(TAG, "Dynamic execution time for %s on %s: raw=%.2fs, smoothed=%.2fs " +
                 "(depth:%.2f, volume:%.2f, spread:%.2f, exchange:%.2f, imbalance:%.2f, " +
                 "volatility:%.2f, timeOfDay:%.2f, marketActivity:%.2f, randomness:%.2f)",
                 symbol, exchangeName, boundedTime, smoothedTime,
-                orderBookDepthFactor, volumeRatioFactor, spreadFactor, 
+                orderBookDepthFactor, volumeRatioFactor, spreadFactor,
                 exchangeResponseFactor, bookImbalanceFactor, volatilityFactor,
-                timeOfDayFactor, marketActivityFactor, randomnessFactor));
+                timeOfDayFactor, marketActivityFactor, randomnessFactor);
         
         // Update the historical stats cache for future reference
         updateExecutionStatsCache(exchangeName, symbol, smoothedTime);
@@ -153,10 +150,16 @@ public class TimeEstimationUtil {
     }
     
     /**
-     * Get base execution time for an exchange
-     * Different exchanges have different base performance characteristics
+     * Get base execution time for an exchange.
+     * Uses the measured API latency once enough calls were made to the exchange,
+     * otherwise falls back to typical per-exchange values.
      */
     private static double getExchangeBaseTime(String exchangeName) {
+        double measuredSeconds = ExchangeLatencyTracker.getInstance().getOrderExecutionSeconds(exchangeName);
+        if (measuredSeconds >= 0) {
+            return measuredSeconds;
+        }
+        
         String normalized = exchangeName.toLowerCase();
         
         // More granular baseline times for different exchanges
@@ -271,8 +274,8 @@ public class TimeEstimationUtil {
         double finalTime = Math.max(smoothedTime, minimumThreshold);
         
         // Log raw and smoothed values
-        Log.d(TAG, String.format("Time calculation: raw=%.2f, smoothed=%.2f, final=%.2f minutes for %s-%s (%s), min threshold=%.2f",
-                totalTimeMinutes, smoothedTime, finalTime, buyExchangeName, sellExchangeName, symbol, minimumThreshold));
+        AppLog.d(TAG, "Time calculation: raw=%.2f, smoothed=%.2f, final=%.2f minutes for %s-%s (%s), min threshold=%.2f",
+                totalTimeMinutes, smoothedTime, finalTime, buyExchangeName, sellExchangeName, symbol, minimumThreshold);
         
         // Calculate overall uncertainty (confidence interval)
         double executionUncertainty = Math.sqrt(
@@ -344,31 +347,14 @@ public class TimeEstimationUtil {
      */
     private static double addToBufferAndGetSmoothedValue(String key, double newValue) {
         // Get or create buffer
-        ArrayDeque<Double> buffer = TIME_BUFFER_CACHE.computeIfAbsent(
-                key, k -> new ArrayDeque<>(BUFFER_SIZE));
-        
-        // Add new value
-        buffer.addLast(newValue);
-        
-        // Keep buffer at max size
-        if (buffer.size() > BUFFER_SIZE) {
-            buffer.removeFirst();
-        }
-        
-        // Always use median calculation even for small buffer sizes
-        // Convert to sorted array for median calculation
-        Double[] values = buffer.toArray(new Double[0]);
-        Arrays.sort(values);
-        
-        // Return median (middle value)
-        if (values.length % 2 == 1) {
-            // For odd number of elements, return the middle element
-            return values[values.length / 2];
-        } else {
-            // For even number of elements, return average of the two middle elements
-            double middle1 = values[values.length / 2 - 1];
-            double middle2 = values[values.length / 2];
-            return (middle1 + middle2) / 2.0;
+        DoubleRingBuffer buffer = TIME_BUFFER_CACHE.computeIfAbsent(
+                key, k -> new DoubleRingBuffer(BUFFER_SIZE));
+        
+        // Add new value (the oldest one is evicted once the buffer is full) and take the
+        // median under the same lock so concurrent scans see a consistent window
+        synchronized (buffer) {
+            buffer.add(newValue);
+            return buffer.median();
         }
     }
     
@@ -426,12 +412,12 @@ public class TimeEstimationUtil {
         double finalTime = Math.max(smoothedTime, minTransferTime);
         
         // Log detailed calculation for debugging
-        Log.d(TAG, String.format("Transfer time estimate for %s from %s to %s: raw=%.2f, smoothed=%.2f, final=%.2f min " +
+        AppLog.d(TAG, "Transfer time estimate for %s from %s to %s: raw=%.2f, smoothed=%.2f, final=%.2f min " +
                 "(base: %.2f, size: %.2f, volatility: %.2f, congestion: %.2f, " +
                 "exchange: %.2f, timeOfDay: %.2f, random: %.2f, minThreshold: %.2f)",
                 asset, fromExchange, toExchange, totalTimeMinutes, smoothedTime, finalTime,
                 baseTime, sizeFactor, volatilityFactor, congestionFactor,
-                exchangeProcessingFactor, timeOfDayFactor, randomVariation, minTransferTime));
+                exchangeProcessingFactor, timeOfDayFactor, randomVariation, minTransferTime);
         
         // Calculate uncertainty range (higher during high volatility)
         double uncertainty = finalTime * 0.3 * volatilityFactor;
@@ -1196,7 +1182,7 @@ public class TimeEstimationUtil {
             // Format the time string
             return formatTimeString(timeMinutes);
         } catch (Exception e) {
-            Log.e(TAG, "Error getting execution time estimate: " + e.getMessage());
+            AppLog.e(TAG, "Error getting execution time estimate: " + e.getMessage());
             return "Unknown";
         }
     }
@@ -1250,7 +1236,7 @@ public class TimeEstimationUtil {
             // Return the estimated time in minutes
             return timeEstimate.first;
         } catch (Exception e) {
-            Log.e(TAG, "Error calculating execution time: " + e.getMessage());
+            AppLog.e(TAG, "Error calculating execution time: " + e.getMessage());
             return 5.0; // Default to 5 minutes on error
         }
     }
@@ -0,0 +1,57 @@
+package com.example.tradient.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class BinanceApiAdapterTest {
+
+    @Test
+    public void cancelledFuture_cancelsTheCall() {
+        // Holds every request before it reaches the network
+        CountDownLatch release = new CountDownLatch(1);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("released");
+                })
+                .build();
+        try {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            Call call = BinanceApiAdapter.enqueue(client,
+                    new Request.Builder().url("http://localhost/api/v3/depth").build(), future, new Callback() {
+                        @Override
+                        public void onFailure(Call call, IOException e) {
+                            future.completeExceptionally(e);
+                        }
+
+                        @Override
+                        public void onResponse(Call call, Response response) {
+                            response.close();
+                        }
+                    });
+            assertFalse(call.isCanceled());
+
+            future.cancel(true);
+
+            assertTrue(call.isCanceled());
+        } finally {
+            release.countDown();
+            client.dispatcher().executorService().shutdown();
+        }
+    }
+}
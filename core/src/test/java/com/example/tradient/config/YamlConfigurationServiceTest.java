@@ -0,0 +1,96 @@
+package com.example.tradient.config;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class YamlConfigurationServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reload_publishesANewSnapshot() throws IOException {
+        write("{\"exchanges\": {\"minProfitPercent\": 0.5}}");
+        YamlConfigurationService service = service();
+        ConfigurationSnapshot first = service.getSnapshot();
+        List<ConfigurationSnapshot> published = new ArrayList<>();
+        service.addReloadListener(published::add);
+
+        write("{\"exchanges\": {\"minProfitPercent\": 0.8}}");
+
+        assertTrue(service.reload());
+        assertEquals(0.5, first.getMinProfitPercent(), 0);
+        assertEquals(0.8, service.getSnapshot().getMinProfitPercent(), 0);
+        assertEquals(first.getVersion() + 1, service.getSnapshot().getVersion());
+        assertEquals(1, published.size());
+        assertSame(service.getSnapshot(), published.get(0));
+    }
+
+    @Test
+    public void failedParse_keepsThePreviousSnapshot() throws IOException {
+        write("{\"exchanges\": {\"minProfitPercent\": 0.5}}");
+        YamlConfigurationService service = service();
+        ConfigurationSnapshot loaded = service.getSnapshot();
+        List<ConfigurationSnapshot> published = new ArrayList<>();
+        service.addReloadListener(published::add);
+
+        // A half-written file, as an editor leaves it between truncate and write
+        write("{\"exchanges\": ");
+
+        assertFalse(service.reload());
+        assertSame(loaded, service.getSnapshot());
+        assertEquals(0.5, service.getSnapshot().getMinProfitPercent(), 0);
+        assertTrue(published.isEmpty());
+
+        write("{\"exchanges\": {\"minProfitPercent\": 0.7}}");
+
+        assertTrue(service.reload());
+        assertEquals(loaded.getVersion() + 1, service.getSnapshot().getVersion());
+        assertEquals(0.7, service.getSnapshot().getMinProfitPercent(), 0);
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    public void failedInitialLoad_startsFromTheDefaults() throws IOException {
+        write("{\"exchanges\": ");
+
+        ConfigurationSnapshot snapshot = service().getSnapshot();
+
+        assertNotNull(snapshot);
+        assertEquals(0, snapshot.getVersion());
+    }
+
+    @Test
+    public void fees_areLookedUpByExchangeKey() throws IOException {
+        write("{\"exchanges\": {\"enabled\": {\"okx\": true},"
+                + " \"exchanges\": {\"okx\": {\"fees\": {\"maker\": 0.0007, \"taker\": 0.0009}}}}}");
+        ConfigurationSnapshot snapshot = service().getSnapshot();
+
+        String key = ConfigurationSnapshot.exchangeKey("OKX");
+
+        assertEquals("okx", key);
+        assertTrue(snapshot.isExchangeEnabled(key));
+        assertEquals(0.0007, snapshot.getFeePercentage(key, true), 0);
+        assertEquals(0.0009, snapshot.getFeePercentage(key, false), 0);
+    }
+
+    private YamlConfigurationService service() {
+        return new YamlConfigurationService(folder.getRoot().getPath(), "default");
+    }
+
+    private void write(String content) throws IOException {
+        File directory = new File(folder.getRoot(), "default");
+        directory.mkdirs();
+        Files.write(new File(directory, "exchanges.yaml").toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
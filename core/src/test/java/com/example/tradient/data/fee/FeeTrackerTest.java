@@ -0,0 +1,100 @@
+package com.example.tradient.data.fee;
+
+import org.junit.Test;
+
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FeeTrackerTest {
+
+    // 2026-01-01T00:00:00Z
+    private static final long DAY_START = 1_767_225_600_000L;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test
+    public void rollups_groupFeesByHourAndDay() {
+        FeeTracker tracker = new FeeTracker();
+        tracker.trackFee(fee("Binance", 1.0, true), DAY_START + TimeUnit.MINUTES.toMillis(10));
+        tracker.trackFee(fee("Binance", 2.0, false), DAY_START + TimeUnit.MINUTES.toMillis(50));
+        tracker.trackFee(fee("Kraken", 4.0, false), DAY_START + 2 * HOUR + 1);
+        tracker.trackFee(fee("Kraken", 8.0, true), DAY_START + DAY + 5 * HOUR);
+
+        SortedMap<Long, FeeTracker.FeeAggregate> hourly = tracker.getHourlyRollups();
+        assertEquals(3, hourly.size());
+        assertEquals(2, hourly.get(DAY_START).getCount());
+        assertEquals(1, hourly.get(DAY_START).getMakerCount());
+        assertEquals(3.0, hourly.get(DAY_START).getTotalAmount(), 1e-12);
+        assertEquals(4.0, hourly.get(DAY_START + 2 * HOUR).getTotalAmount(), 1e-12);
+        assertEquals(8.0, hourly.get(DAY_START + DAY + 5 * HOUR).getTotalAmount(), 1e-12);
+
+        SortedMap<Long, FeeTracker.FeeAggregate> daily = tracker.getDailyRollups();
+        assertEquals(2, daily.size());
+        assertEquals(3, daily.get(DAY_START).getCount());
+        assertEquals(7.0, daily.get(DAY_START).getTotalAmount(), 1e-12);
+        assertEquals(8.0, daily.get(DAY_START + DAY).getTotalAmount(), 1e-12);
+    }
+
+    @Test
+    public void rollups_keepOnlyTheMostRecentPeriods() {
+        FeeTracker tracker = new FeeTracker();
+        for (int hour = 0; hour < 60; hour++) {
+            tracker.trackFee(fee("Binance", 1.0, true), DAY_START + hour * HOUR);
+        }
+
+        SortedMap<Long, FeeTracker.FeeAggregate> hourly = tracker.getHourlyRollups();
+        assertEquals(48, hourly.size());
+        assertEquals(DAY_START + 12 * HOUR, (long) hourly.firstKey());
+        assertEquals(DAY_START + 59 * HOUR, (long) hourly.lastKey());
+        // The daily rollups still hold every fee
+        assertEquals(60, tracker.getDailyRollups().values().stream()
+                .mapToLong(FeeTracker.FeeAggregate::getCount).sum());
+    }
+
+    @Test
+    public void totals_coverFeesNoLongerKeptAsRecords() {
+        FeeTracker tracker = new FeeTracker(10);
+        for (int i = 0; i < 100; i++) {
+            tracker.trackFee(fee(i % 2 == 0 ? "Binance" : "Kraken", 0.5, i % 4 == 0), DAY_START + i);
+        }
+
+        assertEquals(10, tracker.getAllFees().size());
+        assertEquals(100, tracker.getTotals().getCount());
+        assertEquals(25, tracker.getTotals().getMakerCount());
+        assertEquals(50.0, tracker.getTotalFeesPaid(), 1e-9);
+        assertEquals(25.0, tracker.getTotalFeesPaidToExchange("Kraken"), 1e-9);
+        assertEquals(0.001, tracker.getAverageFeeRate(), 1e-12);
+    }
+
+    @Test
+    public void rollupSnapshots_doNotChangeAfterwards() {
+        FeeTracker tracker = new FeeTracker();
+        tracker.trackFee(fee("Binance", 1.0, true), DAY_START);
+        SortedMap<Long, FeeTracker.FeeAggregate> before = tracker.getHourlyRollups();
+
+        tracker.trackFee(fee("Binance", 1.0, true), DAY_START + 1);
+
+        assertEquals(1, before.get(DAY_START).getCount());
+        assertEquals(2, tracker.getHourlyRollups().get(DAY_START).getCount());
+    }
+
+    @Test
+    public void clearAll_resetsAggregatesAndRollups() {
+        FeeTracker tracker = new FeeTracker();
+        tracker.trackFee(fee("Binance", 1.0, true), DAY_START);
+
+        tracker.clearAll();
+
+        assertEquals(0, tracker.getFeeCount());
+        assertEquals(0.0, tracker.getTotalFeesPaid(), 0);
+        assertTrue(tracker.getHourlyRollups().isEmpty());
+        assertTrue(tracker.getDailyRollups().isEmpty());
+    }
+
+    private static TransactionFee fee(String exchange, double amount, boolean maker) {
+        return new TransactionFee("fee", exchange, "BTC/USDT", amount, FeeType.PERCENTAGE,
+                "USDT", "Trading fee", 0.001, 0.0, maker);
+    }
+}
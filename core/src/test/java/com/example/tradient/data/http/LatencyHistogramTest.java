@@ -0,0 +1,95 @@
+package com.example.tradient.data.http;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_areWithinTheBucketResolution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.getP50Millis(), 500 * 0.07);
+        assertEquals(900, histogram.getPercentileMillis(0.9), 900 * 0.07);
+        assertEquals(990, histogram.getP99Millis(), 990 * 0.07);
+        assertEquals(1000, histogram.getMaxMillis(), 0);
+        assertEquals(500.5, histogram.getMeanMillis(), 1e-9);
+    }
+
+    @Test
+    public void percentiles_neverExceedTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(1_000_001));
+
+        assertEquals(1000.001, histogram.getP99Millis(), 1e-9);
+    }
+
+    @Test
+    public void smallValues_haveTheirOwnBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 0; micros < 10; micros++) {
+            histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        // Each value below 16us sits in its own bucket, reported at its middle
+        assertEquals(0.0045, histogram.getP50Millis(), 1e-12);
+    }
+
+    @Test
+    public void emptyHistogram_reportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(-1);
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getP99Millis(), 0);
+    }
+
+    @Test
+    public void rollingWindow_forgetsValuesOlderThanTheWindow() {
+        AtomicLong now = new AtomicLong();
+        RollingLatencyHistogram rolling = new RollingLatencyHistogram(
+                5, TimeUnit.MINUTES, 5, now::get);
+
+        // A slow first minute, then four fast ones
+        for (int i = 0; i < 100; i++) {
+            rolling.recordNanos(TimeUnit.MILLISECONDS.toNanos(800));
+        }
+        for (int minute = 1; minute < 5; minute++) {
+            now.set(TimeUnit.MINUTES.toNanos(minute));
+            for (int i = 0; i < 100; i++) {
+                rolling.recordNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+        assertEquals(500, rolling.snapshot().getCount());
+        assertEquals(800, rolling.snapshot().getP99Millis(), 800 * 0.07);
+
+        // One more minute: the slow minute leaves the window
+        now.set(TimeUnit.MINUTES.toNanos(5));
+        rolling.recordNanos(TimeUnit.MILLISECONDS.toNanos(100));
+
+        LatencyHistogram recent = rolling.snapshot();
+        assertEquals(401, recent.getCount());
+        assertEquals(100, recent.getP99Millis(), 100 * 0.07);
+        assertEquals(100, recent.getMaxMillis(), 0);
+    }
+
+    @Test
+    public void rollingWindow_isEmptyAfterAQuietWindow() {
+        AtomicLong now = new AtomicLong();
+        RollingLatencyHistogram rolling = new RollingLatencyHistogram(
+                5, TimeUnit.MINUTES, 5, now::get);
+        rolling.recordNanos(TimeUnit.MILLISECONDS.toNanos(50));
+
+        now.set(TimeUnit.MINUTES.toNanos(12));
+
+        assertEquals(0, rolling.snapshot().getCount());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.tradient.data.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyTraceTest {
+
+    @Test
+    public void scanned_tracesTheLastAppliedTicker() {
+        LatencyTrace trace = LatencyTrace.scanned(opportunity(streamed(100), streamed(200)), 300);
+
+        assertEquals("Sell", trace.getExchange());
+        assertEquals(200, trace.getAppliedNanos());
+        assertEquals(300, trace.getScannedNanos());
+
+        trace = LatencyTrace.scanned(opportunity(streamed(200), streamed(100)), 300);
+        assertEquals("Buy", trace.getExchange());
+    }
+
+    @Test
+    public void appliedTicker_isNewerThanOneWithoutStamps() {
+        assertEquals("Sell", LatencyTrace.scanned(opportunity(fetched(), streamed(50)), 300).getExchange());
+        assertEquals("Buy", LatencyTrace.scanned(opportunity(streamed(50), fetched()), 300).getExchange());
+        // Neither was applied by a stream: the buy leg
+        assertEquals("Buy", LatencyTrace.scanned(opportunity(fetched(), fetched()), 300).getExchange());
+    }
+
+    @Test
+    public void nanoTimeOverflow_doesNotReverseTheOrder() {
+        // nanoTime only orders by difference; the sell ticker came after the counter wrapped
+        LatencyTrace trace = LatencyTrace.scanned(
+                opportunity(streamed(Long.MAX_VALUE - 5), streamed(Long.MIN_VALUE + 5)), Long.MIN_VALUE + 10);
+
+        assertEquals("Sell", trace.getExchange());
+    }
+
+    @Test
+    public void onlyTheFirstRiskBeforePublication_counts() {
+        LatencyTrace trace = LatencyTrace.scanned(opportunity(streamed(100), streamed(200)), 300);
+
+        trace.markRisk(400);
+        trace.markRisk(500);
+        assertEquals(400, trace.getRiskNanos());
+
+        LatencyTrace published = LatencyTrace.scanned(opportunity(streamed(100), streamed(200)), 300);
+        assertTrue(published.markPublished(600));
+        published.markRisk(700);
+        assertFalse(published.markPublished(800));
+        assertEquals(0, published.getRiskNanos());
+        assertEquals(600, published.getPublishedNanos());
+    }
+
+    @Test
+    public void start_isTheEarliestStampTheTickHas() {
+        assertEquals(10, LatencyTrace.scanned(opportunity(streamed(100), fetched()), 300).getStartNanos());
+        assertEquals(300, LatencyTrace.scanned(opportunity(fetched(), fetched()), 300).getStartNanos());
+
+        Ticker applied = new Ticker();
+        applied.stampApplied(150);
+        assertEquals(150, LatencyTrace.scanned(opportunity(applied, fetched()), 300).getStartNanos());
+    }
+
+    private static ArbitrageOpportunity opportunity(Ticker buy, Ticker sell) {
+        ArbitrageOpportunity opportunity = new ArbitrageOpportunity("BTC/USDT", "BTC/USDT", "BTC/USDT",
+                "Buy", "Sell", 100.0, 100.5, 0.5);
+        opportunity.setBuyTicker(buy);
+        opportunity.setSellTicker(sell);
+        return opportunity;
+    }
+
+    /**
+     * Ticker received at 10, parsed at 20 and applied at the given time.
+     */
+    private static Ticker streamed(long appliedNanos) {
+        Ticker ticker = new Ticker();
+        ticker.stampReceived(10, 1_000, 20);
+        ticker.stampApplied(appliedNanos);
+        return ticker;
+    }
+
+    /**
+     * Ticker fetched over REST, without stream stamps.
+     */
+    private static Ticker fetched() {
+        return new Ticker();
+    }
+}
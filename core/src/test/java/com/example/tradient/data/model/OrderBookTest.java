@@ -0,0 +1,49 @@
+package com.example.tradient.data.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OrderBookTest {
+
+    @Test
+    public void slippage_followsLevelsChangedInPlace() {
+        List<OrderBookEntry> bids = new ArrayList<>();
+        bids.add(new OrderBookEntry(99.0, 10));
+        List<OrderBookEntry> asks = new ArrayList<>();
+        asks.add(new OrderBookEntry(100.0, 1));
+        asks.add(new OrderBookEntry(110.0, 10));
+        OrderBook book = new OrderBook("BTC/USDT", bids, asks, 0L);
+
+        // $200 takes the whole first level and $100 of the second
+        double before = book.calculateSlippage(200, true);
+        assertTrue(before > 0);
+
+        // A delta deepens the best level, the way the Kraken and Coinbase providers apply it
+        asks.set(0, new OrderBookEntry(100.0, 5));
+        book.invalidateCurves();
+
+        assertEquals(0.0, book.calculateSlippage(200, true), 1e-12);
+        assertEquals(5.0, book.getSlippageCurve(true).quantityForNotional(500), 1e-12);
+    }
+
+    @Test
+    public void removedLevels_leaveTheCurveAfterInvalidation() {
+        List<OrderBookEntry> bids = new ArrayList<>();
+        bids.add(new OrderBookEntry(99.0, 1));
+        bids.add(new OrderBookEntry(98.0, 1));
+        List<OrderBookEntry> asks = new ArrayList<>();
+        asks.add(new OrderBookEntry(100.0, 1));
+        OrderBook book = new OrderBook("BTC/USDT", bids, asks, 0L);
+        assertEquals(2, book.getSlippageCurve(false).getLevelCount());
+
+        bids.remove(0);
+        book.invalidateCurves();
+
+        assertEquals(1, book.getSlippageCurve(false).getLevelCount());
+        assertEquals(98.0, book.getSlippageCurve(false).getBestPrice(), 0);
+    }
+}
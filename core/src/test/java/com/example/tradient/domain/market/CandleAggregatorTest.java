@@ -0,0 +1,133 @@
+package com.example.tradient.domain.market;
+
+import com.example.tradient.api.ExchangeApiAdapter;
+import com.example.tradient.data.model.Candle;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.util.MarketClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class CandleAggregatorTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long START = 1_700_000_000_000L - (1_700_000_000_000L % (60 * MINUTE));
+
+    private CandleAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        MarketClock.useVirtualTime(START);
+        aggregator = new CandleAggregator();
+    }
+
+    @After
+    public void tearDown() {
+        MarketClock.useSystemTime();
+    }
+
+    @Test
+    public void skippedMinutes_areFilledAtThePreviousClose() {
+        aggregator.onTrade("Binance", "BTCUSDT", 100.0, 1.0, START);
+        aggregator.onTrade("Binance", "BTCUSDT", 101.0, 1.0, START + 10_000);
+        aggregator.onTrade("Binance", "BTCUSDT", 104.0, 2.0, START + 3 * MINUTE + 5_000);
+
+        List<Candle> candles = aggregator.getCandles("Binance", "BTC/USDT", CandleAggregator.Interval.ONE_MINUTE, 10);
+
+        assertEquals(4, candles.size());
+        for (int i = 0; i < candles.size(); i++) {
+            assertEquals(START + i * MINUTE, candles.get(i).getOpenTime());
+        }
+        assertEquals(101.0, candles.get(1).getOpen(), 1e-9);
+        assertEquals(101.0, candles.get(2).getClose(), 1e-9);
+        assertEquals(0.0, candles.get(2).getVolume(), 1e-9);
+        assertEquals(104.0, candles.get(3).getClose(), 1e-9);
+    }
+
+    @Test
+    public void gapInsideAFullWindow_triggersBackfillThatReplacesTheFilledCandles() {
+        aggregator.onTrade("Binance", "BTCUSDT", 100.0, 1.0, START);
+        aggregator.onTrade("Binance", "BTCUSDT", 103.0, 1.0, START + 3 * MINUTE);
+
+        List<Candle> rest = new ArrayList<>();
+        rest.add(new Candle(START + MINUTE, START + 2 * MINUTE - 1, 100.5, 102.0, 100.0, 101.5, 7.0));
+        rest.add(new Candle(START + 2 * MINUTE, START + 3 * MINUTE - 1, 101.5, 103.0, 101.0, 102.5, 9.0));
+        FakeAdapter adapter = new FakeAdapter(rest);
+
+        // Four candles cover the window, but two of them are only filled
+        List<Candle> before = aggregator.getHistoricalData(adapter, "BTCUSDT", "1m", 4).join();
+        assertEquals(4, before.size());
+        assertEquals(1, adapter.requests);
+
+        List<Candle> after = aggregator.getCandles("Binance", "BTCUSDT", CandleAggregator.Interval.ONE_MINUTE, 4);
+        assertEquals(7.0, after.get(1).getVolume(), 1e-9);
+        assertEquals(102.5, after.get(2).getClose(), 1e-9);
+        assertEquals(103.0, after.get(3).getClose(), 1e-9);
+
+        // Nothing is filled any more, so no further request is made once the retry pause is over
+        MarketClock.advanceTo(START + 5 * MINUTE);
+        aggregator.getHistoricalData(adapter, "BTCUSDT", "1m", 4).join();
+        assertEquals(1, adapter.requests);
+    }
+
+    @Test
+    public void gapLongerThanTheRing_keepsOneCandlePerInterval() {
+        aggregator.onTrade("Binance", "ETHUSDT", 10.0, 1.0, START);
+        long later = START + 5 * CandleAggregator.Interval.ONE_MINUTE.getCapacity() * MINUTE;
+        aggregator.onTrade("Binance", "ETHUSDT", 12.0, 1.0, later);
+
+        List<Candle> candles = aggregator.getCandles("Binance", "ETHUSDT", CandleAggregator.Interval.ONE_MINUTE, 0);
+
+        assertEquals(CandleAggregator.Interval.ONE_MINUTE.getCapacity(), candles.size());
+        assertEquals(later, candles.get(candles.size() - 1).getOpenTime());
+        assertEquals(later - MINUTE, candles.get(candles.size() - 2).getOpenTime());
+    }
+
+    private static final class FakeAdapter implements ExchangeApiAdapter {
+        private final List<Candle> candles;
+        private int requests;
+
+        FakeAdapter(List<Candle> candles) {
+            this.candles = candles;
+        }
+
+        @Override
+        public CompletableFuture<Ticker> getTicker(String symbol) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<OrderBook> getOrderBook(String symbol, int depth) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<Candle>> getHistoricalData(String symbol, String interval, int limit) {
+            requests++;
+            return CompletableFuture.completedFuture(candles);
+        }
+
+        @Override
+        public CompletableFuture<Double> getTradingFee(String symbol) {
+            return CompletableFuture.completedFuture(0.001);
+        }
+
+        @Override
+        public String convertSymbolToExchangeFormat(String normalizedSymbol) {
+            return normalizedSymbol;
+        }
+
+        @Override
+        public String getExchangeName() {
+            return "Binance";
+        }
+    }
+}
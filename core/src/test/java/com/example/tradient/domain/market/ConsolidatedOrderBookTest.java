@@ -0,0 +1,119 @@
+package com.example.tradient.domain.market;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.domain.market.ConsolidatedOrderBook.RoutingQuote;
+import com.example.tradient.domain.market.ConsolidatedOrderBook.VenueAllocation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConsolidatedOrderBookTest {
+
+    @Test
+    public void buy_prefersTheLowerPriceAfterFees() {
+        ConsolidatedOrderBook book = new ConsolidatedOrderBook("BTC/USDT");
+        // 100 * 1.01 = 101 all-in against 100.5 * 1.001 = 100.6
+        book.updateVenue("Cheap", book(levels(99, 1), levels(100, 1)), 0.01);
+        book.updateVenue("LowFee", book(levels(99, 1), levels(100.5, 1)), 0.001);
+
+        RoutingQuote quote = book.quoteBuy(1);
+
+        assertTrue(quote.isFullyFilled());
+        assertEquals(1, quote.getAllocations().size());
+        assertEquals("LowFee", quote.getAllocations().get(0).getExchangeName());
+        assertEquals(100.5 * 1.001, quote.getEffectivePrice(), 1e-9);
+        assertEquals(100.5 * 1.001, book.getBestEffectiveAsk(), 1e-9);
+    }
+
+    @Test
+    public void sell_prefersTheHigherProceedsAfterFees() {
+        ConsolidatedOrderBook book = new ConsolidatedOrderBook("BTC/USDT");
+        // 100 * 0.998 = 99.8 net against 99.9 without a fee
+        book.updateVenue("High", book(levels(100, 1), levels(101, 1)), 0.002);
+        book.updateVenue("NoFee", book(levels(99.9, 1), levels(101, 1)), 0);
+
+        RoutingQuote quote = book.quoteSell(1);
+
+        assertEquals("NoFee", quote.getAllocations().get(0).getExchangeName());
+        assertEquals(99.9, quote.getNetAmount(), 1e-9);
+        assertEquals(99.9, book.getBestEffectiveBid(), 1e-9);
+    }
+
+    @Test
+    public void buy_walksTheMergedLevelsAcrossVenues() {
+        ConsolidatedOrderBook book = new ConsolidatedOrderBook("BTC/USDT");
+        book.updateVenue("A", book(levels(99, 1), levels(100, 1, 102, 1)), 0);
+        book.updateVenue("B", book(levels(99, 1), levels(101, 1, 103, 1)), 0);
+
+        // 1 @ 100 on A, 1 @ 101 on B, then 0.5 @ 102 on A
+        RoutingQuote quote = book.quoteBuy(2.5);
+
+        assertTrue(quote.isFullyFilled());
+        assertEquals(100 + 101 + 51, quote.getNetAmount(), 1e-9);
+        VenueAllocation a = allocation(quote, "A");
+        assertEquals(1.5, a.getQuantity(), 1e-12);
+        assertEquals(151, a.getNotional(), 1e-9);
+        assertEquals(2, a.getLevelsConsumed());
+        VenueAllocation b = allocation(quote, "B");
+        assertEquals(1, b.getQuantity(), 1e-12);
+        assertEquals(1, b.getLevelsConsumed());
+    }
+
+    @Test
+    public void thinBooks_giveAPartialFill() {
+        ConsolidatedOrderBook book = new ConsolidatedOrderBook("BTC/USDT");
+        book.updateVenue("A", book(levels(99, 1), levels(100, 1)), 0);
+        book.updateVenue("B", book(levels(98, 2), levels(101, 2)), 0);
+
+        RoutingQuote quote = book.quoteBuy(10);
+
+        assertFalse(quote.isFullyFilled());
+        assertEquals(3, quote.getFilledQuantity(), 1e-12);
+    }
+
+    @Test
+    public void levelsChangedAfterTheUpdate_doNotAffectRouting() {
+        List<OrderBookEntry> asks = levels(100, 1, 101, 1);
+        OrderBook source = book(levels(99, 1), asks);
+        ConsolidatedOrderBook book = new ConsolidatedOrderBook("BTC/USDT");
+        book.updateVenue("A", source, 0);
+
+        // A provider applying a delta in place between two updates of the venue
+        asks.clear();
+
+        RoutingQuote quote = book.quoteBuy(2);
+        assertTrue(quote.isFullyFilled());
+        assertEquals(201, quote.getNetAmount(), 1e-9);
+
+        // The next update picks up the change
+        book.updateVenue("A", source, 0);
+        assertFalse(book.quoteBuy(2).isFullyFilled());
+    }
+
+    private static OrderBook book(List<OrderBookEntry> bids, List<OrderBookEntry> asks) {
+        return new OrderBook("BTC/USDT", bids, asks, 0L);
+    }
+
+    private static List<OrderBookEntry> levels(double... priceQuantityPairs) {
+        List<OrderBookEntry> levels = new ArrayList<>();
+        for (int i = 0; i < priceQuantityPairs.length; i += 2) {
+            levels.add(new OrderBookEntry(priceQuantityPairs[i], priceQuantityPairs[i + 1]));
+        }
+        return levels;
+    }
+
+    private static VenueAllocation allocation(RoutingQuote quote, String exchangeName) {
+        for (VenueAllocation allocation : quote.getAllocations()) {
+            if (allocation.getExchangeName().equals(exchangeName)) {
+                return allocation;
+            }
+        }
+        fail("No allocation on " + exchangeName);
+        return null;
+    }
+}
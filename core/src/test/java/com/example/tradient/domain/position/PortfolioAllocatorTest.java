@@ -0,0 +1,97 @@
+package com.example.tradient.domain.position;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.tradient.domain.position.PositionSizerTest.assessment;
+import static com.example.tradient.domain.position.PositionSizerTest.opportunity;
+import static org.junit.Assert.*;
+
+public class PortfolioAllocatorTest {
+
+    private static final double CAPITAL = 10_000;
+    private static final String[] EXCHANGES = {"Binance", "Kraken", "OKX", "Bybit", "Coinbase"};
+
+    private final PortfolioAllocator allocator = new PortfolioAllocator(new PositionSizer(0.25, 0.5, 10.0), CAPITAL);
+
+    @Test
+    public void concurrentOpportunities_neverAddUpToMoreThanTheCapital() {
+        double[] profits = {0.5, 0.8, 1.0, 1.2, 1.5, 2.0};
+        for (int i = 0; i < profits.length; i++) {
+            allocator.update(liquid("SYM" + i + "/USDT", EXCHANGES[i % 5], EXCHANGES[(i + 1) % 5], profits[i]),
+                    Double.POSITIVE_INFINITY);
+        }
+
+        Map<String, PortfolioAllocator.Allocation> allocations = allocator.getAllocations();
+        assertFalse(allocations.isEmpty());
+        for (PortfolioAllocator.Allocation allocation : allocations.values()) {
+            assertTrue(allocation.getSize() > 0);
+            assertTrue(allocation.getSize() <= 0.25 * CAPITAL + 1e-9);
+        }
+        assertTrue(allocator.getAllocatedCapital() <= CAPITAL + 1e-9);
+        // Four positions at the 25% cap use up the capital, the best ones first
+        assertEquals(1, allocations.get("SYM5/USDT_Binance_Kraken").getRank());
+        assertNull(allocations.get("SYM0/USDT_Binance_Kraken"));
+    }
+
+    @Test
+    public void onePercentOpportunity_isSizedWithinTheDepthLimit() {
+        ArbitrageOpportunity opportunity = opportunity(1.0, assessment());
+        allocator.update(opportunity, 400.0);
+
+        assertEquals(400.0, allocator.getAllocatedSize(opportunity.getOpportunityKey()), 0);
+    }
+
+    @Test
+    public void exchangeBalance_capsEveryPositionWithALegThere() {
+        Map<String, Double> balances = new HashMap<>();
+        balances.put("Binance", 1_500.0);
+        allocator.setExchangeBalances(balances);
+
+        ArbitrageOpportunity buyThere = liquid("BTC/USDT", "Binance", "Kraken", 1.5);
+        ArbitrageOpportunity sellThere = liquid("ETH/USDT", "OKX", "Binance", 1.0);
+        allocator.update(buyThere, Double.POSITIVE_INFINITY);
+        allocator.update(sellThere, Double.POSITIVE_INFINITY);
+
+        double onBinance = allocator.getAllocatedSize(buyThere.getOpportunityKey())
+                + allocator.getAllocatedSize(sellThere.getOpportunityKey());
+        assertTrue(onBinance > 0);
+        assertTrue(onBinance <= 1_500.0 + 1e-9);
+
+        // Replacing the balances drops the cap
+        allocator.setExchangeBalances(Collections.emptyMap());
+        assertEquals(0.25 * CAPITAL, allocator.getAllocatedSize(buyThere.getOpportunityKey()), 1e-9);
+    }
+
+    @Test
+    public void retainAll_releasesTheCapitalOfExpiredOpportunities() {
+        // Four better opportunities at the 25% cap take all the capital
+        for (int i = 0; i < 4; i++) {
+            allocator.update(liquid("SYM" + i + "/USDT", "OKX", "Bybit", 1.5), Double.POSITIVE_INFINITY);
+        }
+        ArbitrageOpportunity kept = liquid("BTC/USDT", "Binance", "Kraken", 0.8);
+        allocator.update(kept, Double.POSITIVE_INFINITY);
+        assertEquals(0.0, allocator.getAllocatedSize(kept.getOpportunityKey()), 0);
+
+        allocator.retainAll(Collections.singleton(kept.getOpportunityKey()));
+
+        assertEquals(1, allocator.getAllocations().size());
+        assertEquals(0.25 * CAPITAL, allocator.getAllocatedSize(kept.getOpportunityKey()), 1e-9);
+    }
+
+    /**
+     * An opportunity on deep books, so the Kelly size is not scaled down for liquidity.
+     */
+    private static ArbitrageOpportunity liquid(String symbol, String buyExchange, String sellExchange,
+                                               double netProfitPercent) {
+        RiskAssessment risk = assessment();
+        risk.setLiquidityScore(1.0);
+        return opportunity(symbol, buyExchange, sellExchange, netProfitPercent, risk);
+    }
+}
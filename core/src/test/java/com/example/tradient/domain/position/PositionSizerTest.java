@@ -0,0 +1,110 @@
+package com.example.tradient.domain.position;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PositionSizerTest {
+
+    private static final double CAPITAL = 10_000;
+
+    private final PositionSizer sizer = new PositionSizer(0.10, 0.5, 10.0);
+
+    @Test
+    public void halfToTwoPercentOpportunities_getANonZeroSizeUnderTheCap() {
+        for (double netProfit : new double[] {0.5, 1.0, 2.0}) {
+            double size = sizer.calculateOptimalPositionSize(opportunity(netProfit, assessment()), CAPITAL);
+
+            assertTrue("size for " + netProfit + "%", size > 0);
+            assertTrue("size for " + netProfit + "%", size <= 0.10 * CAPITAL);
+        }
+    }
+
+    @Test
+    public void defaultAssessment_stillSizesAOnePercentOpportunity() {
+        double size = sizer.calculateOptimalPositionSize(opportunity(1.0, new RiskAssessment()), CAPITAL);
+
+        assertTrue(size > 0);
+        assertTrue(size <= 0.10 * CAPITAL);
+    }
+
+    @Test
+    public void profitEatenBySlippage_getsNothing() {
+        RiskAssessment risk = assessment();
+        risk.setSlippageEstimate(0.004);
+
+        assertEquals(0.0, sizer.calculateKellyFraction(opportunity(0.4, risk)), 0);
+        assertTrue(sizer.calculateExpectedReturn(opportunity(0.4, risk)) < 0);
+    }
+
+    @Test
+    public void lowerLiquidity_shrinksThePosition() {
+        RiskAssessment deep = assessment();
+        RiskAssessment thin = assessment();
+        thin.setLiquidityScore(0.3);
+
+        assertTrue(sizer.calculateKellyFraction(opportunity(1.0, thin))
+                < sizer.calculateKellyFraction(opportunity(1.0, deep)));
+    }
+
+    @Test
+    public void expectedReturn_weighsTheWinAgainstTheUnwindLoss() {
+        RiskAssessment risk = assessment();
+        risk.setDailyVolatility(0.0);
+
+        // Fill probability 0.8, win 1% - 0.1% slippage, loss 0.1% fee + 0.1% slippage
+        double expected = 0.8 * 0.009 - 0.2 * 0.002;
+        assertEquals(expected, sizer.calculateExpectedReturn(opportunity(1.0, risk)), 1e-12);
+    }
+
+    @Test
+    public void unwindLoss_usesTheRealizedVolatilityNotTheScore() {
+        RiskAssessment risk = assessment();
+        risk.setDailyVolatility(0.03);
+        double loss = PositionSizer.lossAmount(risk);
+
+        // A score of 0 from another calculator's scale must not blow the loss up
+        risk.setVolatilityScore(0.0);
+        assertEquals(loss, PositionSizer.lossAmount(risk), 0);
+        // 0.1% fee + 0.1% slippage + 3% daily volatility over 3 minutes
+        assertEquals(0.002 + 0.03 * Math.sqrt(3.0 / 1440), loss, 1e-12);
+    }
+
+    @Test
+    public void unknownVolatility_fallsBackToAFiniteLoss() {
+        RiskAssessment risk = assessment();
+
+        double loss = PositionSizer.lossAmount(risk);
+        assertTrue(loss > 0.002);
+        assertTrue(loss < 0.01);
+    }
+
+    static ArbitrageOpportunity opportunity(double netProfitPercent, RiskAssessment risk) {
+        return opportunity("BTC/USDT", "Binance", "Kraken", netProfitPercent, risk);
+    }
+
+    static ArbitrageOpportunity opportunity(String symbol, String buyExchange, String sellExchange,
+                                            double netProfitPercent, RiskAssessment risk) {
+        ArbitrageOpportunity opportunity = new ArbitrageOpportunity(symbol, symbol, symbol,
+                buyExchange, sellExchange, 100.0, 100.0 * (1 + netProfitPercent / 100), netProfitPercent);
+        opportunity.setNetProfitPercentage(netProfitPercent);
+        opportunity.setRiskAssessment(risk);
+        return opportunity;
+    }
+
+    /**
+     * A liquid pair on two fast exchanges: risk score 0.6, 0.1% slippage, 3 minutes to execute.
+     */
+    static RiskAssessment assessment() {
+        RiskAssessment risk = new RiskAssessment();
+        risk.setOverallRiskScore(0.6);
+        risk.setLiquidityScore(0.8);
+        risk.setVolatilityScore(0.5);
+        risk.setSlippageEstimate(0.001);
+        risk.setExecutionTimeEstimate(3.0);
+        return risk;
+    }
+}
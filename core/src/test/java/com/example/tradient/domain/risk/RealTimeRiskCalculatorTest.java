@@ -0,0 +1,97 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.api.ExchangeApiAdapter;
+import com.example.tradient.data.model.Candle;
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.data.model.Ticker;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RealTimeRiskCalculatorTest {
+
+    @Test
+    public void deadline_scoresWhatArrivedAndCancelsTheRest() throws Exception {
+        StalledAdapter adapter = new StalledAdapter();
+        RealTimeRiskCalculator calculator = new RealTimeRiskCalculator(adapter);
+
+        RiskAssessment assessment = calculator
+                .calculateRisk("BTC/USDT", "Stalled", "Stalled", 1000, 50)
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(assessment.isPartial());
+        assertTrue(assessment.getMissingInputs().contains("buyTicker"));
+        assertTrue(assessment.getMissingInputs().contains("sellOrderBook"));
+        assertFalse(assessment.getMissingInputs().contains("buyFee"));
+        assertEquals(1.0 - 2 * 0.15 - 2 * 0.20 - 2 * 0.10, assessment.getConfidence(), 1e-9);
+        // Two tickers and two order books were still pending at the deadline
+        assertTrue(adapter.cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancellingTheAssessment_cancelsPendingRequests() {
+        StalledAdapter adapter = new StalledAdapter();
+        RealTimeRiskCalculator calculator = new RealTimeRiskCalculator(adapter);
+
+        CompletableFuture<RiskAssessment> result =
+                calculator.calculateRisk("BTC/USDT", "Stalled", "Stalled", 1000, 60_000);
+        result.cancel(true);
+
+        assertEquals(0, adapter.cancelled.getCount());
+    }
+
+    /**
+     * Adapter whose tickers and order books never arrive; counts the requests cancelled.
+     */
+    private static final class StalledAdapter implements ExchangeApiAdapter {
+        final CountDownLatch cancelled = new CountDownLatch(4);
+
+        private <T> CompletableFuture<T> stalled() {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.whenComplete((value, error) -> {
+                if (future.isCancelled()) {
+                    cancelled.countDown();
+                }
+            });
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<Ticker> getTicker(String symbol) {
+            return stalled();
+        }
+
+        @Override
+        public CompletableFuture<OrderBook> getOrderBook(String symbol, int depth) {
+            return stalled();
+        }
+
+        @Override
+        public CompletableFuture<List<Candle>> getHistoricalData(String symbol, String interval, int limit) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        @Override
+        public CompletableFuture<Double> getTradingFee(String symbol) {
+            return CompletableFuture.completedFuture(0.001);
+        }
+
+        @Override
+        public String convertSymbolToExchangeFormat(String normalizedSymbol) {
+            return normalizedSymbol.replace("/", "");
+        }
+
+        @Override
+        public String getExchangeName() {
+            return "Stalled";
+        }
+    }
+}
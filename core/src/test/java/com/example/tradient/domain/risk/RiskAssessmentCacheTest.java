@@ -0,0 +1,83 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.domain.market.MarketDataVersions;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RiskAssessmentCacheTest {
+
+    private final RiskAssessmentCache cache = RiskAssessmentCache.getInstance();
+    private final MarketDataVersions versions = MarketDataVersions.getInstance();
+
+    @Before
+    public void setUp() {
+        cache.clear();
+    }
+
+    @Test
+    public void unchangedLegs_hitTheEntry() {
+        ArbitrageOpportunity opportunity = opportunity("HIT/USDT");
+        versions.bump("Buy", "HIT/USDT");
+        versions.bump("Sell", "HIT/USDT");
+
+        RiskAssessmentCache.LegVersions scored = cache.readVersions(opportunity);
+        cache.put(opportunity, 0, scored, assessment(0.7));
+
+        RiskAssessment cached = cache.get(opportunity, 0, cache.readVersions(opportunity));
+        assertNotNull(cached);
+        assertEquals(0.7, cached.getOverallRiskScore(), 0);
+    }
+
+    @Test
+    public void updateWhileScoring_leavesAStaleEntry() {
+        ArbitrageOpportunity opportunity = opportunity("RACE/USDT");
+        versions.bump("Buy", "RACE/USDT");
+        versions.bump("Sell", "RACE/USDT");
+
+        RiskAssessmentCache.LegVersions scored = cache.readVersions(opportunity);
+        // A ticker of the buy leg arrives after scoring started
+        versions.bump("Buy", "RACE/USDT");
+        cache.put(opportunity, 0, scored, assessment(0.7));
+
+        assertNull(cache.get(opportunity, 0, cache.readVersions(opportunity)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void legWithoutVersion_isNeverCached() {
+        ArbitrageOpportunity opportunity = opportunity("NEW/USDT");
+        versions.bump("Buy", "NEW/USDT");
+
+        assertNull(cache.readVersions(opportunity));
+        cache.put(opportunity, 0, null, assessment(0.7));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void returnedCopy_doesNotChangeTheEntry() {
+        ArbitrageOpportunity opportunity = opportunity("COPY/USDT");
+        versions.bump("Buy", "COPY/USDT");
+        versions.bump("Sell", "COPY/USDT");
+        RiskAssessmentCache.LegVersions scored = cache.readVersions(opportunity);
+        cache.put(opportunity, 0, scored, assessment(0.7));
+
+        cache.get(opportunity, 0, scored).setOverallRiskScore(0.1);
+
+        assertEquals(0.7, cache.get(opportunity, 0, scored).getOverallRiskScore(), 0);
+    }
+
+    private static ArbitrageOpportunity opportunity(String symbol) {
+        return new ArbitrageOpportunity(symbol, symbol, symbol, "Buy", "Sell", 100.0, 100.5, 0.5);
+    }
+
+    private static RiskAssessment assessment(double overallRiskScore) {
+        RiskAssessment assessment = new RiskAssessment();
+        assessment.setOverallRiskScore(overallRiskScore);
+        return assessment;
+    }
+}
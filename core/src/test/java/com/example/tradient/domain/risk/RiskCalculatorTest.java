@@ -0,0 +1,30 @@
+package com.example.tradient.domain.risk;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RiskCalculatorTest {
+
+    @Test
+    public void typicalCryptoVolatility_scoresInTheMiddle() {
+        // BTC at 3% a day and a large-cap altcoin at 6% a day
+        double btc = RiskCalculator.volatilityScoreFromDaily(0.03);
+        double altcoin = RiskCalculator.volatilityScoreFromDaily(0.06);
+
+        assertTrue("BTC score " + btc, btc > 0.5 && btc < 0.7);
+        assertTrue("altcoin score " + altcoin, altcoin > 0.3 && altcoin < 0.5);
+    }
+
+    @Test
+    public void score_fallsWithVolatilityButNeverReachesZero() {
+        double previous = RiskCalculator.volatilityScoreFromDaily(0.0);
+        assertEquals(1.0, previous, 1e-9);
+        for (double volatility = 0.01; volatility <= 0.5; volatility += 0.01) {
+            double score = RiskCalculator.volatilityScoreFromDaily(volatility);
+            assertTrue(score < previous);
+            assertTrue(score > 0.0);
+            previous = score;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.domain.risk.RollingVolatilityEstimator.Horizon;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RollingVolatilityEstimatorTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private final RollingVolatilityEstimator estimator = new RollingVolatilityEstimator();
+
+    @Test
+    public void fewerThanFiveReturns_giveNoData() {
+        long time = feed(START, 100.0, 0.001, 4);
+        assertEquals(RollingVolatilityEstimator.NO_DATA,
+                estimator.getVolatility("Binance", "BTC/USDT", Horizon.ONE_MINUTE), 0);
+
+        feed(time, 100.0, 0.001, 1);
+        assertTrue(estimator.getVolatility("Binance", "BTC/USDT", Horizon.ONE_MINUTE) > 0);
+    }
+
+    @Test
+    public void fullWindow_evictsTheOldestReturns() {
+        int capacity = Horizon.ONE_MINUTE.getCapacity();
+        // A calm window after a wild one: the wild returns must leave the variance entirely.
+        // Enough calm returns follow for the EWMA to decay below the windowed variance.
+        long time = feed(START, 100.0, 0.01, capacity);
+        feed(time, 100.0, 0.001, 10 * capacity);
+
+        assertEquals(capacity, estimator.getSampleCount("Binance", "BTC/USDT", Horizon.ONE_MINUTE));
+        // Alternating +-r around a zero mean: sample variance r^2 * n / (n - 1) per interval
+        double perInterval = 0.001 * 0.001 * capacity / (capacity - 1);
+        assertEquals(Math.sqrt(perInterval * capacity),
+                estimator.getVolatility("Binance", "BTC/USDT", Horizon.ONE_MINUTE), 1e-9);
+    }
+
+    @Test
+    public void silenceLongerThanTheWindow_startsItOver() {
+        long time = feed(START, 100.0, 0.001, 20);
+        assertEquals(20, estimator.getSampleCount("Binance", "BTC/USDT", Horizon.ONE_MINUTE));
+
+        estimator.onTrade("Binance", "BTC/USDT", 100.0, time + 2 * Horizon.ONE_MINUTE.getDurationMs());
+
+        assertEquals(0, estimator.getSampleCount("Binance", "BTC/USDT", Horizon.ONE_MINUTE));
+        assertEquals(RollingVolatilityEstimator.NO_DATA,
+                estimator.getVolatility("Binance", "BTC/USDT", Horizon.ONE_MINUTE), 0);
+    }
+
+    @Test
+    public void exchangeFormats_shareOneSeries() {
+        feed(START, 100.0, 0.001, 10);
+
+        assertEquals(10, estimator.getSampleCount("binance", "BTCUSDT", Horizon.ONE_MINUTE));
+    }
+
+    /**
+     * Trade once per one-minute sample interval, alternating between two prices so every
+     * return is +r or -r.
+     *
+     * @return Time of the last trade
+     */
+    private long feed(long after, double price, double r, int returns) {
+        long interval = Horizon.ONE_MINUTE.getSampleIntervalMs();
+        long time = after;
+        if (after == START) {
+            estimator.onTrade("Binance", "BTC/USDT", price, time);
+        }
+        int sampled = estimator.getSampleCount("Binance", "BTC/USDT", Horizon.ONE_MINUTE);
+        for (int i = 0; i < returns; i++) {
+            time += interval;
+            // Even counts sit at the base price, so each feed continues the alternation
+            boolean high = (sampled + i) % 2 == 0;
+            estimator.onTrade("Binance", "BTC/USDT", high ? price * Math.exp(r) : price, time);
+        }
+        return time;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.Ticker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlippageAnalyticsBuilderTest {
+
+    private SlippageAnalyticsBuilder analytics;
+
+    @Before
+    public void setUp() {
+        SlippageCalibrator.getInstance().clear();
+        analytics = SlippageAnalyticsBuilder.create();
+    }
+
+    @After
+    public void tearDown() {
+        analytics.getSlippageManager().shutdown();
+        SlippageCalibrator.getInstance().clear();
+    }
+
+    @Test
+    public void completedLiveTrade_updatesTheCalibratedCoefficients() {
+        Ticker ticker = new Ticker("BTC/USDT", 100.0, 99.9, 100.1, 5_000, 0L, "Binance");
+
+        analytics.recordPendingTrade("trade-1", "Binance", "BTC/USDT", ticker, 10.0, true, 0.001)
+                .recordTradeExecution("trade-1", 101.0, 100.1);
+
+        SlippageCalibrator.Coefficients coefficients =
+                SlippageCalibrator.getInstance().getCoefficients("Binance", "BTC/USDT");
+        assertNotNull(coefficients);
+        assertEquals(1, coefficients.getSamples());
+        // The prior predicts about 0.3% for this trade; a 0.9% fill pulls the intercept up
+        assertTrue(coefficients.getWeight(0) > 0.0001);
+    }
+
+    @Test
+    public void unknownTrade_isIgnored() {
+        analytics.recordTradeExecution("never-recorded", 100.4, 100.1);
+
+        assertNull(SlippageCalibrator.getInstance().getCoefficients("Binance", "BTC/USDT"));
+    }
+}
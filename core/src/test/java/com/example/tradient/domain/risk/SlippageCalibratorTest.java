@@ -0,0 +1,80 @@
+package com.example.tradient.domain.risk;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SlippageCalibratorTest {
+
+    private final SlippageCalibrator calibrator = SlippageCalibrator.getInstance();
+
+    @Before
+    public void setUp() {
+        calibrator.clear();
+    }
+
+    @After
+    public void tearDown() {
+        calibrator.clear();
+    }
+
+    @Test
+    public void fills_fitTheModelThatProducedThem() {
+        Random random = new Random(1);
+        // The volatility term is only weakly excited by realistic features, so it takes a
+        // long run for the weights to settle
+        for (int i = 0; i < 20_000; i++) {
+            SlippageCalibrator.Features features = randomFeatures(random);
+            calibrator.observe("Binance", "BTC/USDT", features, trueSlippage(features));
+        }
+
+        SlippageCalibrator.Coefficients coefficients = calibrator.getCoefficients("Binance", "BTC/USDT");
+        assertEquals(20_000, coefficients.getSamples());
+        assertEquals(1.0, coefficients.getConfidence(), 0);
+        for (int i = 0; i < 100; i++) {
+            SlippageCalibrator.Features features = randomFeatures(random);
+            assertEquals(trueSlippage(features), coefficients.predict(features), 1e-7);
+        }
+        assertEquals(0.5, coefficients.getWeight(1), 1e-4);
+        assertEquals(0.1, coefficients.getWeight(3), 1e-4);
+    }
+
+    @Test
+    public void calibrate_blendsFromTheHeuristicToTheModel() {
+        SlippageCalibrator.Features features = new SlippageCalibrator.Features(0.001, 0.01, 0.03);
+        assertEquals(0.004, calibrator.calibrate("Binance", "BTC/USDT", features, 0.004), 0);
+
+        calibrator.observe("Binance", "BTC/USDT", features, 0.002);
+        SlippageCalibrator.Coefficients coefficients = calibrator.getCoefficients("Binance", "BTC/USDT");
+        double confidence = coefficients.getConfidence();
+        assertTrue(confidence > 0 && confidence < 1);
+        assertEquals(coefficients.predict(features) * confidence + 0.004 * (1 - confidence),
+                calibrator.calibrate("Binance", "BTC/USDT", features, 0.004), 1e-12);
+    }
+
+    @Test
+    public void models_areKeptPerExchangeAndSymbolClass() {
+        SlippageCalibrator.Features features = new SlippageCalibrator.Features(0.001, 0.01, 0.03);
+        calibrator.observe("Binance", "BTC/USDT", features, 0.002);
+
+        assertNotNull(calibrator.getCoefficients("binance", "ETH/USDT"));
+        assertNull(calibrator.getCoefficients("Kraken", "BTC/USDT"));
+        assertNull(calibrator.getCoefficients("Binance", "PEPE/USDT"));
+    }
+
+    private static SlippageCalibrator.Features randomFeatures(Random random) {
+        return new SlippageCalibrator.Features(
+                random.nextDouble() * 0.004,
+                random.nextDouble() * 0.05,
+                0.01 + random.nextDouble() * 0.07);
+    }
+
+    private static double trueSlippage(SlippageCalibrator.Features f) {
+        return 0.0005 + 0.5 * f.getSpread() + 0.02 * f.getRelativeSize()
+                + 0.1 * f.getVolatility() * f.getRelativeSize();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SlippageStressTesterTest {
+
+    private final SlippageStressTester tester = new SlippageStressTester(null);
+
+    @Test
+    public void percentiles_areReadOffTheSortedSamples() {
+        double[] samples = new double[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = 100 - i;
+        }
+
+        SlippageStressTester.Percentiles p = SlippageStressTester.Percentiles.of(samples);
+
+        assertEquals(1, p.getMin(), 0);
+        assertEquals(1, p.getP01(), 0);
+        assertEquals(5, p.getP05(), 0);
+        assertEquals(50, p.getP50(), 0);
+        assertEquals(95, p.getP95(), 0);
+        assertEquals(99, p.getP99(), 0);
+        assertEquals(100, p.getMax(), 0);
+    }
+
+    @Test
+    public void withoutShocks_everyScenarioIsTheQuotedArbitrage() {
+        Map<String, Map<String, OrderBook>> books = new HashMap<>();
+        Map<String, OrderBook> venues = new HashMap<>();
+        venues.put("Binance", book(100.0, 100.1));
+        venues.put("Kraken", book(101.0, 101.1));
+        books.put("BTC/USDT", venues);
+
+        SlippageStressTester.MonteCarloReport report = tester.runMonteCarlo(
+                books, new double[] {50}, calm().setIterations(200));
+
+        SlippageStressTester.SlippageDistribution d = report.getDistributions("BTC/USDT").get(0);
+        assertEquals(1.0, d.getFillRate(), 0);
+        // Buy at Binance's 100.1 ask, sell at Kraken's 101.0 bid, 0.1% fee each way
+        double expected = (101.0 * 0.999 - 100.1 * 1.001) / (100.1 * 1.001);
+        assertEquals(expected, d.getNetProfit().getMin(), 1e-9);
+        assertEquals(expected, d.getNetProfit().getMax(), 1e-9);
+        assertEquals(0.0, d.getBuySlippage().getP99(), 1e-12);
+    }
+
+    @Test
+    public void bothLegs_areNeverOnTheSameExchange() {
+        // Kraken alone has a crossed book; pairing it with itself would look very profitable
+        Map<String, Map<String, OrderBook>> books = new HashMap<>();
+        Map<String, OrderBook> venues = new HashMap<>();
+        venues.put("Binance", book(100.0, 100.1));
+        venues.put("Kraken", book(105.0, 99.0));
+        books.put("BTC/USDT", venues);
+
+        SlippageStressTester.SlippageDistribution d = tester.runMonteCarlo(
+                books, new double[] {50}, calm().setIterations(10)).getDistributions().get(0);
+
+        // Best cross-exchange pair: buy Binance at 100.1, sell Kraken at 105.0,
+        // not buy Kraken at 99.0 and sell Kraken at 105.0
+        double expected = (105.0 * 0.999 - 100.1 * 1.001) / (100.1 * 1.001);
+        assertEquals(expected, d.getNetProfit().getP50(), 1e-9);
+    }
+
+    @Test
+    public void unfilledScenarios_lowerTheFillRateInsteadOfSkewingTheDistribution() {
+        Map<String, Map<String, OrderBook>> books = new HashMap<>();
+        Map<String, OrderBook> venues = new HashMap<>();
+        venues.put("Binance", book(100.0, 100.1));
+        venues.put("Kraken", book(101.0, 101.1));
+        books.put("BTC/USDT", venues);
+
+        // The books hold 10 units per level on 5 levels, far less than 1,000,000 of notional
+        SlippageStressTester.SlippageDistribution d = tester.runMonteCarlo(
+                books, new double[] {1_000_000}, calm().setIterations(50)).getDistributions().get(0);
+
+        assertEquals(0.0, d.getFillRate(), 0);
+        assertEquals(0.0, d.getNetProfit().getMin(), 0);
+        assertEquals(0.0, d.getBuySlippage().getMax(), 0);
+    }
+
+    @Test
+    public void singleExchangeSymbols_areSkipped() {
+        Map<String, Map<String, OrderBook>> books = new HashMap<>();
+        Map<String, OrderBook> venues = new HashMap<>();
+        venues.put("Binance", book(100.0, 100.1));
+        books.put("BTC/USDT", venues);
+
+        assertTrue(tester.runMonteCarlo(books, new double[] {50}, calm()).getDistributions().isEmpty());
+    }
+
+    @Test
+    public void sameSeed_givesTheSameReport() {
+        Map<String, Map<String, OrderBook>> books = new HashMap<>();
+        Map<String, OrderBook> venues = new HashMap<>();
+        venues.put("Binance", book(100.0, 100.1));
+        venues.put("Kraken", book(100.2, 100.3));
+        venues.put("OKX", book(99.9, 100.0));
+        books.put("BTC/USDT", venues);
+        SlippageStressTester.MonteCarloConfig config = new SlippageStressTester.MonteCarloConfig()
+                .setIterations(500).setSeed(7);
+
+        SlippageStressTester.SlippageDistribution first = tester.runMonteCarlo(
+                books, new double[] {500}, config).getDistributions().get(0);
+        SlippageStressTester.SlippageDistribution second = tester.runMonteCarlo(
+                books, new double[] {500}, config).getDistributions().get(0);
+
+        assertEquals(first.getFillRate(), second.getFillRate(), 0);
+        assertEquals(first.getNetProfit().getP05(), second.getNetProfit().getP05(), 0);
+        assertEquals(first.getBuySlippage().getP95(), second.getBuySlippage().getP95(), 0);
+    }
+
+    private static SlippageStressTester.MonteCarloConfig calm() {
+        return new SlippageStressTester.MonteCarloConfig()
+                .setPriceShockSigma(0)
+                .setIdiosyncraticSigma(0)
+                .setGapProbability(0)
+                .setSpreadWideningSigma(0)
+                .setMaxDepthRemoval(0)
+                .setLevelRemovalProbability(0);
+    }
+
+    /**
+     * Five levels of 10 units per side, 0.1 apart.
+     */
+    private static OrderBook book(double bestBid, double bestAsk) {
+        List<OrderBookEntry> bids = new ArrayList<>();
+        List<OrderBookEntry> asks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bids.add(new OrderBookEntry(bestBid - i * 0.1, 10));
+            asks.add(new OrderBookEntry(bestAsk + i * 0.1, 10));
+        }
+        return new OrderBook("BTC/USDT", bids, asks, 0L);
+    }
+}
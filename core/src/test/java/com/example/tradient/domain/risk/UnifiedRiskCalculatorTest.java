@@ -0,0 +1,111 @@
+package com.example.tradient.domain.risk;
+
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.market.MarketDataVersions;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UnifiedRiskCalculatorTest {
+
+    private static final String[] EXCHANGES = {"Binance", "Coinbase", "Kraken", "OKX"};
+
+    private final UnifiedRiskCalculator calculator = UnifiedRiskCalculator.getInstance();
+    private final RiskAssessmentCache cache = RiskAssessmentCache.getInstance();
+
+    @Before
+    public void setUp() {
+        cache.clear();
+    }
+
+    @Test
+    public void batch_matchesSingleAssessments() {
+        // Without leg versions nothing is cached, so both paths really score
+        List<ArbitrageOpportunity> opportunities = opportunities("BATCH", 100);
+
+        List<RiskAssessment> batch = calculator.calculateRiskBatch(opportunities);
+
+        assertEquals(opportunities.size(), batch.size());
+        for (int i = 0; i < opportunities.size(); i++) {
+            RiskAssessment single = calculator.calculateRisk(opportunities.get(i));
+            assertSameScores(single, batch.get(i));
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void batch_sharesTheCacheWithSingleCalls() {
+        List<ArbitrageOpportunity> opportunities = opportunities("CACHED", 8);
+        for (ArbitrageOpportunity opportunity : opportunities) {
+            MarketDataVersions.getInstance().bump(opportunity.getBuyExchangeName(), opportunity.getNormalizedSymbol());
+            MarketDataVersions.getInstance().bump(opportunity.getSellExchangeName(), opportunity.getNormalizedSymbol());
+        }
+        LatencyHistogram riskTime = MetricsRegistry.getInstance()
+                .histogram(RiskCalculator.RISK_DURATION, "calculator", "unified");
+        long timed = riskTime.getCount();
+
+        List<RiskAssessment> batch = calculator.calculateRiskBatch(opportunities);
+
+        assertEquals(opportunities.size(), cache.size());
+        assertEquals(timed + opportunities.size(), riskTime.getCount());
+
+        // Served from the entries the batch stored, so nothing more is timed
+        for (int i = 0; i < opportunities.size(); i++) {
+            assertSameScores(batch.get(i), calculator.calculateRisk(opportunities.get(i)));
+        }
+        assertEquals(timed + opportunities.size(), riskTime.getCount());
+    }
+
+    private static List<ArbitrageOpportunity> opportunities(String base, int count) {
+        List<ArbitrageOpportunity> opportunities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // A handful of symbols and exchange pairs, so legs are shared across the batch
+            String symbol = base + (i % 5) + "/USDT";
+            String buyExchange = EXCHANGES[i % EXCHANGES.length];
+            String sellExchange = EXCHANGES[(i + 1 + i / EXCHANGES.length % 3) % EXCHANGES.length];
+            double buyPrice = 100 + i % 5;
+            double profitPercent = 0.2 + (i % 7) * 0.15;
+            ArbitrageOpportunity opportunity = new ArbitrageOpportunity(symbol, symbol, symbol,
+                    buyExchange, sellExchange, buyPrice, buyPrice * (1 + profitPercent / 100), profitPercent);
+            opportunity.setBuyFeePercentage(0.1);
+            opportunity.setSellFeePercentage(0.1);
+            double volume = 1000 * (1 + i % 5);
+            opportunity.setBuyTicker(new Ticker(symbol, buyPrice, buyPrice, buyPrice, volume, 0L, buyExchange));
+            opportunity.setSellTicker(new Ticker(symbol, buyPrice, buyPrice, buyPrice, volume, 0L, sellExchange));
+            opportunities.add(opportunity);
+        }
+        return opportunities;
+    }
+
+    private static void assertSameScores(RiskAssessment expected, RiskAssessment actual) {
+        double[] expectedScores = scores(expected);
+        double[] actualScores = scores(actual);
+        assertTrue(Arrays.toString(expectedScores) + " vs " + Arrays.toString(actualScores),
+                Arrays.equals(expectedScores, actualScores));
+    }
+
+    private static double[] scores(RiskAssessment assessment) {
+        return new double[] {
+                assessment.getOverallRiskScore(),
+                assessment.getLiquidityScore(),
+                assessment.getVolatilityScore(),
+                assessment.getExchangeRiskScore(),
+                assessment.getTransactionRiskScore(),
+                assessment.getSlippageEstimate(),
+                assessment.getExecutionTimeEstimate(),
+                assessment.getOptimalTradeSize(),
+                assessment.getRoiEfficiency(),
+                assessment.getDailyVolatility()
+        };
+    }
+}
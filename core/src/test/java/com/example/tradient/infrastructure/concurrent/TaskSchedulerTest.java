@@ -0,0 +1,136 @@
+package com.example.tradient.infrastructure.concurrent;
+
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class TaskSchedulerTest {
+
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
+
+    @Test
+    public void saturatedNetworkPool_rejectsInsteadOfRunningOnTheCaller() throws Exception {
+        TaskScheduler.Workload workload = TaskScheduler.Workload.NETWORK_IO;
+        CountDownLatch release = new CountDownLatch(1);
+        long rejectedBefore = scheduler.getStats(workload).getRejectedTasks();
+        try {
+            saturate(workload, release);
+
+            try {
+                scheduler.submit(workload, () -> { });
+                fail("Expected the full pool to reject the task");
+            } catch (RejectedExecutionException expected) {
+                // The submitting thread must not block on someone else's request
+            }
+            assertEquals(rejectedBefore + 1, scheduler.getStats(workload).getRejectedTasks());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void saturatedScanPool_runsTheTaskOnTheCaller() throws Exception {
+        TaskScheduler.Workload workload = TaskScheduler.Workload.CPU_SCAN;
+        CountDownLatch release = new CountDownLatch(1);
+        long callerRunsBefore = scheduler.getStats(workload).getCallerRuns();
+        try {
+            saturate(workload, release);
+
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            scheduler.submit(workload, () -> ranOn.set(Thread.currentThread()));
+
+            assertSame(Thread.currentThread(), ranOn.get());
+            assertEquals(callerRunsBefore + 1, scheduler.getStats(workload).getCallerRuns());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void saturatedScanPool_neverRunsTheTaskOnTheTimerThread() throws Exception {
+        TaskScheduler.Workload workload = TaskScheduler.Workload.CPU_SCAN;
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturate(workload, release);
+
+            AtomicReference<Throwable> outcome = new AtomicReference<>();
+            Future<?> fromTimer = scheduler.schedule(() -> {
+                try {
+                    scheduler.submit(workload, () -> { });
+                } catch (RejectedExecutionException e) {
+                    outcome.set(e);
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+            fromTimer.get(5, TimeUnit.SECONDS);
+
+            assertTrue(outcome.get() instanceof RejectedExecutionException);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void queueDepthGauge_countsTheTasksWaitingInThePool() throws Exception {
+        TaskScheduler.Workload workload = TaskScheduler.Workload.UI_BOUND;
+        String gauge = TaskScheduler.EXECUTOR_QUEUE_DEPTH + "{workload=\"ui\"} ";
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturate(workload, release);
+
+            // The threads are busy with their own tasks, only the queued ones count
+            assertTrue(MetricsRegistry.getInstance().toText()
+                    .contains(gauge + workload.getQueueCapacity() + "\n"));
+        } finally {
+            release.countDown();
+        }
+        idle(workload);
+        assertTrue(MetricsRegistry.getInstance().toText().contains(gauge + "0\n"));
+    }
+
+    /**
+     * Occupy every thread of the pool and fill its queue with tasks waiting on the latch.
+     */
+    private void saturate(TaskScheduler.Workload workload, CountDownLatch release) throws InterruptedException {
+        idle(workload);
+        CountDownLatch running = new CountDownLatch(workload.getThreads());
+        for (int i = 0; i < workload.getThreads(); i++) {
+            scheduler.submit(workload, () -> {
+                running.countDown();
+                await(release);
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < workload.getQueueCapacity(); i++) {
+            scheduler.submit(workload, () -> await(release));
+        }
+        assertEquals(workload.getQueueCapacity(), scheduler.getStats(workload).getQueueDepth());
+    }
+
+    /**
+     * Wait for the tasks of an earlier test to finish.
+     */
+    private void idle(TaskScheduler.Workload workload) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getStats(workload).getQueueDepth() > 0
+                || scheduler.getStats(workload).getActiveThreads() > 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.Ticker;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LatencyTracerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final LatencyTracer tracer = new LatencyTracer(registry);
+
+    // The tracer stamps risk and publication with System.nanoTime(), so the tick is placed
+    // 100 ms in the past, below the default slow threshold
+    private final long start = System.nanoTime() - 100 * MILLIS;
+
+    @Test
+    public void publication_recordsEachStageOfTheTick() {
+        ArbitrageOpportunity opportunity = opportunity(streamed());
+        tracer.onScanned(opportunity, start + 9 * MILLIS);
+        tracer.onRiskAssessed(opportunity);
+        tracer.onPublished(opportunity);
+
+        assertEquals(40.0, stage("network").getMeanMillis(), 1e-9);
+        assertEquals(2.0, stage("parse").getMeanMillis(), 1e-9);
+        assertEquals(1.0, stage("apply").getMeanMillis(), 1e-9);
+        assertEquals(6.0, stage("scan").getMeanMillis(), 1e-9);
+        assertEquals(1, stage("risk").getCount());
+        assertTrue(stage("risk").getMeanMillis() >= 90);
+        assertEquals(1, stage("publish").getCount());
+
+        LatencyHistogram total = registry.histogram(LatencyTracer.TICK_TO_OPPORTUNITY);
+        assertEquals(1, total.getCount());
+        assertTrue(total.getMeanMillis() >= 100);
+    }
+
+    @Test
+    public void withoutRisk_publicationIsTimedFromTheScan() {
+        ArbitrageOpportunity opportunity = opportunity(streamed());
+        tracer.onScanned(opportunity, start + 9 * MILLIS);
+        tracer.onPublished(opportunity);
+
+        assertEquals(0, stage("risk").getCount());
+        assertEquals(1, stage("publish").getCount());
+        assertTrue(stage("publish").getMeanMillis() >= 90);
+    }
+
+    @Test
+    public void restTicker_skipsTheStreamStages() {
+        Ticker fetched = new Ticker("BTC/USDT", 100.0, 100.0, 100.5, 10.0, 1_000L, "Buy");
+        ArbitrageOpportunity opportunity = opportunity(fetched);
+        tracer.onScanned(opportunity, start);
+        tracer.onPublished(opportunity);
+
+        assertEquals(0, stage("network").getCount());
+        assertEquals(0, stage("parse").getCount());
+        assertEquals(0, stage("apply").getCount());
+        assertEquals(0, stage("scan").getCount());
+        assertEquals(1, stage("publish").getCount());
+        assertEquals(1, registry.histogram(LatencyTracer.TICK_TO_OPPORTUNITY).getCount());
+    }
+
+    @Test
+    public void secondPublication_recordsNothing() {
+        ArbitrageOpportunity opportunity = opportunity(streamed());
+        tracer.onScanned(opportunity, start + 9 * MILLIS);
+        tracer.onPublished(opportunity);
+        tracer.onRiskAssessed(opportunity);
+        tracer.onPublished(opportunity);
+
+        assertEquals(1, stage("parse").getCount());
+        assertEquals(0, stage("risk").getCount());
+        assertEquals(1, stage("publish").getCount());
+        assertEquals(1, registry.histogram(LatencyTracer.TICK_TO_OPPORTUNITY).getCount());
+    }
+
+    @Test
+    public void slowTrace_isKeptWithItsBreakdown() {
+        tracer.setSlowThresholdMillis(50);
+        ArbitrageOpportunity fast = opportunity(new Ticker());
+        tracer.onScanned(fast, System.nanoTime());
+        tracer.onPublished(fast);
+        ArbitrageOpportunity slow = opportunity(streamed());
+        tracer.onScanned(slow, start + 9 * MILLIS);
+        tracer.onPublished(slow);
+
+        List<String> slowTraces = tracer.getSlowTraces();
+        assertEquals(1, slowTraces.size());
+        String trace = slowTraces.get(0);
+        assertTrue(trace, trace.startsWith("BTC/USDT Buy->Sell tick from Buy: total="));
+        assertTrue(trace, trace.contains(" network=40ms parse=2.0ms apply=1.0ms scan=6.0ms publish="));
+    }
+
+    @Test
+    public void untracedOpportunity_isIgnored() {
+        ArbitrageOpportunity opportunity = opportunity(streamed());
+        tracer.onRiskAssessed(opportunity);
+        tracer.onPublished(opportunity);
+        tracer.onPublished(null);
+
+        assertEquals(0, registry.histogram(LatencyTracer.TICK_TO_OPPORTUNITY).getCount());
+    }
+
+    private LatencyHistogram stage(String stage) {
+        return registry.histogram(LatencyTracer.STAGE_TIME, "stage", stage);
+    }
+
+    /**
+     * Ticker stamped 1000 ms by the exchange, received 40 ms later, parsed after 2 ms and
+     * applied after another 1 ms.
+     */
+    private Ticker streamed() {
+        Ticker ticker = new Ticker("BTC/USDT", 100.0, 100.0, 100.5, 10.0, 1_000L, "Buy");
+        ticker.stampReceived(start, 1_040L, start + 2 * MILLIS);
+        ticker.stampApplied(start + 3 * MILLIS);
+        return ticker;
+    }
+
+    /**
+     * Opportunity whose buy leg is the given ticker and whose sell leg has no stamps.
+     */
+    private static ArbitrageOpportunity opportunity(Ticker buy) {
+        ArbitrageOpportunity opportunity = new ArbitrageOpportunity("BTC/USDT", "BTC/USDT", "BTC/USDT",
+                "Buy", "Sell", 100.0, 100.5, 0.5);
+        opportunity.setBuyTicker(buy);
+        opportunity.setSellTicker(new Ticker());
+        return opportunity;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void text_groupsLabelsUnderOneTypeLine() {
+        registry.counter("test_messages_total", "exchange", "okx").add(3);
+        registry.counter("test_messages_total", "exchange", "binance").increment();
+        registry.registerGauge("test_queue_depth", () -> 7);
+
+        assertEquals("# TYPE test_messages_total counter\n"
+                        + "test_messages_total{exchange=\"binance\"} 1\n"
+                        + "test_messages_total{exchange=\"okx\"} 3\n"
+                        + "# TYPE test_queue_depth gauge\n"
+                        + "test_queue_depth 7\n",
+                registry.toText());
+    }
+
+    @Test
+    public void histogram_isRenderedAsASummary() {
+        LatencyHistogram histogram = registry.histogram("test_parse_millis", "exchange", "kraken");
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(2));
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(4));
+
+        String text = registry.toText();
+
+        assertTrue(text, text.startsWith("# TYPE test_parse_millis summary\n"));
+        assertTrue(text, text.contains("test_parse_millis{exchange=\"kraken\",quantile=\"0.5\"} "));
+        assertTrue(text, text.contains("test_parse_millis{exchange=\"kraken\",quantile=\"0.99\"} "));
+        assertTrue(text, text.contains("test_parse_millis_count{exchange=\"kraken\"} 2\n"));
+        assertTrue(text, text.contains("test_parse_millis_sum{exchange=\"kraken\"} 6\n"));
+    }
+
+    @Test
+    public void labelValues_areEscaped() {
+        registry.counter("test_errors_total", "path", "C:\\tmp \"x\"\nnext").increment();
+
+        assertEquals("# TYPE test_errors_total counter\n"
+                        + "test_errors_total{path=\"C:\\\\tmp \\\"x\\\"\\nnext\"} 1\n",
+                registry.toText());
+    }
+
+    @Test
+    public void sameNameAndLabel_returnTheSameMetric() {
+        Counter counter = registry.counter("test_opened_total", "source", "replay");
+
+        assertSame(counter, registry.counter("test_opened_total", "source", "replay"));
+        assertNotSame(counter, registry.counter("test_opened_total", "source", "app"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sameMetricAsAnotherType_isRejected() {
+        registry.counter("test_duration_millis");
+        registry.histogram("test_duration_millis");
+    }
+
+    @Test
+    public void sameNameWithAnotherLabelAsAnotherType_isRejected() {
+        // One name has one TYPE line in the text format, whatever the labels
+        registry.counter("test_depth", "workload", "scan");
+        try {
+            registry.registerGauge("test_depth", "workload", "risk", () -> 1);
+            fail("Expected the gauge to conflict with the counter");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertFalse(registry.toText().contains("gauge"));
+    }
+
+    @Test
+    public void failingGauge_isNotANumber() {
+        registry.registerGauge("test_closed_pool", () -> {
+            throw new IllegalStateException("shut down");
+        });
+
+        assertTrue(registry.toText().contains("test_closed_pool NaN\n"));
+    }
+
+    @Test
+    public void clear_forgetsNamesAndTypes() {
+        registry.counter("test_reused");
+        registry.clear();
+
+        registry.registerGauge("test_reused", () -> 2);
+
+        assertEquals("# TYPE test_reused gauge\ntest_reused 2\n", registry.toText());
+    }
+}
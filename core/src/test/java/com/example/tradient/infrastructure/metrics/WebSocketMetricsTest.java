@@ -0,0 +1,60 @@
+package com.example.tradient.infrastructure.metrics;
+
+import com.example.tradient.data.http.LatencyHistogram;
+import com.example.tradient.data.model.Ticker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WebSocketMetricsTest {
+
+    @Test
+    public void message_isCountedAndItsParseTimedOnce() {
+        WebSocketMetrics metrics = new WebSocketMetrics("TestOnce");
+        Counter messages = MetricsRegistry.getInstance().counter(WebSocketMetrics.MESSAGES, "exchange", "testonce");
+        LatencyHistogram parseTime = MetricsRegistry.getInstance()
+                .histogram(WebSocketMetrics.PARSE_TIME, "exchange", "testonce");
+
+        metrics.onMessageReceived();
+        // A message carrying several updates
+        metrics.onMessageParsed();
+        metrics.onMessageParsed();
+        metrics.onMessageReceived();
+        metrics.onTickerParsed(new Ticker());
+
+        assertEquals(2, messages.get());
+        assertEquals(2, parseTime.getCount());
+    }
+
+    @Test
+    public void everyTickerOfAMessage_isStampedWithItsReceiveTime() {
+        WebSocketMetrics metrics = new WebSocketMetrics("TestStamp");
+        Ticker first = new Ticker();
+        Ticker second = new Ticker();
+
+        long before = System.nanoTime();
+        metrics.onMessageReceived();
+        metrics.onTickerParsed(first);
+        metrics.onTickerParsed(second);
+
+        assertTrue(first.getReceivedNanos() >= before);
+        assertEquals(first.getReceivedNanos(), second.getReceivedNanos());
+        assertEquals(first.getReceivedAtMillis(), second.getReceivedAtMillis());
+        assertTrue(first.getParsedNanos() >= first.getReceivedNanos());
+        assertTrue(second.getParsedNanos() >= first.getParsedNanos());
+    }
+
+    @Test
+    public void parseBeforeAnyMessage_isNotRecorded() {
+        WebSocketMetrics metrics = new WebSocketMetrics("TestEarly");
+        LatencyHistogram parseTime = MetricsRegistry.getInstance()
+                .histogram(WebSocketMetrics.PARSE_TIME, "exchange", "testearly");
+        Ticker ticker = new Ticker();
+
+        metrics.onTickerParsed(ticker);
+
+        assertEquals(0, parseTime.getCount());
+        assertEquals(0, ticker.getReceivedNanos());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.tradient.infrastructure.notification;
+
+import com.example.tradient.data.interfaces.ArbitrageResult;
+import com.example.tradient.data.interfaces.INotificationService;
+import com.example.tradient.infrastructure.metrics.MetricsRegistry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncNotificationServiceTest {
+
+    @Test
+    public void fullQueue_dropsInfoAndReportsTheCount() throws InterruptedException {
+        RecordingTarget target = new RecordingTarget();
+        target.blockFirstInfo();
+        AsyncNotificationService service = new AsyncNotificationService(target, 2);
+        long droppedBefore = MetricsRegistry.getInstance().counter(AsyncNotificationService.DROPPED).get();
+
+        // The writer takes the first message and blocks on it; two more fill the queue
+        service.logInfo("taken");
+        assertTrue(target.blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            service.logInfo("queued " + i);
+        }
+        target.release.countDown();
+        service.close();
+
+        assertEquals(3, MetricsRegistry.getInstance().counter(AsyncNotificationService.DROPPED).get() - droppedBefore);
+        assertEquals(List.of("taken", "queued 0", "queued 1"), target.infos());
+        assertEquals(List.of("Log queue full, 3 messages dropped"), target.warnings());
+    }
+
+    @Test
+    public void fullQueue_writesWarningsOnTheCallersThread() throws InterruptedException {
+        RecordingTarget target = new RecordingTarget();
+        target.blockFirstInfo();
+        AsyncNotificationService service = new AsyncNotificationService(target, 1);
+
+        service.logInfo("taken");
+        assertTrue(target.blocked.await(5, TimeUnit.SECONDS));
+        service.logInfo("queued");
+        service.logWarning("not dropped");
+
+        // Written before the writer is released
+        assertEquals(List.of("not dropped"), target.warnings());
+        target.release.countDown();
+        service.close();
+    }
+
+    @Test
+    public void close_writesEveryMessageLoggedWhileClosing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            RecordingTarget target = new RecordingTarget();
+            AsyncNotificationService service = new AsyncNotificationService(target, 100_000);
+            int threads = 4;
+            int perThread = 2_000;
+            CountDownLatch started = new CountDownLatch(threads);
+            List<Thread> loggers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread logger = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < perThread; i++) {
+                        service.logInfo("message");
+                    }
+                });
+                logger.start();
+                loggers.add(logger);
+            }
+
+            started.await();
+            service.close();
+            for (Thread logger : loggers) {
+                logger.join();
+            }
+
+            assertEquals(threads * perThread, target.infos().size());
+        }
+    }
+
+    /**
+     * Target that keeps every message, optionally blocking the writer on the first info.
+     */
+    private static final class RecordingTarget implements INotificationService {
+        private final List<String> infos = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blockFirst;
+
+        void blockFirstInfo() {
+            blockFirst = true;
+        }
+
+        List<String> infos() {
+            synchronized (infos) {
+                return new ArrayList<>(infos);
+            }
+        }
+
+        List<String> warnings() {
+            synchronized (warnings) {
+                return new ArrayList<>(warnings);
+            }
+        }
+
+        @Override
+        public void logInfo(String message) {
+            infos.add(message);
+            if (blockFirst) {
+                blockFirst = false;
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void logWarning(String message) {
+            warnings.add(message);
+        }
+
+        @Override
+        public void logError(String message, Throwable throwable) {
+        }
+
+        @Override
+        public void logDebug(String message) {
+        }
+
+        @Override
+        public void notify(String title, String message, String type) {
+        }
+
+        @Override
+        public void notifyArbitrageOpportunity(ArbitrageResult opportunity) {
+        }
+
+        @Override
+        public void notifyArbitrageError(Throwable error) {
+        }
+    }
+}
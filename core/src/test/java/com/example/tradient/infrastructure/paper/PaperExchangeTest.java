@@ -0,0 +1,149 @@
+package com.example.tradient.infrastructure.paper;
+
+import com.example.tradient.util.MarketClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.tradient.infrastructure.paper.PriceLevelBookTest.book;
+import static org.junit.Assert.*;
+
+public class PaperExchangeTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private final List<Boolean> makerFills = new ArrayList<>();
+    private final List<PaperOrder> done = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MarketClock.useVirtualTime(START);
+    }
+
+    @After
+    public void tearDown() {
+        MarketClock.useSystemTime();
+    }
+
+    @Test
+    public void marketOrder_fillsAtTheTakerFee() {
+        PaperExchange exchange = exchange(0);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{99, 1}}, new double[][] {{100, 1}, {101, 1}}));
+
+        PaperOrder order = exchange.submitMarket("BTC/USDT", PaperOrder.Side.BUY, 2, 100);
+
+        assertEquals(PaperOrder.Status.FILLED, order.getStatus());
+        assertEquals(100.5, order.getAverageFillPrice(), 1e-12);
+        assertEquals(201 * 0.002, order.getFees(), 1e-12);
+        assertEquals(0.005, order.getSlippage(), 1e-12);
+        assertEquals(START, order.getCompletedAtMillis());
+        assertEquals(1, done.size());
+        assertFalse(makerFills.contains(true));
+    }
+
+    @Test
+    public void orders_matchTheBookAsItIsWhenTheyArrive() {
+        PaperExchange exchange = exchange(100);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{99, 1}}, new double[][] {{100, 1}}));
+
+        PaperOrder order = exchange.submitMarket("BTC/USDT", PaperOrder.Side.BUY, 1, 100);
+        assertEquals(PaperOrder.Status.PENDING, order.getStatus());
+        assertEquals(1, exchange.getInFlightCount());
+
+        // The market moves while the order travels
+        MarketClock.advanceTo(START + 50);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{101, 1}}, new double[][] {{102, 1}}));
+        assertEquals(PaperOrder.Status.PENDING, order.getStatus());
+
+        exchange.advanceTo(START + 100);
+
+        assertEquals(PaperOrder.Status.FILLED, order.getStatus());
+        assertEquals(102, order.getAverageFillPrice(), 1e-12);
+        assertEquals(START + 100, order.getCompletedAtMillis());
+    }
+
+    @Test
+    public void immediateOrCancel_cancelsTheUnfilledRest() {
+        PaperExchange exchange = exchange(0);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{99, 1}}, new double[][] {{100, 1}, {101, 1}}));
+
+        PaperOrder order = exchange.submitLimit("BTC/USDT", PaperOrder.Side.BUY, 2, 100,
+                PaperOrder.TimeInForce.IMMEDIATE_OR_CANCEL);
+
+        assertEquals(PaperOrder.Status.CANCELLED, order.getStatus());
+        assertEquals(1, order.getFilledQuantity(), 1e-12);
+        assertEquals(0, exchange.getOpenOrderCount());
+    }
+
+    @Test
+    public void goodTillCancelled_restsAndFillsAsMakerWhenTheMarketCrosses() {
+        PaperExchange exchange = exchange(0);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{99, 1}}, new double[][] {{101, 1}}));
+
+        PaperOrder order = exchange.submitLimit("BTC/USDT", PaperOrder.Side.SELL, 1, 100,
+                PaperOrder.TimeInForce.GOOD_TILL_CANCELLED);
+        assertEquals(PaperOrder.Status.OPEN, order.getStatus());
+        assertEquals(1, exchange.getOpenOrderCount());
+
+        MarketClock.advanceTo(START + 1000);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{100.5, 2}}, new double[][] {{101, 1}}));
+
+        assertEquals(PaperOrder.Status.FILLED, order.getStatus());
+        assertEquals(100, order.getAverageFillPrice(), 1e-12);
+        assertEquals(100 * 0.001, order.getFees(), 1e-12);
+        assertEquals(START + 1000, order.getCompletedAtMillis());
+        assertEquals(0, exchange.getOpenOrderCount());
+        assertTrue(makerFills.contains(true));
+    }
+
+    @Test
+    public void cancel_removesPendingAndRestingOrders() {
+        PaperExchange exchange = exchange(100);
+        exchange.onOrderBook("BTC/USDT", book(new double[][] {{99, 1}}, new double[][] {{101, 1}}));
+        PaperOrder pending = exchange.submitMarket("BTC/USDT", PaperOrder.Side.BUY, 1, 101);
+        PaperOrder resting = exchange.submitLimit("BTC/USDT", PaperOrder.Side.BUY, 1, 95,
+                PaperOrder.TimeInForce.GOOD_TILL_CANCELLED);
+        exchange.advanceTo(START + 100);
+
+        assertEquals(PaperOrder.Status.FILLED, pending.getStatus());
+        assertEquals(PaperOrder.Status.OPEN, resting.getStatus());
+        PaperOrder late = exchange.submitMarket("BTC/USDT", PaperOrder.Side.SELL, 1, 99);
+
+        assertEquals(2, exchange.cancelAll());
+        assertEquals(PaperOrder.Status.CANCELLED, resting.getStatus());
+        assertEquals(PaperOrder.Status.CANCELLED, late.getStatus());
+        assertFalse(exchange.cancel(resting));
+        assertEquals(0, exchange.getInFlightCount());
+        assertEquals(0, exchange.getOpenOrderCount());
+    }
+
+    @Test
+    public void ordersWithoutABook_areRejected() {
+        PaperExchange exchange = exchange(0);
+
+        PaperOrder order = exchange.submitMarket("ETH/USDT", PaperOrder.Side.BUY, 1, 2000);
+
+        assertEquals(PaperOrder.Status.REJECTED, order.getStatus());
+        assertEquals(0, order.getFilledQuantity(), 0);
+    }
+
+    private PaperExchange exchange(long latencyMillis) {
+        PaperExchange exchange = new PaperExchange("Binance", 0.001, 0.002, LatencyModel.fixed(latencyMillis), null);
+        exchange.setListener(new PaperOrderListener() {
+            @Override
+            public void onFill(PaperOrder order, double price, double quantity, boolean maker, long timeMillis) {
+                makerFills.add(maker);
+            }
+
+            @Override
+            public void onOrderDone(PaperOrder order) {
+                done.add(order);
+            }
+        });
+        return exchange;
+    }
+}
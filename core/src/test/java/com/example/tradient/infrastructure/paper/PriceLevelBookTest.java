@@ -0,0 +1,130 @@
+package com.example.tradient.infrastructure.paper;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PriceLevelBookTest {
+
+    private final PaperExchange exchange = new PaperExchange("Binance", 0.001, 0.002, LatencyModel.fixed(0), null);
+    private final PriceLevelBook book = new PriceLevelBook(exchange, "BTC/USDT");
+    private long nextId = 1;
+
+    @Test
+    public void take_walksTheLevelsUpToTheLimit() {
+        book.apply(book(new double[][] {{99, 1}, {98, 1}}, new double[][] {{100, 1}, {101, 1}, {102, 5}}));
+        PaperOrder order = limit(PaperOrder.Side.BUY, 3, 101);
+
+        book.take(order, 0);
+
+        assertEquals(2, order.getFilledQuantity(), 1e-12);
+        assertEquals(100.5, order.getAverageFillPrice(), 1e-12);
+        assertEquals(2, order.getFillCount());
+    }
+
+    @Test
+    public void take_depletesTheSnapshotUntilTheNextOne() {
+        OrderBook snapshot = book(new double[][] {{99, 1}}, new double[][] {{100, 1}, {101, 1}});
+        book.apply(snapshot);
+        PaperOrder first = market(PaperOrder.Side.BUY, 1);
+        PaperOrder second = market(PaperOrder.Side.BUY, 1);
+
+        book.take(first, 0);
+        book.take(second, 0);
+
+        assertEquals(100, first.getAverageFillPrice(), 1e-12);
+        // The first order took the best level, so the second one pays the next
+        assertEquals(101, second.getAverageFillPrice(), 1e-12);
+
+        book.apply(snapshot);
+        PaperOrder third = market(PaperOrder.Side.BUY, 1);
+        book.take(third, 0);
+        assertEquals(100, third.getAverageFillPrice(), 1e-12);
+    }
+
+    @Test
+    public void unsortedSnapshots_areSortedBestFirst() {
+        book.apply(book(new double[][] {{97, 1}, {99, 1}, {98, 1}}, new double[][] {{102, 1}, {100, 1}, {101, 1}}));
+        PaperOrder buy = market(PaperOrder.Side.BUY, 1);
+        PaperOrder sell = market(PaperOrder.Side.SELL, 1);
+
+        book.take(buy, 0);
+        book.take(sell, 0);
+
+        assertEquals(100, buy.getAverageFillPrice(), 1e-12);
+        assertEquals(99, sell.getAverageFillPrice(), 1e-12);
+    }
+
+    @Test
+    public void estimateSlippage_pricesBeyondTheDepthAtTheLastLevel() {
+        book.apply(book(new double[][] {{99, 1}}, new double[][] {{100, 1}, {102, 1}}));
+
+        // 1 at 100, 1 at 102 and 2 more priced at 102: average 101.5
+        assertEquals(0.015, book.estimateSlippage(true, 4, 100), 1e-12);
+        assertEquals(0, book.estimateSlippage(true, 1, 100), 1e-12);
+        // Nothing is taken by an estimate
+        PaperOrder order = market(PaperOrder.Side.BUY, 1);
+        book.take(order, 0);
+        assertEquals(100, order.getAverageFillPrice(), 1e-12);
+    }
+
+    @Test
+    public void restingOrders_fillInArrivalOrderAtTheirOwnPrice() {
+        book.apply(book(new double[][] {{99, 5}}, new double[][] {{101, 5}}));
+        PaperOrder first = limit(PaperOrder.Side.BUY, 1, 100);
+        PaperOrder second = limit(PaperOrder.Side.BUY, 1, 100);
+        book.rest(first);
+        book.rest(second);
+
+        // Only one unit trades through 100
+        book.apply(book(new double[][] {{98, 5}}, new double[][] {{99.5, 1}, {100.5, 5}}));
+        book.matchResting(0);
+
+        assertEquals(1, first.getFilledQuantity(), 1e-12);
+        assertEquals(100, first.getAverageFillPrice(), 1e-12);
+        assertEquals(PaperOrder.Status.FILLED, first.getStatus());
+        assertEquals(0, second.getFilledQuantity(), 1e-12);
+        assertEquals(1, book.getRestingCount());
+    }
+
+    @Test
+    public void remove_takesAnOrderOutOfItsLevel() {
+        PaperOrder order = limit(PaperOrder.Side.SELL, 1, 105);
+        book.rest(order);
+
+        assertTrue(book.remove(order));
+        assertFalse(book.remove(order));
+        assertEquals(0, book.getRestingCount());
+    }
+
+    private PaperOrder market(PaperOrder.Side side, double quantity) {
+        return new PaperOrder(nextId++, "Binance", "BTC/USDT", side, PaperOrder.Type.MARKET,
+                PaperOrder.TimeInForce.IMMEDIATE_OR_CANCEL, quantity, 0, 100, 0, 0);
+    }
+
+    private PaperOrder limit(PaperOrder.Side side, double quantity, double price) {
+        return new PaperOrder(nextId++, "Binance", "BTC/USDT", side, PaperOrder.Type.LIMIT,
+                PaperOrder.TimeInForce.GOOD_TILL_CANCELLED, quantity, price, price, 0, 0);
+    }
+
+    /**
+     * Order book from {price, size} pairs, in the order given.
+     */
+    static OrderBook book(double[][] bids, double[][] asks) {
+        return new OrderBook("BTC/USDT", entries(bids), entries(asks), 0L);
+    }
+
+    private static List<OrderBookEntry> entries(double[][] levels) {
+        List<OrderBookEntry> entries = new ArrayList<>();
+        for (double[] level : levels) {
+            entries.add(new OrderBookEntry(level[0], level[1]));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.tradient.infrastructure.recording;
+
+import com.example.tradient.data.model.OrderBook;
+import com.example.tradient.data.model.OrderBookEntry;
+import com.example.tradient.data.model.Ticker;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MarketDataRecorderTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recording_roundTripsAcrossSegmentRolls() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        MarketDataRecorder recorder = new MarketDataRecorder();
+        recorder.start(directory, SEGMENT_BYTES, 0, 5);
+
+        // A ticker record is 72 bytes, so 3000 of them fill several segments; a new
+        // symbol every 500 updates is defined in whichever segment is current by then
+        int updates = 3000;
+        for (int i = 0; i < updates; i++) {
+            recorder.recordTicker(exchange(i), symbol(i), ticker(i), MarketDataRecorder.Source.WEBSOCKET);
+        }
+        recorder.recordOrderBook("Kraken", "XBT/USD", book(), MarketDataRecorder.Source.REST);
+        recorder.stop();
+
+        assertEquals(0, recorder.getDroppedCount());
+        assertTrue(MarketDataReader.listSegments(directory).size() >= 3);
+
+        MarketDataReader reader = new MarketDataReader(directory);
+        for (int i = 0; i < updates; i++) {
+            MarketDataEvent event = reader.next();
+            assertNotNull("Update " + i + " missing", event);
+            assertEquals(MarketDataEvent.Type.TICKER, event.getType());
+            assertEquals(exchange(i), event.getExchangeName());
+            assertEquals(symbol(i), event.getSymbol());
+            assertEquals(100.0 + i, event.getBidPrice(), 0);
+            assertEquals(100.5 + i, event.getAskPrice(), 0);
+            assertEquals(MarketDataRecorder.Source.WEBSOCKET, event.getSource());
+        }
+
+        MarketDataEvent book = reader.next();
+        assertEquals(MarketDataEvent.Type.ORDER_BOOK, book.getType());
+        assertEquals("Kraken", book.getExchangeName());
+        assertEquals("XBT/USD", book.getSymbol());
+        assertEquals(2, book.getBidLevels());
+        assertEquals(99.0, book.getBidPrice(1), 0);
+        assertEquals(3.0, book.getAskSize(0), 0);
+        assertEquals(MarketDataRecorder.Source.REST, book.getSource());
+
+        assertNull(reader.next());
+        assertEquals(0, reader.getSkippedSegments());
+    }
+
+    @Test
+    public void retention_keepsTheNewestSegments() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        MarketDataRecorder recorder = new MarketDataRecorder();
+        recorder.start(directory, SEGMENT_BYTES, 2, 5);
+
+        for (int i = 0; i < 5000; i++) {
+            recorder.recordTicker("Binance", "BTCUSDT", ticker(i), MarketDataRecorder.Source.WEBSOCKET);
+        }
+        recorder.stop();
+
+        // Expired segments are deleted in the background
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (MarketDataReader.listSegments(directory).size() > 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, MarketDataReader.listSegments(directory).size());
+        assertEquals(MarketDataRecorder.segmentIndex(MarketDataReader.listSegments(directory).get(0)) + 1,
+                MarketDataRecorder.segmentIndex(MarketDataReader.listSegments(directory).get(1)));
+    }
+
+    private static String exchange(int i) {
+        return i % 2 == 0 ? "Binance" : "OKX";
+    }
+
+    private static String symbol(int i) {
+        return "SYM" + (i / 500) + "/USDT";
+    }
+
+    private static Ticker ticker(int i) {
+        Ticker ticker = new Ticker(100.0 + i, 100.5 + i, 100.25 + i, 10.0, null);
+        ticker.setBidAmount(1.0);
+        ticker.setAskAmount(2.0);
+        return ticker;
+    }
+
+    private static OrderBook book() {
+        return new OrderBook("XBT/USD",
+                Arrays.asList(new OrderBookEntry(100.0, 1.0), new OrderBookEntry(99.0, 2.0)),
+                Arrays.asList(new OrderBookEntry(101.0, 3.0)), 0L);
+    }
+}
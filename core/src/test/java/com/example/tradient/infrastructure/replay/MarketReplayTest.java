@@ -0,0 +1,98 @@
+package com.example.tradient.infrastructure.replay;
+
+import com.example.tradient.data.model.ArbitrageOpportunity;
+import com.example.tradient.data.model.RiskAssessment;
+import com.example.tradient.data.model.Ticker;
+import com.example.tradient.domain.risk.RollingVolatilityEstimator;
+import com.example.tradient.infrastructure.recording.MarketDataReader;
+import com.example.tradient.infrastructure.recording.MarketDataRecorder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class MarketReplayTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameRecording_replaysToTheSameOpportunities() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        record(directory);
+
+        List<String> first = replay(directory);
+        assertFalse(first.isEmpty());
+
+        // Live feeds keep writing newer prices to the shared estimator between replays
+        long now = System.currentTimeMillis();
+        RollingVolatilityEstimator estimator = RollingVolatilityEstimator.getInstance();
+        for (int i = 1; i <= 20; i++) {
+            double price = i % 2 == 0 ? 90.0 : 110.0;
+            estimator.onTrade("Binance", "BTCUSDT", price, now + i * 1000L);
+            estimator.onTrade("OKX", "BTC-USDT", price, now + i * 1000L);
+        }
+
+        assertEquals(first, replay(directory));
+    }
+
+    /**
+     * Record a spread between two exchanges that opens and closes every few updates.
+     */
+    private static void record(Path directory) throws IOException, InterruptedException {
+        MarketDataRecorder recorder = MarketDataRecorder.getInstance();
+        recorder.start(directory, 64 * 1024, 0, 5);
+        for (int i = 0; i < 30; i++) {
+            recorder.recordTicker("Binance", "BTCUSDT", ticker(99.9, 100.0), MarketDataRecorder.Source.WEBSOCKET);
+            double okxBid = (i / 5) % 2 == 0 ? 102.0 : 100.0;
+            recorder.recordTicker("OKX", "BTC-USDT", ticker(okxBid, okxBid + 0.1), MarketDataRecorder.Source.WEBSOCKET);
+            // Give every update its own recorded millisecond, so lifetimes are not all zero
+            Thread.sleep(2);
+        }
+        recorder.stop();
+    }
+
+    /**
+     * @return One line per opportunity, with its legs, lifetime and risk
+     */
+    private static List<String> replay(Path directory) throws IOException, InterruptedException {
+        List<String> closed = new ArrayList<>();
+        MarketReplay replay = new MarketReplay.Builder(new MarketDataReader(directory))
+                .setMinProfitPercent(0.1)
+                .setListener(new ReplayListener() {
+                    @Override
+                    public void onOpportunityOpened(ReplayOpportunity opportunity) {
+                    }
+
+                    @Override
+                    public void onOpportunityClosed(ReplayOpportunity opportunity) {
+                        ArbitrageOpportunity opened = opportunity.getOpportunity();
+                        RiskAssessment risk = opened.getRiskAssessment();
+                        closed.add(String.format(Locale.ROOT,
+                                "%s %s->%s at %d for %d ms, %.6f%%, risk %.6f, volatility %.6f",
+                                opened.getNormalizedSymbol(), opened.getExchangeBuy(), opened.getExchangeSell(),
+                                opportunity.getOpenedAtMillis(), opportunity.getLifetimeMillis(),
+                                opportunity.getOpeningProfitPercent(), risk.getOverallRiskScore(),
+                                risk.getVolatilityScore()));
+                    }
+                })
+                .build();
+        replay.run();
+        return closed;
+    }
+
+    private static Ticker ticker(double bid, double ask) {
+        Ticker ticker = new Ticker(bid, ask, (bid + ask) / 2, 1_000_000.0, null);
+        ticker.setBidAmount(10.0);
+        ticker.setAskAmount(10.0);
+        return ticker;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.tradient.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleRingBufferTest {
+
+    @Test
+    public void fullBuffer_keepsTheNewestValuesOldestFirst() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(4);
+        for (int i = 1; i <= 6; i++) {
+            buffer.add(i);
+        }
+
+        assertTrue(buffer.isFull());
+        assertEquals(4, buffer.size());
+        assertArrayEquals(new double[] {3, 4, 5, 6}, buffer.toArray(), 0);
+        assertEquals(6.0, buffer.last(), 0);
+        assertEquals(18.0, buffer.sum(), 0);
+    }
+
+    @Test
+    public void runningMeans_matchTheWindows() {
+        int capacity = 50;
+        int shortWindow = 7;
+        DoubleRingBuffer buffer = new DoubleRingBuffer(capacity, shortWindow);
+        Random random = new Random(42);
+        double[] added = new double[1000];
+
+        for (int i = 0; i < added.length; i++) {
+            added[i] = random.nextDouble() * 100 - 50;
+            buffer.add(added[i]);
+
+            int n = Math.min(i + 1, capacity);
+            assertEquals("mean after " + (i + 1), meanOf(added, i + 1 - n, i + 1), buffer.mean(), 1e-9);
+            int recent = Math.min(i + 1, shortWindow);
+            assertEquals("short-term mean after " + (i + 1),
+                    meanOf(added, i + 1 - recent, i + 1), buffer.shortTermMean(), 1e-9);
+        }
+    }
+
+    @Test
+    public void median_ofOddAndEvenCounts() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(10);
+        assertEquals(0.0, buffer.median(), 0);
+
+        buffer.add(5);
+        buffer.add(1);
+        buffer.add(3);
+        assertEquals(3.0, buffer.median(), 0);
+
+        buffer.add(10);
+        assertEquals(4.0, buffer.median(), 0);
+        // Sorting for the median leaves the buffer in insertion order
+        assertArrayEquals(new double[] {5, 1, 3, 10}, buffer.toArray(), 0);
+    }
+
+    @Test
+    public void clear_emptiesTheWindows() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(3, 2);
+        buffer.add(1);
+        buffer.add(2);
+        buffer.clear();
+
+        assertEquals(0, buffer.size());
+        assertEquals(0.0, buffer.mean(), 0);
+        assertEquals(0.0, buffer.shortTermMean(), 0);
+        assertEquals(0.0, buffer.last(), 0);
+
+        buffer.add(7);
+        assertEquals(7.0, buffer.shortTermMean(), 0);
+        assertArrayEquals(new double[] {7}, buffer.toArray(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity_isRejected() {
+        new DoubleRingBuffer(0);
+    }
+
+    private static double meanOf(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
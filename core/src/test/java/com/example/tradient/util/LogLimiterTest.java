@@ -0,0 +1,64 @@
+package com.example.tradient.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LogLimiterTest {
+
+    @Test
+    public void rate_letsThroughTheMaximumPerInterval() {
+        LogLimiter limiter = LogLimiter.rate(3, 60_000);
+
+        int logged = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire()) {
+                logged++;
+            }
+        }
+
+        assertEquals(3, logged);
+        assertEquals(7, limiter.takeSuppressed());
+        assertEquals(0, limiter.takeSuppressed());
+    }
+
+    @Test
+    public void rate_startsOverInTheNextInterval() throws InterruptedException {
+        LogLimiter limiter = LogLimiter.rate(1, 20);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        Thread.sleep(40);
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void sample_letsThroughEveryNth() {
+        LogLimiter limiter = LogLimiter.sample(4);
+
+        StringBuilder pattern = new StringBuilder();
+        for (int i = 0; i < 9; i++) {
+            pattern.append(limiter.tryAcquire() ? 'x' : '.');
+        }
+
+        assertEquals("x...x...x", pattern.toString());
+        assertEquals(6, limiter.takeSuppressed());
+    }
+
+    @Test
+    public void nextLineLetThrough_reportsTheSuppressedCount() {
+        LogLimiter limiter = LogLimiter.rate(1, 60_000);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        assertEquals("stale ticker (2 similar suppressed)", AppLog.limited(limiter, "stale ticker"));
+        assertEquals("stale ticker", AppLog.limited(limiter, "stale ticker"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveLimits_areRejected() {
+        LogLimiter.rate(0, 1000);
+    }
+}
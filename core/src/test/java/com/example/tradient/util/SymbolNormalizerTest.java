@@ -0,0 +1,65 @@
+package com.example.tradient.util;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class SymbolNormalizerTest {
+
+    @Test
+    public void exchangeFormats_mapToTheSameKey() {
+        assertEquals("BTC/USDT", SymbolNormalizer.normalize("BTCUSDT"));
+        assertEquals("BTC/USDT", SymbolNormalizer.normalize("BTC-USDT"));
+        assertEquals("BTC/USDT", SymbolNormalizer.normalize("btc_usdt"));
+        assertEquals("BTC/USDT", SymbolNormalizer.normalize("BTC/USDT"));
+    }
+
+    @Test
+    public void xbt_isMappedToBtcOnEitherSide() {
+        assertEquals("BTC/USD", SymbolNormalizer.normalize("XBT/USD"));
+        assertEquals("BTC/USD", SymbolNormalizer.normalize("XBTUSD"));
+        assertEquals("BTC/USDT", SymbolNormalizer.normalize("XBT-USDT"));
+        assertEquals("ETH/BTC", SymbolNormalizer.normalize("ETH/XBT"));
+    }
+
+    @Test
+    public void repeatedLookups_returnTheCachedInstance() {
+        assertSame(SymbolNormalizer.normalize("SOLUSDT"), SymbolNormalizer.normalize("SOLUSDT"));
+    }
+
+    @Test
+    public void defaultLocale_doesNotChangeTheSymbol() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            // A Turkish locale would upper-case the i of LINK to a dotted I
+            assertEquals("LINK/USDT", SymbolNormalizer.normalize("link-usdt"));
+            assertEquals("LINK/USDT", SymbolNormalizer.normalize("link/usdt"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void cache_stopsGrowingAtItsLimit() {
+        try {
+            for (int i = 0; i < SymbolNormalizer.MAX_CACHED_SYMBOLS + 100; i++) {
+                SymbolNormalizer.normalize("T" + i + "USDT");
+            }
+
+            assertEquals(SymbolNormalizer.MAX_CACHED_SYMBOLS, SymbolNormalizer.cacheSize());
+            assertEquals("T999999/USDT", SymbolNormalizer.normalize("T999999USDT"));
+        } finally {
+            // Leave room for the symbols of the other tests
+            SymbolNormalizer.clearCache();
+        }
+    }
+
+    @Test
+    public void nullOrEmpty_isEmpty() {
+        assertEquals("", SymbolNormalizer.normalize(null));
+        assertEquals("", SymbolNormalizer.normalize(""));
+    }
+}
@@ -22,4 +22,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "Tradient"
 include(":app")
- 
\ No newline at end of file
+include(":core")
+include(":benchmarks")
+include(":simulator")
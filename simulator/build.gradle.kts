@@ -0,0 +1,25 @@
+plugins {
+    application
+}
+
+// Local exchange simulator for load testing the scanner without the real exchanges.
+// Serves Binance, Coinbase, Kraken, Bybit and OKX REST and WebSocket market data from one port:
+//   ./gradlew :simulator:run --args="--symbols 500 --rate 10 --write-config config/simulator"
+//   ./gradlew :core:runScanner --args="--env simulator"
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":core"))
+    implementation("com.squareup.okhttp3:mockwebserver:4.10.0")
+}
+
+application {
+    mainClass.set("com.example.tradient.simulator.ExchangeSimulatorMain")
+}
+
+tasks.named<JavaExec>("run") {
+    workingDir = rootDir
+}
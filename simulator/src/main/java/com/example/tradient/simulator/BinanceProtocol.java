@@ -0,0 +1,345 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.simulator.SimulatedMarket.Book;
+import com.example.tradient.simulator.SimulatedMarket.Instrument;
+import com.example.tradient.simulator.SimulatedMarket.Quote;
+import com.example.tradient.simulator.SimulatorSession.Channel;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * Binance spot: REST under {@code /api/v3} and raw streams under {@code /ws}.
+ * <p>
+ * Streams are named in the path ({@code /ws/btcusdt@bookTicker/ethusdt@depth20}), as
+ * BinanceWebSocketProvider connects, or subscribed to with a {@code SUBSCRIBE} request.
+ * {@code <symbol>@bookTicker} publishes the best bid and ask, {@code <symbol>@depth<N>}
+ * the top N levels of the book.
+ */
+final class BinanceProtocol extends ExchangeProtocol {
+
+    private static final int DEFAULT_DEPTH_LIMIT = 100;
+    private static final int DEFAULT_KLINE_LIMIT = 500;
+    private static final int MAX_KLINE_LIMIT = 1000;
+
+    private volatile String exchangeInfo;
+
+    BinanceProtocol(int exchangeIndex, SimulatedMarket market, SimulatorSettings settings,
+                    SimulatorStats.ExchangeStats stats) {
+        super("binance", exchangeIndex, market, settings, stats);
+    }
+
+    @Override
+    String symbol(Instrument instrument) {
+        return instrument.base + instrument.quote;
+    }
+
+    @Override
+    String webSocketPath() {
+        return "/ws";
+    }
+
+    @Override
+    String rateLimitBody() {
+        return "{\"code\":-1003,\"msg\":\"Too many requests.\"}";
+    }
+
+    @Override
+    String serverErrorBody() {
+        return "{\"code\":-1001,\"msg\":\"Internal error; unable to process your request. Please try again.\"}";
+    }
+
+    @Override
+    MockResponse handleRest(String path, HttpUrl url) {
+        switch (path) {
+            case "/api/v3/ping":
+                return json("{}");
+            case "/api/v3/time":
+                return json("{\"serverTime\":" + System.currentTimeMillis() + "}");
+            case "/api/v3/exchangeInfo":
+                return json(exchangeInfo());
+            case "/api/v3/ticker/bookTicker":
+                return tickers(url, false);
+            case "/api/v3/ticker/24hr":
+                return tickers(url, true);
+            case "/api/v3/depth":
+                return depth(url);
+            case "/api/v3/klines":
+                return klines(url);
+            default:
+                return null;
+        }
+    }
+
+    private String exchangeInfo() {
+        // Listings never change, so the response is built once
+        String info = exchangeInfo;
+        if (info == null) {
+            StringBuilder out = new StringBuilder(256 * instruments().size());
+            out.append("{\"timezone\":\"UTC\",\"serverTime\":").append(System.currentTimeMillis())
+                    .append(",\"rateLimits\":[],\"exchangeFilters\":[],\"symbols\":[");
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                out.append("{\"symbol\":\"").append(symbol(instrument))
+                        .append("\",\"status\":\"TRADING\",\"baseAsset\":\"").append(instrument.base)
+                        .append("\",\"baseAssetPrecision\":8,\"quoteAsset\":\"").append(instrument.quote)
+                        .append("\",\"quotePrecision\":8,\"quoteAssetPrecision\":8")
+                        .append(",\"isSpotTradingAllowed\":true,\"filters\":[{\"filterType\":\"PRICE_FILTER\",\"minPrice\":");
+                appendPrice(out, instrument, instrument.tick)
+                        .append(",\"maxPrice\":\"1000000.00\",\"tickSize\":");
+                appendPrice(out, instrument, instrument.tick)
+                        .append("},{\"filterType\":\"LOT_SIZE\",\"minQty\":");
+                appendSize(out, instrument, instrument.sizeUnit).append(",\"maxQty\":\"9000000\",\"stepSize\":");
+                appendSize(out, instrument, instrument.sizeUnit).append("}]}");
+            }
+            info = out.append("]}").toString();
+            exchangeInfo = info;
+        }
+        return info;
+    }
+
+    /**
+     * Book tickers or 24h tickers, of one symbol or of all symbols without a symbol parameter.
+     */
+    private MockResponse tickers(HttpUrl url, boolean daily) {
+        String symbol = url.queryParameter("symbol");
+        StringBuilder out = new StringBuilder();
+        if (symbol != null) {
+            Instrument instrument = instrument(symbol);
+            if (instrument == null) {
+                return invalidSymbol();
+            }
+            appendTicker(out, quote(instrument), daily);
+            return json(out);
+        }
+        out.append('[');
+        for (Instrument instrument : instruments()) {
+            if (instrument.index > 0) {
+                out.append(',');
+            }
+            appendTicker(out, quote(instrument), daily);
+        }
+        return json(out.append(']'));
+    }
+
+    private void appendTicker(StringBuilder out, Quote quote, boolean daily) {
+        Instrument instrument = quote.instrument;
+        out.append("{\"symbol\":\"").append(symbol(instrument)).append('"');
+        if (daily) {
+            out.append(",\"priceChange\":");
+            appendPrice(out, instrument, quote.last - quote.open24h).append(",\"priceChangePercent\":\"");
+            appendDecimal(out, 100 * (quote.last / quote.open24h - 1), 3).append("\",\"prevClosePrice\":");
+            appendPrice(out, instrument, quote.open24h).append(",\"lastPrice\":");
+            appendPrice(out, instrument, quote.last).append(",\"lastQty\":");
+            appendSize(out, instrument, quote.lastSize).append(",\"openPrice\":");
+            appendPrice(out, instrument, quote.open24h).append(",\"highPrice\":");
+            appendPrice(out, instrument, quote.high24h).append(",\"lowPrice\":");
+            appendPrice(out, instrument, quote.low24h).append(",\"volume\":");
+            appendSize(out, instrument, quote.volume24h).append(",\"quoteVolume\":\"");
+            appendDecimal(out, quote.volume24h * quote.last, 2).append('"');
+        }
+        out.append(",\"bidPrice\":");
+        appendPrice(out, instrument, quote.bid).append(",\"bidQty\":");
+        appendSize(out, instrument, quote.bidSize).append(",\"askPrice\":");
+        appendPrice(out, instrument, quote.ask).append(",\"askQty\":");
+        appendSize(out, instrument, quote.askSize);
+        if (daily) {
+            out.append(",\"openTime\":").append(quote.timestamp - TimeUnit.DAYS.toMillis(1))
+                    .append(",\"closeTime\":").append(quote.timestamp)
+                    .append(",\"count\":").append(quote.trades24h);
+        }
+        out.append('}');
+    }
+
+    private MockResponse depth(HttpUrl url) {
+        Instrument instrument = instrument(url.queryParameter("symbol"));
+        if (instrument == null) {
+            return invalidSymbol();
+        }
+        Quote quote = quote(instrument);
+        int limit = Math.max(1, intParameter(url, "limit", DEFAULT_DEPTH_LIMIT));
+        Book book = book(quote, limit);
+        StringBuilder out = bookBuilder(limit);
+        out.append("{\"lastUpdateId\":").append(quote.sequence).append(",\"bids\":");
+        appendBids(out, book, instrument, limit, "").append(",\"asks\":");
+        appendAsks(out, book, instrument, limit, "");
+        return json(out.append('}'));
+    }
+
+    /**
+     * Hourly or other candles up to the current price, walking back from it with the
+     * configured volatility. The same request gives the same candles.
+     */
+    private MockResponse klines(HttpUrl url) {
+        Instrument instrument = instrument(url.queryParameter("symbol"));
+        if (instrument == null) {
+            return invalidSymbol();
+        }
+        long intervalMillis = intervalMillis(url.queryParameter("interval"));
+        if (intervalMillis <= 0) {
+            return json(400, "{\"code\":-1120,\"msg\":\"Invalid interval.\"}");
+        }
+        int limit = Math.max(1, Math.min(MAX_KLINE_LIMIT, intParameter(url, "limit", DEFAULT_KLINE_LIMIT)));
+        Quote quote = quote(instrument);
+        long end = Math.min(longParameter(url, "endTime", quote.timestamp), quote.timestamp);
+        long lastOpen = end - end % intervalMillis;
+
+        double[] open = new double[limit];
+        double[] close = new double[limit];
+        double price = quote.last;
+        double volatility = settings.getVolatility() * Math.sqrt(intervalMillis / 1000.0);
+        Random random = new Random(instrument.index * 31L + lastOpen);
+        for (int i = limit - 1; i >= 0; i--) {
+            close[i] = price;
+            price /= Math.exp(volatility * random.nextGaussian());
+            open[i] = price;
+        }
+
+        double volumePerCandle = instrument.dailyVolume * intervalMillis / TimeUnit.DAYS.toMillis(1);
+        StringBuilder out = new StringBuilder(160 * limit).append('[');
+        for (int i = 0; i < limit; i++) {
+            long openTime = lastOpen - (limit - 1 - i) * intervalMillis;
+            double range = Math.abs(close[i] - open[i]) + instrument.tick;
+            double volume = volumePerCandle * (0.5 + random.nextDouble());
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append('[').append(openTime).append(',');
+            appendPrice(out, instrument, open[i]).append(',');
+            appendPrice(out, instrument, Math.max(open[i], close[i]) + range * random.nextDouble()).append(',');
+            appendPrice(out, instrument, Math.min(open[i], close[i]) - range * random.nextDouble()).append(',');
+            appendPrice(out, instrument, close[i]).append(',');
+            appendSize(out, instrument, volume).append(',').append(openTime + intervalMillis - 1).append(",\"");
+            appendDecimal(out, volume * close[i], 2).append("\",").append(100 + random.nextInt(1000))
+                    .append(",\"0\",\"0\",\"0\"]");
+        }
+        return json(out.append(']'));
+    }
+
+    private static long intervalMillis(String interval) {
+        if (interval == null || interval.length() < 2) {
+            return 0;
+        }
+        long count;
+        try {
+            count = Long.parseLong(interval.substring(0, interval.length() - 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        switch (interval.charAt(interval.length() - 1)) {
+            case 'm':
+                return TimeUnit.MINUTES.toMillis(count);
+            case 'h':
+                return TimeUnit.HOURS.toMillis(count);
+            case 'd':
+                return TimeUnit.DAYS.toMillis(count);
+            case 'w':
+                return TimeUnit.DAYS.toMillis(7 * count);
+            default:
+                return 0;
+        }
+    }
+
+    private static MockResponse invalidSymbol() {
+        return json(400, "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+    }
+
+    @Override
+    void onOpen(SimulatorSession session, String path) {
+        // Streams named in the path: /ws/btcusdt@bookTicker/ethusdt@depth20
+        String prefix = webSocketPath() + "/";
+        if (path.startsWith(prefix)) {
+            for (String stream : path.substring(prefix.length()).split("/")) {
+                if (!stream.isEmpty()) {
+                    subscribe(session, stream, true);
+                }
+            }
+        }
+    }
+
+    @Override
+    void onMessage(SimulatorSession session, String text) {
+        JsonNode request = parse(text);
+        if (request == null || !request.path("method").isTextual()) {
+            session.send("{\"error\":{\"code\":2,\"msg\":\"Invalid request\"},\"id\":null}");
+            return;
+        }
+        String method = request.path("method").asText();
+        String id = request.path("id").isMissingNode() ? "null" : request.path("id").toString();
+        if (!"SUBSCRIBE".equals(method) && !"UNSUBSCRIBE".equals(method)) {
+            session.send("{\"error\":{\"code\":2,\"msg\":\"Unknown method\"},\"id\":" + id + "}");
+            return;
+        }
+        boolean subscribe = "SUBSCRIBE".equals(method);
+        for (JsonNode stream : request.path("params")) {
+            if (!subscribe(session, stream.asText(), subscribe)) {
+                session.send("{\"error\":{\"code\":2,\"msg\":\"Invalid stream " + stream.asText() + "\"},\"id\":" + id + "}");
+                return;
+            }
+        }
+        session.send("{\"result\":null,\"id\":" + id + "}");
+    }
+
+    /**
+     * Subscribe to or unsubscribe from a stream such as btcusdt@bookTicker.
+     *
+     * @return false if the stream does not exist
+     */
+    private boolean subscribe(SimulatorSession session, String stream, boolean subscribe) {
+        int at = stream.indexOf('@');
+        if (at <= 0) {
+            return false;
+        }
+        Instrument instrument = instrument(stream.substring(0, at).toUpperCase(Locale.ROOT));
+        if (instrument == null) {
+            return false;
+        }
+        String name = stream.substring(at + 1);
+        Channel channel;
+        if ("bookTicker".equals(name)) {
+            channel = Channel.TICKER;
+        } else if (name.startsWith("depth5") || name.startsWith("depth10") || name.startsWith("depth20")) {
+            channel = Channel.BOOK;
+            // depth20 and depth20@100ms
+            int end = name.indexOf('@');
+            session.setBookDepth(Integer.parseInt(name.substring("depth".length(), end > 0 ? end : name.length())));
+        } else {
+            return false;
+        }
+        if (subscribe) {
+            session.subscribe(channel, instrument.index);
+        } else {
+            session.unsubscribe(channel, instrument.index);
+        }
+        return true;
+    }
+
+    @Override
+    String tickerMessage(Quote quote) {
+        Instrument instrument = quote.instrument;
+        StringBuilder out = new StringBuilder(160);
+        out.append("{\"u\":").append(quote.sequence).append(",\"s\":\"").append(symbol(instrument)).append("\",\"b\":");
+        appendPrice(out, instrument, quote.bid).append(",\"B\":");
+        appendSize(out, instrument, quote.bidSize).append(",\"a\":");
+        appendPrice(out, instrument, quote.ask).append(",\"A\":");
+        appendSize(out, instrument, quote.askSize);
+        return out.append('}').toString();
+    }
+
+    @Override
+    String bookMessage(Quote quote, int depth) {
+        Book book = book(quote, depth);
+        StringBuilder out = bookBuilder(depth);
+        out.append("{\"lastUpdateId\":").append(quote.sequence).append(",\"bids\":");
+        appendBids(out, book, quote.instrument, depth, "").append(",\"asks\":");
+        appendAsks(out, book, quote.instrument, depth, "");
+        return out.append('}').toString();
+    }
+}
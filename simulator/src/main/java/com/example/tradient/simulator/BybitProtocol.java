@@ -0,0 +1,280 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.simulator.SimulatedMarket.Book;
+import com.example.tradient.simulator.SimulatedMarket.Instrument;
+import com.example.tradient.simulator.SimulatedMarket.Quote;
+import com.example.tradient.simulator.SimulatorSession.Channel;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * Bybit V5 spot: REST under {@code /v5/market} and the public spot stream at
+ * {@code /v5/public/spot}.
+ * <p>
+ * Topics are {@code tickers.<symbol>} and {@code orderbook.<depth>.<symbol>}. Every
+ * order book message is a {@code snapshot} of the top levels, which is what
+ * BybitWebSocketProvider expects; Bybit itself sends deltas after the first snapshot.
+ */
+final class BybitProtocol extends ExchangeProtocol {
+
+    private static final int DEFAULT_ORDERBOOK_LIMIT = 1;
+    // The all-tickers list is rebuilt at most this often, as the exchange caches it too
+    private static final long TICKERS_CACHE_MILLIS = 100;
+
+    private final AtomicLong connectionIds = new AtomicLong();
+    private volatile String instrumentsInfo;
+    private volatile String allTickers;
+    private volatile long allTickersBuiltAt;
+
+    BybitProtocol(int exchangeIndex, SimulatedMarket market, SimulatorSettings settings,
+                  SimulatorStats.ExchangeStats stats) {
+        super("bybit", exchangeIndex, market, settings, stats);
+    }
+
+    @Override
+    String symbol(Instrument instrument) {
+        return instrument.base + instrument.quote;
+    }
+
+    @Override
+    String webSocketPath() {
+        return "/v5/public/spot";
+    }
+
+    @Override
+    String rateLimitBody() {
+        return response(10006, "Too many visits!", "{}");
+    }
+
+    @Override
+    String serverErrorBody() {
+        return response(10016, "Server error.", "{}");
+    }
+
+    @Override
+    MockResponse handleRest(String path, HttpUrl url) {
+        if ("/v5/market/time".equals(path)) {
+            long now = System.currentTimeMillis();
+            return json(response(0, "OK", "{\"timeSecond\":\"" + now / 1000 + "\",\"timeNano\":\""
+                    + now * 1_000_000 + "\"}"));
+        }
+        if (!path.startsWith("/v5/market/")) {
+            return null;
+        }
+        if (!"spot".equals(url.queryParameter("category"))) {
+            return json(response(10001, "params error: category only support spot", "{}"));
+        }
+        switch (path) {
+            case "/v5/market/instruments-info":
+                return instrumentsInfo(url);
+            case "/v5/market/tickers":
+                return tickers(url);
+            case "/v5/market/orderbook":
+                return orderbook(url);
+            default:
+                return null;
+        }
+    }
+
+    private static String response(int retCode, String retMsg, String result) {
+        return "{\"retCode\":" + retCode + ",\"retMsg\":\"" + retMsg + "\",\"result\":" + result
+                + ",\"retExtInfo\":{},\"time\":" + System.currentTimeMillis() + "}";
+    }
+
+    private static MockResponse invalidSymbol() {
+        return json(response(10001, "params error: Symbol Invalid", "{}"));
+    }
+
+    private MockResponse instrumentsInfo(HttpUrl url) {
+        String symbol = url.queryParameter("symbol");
+        if (symbol != null) {
+            Instrument instrument = instrument(symbol);
+            if (instrument == null) {
+                return invalidSymbol();
+            }
+            StringBuilder out = new StringBuilder(300).append("{\"category\":\"spot\",\"list\":[");
+            appendInstrument(out, instrument);
+            return json(response(0, "OK", out.append("]}").toString()));
+        }
+        String info = instrumentsInfo;
+        if (info == null) {
+            StringBuilder out = new StringBuilder(300 * instruments().size()).append("{\"category\":\"spot\",\"list\":[");
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                appendInstrument(out, instrument);
+            }
+            info = out.append("]}").toString();
+            instrumentsInfo = info;
+        }
+        return json(response(0, "OK", info));
+    }
+
+    private void appendInstrument(StringBuilder out, Instrument instrument) {
+        out.append("{\"symbol\":\"").append(symbol(instrument))
+                .append("\",\"baseCoin\":\"").append(instrument.base)
+                .append("\",\"quoteCoin\":\"").append(instrument.quote)
+                .append("\",\"innovation\":\"0\",\"status\":\"Trading\",\"marginTrading\":\"none\","
+                        + "\"lotSizeFilter\":{\"basePrecision\":");
+        appendSize(out, instrument, instrument.sizeUnit).append(",\"minOrderQty\":");
+        appendSize(out, instrument, instrument.sizeUnit).append("},\"priceFilter\":{\"tickSize\":");
+        appendPrice(out, instrument, instrument.tick).append("}}");
+    }
+
+    private MockResponse tickers(HttpUrl url) {
+        String symbol = url.queryParameter("symbol");
+        if (symbol != null) {
+            Instrument instrument = instrument(symbol);
+            if (instrument == null) {
+                return invalidSymbol();
+            }
+            StringBuilder out = new StringBuilder(400).append("{\"category\":\"spot\",\"list\":[");
+            appendTicker(out, quote(instrument));
+            return json(response(0, "OK", out.append("]}").toString()));
+        }
+
+        // BybitV5ExchangeService fetches the whole list for every ticker it needs
+        long now = System.currentTimeMillis();
+        String tickers = allTickers;
+        if (tickers == null || now - allTickersBuiltAt >= TICKERS_CACHE_MILLIS) {
+            StringBuilder out = new StringBuilder(400 * instruments().size()).append("{\"category\":\"spot\",\"list\":[");
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                appendTicker(out, quote(instrument));
+            }
+            tickers = out.append("]}").toString();
+            allTickers = tickers;
+            allTickersBuiltAt = now;
+        }
+        return json(response(0, "OK", tickers));
+    }
+
+    private void appendTicker(StringBuilder out, Quote quote) {
+        Instrument instrument = quote.instrument;
+        out.append("{\"symbol\":\"").append(symbol(instrument)).append("\",\"bid1Price\":");
+        appendPrice(out, instrument, quote.bid).append(",\"bid1Size\":");
+        appendSize(out, instrument, quote.bidSize).append(",\"ask1Price\":");
+        appendPrice(out, instrument, quote.ask).append(",\"ask1Size\":");
+        appendSize(out, instrument, quote.askSize).append(",\"lastPrice\":");
+        appendPrice(out, instrument, quote.last).append(",\"prevPrice24h\":");
+        appendPrice(out, instrument, quote.open24h).append(",\"price24hPcnt\":\"");
+        appendDecimal(out, quote.last / quote.open24h - 1, 4).append("\",\"highPrice24h\":");
+        appendPrice(out, instrument, quote.high24h).append(",\"lowPrice24h\":");
+        appendPrice(out, instrument, quote.low24h).append(",\"turnover24h\":\"");
+        appendDecimal(out, quote.volume24h * quote.last, 2).append("\",\"volume24h\":");
+        appendSize(out, instrument, quote.volume24h).append('}');
+    }
+
+    private MockResponse orderbook(HttpUrl url) {
+        Instrument instrument = instrument(url.queryParameter("symbol"));
+        if (instrument == null) {
+            return invalidSymbol();
+        }
+        Quote quote = quote(instrument);
+        int limit = Math.max(1, intParameter(url, "limit", DEFAULT_ORDERBOOK_LIMIT));
+        StringBuilder out = bookBuilder(limit);
+        appendBook(out, quote, limit);
+        return json(response(0, "OK", out.toString()));
+    }
+
+    private void appendBook(StringBuilder out, Quote quote, int depth) {
+        Instrument instrument = quote.instrument;
+        Book book = book(quote, depth);
+        out.append("{\"s\":\"").append(symbol(instrument)).append("\",\"b\":");
+        appendBids(out, book, instrument, depth, "").append(",\"a\":");
+        appendAsks(out, book, instrument, depth, "").append(",\"ts\":").append(quote.timestamp)
+                .append(",\"u\":").append(quote.sequence).append(",\"seq\":").append(quote.sequence).append('}');
+    }
+
+    @Override
+    void onOpen(SimulatorSession session, String path) {
+        session.setConnectionId("sim-bybit-" + connectionIds.incrementAndGet());
+    }
+
+    @Override
+    void onMessage(SimulatorSession session, String text) {
+        JsonNode request = parse(text);
+        String op = request != null ? request.path("op").asText() : "";
+        String reqId = request != null ? request.path("req_id").asText() : "";
+        if ("ping".equals(op)) {
+            session.send(reply(session, true, "pong", reqId, op));
+            return;
+        }
+        if (!"subscribe".equals(op) && !"unsubscribe".equals(op)) {
+            session.send(reply(session, false, "Invalid op", reqId, op));
+            return;
+        }
+        boolean subscribe = "subscribe".equals(op);
+
+        synchronized (session) {
+            List<String> invalid = new ArrayList<>();
+            List<Instrument> snapshots = new ArrayList<>();
+            for (JsonNode arg : request.path("args")) {
+                String topic = arg.asText();
+                String[] parts = topic.split("\\.");
+                Instrument instrument = instrument(parts[parts.length - 1]);
+                Channel channel = null;
+                if (parts.length == 2 && "tickers".equals(parts[0])) {
+                    channel = Channel.TICKER;
+                } else if (parts.length == 3 && "orderbook".equals(parts[0]) && parts[1].matches("\\d+")) {
+                    channel = Channel.BOOK;
+                }
+                if (channel == null || instrument == null) {
+                    invalid.add(topic);
+                    continue;
+                }
+                if (!subscribe) {
+                    session.unsubscribe(channel, instrument.index);
+                    continue;
+                }
+                if (channel == Channel.BOOK) {
+                    session.setBookDepth(Integer.parseInt(parts[1]));
+                    snapshots.add(instrument);
+                }
+                session.subscribe(channel, instrument.index);
+            }
+            session.send(invalid.isEmpty()
+                    ? reply(session, true, "", reqId, op)
+                    : reply(session, false, "Invalid topic :" + invalid, reqId, op));
+            for (Instrument instrument : snapshots) {
+                session.send(bookMessage(quote(instrument), session.getBookDepth()));
+            }
+        }
+    }
+
+    private static String reply(SimulatorSession session, boolean success, String message, String reqId, String op) {
+        StringBuilder out = new StringBuilder(120);
+        out.append("{\"success\":").append(success).append(",\"ret_msg\":");
+        appendString(out, message).append(",\"conn_id\":\"").append(session.getConnectionId()).append("\",\"req_id\":");
+        appendString(out, reqId).append(",\"op\":");
+        return appendString(out, op).append('}').toString();
+    }
+
+    @Override
+    String tickerMessage(Quote quote) {
+        Instrument instrument = quote.instrument;
+        StringBuilder out = new StringBuilder(400);
+        out.append("{\"topic\":\"tickers.").append(symbol(instrument)).append("\",\"ts\":").append(quote.timestamp)
+                .append(",\"type\":\"snapshot\",\"cs\":").append(quote.sequence).append(",\"data\":");
+        appendTicker(out, quote);
+        return out.append('}').toString();
+    }
+
+    @Override
+    String bookMessage(Quote quote, int depth) {
+        StringBuilder out = bookBuilder(depth);
+        out.append("{\"topic\":\"orderbook.").append(depth).append('.').append(symbol(quote.instrument))
+                .append("\",\"ts\":").append(quote.timestamp).append(",\"type\":\"snapshot\",\"data\":");
+        appendBook(out, quote, depth);
+        return out.append(",\"cts\":").append(quote.timestamp).append('}').toString();
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.simulator.SimulatedMarket.Book;
+import com.example.tradient.simulator.SimulatedMarket.Instrument;
+import com.example.tradient.simulator.SimulatedMarket.Quote;
+import com.example.tradient.simulator.SimulatorSession.Channel;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * Coinbase Exchange: REST under {@code /products} and the WebSocket feed at the root.
+ * <p>
+ * The {@code ticker} channel publishes every quote. The {@code level2} channel sends
+ * a {@code snapshot} of the book on subscription and then {@code l2update} messages
+ * with the levels that changed, a size of 0 removing a level, so a client applying
+ * them holds the same book as the simulator.
+ */
+final class CoinbaseProtocol extends ExchangeProtocol {
+
+    private volatile String products;
+
+    CoinbaseProtocol(int exchangeIndex, SimulatedMarket market, SimulatorSettings settings,
+                     SimulatorStats.ExchangeStats stats) {
+        super("coinbase", exchangeIndex, market, settings, stats);
+    }
+
+    @Override
+    String symbol(Instrument instrument) {
+        return instrument.base + "-" + instrument.quote;
+    }
+
+    @Override
+    String webSocketPath() {
+        return "";
+    }
+
+    @Override
+    String rateLimitBody() {
+        return "{\"message\":\"Public rate limit exceeded\"}";
+    }
+
+    @Override
+    String serverErrorBody() {
+        return "{\"message\":\"Service Unavailable\"}";
+    }
+
+    @Override
+    MockResponse handleRest(String path, HttpUrl url) {
+        if ("/time".equals(path)) {
+            long now = System.currentTimeMillis();
+            return json("{\"iso\":\"" + Instant.ofEpochMilli(now) + "\",\"epoch\":" + now / 1000.0 + "}");
+        }
+        if ("/products".equals(path)) {
+            return json(products());
+        }
+        // /products/{id}/ticker, /products/{id}/book, /products/{id}/stats
+        List<String> segments = url.pathSegments();
+        if (segments.size() != 4 || !"products".equals(segments.get(1))) {
+            return null;
+        }
+        Instrument instrument = instrument(segments.get(2));
+        if (instrument == null) {
+            return json(404, "{\"message\":\"NotFound\"}");
+        }
+        Quote quote = quote(instrument);
+        switch (segments.get(3)) {
+            case "ticker":
+                return json(ticker(quote));
+            case "book":
+                return json(productBook(quote, intParameter(url, "level", 1)));
+            case "stats":
+                return json(stats(quote));
+            default:
+                return null;
+        }
+    }
+
+    private String products() {
+        String list = products;
+        if (list == null) {
+            StringBuilder out = new StringBuilder(400 * instruments().size()).append('[');
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                out.append("{\"id\":\"").append(symbol(instrument))
+                        .append("\",\"base_currency\":\"").append(instrument.base)
+                        .append("\",\"quote_currency\":\"").append(instrument.quote)
+                        .append("\",\"quote_increment\":");
+                appendPrice(out, instrument, instrument.tick).append(",\"base_increment\":");
+                appendSize(out, instrument, instrument.sizeUnit).append(",\"display_name\":\"")
+                        .append(instrument.base).append('/').append(instrument.quote)
+                        .append("\",\"min_market_funds\":\"1\",\"margin_enabled\":false,\"post_only\":false,"
+                                + "\"limit_only\":false,\"cancel_only\":false,\"status\":\"online\","
+                                + "\"status_message\":\"\",\"trading_disabled\":false,\"auction_mode\":false}");
+            }
+            list = out.append(']').toString();
+            products = list;
+        }
+        return list;
+    }
+
+    private String ticker(Quote quote) {
+        Instrument instrument = quote.instrument;
+        StringBuilder out = new StringBuilder(200);
+        out.append("{\"ask\":");
+        appendPrice(out, instrument, quote.ask).append(",\"bid\":");
+        appendPrice(out, instrument, quote.bid).append(",\"volume\":");
+        appendSize(out, instrument, quote.volume24h).append(",\"trade_id\":").append(quote.trades24h)
+                .append(",\"price\":");
+        appendPrice(out, instrument, quote.last).append(",\"size\":");
+        appendSize(out, instrument, quote.lastSize).append(",\"time\":\"")
+                .append(Instant.ofEpochMilli(quote.timestamp)).append("\"}");
+        return out.toString();
+    }
+
+    /**
+     * Book at level 1 (best bid and ask) or level 2 (aggregated levels).
+     */
+    private String productBook(Quote quote, int level) {
+        Instrument instrument = quote.instrument;
+        int depth = level >= 2 ? settings.getDepth() : 1;
+        Book book = book(quote, depth);
+        StringBuilder out = new StringBuilder(64 * depth);
+        out.append("{\"bids\":");
+        appendBids(out, book, instrument, depth, ",1").append(",\"asks\":");
+        appendAsks(out, book, instrument, depth, ",1").append(",\"sequence\":").append(quote.sequence)
+                .append(",\"auction_mode\":false,\"auction\":null,\"time\":\"")
+                .append(Instant.ofEpochMilli(quote.timestamp)).append("\"}");
+        return out.toString();
+    }
+
+    private String stats(Quote quote) {
+        Instrument instrument = quote.instrument;
+        StringBuilder out = new StringBuilder(160);
+        out.append("{\"open\":");
+        appendPrice(out, instrument, quote.open24h).append(",\"high\":");
+        appendPrice(out, instrument, quote.high24h).append(",\"low\":");
+        appendPrice(out, instrument, quote.low24h).append(",\"last\":");
+        appendPrice(out, instrument, quote.last).append(",\"volume\":");
+        appendSize(out, instrument, quote.volume24h);
+        return out.append('}').toString();
+    }
+
+    @Override
+    void onMessage(SimulatorSession session, String text) {
+        JsonNode request = parse(text);
+        String type = request != null ? request.path("type").asText() : "";
+        if (!"subscribe".equals(type) && !"unsubscribe".equals(type)) {
+            session.send("{\"type\":\"error\",\"message\":\"Failed to subscribe\",\"reason\":\"Unknown message type\"}");
+            return;
+        }
+        boolean subscribe = "subscribe".equals(type);
+
+        // Channels are names using the top-level product ids, or objects with their own
+        Map<String, List<Instrument>> channels = new LinkedHashMap<>();
+        List<Instrument> defaultProducts = new ArrayList<>();
+        for (JsonNode product : request.path("product_ids")) {
+            Instrument instrument = instrument(product.asText());
+            if (instrument == null) {
+                session.send("{\"type\":\"error\",\"message\":\"Failed to subscribe\",\"reason\":\""
+                        + product.asText() + " is not a valid product\"}");
+                return;
+            }
+            defaultProducts.add(instrument);
+        }
+        for (JsonNode channel : request.path("channels")) {
+            if (channel.isTextual()) {
+                channels.put(channel.asText(), defaultProducts);
+                continue;
+            }
+            List<Instrument> own = new ArrayList<>();
+            for (JsonNode product : channel.path("product_ids")) {
+                Instrument instrument = instrument(product.asText());
+                if (instrument != null) {
+                    own.add(instrument);
+                }
+            }
+            channels.put(channel.path("name").asText(), own);
+        }
+
+        synchronized (session) {
+            StringBuilder reply = new StringBuilder("{\"type\":\"subscriptions\",\"channels\":[");
+            List<Instrument> snapshots = new ArrayList<>();
+            for (Map.Entry<String, List<Instrument>> entry : channels.entrySet()) {
+                Channel channel = channel(entry.getKey());
+                if (channel == null) {
+                    session.send("{\"type\":\"error\",\"message\":\"Failed to subscribe\",\"reason\":\""
+                            + entry.getKey() + " is not a valid channel\"}");
+                    return;
+                }
+                if (reply.charAt(reply.length() - 1) != '[') {
+                    reply.append(',');
+                }
+                reply.append("{\"name\":\"").append(entry.getKey()).append("\",\"product_ids\":[");
+                for (int i = 0; i < entry.getValue().size(); i++) {
+                    Instrument instrument = entry.getValue().get(i);
+                    if (i > 0) {
+                        reply.append(',');
+                    }
+                    reply.append('"').append(symbol(instrument)).append('"');
+                    if (!subscribe) {
+                        session.unsubscribe(channel, instrument.index);
+                    } else if (!session.isSubscribed(channel, instrument.index)) {
+                        session.subscribe(channel, instrument.index);
+                        if (channel == Channel.BOOK) {
+                            snapshots.add(instrument);
+                        }
+                    }
+                }
+                reply.append("]}");
+            }
+            session.send(reply.append("]}").toString());
+            for (Instrument instrument : snapshots) {
+                session.send(snapshot(quote(instrument)));
+            }
+        }
+    }
+
+    private static Channel channel(String name) {
+        switch (name) {
+            case "ticker":
+            case "ticker_batch":
+                return Channel.TICKER;
+            case "level2":
+            case "level2_batch":
+                return Channel.BOOK;
+            default:
+                return null;
+        }
+    }
+
+    private String snapshot(Quote quote) {
+        Instrument instrument = quote.instrument;
+        int depth = settings.getDepth();
+        Book book = book(quote, depth);
+        StringBuilder out = new StringBuilder(64 * depth);
+        out.append("{\"type\":\"snapshot\",\"product_id\":\"").append(symbol(instrument)).append("\",\"bids\":");
+        appendBids(out, book, instrument, depth, "").append(",\"asks\":");
+        appendAsks(out, book, instrument, depth, "");
+        return out.append('}').toString();
+    }
+
+    @Override
+    String tickerMessage(Quote quote) {
+        Instrument instrument = quote.instrument;
+        StringBuilder out = new StringBuilder(400);
+        out.append("{\"type\":\"ticker\",\"sequence\":").append(quote.sequence)
+                .append(",\"product_id\":\"").append(symbol(instrument)).append("\",\"price\":");
+        appendPrice(out, instrument, quote.last).append(",\"open_24h\":");
+        appendPrice(out, instrument, quote.open24h).append(",\"volume_24h\":");
+        appendSize(out, instrument, quote.volume24h).append(",\"low_24h\":");
+        appendPrice(out, instrument, quote.low24h).append(",\"high_24h\":");
+        appendPrice(out, instrument, quote.high24h).append(",\"best_bid\":");
+        appendPrice(out, instrument, quote.bid).append(",\"best_bid_size\":");
+        appendSize(out, instrument, quote.bidSize).append(",\"best_ask\":");
+        appendPrice(out, instrument, quote.ask).append(",\"best_ask_size\":");
+        appendSize(out, instrument, quote.askSize).append(",\"side\":\"")
+                .append(quote.buyerMaker ? "sell" : "buy").append("\",\"time\":\"")
+                .append(Instant.ofEpochMilli(quote.timestamp)).append("\",\"trade_id\":").append(quote.trades24h)
+                .append(",\"last_size\":");
+        appendSize(out, instrument, quote.lastSize);
+        return out.append('}').toString();
+    }
+
+    /**
+     * The levels that differ between the previous book and this one.
+     */
+    @Override
+    String bookMessage(Quote quote, int depth) {
+        Instrument instrument = quote.instrument;
+        int levels = Math.min(depth, settings.getDepth());
+        Book book = quote.book(levels);
+        Book previous = quote.previousBook(levels);
+        StringBuilder out = new StringBuilder(48 * levels);
+        out.append("{\"type\":\"l2update\",\"product_id\":\"").append(symbol(instrument)).append("\",\"changes\":[");
+        int changes = appendChanges(out, "buy", instrument, previous != null ? previous.bidPrices : new double[0],
+                previous != null ? previous.bidSizes : new double[0], book.bidPrices, book.bidSizes, true, 0);
+        appendChanges(out, "sell", instrument, previous != null ? previous.askPrices : new double[0],
+                previous != null ? previous.askSizes : new double[0], book.askPrices, book.askSizes, false, changes);
+        out.append("],\"time\":\"").append(Instant.ofEpochMilli(quote.timestamp)).append("\"}");
+        return out.toString();
+    }
+
+    /**
+     * Merge the old and new levels of one side, both sorted best first, and append
+     * every level that was added, resized or removed.
+     *
+     * @return Number of changes appended so far, including {@code appended}
+     */
+    private static int appendChanges(StringBuilder out, String side, Instrument instrument,
+                                     double[] oldPrices, double[] oldSizes, double[] newPrices,
+                                     double[] newSizes, boolean descending, int appended) {
+        int i = 0;
+        int j = 0;
+        while (i < oldPrices.length || j < newPrices.length) {
+            long oldTicks = i < oldPrices.length ? Math.round(oldPrices[i] / instrument.tick) : 0;
+            long newTicks = j < newPrices.length ? Math.round(newPrices[j] / instrument.tick) : 0;
+            double price;
+            double size;
+            if (i < oldPrices.length && j < newPrices.length && oldTicks == newTicks) {
+                price = newPrices[j];
+                size = newSizes[j];
+                boolean resized = Math.abs(oldSizes[i] - newSizes[j]) >= instrument.sizeUnit / 2;
+                i++;
+                j++;
+                if (!resized) {
+                    continue;
+                }
+            } else if (j >= newPrices.length
+                    || (i < oldPrices.length && (descending ? oldTicks > newTicks : oldTicks < newTicks))) {
+                price = oldPrices[i++];
+                size = 0;
+            } else {
+                price = newPrices[j];
+                size = newSizes[j++];
+            }
+            if (appended++ > 0) {
+                out.append(',');
+            }
+            out.append("[\"").append(side).append("\",");
+            appendPrice(out, instrument, price).append(',');
+            if (size == 0) {
+                out.append("\"0\"");
+            } else {
+                appendSize(out, instrument, size);
+            }
+            out.append(']');
+        }
+        return appended;
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.simulator.SimulatedMarket.Book;
+import com.example.tradient.simulator.SimulatedMarket.Instrument;
+import com.example.tradient.simulator.SimulatedMarket.Quote;
+import com.example.tradient.simulator.SimulatorSession.Channel;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * REST endpoints and WebSocket messages of one simulated exchange, in the formats the
+ * exchange services of the core module read.
+ * <p>
+ * Messages are written with a {@link StringBuilder} rather than a JSON library, since
+ * at load-test rates building them is most of the simulator's work. Client messages
+ * are few and parsed with Jackson.
+ */
+abstract class ExchangeProtocol {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L};
+
+    final String name;
+    final int exchangeIndex;
+    final SimulatedMarket market;
+    final SimulatorSettings settings;
+    final SimulatorStats.ExchangeStats stats;
+    final List<SimulatorSession> sessions = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Instrument> instrumentsBySymbol = new HashMap<>();
+
+    // Fixed one-second window of the REST rate limit
+    private long rateWindowStart;
+    private int rateWindowRequests;
+
+    protected ExchangeProtocol(String name, int exchangeIndex, SimulatedMarket market,
+                               SimulatorSettings settings, SimulatorStats.ExchangeStats stats) {
+        this.name = name;
+        this.exchangeIndex = exchangeIndex;
+        this.market = market;
+        this.settings = settings;
+        this.stats = stats;
+        for (Instrument instrument : market.getInstruments()) {
+            instrumentsBySymbol.put(symbol(instrument), instrument);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Symbol of a market in the exchange's format, e.g. BTCUSDT or BTC-USDT.
+     */
+    abstract String symbol(Instrument instrument);
+
+    /**
+     * Path of the WebSocket endpoint below the exchange's prefix.
+     */
+    abstract String webSocketPath();
+
+    /**
+     * Answer a REST request.
+     *
+     * @param path Path below the exchange's prefix, e.g. /api/v3/depth
+     * @return Response, or null if the exchange has no such endpoint
+     */
+    abstract MockResponse handleRest(String path, HttpUrl url);
+
+    /**
+     * Handle a message from a WebSocket client, typically a subscription.
+     */
+    abstract void onMessage(SimulatorSession session, String text);
+
+    /**
+     * Ticker message of a quote, for clients subscribed to the market's ticker.
+     */
+    abstract String tickerMessage(Quote quote);
+
+    /**
+     * Order book message of a quote with {@code depth} levels per side.
+     */
+    abstract String bookMessage(Quote quote, int depth);
+
+    /**
+     * Called when a WebSocket client connects, with the path it connected to.
+     */
+    void onOpen(SimulatorSession session, String path) {
+    }
+
+    /**
+     * Send a quote update to every client subscribed to its market. Each message is
+     * built once, whatever the number of clients.
+     */
+    void publish(Quote quote) {
+        int instrument = quote.instrument.index;
+        String ticker = null;
+        String book = null;
+        int bookDepth = 0;
+        for (SimulatorSession session : sessions) {
+            synchronized (session) {
+                if (session.isSubscribed(Channel.TICKER, instrument)) {
+                    if (ticker == null) {
+                        ticker = tickerMessage(quote);
+                    }
+                    session.send(ticker);
+                }
+                if (session.isSubscribed(Channel.BOOK, instrument)) {
+                    int depth = session.getBookDepth();
+                    if (book == null || depth != bookDepth) {
+                        book = bookMessage(quote, depth);
+                        bookDepth = depth;
+                    }
+                    session.send(book);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count a REST request against the rate limit.
+     *
+     * @return false if the request is over the limit
+     */
+    synchronized boolean tryAcquireRequest(long nowMillis) {
+        int limit = settings.getRestRequestsPerSecond();
+        if (limit <= 0) {
+            return true;
+        }
+        if (nowMillis - rateWindowStart >= 1000) {
+            rateWindowStart = nowMillis;
+            rateWindowRequests = 0;
+        }
+        return ++rateWindowRequests <= limit;
+    }
+
+    /**
+     * Body of a 429 response in the exchange's error format.
+     */
+    String rateLimitBody() {
+        return "{\"error\":\"Too many requests\"}";
+    }
+
+    /**
+     * Body of a 5xx response in the exchange's error format.
+     */
+    String serverErrorBody() {
+        return "{\"error\":\"Service unavailable\"}";
+    }
+
+    /**
+     * @return Market of a symbol in the exchange's format, or null if not listed
+     */
+    Instrument instrument(String symbol) {
+        return symbol != null ? instrumentsBySymbol.get(symbol) : null;
+    }
+
+    /**
+     * Book of a quote with the requested depth, capped at the configured depth.
+     */
+    Book book(Quote quote, int depth) {
+        return quote.book(Math.min(depth, settings.getDepth()));
+    }
+
+    /**
+     * Builder sized for a book message of the requested depth, capped at the configured depth.
+     */
+    StringBuilder bookBuilder(int depth) {
+        return new StringBuilder(128 + 80 * Math.min(depth, settings.getDepth()));
+    }
+
+    Quote quote(Instrument instrument) {
+        return market.getQuote(exchangeIndex, instrument.index);
+    }
+
+    List<Instrument> instruments() {
+        return market.getInstruments();
+    }
+
+    static MockResponse json(int status, CharSequence body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body.toString());
+    }
+
+    static MockResponse json(CharSequence body) {
+        return json(200, body);
+    }
+
+    /**
+     * @return Parsed client message, or null if it is not JSON
+     */
+    static JsonNode parse(String text) {
+        try {
+            return MAPPER.readTree(text);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static int intParameter(HttpUrl url, String name, int defaultValue) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, longParameter(url, name, defaultValue)));
+    }
+
+    static long longParameter(HttpUrl url, String name, long defaultValue) {
+        String value = url.queryParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Append a number with a fixed number of decimals, without the exponent notation
+     * {@link Double#toString} uses for small and large values.
+     */
+    static StringBuilder appendDecimal(StringBuilder out, double value, int decimals) {
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(value * scale);
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append('.');
+            String fraction = Long.toString(scaled % scale);
+            for (int i = fraction.length(); i < decimals; i++) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+        return out;
+    }
+
+    /**
+     * Append a price as a JSON string, as exchanges send them.
+     */
+    static StringBuilder appendPrice(StringBuilder out, Instrument instrument, double price) {
+        out.append('"');
+        return appendDecimal(out, price, instrument.priceDecimals).append('"');
+    }
+
+    /**
+     * Append a size as a JSON string.
+     */
+    static StringBuilder appendSize(StringBuilder out, Instrument instrument, double size) {
+        out.append('"');
+        return appendDecimal(out, size, instrument.sizeDecimals).append('"');
+    }
+
+    /**
+     * Append a JSON string, escaping what needs escaping.
+     */
+    static StringBuilder appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Append one side of a book as {@code [["price","size"<suffix>],...]}.
+     *
+     * @param suffix Extra elements of each level, e.g. {@code ,"0","1"}, or empty
+     */
+    static StringBuilder appendLevels(StringBuilder out, Instrument instrument, double[] prices,
+                                      double[] sizes, int count, String suffix) {
+        out.append('[');
+        int levels = Math.min(count, prices.length);
+        for (int i = 0; i < levels; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append('[');
+            appendPrice(out, instrument, prices[i]).append(',');
+            appendSize(out, instrument, sizes[i]);
+            out.append(suffix).append(']');
+        }
+        return out.append(']');
+    }
+
+    static StringBuilder appendBids(StringBuilder out, Book book, Instrument instrument, int count, String suffix) {
+        return appendLevels(out, instrument, book.bidPrices, book.bidSizes, count, suffix);
+    }
+
+    static StringBuilder appendAsks(StringBuilder out, Book book, Instrument instrument, int count, String suffix) {
+        return appendLevels(out, instrument, book.askPrices, book.askSizes, count, suffix);
+    }
+}
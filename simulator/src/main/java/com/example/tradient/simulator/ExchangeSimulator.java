@@ -0,0 +1,260 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.util.AppLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Serves simulated Binance, Coinbase, Kraken, Bybit and OKX market data over REST and
+ * WebSocket from one local port, so the scanner can be load tested without touching the
+ * real exchanges or their rate limits.
+ * <p>
+ * Each exchange lives under its own path prefix: {@link #getApiUrl(String)} and
+ * {@link #getWsUrl(String)} return the base URLs to put in the {@code apiUrls} and
+ * {@code wsUrls} of the exchange configuration, and
+ * {@link #writeConfiguration(Path)} writes that configuration. Prices move as one
+ * random walk per symbol plus a mean-reverting dislocation per exchange, so
+ * cross-exchange spreads open and close the way the scanner expects.
+ * <pre>
+ * ExchangeSimulator simulator = new ExchangeSimulator(SimulatorSettings.builder()
+ *         .setSymbols(500)
+ *         .setUpdatesPerSecond(20)
+ *         .build());
+ * simulator.start();
+ * simulator.writeConfiguration(Paths.get("config/simulator"));
+ * </pre>
+ */
+public final class ExchangeSimulator implements Closeable {
+
+    private static final String TAG = "ExchangeSimulator";
+    private static final long TICK_MILLIS = 10;
+
+    private final SimulatorSettings settings;
+    private final SimulatedMarket market;
+    private final SimulatorStats stats;
+    private final List<ExchangeProtocol> protocols;
+    private final MockWebServer server = new MockWebServer();
+    private final ScheduledExecutorService delivery;
+    private final ScheduledExecutorService ticker;
+    private final Random disconnectRandom;
+    private volatile boolean running;
+
+    public ExchangeSimulator(SimulatorSettings settings) {
+        this.settings = settings;
+        List<String> exchanges = settings.getExchanges();
+        this.market = new SimulatedMarket(settings, exchanges.size(), System.nanoTime());
+        this.stats = new SimulatorStats(exchanges);
+        List<ExchangeProtocol> list = new ArrayList<>(exchanges.size());
+        for (int i = 0; i < exchanges.size(); i++) {
+            list.add(createProtocol(exchanges.get(i), i));
+        }
+        this.protocols = Collections.unmodifiableList(list);
+        this.disconnectRandom = new Random(settings.getSeed() ^ 0x5DEECE66DL);
+        this.delivery = Executors.newSingleThreadScheduledExecutor(daemonThreads("simulator-delivery"));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemonThreads("simulator-market"));
+    }
+
+    private ExchangeProtocol createProtocol(String exchange, int index) {
+        SimulatorStats.ExchangeStats exchangeStats = stats.get(exchange);
+        switch (exchange) {
+            case "binance":
+                return new BinanceProtocol(index, market, settings, exchangeStats);
+            case "coinbase":
+                return new CoinbaseProtocol(index, market, settings, exchangeStats);
+            case "kraken":
+                return new KrakenProtocol(index, market, settings, exchangeStats);
+            case "bybit":
+                return new BybitProtocol(index, market, settings, exchangeStats);
+            case "okx":
+                return new OkxProtocol(index, market, settings, exchangeStats);
+            default:
+                throw new IllegalArgumentException("Unsupported exchange: " + exchange);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Start listening and publishing market data.
+     *
+     * @throws IOException If the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        Map<String, ExchangeProtocol> byName = new LinkedHashMap<>();
+        for (ExchangeProtocol protocol : protocols) {
+            byName.put(protocol.getName(), protocol);
+        }
+        server.setDispatcher(new SimulatorDispatcher(byName, settings, delivery));
+        server.start(InetAddress.getByName(settings.getHost()), settings.getPort());
+        running = true;
+
+        // MockWebServer records every request; drain them so a long run does not fill the heap
+        Thread drain = new Thread(this::drainRecordedRequests, "simulator-requests");
+        drain.setDaemon(true);
+        drain.start();
+
+        ticker.scheduleAtFixedRate(new Runnable() {
+            private long lastTickNanos = System.nanoTime();
+
+            @Override
+            public void run() {
+                long now = System.nanoTime();
+                try {
+                    tick(now, (now - lastTickNanos) / 1e9);
+                } catch (RuntimeException e) {
+                    AppLog.e(TAG, "Market tick failed", e);
+                }
+                lastTickNanos = now;
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        AppLog.i(TAG, "Simulating " + settings.getExchanges() + " on " + settings.getHost() + ":" + getPort()
+                + " with " + settings.getSymbols() + " symbols");
+    }
+
+    private void tick(long nowNanos, double elapsedSeconds) {
+        market.advance(nowNanos, (exchange, quote) -> {
+            ExchangeProtocol protocol = protocols.get(exchange);
+            protocol.stats.updates.increment();
+            protocol.publish(quote);
+        });
+
+        double disconnectProbability = settings.getDisconnectsPerMinute() * elapsedSeconds / 60;
+        if (disconnectProbability > 0) {
+            for (ExchangeProtocol protocol : protocols) {
+                for (SimulatorSession session : protocol.sessions) {
+                    if (disconnectRandom.nextDouble() < disconnectProbability) {
+                        session.disconnect();
+                    }
+                }
+            }
+        }
+    }
+
+    private void drainRecordedRequests() {
+        while (running) {
+            try {
+                server.takeRequest(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return REST base URL of a simulated exchange, e.g. {@code http://127.0.0.1:8090/binance}
+     */
+    public String getApiUrl(String exchange) {
+        requireExchange(exchange);
+        return "http://" + settings.getHost() + ":" + getPort() + "/" + exchange;
+    }
+
+    /**
+     * @return WebSocket URL of a simulated exchange, e.g. {@code ws://127.0.0.1:8090/binance/ws}
+     */
+    public String getWsUrl(String exchange) {
+        return "ws://" + settings.getHost() + ":" + getPort() + "/" + exchange
+                + requireExchange(exchange).webSocketPath();
+    }
+
+    private ExchangeProtocol requireExchange(String exchange) {
+        for (ExchangeProtocol protocol : protocols) {
+            if (protocol.getName().equals(exchange)) {
+                return protocol;
+            }
+        }
+        throw new IllegalArgumentException("Exchange is not simulated: " + exchange);
+    }
+
+    /**
+     * @return The port listened on, which differs from the settings when they asked for a free port
+     */
+    public int getPort() {
+        return running ? server.getPort() : settings.getPort();
+    }
+
+    public SimulatorSettings getSettings() {
+        return settings;
+    }
+
+    public SimulatorStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Write an {@code exchanges.yaml} that points the scanner at this simulator, for use
+     * as a configuration environment: with the file in {@code config/simulator}, run the
+     * scanner with {@code --env simulator}.
+     *
+     * @param directory Directory to write to, created if missing
+     * @return The file written
+     */
+    public Path writeConfiguration(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("exchanges.yaml");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Generated by ExchangeSimulator for " + settings.getHost() + ":" + getPort() + "\n");
+            out.write("exchanges:\n");
+            out.write("  enabled:\n");
+            // Exchanges that are not simulated are switched off rather than left on the real endpoints
+            for (String exchange : SimulatorSettings.SUPPORTED_EXCHANGES) {
+                out.write("    " + exchange + ": " + settings.getExchanges().contains(exchange) + "\n");
+            }
+            out.write("  apiUrls:\n");
+            for (String exchange : settings.getExchanges()) {
+                out.write("    " + exchange + ": \"" + getApiUrl(exchange) + "\"\n");
+            }
+            out.write("  wsUrls:\n");
+            for (String exchange : settings.getExchanges()) {
+                out.write("    " + exchange + ": \"" + getWsUrl(exchange) + "\"\n");
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Close every WebSocket session and stop the server.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        ticker.shutdownNow();
+        if (running) {
+            running = false;
+            for (ExchangeProtocol protocol : protocols) {
+                for (SimulatorSession session : protocol.sessions) {
+                    session.close();
+                }
+            }
+            server.shutdown();
+        }
+        delivery.shutdownNow();
+    }
+}
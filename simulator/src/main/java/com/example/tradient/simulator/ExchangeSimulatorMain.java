@@ -0,0 +1,239 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.infrastructure.notification.ConsoleNotificationService;
+import com.example.tradient.util.AppLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an {@link ExchangeSimulator} until interrupted, logging per-exchange traffic at
+ * a fixed interval.
+ * <p>
+ * Typical load test: start the simulator with {@code --write-config config/simulator},
+ * then run the scanner with {@code --env simulator} so it connects to the simulator
+ * instead of the real exchanges. Run with
+ * {@code ./gradlew :simulator:run --args="..."}; see {@link #USAGE}.
+ */
+public class ExchangeSimulatorMain {
+
+    private static final String TAG = "ExchangeSimulatorMain";
+
+    static final String USAGE = String.join("\n",
+            "Usage: ExchangeSimulatorMain [options]",
+            "  --host HOST           Address to listen on (default: 127.0.0.1)",
+            "  --port PORT           Port to listen on, 0 for any free port (default: 8090)",
+            "  --exchanges A,B,...   Exchanges to simulate (default: binance,coinbase,kraken,bybit,okx)",
+            "  --symbols N           Symbols listed on every exchange (default: 100)",
+            "  --rate N              Quote updates per symbol per second on each exchange (default: 1)",
+            "  --volatility X        Volatility of prices per square root of a second (default: 0.0001)",
+            "  --dislocation X       Typical price deviation between exchanges (default: 0.0005)",
+            "  --spread X            Bid-ask spread as a fraction of the price (default: 0.0002)",
+            "  --depth N             Order book levels per side (default: 50)",
+            "  --rest-latency MS     Delay before every REST response (default: 0)",
+            "  --ws-latency MS       Delay before every WebSocket message (default: 0)",
+            "  --jitter MS           Random extra delay of up to MS on both (default: 0)",
+            "  --error-rate X        Fraction of REST requests failing and messages truncated (default: 0)",
+            "  --disconnect-rate N   Dropped WebSocket connections per connection per minute (default: 0)",
+            "  --rest-limit N        REST requests per second per exchange before HTTP 429, 0 for none (default: 0)",
+            "  --seed N              Seed of the simulated markets (default: 42)",
+            "  --write-config DIR    Write an exchanges.yaml pointing at the simulator to DIR",
+            "  --stats-interval SEC  Time between two traffic reports, 0 for none (default: 10)",
+            "  --debug               Enable debug logging");
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.err.println(USAGE);
+            return;
+        }
+
+        AppLog.setNotificationService(new ConsoleNotificationService(options.debug, System.err));
+
+        ExchangeSimulator simulator = new ExchangeSimulator(options.settings);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(stopped::countDown, "simulator-shutdown"));
+
+        try {
+            simulator.start();
+            for (String exchange : options.settings.getExchanges()) {
+                AppLog.i(TAG, exchange + ": " + simulator.getApiUrl(exchange) + " " + simulator.getWsUrl(exchange));
+            }
+            if (options.configDir != null) {
+                Path file = simulator.writeConfiguration(Paths.get(options.configDir));
+                AppLog.i(TAG, "Wrote " + file);
+            }
+            reportUntilStopped(simulator, options.statsIntervalSeconds, stopped);
+        } catch (IOException e) {
+            AppLog.e(TAG, "Cannot start the simulator", e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                simulator.close();
+            } catch (IOException e) {
+                AppLog.e(TAG, "Error stopping the simulator", e);
+            }
+        }
+    }
+
+    /**
+     * Log the traffic of each exchange since the previous report until the JVM shuts down.
+     */
+    private static void reportUntilStopped(ExchangeSimulator simulator, long intervalSeconds,
+                                           CountDownLatch stopped) throws InterruptedException {
+        if (intervalSeconds <= 0) {
+            stopped.await();
+            return;
+        }
+        Map<String, long[]> previous = new HashMap<>();
+        long previousNanos = System.nanoTime();
+        while (!stopped.await(intervalSeconds, TimeUnit.SECONDS)) {
+            long now = System.nanoTime();
+            double seconds = (now - previousNanos) / 1e9;
+            previousNanos = now;
+            for (SimulatorStats.ExchangeStats stats : simulator.getStats().getExchanges()) {
+                long[] current = {
+                        stats.getUpdates(), stats.getMessages(), stats.getMessageBytes(),
+                        stats.getRestRequests(), stats.getRestErrors() + stats.getRateLimited(),
+                        stats.getDroppedMessages()
+                };
+                long[] last = previous.getOrDefault(stats.getExchange(), new long[current.length]);
+                previous.put(stats.getExchange(), current);
+                AppLog.i(TAG, String.format(Locale.US,
+                        "%s: %.0f updates/s, %.0f msgs/s (%.1f KiB/s), %d dropped, %.1f req/s, %d errors, %d connections",
+                        stats.getExchange(),
+                        (current[0] - last[0]) / seconds,
+                        (current[1] - last[1]) / seconds,
+                        (current[2] - last[2]) / seconds / 1024,
+                        current[5] - last[5],
+                        (current[3] - last[3]) / seconds,
+                        current[4] - last[4],
+                        stats.getConnections()));
+            }
+        }
+    }
+
+    static final class Options {
+        SimulatorSettings settings;
+        String configDir;
+        long statsIntervalSeconds = 10;
+        boolean debug;
+        boolean help;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            SimulatorSettings.Builder builder = SimulatorSettings.builder();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--host":
+                        builder.setHost(value(args, ++i, arg));
+                        break;
+                    case "--port":
+                        builder.setPort((int) number(value(args, ++i, arg), arg));
+                        break;
+                    case "--exchanges":
+                        builder.setExchanges(Arrays.asList(value(args, ++i, arg).split(",")));
+                        break;
+                    case "--symbols":
+                        builder.setSymbols((int) number(value(args, ++i, arg), arg));
+                        break;
+                    case "--rate":
+                        builder.setUpdatesPerSecond(decimal(value(args, ++i, arg), arg));
+                        break;
+                    case "--volatility":
+                        builder.setVolatility(decimal(value(args, ++i, arg), arg));
+                        break;
+                    case "--dislocation":
+                        builder.setDislocation(decimal(value(args, ++i, arg), arg));
+                        break;
+                    case "--spread":
+                        builder.setSpread(decimal(value(args, ++i, arg), arg));
+                        break;
+                    case "--depth":
+                        builder.setDepth((int) number(value(args, ++i, arg), arg));
+                        break;
+                    case "--rest-latency":
+                        builder.setRestLatencyMillis(number(value(args, ++i, arg), arg));
+                        break;
+                    case "--ws-latency":
+                        builder.setWsLatencyMillis(number(value(args, ++i, arg), arg));
+                        break;
+                    case "--jitter":
+                        builder.setJitterMillis(number(value(args, ++i, arg), arg));
+                        break;
+                    case "--error-rate":
+                        builder.setErrorRate(decimal(value(args, ++i, arg), arg));
+                        break;
+                    case "--disconnect-rate":
+                        builder.setDisconnectsPerMinute(decimal(value(args, ++i, arg), arg));
+                        break;
+                    case "--rest-limit":
+                        builder.setRestRequestsPerSecond((int) number(value(args, ++i, arg), arg));
+                        break;
+                    case "--seed":
+                        builder.setSeed(number(value(args, ++i, arg), arg));
+                        break;
+                    case "--write-config":
+                        options.configDir = value(args, ++i, arg);
+                        break;
+                    case "--stats-interval":
+                        options.statsIntervalSeconds = number(value(args, ++i, arg), arg);
+                        break;
+                    case "--debug":
+                        options.debug = true;
+                        break;
+                    case "--help":
+                    case "-h":
+                        options.help = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            // Range checks happen here, so they are reported with the usage like parse errors
+            options.settings = builder.build();
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            return args[index];
+        }
+
+        private static long number(String value, String option) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " must be a whole number: " + value);
+            }
+        }
+
+        private static double decimal(String value, String option) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " must be a number: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.simulator.SimulatedMarket.Book;
+import com.example.tradient.simulator.SimulatedMarket.Instrument;
+import com.example.tradient.simulator.SimulatedMarket.Quote;
+import com.example.tradient.simulator.SimulatorSession.Channel;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * Kraken: REST under {@code /0/public} and the WebSocket API at the root.
+ * <p>
+ * Pairs are named BASEQUOTE (BTCUSDT) rather than with Kraken's X/Z asset codes, so
+ * they normalize to the same symbols as the other exchanges; XBT is accepted for BTC.
+ * WebSocket messages use Kraken's v1 layout: {@code [channelID, {...}, "ticker", "BTC/USDT"]}
+ * and {@code [channelID, {"as":[...],"bs":[...]}, "book-10", "BTC/USDT"]}, with the full
+ * book in every message, and subscription acknowledgements as
+ * {@code {"event":"subscriptionStatus", ...}} objects. Kraken's systemStatus and
+ * heartbeat events are not sent.
+ */
+final class KrakenProtocol extends ExchangeProtocol {
+
+    private static final int DEFAULT_DEPTH_COUNT = 100;
+    private static final int DEFAULT_BOOK_DEPTH = 10;
+
+    private volatile String assetPairs;
+
+    KrakenProtocol(int exchangeIndex, SimulatedMarket market, SimulatorSettings settings,
+                   SimulatorStats.ExchangeStats stats) {
+        super("kraken", exchangeIndex, market, settings, stats);
+    }
+
+    @Override
+    String symbol(Instrument instrument) {
+        return instrument.base + instrument.quote;
+    }
+
+    /**
+     * Pairs can also be written BASE/QUOTE, as in Kraken's WebSocket API, and with XBT for BTC.
+     */
+    @Override
+    Instrument instrument(String symbol) {
+        return super.instrument(symbol != null ? symbol.replace("XBT", "BTC").replace("/", "") : null);
+    }
+
+    /**
+     * The pair as Kraken's WebSocket API names it in data messages (wsname).
+     */
+    private static String wsName(Instrument instrument) {
+        return instrument.base + '/' + instrument.quote;
+    }
+
+    @Override
+    String webSocketPath() {
+        return "";
+    }
+
+    @Override
+    String rateLimitBody() {
+        return "{\"error\":[\"EAPI:Rate limit exceeded\"]}";
+    }
+
+    @Override
+    String serverErrorBody() {
+        return "{\"error\":[\"EService:Unavailable\"]}";
+    }
+
+    @Override
+    MockResponse handleRest(String path, HttpUrl url) {
+        switch (path) {
+            case "/0/public/Time": {
+                long now = System.currentTimeMillis();
+                return json("{\"error\":[],\"result\":{\"unixtime\":" + now / 1000 + ",\"rfc1123\":\""
+                        + DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(now).atZone(ZoneOffset.UTC))
+                        + "\"}}");
+            }
+            case "/0/public/AssetPairs":
+                return json(assetPairs());
+            case "/0/public/Ticker":
+                return ticker(url);
+            case "/0/public/Depth":
+                return depth(url);
+            default:
+                return null;
+        }
+    }
+
+    private String assetPairs() {
+        String pairs = assetPairs;
+        if (pairs == null) {
+            StringBuilder out = new StringBuilder(300 * instruments().size()).append("{\"error\":[],\"result\":{");
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                String pair = symbol(instrument);
+                out.append('"').append(pair).append("\":{\"altname\":\"").append(pair)
+                        .append("\",\"wsname\":\"").append(wsName(instrument))
+                        .append("\",\"aclass_base\":\"currency\",\"base\":\"").append(instrument.base)
+                        .append("\",\"aclass_quote\":\"currency\",\"quote\":\"").append(instrument.quote)
+                        .append("\",\"pair_decimals\":").append(instrument.priceDecimals)
+                        .append(",\"lot_decimals\":").append(instrument.sizeDecimals)
+                        .append(",\"ordermin\":");
+                appendSize(out, instrument, instrument.sizeUnit).append(",\"status\":\"online\"}");
+            }
+            pairs = out.append("}}").toString();
+            assetPairs = pairs;
+        }
+        return pairs;
+    }
+
+    /**
+     * Tickers of the comma-separated pairs of the request, or of all pairs.
+     */
+    private MockResponse ticker(HttpUrl url) {
+        String pairs = url.queryParameter("pair");
+        StringBuilder out = new StringBuilder(400).append("{\"error\":[],\"result\":{");
+        if (pairs == null) {
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                appendTicker(out.append('"').append(symbol(instrument)).append("\":"), quote(instrument));
+            }
+        } else {
+            String[] names = pairs.split(",");
+            for (int i = 0; i < names.length; i++) {
+                Instrument instrument = instrument(names[i].trim());
+                if (instrument == null) {
+                    return unknownPair();
+                }
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendTicker(out.append('"').append(symbol(instrument)).append("\":"), quote(instrument));
+            }
+        }
+        return json(out.append("}}"));
+    }
+
+    /**
+     * Ticker fields in Kraken's array layout, shared by REST and WebSocket messages.
+     */
+    private static StringBuilder appendTicker(StringBuilder out, Quote quote) {
+        Instrument instrument = quote.instrument;
+        // a/b: [price, whole lot volume, lot volume]; c: [price, lot volume]; v, p, t, l, h: [today, 24h]
+        out.append("{\"a\":[");
+        appendPrice(out, instrument, quote.ask).append(",\"").append(Math.max(1, Math.round(quote.askSize)))
+                .append("\",");
+        appendSize(out, instrument, quote.askSize).append("],\"b\":[");
+        appendPrice(out, instrument, quote.bid).append(",\"").append(Math.max(1, Math.round(quote.bidSize)))
+                .append("\",");
+        appendSize(out, instrument, quote.bidSize).append("],\"c\":[");
+        appendPrice(out, instrument, quote.last).append(',');
+        appendSize(out, instrument, quote.lastSize).append("],\"v\":[");
+        appendSize(out, instrument, quote.volume24h).append(',');
+        appendSize(out, instrument, quote.volume24h).append("],\"p\":[");
+        appendPrice(out, instrument, (quote.high24h + quote.low24h) / 2).append(',');
+        appendPrice(out, instrument, (quote.high24h + quote.low24h) / 2).append("],\"t\":[")
+                .append(quote.trades24h).append(',').append(quote.trades24h).append("],\"l\":[");
+        appendPrice(out, instrument, quote.low24h).append(',');
+        appendPrice(out, instrument, quote.low24h).append("],\"h\":[");
+        appendPrice(out, instrument, quote.high24h).append(',');
+        appendPrice(out, instrument, quote.high24h).append("],\"o\":");
+        return appendPrice(out, instrument, quote.open24h).append('}');
+    }
+
+    private MockResponse depth(HttpUrl url) {
+        Instrument instrument = instrument(url.queryParameter("pair"));
+        if (instrument == null) {
+            return unknownPair();
+        }
+        Quote quote = quote(instrument);
+        int count = Math.max(1, intParameter(url, "count", DEFAULT_DEPTH_COUNT));
+        Book book = book(quote, count);
+        String timestamp = "," + quote.timestamp / 1000;
+        StringBuilder out = bookBuilder(count);
+        out.append("{\"error\":[],\"result\":{\"").append(symbol(instrument)).append("\":{\"asks\":");
+        appendAsks(out, book, instrument, count, timestamp).append(",\"bids\":");
+        appendBids(out, book, instrument, count, timestamp);
+        return json(out.append("}}}"));
+    }
+
+    private static MockResponse unknownPair() {
+        return json("{\"error\":[\"EQuery:Unknown asset pair\"]}");
+    }
+
+    @Override
+    void onMessage(SimulatorSession session, String text) {
+        JsonNode request = parse(text);
+        if (request == null) {
+            session.send("{\"errorMessage\":\"Malformed request\",\"event\":\"error\",\"status\":\"error\"}");
+            return;
+        }
+        String event = request.path("event").asText();
+        if ("ping".equals(event)) {
+            session.send("{\"event\":\"pong\",\"reqid\":" + request.path("reqid").asLong() + "}");
+            return;
+        }
+        if (!"subscribe".equals(event) && !"unsubscribe".equals(event)) {
+            session.send("{\"errorMessage\":\"Unsupported event\",\"event\":\"error\",\"status\":\"error\"}");
+            return;
+        }
+        boolean subscribe = "subscribe".equals(event);
+        JsonNode subscription = request.path("subscription");
+        String subscriptionName = subscription.path("name").asText();
+        Channel channel = "ticker".equals(subscriptionName) ? Channel.TICKER
+                : "book".equals(subscriptionName) ? Channel.BOOK : null;
+
+        synchronized (session) {
+            if (channel == Channel.BOOK) {
+                session.setBookDepth(subscription.path("depth").asInt(DEFAULT_BOOK_DEPTH));
+            }
+            String channelName = channel == Channel.BOOK
+                    ? bookChannelName(session.getBookDepth()) : subscriptionName;
+            for (JsonNode pair : request.path("pair")) {
+                String name = pair.asText();
+                Instrument instrument = instrument(name);
+                StringBuilder status = new StringBuilder(200).append('{');
+                if (channel == null || instrument == null) {
+                    status.append("\"errorMessage\":\"")
+                            .append(channel == null ? "Subscription name invalid" : "Currency pair not supported")
+                            .append("\",\"event\":\"subscriptionStatus\",\"pair\":");
+                    appendString(status, name).append(",\"status\":\"error\",\"subscription\":{\"name\":");
+                    appendString(status, subscriptionName).append("}}");
+                    session.send(status.toString());
+                    continue;
+                }
+                status.append("\"channelID\":").append(channelId(instrument, channel))
+                        .append(",\"channelName\":\"").append(channelName)
+                        .append("\",\"event\":\"subscriptionStatus\",\"pair\":");
+                appendString(status, name).append(",\"status\":\"")
+                        .append(subscribe ? "subscribed" : "unsubscribed")
+                        .append("\",\"subscription\":{\"name\":\"").append(subscriptionName).append("\"}}");
+                session.send(status.toString());
+
+                if (!subscribe) {
+                    session.unsubscribe(channel, instrument.index);
+                } else if (!session.isSubscribed(channel, instrument.index)) {
+                    session.subscribe(channel, instrument.index);
+                    if (channel == Channel.BOOK) {
+                        session.send(bookMessage(quote(instrument), session.getBookDepth()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static int channelId(Instrument instrument, Channel channel) {
+        return 2 * instrument.index + (channel == Channel.BOOK ? 1 : 0);
+    }
+
+    /**
+     * Kraken names book channels after their depth, e.g. book-10.
+     */
+    private static String bookChannelName(int depth) {
+        return "book-" + depth;
+    }
+
+    @Override
+    String tickerMessage(Quote quote) {
+        StringBuilder out = new StringBuilder(400);
+        out.append('[').append(channelId(quote.instrument, Channel.TICKER)).append(',');
+        appendTicker(out, quote);
+        return out.append(",\"ticker\",\"").append(wsName(quote.instrument)).append("\"]").toString();
+    }
+
+    @Override
+    String bookMessage(Quote quote, int depth) {
+        Instrument instrument = quote.instrument;
+        Book book = book(quote, depth);
+        // Levels are [price, volume, timestamp], the timestamp in seconds with decimals
+        StringBuilder timestamp = new StringBuilder(",\"");
+        appendDecimal(timestamp, quote.timestamp / 1000.0, 6).append('"');
+        StringBuilder out = bookBuilder(depth);
+        out.append('[').append(channelId(instrument, Channel.BOOK)).append(",{\"as\":");
+        appendAsks(out, book, instrument, depth, timestamp.toString()).append(",\"bs\":");
+        appendBids(out, book, instrument, depth, timestamp.toString());
+        return out.append("},\"").append(bookChannelName(depth)).append("\",\"")
+                .append(wsName(instrument)).append("\"]").toString();
+    }
+}
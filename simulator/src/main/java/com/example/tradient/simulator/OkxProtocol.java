@@ -0,0 +1,319 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.simulator.SimulatedMarket.Book;
+import com.example.tradient.simulator.SimulatedMarket.Instrument;
+import com.example.tradient.simulator.SimulatedMarket.Quote;
+import com.example.tradient.simulator.SimulatorSession.Channel;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * OKX V5: REST under {@code /api/v5} and the public stream at {@code /ws/v5/public}.
+ * <p>
+ * Channels are {@code tickers} and the order book channels {@code books} (400 levels),
+ * {@code books5}, {@code books50-l2-tbt} and {@code bbo-tbt}. Every book message is a
+ * full snapshot of the top levels with its checksum, which is what OkxWebSocketProvider
+ * expects; OKX itself sends incremental updates after the first snapshot. A text
+ * {@code ping} is answered with {@code pong}.
+ */
+final class OkxProtocol extends ExchangeProtocol {
+
+    private static final int DEFAULT_BOOK_SIZE = 1;
+    private static final int FULL_BOOK_DEPTH = 400;
+    // OKX checksums the top 25 levels of each side
+    private static final int CHECKSUM_LEVELS = 25;
+
+    private final AtomicLong connectionIds = new AtomicLong();
+    private volatile String instrumentsList;
+
+    OkxProtocol(int exchangeIndex, SimulatedMarket market, SimulatorSettings settings,
+                SimulatorStats.ExchangeStats stats) {
+        super("okx", exchangeIndex, market, settings, stats);
+    }
+
+    @Override
+    String symbol(Instrument instrument) {
+        return instrument.base + "-" + instrument.quote;
+    }
+
+    @Override
+    String webSocketPath() {
+        return "/ws/v5/public";
+    }
+
+    @Override
+    String rateLimitBody() {
+        return "{\"code\":\"50011\",\"msg\":\"Too Many Requests\",\"data\":[]}";
+    }
+
+    @Override
+    String serverErrorBody() {
+        return "{\"code\":\"50001\",\"msg\":\"Service temporarily unavailable. Try again later\",\"data\":[]}";
+    }
+
+    @Override
+    MockResponse handleRest(String path, HttpUrl url) {
+        switch (path) {
+            case "/api/v5/public/time":
+                return json(data("{\"ts\":\"" + System.currentTimeMillis() + "\"}"));
+            case "/api/v5/public/instruments":
+                return instruments(url);
+            case "/api/v5/market/ticker":
+                return ticker(url);
+            case "/api/v5/market/tickers":
+                return tickers(url);
+            case "/api/v5/market/books":
+                return books(url);
+            default:
+                return null;
+        }
+    }
+
+    private static String data(String elements) {
+        return "{\"code\":\"0\",\"msg\":\"\",\"data\":[" + elements + "]}";
+    }
+
+    private static MockResponse unknownInstrument() {
+        return json("{\"code\":\"51001\",\"msg\":\"Instrument ID does not exist\",\"data\":[]}");
+    }
+
+    private static MockResponse spotOnly() {
+        return json("{\"code\":\"51000\",\"msg\":\"Parameter instType error\",\"data\":[]}");
+    }
+
+    private MockResponse instruments(HttpUrl url) {
+        if (!"SPOT".equals(url.queryParameter("instType"))) {
+            return spotOnly();
+        }
+        String list = instrumentsList;
+        if (list == null) {
+            StringBuilder out = new StringBuilder(300 * instruments().size());
+            for (Instrument instrument : instruments()) {
+                if (instrument.index > 0) {
+                    out.append(',');
+                }
+                out.append("{\"instType\":\"SPOT\",\"instId\":\"").append(symbol(instrument))
+                        .append("\",\"baseCcy\":\"").append(instrument.base)
+                        .append("\",\"quoteCcy\":\"").append(instrument.quote).append("\",\"tickSz\":");
+                appendPrice(out, instrument, instrument.tick).append(",\"lotSz\":");
+                appendSize(out, instrument, instrument.sizeUnit).append(",\"minSz\":");
+                appendSize(out, instrument, instrument.sizeUnit).append(",\"state\":\"live\"}");
+            }
+            list = data(out.toString());
+            instrumentsList = list;
+        }
+        return json(list);
+    }
+
+    private MockResponse ticker(HttpUrl url) {
+        Instrument instrument = instrument(url.queryParameter("instId"));
+        if (instrument == null) {
+            return unknownInstrument();
+        }
+        StringBuilder out = new StringBuilder(400);
+        appendTicker(out, quote(instrument));
+        return json(data(out.toString()));
+    }
+
+    private MockResponse tickers(HttpUrl url) {
+        if (!"SPOT".equals(url.queryParameter("instType"))) {
+            return spotOnly();
+        }
+        StringBuilder out = new StringBuilder(400 * instruments().size());
+        for (Instrument instrument : instruments()) {
+            if (instrument.index > 0) {
+                out.append(',');
+            }
+            appendTicker(out, quote(instrument));
+        }
+        return json(data(out.toString()));
+    }
+
+    private void appendTicker(StringBuilder out, Quote quote) {
+        Instrument instrument = quote.instrument;
+        out.append("{\"instType\":\"SPOT\",\"instId\":\"").append(symbol(instrument)).append("\",\"last\":");
+        appendPrice(out, instrument, quote.last).append(",\"lastSz\":");
+        appendSize(out, instrument, quote.lastSize).append(",\"askPx\":");
+        appendPrice(out, instrument, quote.ask).append(",\"askSz\":");
+        appendSize(out, instrument, quote.askSize).append(",\"bidPx\":");
+        appendPrice(out, instrument, quote.bid).append(",\"bidSz\":");
+        appendSize(out, instrument, quote.bidSize).append(",\"open24h\":");
+        appendPrice(out, instrument, quote.open24h).append(",\"high24h\":");
+        appendPrice(out, instrument, quote.high24h).append(",\"low24h\":");
+        appendPrice(out, instrument, quote.low24h).append(",\"volCcy24h\":\"");
+        appendDecimal(out, quote.volume24h * quote.last, 2).append("\",\"vol24h\":");
+        appendSize(out, instrument, quote.volume24h).append(",\"ts\":\"").append(quote.timestamp).append("\"}");
+    }
+
+    private MockResponse books(HttpUrl url) {
+        Instrument instrument = instrument(url.queryParameter("instId"));
+        if (instrument == null) {
+            return unknownInstrument();
+        }
+        int size = Math.max(1, intParameter(url, "sz", DEFAULT_BOOK_SIZE));
+        StringBuilder out = bookBuilder(size);
+        appendBook(out, quote(instrument), size, false);
+        return json(data(out.toString()));
+    }
+
+    /**
+     * Book levels as [price, size, "0", orders], the third element being deprecated.
+     */
+    private void appendBook(StringBuilder out, Quote quote, int depth, boolean withChecksum) {
+        Instrument instrument = quote.instrument;
+        Book book = book(quote, depth);
+        out.append("{\"asks\":");
+        appendAsks(out, book, instrument, depth, ",\"0\",\"1\"").append(",\"bids\":");
+        appendBids(out, book, instrument, depth, ",\"0\",\"1\"").append(",\"ts\":\"").append(quote.timestamp).append('"');
+        if (withChecksum) {
+            out.append(",\"checksum\":").append(checksum(book, instrument))
+                    .append(",\"prevSeqId\":-1,\"seqId\":").append(quote.sequence);
+        }
+        out.append('}');
+    }
+
+    /**
+     * CRC32 of the top levels as OKX computes it: bid and ask levels alternating,
+     * each as price:size, joined with colons, as a signed 32-bit integer.
+     */
+    private static int checksum(Book book, Instrument instrument) {
+        StringBuilder text = new StringBuilder(40 * CHECKSUM_LEVELS);
+        for (int i = 0; i < CHECKSUM_LEVELS; i++) {
+            if (i < book.bidPrices.length) {
+                appendLevel(text, instrument, book.bidPrices[i], book.bidSizes[i]);
+            }
+            if (i < book.askPrices.length) {
+                appendLevel(text, instrument, book.askPrices[i], book.askSizes[i]);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(text.toString().getBytes(StandardCharsets.US_ASCII));
+        return (int) crc.getValue();
+    }
+
+    private static void appendLevel(StringBuilder text, Instrument instrument, double price, double size) {
+        if (text.length() > 0) {
+            text.append(':');
+        }
+        appendDecimal(text, price, instrument.priceDecimals).append(':');
+        appendDecimal(text, size, instrument.sizeDecimals);
+    }
+
+    @Override
+    void onOpen(SimulatorSession session, String path) {
+        session.setConnectionId(Long.toHexString(0x5100_0000L + connectionIds.incrementAndGet()));
+    }
+
+    @Override
+    void onMessage(SimulatorSession session, String text) {
+        if ("ping".equals(text)) {
+            session.send("pong");
+            return;
+        }
+        JsonNode request = parse(text);
+        String op = request != null ? request.path("op").asText() : "";
+        if (!"subscribe".equals(op) && !"unsubscribe".equals(op)) {
+            session.send("{\"event\":\"error\",\"code\":\"60012\",\"msg\":\"Invalid request: " + text.replace("\"", "'")
+                    + "\",\"connId\":\"" + session.getConnectionId() + "\"}");
+            return;
+        }
+        boolean subscribe = "subscribe".equals(op);
+
+        synchronized (session) {
+            for (JsonNode arg : request.path("args")) {
+                String channelName = arg.path("channel").asText();
+                String instId = arg.path("instId").asText();
+                Instrument instrument = instrument(instId);
+                int depth = bookDepth(channelName);
+                Channel channel = "tickers".equals(channelName) ? Channel.TICKER : depth > 0 ? Channel.BOOK : null;
+                if (channel == null || instrument == null) {
+                    session.send("{\"event\":\"error\",\"code\":\"60018\",\"msg\":\"Wrong URL or channel:"
+                            + channelName + ",instId:" + instId + " doesn't exist\",\"connId\":\""
+                            + session.getConnectionId() + "\"}");
+                    continue;
+                }
+
+                StringBuilder reply = new StringBuilder(120);
+                reply.append("{\"event\":\"").append(op).append("\",\"arg\":{\"channel\":");
+                appendString(reply, channelName).append(",\"instId\":");
+                appendString(reply, instId).append("},\"connId\":\"").append(session.getConnectionId()).append("\"}");
+                session.send(reply.toString());
+
+                if (!subscribe) {
+                    session.unsubscribe(channel, instrument.index);
+                } else {
+                    if (channel == Channel.BOOK) {
+                        session.setBookDepth(depth);
+                    }
+                    if (!session.isSubscribed(channel, instrument.index)) {
+                        session.subscribe(channel, instrument.index);
+                        if (channel == Channel.BOOK) {
+                            session.send(bookMessage(quote(instrument), depth));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Levels per side of an order book channel, or 0 for other channels
+     */
+    private static int bookDepth(String channel) {
+        switch (channel) {
+            case "bbo-tbt":
+                return 1;
+            case "books5":
+                return 5;
+            case "books50-l2-tbt":
+                return 50;
+            case "books":
+            case "books-l2-tbt":
+                return FULL_BOOK_DEPTH;
+            default:
+                return 0;
+        }
+    }
+
+    private static String bookChannel(int depth) {
+        switch (depth) {
+            case 1:
+                return "bbo-tbt";
+            case 5:
+                return "books5";
+            case 50:
+                return "books50-l2-tbt";
+            default:
+                return "books";
+        }
+    }
+
+    @Override
+    String tickerMessage(Quote quote) {
+        StringBuilder out = new StringBuilder(400);
+        out.append("{\"arg\":{\"channel\":\"tickers\",\"instId\":\"").append(symbol(quote.instrument))
+                .append("\"},\"data\":[");
+        appendTicker(out, quote);
+        return out.append("]}").toString();
+    }
+
+    @Override
+    String bookMessage(Quote quote, int depth) {
+        String channel = bookChannel(depth);
+        StringBuilder out = bookBuilder(depth);
+        out.append("{\"arg\":{\"channel\":\"").append(channel).append("\",\"instId\":\"")
+                .append(symbol(quote.instrument)).append('"').append('}');
+        if ("books".equals(channel)) {
+            out.append(",\"action\":\"snapshot\"");
+        }
+        out.append(",\"data\":[");
+        appendBook(out, quote, depth, true);
+        return out.append("]}").toString();
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.tradient.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Random-walk prices of the simulated markets on every simulated exchange.
+ * <p>
+ * Each instrument has one fair value following a geometric Brownian motion. Each
+ * exchange quotes around it with a deviation of its own that reverts to zero
+ * (an Ornstein-Uhlenbeck process), so prices on two exchanges drift apart and back
+ * together the way cross-exchange spreads do. Both processes are advanced lazily, by
+ * the time elapsed since the instrument was last quoted, so the cost is per update
+ * rather than per instrument and tick.
+ * <p>
+ * {@link #advance} is called by a single market thread; the latest {@link Quote} of
+ * every market can be read from any thread.
+ */
+final class SimulatedMarket {
+
+    private static final String QUOTE_ASSET = "USDT";
+
+    // Real assets first so the listings look familiar; the rest are synthetic
+    private static final String[] KNOWN_BASES = {
+            "BTC", "ETH", "SOL", "BNB", "XRP", "ADA", "DOGE", "AVAX", "DOT", "LINK",
+            "LTC", "TRX", "ATOM", "UNI", "XLM", "NEAR", "APT", "ARB", "OP", "FIL"};
+    private static final double[] KNOWN_PRICES = {
+            60_000, 3_000, 150, 550, 0.55, 0.45, 0.12, 35, 7, 15,
+            80, 0.12, 9, 8, 0.11, 5, 9, 1.1, 2.5, 6};
+
+    // Rate at which an exchange's deviation from the fair value decays, per second
+    private static final double MEAN_REVERSION_PER_SECOND = 0.5;
+    // Distance between two order book levels, as a fraction of the price
+    private static final double LEVEL_STEP = 0.0001;
+    // Typical notional of one order book level and of one trade, in quote currency
+    private static final double LEVEL_NOTIONAL = 25_000;
+    private static final double TRADE_NOTIONAL = 2_000;
+    private static final double DAY_SECONDS = 86_400;
+    // A market thread that fell behind publishes at most this much time worth of updates at once
+    private static final double MAX_CATCH_UP_SECONDS = 0.1;
+
+    /**
+     * Receives every published quote, on the market thread.
+     */
+    interface Listener {
+        void onQuote(int exchange, Quote quote);
+    }
+
+    private final SimulatorSettings settings;
+    private final List<Instrument> instruments;
+    private final int exchangeCount;
+    private final Random random;
+
+    private final double[] fairValue;
+    private final long[] fairValueNanos;
+    private final double[][] deviation;
+    private final long[][] deviationNanos;
+    private final List<AtomicReferenceArray<Quote>> quotes;
+    private final long[] sequences;
+    private final double[] pendingUpdates;
+    private long lastAdvanceNanos;
+
+    SimulatedMarket(SimulatorSettings settings, int exchangeCount, long nowNanos) {
+        this.settings = settings;
+        this.exchangeCount = exchangeCount;
+        this.random = new Random(settings.getSeed());
+
+        int symbols = settings.getSymbols();
+        List<Instrument> list = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            String base;
+            double price;
+            if (i < KNOWN_BASES.length) {
+                base = KNOWN_BASES[i];
+                price = KNOWN_PRICES[i];
+            } else {
+                base = "SIM" + i;
+                // Log-uniform between 0.01 and 1000
+                price = Math.pow(10, -2 + 5 * random.nextDouble());
+            }
+            list.add(new Instrument(i, base, QUOTE_ASSET, price));
+        }
+        this.instruments = Collections.unmodifiableList(list);
+
+        fairValue = new double[symbols];
+        fairValueNanos = new long[symbols];
+        for (int i = 0; i < symbols; i++) {
+            fairValue[i] = instruments.get(i).initialPrice;
+            fairValueNanos[i] = nowNanos;
+        }
+
+        deviation = new double[exchangeCount][symbols];
+        deviationNanos = new long[exchangeCount][symbols];
+        quotes = new ArrayList<>(exchangeCount);
+        sequences = new long[exchangeCount];
+        pendingUpdates = new double[exchangeCount];
+        long now = System.currentTimeMillis();
+        for (int exchange = 0; exchange < exchangeCount; exchange++) {
+            AtomicReferenceArray<Quote> exchangeQuotes = new AtomicReferenceArray<>(symbols);
+            quotes.add(exchangeQuotes);
+            for (int i = 0; i < symbols; i++) {
+                // Start from the stationary distribution of the deviation
+                deviation[exchange][i] = settings.getDislocation() * random.nextGaussian();
+                deviationNanos[exchange][i] = nowNanos;
+                exchangeQuotes.set(i, quote(exchange, instruments.get(i), null, nowNanos, now));
+            }
+        }
+        lastAdvanceNanos = nowNanos;
+    }
+
+    List<Instrument> getInstruments() {
+        return instruments;
+    }
+
+    /**
+     * Latest quote of a market on an exchange.
+     */
+    Quote getQuote(int exchange, int instrument) {
+        return quotes.get(exchange).get(instrument);
+    }
+
+    /**
+     * Publish the updates that came due since the last call, to random markets so
+     * each market updates at the configured rate on average. Market thread only.
+     *
+     * @return Number of quotes published
+     */
+    int advance(long nowNanos, Listener listener) {
+        double elapsedSeconds = Math.min(MAX_CATCH_UP_SECONDS, (nowNanos - lastAdvanceNanos) / 1e9);
+        lastAdvanceNanos = nowNanos;
+        if (elapsedSeconds <= 0) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        int symbols = instruments.size();
+        double perExchange = settings.getUpdatesPerSecond() * symbols * elapsedSeconds;
+        int published = 0;
+        for (int exchange = 0; exchange < exchangeCount; exchange++) {
+            pendingUpdates[exchange] += perExchange;
+            int due = (int) pendingUpdates[exchange];
+            pendingUpdates[exchange] -= due;
+
+            AtomicReferenceArray<Quote> exchangeQuotes = quotes.get(exchange);
+            for (int n = 0; n < due; n++) {
+                Instrument instrument = instruments.get(random.nextInt(symbols));
+                Quote quote = quote(exchange, instrument, exchangeQuotes.get(instrument.index), nowNanos, now);
+                exchangeQuotes.set(instrument.index, quote);
+                listener.onQuote(exchange, quote);
+                published++;
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Next quote of a market: move the fair value and the exchange's deviation by the
+     * time since they last moved, quote around the result and print one trade.
+     */
+    private Quote quote(int exchange, Instrument instrument, Quote previous, long nowNanos, long now) {
+        int i = instrument.index;
+
+        double fairSeconds = (nowNanos - fairValueNanos[i]) / 1e9;
+        if (fairSeconds > 0) {
+            double volatility = settings.getVolatility();
+            fairValue[i] *= Math.exp(volatility * Math.sqrt(fairSeconds) * random.nextGaussian()
+                    - 0.5 * volatility * volatility * fairSeconds);
+            fairValueNanos[i] = nowNanos;
+        }
+
+        double deviationSeconds = (nowNanos - deviationNanos[exchange][i]) / 1e9;
+        if (deviationSeconds > 0) {
+            double decay = Math.exp(-MEAN_REVERSION_PER_SECOND * deviationSeconds);
+            deviation[exchange][i] = deviation[exchange][i] * decay
+                    + settings.getDislocation() * Math.sqrt(1 - decay * decay) * random.nextGaussian();
+            deviationNanos[exchange][i] = nowNanos;
+        }
+
+        double mid = fairValue[i] * (1 + deviation[exchange][i]);
+        double halfSpread = mid * settings.getSpread() / 2;
+        double tick = instrument.tick;
+        double bid = Math.max(tick, Math.floor((mid - halfSpread) / tick) * tick);
+        double ask = Math.max(bid + tick, Math.ceil((mid + halfSpread) / tick) * tick);
+
+        double bidSize = instrument.levelSize(random);
+        double askSize = instrument.levelSize(random);
+        boolean buy = random.nextBoolean();
+        double lastSize = instrument.roundSize(-Math.log(1 - random.nextDouble()) * TRADE_NOTIONAL / mid);
+        double last = buy ? ask : bid;
+
+        long sequence = ++sequences[exchange];
+        if (previous == null) {
+            return new Quote(instrument, sequence, now, bid, bidSize, ask, askSize, last, lastSize, buy,
+                    last, last, last, instrument.dailyVolume, 0, random.nextLong(), null);
+        }
+        double sinceLast = Math.max(0, (now - previous.timestamp) / 1000.0);
+        double volume = Math.max(0, previous.volume24h * (1 - Math.min(1, sinceLast / DAY_SECONDS)) + lastSize);
+        return new Quote(instrument, sequence, now, bid, bidSize, ask, askSize, last, lastSize, buy,
+                previous.open24h, Math.max(previous.high24h, last), Math.min(previous.low24h, last),
+                volume, previous.trades24h + 1, random.nextLong(), previous);
+    }
+
+    /**
+     * A market listed on every simulated exchange. Exchanges render its symbol in their
+     * own format.
+     */
+    static final class Instrument {
+        final int index;
+        final String base;
+        final String quote;
+        final double initialPrice;
+        final int priceDecimals;
+        final int sizeDecimals;
+        final double tick;
+        final double sizeUnit;
+        final double dailyVolume;
+
+        Instrument(int index, String base, String quote, double initialPrice) {
+            this.index = index;
+            this.base = base;
+            this.quote = quote;
+            this.initialPrice = initialPrice;
+            // About six significant digits for prices and four for level sizes
+            this.priceDecimals = Math.max(2, 5 - (int) Math.floor(Math.log10(initialPrice)));
+            this.sizeDecimals = Math.max(0, Math.min(8,
+                    3 - (int) Math.floor(Math.log10(LEVEL_NOTIONAL / initialPrice))));
+            this.tick = Math.pow(10, -priceDecimals);
+            this.sizeUnit = Math.pow(10, -sizeDecimals);
+            this.dailyVolume = roundSize(1_000 * LEVEL_NOTIONAL / initialPrice);
+        }
+
+        double roundSize(double size) {
+            return Math.max(sizeUnit, Math.round(size / sizeUnit) * sizeUnit);
+        }
+
+        double levelSize(Random random) {
+            return roundSize(LEVEL_NOTIONAL / initialPrice * (0.25 + 1.5 * random.nextDouble()));
+        }
+    }
+
+    /**
+     * Immutable quote of a market on one exchange. Order book levels below the top are
+     * derived from a seed when asked for, so a quote stays small however deep the book.
+     */
+    static final class Quote {
+        final Instrument instrument;
+        final long sequence;
+        final long timestamp;
+        final double bid;
+        final double bidSize;
+        final double ask;
+        final double askSize;
+        final double last;
+        final double lastSize;
+        final boolean buyerMaker;
+        final double open24h;
+        final double high24h;
+        final double low24h;
+        final double volume24h;
+        final long trades24h;
+        final long bookSeed;
+
+        // Top of book and seed of the previous quote, to derive the book changes
+        private final double previousBid;
+        private final double previousBidSize;
+        private final double previousAsk;
+        private final double previousAskSize;
+        private final long previousBookSeed;
+
+        Quote(Instrument instrument, long sequence, long timestamp, double bid, double bidSize,
+              double ask, double askSize, double last, double lastSize, boolean buy,
+              double open24h, double high24h, double low24h, double volume24h, long trades24h,
+              long bookSeed, Quote previous) {
+            this.instrument = instrument;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.bid = bid;
+            this.bidSize = bidSize;
+            this.ask = ask;
+            this.askSize = askSize;
+            this.last = last;
+            this.lastSize = lastSize;
+            this.buyerMaker = !buy;
+            this.open24h = open24h;
+            this.high24h = high24h;
+            this.low24h = low24h;
+            this.volume24h = volume24h;
+            this.trades24h = trades24h;
+            this.bookSeed = bookSeed;
+            // Not the previous quote itself, which would chain every quote ever published
+            this.previousBid = previous != null ? previous.bid : 0;
+            this.previousBidSize = previous != null ? previous.bidSize : 0;
+            this.previousAsk = previous != null ? previous.ask : 0;
+            this.previousAskSize = previous != null ? previous.askSize : 0;
+            this.previousBookSeed = previous != null ? previous.bookSeed : 0;
+        }
+
+        /**
+         * Order book with up to {@code depth} levels per side, the first at the quote.
+         */
+        Book book(int depth) {
+            return new Book(instrument, bid, bidSize, ask, askSize, bookSeed, depth);
+        }
+
+        /**
+         * Order book of the previous quote, or null for the first quote of a market.
+         */
+        Book previousBook(int depth) {
+            if (previousBid <= 0) {
+                return null;
+            }
+            return new Book(instrument, previousBid, previousBidSize, previousAsk, previousAskSize,
+                    previousBookSeed, depth);
+        }
+    }
+
+    /**
+     * Price levels of an order book, best first, one basis point apart.
+     */
+    static final class Book {
+        final double[] bidPrices;
+        final double[] bidSizes;
+        final double[] askPrices;
+        final double[] askSizes;
+
+        Book(Instrument instrument, double bid, double bidSize, double ask, double askSize, long seed, int depth) {
+            // Bids must stay positive however deep the book
+            int bidLevels = depth;
+            double step = Math.max(1, Math.round(bid * LEVEL_STEP / instrument.tick)) * instrument.tick;
+            while (bidLevels > 1 && bid - (bidLevels - 1) * step <= 0) {
+                bidLevels--;
+            }
+            bidPrices = new double[bidLevels];
+            bidSizes = new double[bidLevels];
+            askPrices = new double[depth];
+            askSizes = new double[depth];
+
+            Random random = new Random(seed);
+            for (int level = 0; level < depth; level++) {
+                // Deeper levels hold more size, as on real books
+                double bidLevelSize = level == 0 ? bidSize
+                        : instrument.roundSize(instrument.levelSize(random) * (1 + 0.1 * level));
+                double askLevelSize = level == 0 ? askSize
+                        : instrument.roundSize(instrument.levelSize(random) * (1 + 0.1 * level));
+                if (level < bidLevels) {
+                    bidPrices[level] = bid - level * step;
+                    bidSizes[level] = bidLevelSize;
+                }
+                askPrices[level] = ask + level * step;
+                askSizes[level] = askLevelSize;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.util.AppLog;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Routes requests to the simulated exchanges by the first path segment, e.g.
+ * {@code /binance/api/v3/depth} to Binance's {@code /api/v3/depth}, and applies the
+ * configured rate limit, errors and latency to REST responses. WebSocket upgrades
+ * open a {@link SimulatorSession}.
+ */
+final class SimulatorDispatcher extends Dispatcher {
+
+    private static final String TAG = "SimulatorDispatcher";
+
+    private final Map<String, ExchangeProtocol> protocols;
+    private final SimulatorSettings settings;
+    private final ScheduledExecutorService delivery;
+
+    SimulatorDispatcher(Map<String, ExchangeProtocol> protocols, SimulatorSettings settings,
+                        ScheduledExecutorService delivery) {
+        this.protocols = protocols;
+        this.settings = settings;
+        this.delivery = delivery;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        ExchangeProtocol protocol = url != null && url.pathSize() > 0
+                ? protocols.get(url.pathSegments().get(0)) : null;
+        if (protocol == null) {
+            return ExchangeProtocol.json(404, "{\"error\":\"Unknown exchange, expected one of "
+                    + protocols.keySet() + " as the first path segment\"}");
+        }
+        String path = url.encodedPath().substring(protocol.getName().length() + 1);
+
+        if ("websocket".equalsIgnoreCase(request.getHeader("Upgrade"))) {
+            return new MockResponse().withWebSocketUpgrade(new SimulatorSession(protocol, path, delivery));
+        }
+
+        protocol.stats.restRequests.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MockResponse response;
+        if (!protocol.tryAcquireRequest(System.currentTimeMillis())) {
+            protocol.stats.rateLimited.increment();
+            response = ExchangeProtocol.json(429, protocol.rateLimitBody()).setHeader("Retry-After", "1");
+        } else if (settings.getErrorRate() > 0 && random.nextDouble() < settings.getErrorRate()) {
+            protocol.stats.restErrors.increment();
+            response = ExchangeProtocol.json(503, protocol.serverErrorBody());
+        } else {
+            try {
+                response = protocol.handleRest(path, url);
+            } catch (RuntimeException e) {
+                AppLog.e(TAG, "Error answering " + url, e);
+                response = ExchangeProtocol.json(500, protocol.serverErrorBody());
+            }
+            if (response == null) {
+                response = ExchangeProtocol.json(404, "{\"error\":\"No such endpoint: " + path + "\"}");
+            }
+        }
+
+        long latencyMillis = settings.getRestLatencyMillis();
+        if (settings.getJitterMillis() > 0) {
+            latencyMillis += random.nextLong(settings.getJitterMillis() + 1);
+        }
+        if (latencyMillis > 0) {
+            response.setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+}
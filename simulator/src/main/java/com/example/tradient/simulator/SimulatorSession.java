@@ -0,0 +1,212 @@
+package com.example.tradient.simulator;
+
+import com.example.tradient.util.AppLog;
+
+import java.util.BitSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Server side of one WebSocket connection to a simulated exchange: the channels and
+ * markets the client subscribed to, and delivery of messages with the configured
+ * latency and faults.
+ * <p>
+ * Subscriptions change on the connection's reader thread while the market thread
+ * publishes, so both hold the session's lock; see {@link ExchangeProtocol#publish}.
+ */
+final class SimulatorSession extends WebSocketListener {
+
+    private static final String TAG = "SimulatorSession";
+
+    /**
+     * Kinds of stream a client can subscribe to for a market.
+     */
+    enum Channel {
+        TICKER,
+        BOOK
+    }
+
+    private final ExchangeProtocol protocol;
+    private final String path;
+    private final SimulatorSettings settings;
+    private final ScheduledExecutorService delivery;
+    private final SimulatorStats.ExchangeStats stats;
+
+    private final BitSet tickers = new BitSet();
+    private final BitSet books = new BitSet();
+    private int bookDepth;
+    private volatile WebSocket webSocket;
+    private volatile String connectionId = "";
+    private final AtomicBoolean open = new AtomicBoolean();
+
+    // Messages are delivered in order even when jitter gives a later one a shorter delay
+    private long lastDueNanos;
+
+    SimulatorSession(ExchangeProtocol protocol, String path, ScheduledExecutorService delivery) {
+        this.protocol = protocol;
+        this.path = path;
+        this.settings = protocol.settings;
+        this.delivery = delivery;
+        this.stats = protocol.stats;
+        this.bookDepth = settings.getDepth();
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+        this.webSocket = webSocket;
+        open.set(true);
+        stats.connections.incrementAndGet();
+        protocol.sessions.add(this);
+        AppLog.d(TAG, protocol.getName() + " connection opened on " + path);
+        protocol.onOpen(this, path);
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+        try {
+            protocol.onMessage(this, text);
+        } catch (RuntimeException e) {
+            AppLog.w(TAG, protocol.getName() + " cannot handle message " + text + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+        webSocket.close(code, null);
+        closed();
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+        closed();
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        closed();
+    }
+
+    private void closed() {
+        if (open.compareAndSet(true, false)) {
+            protocol.sessions.remove(this);
+            stats.connections.decrementAndGet();
+            AppLog.d(TAG, protocol.getName() + " connection closed");
+        }
+    }
+
+    /**
+     * Identifier some exchanges return in their acknowledgements.
+     */
+    String getConnectionId() {
+        return connectionId;
+    }
+
+    void setConnectionId(String connectionId) {
+        this.connectionId = connectionId;
+    }
+
+    synchronized void subscribe(Channel channel, int instrument) {
+        (channel == Channel.TICKER ? tickers : books).set(instrument);
+    }
+
+    synchronized void unsubscribe(Channel channel, int instrument) {
+        (channel == Channel.TICKER ? tickers : books).clear(instrument);
+    }
+
+    synchronized boolean isSubscribed(Channel channel, int instrument) {
+        return (channel == Channel.TICKER ? tickers : books).get(instrument);
+    }
+
+    /**
+     * Levels per side the client asked for in its book subscription. Books are capped
+     * at the configured depth, but the requested depth names the channel in messages.
+     */
+    synchronized int getBookDepth() {
+        return bookDepth;
+    }
+
+    synchronized void setBookDepth(int depth) {
+        this.bookDepth = Math.max(1, depth);
+    }
+
+    /**
+     * Send a message after the configured latency, or a malformed copy of it at the
+     * configured error rate.
+     */
+    synchronized void send(String message) {
+        if (!open.get()) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (settings.getErrorRate() > 0 && random.nextDouble() < settings.getErrorRate()) {
+            message = message.substring(0, message.length() / 2);
+            stats.malformedMessages.increment();
+        }
+
+        long latencyMillis = settings.getWsLatencyMillis();
+        if (settings.getJitterMillis() > 0) {
+            latencyMillis += random.nextLong(settings.getJitterMillis() + 1);
+        }
+        if (settings.getWsLatencyMillis() == 0 && settings.getJitterMillis() == 0) {
+            deliver(message);
+            return;
+        }
+
+        long now = System.nanoTime();
+        long due = Math.max(now + TimeUnit.MILLISECONDS.toNanos(latencyMillis), lastDueNanos);
+        lastDueNanos = due;
+        String delayed = message;
+        try {
+            delivery.schedule(() -> deliver(delayed), due - now, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Simulator shutting down
+        }
+    }
+
+    private void deliver(String message) {
+        WebSocket socket = webSocket;
+        if (socket == null || !open.get()) {
+            return;
+        }
+        // Refused once the client is 16 MiB behind; OkHttp then closes the connection
+        if (socket.send(message)) {
+            stats.messages.increment();
+            stats.messageBytes.add(message.length());
+        } else {
+            stats.droppedMessages.increment();
+            if (open.get()) {
+                AppLog.w(TAG, protocol.getName() + " client is too slow to read the stream; closing its connection");
+                closed();
+            }
+        }
+    }
+
+    /**
+     * Drop the connection without a close handshake, as a network failure would.
+     */
+    void disconnect() {
+        WebSocket socket = webSocket;
+        if (socket != null && open.get()) {
+            stats.disconnects.increment();
+            socket.cancel();
+            closed();
+        }
+    }
+
+    /**
+     * Close the connection cleanly, e.g. when the simulator stops.
+     */
+    void close() {
+        WebSocket socket = webSocket;
+        if (socket != null && open.get()) {
+            socket.close(1001, "Simulator stopping");
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.tradient.simulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable settings of an {@link ExchangeSimulator}: which exchanges it serves, the
+ * size and dynamics of the simulated markets, and the latency and faults it injects.
+ * Rates are per exchange, so five exchanges with 1000 symbols at 10 updates per second
+ * publish 50,000 updates per second in total.
+ */
+public final class SimulatorSettings {
+
+    /** Exchanges the simulator can serve, in the configuration's naming. */
+    public static final List<String> SUPPORTED_EXCHANGES = Collections.unmodifiableList(
+            Arrays.asList("binance", "coinbase", "kraken", "bybit", "okx"));
+
+    /** Deepest order book the simulator builds, per side. */
+    public static final int MAX_DEPTH = 1000;
+
+    private final String host;
+    private final int port;
+    private final List<String> exchanges;
+    private final int symbols;
+    private final double updatesPerSecond;
+    private final double volatility;
+    private final double dislocation;
+    private final double spread;
+    private final int depth;
+    private final long restLatencyMillis;
+    private final long wsLatencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final double disconnectsPerMinute;
+    private final int restRequestsPerSecond;
+    private final long seed;
+
+    private SimulatorSettings(Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.exchanges = Collections.unmodifiableList(new ArrayList<>(builder.exchanges));
+        this.symbols = builder.symbols;
+        this.updatesPerSecond = builder.updatesPerSecond;
+        this.volatility = builder.volatility;
+        this.dislocation = builder.dislocation;
+        this.spread = builder.spread;
+        this.depth = builder.depth;
+        this.restLatencyMillis = builder.restLatencyMillis;
+        this.wsLatencyMillis = builder.wsLatencyMillis;
+        this.jitterMillis = builder.jitterMillis;
+        this.errorRate = builder.errorRate;
+        this.disconnectsPerMinute = builder.disconnectsPerMinute;
+        this.restRequestsPerSecond = builder.restRequestsPerSecond;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Address the simulator listens on. */
+    public String getHost() {
+        return host;
+    }
+
+    /** Port the simulator listens on; 0 picks a free port. */
+    public int getPort() {
+        return port;
+    }
+
+    public List<String> getExchanges() {
+        return exchanges;
+    }
+
+    /** Number of markets listed on every exchange, all quoted in USDT. */
+    public int getSymbols() {
+        return symbols;
+    }
+
+    /** Quote updates per second of each market on each exchange. */
+    public double getUpdatesPerSecond() {
+        return updatesPerSecond;
+    }
+
+    /** Volatility of the fair value, as a fraction per square root of a second. */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    /**
+     * Typical deviation of an exchange's mid price from the fair value, as a fraction.
+     * Deviations of two exchanges in opposite directions are what the scanner finds.
+     */
+    public double getDislocation() {
+        return dislocation;
+    }
+
+    /** Bid-ask spread as a fraction of the mid price. */
+    public double getSpread() {
+        return spread;
+    }
+
+    /** Price levels per side of the simulated order books. */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** Delay before the response to a REST request. */
+    public long getRestLatencyMillis() {
+        return restLatencyMillis;
+    }
+
+    /** Delay of every WebSocket message. */
+    public long getWsLatencyMillis() {
+        return wsLatencyMillis;
+    }
+
+    /** Upper bound of the random delay added to each latency. */
+    public long getJitterMillis() {
+        return jitterMillis;
+    }
+
+    /**
+     * Fraction of REST requests answered with a server error, and of WebSocket messages
+     * replaced by a malformed one.
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /** Average number of times per minute each WebSocket connection is dropped. */
+    public double getDisconnectsPerMinute() {
+        return disconnectsPerMinute;
+    }
+
+    /** REST requests per second per exchange before answering 429; 0 for no limit. */
+    public int getRestRequestsPerSecond() {
+        return restRequestsPerSecond;
+    }
+
+    /** Seed of the random walks, so two runs publish the same prices. */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%s, %d symbols at %.1f updates/s, volatility %.4f, dislocation %.4f, spread %.4f, depth %d, "
+                        + "latency REST %d ms / WS %d ms (+%d ms jitter), error rate %.3f, "
+                        + "%.1f disconnects/min, REST limit %d/s, seed %d",
+                exchanges, symbols, updatesPerSecond, volatility, dislocation, spread, depth,
+                restLatencyMillis, wsLatencyMillis, jitterMillis, errorRate,
+                disconnectsPerMinute, restRequestsPerSecond, seed);
+    }
+
+    public static class Builder {
+        private String host = "127.0.0.1";
+        private int port = 8090;
+        private List<String> exchanges = SUPPORTED_EXCHANGES;
+        private int symbols = 100;
+        private double updatesPerSecond = 1.0;
+        private double volatility = 0.0001;
+        private double dislocation = 0.0005;
+        private double spread = 0.0002;
+        private int depth = 50;
+        private long restLatencyMillis = 0;
+        private long wsLatencyMillis = 0;
+        private long jitterMillis = 0;
+        private double errorRate = 0.0;
+        private double disconnectsPerMinute = 0.0;
+        private int restRequestsPerSecond = 0;
+        private long seed = 42;
+
+        public Builder setHost(String host) {
+            this.host = host;
+            return this;
+        }
+
+        public Builder setPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder setExchanges(List<String> exchanges) {
+            List<String> names = new ArrayList<>(exchanges.size());
+            for (String exchange : exchanges) {
+                names.add(exchange.trim().toLowerCase(Locale.ROOT));
+            }
+            this.exchanges = names;
+            return this;
+        }
+
+        public Builder setSymbols(int symbols) {
+            this.symbols = symbols;
+            return this;
+        }
+
+        public Builder setUpdatesPerSecond(double updatesPerSecond) {
+            this.updatesPerSecond = updatesPerSecond;
+            return this;
+        }
+
+        public Builder setVolatility(double volatility) {
+            this.volatility = volatility;
+            return this;
+        }
+
+        public Builder setDislocation(double dislocation) {
+            this.dislocation = dislocation;
+            return this;
+        }
+
+        public Builder setSpread(double spread) {
+            this.spread = spread;
+            return this;
+        }
+
+        public Builder setDepth(int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder setRestLatencyMillis(long restLatencyMillis) {
+            this.restLatencyMillis = restLatencyMillis;
+            return this;
+        }
+
+        public Builder setWsLatencyMillis(long wsLatencyMillis) {
+            this.wsLatencyMillis = wsLatencyMillis;
+            return this;
+        }
+
+        public Builder setJitterMillis(long jitterMillis) {
+            this.jitterMillis = jitterMillis;
+            return this;
+        }
+
+        public Builder setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder setDisconnectsPerMinute(double disconnectsPerMinute) {
+            this.disconnectsPerMinute = disconnectsPerMinute;
+            return this;
+        }
+
+        public Builder setRestRequestsPerSecond(int restRequestsPerSecond) {
+            this.restRequestsPerSecond = restRequestsPerSecond;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if a setting is out of range
+         */
+        public SimulatorSettings build() {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Invalid port: " + port);
+            }
+            if (exchanges.isEmpty()) {
+                throw new IllegalArgumentException("No exchange to simulate");
+            }
+            for (String exchange : exchanges) {
+                if (!SUPPORTED_EXCHANGES.contains(exchange)) {
+                    throw new IllegalArgumentException("Unsupported exchange: " + exchange
+                            + " (supported: " + String.join(", ", SUPPORTED_EXCHANGES) + ")");
+                }
+            }
+            if (symbols < 1) {
+                throw new IllegalArgumentException("At least one symbol is needed: " + symbols);
+            }
+            if (updatesPerSecond < 0 || volatility < 0 || dislocation < 0 || spread < 0) {
+                throw new IllegalArgumentException("Rates, volatility, dislocation and spread cannot be negative");
+            }
+            if (depth < 1 || depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH + ": " + depth);
+            }
+            if (restLatencyMillis < 0 || wsLatencyMillis < 0 || jitterMillis < 0) {
+                throw new IllegalArgumentException("Latencies cannot be negative");
+            }
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+            }
+            if (disconnectsPerMinute < 0 || restRequestsPerSecond < 0) {
+                throw new IllegalArgumentException("Disconnect and request rates cannot be negative");
+            }
+            return new SimulatorSettings(this);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.tradient.simulator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of what an {@link ExchangeSimulator} served, per exchange. Counters
+ * only grow; rates are the difference of two reads.
+ */
+public final class SimulatorStats {
+
+    private final Map<String, ExchangeStats> exchanges;
+
+    SimulatorStats(List<String> exchangeNames) {
+        Map<String, ExchangeStats> map = new LinkedHashMap<>();
+        for (String name : exchangeNames) {
+            map.put(name, new ExchangeStats(name));
+        }
+        this.exchanges = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return Totals of an exchange, or null if it is not simulated
+     */
+    public ExchangeStats get(String exchange) {
+        return exchanges.get(exchange);
+    }
+
+    public Collection<ExchangeStats> getExchanges() {
+        return exchanges.values();
+    }
+
+    public static final class ExchangeStats {
+        private final String exchange;
+        final LongAdder updates = new LongAdder();
+        final LongAdder restRequests = new LongAdder();
+        final LongAdder restErrors = new LongAdder();
+        final LongAdder rateLimited = new LongAdder();
+        final LongAdder messages = new LongAdder();
+        final LongAdder messageBytes = new LongAdder();
+        final LongAdder malformedMessages = new LongAdder();
+        final LongAdder droppedMessages = new LongAdder();
+        final LongAdder disconnects = new LongAdder();
+        final AtomicInteger connections = new AtomicInteger();
+
+        ExchangeStats(String exchange) {
+            this.exchange = exchange;
+        }
+
+        public String getExchange() {
+            return exchange;
+        }
+
+        /** Quote updates published, whether or not a client subscribed to them. */
+        public long getUpdates() {
+            return updates.sum();
+        }
+
+        /** REST requests received, including the ones answered with an error. */
+        public long getRestRequests() {
+            return restRequests.sum();
+        }
+
+        /** REST requests answered with an injected server error. */
+        public long getRestErrors() {
+            return restErrors.sum();
+        }
+
+        /** REST requests answered with 429 by the rate limit. */
+        public long getRateLimited() {
+            return rateLimited.sum();
+        }
+
+        /** WebSocket messages handed to a connection. */
+        public long getMessages() {
+            return messages.sum();
+        }
+
+        public long getMessageBytes() {
+            return messageBytes.sum();
+        }
+
+        /** WebSocket messages replaced by a malformed one. */
+        public long getMalformedMessages() {
+            return malformedMessages.sum();
+        }
+
+        /** WebSocket messages a connection refused because its client fell too far behind. */
+        public long getDroppedMessages() {
+            return droppedMessages.sum();
+        }
+
+        /** WebSocket connections dropped on purpose. */
+        public long getDisconnects() {
+            return disconnects.sum();
+        }
+
+        /** WebSocket connections open now. */
+        public int getConnections() {
+            return connections.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d updates, %d REST requests (%d errors, %d rate limited), %d connections, "
+                            + "%d messages (%d bytes, %d malformed, %d dropped), %d disconnects",
+                    exchange, getUpdates(), getRestRequests(), getRestErrors(), getRateLimited(), getConnections(),
+                    getMessages(), getMessageBytes(), getMalformedMessages(), getDroppedMessages(),
+                    getDisconnects());
+        }
+    }
+}